@@ -508,6 +508,33 @@ public class BatchInserterImpl implements BatchInserter
         {
             fileSystem.deleteFile( countsStoreFile );
         }
+        // Degrees, adjacency lists, group directories, property columns and property statistics of nodes aren't maintained by the batch inserter,
+        // have them rebuilt on next startup if those stores are enabled
+        Path nodeDegreesStoreFile = databaseLayout.nodeDegreesStore();
+        if ( fileSystem.fileExists( nodeDegreesStoreFile ) )
+        {
+            fileSystem.deleteFile( nodeDegreesStoreFile );
+        }
+        Path relationshipAdjacencyStoreFile = databaseLayout.relationshipAdjacencyStore();
+        if ( fileSystem.fileExists( relationshipAdjacencyStoreFile ) )
+        {
+            fileSystem.deleteFile( relationshipAdjacencyStoreFile );
+        }
+        Path relationshipGroupDirectoryFile = databaseLayout.relationshipGroupDirectory();
+        if ( fileSystem.fileExists( relationshipGroupDirectoryFile ) )
+        {
+            fileSystem.deleteFile( relationshipGroupDirectoryFile );
+        }
+        Path nodePropertyColumnsStoreFile = databaseLayout.nodePropertyColumnsStore();
+        if ( fileSystem.fileExists( nodePropertyColumnsStoreFile ) )
+        {
+            fileSystem.deleteFile( nodePropertyColumnsStoreFile );
+        }
+        Path nodePropertyStatisticsStoreFile = databaseLayout.nodePropertyStatisticsStore();
+        if ( fileSystem.fileExists( nodePropertyStatisticsStoreFile ) )
+        {
+            fileSystem.deleteFile( nodePropertyStatisticsStoreFile );
+        }
         CountsComputer initialCountsBuilder =
                 new CountsComputer( neoStores, pageCache, cacheTracer, databaseLayout, memoryTracker, logService.getInternalLog( getClass() ) );
         try ( GBPTreeCountsStore countsStore = new GBPTreeCountsStore( pageCache, databaseLayout.countStore(), fileSystem, immediate(),
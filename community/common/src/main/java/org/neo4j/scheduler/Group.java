@@ -83,6 +83,8 @@ public enum Group
     /** Thread pool for parallel Cypher query execution. */
     CYPHER_WORKER( "CypherWorker", ExecutorServiceFactory.workStealing() ),
     CYPHER_CACHE( "CypherCache", ExecutorServiceFactory.workStealing() ),
+    /** Thread pool for reading index partitions of interpreted Cypher queries. */
+    CYPHER_INDEX_SCAN( "CypherIndexScan" ),
 
     // DATA COLLECTOR
     DATA_COLLECTOR( "DataCollector" ),
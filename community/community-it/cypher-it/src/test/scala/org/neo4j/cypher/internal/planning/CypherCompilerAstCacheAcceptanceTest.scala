@@ -46,8 +46,10 @@ import org.neo4j.cypher.internal.options.CypherUpdateStrategy
 import org.neo4j.cypher.internal.options.CypherVersion
 import org.neo4j.cypher.internal.planner.spi.MinimumGraphStatistics.MIN_NODES_ALL
 import org.neo4j.cypher.internal.planner.spi.MinimumGraphStatistics.MIN_NODES_WITH_LABEL
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelIndexScanScheduler
 import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
 import org.neo4j.graphdb.config.Setting
+import org.neo4j.kernel.api.Kernel
 import org.neo4j.kernel.impl.util.ValueUtils
 import org.neo4j.logging.AssertableLogProvider
 import org.neo4j.logging.AssertableLogProvider.Level
@@ -55,6 +57,7 @@ import org.neo4j.logging.Log
 import org.neo4j.logging.LogAssertions.assertThat
 import org.neo4j.logging.NullLog
 import org.neo4j.logging.NullLogProvider
+import org.neo4j.scheduler.JobScheduler
 
 import java.time.Clock
 import java.time.Duration
@@ -463,6 +466,7 @@ class CypherCompilerAstCacheAcceptanceTest extends CypherFunSuite with GraphData
       new CommunityCompilerFactory(graph, monitors, cacheFactory, nullLogProvider,
         CypherPlannerConfiguration.fromCypherConfiguration(cypherConfig, config, planSystemCommands = false),
         CypherRuntimeConfiguration.fromCypherConfiguration(cypherConfig),
+        new ParallelIndexScanScheduler(resolver.resolveDependency(classOf[JobScheduler]), resolver.resolveDependency(classOf[Kernel]).cursors()),
       )
     new CompilerLibrary(compilerFactory, () => null)
   }
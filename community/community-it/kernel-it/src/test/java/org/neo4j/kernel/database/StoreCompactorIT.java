@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.database;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.api.TransactionCommitProcess;
+import org.neo4j.kernel.impl.locking.Locks;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.logging.NullLog;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.storageengine.api.StorageEngine;
+import org.neo4j.test.extension.DbmsExtension;
+import org.neo4j.test.extension.Inject;
+
+import static org.apache.commons.lang3.StringUtils.repeat;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.store_compaction_batch_size;
+import static org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker.writable;
+import static org.neo4j.kernel.impl.api.LeaseService.NO_LEASES;
+
+@DbmsExtension
+class StoreCompactorIT
+{
+    private static final int NUMBER_OF_PROPERTIES = 12;
+    private static final int FRAGMENTED_NODES = 20;
+    private static final int COMPACT_NODES = 10;
+
+    @Inject
+    private GraphDatabaseAPI db;
+
+    @Test
+    void shouldCompactFragmentedPropertyChainsAndKeepTheirValues()
+    {
+        // given nodes which had every other property removed, leaving half empty records in their chains, and nodes with a single record
+        Map<Long,Map<String,Object>> expectedProperties = new HashMap<>();
+        List<Long> fragmentedNodes = new ArrayList<>();
+        try ( Transaction tx = db.beginTx() )
+        {
+            for ( int i = 0; i < FRAGMENTED_NODES; i++ )
+            {
+                Node node = tx.createNode();
+                node.setProperty( "name", repeat( "fragmented node " + i, 10 ) );
+                for ( int p = 0; p < NUMBER_OF_PROPERTIES; p++ )
+                {
+                    node.setProperty( "p" + p, i * 100 + p );
+                }
+                fragmentedNodes.add( node.getId() );
+            }
+            for ( int i = 0; i < COMPACT_NODES; i++ )
+            {
+                Node node = tx.createNode();
+                node.setProperty( "name", "compact node " + i );
+                node.setProperty( "p0", i );
+                expectedProperties.put( node.getId(), Map.copyOf( node.getAllProperties() ) );
+            }
+            tx.commit();
+        }
+        try ( Transaction tx = db.beginTx() )
+        {
+            for ( long nodeId : fragmentedNodes )
+            {
+                Node node = tx.getNodeById( nodeId );
+                for ( int p = 1; p < NUMBER_OF_PROPERTIES; p += 2 )
+                {
+                    node.removeProperty( "p" + p );
+                }
+                expectedProperties.put( nodeId, Map.copyOf( node.getAllProperties() ) );
+            }
+            tx.commit();
+        }
+        StoreCompactor compactor = newCompactor();
+
+        // when
+        int compacted = compactor.compactBatch();
+
+        // then every fragmented node got compacted, and a new lap over the store finds nothing more to compact
+        assertThat( compacted ).isEqualTo( FRAGMENTED_NODES );
+        assertThat( compactor.compactBatch() ).isZero();
+        assertThat( compactor.compactBatch() ).isZero();
+        try ( Transaction tx = db.beginTx() )
+        {
+            expectedProperties.forEach( ( nodeId, properties ) -> assertThat( tx.getNodeById( nodeId ).getAllProperties() )
+                    .isEqualTo( properties ) );
+        }
+    }
+
+    private StoreCompactor newCompactor()
+    {
+        var dependencies = db.getDependencyResolver();
+        return new StoreCompactor( dependencies.resolveDependency( StorageEngine.class ), dependencies.resolveDependency( TransactionCommitProcess.class ),
+                dependencies.resolveDependency( Locks.class ), NO_LEASES, IOController.DISABLED, dependencies.resolveDependency( JobScheduler.class ),
+                PageCacheTracer.NULL, writable(), Clock.systemUTC(),
+                Config.defaults( store_compaction_batch_size, FRAGMENTED_NODES + COMPACT_NODES + 1 ), NullLog.getInstance(), db.databaseName() );
+    }
+}
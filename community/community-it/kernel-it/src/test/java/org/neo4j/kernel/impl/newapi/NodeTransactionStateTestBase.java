@@ -24,8 +24,10 @@ import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.function.Supplier;
 
 import org.neo4j.common.EntityType;
+import org.neo4j.exceptions.KernelException;
 import org.neo4j.internal.helpers.collection.Iterables;
 import org.neo4j.internal.kernel.api.IndexQueryConstraints;
 import org.neo4j.internal.kernel.api.NodeCursor;
@@ -53,6 +55,7 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.neo4j.graphdb.Label.label;
 import static org.neo4j.internal.kernel.api.connectioninfo.ClientConnectionInfo.EMBEDDED_CONNECTION;
+import static org.neo4j.storageengine.api.PropertySelection.selection;
 import static org.neo4j.values.storable.Values.NO_VALUE;
 import static org.neo4j.values.storable.Values.longValue;
 import static org.neo4j.values.storable.Values.stringValue;
@@ -913,6 +916,94 @@ public abstract class NodeTransactionStateTestBase<G extends KernelAPIWriteTestS
         }
     }
 
+    @Test
+    void shouldSeeTransactionStateInBatchedNodePropertyReads() throws Exception
+    {
+        // Given
+        long unchanged, changed, removed, deleted;
+        int prop1, prop2;
+        try ( KernelTransaction tx = beginTransaction() )
+        {
+            prop1 = tx.token().propertyKeyGetOrCreateForName( "prop1" );
+            prop2 = tx.token().propertyKeyGetOrCreateForName( "prop2" );
+            unchanged = createNodeWithProperties( tx, prop1, stringValue( "unchanged" ), prop2, longValue( 1 ) );
+            changed = createNodeWithProperties( tx, prop1, stringValue( "before" ), prop2, longValue( 2 ) );
+            removed = createNodeWithProperties( tx, prop1, stringValue( "removed" ), prop2, longValue( 3 ) );
+            deleted = createNodeWithProperties( tx, prop1, stringValue( "deleted" ), prop2, longValue( 4 ) );
+            tx.commit();
+        }
+
+        try ( KernelTransaction tx = beginTransaction() )
+        {
+            // When
+            long added = createNodeWithProperties( tx, prop1, stringValue( "added" ), prop2, longValue( 5 ) );
+            tx.dataWrite().nodeSetProperty( changed, prop1, stringValue( "after" ) );
+            tx.dataWrite().nodeRemoveProperty( removed, prop1 );
+            tx.dataWrite().nodeDelete( deleted );
+
+            long[] nodes = {added, deleted, removed, changed, unchanged};
+            Value[][] columns = new Value[2][nodes.length];
+            try ( NodeCursor node = tx.cursors().allocateNodeCursor( tx.cursorContext() );
+                  PropertyCursor property = tx.cursors().allocatePropertyCursor( tx.cursorContext(), tx.memoryTracker() ) )
+            {
+                tx.dataRead().nodeProperties( nodes, selection( prop1, prop2 ), node, property, columns );
+            }
+
+            // Then
+            assertArrayEquals( new Value[]{stringValue( "added" ), NO_VALUE, NO_VALUE, stringValue( "after" ), stringValue( "unchanged" )}, columns[0] );
+            assertArrayEquals( new Value[]{longValue( 5 ), NO_VALUE, longValue( 3 ), longValue( 2 ), longValue( 1 )}, columns[1] );
+        }
+    }
+
+    @Test
+    void shouldOnlyReadAllowedPropertiesInBatchedNodePropertyReads() throws Exception
+    {
+        // Given
+        long node1, node2;
+        int allowedProp, deniedProp;
+        try ( KernelTransaction tx = beginTransaction() )
+        {
+            allowedProp = tx.token().propertyKeyGetOrCreateForName( "allowed" );
+            deniedProp = tx.token().propertyKeyGetOrCreateForName( "denied" );
+            node1 = createNodeWithProperties( tx, allowedProp, stringValue( "a" ), deniedProp, stringValue( "b" ) );
+            node2 = createNodeWithProperties( tx, allowedProp, stringValue( "c" ), deniedProp, stringValue( "d" ) );
+            tx.commit();
+        }
+
+        SecurityContext loginContext = new SecurityContext( AuthSubject.AUTH_DISABLED, new TestAccessMode( true, false, true, false )
+        {
+            @Override
+            public boolean allowsReadNodeProperty( Supplier<TokenSet> labels, int propertyKey )
+            {
+                return propertyKey != deniedProp;
+            }
+        }, EMBEDDED_CONNECTION, null );
+        try ( KernelTransaction tx = beginTransaction( loginContext ) )
+        {
+            // When
+            long node3 = createNodeWithProperties( tx, allowedProp, stringValue( "e" ), deniedProp, stringValue( "f" ) );
+            long[] nodes = {node3, node2, node1};
+            Value[][] columns = new Value[2][nodes.length];
+            try ( NodeCursor node = tx.cursors().allocateNodeCursor( tx.cursorContext() );
+                  PropertyCursor property = tx.cursors().allocatePropertyCursor( tx.cursorContext(), tx.memoryTracker() ) )
+            {
+                tx.dataRead().nodeProperties( nodes, selection( allowedProp, deniedProp ), node, property, columns );
+            }
+
+            // Then
+            assertArrayEquals( new Value[]{stringValue( "e" ), stringValue( "c" ), stringValue( "a" )}, columns[0] );
+            assertArrayEquals( new Value[]{NO_VALUE, NO_VALUE, NO_VALUE}, columns[1] );
+        }
+    }
+
+    private static long createNodeWithProperties( KernelTransaction tx, int prop1, Value value1, int prop2, Value value2 ) throws KernelException
+    {
+        long node = tx.dataWrite().nodeCreate();
+        tx.dataWrite().nodeSetProperty( node, prop1, value1 );
+        tx.dataWrite().nodeSetProperty( node, prop2, value2 );
+        return node;
+    }
+
     private static void assertLabels( TokenSet labels, int... expected )
     {
         assertEquals( expected.length, labels.numberOfTokens() );
@@ -40,12 +40,16 @@ import org.neo4j.values.storable.ValueGroup;
 import org.neo4j.values.storable.Values;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.neo4j.io.pagecache.context.CursorContext.NULL;
 import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
 import static org.neo4j.storageengine.api.PropertySelection.ALL_PROPERTIES;
+import static org.neo4j.storageengine.api.PropertySelection.selection;
+import static org.neo4j.values.storable.Values.NO_VALUE;
 
 public abstract class PropertyCursorTestBase<G extends KernelAPIReadTestSupport> extends KernelAPIReadTestBase<G>
 {
@@ -114,6 +118,7 @@ public abstract class PropertyCursorTestBase<G extends KernelAPIReadTestSupport>
             shortStringPropRelId, longStringPropRelId, utf8PropRelId, smallArrayRelId, bigArrayRelId, pointPropRelId,
             datePropRelId, allPropsRelId;
 
+    private static final long NON_EXISTING_ID = 1_000_000;
     private static final String CHINESE = "造Unicode之";
     private static final Value POINT_VALUE = Values.pointValue( CoordinateReferenceSystem.Cartesian, 10, 20 );
     private static final Value DATE_VALUE = Values.temporalValue( LocalDate.of( 2018, 7, 26 ) );
@@ -444,6 +449,57 @@ public abstract class PropertyCursorTestBase<G extends KernelAPIReadTestSupport>
         }
     }
 
+    @Test
+    void shouldReadNodePropertiesInBatchInInputOrder()
+    {
+        // given
+        int intProp = token.propertyKey( INT_PROP );
+        int shortStringProp = token.propertyKey( SHORT_STRING_PROP );
+        long[] nodes = {allPropsNodeId, bareNodeId, shortStringPropNodeId, intPropNodeId, NON_EXISTING_ID};
+        Value[][] columns = new Value[2][nodes.length];
+        try ( NodeCursor node = cursors.allocateNodeCursor( NULL );
+              PropertyCursor props = cursors.allocatePropertyCursor( NULL, INSTANCE ) )
+        {
+            // when
+            read.nodeProperties( nodes, selection( intProp, shortStringProp ), node, props, columns );
+        }
+
+        // then
+        assertArrayEquals( new Value[]{Values.intValue( 13 ), NO_VALUE, NO_VALUE, Values.intValue( 13 ), NO_VALUE}, columns[0] );
+        assertArrayEquals( new Value[]{Values.stringValue( "hello" ), NO_VALUE, Values.stringValue( "hello" ), NO_VALUE, NO_VALUE}, columns[1] );
+    }
+
+    @Test
+    void shouldReadRelationshipPropertiesInBatchInInputOrder()
+    {
+        // given
+        int intProp = token.propertyKey( INT_PROP );
+        int shortStringProp = token.propertyKey( SHORT_STRING_PROP );
+        long[] relationships = {allPropsRelId, bareRelId, shortStringPropRelId, intPropRelId, NON_EXISTING_ID};
+        Value[][] columns = new Value[2][relationships.length];
+        try ( RelationshipScanCursor relationship = cursors.allocateRelationshipScanCursor( NULL );
+              PropertyCursor props = cursors.allocatePropertyCursor( NULL, INSTANCE ) )
+        {
+            // when
+            read.relationshipProperties( relationships, selection( intProp, shortStringProp ), relationship, props, columns );
+        }
+
+        // then
+        assertArrayEquals( new Value[]{Values.intValue( 13 ), NO_VALUE, NO_VALUE, Values.intValue( 13 ), NO_VALUE}, columns[0] );
+        assertArrayEquals( new Value[]{Values.stringValue( "hello" ), NO_VALUE, Values.stringValue( "hello" ), NO_VALUE, NO_VALUE}, columns[1] );
+    }
+
+    @Test
+    void shouldRequireSpecificKeysForBatchedPropertyReads()
+    {
+        try ( NodeCursor node = cursors.allocateNodeCursor( NULL );
+              PropertyCursor props = cursors.allocatePropertyCursor( NULL, INSTANCE ) )
+        {
+            assertThrows( IllegalArgumentException.class,
+                    () -> read.nodeProperties( new long[]{allPropsNodeId}, ALL_PROPERTIES, node, props, new Value[1][1] ) );
+        }
+    }
+
     private void assertAccessSingleNodeProperty( long nodeId, Object expectedValue, ValueGroup expectedValueType )
     {
         // given
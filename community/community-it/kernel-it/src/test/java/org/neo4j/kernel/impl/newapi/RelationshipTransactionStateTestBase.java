@@ -34,6 +34,7 @@ import org.neo4j.graphdb.Relationship;
 import org.neo4j.internal.kernel.api.NodeCursor;
 import org.neo4j.internal.kernel.api.PropertyCursor;
 import org.neo4j.internal.kernel.api.Read;
+import org.neo4j.internal.kernel.api.RelTypeSupplier;
 import org.neo4j.internal.kernel.api.RelationshipScanCursor;
 import org.neo4j.internal.kernel.api.RelationshipTraversalCursor;
 import org.neo4j.internal.kernel.api.Write;
@@ -43,11 +44,14 @@ import org.neo4j.internal.kernel.api.security.SecurityContext;
 import org.neo4j.internal.kernel.api.security.TestAccessMode;
 import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.storageengine.api.Degrees;
+import org.neo4j.storageengine.api.PropertySelection;
 import org.neo4j.storageengine.api.RelationshipDirection;
 import org.neo4j.storageengine.api.RelationshipSelection;
+import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueGroup;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -1357,6 +1361,99 @@ public abstract class RelationshipTransactionStateTestBase<G extends KernelAPIWr
         }
     }
 
+    @Test
+    void shouldSeeTransactionStateInBatchedRelationshipPropertyReads() throws Exception
+    {
+        // Given
+        long unchanged, changed, removed, deleted;
+        int type, prop1, prop2;
+        try ( KernelTransaction tx = beginTransaction() )
+        {
+            type = tx.tokenWrite().relationshipTypeGetOrCreateForName( "R" );
+            prop1 = tx.tokenWrite().propertyKeyGetOrCreateForName( "prop1" );
+            prop2 = tx.tokenWrite().propertyKeyGetOrCreateForName( "prop2" );
+            unchanged = createRelationshipWithProperties( tx, type, prop1, stringValue( "unchanged" ), prop2, longValue( 1 ) );
+            changed = createRelationshipWithProperties( tx, type, prop1, stringValue( "before" ), prop2, longValue( 2 ) );
+            removed = createRelationshipWithProperties( tx, type, prop1, stringValue( "removed" ), prop2, longValue( 3 ) );
+            deleted = createRelationshipWithProperties( tx, type, prop1, stringValue( "deleted" ), prop2, longValue( 4 ) );
+            tx.commit();
+        }
+
+        try ( KernelTransaction tx = beginTransaction() )
+        {
+            // When
+            long added = createRelationshipWithProperties( tx, type, prop1, stringValue( "added" ), prop2, longValue( 5 ) );
+            tx.dataWrite().relationshipSetProperty( changed, prop1, stringValue( "after" ) );
+            tx.dataWrite().relationshipRemoveProperty( removed, prop1 );
+            tx.dataWrite().relationshipDelete( deleted );
+
+            long[] relationships = {added, deleted, removed, changed, unchanged};
+            Value[][] columns = new Value[2][relationships.length];
+            try ( RelationshipScanCursor relationship = tx.cursors().allocateRelationshipScanCursor( tx.cursorContext() );
+                  PropertyCursor property = tx.cursors().allocatePropertyCursor( tx.cursorContext(), tx.memoryTracker() ) )
+            {
+                tx.dataRead().relationshipProperties( relationships, PropertySelection.selection( prop1, prop2 ), relationship, property, columns );
+            }
+
+            // Then
+            assertArrayEquals( new Value[]{stringValue( "added" ), NO_VALUE, NO_VALUE, stringValue( "after" ), stringValue( "unchanged" )}, columns[0] );
+            assertArrayEquals( new Value[]{longValue( 5 ), NO_VALUE, longValue( 3 ), longValue( 2 ), longValue( 1 )}, columns[1] );
+        }
+    }
+
+    @Test
+    void shouldOnlyReadAllowedPropertiesInBatchedRelationshipPropertyReads() throws Exception
+    {
+        // Given
+        long relationship1, relationship2;
+        int type, allowedProp, deniedProp;
+        try ( KernelTransaction tx = beginTransaction() )
+        {
+            type = tx.tokenWrite().relationshipTypeGetOrCreateForName( "R" );
+            allowedProp = tx.tokenWrite().propertyKeyGetOrCreateForName( "allowed" );
+            deniedProp = tx.tokenWrite().propertyKeyGetOrCreateForName( "denied" );
+            relationship1 = createRelationshipWithProperties( tx, type, allowedProp, stringValue( "a" ), deniedProp, stringValue( "b" ) );
+            relationship2 = createRelationshipWithProperties( tx, type, allowedProp, stringValue( "c" ), deniedProp, stringValue( "d" ) );
+            tx.commit();
+        }
+
+        SecurityContext loginContext = new SecurityContext( AuthSubject.AUTH_DISABLED, new TestAccessMode( true, false, true, false )
+        {
+            @Override
+            public boolean allowsReadRelationshipProperty( RelTypeSupplier relType, int propertyKey )
+            {
+                return propertyKey != deniedProp;
+            }
+        }, EMBEDDED_CONNECTION, null );
+        try ( KernelTransaction tx = beginTransaction( loginContext ) )
+        {
+            // When
+            long relationship3 = createRelationshipWithProperties( tx, type, allowedProp, stringValue( "e" ), deniedProp, stringValue( "f" ) );
+            long[] relationships = {relationship3, relationship2, relationship1};
+            Value[][] columns = new Value[2][relationships.length];
+            try ( RelationshipScanCursor relationship = tx.cursors().allocateRelationshipScanCursor( tx.cursorContext() );
+                  PropertyCursor property = tx.cursors().allocatePropertyCursor( tx.cursorContext(), tx.memoryTracker() ) )
+            {
+                tx.dataRead().relationshipProperties( relationships, PropertySelection.selection( allowedProp, deniedProp ), relationship, property,
+                        columns );
+            }
+
+            // Then
+            assertArrayEquals( new Value[]{stringValue( "e" ), stringValue( "c" ), stringValue( "a" )}, columns[0] );
+            assertArrayEquals( new Value[]{NO_VALUE, NO_VALUE, NO_VALUE}, columns[1] );
+        }
+    }
+
+    private static long createRelationshipWithProperties( KernelTransaction tx, int type, int prop1, Value value1, int prop2, Value value2 )
+            throws KernelException
+    {
+        Write write = tx.dataWrite();
+        long relationship = write.relationshipCreate( write.nodeCreate(), type, write.nodeCreate() );
+        write.relationshipSetProperty( relationship, prop1, value1 );
+        write.relationshipSetProperty( relationship, prop2, value2 );
+        return relationship;
+    }
+
     private static boolean hasProperties( RelationshipScanCursor cursor, KernelTransaction tx )
     {
         try ( PropertyCursor propertyCursor = tx.cursors().allocatePropertyCursor( NULL, INSTANCE ) )
@@ -30,6 +30,7 @@ import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Transaction;
 import org.neo4j.internal.recordstorage.RecordStorageEngine;
 import org.neo4j.internal.recordstorage.RecordStorageEngineFactory;
+import org.neo4j.kernel.impl.store.format.compact.CompactV4_4;
 import org.neo4j.kernel.impl.store.format.standard.Standard;
 import org.neo4j.kernel.impl.store.format.standard.StandardV4_0;
 import org.neo4j.kernel.impl.store.format.standard.StandardV4_3;
@@ -186,6 +187,47 @@ class RecordFormatMigrationIT
         }
     }
 
+    @Test
+    void migrateStandardStoreToCompactFormat()
+    {
+        DatabaseManagementService managementService = startManagementService( Standard.LATEST_NAME );
+        GraphDatabaseAPI database = getDefaultDatabase( managementService );
+        long nodeId;
+        try ( Transaction transaction = database.beginTx() )
+        {
+            Node node = transaction.createNode();
+            node.setProperty( "a", "b" );
+            node.setProperty( "c", 42 );
+            nodeId = node.getId();
+            transaction.commit();
+        }
+        managementService.shutdown();
+
+        managementService = startDatabaseServiceWithUpgrade( databaseDirectory, CompactV4_4.NAME );
+        try
+        {
+            database = getDefaultDatabase( managementService );
+            RecordStorageEngine storageEngine = database.getDependencyResolver().resolveDependency( RecordStorageEngine.class );
+            assertEquals( CompactV4_4.NAME, storageEngine.testAccessNeoStores().getRecordFormats().name() );
+            try ( Transaction transaction = database.beginTx() )
+            {
+                Node node = transaction.getNodeById( nodeId );
+                assertEquals( "b", node.getProperty( "a" ) );
+                assertEquals( 42, node.getProperty( "c" ) );
+                node.setProperty( "a", "d" );
+                transaction.commit();
+            }
+            try ( Transaction transaction = database.beginTx() )
+            {
+                assertEquals( "d", transaction.getNodeById( nodeId ).getProperty( "a" ) );
+            }
+        }
+        finally
+        {
+            managementService.shutdown();
+        }
+    }
+
     private static Throwable assertDefaultDatabaseFailed( GraphDatabaseAPI database )
     {
         assertThrows( Throwable.class, database::beginTx );
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphdb.compact;
+
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.graphdb.Node;
+import org.neo4j.internal.recordstorage.RecordStorageEngineFactory;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.storageengine.api.StoreIdProvider;
+import org.neo4j.test.TestDatabaseManagementServiceBuilder;
+import org.neo4j.test.extension.DbmsExtension;
+import org.neo4j.test.extension.ExtensionCallback;
+import org.neo4j.test.extension.Inject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.neo4j.graphdb.Label.label;
+import static org.neo4j.internal.helpers.collection.Iterables.count;
+import static org.neo4j.kernel.impl.store.MetaDataStore.versionLongToString;
+import static org.neo4j.kernel.impl.store.format.StoreVersion.COMPACT_V4_4;
+import static org.neo4j.kernel.impl.store.format.compact.CompactV4_4.NAME;
+
+@DbmsExtension( configurationCallback = "configure" )
+public class CompactRecordFormatIT
+{
+    @Inject
+    private GraphDatabaseAPI database;
+    @Inject
+    private StoreIdProvider storeIdProvider;
+
+    @ExtensionCallback
+    void configure( TestDatabaseManagementServiceBuilder builder )
+    {
+        builder.setConfig( GraphDatabaseInternalSettings.storage_engine, RecordStorageEngineFactory.NAME );
+        builder.setConfig( GraphDatabaseSettings.record_format, NAME );
+    }
+
+    @Test
+    void databaseCanBeStartedWithCompactFormat()
+    {
+        assertEquals( COMPACT_V4_4.versionString(), versionLongToString( storeIdProvider.getStoreId().getStoreVersion() ) );
+    }
+
+    @Test
+    void nodePropertiesFollowChanges()
+    {
+        long nodeId;
+        try ( var transaction = database.beginTx() )
+        {
+            Node node = transaction.createNode( label( "marker" ) );
+            node.setProperty( "name", "first" );
+            node.setProperty( "size", 1 );
+            nodeId = node.getId();
+            transaction.commit();
+        }
+
+        try ( var transaction = database.beginTx() )
+        {
+            Node node = transaction.getNodeById( nodeId );
+            assertEquals( "first", node.getProperty( "name" ) );
+            node.setProperty( "name", "second" );
+            node.removeProperty( "size" );
+            for ( int i = 0; i < 10; i++ )
+            {
+                node.setProperty( "key" + i, i );
+            }
+            transaction.commit();
+        }
+
+        try ( var transaction = database.beginTx() )
+        {
+            Node node = transaction.getNodeById( nodeId );
+            assertEquals( "second", node.getProperty( "name" ) );
+            assertFalse( node.hasProperty( "size" ) );
+            for ( int i = 0; i < 10; i++ )
+            {
+                assertEquals( i, node.getProperty( "key" + i ) );
+            }
+            node.delete();
+            transaction.commit();
+        }
+
+        try ( var transaction = database.beginTx() )
+        {
+            assertEquals( 0, count( transaction.getAllNodes() ) );
+        }
+    }
+}
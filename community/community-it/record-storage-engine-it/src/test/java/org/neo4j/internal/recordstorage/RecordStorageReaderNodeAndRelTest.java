@@ -25,8 +25,10 @@ import org.neo4j.storageengine.api.StorageNodeCursor;
 import org.neo4j.storageengine.api.StorageRelationshipScanCursor;
 import org.neo4j.storageengine.api.cursor.StoreCursors;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.common.EntityType.NODE;
 import static org.neo4j.graphdb.RelationshipType.withName;
 import static org.neo4j.internal.helpers.collection.MapUtil.map;
 import static org.neo4j.io.pagecache.context.CursorContext.NULL;
@@ -69,6 +71,21 @@ class RecordStorageReaderNodeAndRelTest extends RecordStorageReaderTestBase
         assertFalse( relationshipExists( neverExisted ) );
     }
 
+    @Test
+    void shouldOrderBatchReadsByPage()
+    {
+        // Given
+        long recordsPerPage = storageEngine.testAccessNeoStores().getNodeStore().getRecordsPerPage();
+        long[] references = {recordsPerPage * 2 + 1, 3, recordsPerPage * 2, recordsPerPage + 5, 1, recordsPerPage * 2 + 1};
+        int[] order = new int[references.length];
+
+        // When
+        storageReader.batchReadOrder( NODE, references, references.length, order );
+
+        // Then references on the same page are read together, in the order they were given
+        assertArrayEquals( new int[]{1, 4, 3, 0, 2, 5}, order );
+    }
+
     private boolean nodeExists( long id )
     {
         try ( StorageNodeCursor node = storageReader.allocateNodeCursor( NULL, StoreCursors.NULL ) )
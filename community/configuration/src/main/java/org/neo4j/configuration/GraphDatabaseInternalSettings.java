@@ -230,6 +230,18 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
     public static final Setting<Integer> cypher_pipelined_batch_size_big =
             newBuilder( "unsupported.cypher.pipelined.batch_size_big", INT, 1024 ).addConstraint( min( 1 ) ).build();
 
+    @Internal
+    @Description( "The number of worker threads the interpreted runtime may use for reading partitions of a large index scan or " +
+            "index range seek in parallel. Zero means that index scans and seeks are read by the query thread only." )
+    public static final Setting<Integer> cypher_interpreted_parallel_index_scan_workers =
+            newBuilder( "unsupported.cypher.interpreted.parallel_index_scan.workers", INT, 0 ).addConstraint( min( 0 ) ).build();
+
+    @Internal
+    @Description( "The minimum number of entries an index must have for the interpreted runtime to read scans and range seeks " +
+            "of it in parallel, see unsupported.cypher.interpreted.parallel_index_scan.workers." )
+    public static final Setting<Long> cypher_interpreted_parallel_index_scan_min_index_size =
+            newBuilder( "unsupported.cypher.interpreted.parallel_index_scan.min_index_size", LONG, 100_000L ).addConstraint( min( 0L ) ).build();
+
     @Internal
     @Description( "Number of threads to allocate to Cypher worker threads for the parallel runtime. If set to 0, two workers will be started" +
                   " for every physical core in the system. If set to -1, no workers will be started and the parallel runtime cannot be used." )
@@ -576,6 +588,18 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
     public static final Setting<Boolean> archive_failed_index =
             newBuilder( "unsupported.dbms.index.archive_failed", BOOL, false ).build();
 
+    @Internal
+    @Description( "Number of bits per entry of an in-memory bloom filter kept for each range index, letting exact lookups of values " +
+            "which are not in the index skip seeking in the index. The filter is built when the index is opened. Zero means no filter." )
+    public static final Setting<Integer> range_index_bloom_filter_bits_per_entry =
+            newBuilder( "unsupported.dbms.index.range.bloom_filter_bits_per_entry", INT, 0 ).addConstraint( range( 0, 64 ) ).build();
+
+    @Internal
+    @Description( "Create new range and btree indexes with the keys in their leaves stored with the prefix they share stripped off. " +
+            "Such indexes can't be opened by versions without support for it. Existing indexes keep the format they were created with." )
+    public static final Setting<Boolean> index_key_prefix_compression_enabled =
+            newBuilder( "unsupported.dbms.index.key_prefix_compression.enabled", BOOL, false ).build();
+
     @Internal
     @Description( "Forces smaller ID cache, in order to preserve memory." )
     public static final Setting<Boolean> force_small_id_cache = newBuilder( "unsupported.dbms.force_small_id_cache", BOOL, Boolean.FALSE ).build();
@@ -683,6 +707,97 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
     public static final Setting<Boolean> strictly_prioritize_id_freelist =
             newBuilder( "unsupported.dbms.strictly_prioritize_id_freelist", BOOL, true ).build();
 
+    @Internal
+    @Description( "Number of consecutive node and relationship IDs that a transaction leases from the id generators at a time. " +
+            "IDs handed out from a leased range need no coordination with concurrently committing transactions and records created by " +
+            "the same transaction end up next to each other in the store. Unused IDs are given back when the transaction object is disposed. " +
+            "A value of 1 disables leasing, i.e. every ID is allocated from the id generator separately." )
+    public static final Setting<Integer> id_generator_lease_size =
+            newBuilder( "unsupported.dbms.idgenerator.lease_size", INT, 1 ).addConstraint( range( 1, 128 ) ).build();
+
+    @Internal
+    @Description( "Whether or not to prefer reusing free relationship and property record IDs that are close to the related records, " +
+            "i.e. the relationship chain of the source node or the property chain of the owning entity. This keeps chains on fewer pages " +
+            "after deletions and re-creations have fragmented the free IDs." )
+    public static final Setting<Boolean> id_generator_locality_aware_reuse =
+            newBuilder( "unsupported.dbms.idgenerator.locality_aware_reuse", BOOL, false ).build();
+
+    @Internal
+    @Description( "Rebuild missing ID generators lazily in the background instead of scanning their stores when the database starts. " +
+            "IDs are allocated from high ID until the rebuild has completed, after which free IDs found by it are reused." )
+    public static final Setting<Boolean> lazy_id_generator_rebuild =
+            newBuilder( "unsupported.dbms.idgenerator.lazy_rebuild", BOOL, false ).build();
+
+    @Internal
+    @Description( "Number of threads used to open and validate the record store files and their ID generators when a database starts. " +
+            "A value of 1 opens them one after the other." )
+    public static final Setting<Integer> store_open_parallelism =
+            newBuilder( "unsupported.dbms.record_format.open_parallelism", INT, 1 ).addConstraint( min( 1 ) ).build();
+
+    @Internal
+    @Description( "Keep the cursors of a transaction, and the page cursor context they are bound to, when the transaction is returned to " +
+            "the transaction pool, so that the next transaction using it doesn't need to create them again. Page cursors are still closed " +
+            "at the end of each transaction. Has no effect if transactions use versioned page cache access, since the version context " +
+            "is specific to each transaction." )
+    public static final Setting<Boolean> transaction_reuse_cursors = newBuilder( "unsupported.dbms.transaction.reuse_cursors", BOOL, false ).build();
+
+    @Internal
+    @Description( "Keep a store with the degree of every node, per relationship type and direction, so that getting the degree of a sparse node " +
+            "for specific relationship types doesn't have to traverse its relationship chain. The store is built from the existing data " +
+            "when this is first enabled, and deleted when this is disabled." )
+    public static final Setting<Boolean> node_degrees_store_enabled = newBuilder( "unsupported.dbms.node_degrees_store.enabled", BOOL, false ).build();
+
+    @Internal
+    @Description( "Keep an adjacency store with the relationships of every node, sorted by node, relationship type and direction, and let " +
+            "relationship traversals read it instead of following relationship chains. A node's relationships then sit next to each other " +
+            "and relationship records are only read when properties are asked for. The store is built from the existing data when this " +
+            "is first enabled, and deleted when this is disabled." )
+    public static final Setting<Boolean> relationship_adjacency_store_enabled =
+            newBuilder( "unsupported.dbms.relationship_adjacency_store.enabled", BOOL, false ).build();
+
+    @Internal
+    @Description( "Names of property keys to keep numeric values of as columns, per label, so that aggregating over a property of all nodes " +
+            "with a label can stream the values instead of reading every node and property chain. The columns are built from the existing " +
+            "data when this changes, and deleted when this is empty." )
+    public static final Setting<Set<String>> node_property_columns =
+            newBuilder( "unsupported.dbms.node_property_columns", setOf( STRING ), Set.of() ).build();
+
+    @Internal
+    @Description( "Compress string and array property values stored in dynamic records if their encoded size is at least this many bytes. " +
+            "Only applies to record formats with support for it, such as `compact`, since older versions can't read compressed values. " +
+            "0 means disabled." )
+    public static final Setting<Integer> dynamic_record_compression_threshold =
+            newBuilder( "unsupported.dbms.record_format.dynamic_compression_threshold", INT, 0 ).addConstraint( min( 0 ) ).build();
+
+    @Internal
+    @Description( "Keep statistics about node properties per label and property key: the number of nodes with the property and a histogram " +
+            "of its numeric values. The statistics are built from the existing data when this is first enabled, and deleted when this is disabled." )
+    public static final Setting<Boolean> node_property_statistics_enabled =
+            newBuilder( "unsupported.dbms.node_property_statistics.enabled", BOOL, false ).build();
+
+    @Internal
+    @Description( "Keep a directory from node and relationship type to relationship group for dense nodes, so that finding the group of a type " +
+            "is a tree lookup instead of a walk along the node's chain of relationship groups. The directory is built from the existing data " +
+            "when this is first enabled, and deleted when this is disabled." )
+    public static final Setting<Boolean> relationship_group_directory_enabled =
+            newBuilder( "unsupported.dbms.relationship_group_directory.enabled", BOOL, false ).build();
+
+    @Internal
+    @Description( "Enable the background store compactor, which continuously rewrites fragmented node property chains into contiguous records " +
+            "using small internal transactions, freeing the records previously used." )
+    public static final Setting<Boolean> store_compaction_enabled = newBuilder( "unsupported.dbms.store_compaction.enabled", BOOL, false ).build();
+
+    @Internal
+    @Description( "The interval between two runs of the background store compactor." )
+    public static final Setting<Duration> store_compaction_interval =
+            newBuilder( "unsupported.dbms.store_compaction.interval", DURATION, ofSeconds( 10 ) ).build();
+
+    @Internal
+    @Description( "The number of nodes the background store compactor will look at in each run. Any I/O made by the compactor is " +
+            "additionally subject to the database IO controller." )
+    public static final Setting<Integer> store_compaction_batch_size =
+            newBuilder( "unsupported.dbms.store_compaction.batch_size", INT, 1000 ).addConstraint( min( 1 ) ).build();
+
     @Internal
     @Description( "Block/buffer size for index population" )
     public static final Setting<Long> index_populator_block_size = newBuilder( "unsupported.dbms.index.populator_block_size", BYTES, mebiBytes( 1 ) )
@@ -74,6 +74,8 @@ class CypherConfiguration private (val config: Config) {
   val lenientCreateRelationship: Boolean = config.get(GraphDatabaseSettings.cypher_lenient_create_relationship)
   val pipelinedBatchSizeSmall: Int = config.get(GraphDatabaseInternalSettings.cypher_pipelined_batch_size_small)
   val pipelinedBatchSizeBig: Int = config.get(GraphDatabaseInternalSettings.cypher_pipelined_batch_size_big)
+  val interpretedParallelIndexScanWorkers: Int = config.get(GraphDatabaseInternalSettings.cypher_interpreted_parallel_index_scan_workers)
+  val interpretedParallelIndexScanMinIndexSize: Long = config.get(GraphDatabaseInternalSettings.cypher_interpreted_parallel_index_scan_min_index_size)
   val doSchedulerTracing: Boolean = config.get(GraphDatabaseInternalSettings.enable_pipelined_runtime_trace)
   val schedulerTracingFile: File = config.get(GraphDatabaseInternalSettings.pipelined_scheduler_trace_filename).toFile
   val recompilationLimit: Int = config.get(GraphDatabaseInternalSettings.cypher_expression_recompilation_limit)
@@ -28,6 +28,7 @@ import org.neo4j.cypher.internal.cache.CaffeineCacheFactory;
 import org.neo4j.cypher.internal.cache.ExecutorBasedCaffeineCacheFactory;
 import org.neo4j.cypher.internal.compiler.CypherPlannerConfiguration;
 import org.neo4j.cypher.internal.config.CypherConfiguration;
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelIndexScanScheduler;
 import org.neo4j.kernel.impl.query.QueryEngineProvider;
 import org.neo4j.kernel.impl.query.QueryExecutionEngine;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
@@ -48,7 +49,13 @@ public class CommunityCypherEngineProvider extends QueryEngineProvider
                                                    CypherPlannerConfiguration plannerConfig,
                                                    CypherRuntimeConfiguration runtimeConfig )
     {
-        return new CommunityCompilerFactory( queryService, spi.monitors(), makeCacheFactory(spi), spi.logProvider(), plannerConfig, runtimeConfig );
+        return new CommunityCompilerFactory( queryService, spi.monitors(), makeCacheFactory(spi), spi.logProvider(), plannerConfig, runtimeConfig,
+                                             makeParallelIndexScanScheduler( spi ) );
+    }
+
+    protected static ParallelIndexScanScheduler makeParallelIndexScanScheduler( SPI spi )
+    {
+        return spi.lifeSupport().add( new ParallelIndexScanScheduler( spi.jobScheduler(), spi.kernel().cursors() ) );
     }
 
     @Override
@@ -29,6 +29,7 @@ import org.neo4j.cypher.internal.options.CypherRuntimeOption
 import org.neo4j.cypher.internal.options.CypherUpdateStrategy
 import org.neo4j.cypher.internal.options.CypherVersion
 import org.neo4j.cypher.internal.planning.CypherPlanner
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelIndexScanScheduler
 import org.neo4j.exceptions.SyntaxException
 import org.neo4j.kernel.GraphDatabaseQueryService
 import org.neo4j.logging.Log
@@ -43,7 +44,8 @@ class CommunityCompilerFactory(graph: GraphDatabaseQueryService,
                                cacheFactory: CaffeineCacheFactory,
                                logProvider: LogProvider,
                                plannerConfig: CypherPlannerConfiguration,
-                               runtimeConfig: CypherRuntimeConfiguration
+                               runtimeConfig: CypherRuntimeConfiguration,
+                               parallelIndexScanScheduler: ParallelIndexScanScheduler
                               ) extends CompilerFactory {
 
   private val log: Log = logProvider.getLog(getClass)
@@ -85,7 +87,7 @@ class CommunityCompilerFactory(graph: GraphDatabaseQueryService,
     CypherCurrentCompiler(
       planner,
       runtime,
-      CommunityRuntimeContextManager(log, runtimeConfig),
+      CommunityRuntimeContextManager(log, runtimeConfig, Some(parallelIndexScanScheduler)),
       kernelMonitors)
   }
 }
@@ -25,6 +25,7 @@ import org.neo4j.cypher.internal.options.CypherDebugOptions
 import org.neo4j.cypher.internal.options.CypherInterpretedPipesFallbackOption
 import org.neo4j.cypher.internal.options.CypherOperatorEngineOption
 import org.neo4j.cypher.internal.planner.spi.ReadTokenContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelIndexScanScheduler
 import org.neo4j.cypher.internal.util.AnonymousVariableNameGenerator
 import org.neo4j.internal.kernel.api.SchemaRead
 import org.neo4j.logging.Log
@@ -37,12 +38,16 @@ case class CommunityRuntimeContext(tokenContext: ReadTokenContext,
                                    log: Log,
                                    config: CypherRuntimeConfiguration,
                                    anonymousVariableNameGenerator: AnonymousVariableNameGenerator,
+                                   override val parallelIndexScanScheduler: Option[ParallelIndexScanScheduler] = None,
                                   ) extends RuntimeContext {
 
   override def compileExpressions: Boolean = false
 }
 
-case class CommunityRuntimeContextManager(log: Log, config: CypherRuntimeConfiguration) extends RuntimeContextManager[CommunityRuntimeContext] {
+case class CommunityRuntimeContextManager(log: Log,
+                                          config: CypherRuntimeConfiguration,
+                                          parallelIndexScanScheduler: Option[ParallelIndexScanScheduler] = None)
+  extends RuntimeContextManager[CommunityRuntimeContext] {
   override def create(tokenContext: ReadTokenContext,
                       schemaRead: SchemaRead,
                       clock: Clock,
@@ -53,7 +58,7 @@ case class CommunityRuntimeContextManager(log: Log, config: CypherRuntimeConfigu
                       ignore4: CypherInterpretedPipesFallbackOption,
                       anonymousVariableNameGenerator: AnonymousVariableNameGenerator,
                      ): CommunityRuntimeContext =
-    CommunityRuntimeContext(tokenContext, schemaRead, log, config, anonymousVariableNameGenerator)
+    CommunityRuntimeContext(tokenContext, schemaRead, log, config, anonymousVariableNameGenerator, parallelIndexScanScheduler)
 
   // As we rely completely on transaction bound resources in community,
   // there is no need for further assertions here.
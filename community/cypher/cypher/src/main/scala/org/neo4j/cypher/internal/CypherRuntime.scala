@@ -36,6 +36,7 @@ import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.EffectiveCardina
 import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.LeveragedOrders
 import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.ProvidedOrders
 import org.neo4j.cypher.internal.planner.spi.ReadTokenContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelIndexScanScheduler
 import org.neo4j.cypher.internal.util.AnonymousVariableNameGenerator
 import org.neo4j.cypher.internal.util.InternalNotification
 import org.neo4j.cypher.internal.util.RecordingNotificationLogger
@@ -107,6 +108,8 @@ abstract class RuntimeContext {
   def compileExpressions: Boolean
   def log: Log
   def anonymousVariableNameGenerator: AnonymousVariableNameGenerator
+  // Runs the workers of parallel index reads in the interpreted runtime, which never reads in parallel without it
+  def parallelIndexScanScheduler: Option[ParallelIndexScanScheduler] = None
 }
 
 /**
@@ -235,7 +238,9 @@ object CypherRuntimeConfiguration {
       enableMonitors = config.enableMonitors,
       executionPlanCacheSize = config.executionPlanCacheSize,
       compiledExpressionMethodLimit = config.compiledExpressionMethodLimit,
-      operatorFusingMethodLimit = config.operatorFusingMethodLimit
+      operatorFusingMethodLimit = config.operatorFusingMethodLimit,
+      interpretedParallelIndexScanWorkers = config.interpretedParallelIndexScanWorkers,
+      interpretedParallelIndexScanMinIndexSize = config.interpretedParallelIndexScanMinIndexSize
     )
   }
 
@@ -252,7 +257,9 @@ case class CypherRuntimeConfiguration(pipelinedBatchSizeSmall: Int,
                                       enableMonitors: Boolean,
                                       executionPlanCacheSize: Int,
                                       compiledExpressionMethodLimit: Int,
-                                      operatorFusingMethodLimit: Int) {
+                                      operatorFusingMethodLimit: Int,
+                                      interpretedParallelIndexScanWorkers: Int = 0,
+                                      interpretedParallelIndexScanMinIndexSize: Long = Long.MaxValue) {
 
   Preconditions.checkArgument(pipelinedBatchSizeSmall <= pipelinedBatchSizeBig, s"pipelinedBatchSizeSmall (got $pipelinedBatchSizeSmall) must be <= pipelinedBatchSizeBig (got $pipelinedBatchSizeBig)")
 
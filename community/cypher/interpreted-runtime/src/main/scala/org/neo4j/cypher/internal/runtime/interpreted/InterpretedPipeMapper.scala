@@ -240,6 +240,7 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes.OptionalPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.OrderedAggregationPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.OrderedDistinctPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.OrderedUnionPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelIndexScanConfig
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.PartialSortPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.PartialTop1Pipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.PartialTopNPipe
@@ -312,7 +313,8 @@ case class InterpretedPipeMapper(readOnly: Boolean,
                                  expressionConverters: ExpressionConverters,
                                  tokenContext: ReadTokenContext,
                                  indexRegistrator: QueryIndexRegistrator,
-                                 anonymousVariableNameGenerator: AnonymousVariableNameGenerator)
+                                 anonymousVariableNameGenerator: AnonymousVariableNameGenerator,
+                                 parallelIndexScan: ParallelIndexScanConfig = ParallelIndexScanConfig.DISABLED)
                                 (implicit semanticTable: SemanticTable) extends PipeMapper {
 
   private def getBuildExpression(id: Id): internal.expressions.Expression => Expression =
@@ -360,7 +362,8 @@ case class InterpretedPipeMapper(readOnly: Boolean,
       case DirectedRelationshipIndexSeek(idName, startNode, endNode, typeToken, properties, valueExpr, _, indexOrder, indexType) =>
         val indexSeekMode = IndexSeekModeFactory(unique = false, readOnly = readOnly).fromQueryExpression(valueExpr)
         DirectedRelationshipIndexSeekPipe(idName, startNode, endNode, typeToken, properties.toArray,
-          indexRegistrator.registerQueryIndex(indexType, typeToken, properties), valueExpr.map(buildExpression), indexSeekMode, indexOrder)(id = id)
+          indexRegistrator.registerQueryIndex(indexType, typeToken, properties), valueExpr.map(buildExpression), indexSeekMode, indexOrder,
+          parallelIndexScan)(id = id)
 
       case UndirectedRelationshipIndexSeek(idName, startNode, endNode, typeToken, properties, valueExpr, _, indexOrder, indexType) =>
         val indexSeekMode = IndexSeekModeFactory(unique = false, readOnly = readOnly).fromQueryExpression(valueExpr)
@@ -369,7 +372,7 @@ case class InterpretedPipeMapper(readOnly: Boolean,
 
       case DirectedRelationshipIndexScan(idName, startNode, endNode, typeToken, properties, _, indexOrder, indexType) =>
         DirectedRelationshipIndexScanPipe(idName, startNode, endNode, typeToken, properties.toArray,
-          indexRegistrator.registerQueryIndex(indexType, typeToken, properties), indexOrder)(id = id)
+          indexRegistrator.registerQueryIndex(indexType, typeToken, properties), indexOrder, parallelIndexScan)(id = id)
 
       case UndirectedRelationshipIndexScan(idName, startNode, endNode, typeToken, properties, _, indexOrder, indexType) =>
         UndirectedRelationshipIndexScanPipe(idName, startNode, endNode, typeToken, properties.toArray,
@@ -394,7 +397,7 @@ case class InterpretedPipeMapper(readOnly: Boolean,
       case NodeIndexSeek(ident, label, properties, valueExpr, _, indexOrder, indexType) =>
         val indexSeekMode = IndexSeekModeFactory(unique = false, readOnly = readOnly).fromQueryExpression(valueExpr)
         NodeIndexSeekPipe(ident, label, properties.toArray, indexRegistrator.registerQueryIndex(indexType, label, properties),
-          valueExpr.map(buildExpression), indexSeekMode, indexOrder)(id = id)
+          valueExpr.map(buildExpression), indexSeekMode, indexOrder, parallelIndexScan)(id = id)
 
       case NodeUniqueIndexSeek(ident, label, properties, valueExpr, _, indexOrder, indexType) =>
         val indexSeekMode = IndexSeekModeFactory(unique = true, readOnly = readOnly).fromQueryExpression(valueExpr)
@@ -402,7 +405,8 @@ case class InterpretedPipeMapper(readOnly: Boolean,
           valueExpr.map(buildExpression), indexSeekMode, indexOrder)(id = id)
 
       case NodeIndexScan(ident, label, properties, _, indexOrder, indexType) =>
-        NodeIndexScanPipe(ident, label, properties, indexRegistrator.registerQueryIndex(indexType, label, properties), indexOrder)(id = id)
+        NodeIndexScanPipe(ident, label, properties, indexRegistrator.registerQueryIndex(indexType, label, properties), indexOrder,
+          parallelIndexScan)(id = id)
 
       case NodeIndexContainsScan(ident, label, property, valueExpr, _, indexOrder, indexType) =>
         NodeIndexContainsScanPipe(ident, label, property, indexRegistrator.registerQueryIndex(indexType, label, property),
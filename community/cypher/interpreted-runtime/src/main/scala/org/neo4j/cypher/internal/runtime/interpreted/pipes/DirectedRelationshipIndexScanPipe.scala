@@ -33,7 +33,8 @@ case class DirectedRelationshipIndexScanPipe(ident: String,
                                              relType: RelationshipTypeToken,
                                              properties: Array[IndexedProperty],
                                              queryIndexId: Int,
-                                             indexOrder: IndexOrder)
+                                             indexOrder: IndexOrder,
+                                             parallelism: ParallelIndexScanConfig = ParallelIndexScanConfig.DISABLED)
                                             (val id: Id = Id.INVALID_ID) extends Pipe with IndexPipeWithValues {
 
 
@@ -44,7 +45,9 @@ case class DirectedRelationshipIndexScanPipe(ident: String,
 
   protected def internalCreateResults(state: QueryState): ClosingIterator[CypherRow] = {
     val baseContext = state.newRowWithArgument(rowFactory)
-    val cursor = state.query.relationshipIndexScan(state.queryIndexes(queryIndexId), needsValues, indexOrder)
+    val index = state.queryIndexes(queryIndexId)
+    val cursor = ParallelIndexScan.relationshipIndexScan(state, index, indexOrder, parallelism)
+      .getOrElse(state.query.relationshipIndexScan(index, needsValues, indexOrder))
     new RelIndexIterator(state, startNode, endNode, baseContext, cursor)
   }
 }
@@ -37,7 +37,8 @@ case class DirectedRelationshipIndexSeekPipe(ident: String,
                                              queryIndexId: Int,
                                              valueExpr: QueryExpression[Expression],
                                              indexMode: IndexSeekMode = IndexSeek,
-                                             indexOrder: IndexOrder)
+                                             indexOrder: IndexOrder,
+                                             parallelism: ParallelIndexScanConfig = ParallelIndexScanConfig.DISABLED)
                                     (val id: Id = Id.INVALID_ID) extends Pipe with EntityIndexSeeker with IndexPipeWithValues {
 
   override val propertyIds: Array[Int] = properties.map(_.propertyKeyToken.nameId.id)
@@ -50,6 +51,16 @@ case class DirectedRelationshipIndexSeekPipe(ident: String,
   protected def internalCreateResults(state: QueryState): ClosingIterator[CypherRow] = {
     val index = state.queryIndexes(queryIndexId)
     val baseContext = state.newRowWithArgument(rowFactory)
-    new RelIndexIterator(state, startNode, endNode, baseContext, relationshipIndexSeek(state, index, needsValues, indexOrder, baseContext))
+    val cursor = indexMode match {
+      case _: SeekByRange if parallelism.enabled =>
+        computeIndexQueries(state, baseContext) match {
+          case Seq(query) =>
+            ParallelIndexScan.relationshipIndexSeek(state, index, indexOrder, parallelism, query)
+              .getOrElse(state.query.relationshipIndexSeek(index, needsValues, indexOrder, query))
+          case _ => relationshipIndexSeek(state, index, needsValues, indexOrder, baseContext)
+        }
+      case _ => relationshipIndexSeek(state, index, needsValues, indexOrder, baseContext)
+    }
+    new RelIndexIterator(state, startNode, endNode, baseContext, cursor)
   }
 }
@@ -31,7 +31,8 @@ case class NodeIndexScanPipe(ident: String,
                              label: LabelToken,
                              properties: Seq[IndexedProperty],
                              queryIndexId: Int,
-                             indexOrder: IndexOrder)
+                             indexOrder: IndexOrder,
+                             parallelism: ParallelIndexScanConfig = ParallelIndexScanConfig.DISABLED)
                             (val id: Id = Id.INVALID_ID) extends Pipe with IndexPipeWithValues {
 
   override val indexPropertyIndices: Array[Int] =
@@ -42,7 +43,9 @@ case class NodeIndexScanPipe(ident: String,
 
   protected def internalCreateResults(state: QueryState): ClosingIterator[CypherRow] = {
     val baseContext = state.newRowWithArgument(rowFactory)
-    val cursor = state.query.nodeIndexScan(state.queryIndexes(queryIndexId), needsValues, indexOrder)
+    val index = state.queryIndexes(queryIndexId)
+    val cursor = ParallelIndexScan.nodeIndexScan(state, index, indexOrder, parallelism)
+      .getOrElse(state.query.nodeIndexScan(index, needsValues, indexOrder))
     new NodeIndexIterator(state, state.query, baseContext, cursor)
   }
 }
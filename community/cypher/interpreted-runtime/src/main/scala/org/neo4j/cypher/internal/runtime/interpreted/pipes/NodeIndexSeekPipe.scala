@@ -35,7 +35,8 @@ case class NodeIndexSeekPipe(ident: String,
                              queryIndexId: Int,
                              valueExpr: QueryExpression[Expression],
                              indexMode: IndexSeekMode = IndexSeek,
-                             indexOrder: IndexOrder)
+                             indexOrder: IndexOrder,
+                             parallelism: ParallelIndexScanConfig = ParallelIndexScanConfig.DISABLED)
                             (val id: Id = Id.INVALID_ID) extends Pipe with EntityIndexSeeker with IndexPipeWithValues {
 
   override val propertyIds: Array[Int] = properties.map(_.propertyKeyToken.nameId.id)
@@ -48,7 +49,17 @@ case class NodeIndexSeekPipe(ident: String,
   protected def internalCreateResults(state: QueryState): ClosingIterator[CypherRow] = {
     val index = state.queryIndexes(queryIndexId)
     val baseContext = state.newRowWithArgument(rowFactory)
-    new NodeIndexIterator(state, state.query, baseContext, indexSeek(state, index, needsValues, indexOrder, baseContext))
+    val cursor = indexMode match {
+      case _: SeekByRange if parallelism.enabled =>
+        computeIndexQueries(state, baseContext) match {
+          case Seq(query) =>
+            ParallelIndexScan.nodeIndexSeek(state, index, indexOrder, parallelism, query)
+              .getOrElse(state.query.nodeIndexSeek(index, needsValues, indexOrder, query))
+          case _ => indexSeek(state, index, needsValues, indexOrder, baseContext)
+        }
+      case _ => indexSeek(state, index, needsValues, indexOrder, baseContext)
+    }
+    new NodeIndexIterator(state, state.query, baseContext, cursor)
   }
 
   def canEqual(other: Any): Boolean = other.isInstanceOf[NodeIndexSeekPipe]
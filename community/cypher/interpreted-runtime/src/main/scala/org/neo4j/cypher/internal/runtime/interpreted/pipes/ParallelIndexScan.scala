@@ -0,0 +1,590 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import java.util.concurrent.BlockingQueue
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicReference
+
+import org.neo4j.cypher.internal.logical.plans.IndexOrder
+import org.neo4j.cypher.internal.logical.plans.IndexOrderAscending
+import org.neo4j.cypher.internal.logical.plans.IndexOrderDescending
+import org.neo4j.cypher.internal.logical.plans.IndexOrderNone
+import org.neo4j.cypher.internal.runtime.QueryTransactionalContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelIndexScan.Batch
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelIndexScan.PartitionBuffer
+import org.neo4j.graphdb.DatabaseShutdownException
+import org.neo4j.internal.kernel.api.Cursor
+import org.neo4j.internal.kernel.api.CursorFactory
+import org.neo4j.internal.kernel.api.DefaultCloseListenable
+import org.neo4j.internal.kernel.api.IndexReadSession
+import org.neo4j.internal.kernel.api.KernelReadTracer
+import org.neo4j.internal.kernel.api.NodeCursor
+import org.neo4j.internal.kernel.api.NodeValueIndexCursor
+import org.neo4j.internal.kernel.api.PartitionedScan
+import org.neo4j.internal.kernel.api.PropertyIndexQuery
+import org.neo4j.internal.kernel.api.Read
+import org.neo4j.internal.kernel.api.RelationshipScanCursor
+import org.neo4j.internal.kernel.api.RelationshipValueIndexCursor
+import org.neo4j.internal.kernel.api.TokenRead
+import org.neo4j.internal.kernel.api.ValueIndexCursor
+import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotFoundKernelException
+import org.neo4j.internal.kernel.api.security.AccessMode
+import org.neo4j.internal.schema.IndexType
+import org.neo4j.io.IOUtils
+import org.neo4j.io.pagecache.context.CursorContext
+import org.neo4j.kernel.api.KernelTransaction.ExecutionContext
+import org.neo4j.kernel.api.StatementConstants
+import org.neo4j.kernel.lifecycle.LifecycleAdapter
+import org.neo4j.memory.EmptyMemoryTracker
+import org.neo4j.scheduler.Group
+import org.neo4j.scheduler.JobHandle
+import org.neo4j.scheduler.JobMonitoringParams
+import org.neo4j.scheduler.JobScheduler
+import org.neo4j.values.storable.Value
+
+import scala.collection.mutable.ArrayBuffer
+
+/**
+ * When the interpreted runtime may read an index scan or range seek as partitions on worker threads.
+ *
+ * @param workers the maximum number of worker threads to read one index scan or seek with, 0 to never read in parallel.
+ * @param minIndexSize the minimum number of entries in an index for reading it in parallel.
+ * @param scheduler runs the workers, reads are never parallel without one.
+ */
+case class ParallelIndexScanConfig(workers: Int, minIndexSize: Long, scheduler: Option[ParallelIndexScanScheduler]) {
+  def enabled: Boolean = workers > 0 && scheduler.isDefined
+}
+
+object ParallelIndexScanConfig {
+  val DISABLED: ParallelIndexScanConfig = ParallelIndexScanConfig(0, Long.MaxValue, None)
+}
+
+/**
+ * Runs the workers of parallel index reads on the database job scheduler, and stops the reads that are still running when the database stops.
+ *
+ * @param jobScheduler the job scheduler of the database.
+ * @param cursors the thread safe cursors of the kernel, which the workers read their partitions with.
+ */
+class ParallelIndexScanScheduler(jobScheduler: JobScheduler, val cursors: CursorFactory) extends LifecycleAdapter {
+  private val reads = ConcurrentHashMap.newKeySet[ParallelIndexScan.PartitionedRead[_]]()
+  @volatile private var stopped = false
+
+  private[pipes] def schedule(job: Runnable): JobHandle[_] = jobScheduler.schedule(Group.CYPHER_INDEX_SCAN, JobMonitoringParams.NOT_MONITORED, job)
+
+  private[pipes] def register(read: ParallelIndexScan.PartitionedRead[_]): Unit = {
+    reads.add(read)
+    // a read started while the database is stopping must not keep it from stopping
+    if (stopped) {
+      read.stop()
+    }
+  }
+
+  private[pipes] def unregister(read: ParallelIndexScan.PartitionedRead[_]): Unit = reads.remove(read)
+
+  override def start(): Unit = stopped = false
+
+  override def stop(): Unit = {
+    stopped = true
+    reads.forEach(_.stop())
+  }
+}
+
+/**
+ * Reads index scans and range seeks for the interpreted runtime as partitions of the index on worker threads.
+ *
+ * The kernel splits the read into a [[PartitionedScan]], from which each worker reserves one partition at a time and reads it with
+ * the kernel execution context of that partition and a cursor of its own into a bounded buffer for that partition. The returned cursor
+ * is consumed by the query thread and drains the partitions one by one in the order they were reserved. Partitions of a native index
+ * are reserved in index order, so ascending results stay ascending.
+ *
+ * Partitioned reads can't see transaction state, and the worker cursors must be able to return every entry without checking the
+ * entity in the store for security, so only transactions without changes and with full access to the indexed entities read in parallel.
+ * Everything downstream of the index read still runs on the query thread.
+ */
+object ParallelIndexScan {
+  private val BATCH_SIZE = 1024
+  private val BUFFERED_BATCHES_PER_PARTITION = 4
+  private val OFFER_TIMEOUT_MILLIS = 10
+  private val POLL_TIMEOUT_MILLIS = 10
+
+  /**
+   * @return a cursor reading the whole index in parallel, or [[None]] if the scan should be read by the query thread.
+   */
+  def nodeIndexScan(state: QueryState, index: IndexReadSession, indexOrder: IndexOrder, config: ParallelIndexScanConfig): Option[NodeValueIndexCursor] = {
+    val tc = state.query.transactionalContext
+    if (shouldReadInParallel(tc, index, indexOrder, config, Seq(PropertyIndexQuery.allEntries()), nodeAccess)) {
+      val scan = tc.dataRead.nodeIndexScan(index, config.workers, tc.kernelQueryContext)
+      Some(start(state, scan, config, new ParallelNodeValueIndexCursor(_, tc.dataRead, numberOfProperties(index)), nodeCursor(config)))
+    } else {
+      None
+    }
+  }
+
+  /**
+   * @return a cursor reading the entries matching the given range query in parallel, or [[None]] if the seek should be read by the query thread.
+   */
+  def nodeIndexSeek(state: QueryState, index: IndexReadSession, indexOrder: IndexOrder, config: ParallelIndexScanConfig,
+                    query: Seq[PropertyIndexQuery]): Option[NodeValueIndexCursor] = {
+    val tc = state.query.transactionalContext
+    if (query.exists(isRangeQuery) && shouldReadInParallel(tc, index, indexOrder, config, query, nodeAccess)) {
+      val scan = tc.dataRead.nodeIndexSeek(index, config.workers, tc.kernelQueryContext, query: _*)
+      Some(start(state, scan, config, new ParallelNodeValueIndexCursor(_, tc.dataRead, numberOfProperties(index)), nodeCursor(config)))
+    } else {
+      None
+    }
+  }
+
+  /**
+   * @return a cursor reading the whole index in parallel, or [[None]] if the scan should be read by the query thread.
+   */
+  def relationshipIndexScan(state: QueryState, index: IndexReadSession, indexOrder: IndexOrder,
+                            config: ParallelIndexScanConfig): Option[RelationshipValueIndexCursor] = {
+    val tc = state.query.transactionalContext
+    if (shouldReadInParallel(tc, index, indexOrder, config, Seq(PropertyIndexQuery.allEntries()), relationshipAccess)) {
+      val scan = tc.dataRead.relationshipIndexScan(index, config.workers, tc.kernelQueryContext)
+      Some(start(state, scan, config, newRelationshipCursor(tc, _, numberOfProperties(index)), relationshipCursor(config)))
+    } else {
+      None
+    }
+  }
+
+  /**
+   * @return a cursor reading the entries matching the given range query in parallel, or [[None]] if the seek should be read by the query thread.
+   */
+  def relationshipIndexSeek(state: QueryState, index: IndexReadSession, indexOrder: IndexOrder, config: ParallelIndexScanConfig,
+                            query: Seq[PropertyIndexQuery]): Option[RelationshipValueIndexCursor] = {
+    val tc = state.query.transactionalContext
+    if (query.exists(isRangeQuery) && shouldReadInParallel(tc, index, indexOrder, config, query, relationshipAccess)) {
+      val scan = tc.dataRead.relationshipIndexSeek(index, config.workers, tc.kernelQueryContext, query: _*)
+      Some(start(state, scan, config, newRelationshipCursor(tc, _, numberOfProperties(index)), relationshipCursor(config)))
+    } else {
+      None
+    }
+  }
+
+  private def shouldReadInParallel(tc: QueryTransactionalContext,
+                                   index: IndexReadSession,
+                                   indexOrder: IndexOrder,
+                                   config: ParallelIndexScanConfig,
+                                   query: Seq[PropertyIndexQuery],
+                                   fullAccess: (AccessMode, Array[Int]) => Boolean): Boolean = {
+    val descriptor = index.reference()
+    val orderKept = indexOrder match {
+      case IndexOrderNone => true
+      case IndexOrderAscending => descriptor.getIndexType == IndexType.RANGE
+      case IndexOrderDescending => false
+    }
+    config.enabled &&
+      orderKept &&
+      descriptor.getCapability.supportPartitionedScan(query: _*) &&
+      !tc.dataRead.transactionStateHasChanges &&
+      fullAccess(tc.securityContext.mode(), descriptor.schema().getPropertyIds) &&
+      indexSize(tc, index) >= config.minIndexSize
+  }
+
+  private def nodeAccess(mode: AccessMode, propertyIds: Array[Int]): Boolean =
+    mode.allowsTraverseAllLabels() && propertyIds.forall(mode.allowsReadPropertyAllLabels)
+
+  private def relationshipAccess(mode: AccessMode, propertyIds: Array[Int]): Boolean =
+    mode.allowsTraverseAllLabels() && mode.allowsTraverseAllRelTypes() && propertyIds.forall(mode.allowsReadPropertyAllRelTypes)
+
+  private def isRangeQuery(query: PropertyIndexQuery): Boolean = query match {
+    case _: PropertyIndexQuery.RangePredicate[_] | _: PropertyIndexQuery.StringPrefixPredicate => true
+    case _ => false
+  }
+
+  private def indexSize(tc: QueryTransactionalContext, index: IndexReadSession): Long =
+    try {
+      tc.schemaRead.indexSize(index.reference())
+    } catch {
+      case _: IndexNotFoundKernelException => 0
+    }
+
+  private def numberOfProperties(index: IndexReadSession): Int = index.reference().schema().getPropertyIds.length
+
+  // Worker cursors come from the thread safe cursors of the kernel, since the cursor pool of the transaction is only for the query thread.
+  // Their memory is not tracked, the memory tracker of the transaction isn't thread safe either.
+  private def nodeCursor(config: ParallelIndexScanConfig): CursorContext => NodeValueIndexCursor =
+    config.scheduler.get.cursors.allocateFullAccessNodeValueIndexCursor(_, EmptyMemoryTracker.INSTANCE)
+
+  private def relationshipCursor(config: ParallelIndexScanConfig): CursorContext => RelationshipValueIndexCursor =
+    config.scheduler.get.cursors.allocateRelationshipValueIndexCursor(_, EmptyMemoryTracker.INSTANCE)
+
+  private def newRelationshipCursor(tc: QueryTransactionalContext, read: PartitionedRead[_], propertyCount: Int): ParallelRelationshipValueIndexCursor =
+    new ParallelRelationshipValueIndexCursor(read, tc.dataRead, tc.cursors.allocateRelationshipScanCursor(tc.cursorContext), propertyCount)
+
+  private def start[CURSOR <: Cursor with ValueIndexCursor, RESULT <: ParallelValueIndexCursor](state: QueryState,
+                                                                                               scan: PartitionedScan[CURSOR],
+                                                                                               config: ParallelIndexScanConfig,
+                                                                                               newResultCursor: PartitionedRead[_] => RESULT,
+                                                                                               allocateCursor: CursorContext => CURSOR): RESULT = {
+    val tc = state.query.transactionalContext
+    val numberOfPartitions = scan.getNumberOfPartitions
+    // Execution contexts have to be created by the query thread, so there is one up front for every partition
+    val contexts = Array.fill(numberOfPartitions)(tc.createKernelExecutionContext())
+    val read = new PartitionedRead[CURSOR](scan, math.min(config.workers, numberOfPartitions), contexts, allocateCursor, config.scheduler.get)
+    val resultCursor = newResultCursor(read)
+    state.query.resources.trace(resultCursor)
+    read.start()
+    resultCursor
+  }
+
+  private[pipes] class Batch(val references: Array[Long], val values: Array[Array[Value]], val size: Int)
+
+  private[pipes] val END_OF_PARTITION = new Batch(Array.emptyLongArray, Array.empty, 0)
+
+  private[pipes] class PartitionBuffer {
+    val batches = new LinkedBlockingQueue[Batch](BUFFERED_BATCHES_PER_PARTITION)
+  }
+
+  private[pipes] val NO_MORE_PARTITIONS = new PartitionBuffer
+
+  /**
+   * The worker side of a parallel index read. Workers keep reserving partitions until there are none left or the read is stopped.
+   * Partition `i` in reservation order is read with `contexts(i)`, whichever worker reserves it.
+   */
+  class PartitionedRead[CURSOR <: Cursor with ValueIndexCursor](scan: PartitionedScan[CURSOR],
+                                                                workers: Int,
+                                                                contexts: Array[ExecutionContext],
+                                                                allocateCursor: CursorContext => CURSOR,
+                                                                scheduler: ParallelIndexScanScheduler) {
+    // In reservation order, followed by NO_MORE_PARTITIONS when all workers are done
+    private val partitions = new LinkedBlockingQueue[PartitionBuffer]()
+    private val activeWorkers = new AtomicInteger(workers)
+    private val failure = new AtomicReference[Throwable]()
+    @volatile private var stopped = false
+    // guarded by partitions
+    private var reservedPartitions = 0
+    private val jobs = ArrayBuffer.empty[JobHandle[_]]
+
+    def start(): Unit = {
+      scheduler.register(this)
+      if (workers == 0) {
+        partitions.put(NO_MORE_PARTITIONS)
+      } else {
+        try {
+          for (_ <- 0 until workers) {
+            jobs += scheduler.schedule(new Runnable {
+              override def run(): Unit = work()
+            })
+          }
+        } catch {
+          case t: Throwable =>
+            fail(t)
+            throw t
+        }
+      }
+    }
+
+    private def work(): Unit = {
+      try {
+        var partition = reserve()
+        while (partition != null) {
+          partition.read()
+          partition = reserve()
+        }
+      } catch {
+        case t: Throwable => fail(t)
+      } finally {
+        if (activeWorkers.decrementAndGet() == 0) {
+          partitions.put(NO_MORE_PARTITIONS)
+        }
+      }
+    }
+
+    private def reserve(): ReservedPartition = partitions.synchronized {
+      if (stopped || reservedPartitions == contexts.length) {
+        null
+      } else {
+        val context = contexts(reservedPartitions)
+        val cursor = allocateCursor(context.cursorContext())
+        var reserved = false
+        try {
+          // Reserving and enqueueing under the same lock keeps the partitions in the queue in reservation order
+          reserved = scan.reservePartition(cursor, context.cursorContext(), context.accessMode())
+        } finally {
+          if (!reserved) {
+            cursor.close()
+          }
+        }
+        if (reserved) {
+          reservedPartitions += 1
+          val partition = new ReservedPartition(cursor, context)
+          partitions.put(partition.buffer)
+          partition
+        } else {
+          null
+        }
+      }
+    }
+
+    private class ReservedPartition(cursor: CURSOR, context: ExecutionContext) {
+      val buffer = new PartitionBuffer
+
+      def read(): Unit = {
+        try {
+          var references = new Array[Long](BATCH_SIZE)
+          var values = new Array[Array[Value]](BATCH_SIZE)
+          var size = 0
+          while (!stopped && cursor.next()) {
+            references(size) = reference(cursor)
+            val numberOfProperties = cursor.numberOfProperties()
+            val entryValues = new Array[Value](numberOfProperties)
+            var i = 0
+            while (i < numberOfProperties) {
+              entryValues(i) = cursor.propertyValue(i)
+              i += 1
+            }
+            values(size) = entryValues
+            size += 1
+            if (size == BATCH_SIZE) {
+              offer(buffer, new Batch(references, values, size))
+              references = new Array[Long](BATCH_SIZE)
+              values = new Array[Array[Value]](BATCH_SIZE)
+              size = 0
+            }
+          }
+          if (size > 0) {
+            offer(buffer, new Batch(references, values, size))
+          }
+          offer(buffer, END_OF_PARTITION)
+        } finally {
+          cursor.close()
+          context.complete()
+        }
+      }
+    }
+
+    private def reference(cursor: CURSOR): Long = cursor match {
+      case node: NodeValueIndexCursor => node.nodeReference()
+      case relationship: RelationshipValueIndexCursor => relationship.relationshipReference()
+    }
+
+    private def offer(partition: PartitionBuffer, batch: Batch): Unit = {
+      while (!stopped && !partition.batches.offer(batch, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+        // the query thread is behind, wait for it to catch up unless the read is stopped
+      }
+    }
+
+    private def fail(t: Throwable): Unit = {
+      failure.compareAndSet(null, t)
+      stopped = true
+    }
+
+    /**
+     * Stops the workers without waiting for them, the query thread gets the given failure when it reads the next entry.
+     */
+    def stop(): Unit = fail(new DatabaseShutdownException())
+
+    /**
+     * @return the next partition in reservation order, or [[NO_MORE_PARTITIONS]]. Called by the query thread.
+     */
+    private[pipes] def nextPartition(): PartitionBuffer = {
+      val partition = poll(partitions)
+      if (partition eq NO_MORE_PARTITIONS) {
+        // a worker may have failed before it reserved a partition
+        throwIfFailed()
+      }
+      partition
+    }
+
+    /**
+     * @return the next batch of the given partition, or [[END_OF_PARTITION]]. Called by the query thread.
+     */
+    private[pipes] def nextBatch(partition: PartitionBuffer): Batch = poll(partition.batches)
+
+    private def poll[T](queue: BlockingQueue[T]): T = {
+      throwIfFailed()
+      var element = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+      while (element == null) {
+        // the worker filling the queue may have failed or been stopped, in which case the queue is never filled
+        throwIfFailed()
+        element = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+      }
+      element
+    }
+
+    private def throwIfFailed(): Unit = {
+      val t = failure.get()
+      if (t != null) {
+        throw t
+      }
+    }
+
+    /**
+     * Stops the workers and waits for them to finish, then releases the resources they used. Called by the query thread.
+     */
+    def close(): Unit = {
+      stopped = true
+      try {
+        jobs.foreach(_.waitTermination())
+      } finally {
+        scheduler.unregister(this)
+        partitions.synchronized {
+          // contexts of partitions that were never reserved have not been used by any worker, but still must be completed before closing
+          contexts.drop(reservedPartitions).foreach(_.complete())
+          reservedPartitions = contexts.length
+        }
+        IOUtils.closeAll(contexts: _*)
+      }
+    }
+  }
+}
+
+/**
+ * The query thread side of a parallel index read, handing out the entries of one partition at a time.
+ */
+abstract class ParallelValueIndexCursor(read: ParallelIndexScan.PartitionedRead[_], propertyCount: Int)
+  extends DefaultCloseListenable with ValueIndexCursor {
+
+  private var partition: PartitionBuffer = _
+  private var batch: Batch = _
+  private var index = 0
+  private var exhausted = false
+  private var closed = false
+  protected var tracer: KernelReadTracer = _
+  private var tracedSeek = false
+
+  protected def reference: Long = batch.references(index)
+
+  protected def onEntry(reference: Long): Unit
+
+  override def next(): Boolean = {
+    if (tracer != null && !tracedSeek) {
+      tracer.onIndexSeek()
+      tracedSeek = true
+    }
+    while (!exhausted) {
+      if (batch != null && index + 1 < batch.size) {
+        index += 1
+        if (tracer != null) {
+          onEntry(reference)
+        }
+        return true
+      }
+      if (partition == null) {
+        partition = read.nextPartition()
+        if (partition eq ParallelIndexScan.NO_MORE_PARTITIONS) {
+          exhausted = true
+          partition = null
+          batch = null
+          return false
+        }
+      }
+      batch = read.nextBatch(partition)
+      index = -1
+      if (batch eq ParallelIndexScan.END_OF_PARTITION) {
+        partition = null
+        batch = null
+      }
+    }
+    false
+  }
+
+  override def numberOfProperties(): Int = propertyCount
+
+  override def hasValue: Boolean = true
+
+  override def propertyValue(offset: Int): Value = batch.values(index)(offset)
+
+  override def setTracer(tracer: KernelReadTracer): Unit = this.tracer = tracer
+
+  override def removeTracer(): Unit = this.tracer = null
+
+  override def closeInternal(): Unit = {
+    if (!closed) {
+      closed = true
+      read.close()
+    }
+  }
+
+  override def isClosed: Boolean = closed
+}
+
+/**
+ * Entries of a parallel node index read. The nodes themselves are read through the transaction's [[Read]] on the query thread.
+ */
+class ParallelNodeValueIndexCursor(read: ParallelIndexScan.PartitionedRead[_], dataRead: Read, propertyCount: Int)
+  extends ParallelValueIndexCursor(read, propertyCount) with NodeValueIndexCursor {
+
+  override protected def onEntry(reference: Long): Unit = tracer.onNode(reference)
+
+  override def node(cursor: NodeCursor): Unit = dataRead.singleNode(nodeReference(), cursor)
+
+  override def nodeReference(): Long = reference
+
+  override def score(): Float = Float.NaN
+}
+
+/**
+ * Entries of a parallel relationship index read. Only the relationship reference and the indexed values are buffered, the type and
+ * the nodes of the current relationship are read on demand with the given scan cursor, through the transaction's [[Read]] on the query thread.
+ */
+class ParallelRelationshipValueIndexCursor(read: ParallelIndexScan.PartitionedRead[_],
+                                           dataRead: Read,
+                                           relationships: RelationshipScanCursor,
+                                           propertyCount: Int)
+  extends ParallelValueIndexCursor(read, propertyCount) with RelationshipValueIndexCursor {
+
+  private var positionedAt = StatementConstants.NO_SUCH_RELATIONSHIP
+  private var found = false
+
+  override protected def onEntry(reference: Long): Unit = tracer.onRelationship(reference)
+
+  override def relationship(cursor: RelationshipScanCursor): Unit = dataRead.singleRelationship(relationshipReference(), cursor)
+
+  override def relationshipReference(): Long = reference
+
+  override def sourceNode(cursor: NodeCursor): Unit = dataRead.singleNode(sourceNodeReference(), cursor)
+
+  override def targetNode(cursor: NodeCursor): Unit = dataRead.singleNode(targetNodeReference(), cursor)
+
+  override def `type`(): Int = if (positionRelationship()) relationships.`type`() else TokenRead.NO_TOKEN
+
+  override def sourceNodeReference(): Long = if (positionRelationship()) relationships.sourceNodeReference() else StatementConstants.NO_SUCH_NODE
+
+  override def targetNodeReference(): Long = if (positionRelationship()) relationships.targetNodeReference() else StatementConstants.NO_SUCH_NODE
+
+  override def score(): Float = Float.NaN
+
+  override def closeInternal(): Unit = {
+    if (!isClosed) {
+      relationships.close()
+    }
+    super.closeInternal()
+  }
+
+  /**
+   * @return `true` if the relationship of the current entry still exists, after positioning the scan cursor at it.
+   */
+  private def positionRelationship(): Boolean = {
+    val reference = relationshipReference()
+    if (positionedAt != reference) {
+      dataRead.singleRelationship(reference, relationships)
+      found = relationships.next()
+      positionedAt = reference
+    }
+    found
+  }
+}
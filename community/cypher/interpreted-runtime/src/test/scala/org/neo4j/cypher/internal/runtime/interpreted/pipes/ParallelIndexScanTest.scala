@@ -0,0 +1,490 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+import org.mockito.ArgumentMatchers.any
+import org.mockito.ArgumentMatchers.anyInt
+import org.mockito.Mockito.RETURNS_DEEP_STUBS
+import org.mockito.Mockito.never
+import org.mockito.Mockito.times
+import org.mockito.Mockito.verify
+import org.mockito.Mockito.when
+import org.mockito.invocation.InvocationOnMock
+import org.neo4j.cypher.internal.expressions.LabelToken
+import org.neo4j.cypher.internal.expressions.NODE_TYPE
+import org.neo4j.cypher.internal.expressions.PropertyKeyToken
+import org.neo4j.cypher.internal.expressions.RELATIONSHIP_TYPE
+import org.neo4j.cypher.internal.expressions.RelationshipTypeToken
+import org.neo4j.cypher.internal.logical.plans.DoNotGetValue
+import org.neo4j.cypher.internal.logical.plans.ExclusiveBound
+import org.neo4j.cypher.internal.logical.plans.IndexOrder
+import org.neo4j.cypher.internal.logical.plans.IndexOrderDescending
+import org.neo4j.cypher.internal.logical.plans.IndexOrderNone
+import org.neo4j.cypher.internal.logical.plans.IndexedProperty
+import org.neo4j.cypher.internal.logical.plans.RangeGreaterThan
+import org.neo4j.cypher.internal.logical.plans.RangeQueryExpression
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.QueryTransactionalContext
+import org.neo4j.cypher.internal.runtime.ResourceManager
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.interpreted.commands.LiteralHelper.literal
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.InequalitySeekRangeExpression
+import org.neo4j.cypher.internal.util.LabelId
+import org.neo4j.cypher.internal.util.NonEmptyList
+import org.neo4j.cypher.internal.util.PropertyKeyId
+import org.neo4j.cypher.internal.util.RelTypeId
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.graphdb.DatabaseShutdownException
+import org.neo4j.internal.kernel.api.Cursor
+import org.neo4j.internal.kernel.api.CursorFactory
+import org.neo4j.internal.kernel.api.DefaultCloseListenable
+import org.neo4j.internal.kernel.api.IndexReadSession
+import org.neo4j.internal.kernel.api.KernelReadTracer
+import org.neo4j.internal.kernel.api.NodeCursor
+import org.neo4j.internal.kernel.api.NodeValueIndexCursor
+import org.neo4j.internal.kernel.api.PartitionedScan
+import org.neo4j.internal.kernel.api.PropertyIndexQuery
+import org.neo4j.internal.kernel.api.Read
+import org.neo4j.internal.kernel.api.RelationshipScanCursor
+import org.neo4j.internal.kernel.api.RelationshipValueIndexCursor
+import org.neo4j.internal.kernel.api.SchemaRead
+import org.neo4j.internal.kernel.api.helpers.StubNodeValueIndexCursor
+import org.neo4j.internal.kernel.api.security.AccessMode
+import org.neo4j.internal.kernel.api.security.SecurityContext
+import org.neo4j.internal.schema.IndexCapability
+import org.neo4j.internal.schema.IndexDescriptor
+import org.neo4j.internal.schema.IndexPrototype
+import org.neo4j.internal.schema.IndexQuery
+import org.neo4j.internal.schema.IndexType
+import org.neo4j.internal.schema.SchemaDescriptor
+import org.neo4j.internal.schema.SchemaDescriptors
+import org.neo4j.io.pagecache.context.CursorContext
+import org.neo4j.kernel.api.KernelTransaction.ExecutionContext
+import org.neo4j.memory.MemoryTracker
+import org.neo4j.scheduler.Group
+import org.neo4j.scheduler.JobHandle
+import org.neo4j.scheduler.JobMonitoringParams
+import org.neo4j.scheduler.JobScheduler
+import org.neo4j.values.storable.Value
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.NodeValue
+import org.neo4j.values.virtual.VirtualValues
+
+import scala.collection.JavaConverters.collectionAsScalaIterableConverter
+import scala.collection.mutable.ArrayBuffer
+
+class ParallelIndexScanTest extends CypherFunSuite {
+
+  private val WORKERS = 3
+  private val MIN_INDEX_SIZE = 1000L
+
+  test("should read the same entries in the same order as a serial node index scan") {
+    val fixture = new Fixture(SchemaDescriptors.forLabel(0, 0))
+    val partitions = partitionsOf(5, 2000)
+    when(fixture.dataRead.nodeIndexScan(any[IndexReadSession], anyInt(), any[org.neo4j.internal.kernel.api.QueryContext]))
+      .thenReturn(fixture.nodeScan(partitions))
+
+    val cursor = ParallelIndexScan.nodeIndexScan(fixture.state, fixture.index, IndexOrderNone, fixture.config).get
+
+    drain(cursor) shouldBe serialRead(partitions)
+    cursor.close()
+    fixture.shouldHaveReleasedEverything()
+  }
+
+  test("should read the same entries in the same order as a serial node index range seek") {
+    val fixture = new Fixture(SchemaDescriptors.forLabel(0, 0))
+    val partitions = partitionsOf(4, 1500)
+    val query = PropertyIndexQuery.range(0, Values.longValue(10), false, null, false)
+    when(fixture.dataRead.nodeIndexSeek(any[IndexReadSession], anyInt(), any[org.neo4j.internal.kernel.api.QueryContext], any[PropertyIndexQuery]))
+      .thenReturn(fixture.nodeScan(partitions))
+
+    val cursor = ParallelIndexScan.nodeIndexSeek(fixture.state, fixture.index, IndexOrderNone, fixture.config, Seq(query)).get
+
+    drain(cursor) shouldBe serialRead(partitions)
+    cursor.close()
+    fixture.shouldHaveReleasedEverything()
+  }
+
+  test("should read all partitions with fewer partitions than workers") {
+    val fixture = new Fixture(SchemaDescriptors.forLabel(0, 0))
+    val partitions = partitionsOf(1, 3000)
+    when(fixture.dataRead.nodeIndexScan(any[IndexReadSession], anyInt(), any[org.neo4j.internal.kernel.api.QueryContext]))
+      .thenReturn(fixture.nodeScan(partitions))
+
+    val cursor = ParallelIndexScan.nodeIndexScan(fixture.state, fixture.index, IndexOrderNone, fixture.config).get
+
+    drain(cursor) shouldBe serialRead(partitions)
+    cursor.close()
+    fixture.workerThreads should have size 1
+    fixture.shouldHaveReleasedEverything()
+  }
+
+  test("should return the first entries of a serial scan and stop the workers when closed early") {
+    val fixture = new Fixture(SchemaDescriptors.forLabel(0, 0))
+    // more entries per partition than the buffers hold, so the workers are still reading when the cursor is closed
+    val partitions = partitionsOf(6, 20000)
+    when(fixture.dataRead.nodeIndexScan(any[IndexReadSession], anyInt(), any[org.neo4j.internal.kernel.api.QueryContext]))
+      .thenReturn(fixture.nodeScan(partitions))
+
+    val cursor = ParallelIndexScan.nodeIndexScan(fixture.state, fixture.index, IndexOrderNone, fixture.config).get
+
+    drain(cursor, limit = 2500) shouldBe serialRead(partitions).take(2500)
+    cursor.close()
+    fixture.shouldHaveReleasedEverything()
+  }
+
+  test("should fail on the query thread when a worker fails") {
+    val fixture = new Fixture(SchemaDescriptors.forLabel(0, 0))
+    val partitions = partitionsOf(5, 2000)
+    when(fixture.dataRead.nodeIndexScan(any[IndexReadSession], anyInt(), any[org.neo4j.internal.kernel.api.QueryContext]))
+      .thenReturn(fixture.nodeScan(partitions, failingPartition = 2))
+
+    val cursor = ParallelIndexScan.nodeIndexScan(fixture.state, fixture.index, IndexOrderNone, fixture.config).get
+
+    val exception = intercept[IllegalStateException](drain(cursor))
+    exception.getMessage shouldBe "Failed to reserve partition 2"
+    cursor.close()
+    fixture.shouldHaveReleasedEverything()
+  }
+
+  test("should fail on the query thread when the database stops") {
+    val fixture = new Fixture(SchemaDescriptors.forLabel(0, 0))
+    val partitions = partitionsOf(6, 20000)
+    when(fixture.dataRead.nodeIndexScan(any[IndexReadSession], anyInt(), any[org.neo4j.internal.kernel.api.QueryContext]))
+      .thenReturn(fixture.nodeScan(partitions))
+
+    val cursor = ParallelIndexScan.nodeIndexScan(fixture.state, fixture.index, IndexOrderNone, fixture.config).get
+    cursor.next() shouldBe true
+    fixture.scheduler.stop()
+
+    intercept[DatabaseShutdownException](drain(cursor))
+    cursor.close()
+    fixture.shouldHaveReleasedEverything()
+  }
+
+  test("should read on the query thread below the minimum index size") {
+    val fixture = new Fixture(SchemaDescriptors.forLabel(0, 0), indexSize = MIN_INDEX_SIZE - 1)
+
+    ParallelIndexScan.nodeIndexScan(fixture.state, fixture.index, IndexOrderNone, fixture.config) shouldBe None
+    verify(fixture.dataRead, never()).nodeIndexScan(any[IndexReadSession], anyInt(), any[org.neo4j.internal.kernel.api.QueryContext])
+  }
+
+  test("should read on the query thread in descending order") {
+    val fixture = new Fixture(SchemaDescriptors.forLabel(0, 0))
+
+    ParallelIndexScan.nodeIndexScan(fixture.state, fixture.index, IndexOrderDescending, fixture.config) shouldBe None
+  }
+
+  test("should read on the query thread with transaction state") {
+    val fixture = new Fixture(SchemaDescriptors.forLabel(0, 0))
+    when(fixture.dataRead.transactionStateHasChanges).thenReturn(true)
+
+    ParallelIndexScan.nodeIndexScan(fixture.state, fixture.index, IndexOrderNone, fixture.config) shouldBe None
+  }
+
+  test("should read on the query thread without a scheduler") {
+    val fixture = new Fixture(SchemaDescriptors.forLabel(0, 0))
+
+    ParallelIndexScan.nodeIndexScan(fixture.state, fixture.index, IndexOrderNone, fixture.config.copy(scheduler = None)) shouldBe None
+  }
+
+  test("should read the type and nodes of relationships of a parallel relationship index scan") {
+    val fixture = new Fixture(SchemaDescriptors.forRelType(0, 0))
+    when(fixture.dataRead.relationshipIndexScan(any[IndexReadSession], anyInt(), any[org.neo4j.internal.kernel.api.QueryContext]))
+      .thenReturn(fixture.relationshipScan(Seq(Seq(7L, 8L))))
+    val relationships = mock[RelationshipScanCursor]
+    when(fixture.queryThreadCursors.allocateRelationshipScanCursor(any[CursorContext])).thenReturn(relationships)
+    when(relationships.next()).thenReturn(true)
+    when(relationships.sourceNodeReference()).thenReturn(1L)
+    when(relationships.targetNodeReference()).thenReturn(2L)
+    when(relationships.`type`()).thenReturn(3)
+
+    val cursor = ParallelIndexScan.relationshipIndexScan(fixture.state, fixture.index, IndexOrderNone, fixture.config).get
+
+    cursor.next() shouldBe true
+    cursor.relationshipReference() shouldBe 7L
+    cursor.sourceNodeReference() shouldBe 1L
+    cursor.targetNodeReference() shouldBe 2L
+    cursor.`type`() shouldBe 3
+    verify(fixture.dataRead, times(1)).singleRelationship(7L, relationships)
+    cursor.next() shouldBe true
+    cursor.relationshipReference() shouldBe 8L
+    cursor.sourceNodeReference() shouldBe 1L
+    verify(fixture.dataRead, times(1)).singleRelationship(8L, relationships)
+    cursor.next() shouldBe false
+    cursor.close()
+    verify(relationships).close()
+    fixture.shouldHaveReleasedEverything()
+  }
+
+  test("node index seek pipe should seek in parallel at the minimum index size") {
+    val fixture = new Fixture(SchemaDescriptors.forLabel(0, 0), indexSize = MIN_INDEX_SIZE)
+    val partitions = partitionsOf(4, 500)
+    when(fixture.dataRead.nodeIndexSeek(any[IndexReadSession], anyInt(), any[org.neo4j.internal.kernel.api.QueryContext], any[PropertyIndexQuery]))
+      .thenReturn(fixture.nodeScan(partitions))
+
+    val result = nodeIndexSeekPipe(fixture.config).createResults(fixture.state).toList
+
+    result should have size 2000
+    verify(fixture.query, never()).nodeIndexSeek(any[IndexReadSession], any[Boolean], any[IndexOrder], any[Seq[PropertyIndexQuery]])
+    fixture.shouldHaveReleasedEverything()
+  }
+
+  test("node index seek pipe should seek on the query thread below the minimum index size") {
+    val fixture = new Fixture(SchemaDescriptors.forLabel(0, 0), indexSize = MIN_INDEX_SIZE - 1)
+    when(fixture.query.nodeIndexSeek(any[IndexReadSession], any[Boolean], any[IndexOrder], any[Seq[PropertyIndexQuery]]))
+      .thenReturn(new StubNodeValueIndexCursor().withNode(11).withNode(12))
+
+    val result = nodeIndexSeekPipe(fixture.config).createResults(fixture.state).toList
+
+    result should have size 2
+    verify(fixture.dataRead, never()).nodeIndexSeek(any[IndexReadSession], anyInt(), any[org.neo4j.internal.kernel.api.QueryContext], any[PropertyIndexQuery])
+  }
+
+  test("relationship index seek pipe should seek in parallel at the minimum index size") {
+    val fixture = new Fixture(SchemaDescriptors.forRelType(0, 0), indexSize = MIN_INDEX_SIZE)
+    when(fixture.dataRead.relationshipIndexSeek(any[IndexReadSession], anyInt(), any[org.neo4j.internal.kernel.api.QueryContext], any[PropertyIndexQuery]))
+      .thenReturn(fixture.relationshipScan(Seq(Seq(7L, 8L), Seq(9L))))
+    when(fixture.queryThreadCursors.allocateRelationshipScanCursor(any[CursorContext])).thenReturn(mock[RelationshipScanCursor])
+
+    relationshipIndexSeekPipe(fixture.config).createResults(fixture.state).toList
+
+    verify(fixture.dataRead).relationshipIndexSeek(any[IndexReadSession], anyInt(), any[org.neo4j.internal.kernel.api.QueryContext], any[PropertyIndexQuery])
+    verify(fixture.query, never()).relationshipIndexSeek(any[IndexReadSession], any[Boolean], any[IndexOrder], any[Seq[PropertyIndexQuery]])
+    fixture.shouldHaveReleasedEverything()
+  }
+
+  test("relationship index seek pipe should seek on the query thread below the minimum index size") {
+    val fixture = new Fixture(SchemaDescriptors.forRelType(0, 0), indexSize = MIN_INDEX_SIZE - 1)
+
+    relationshipIndexSeekPipe(fixture.config).createResults(fixture.state).toList
+
+    verify(fixture.query).relationshipIndexSeek(any[IndexReadSession], any[Boolean], any[IndexOrder], any[Seq[PropertyIndexQuery]])
+    verify(fixture.dataRead, never()).relationshipIndexSeek(any[IndexReadSession], anyInt(), any[org.neo4j.internal.kernel.api.QueryContext], any[PropertyIndexQuery])
+  }
+
+  private def partitionsOf(numberOfPartitions: Int, entriesPerPartition: Int): Seq[Seq[Long]] =
+    (0 until numberOfPartitions).map(partition => (partition.toLong * entriesPerPartition until (partition + 1L) * entriesPerPartition))
+
+  private def serialRead(partitions: Seq[Seq[Long]]): Seq[(Long, Value)] = partitions.flatten.map(node => (node, Values.longValue(node)))
+
+  private def drain(cursor: NodeValueIndexCursor, limit: Int = Int.MaxValue): Seq[(Long, Value)] = {
+    val entries = ArrayBuffer.empty[(Long, Value)]
+    while (entries.size < limit && cursor.next()) {
+      entries += ((cursor.nodeReference(), cursor.propertyValue(0)))
+    }
+    entries
+  }
+
+  private def greaterThanTen = RangeQueryExpression(InequalitySeekRangeExpression(RangeGreaterThan(NonEmptyList(ExclusiveBound(literal(10))))))
+
+  private def nodeIndexSeekPipe(config: ParallelIndexScanConfig): NodeIndexSeekPipe =
+    NodeIndexSeekPipe(
+      "n",
+      LabelToken("Awesome", LabelId(0)),
+      Array(IndexedProperty(PropertyKeyToken("prop", PropertyKeyId(0)), DoNotGetValue, NODE_TYPE)),
+      0,
+      greaterThanTen,
+      IndexSeekByRange,
+      IndexOrderNone,
+      config)()
+
+  private def relationshipIndexSeekPipe(config: ParallelIndexScanConfig): DirectedRelationshipIndexSeekPipe =
+    DirectedRelationshipIndexSeekPipe(
+      "r",
+      "a",
+      "b",
+      RelationshipTypeToken("AWESOME", RelTypeId(0)),
+      Array(IndexedProperty(PropertyKeyToken("prop", PropertyKeyId(0)), DoNotGetValue, RELATIONSHIP_TYPE)),
+      0,
+      greaterThanTen,
+      IndexSeekByRange,
+      IndexOrderNone,
+      config)()
+
+  private class Fixture(schema: SchemaDescriptor, indexSize: Long = 10 * MIN_INDEX_SIZE) {
+    val dataRead: Read = mock[Read]
+    val queryThreadCursors: CursorFactory = mock[CursorFactory]
+    val workerThreads: ArrayBuffer[Thread] = ArrayBuffer.empty
+    private val contexts = ArrayBuffer.empty[ExecutionContext]
+    private val workerCursors = new ConcurrentLinkedQueue[DefaultCloseListenable]()
+
+    private val workerCursorFactory = mock[CursorFactory]
+    when(workerCursorFactory.allocateFullAccessNodeValueIndexCursor(any[CursorContext], any[MemoryTracker]))
+      .thenAnswer((_: InvocationOnMock) => workerCursor(new ClosingNodeValueIndexCursor))
+    when(workerCursorFactory.allocateRelationshipValueIndexCursor(any[CursorContext], any[MemoryTracker]))
+      .thenAnswer((_: InvocationOnMock) => workerCursor(new StubRelationshipValueIndexCursor))
+
+    private val jobScheduler = mock[JobScheduler]
+    when(jobScheduler.schedule(any[Group], any[JobMonitoringParams], any[Runnable])).thenAnswer((invocation: InvocationOnMock) => {
+      val thread = new Thread(invocation.getArgument[Runnable](2))
+      workerThreads += thread
+      thread.start()
+      new ThreadJobHandle(thread)
+    })
+    val scheduler = new ParallelIndexScanScheduler(jobScheduler, workerCursorFactory)
+    val config: ParallelIndexScanConfig = ParallelIndexScanConfig(WORKERS, MIN_INDEX_SIZE, Some(scheduler))
+
+    private val capability = mock[IndexCapability]
+    when(capability.supportPartitionedScan(any[IndexQuery])).thenReturn(true)
+    private val descriptor = IndexPrototype.forSchema(schema).withName("index").withIndexType(IndexType.RANGE).materialise(1).withIndexCapability(capability)
+    val index: IndexReadSession = () => descriptor
+
+    private val schemaRead = mock[SchemaRead]
+    when(schemaRead.indexSize(any[IndexDescriptor])).thenReturn(indexSize)
+
+    private val tc = mock[QueryTransactionalContext]
+    when(tc.dataRead).thenReturn(dataRead)
+    when(tc.schemaRead).thenReturn(schemaRead)
+    when(tc.securityContext).thenReturn(SecurityContext.AUTH_DISABLED)
+    when(tc.cursors).thenReturn(queryThreadCursors)
+    when(tc.cursorContext).thenReturn(CursorContext.NULL)
+    when(tc.createKernelExecutionContext()).thenAnswer((_: InvocationOnMock) => {
+      val context = mock[ExecutionContext]
+      contexts += context
+      context
+    })
+
+    val query: QueryContext = mock[QueryContext](RETURNS_DEEP_STUBS)
+    when(query.transactionalContext).thenReturn(tc)
+    when(query.resources).thenReturn(new ResourceManager)
+    when(query.nodeById(any())).thenAnswer((invocation: InvocationOnMock) =>
+      VirtualValues.nodeValue(invocation.getArgument[Long](0), Values.EMPTY_TEXT_ARRAY, VirtualValues.EMPTY_MAP): NodeValue)
+    val state: QueryState = QueryStateHelper.emptyWith(query = query, queryIndexes = Array(index))
+
+    def nodeScan(partitions: Seq[Seq[Long]], failingPartition: Int = -1): PartitionedScan[NodeValueIndexCursor] =
+      new StubPartitionedScan[NodeValueIndexCursor](partitions, failingPartition, (cursor, node) =>
+        cursor.asInstanceOf[StubNodeValueIndexCursor].withNode(node, Values.longValue(node)))
+
+    def relationshipScan(partitions: Seq[Seq[Long]]): PartitionedScan[RelationshipValueIndexCursor] =
+      new StubPartitionedScan[RelationshipValueIndexCursor](partitions, -1, (cursor, relationship) =>
+        cursor.asInstanceOf[StubRelationshipValueIndexCursor].withRelationship(relationship, Values.longValue(relationship)))
+
+    /**
+     * Every worker has finished, every execution context was completed and closed and every worker cursor was closed.
+     */
+    def shouldHaveReleasedEverything(): Unit = {
+      workerThreads.foreach(_.isAlive shouldBe false)
+      contexts.foreach { context =>
+        verify(context).complete()
+        verify(context).close()
+      }
+      workerCursors.asScala.foreach(_.isClosed shouldBe true)
+    }
+
+    private def workerCursor[CURSOR <: DefaultCloseListenable](cursor: CURSOR): CURSOR = {
+      workerCursors.add(cursor)
+      cursor
+    }
+  }
+
+  private class StubPartitionedScan[CURSOR <: Cursor](partitions: Seq[Seq[Long]],
+                                                     failingPartition: Int,
+                                                     addEntry: (CURSOR, Long) => Unit)
+    extends PartitionedScan[CURSOR] {
+    private val reserved = new AtomicInteger()
+
+    override def getNumberOfPartitions: Int = partitions.size
+
+    override def reservePartition(cursor: CURSOR, cursorContext: CursorContext, accessMode: AccessMode): Boolean = {
+      val partition = reserved.getAndIncrement()
+      if (partition == failingPartition) {
+        throw new IllegalStateException(s"Failed to reserve partition $partition")
+      }
+      if (partition < partitions.size) {
+        partitions(partition).foreach(addEntry(cursor, _))
+        true
+      } else {
+        false
+      }
+    }
+  }
+
+  private class ThreadJobHandle(thread: Thread) extends JobHandle[AnyRef] {
+    override def cancel(): Unit = {}
+
+    override def waitTermination(): Unit = thread.join()
+
+    override def waitTermination(timeout: Long, unit: TimeUnit): Unit = thread.join(unit.toMillis(timeout))
+
+    override def get(): AnyRef = {
+      thread.join()
+      null
+    }
+  }
+
+  private class ClosingNodeValueIndexCursor extends StubNodeValueIndexCursor {
+    @volatile private var closed = false
+
+    override def closeInternal(): Unit = closed = true
+
+    override def isClosed: Boolean = closed
+  }
+
+  private class StubRelationshipValueIndexCursor extends DefaultCloseListenable with RelationshipValueIndexCursor {
+    private val relationships = ArrayBuffer.empty[(Long, Value)]
+    private var position = -1
+    @volatile private var closed = false
+
+    def withRelationship(relationship: Long, value: Value): StubRelationshipValueIndexCursor = {
+      relationships += ((relationship, value))
+      this
+    }
+
+    override def next(): Boolean = {
+      position += 1
+      position < relationships.size
+    }
+
+    override def relationshipReference(): Long = relationships(position)._1
+
+    override def numberOfProperties(): Int = 1
+
+    override def hasValue: Boolean = true
+
+    override def propertyValue(offset: Int): Value = relationships(position)._2
+
+    override def relationship(cursor: RelationshipScanCursor): Unit = throw new UnsupportedOperationException
+
+    override def sourceNode(cursor: NodeCursor): Unit = throw new UnsupportedOperationException
+
+    override def targetNode(cursor: NodeCursor): Unit = throw new UnsupportedOperationException
+
+    override def `type`(): Int = throw new UnsupportedOperationException
+
+    override def sourceNodeReference(): Long = throw new UnsupportedOperationException
+
+    override def targetNodeReference(): Long = throw new UnsupportedOperationException
+
+    override def score(): Float = Float.NaN
+
+    override def setTracer(tracer: KernelReadTracer): Unit = {}
+
+    override def removeTracer(): Unit = {}
+
+    override def closeInternal(): Unit = closed = true
+
+    override def isClosed: Boolean = closed
+  }
+}
@@ -28,10 +28,13 @@ import org.neo4j.cypher.internal.RuntimeContext
 import org.neo4j.cypher.internal.RuntimeContextManager
 import org.neo4j.cypher.internal.config.CypherConfiguration
 import org.neo4j.cypher.internal.options.CypherOperatorEngineOption
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelIndexScanScheduler
 import org.neo4j.dbms.api.DatabaseManagementService
 import org.neo4j.graphdb.config.Setting
+import org.neo4j.kernel.api.Kernel
 import org.neo4j.kernel.lifecycle.LifeSupport
 import org.neo4j.logging.LogProvider
+import org.neo4j.scheduler.JobScheduler
 import org.neo4j.test.TestDatabaseManagementServiceBuilder
 
 import java.lang.Boolean.TRUE
@@ -96,6 +99,10 @@ class Edition[CONTEXT <: RuntimeContext](graphBuilderFactory: () => TestDatabase
 object COMMUNITY {
   val EDITION = new Edition(
     () => new TestDatabaseManagementServiceBuilder,
-    (runtimeConfig, _, _, logProvider) => CommunityRuntimeContextManager(logProvider.getLog("test"), runtimeConfig),
+    (runtimeConfig, resolver, lifeSupport, logProvider) => {
+      val parallelIndexScanScheduler = lifeSupport.add(
+        new ParallelIndexScanScheduler(resolver.resolveDependency(classOf[JobScheduler]), resolver.resolveDependency(classOf[Kernel]).cursors()))
+      CommunityRuntimeContextManager(logProvider.getLog("test"), runtimeConfig, Some(parallelIndexScanScheduler))
+    },
     GraphDatabaseSettings.cypher_hints_error -> TRUE)
 }
@@ -104,6 +104,7 @@ import org.neo4j.cypher.internal.runtime.spec.tests.OptionalTestBase
 import org.neo4j.cypher.internal.runtime.spec.tests.OrderedAggregationTestBase
 import org.neo4j.cypher.internal.runtime.spec.tests.OrderedDistinctTestBase
 import org.neo4j.cypher.internal.runtime.spec.tests.OrderedUnionTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ParallelIndexScanTestBase
 import org.neo4j.cypher.internal.runtime.spec.tests.PartialSortTestBase
 import org.neo4j.cypher.internal.runtime.spec.tests.PartialTop1TestBase
 import org.neo4j.cypher.internal.runtime.spec.tests.PartialTopNTestBase
@@ -335,4 +336,5 @@ class InterpretedRelationshipTypeScanConcurrencyStressTest extends RelationshipT
 class InterpretedRelationshipIndexScanConcurrencyStressTest extends RelationshipIndexScanConcurrencyStressTestBase(COMMUNITY.EDITION, InterpretedRuntime)
 class InterpretedRelationshipIndexContainsScanConcurrencyStressTest extends RelationshipIndexContainsScanConcurrencyStressTestBase(COMMUNITY.EDITION, InterpretedRuntime)
 class InterpretedRelationshipIndexEndsWithScanConcurrencyStressTest extends RelationshipIndexEndsWithScanConcurrencyStressTestBase(COMMUNITY.EDITION, InterpretedRuntime)
-class InterpretedRelationshipIndexSeekConcurrencyStressTest extends RelationshipIndexSeekConcurrencyStressTestBase(COMMUNITY.EDITION, InterpretedRuntime)
\ No newline at end of file
+class InterpretedRelationshipIndexSeekConcurrencyStressTest extends RelationshipIndexSeekConcurrencyStressTestBase(COMMUNITY.EDITION, InterpretedRuntime)
+class InterpretedParallelIndexScanTest extends ParallelIndexScanTestBase(COMMUNITY.EDITION, InterpretedRuntime, SIZE_HINT)
@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.spec.tests
+
+import org.neo4j.configuration.GraphDatabaseInternalSettings
+import org.neo4j.cypher.internal.CypherRuntime
+import org.neo4j.cypher.internal.RuntimeContext
+import org.neo4j.cypher.internal.logical.plans.GetValue
+import org.neo4j.cypher.internal.logical.plans.IndexOrderAscending
+import org.neo4j.cypher.internal.runtime.spec.Edition
+import org.neo4j.cypher.internal.runtime.spec.LogicalQueryBuilder
+import org.neo4j.cypher.internal.runtime.spec.RuntimeTestSuite
+import org.neo4j.graphdb.Label
+import org.neo4j.graphdb.schema.IndexType
+
+/**
+ * Index scans and range seeks of indexes with at least `sizeHint` entries are read as partitions on worker threads,
+ * and must return the same rows as reading them on the query thread.
+ */
+abstract class ParallelIndexScanTestBase[CONTEXT <: RuntimeContext](
+                                                                     edition: Edition[CONTEXT],
+                                                                     runtime: CypherRuntime[CONTEXT],
+                                                                     sizeHint: Int
+                                                                   ) extends RuntimeTestSuite[CONTEXT](
+  edition.copyWith(
+    GraphDatabaseInternalSettings.cypher_interpreted_parallel_index_scan_workers -> Integer.valueOf(4),
+    GraphDatabaseInternalSettings.cypher_interpreted_parallel_index_scan_min_index_size -> java.lang.Long.valueOf(sizeHint)),
+  runtime) {
+
+  private val largeIndexSize = 10 * sizeHint
+
+  test("should scan all nodes of a large index") {
+    val nodes = given {
+      nodeIndex(IndexType.RANGE, "Honey", "prop")
+      nodePropertyGraph(largeIndexSize, {
+        case i => Map("prop" -> i)
+      }, "Honey")
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("x", "prop")
+      .projection("cache[x.prop] AS prop")
+      .nodeIndexOperator("x:Honey(prop)", _ => GetValue, indexType = IndexType.RANGE)
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    runtimeResult should beColumns("x", "prop").withRows(nodes.zipWithIndex.map { case (n, i) => Array[Any](n, i) })
+  }
+
+  test("should scan all nodes of a large index in ascending order") {
+    val nodes = given {
+      nodeIndex(IndexType.RANGE, "Honey", "prop")
+      nodePropertyGraph(largeIndexSize, {
+        case i => Map("prop" -> (largeIndexSize - i))
+      }, "Honey")
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("x")
+      .nodeIndexOperator("x:Honey(prop)", indexOrder = IndexOrderAscending, indexType = IndexType.RANGE)
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    runtimeResult should beColumns("x").withRows(singleColumnInOrder(nodes.reverse))
+  }
+
+  test("should seek nodes of a large index by range in ascending order") {
+    val nodes = given {
+      nodeIndex(IndexType.RANGE, "Honey", "prop")
+      nodePropertyGraph(largeIndexSize, {
+        case i => Map("prop" -> i)
+      }, "Honey")
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("x")
+      .nodeIndexOperator(s"x:Honey(prop > ${largeIndexSize / 3})", indexOrder = IndexOrderAscending, indexType = IndexType.RANGE)
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    runtimeResult should beColumns("x").withRows(singleColumnInOrder(nodes.drop(largeIndexSize / 3 + 1)))
+  }
+
+  test("should return the first nodes of a large index scan with limit") {
+    val nodes = given {
+      nodeIndex(IndexType.RANGE, "Honey", "prop")
+      nodePropertyGraph(largeIndexSize, {
+        case i => Map("prop" -> i)
+      }, "Honey")
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("x")
+      .limit(sizeHint / 2)
+      .nodeIndexOperator("x:Honey(prop)", indexOrder = IndexOrderAscending, indexType = IndexType.RANGE)
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    runtimeResult should beColumns("x").withRows(singleColumnInOrder(nodes.take(sizeHint / 2)))
+  }
+
+  test("should close a large index scan that is not exhausted") {
+    given {
+      nodeIndex(IndexType.RANGE, "Honey", "prop")
+      nodePropertyGraph(largeIndexSize, {
+        case i => Map("prop" -> i)
+      }, "Honey")
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("x")
+      .nodeIndexOperator("x:Honey(prop)", indexType = IndexType.RANGE)
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+    request(1, runtimeResult)
+    runtimeResult.runtimeResult.cancel()
+    runtimeResult.runtimeResult.close()
+
+    // then
+    // another read of the same index after closing the first one
+    execute(logicalQuery, runtime) should beColumns("x").withRows(rowCount(largeIndexSize))
+  }
+
+  test("should seek nodes of a small index by range") {
+    val nodes = given {
+      nodeIndex(IndexType.RANGE, "Honey", "prop")
+      nodePropertyGraph(sizeHint / 2, {
+        case i => Map("prop" -> i)
+      }, "Honey")
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("x")
+      .nodeIndexOperator(s"x:Honey(prop > ${sizeHint / 4})", indexOrder = IndexOrderAscending, indexType = IndexType.RANGE)
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    runtimeResult should beColumns("x").withRows(singleColumnInOrder(nodes.drop(sizeHint / 4 + 1)))
+  }
+
+  test("should see nodes created in the transaction in a large index scan") {
+    val nodes = given {
+      nodeIndex(IndexType.RANGE, "Honey", "prop")
+      nodePropertyGraph(largeIndexSize, {
+        case i => Map("prop" -> i)
+      }, "Honey")
+    }
+    val created = tx.createNode(Label.label("Honey"))
+    created.setProperty("prop", largeIndexSize)
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("x")
+      .nodeIndexOperator("x:Honey(prop)", indexType = IndexType.RANGE)
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    runtimeResult should beColumns("x").withRows(singleColumn(nodes :+ created))
+  }
+
+  test("should scan all relationships of a large index") {
+    val rels = given {
+      relationshipIndex(IndexType.RANGE, "R", "prop")
+      val (_, rels) = circleGraph(largeIndexSize)
+      rels.zipWithIndex.foreach {
+        case (r, i) => r.setProperty("prop", i)
+      }
+      rels
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("x", "r", "y")
+      .relationshipIndexOperator("(x)-[r:R(prop)]->(y)", indexType = IndexType.RANGE)
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    val expected = rels.map(r => Array(r.getStartNode, r, r.getEndNode))
+    runtimeResult should beColumns("x", "r", "y").withRows(expected)
+  }
+
+  test("should seek relationships of a large index by range in ascending order") {
+    val rels = given {
+      relationshipIndex(IndexType.RANGE, "R", "prop")
+      val (_, rels) = circleGraph(largeIndexSize)
+      rels.zipWithIndex.foreach {
+        case (r, i) => r.setProperty("prop", i)
+      }
+      rels
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("x", "r", "y")
+      .relationshipIndexOperator(s"(x)-[r:R(prop > ${largeIndexSize / 3})]->(y)", indexOrder = IndexOrderAscending, indexType = IndexType.RANGE)
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    val expected = rels.drop(largeIndexSize / 3 + 1).map(r => Array(r.getStartNode, r, r.getEndNode))
+    runtimeResult should beColumns("x", "r", "y").withRows(inOrder(expected))
+  }
+
+  test("should seek relationships of a small index by range") {
+    val rels = given {
+      relationshipIndex(IndexType.RANGE, "R", "prop")
+      val (_, rels) = circleGraph(sizeHint / 2)
+      rels.zipWithIndex.foreach {
+        case (r, i) => r.setProperty("prop", i)
+      }
+      rels
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("x", "r", "y")
+      .relationshipIndexOperator(s"(x)-[r:R(prop > ${sizeHint / 4})]->(y)", indexType = IndexType.RANGE)
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    val expected = rels.drop(sizeHint / 4 + 1).map(r => Array(r.getStartNode, r, r.getEndNode))
+    runtimeResult should beColumns("x", "r", "y").withRows(expected)
+  }
+}
@@ -28,9 +28,9 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Deque;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.LongSupplier;
 import java.util.function.Supplier;
@@ -54,7 +54,7 @@ public class BufferingIdGeneratorFactory implements IdGeneratorFactory
 {
     private static final int MAX_QUEUED_BUFFERS = 20;
 
-    private final Map<IdType, BufferingIdGenerator> overriddenIdGenerators = new HashMap<>();
+    private final Map<IdType, BufferingIdGenerator> overriddenIdGenerators = new ConcurrentHashMap<>();
     private Supplier<IdController.IdFreeCondition> boundaries;
     private MemoryTracker memoryTracker;
     private final IdGeneratorFactory delegate;
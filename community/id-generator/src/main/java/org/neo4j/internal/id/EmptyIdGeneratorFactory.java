@@ -182,6 +182,25 @@ public class EmptyIdGeneratorFactory implements IdGeneratorFactory
             return EMPTY_ID;
         }
 
+        @Override
+        public IdRangeLease leaseIdRange( int rangeSize )
+        {
+            return new IdRangeLease()
+            {
+                @Override
+                public long nextId( CursorContext cursorContext )
+                {
+                    return EMPTY_ID;
+                }
+
+                @Override
+                public void close()
+                {
+                    // nothing
+                }
+            };
+        }
+
         @Override
         public boolean consistencyCheck( ReporterFactory reporterFactory, CursorContext cursorContext )
         {
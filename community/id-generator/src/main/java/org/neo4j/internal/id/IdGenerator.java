@@ -53,6 +53,16 @@ public interface IdGenerator extends IdSequence, Closeable, ConsistencyCheckable
      */
     long nextConsecutiveIdRange( int numberOfIds, boolean favorSamePage, CursorContext cursorContext );
 
+    /**
+     * Creates an {@link IdRangeLease} which hands out IDs from contiguous ranges of {@code rangeSize} IDs that are leased from this id generator.
+     * Allocating from a lease avoids contention with other allocators and places IDs allocated by the same client next to each other.
+     * The remainder of a leased range is given back to this id generator when the lease is closed.
+     *
+     * @param rangeSize number of IDs to lease at a time.
+     * @return a new {@link IdRangeLease}, not yet holding any IDs.
+     */
+    IdRangeLease leaseIdRange( int rangeSize );
+
     /**
      * @param id the highest in use + 1
      */
@@ -136,12 +146,24 @@ public interface IdGenerator extends IdSequence, Closeable, ConsistencyCheckable
             return delegate.nextId( cursorContext );
         }
 
+        @Override
+        public long nextIdNear( long nearId, CursorContext cursorContext )
+        {
+            return delegate.nextIdNear( nearId, cursorContext );
+        }
+
         @Override
         public long nextConsecutiveIdRange( int numberOfIds, boolean favorSamePage, CursorContext cursorContext )
         {
             return delegate.nextConsecutiveIdRange( numberOfIds, favorSamePage, cursorContext );
         }
 
+        @Override
+        public IdRangeLease leaseIdRange( int rangeSize )
+        {
+            return delegate.leaseIdRange( rangeSize );
+        }
+
         @Override
         public void setHighId( long id )
         {
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.id;
+
+import org.neo4j.io.pagecache.context.CursorContext;
+
+/**
+ * An {@link IdSequence} handing out IDs from contiguous ranges that are leased exclusively to one client at a time, e.g. one transaction.
+ * Handing out an ID from an already leased range requires no coordination with other allocators. When a range runs out a new range is leased
+ * from the owning {@link IdGenerator}. IDs that are still left in the current range when the lease is closed are given back to the
+ * {@link IdGenerator} so that they can be reused. {@link #nextIdNear(long, CursorContext)} may still hand out a free ID of the {@link IdGenerator}
+ * close to the given ID, in which case the leased range is left as it is.
+ * <p>
+ * An instance is not thread-safe, it is meant to be used by a single thread at a time.
+ */
+public interface IdRangeLease extends IdSequence, AutoCloseable
+{
+    /**
+     * @param cursorContext for tracking cursor interaction, in case a new range needs to be leased.
+     * @return an ID available to use, guaranteed not used anywhere else.
+     */
+    @Override
+    long nextId( CursorContext cursorContext );
+
+    /**
+     * Gives back any remaining IDs in the currently leased range to the {@link IdGenerator}. This lease can be used again after being closed,
+     * in which case a new range will be leased on the next call to {@link #nextId(CursorContext)}.
+     */
+    @Override
+    void close();
+}
@@ -24,4 +24,17 @@ import org.neo4j.io.pagecache.context.CursorContext;
 public interface IdSequence
 {
     long nextId( CursorContext cursorContext );
+
+    /**
+     * Allocates an ID, like {@link #nextId(CursorContext)}, but preferably one close to {@code nearId}. This is a hint only and
+     * sequences that have no notion of free ids to choose from simply return {@link #nextId(CursorContext)}.
+     *
+     * @param nearId an ID which the returned ID should preferably be close to, e.g. the ID of a related record, or a negative value if there's none.
+     * @param cursorContext for tracking cursor interaction.
+     * @return an ID available to use.
+     */
+    default long nextIdNear( long nearId, CursorContext cursorContext )
+    {
+        return nextId( cursorContext );
+    }
 }
@@ -119,6 +119,12 @@ class ReadOnlyHighIdGenerator implements IdGenerator
         throw new UnsupportedOperationException( "Should not be required" );
     }
 
+    @Override
+    public IdRangeLease leaseIdRange( int rangeSize )
+    {
+        throw new UnsupportedOperationException( "Should not be required" );
+    }
+
     @Override
     public void clearCache( CursorContext cursorContext )
     {
@@ -20,6 +20,7 @@
 package org.neo4j.internal.id.indexed;
 
 import org.apache.commons.lang3.mutable.MutableInt;
+import org.apache.commons.lang3.mutable.MutableLong;
 
 import java.io.Closeable;
 import java.io.IOException;
@@ -37,6 +38,7 @@ import org.neo4j.io.pagecache.context.CursorContext;
 import static org.neo4j.internal.id.IdUtils.combinedIdAndNumberOfIds;
 import static org.neo4j.internal.id.IdUtils.idFromCombinedId;
 import static org.neo4j.internal.id.IdUtils.numberOfIdsFromCombinedId;
+import static org.neo4j.internal.id.indexed.IndexedIdGenerator.NO_ID;
 
 /**
  * Responsible for starting and managing scans of a {@link GBPTree}, populating a cache with free ids that gets discovered in the scan.
@@ -76,6 +78,11 @@ class FreeIdScanner implements Closeable
      * will be queued in this queue and consumed by the thread getting the scan lock at a later point.
      */
     private final ConcurrentLinkedQueue<Long> queuedWastedCachedIds = new ConcurrentLinkedQueue<>();
+    /**
+     * Manages IDs (ranges of IDs, really) that were leased from high ID, but never handed out before the lease was closed.
+     * Since no one has seen these IDs they can be marked as deleted and free right away, by the thread getting the scan lock at a later point.
+     */
+    private final ConcurrentLinkedQueue<Long> queuedReturnedHighIds = new ConcurrentLinkedQueue<>();
     /**
      * State for whether or not there's an ongoing scan, and if so where it should begin from. This is used in
      * {@link #findSomeIdsToCache(PendingIdQueue, MutableInt, CursorContext)}  both to know where to initiate a scan from and to
@@ -123,6 +130,7 @@ class FreeIdScanner implements Closeable
             try
             {
                 markQueuedSkippedHighIdsAsFree( cursorContext );
+                markQueuedReturnedHighIdsAsDeletedAndFree( cursorContext );
                 markWastedIdsAsUnreserved( cursorContext );
 
                 if ( atLeastOneIdOnFreelist.get() )
@@ -204,6 +212,15 @@ class FreeIdScanner implements Closeable
         consumeQueuedIds( queuedSkippedHighIds, IdGenerator.Marker::markFree, cursorContext );
     }
 
+    private void markQueuedReturnedHighIdsAsDeletedAndFree( CursorContext cursorContext )
+    {
+        consumeQueuedIds( queuedReturnedHighIds, ( marker, id, size ) ->
+        {
+            marker.markDeleted( id, size );
+            marker.markFree( id, size );
+        }, cursorContext );
+    }
+
     private void markWastedIdsAsUnreserved( CursorContext cursorContext )
     {
         consumeQueuedIds( queuedWastedCachedIds, InternalMarker::markUnreserved, cursorContext );
@@ -224,7 +241,12 @@ class FreeIdScanner implements Closeable
             lock.lock();
             return true;
         }
-        return lock.tryLock();
+        if ( lock.tryLock() )
+        {
+            return true;
+        }
+        monitor.scanLockContended();
+        return false;
     }
 
     void clearCache( CursorContext cursorContext )
@@ -248,12 +270,76 @@ class FreeIdScanner implements Closeable
         }
     }
 
+    /**
+     * Looks for a free id in the {@link IdRange} that {@code nearId} belongs to, as well as its neighbouring ranges, and reserves the one
+     * closest to {@code nearId}. This lets a caller place a new record close to a related record, e.g. on the same or a neighbouring page.
+     * This call never blocks on an ongoing scan, in such case no id is reserved.
+     *
+     * @param nearId id to find a free id close to.
+     * @param cursorContext for tracking cursor interaction.
+     * @return a free id close to {@code nearId} which has been marked as reserved, or {@link IndexedIdGenerator#NO_ID} if there were none.
+     */
+    long tryReserveFreeIdNear( long nearId, CursorContext cursorContext )
+    {
+        if ( !atLeastOneIdOnFreelist.get() || !lock.tryLockNonBlocking() )
+        {
+            return NO_ID;
+        }
+
+        try
+        {
+            long rangeIndex = layout.idRangeIndex( nearId );
+            MutableLong closestId = new MutableLong( NO_ID );
+            IdRange.FreeIdVisitor visitor = ( id, numberOfIds ) ->
+            {
+                long candidate = nearId < id ? id : Math.min( nearId, id + numberOfIds - 1 );
+                if ( closestId.longValue() == NO_ID || Math.abs( candidate - nearId ) < Math.abs( closestId.longValue() - nearId ) )
+                {
+                    closestId.setValue( candidate );
+                }
+                return true;
+            };
+            try ( Seeker<IdRangeKey,IdRange> seeker = tree.seek( new IdRangeKey( Math.max( 0, rangeIndex - 1 ) ), new IdRangeKey( rangeIndex + 2 ),
+                    cursorContext ) )
+            {
+                while ( seeker.next() )
+                {
+                    seeker.value().visitFreeIds( seeker.key().getIdRangeIdx() * idsPerEntry, generation, visitor );
+                }
+            }
+
+            long id = closestId.longValue();
+            if ( id != NO_ID )
+            {
+                try ( InternalMarker marker = markerProvider.getMarker( cursorContext ) )
+                {
+                    marker.markReserved( id );
+                }
+            }
+            return id;
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
     void queueSkippedHighId( long id, int numberOfIds )
     {
         queuedSkippedHighIds.offer( combinedIdAndNumberOfIds( id, numberOfIds, false ) );
         numBufferedIds.incrementAndGet();
     }
 
+    void queueReturnedHighId( long id, int numberOfIds )
+    {
+        queuedReturnedHighIds.offer( combinedIdAndNumberOfIds( id, numberOfIds, false ) );
+        numBufferedIds.incrementAndGet();
+    }
+
     void queueWastedCachedId( long id, int numberOfIds )
     {
         queuedWastedCachedIds.offer( combinedIdAndNumberOfIds( id, numberOfIds, false ) );
@@ -20,7 +20,11 @@
 package org.neo4j.internal.id.indexed;
 
 import org.apache.commons.lang3.mutable.MutableLong;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
 import org.eclipse.collections.api.set.ImmutableSet;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
@@ -47,6 +51,7 @@ import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
 import org.neo4j.index.internal.gbptree.TreeFileNotFoundException;
 import org.neo4j.internal.id.FreeIds;
 import org.neo4j.internal.id.IdGenerator;
+import org.neo4j.internal.id.IdRangeLease;
 import org.neo4j.internal.id.IdSlotDistribution;
 import org.neo4j.internal.id.IdType;
 import org.neo4j.internal.id.IdValidator;
@@ -63,6 +68,7 @@ import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_WRITER;
 import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
 import static org.neo4j.io.IOUtils.closeAllUnchecked;
 import static org.neo4j.io.pagecache.tracing.PageCacheTracer.NULL;
+import static org.neo4j.util.Preconditions.checkArgument;
 
 /**
  * At the heart of this free-list sits a {@link GBPTree}, containing all deleted and freed ids. The tree is used as a bit-set and since it's
@@ -110,6 +116,22 @@ public class IndexedIdGenerator implements IdGenerator
 
         void skippedIdsAtHighId( long firstSkippedId, int numberOfIds );
 
+        void leasedIdRange( long firstId, int numberOfIds, boolean fromHighId );
+
+        void returnedLeasedIds( long firstId, int numberOfIds );
+
+        /**
+         * Called when an allocation from high id had to retry because of concurrent allocations from high id.
+         *
+         * @param numberOfRetries number of times the allocation had to retry before succeeding.
+         */
+        void highIdContended( int numberOfRetries );
+
+        /**
+         * Called when an allocation wanted to load free ids into the cache, but another thread was already holding the scan lock.
+         */
+        void scanLockContended();
+
         class Adapter implements Monitor
         {
             @Override
@@ -197,6 +219,26 @@ public class IndexedIdGenerator implements IdGenerator
             {
             }
 
+            @Override
+            public void leasedIdRange( long firstId, int numberOfIds, boolean fromHighId )
+            {
+            }
+
+            @Override
+            public void returnedLeasedIds( long firstId, int numberOfIds )
+            {
+            }
+
+            @Override
+            public void highIdContended( int numberOfRetries )
+            {
+            }
+
+            @Override
+            public void scanLockContended()
+            {
+            }
+
             @Override
             public void close()
             {
@@ -228,6 +270,11 @@ public class IndexedIdGenerator implements IdGenerator
      */
     static final int LARGE_CACHE_CAPACITY = 1 << 14;
 
+    /**
+     * Number of free ids marked by a lazy rebuild while holding the lock that committing transactions also need.
+     */
+    private static final int LAZY_REBUILD_BATCH_SIZE = 1 << 12;
+
     /**
      * First generation the tree entries will start at. Generation will be incremented each time an IndexedIdGenerator is opened,
      * i.e. not for every checkpoint. Generation is used to do lazy normalization of id states, so that DELETED ids from a previous generation
@@ -325,8 +372,31 @@ public class IndexedIdGenerator implements IdGenerator
 
     private final Monitor monitor;
     private final boolean strictlyPrioritizeFreelist;
+    private final boolean localityAwareReuse;
     private final int biggestSlotSize;
 
+    /**
+     * Whether or not a needed rebuild is deferred from {@link #start(FreeIds, CursorContext)} to {@link #maintenance(CursorContext)}.
+     */
+    private final boolean lazyRebuild;
+
+    /**
+     * Free ids to rebuild this id generator from, if a lazy rebuild is pending. Until it has completed all ids are allocated from high id
+     * and the tree is checkpointed with the starting generation, so that an interrupted rebuild is redone on next startup.
+     */
+    private volatile FreeIds pendingRebuild;
+
+    /**
+     * High id when the pending rebuild was deferred. Ids at or above it have been allocated after start and aren't part of the rebuild.
+     */
+    private long rebuildHighId;
+
+    /**
+     * Ids deleted by transactions while a lazy rebuild is pending. The rebuild leaves these to be freed the normal way.
+     * Guarded by {@link #commitAndReuseLock}.
+     */
+    private MutableLongSet deletedWhileRebuilding;
+
     public IndexedIdGenerator( PageCache pageCache, Path path, RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, IdType idType,
             boolean allowLargeIdCaches, LongSupplier initialHighId, long maxId, DatabaseReadOnlyChecker readOnlyChecker, Config config, String databaseName,
             CursorContext cursorContext, Monitor monitor, ImmutableSet<OpenOption> openOptions, IdSlotDistribution slotDistribution )
@@ -374,6 +444,8 @@ public class IndexedIdGenerator implements IdGenerator
         this.tree = instantiateTree( pageCache, path, recoveryCleanupWorkCollector, readOnlyChecker, databaseName, openOptions );
 
         this.strictlyPrioritizeFreelist = config.get( GraphDatabaseInternalSettings.strictly_prioritize_id_freelist );
+        this.localityAwareReuse = config.get( GraphDatabaseInternalSettings.id_generator_locality_aware_reuse );
+        this.lazyRebuild = config.get( GraphDatabaseInternalSettings.lazy_id_generator_rebuild );
         this.cacheOptimisticRefillThreshold = strictlyPrioritizeFreelist ? 0 : cacheCapacity / 4;
         this.scanner = new FreeIdScanner( idsPerEntry, tree, layout, cache, atLeastOneIdOnFreelist,
                 context -> lockAndInstantiateMarker( true, context ), generation, strictlyPrioritizeFreelist, monitor );
@@ -398,6 +470,54 @@ public class IndexedIdGenerator implements IdGenerator
     @Override
     public long nextId( CursorContext cursorContext )
     {
+        long id = takeReusedId( cursorContext );
+        if ( id != NO_ID )
+        {
+            return id;
+        }
+
+        // There was no ID in the cache. This could be that either there are no free IDs in here (the typical case), or a benign
+        // race where the cache ran out of IDs and it's very soon filled with more IDs from an ongoing scan. We have made the decision
+        // to prioritise performance and so we don't just sit here waiting for an ongoing scan to find IDs (fast as it may be, although it can be I/O bound)
+        // so we allocate from highId instead. This make highId slide a little even if there actually are free ids available,
+        // but this should be a fairly rare event.
+        do
+        {
+            id = highId.getAndIncrement();
+            IdValidator.assertIdWithinMaxCapacity( idType, id, maxId );
+        }
+        while ( IdValidator.isReservedId( id ) );
+        monitor.allocatedFromHigh( id, 1 );
+        return id;
+    }
+
+    @Override
+    public long nextIdNear( long nearId, CursorContext cursorContext )
+    {
+        long id = takeReusedIdNear( nearId, cursorContext );
+        return id != NO_ID ? id : nextId( cursorContext );
+    }
+
+    private long takeReusedIdNear( long nearId, CursorContext cursorContext )
+    {
+        if ( localityAwareReuse && nearId >= 0 && started && pendingRebuild == null && !readOnlyChecker.isReadOnly() )
+        {
+            long id = scanner.tryReserveFreeIdNear( nearId, cursorContext );
+            if ( id != NO_ID )
+            {
+                monitor.allocatedFromReused( id, 1 );
+                return id;
+            }
+        }
+        return NO_ID;
+    }
+
+    private long takeReusedId( CursorContext cursorContext )
+    {
+        if ( pendingRebuild != null )
+        {
+            return NO_ID;
+        }
         do
         {
             // If strictly prioritizing the freelist then the method below will block on the current scan,
@@ -415,27 +535,19 @@ public class IndexedIdGenerator implements IdGenerator
             // nature of the scan in this scenario.
         }
         while ( strictlyPrioritizeFreelist && scanner.hasMoreFreeIds( false ) );
-
-        // There was no ID in the cache. This could be that either there are no free IDs in here (the typical case), or a benign
-        // race where the cache ran out of IDs and it's very soon filled with more IDs from an ongoing scan. We have made the decision
-        // to prioritise performance and so we don't just sit here waiting for an ongoing scan to find IDs (fast as it may be, although it can be I/O bound)
-        // so we allocate from highId instead. This make highId slide a little even if there actually are free ids available,
-        // but this should be a fairly rare event.
-        long id;
-        do
-        {
-            id = highId.getAndIncrement();
-            IdValidator.assertIdWithinMaxCapacity( idType, id, maxId );
-        }
-        while ( IdValidator.isReservedId( id ) );
-        monitor.allocatedFromHigh( id, 1 );
-        return id;
+        return NO_ID;
     }
 
     @Override
     public long nextConsecutiveIdRange( int numberOfIds, boolean favorSamePage, CursorContext cursorContext )
     {
-        if ( numberOfIds <= biggestSlotSize )
+        long id = takeReusedRange( numberOfIds, cursorContext );
+        return id != NO_ID ? id : allocateRangeFromHighId( numberOfIds, favorSamePage );
+    }
+
+    private long takeReusedRange( int numberOfIds, CursorContext cursorContext )
+    {
+        if ( numberOfIds <= biggestSlotSize && pendingRebuild == null )
         {
             // TODO to fill cache in a do-while would be preferrable here too, but slightly harder since the scanner
             //  may say that there are more free IDs, but there may not actually be more free IDs of the given numberOfIds
@@ -447,11 +559,17 @@ public class IndexedIdGenerator implements IdGenerator
                 return id;
             }
         }
+        return NO_ID;
+    }
 
+    private long allocateRangeFromHighId( int numberOfIds, boolean favorSamePage )
+    {
         long readHighId;
         long endId;
         int skipped;
         long id;
+        int retries = 0;
+        boolean allocated;
         do
         {
             readHighId = highId.get();
@@ -467,9 +585,18 @@ public class IndexedIdGenerator implements IdGenerator
                 endId = id + numberOfIds - 1;
             }
             IdValidator.assertIdWithinMaxCapacity( idType, endId, maxId );
+            allocated = highId.compareAndSet( readHighId, endId + 1 );
+            if ( !allocated )
+            {
+                retries++;
+            }
         }
-        while ( !highId.compareAndSet( readHighId, endId + 1 ) || IdValidator.hasReservedIdInRange( id, endId + 1 ) );
+        while ( !allocated || IdValidator.hasReservedIdInRange( id, endId + 1 ) );
         monitor.allocatedFromHigh( id, numberOfIds );
+        if ( retries > 0 )
+        {
+            monitor.highIdContended( retries );
+        }
         if ( skipped > 0 )
         {
             // Tell FreeIdScanner about this temporary waste?
@@ -489,6 +616,13 @@ public class IndexedIdGenerator implements IdGenerator
         return id;
     }
 
+    @Override
+    public IdRangeLease leaseIdRange( int rangeSize )
+    {
+        checkArgument( rangeSize > 0 && rangeSize <= idsPerEntry, "Range size must be between 1 and %d, was %d", idsPerEntry, rangeSize );
+        return new Lease( rangeSize );
+    }
+
     @Override
     public Marker marker( CursorContext cursorContext )
     {
@@ -498,7 +632,8 @@ public class IndexedIdGenerator implements IdGenerator
             return NOOP_MARKER;
         }
 
-        return lockAndInstantiateMarker( true, cursorContext );
+        IdRangeMarker marker = lockAndInstantiateMarker( true, cursorContext );
+        return deletedWhileRebuilding != null ? new RebuildTrackingMarker( marker, deletedWhileRebuilding ) : marker;
     }
 
     IdRangeMarker lockAndInstantiateMarker( boolean bridgeIdGaps, CursorContext cursorContext )
@@ -506,8 +641,9 @@ public class IndexedIdGenerator implements IdGenerator
         commitAndReuseLock.lock();
         try
         {
+            // While a lazy rebuild is pending, ids deleted by transactions may already have been marked as free by the rebuild
             return new IdRangeMarker( idsPerEntry, layout, tree.unsafeWriter( cursorContext ), commitAndReuseLock,
-                    started ? defaultMerger : recoveryMerger,
+                    started && pendingRebuild == null ? defaultMerger : recoveryMerger,
                     started, atLeastOneIdOnFreelist, generation, highestWrittenId, bridgeIdGaps, monitor );
         }
         catch ( Exception e )
@@ -546,7 +682,17 @@ public class IndexedIdGenerator implements IdGenerator
     @Override
     public void start( FreeIds freeIdsForRebuild, CursorContext cursorContext ) throws IOException
     {
-        if ( needsRebuild )
+        if ( needsRebuild && lazyRebuild )
+        {
+            assertNotReadOnly();
+            // High id has already been scanned from the store, and kept up to date by recovery, so ids can be allocated from it right away.
+            // Free ids are found later by the rebuild, which runs as part of maintenance
+            rebuildHighId = highId.get();
+            highestWrittenId.set( rebuildHighId - 1 );
+            deletedWhileRebuilding = new LongHashSet();
+            pendingRebuild = freeIdsForRebuild;
+        }
+        else if ( needsRebuild )
         {
             assertNotReadOnly();
             // This id generator was created right now, it needs to be populated with all free ids from its owning store so that it's in sync
@@ -570,26 +716,99 @@ public class IndexedIdGenerator implements IdGenerator
 
         // After potentially recovery has been run and everything is prepared to get going let's call maintenance,
         // which will fill the ID buffers right away before any request comes to the db.
-        maintenance( cursorContext );
+        if ( pendingRebuild == null )
+        {
+            maintenance( cursorContext );
+        }
     }
 
     @Override
     public void checkpoint( CursorContext cursorContext )
     {
-        tree.checkpoint( new HeaderWriter( highId::get, highestWrittenId::get, generation, idsPerEntry ), cursorContext );
+        // Keep the starting generation until a lazy rebuild has completed, so that the next startup will rebuild if this one didn't
+        long checkpointGeneration = pendingRebuild != null ? STARTING_GENERATION : generation;
+        tree.checkpoint( new HeaderWriter( highId::get, highestWrittenId::get, checkpointGeneration, idsPerEntry ), cursorContext );
         monitor.checkpoint( highestWrittenId.get(), highId.get() );
     }
 
     @Override
     public void maintenance( CursorContext cursorContext )
     {
-        if ( !cache.isFull() && !readOnlyChecker.isReadOnly() )
+        if ( pendingRebuild != null && !readOnlyChecker.isReadOnly() )
+        {
+            completeLazyRebuild( cursorContext );
+        }
+        if ( pendingRebuild == null && !cache.isFull() && !readOnlyChecker.isReadOnly() )
         {
             // We're just helping other allocation requests and avoiding unwanted sliding of highId here
             scanner.tryLoadFreeIdsIntoCache( true, cursorContext );
         }
     }
 
+    /**
+     * Marks all free ids of the store as free in the tree, a batch at a time so that transactions committing concurrently aren't blocked
+     * for the whole rebuild. Ids deleted by those transactions are skipped and will be freed when the deleting transactions say so.
+     */
+    private synchronized void completeLazyRebuild( CursorContext cursorContext )
+    {
+        FreeIds freeIds = pendingRebuild;
+        if ( freeIds == null )
+        {
+            return;
+        }
+
+        try
+        {
+            MutableLongList batch = new LongArrayList( LAZY_REBUILD_BATCH_SIZE );
+            freeIds.accept( id ->
+            {
+                if ( id < rebuildHighId )
+                {
+                    batch.add( id );
+                    if ( batch.size() == LAZY_REBUILD_BATCH_SIZE )
+                    {
+                        markFreeWhileRebuilding( batch, cursorContext );
+                        batch.clear();
+                    }
+                }
+            } );
+            markFreeWhileRebuilding( batch, cursorContext );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+
+        commitAndReuseLock.lock();
+        try
+        {
+            pendingRebuild = null;
+            deletedWhileRebuilding = null;
+        }
+        finally
+        {
+            commitAndReuseLock.unlock();
+        }
+        // We can checkpoint here since the free ids we read are committed
+        checkpoint( cursorContext );
+        atLeastOneIdOnFreelist.set( true );
+    }
+
+    private void markFreeWhileRebuilding( MutableLongList ids, CursorContext cursorContext )
+    {
+        try ( IdRangeMarker idRangeMarker = lockAndInstantiateMarker( false, cursorContext ) )
+        {
+            ids.forEach( id ->
+            {
+                if ( !deletedWhileRebuilding.contains( id ) )
+                {
+                    idRangeMarker.markDeleted( id, 1 );
+                    idRangeMarker.markFree( id, 1 );
+                }
+            } );
+        }
+    }
+
     private void checkRefillCache( CursorContext cursorContext )
     {
         if ( cache.size() <= cacheOptimisticRefillThreshold )
@@ -783,6 +1002,123 @@ public class IndexedIdGenerator implements IdGenerator
         readOnlyChecker.check();
     }
 
+    /**
+     * Leases ranges of IDs, preferably from the freelist if there are free ranges of the requested size available, otherwise from high id.
+     * A lease never causes high id to slide while there are single free IDs available, it rather hands out those one by one, like
+     * {@link #nextId(CursorContext)} does, until there are no more free IDs.
+     * <p>
+     * The remainder of a leased range is given back to the {@link FreeIdScanner}: a range leased from high id has never been seen by anyone
+     * and so can be marked as deleted and free right away, whereas a range leased from the cache is queued as wasted cached IDs.
+     */
+    private class Lease implements IdRangeLease
+    {
+        private final int rangeSize;
+        private long nextId;
+        private long endId;
+        private boolean fromHighId;
+
+        Lease( int rangeSize )
+        {
+            this.rangeSize = rangeSize;
+        }
+
+        @Override
+        public long nextId( CursorContext cursorContext )
+        {
+            if ( nextId < endId )
+            {
+                return nextId++;
+            }
+
+            long id = takeReusedRange( rangeSize, cursorContext );
+            fromHighId = id == NO_ID;
+            if ( fromHighId )
+            {
+                long reusedId = takeReusedId( cursorContext );
+                if ( reusedId != NO_ID )
+                {
+                    // There are no reused ranges of this size, but there are free single IDs. Prefer those over sliding high id
+                    return reusedId;
+                }
+                id = allocateRangeFromHighId( rangeSize, true );
+            }
+            monitor.leasedIdRange( id, rangeSize, fromHighId );
+            nextId = id + 1;
+            endId = id + rangeSize;
+            return id;
+        }
+
+        @Override
+        public long nextIdNear( long nearId, CursorContext cursorContext )
+        {
+            // A free ID near the related record beats the next ID of the leased range, which is then kept for later
+            long id = takeReusedIdNear( nearId, cursorContext );
+            return id != NO_ID ? id : nextId( cursorContext );
+        }
+
+        @Override
+        public void close()
+        {
+            if ( nextId < endId )
+            {
+                int remaining = (int) (endId - nextId);
+                if ( fromHighId )
+                {
+                    scanner.queueReturnedHighId( nextId, remaining );
+                }
+                else
+                {
+                    scanner.queueWastedCachedId( nextId, remaining );
+                }
+                monitor.returnedLeasedIds( nextId, remaining );
+                nextId = endId;
+            }
+        }
+    }
+
+    /**
+     * Remembers ids deleted by transactions while a lazy rebuild is pending, so that the rebuild won't mark them as free.
+     */
+    private static class RebuildTrackingMarker implements Marker
+    {
+        private final IdRangeMarker actual;
+        private final MutableLongSet deletedIds;
+
+        RebuildTrackingMarker( IdRangeMarker actual, MutableLongSet deletedIds )
+        {
+            this.actual = actual;
+            this.deletedIds = deletedIds;
+        }
+
+        @Override
+        public void markUsed( long id, int numberOfIds )
+        {
+            actual.markUsed( id, numberOfIds );
+        }
+
+        @Override
+        public void markDeleted( long id, int numberOfIds )
+        {
+            for ( int i = 0; i < numberOfIds; i++ )
+            {
+                deletedIds.add( id + i );
+            }
+            actual.markDeleted( id, numberOfIds );
+        }
+
+        @Override
+        public void markFree( long id, int numberOfIds )
+        {
+            actual.markFree( id, numberOfIds );
+        }
+
+        @Override
+        public void close()
+        {
+            actual.close();
+        }
+    }
+
     interface InternalMarker extends Marker
     {
         default void markReserved( long id )
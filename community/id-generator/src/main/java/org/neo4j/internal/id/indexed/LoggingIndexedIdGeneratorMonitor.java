@@ -211,6 +211,30 @@ public class LoggingIndexedIdGeneratorMonitor implements IndexedIdGenerator.Moni
     {
     }
 
+    @Override
+    public synchronized void leasedIdRange( long firstId, int numberOfIds, boolean fromHighId )
+    {
+        putTypeAndTwoIds( fromHighId ? Type.LEASE_HIGH : Type.LEASE_REUSED, firstId, numberOfIds );
+    }
+
+    @Override
+    public synchronized void returnedLeasedIds( long firstId, int numberOfIds )
+    {
+        putTypeAndTwoIds( Type.LEASE_RETURNED, firstId, numberOfIds );
+    }
+
+    @Override
+    public synchronized void highIdContended( int numberOfRetries )
+    {
+        putTypeAndId( Type.HIGH_ID_CONTENDED, numberOfRetries );
+    }
+
+    @Override
+    public synchronized void scanLockContended()
+    {
+        putTypeOnly( Type.SCAN_LOCK_CONTENDED );
+    }
+
     @Override
     public synchronized void close()
     {
@@ -405,6 +429,7 @@ public class LoggingIndexedIdGeneratorMonitor implements IndexedIdGenerator.Moni
                 case CLEARING_CACHE:
                 case CLEARED_CACHE:
                 case CLOSED:
+                case SCAN_LOCK_CONTENDED:
                     dumper.type( type, time );
                     break;
                 case ALLOCATE_HIGH:
@@ -417,9 +442,13 @@ public class LoggingIndexedIdGeneratorMonitor implements IndexedIdGenerator.Moni
                 case MARK_DELETED_AND_FREE:
                 case NORMALIZED:
                 case BRIDGED:
+                case HIGH_ID_CONTENDED:
                     dumper.typeAndId( type, time, channel.getLong() );
                     break;
                 case CACHED:
+                case LEASE_HIGH:
+                case LEASE_REUSED:
+                case LEASE_RETURNED:
                 case OPENED:
                 case CHECKPOINT:
                     dumper.typeAndTwoIds( type, time, channel.getLong(), channel.getLong() );
@@ -537,7 +566,12 @@ public class LoggingIndexedIdGeneratorMonitor implements IndexedIdGenerator.Moni
         BRIDGED( "BR" ),
         CHECKPOINT( "Checkpoint" ),
         CLEARING_CACHE( "ClearCacheStart" ),
-        CLEARED_CACHE( "ClearCacheEnd" );
+        CLEARED_CACHE( "ClearCacheEnd" ),
+        LEASE_HIGH( "LH" ),
+        LEASE_REUSED( "LR" ),
+        LEASE_RETURNED( "LX" ),
+        HIGH_ID_CONTENDED( "HC" ),
+        SCAN_LOCK_CONTENDED( "SC" );
 
         byte id;
         String shortName;
@@ -43,6 +43,15 @@ abstract class ScanLock
         lock.lock();
     }
 
+    /**
+     * Tries to acquire the lock without blocking, regardless of whether this lock is optimistic or pessimistic.
+     * @return {@code true} if the lock was acquired, otherwise {@code false}.
+     */
+    boolean tryLockNonBlocking()
+    {
+        return lock.tryLock();
+    }
+
     void unlock()
     {
         lock.unlock();
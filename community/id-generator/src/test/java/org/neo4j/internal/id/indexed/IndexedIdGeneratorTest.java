@@ -23,6 +23,8 @@ import org.eclipse.collections.api.factory.Sets;
 import org.eclipse.collections.api.iterator.MutableLongIterator;
 import org.eclipse.collections.api.list.primitive.LongList;
 import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.factory.primitive.LongSets;
 import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -34,6 +36,7 @@ import org.junit.jupiter.params.provider.ValueSource;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collection;
@@ -50,6 +53,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.LongSupplier;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 import org.neo4j.configuration.Config;
@@ -63,6 +67,7 @@ import org.neo4j.internal.helpers.Exceptions;
 import org.neo4j.internal.id.FreeIds;
 import org.neo4j.internal.id.IdCapacityExceededException;
 import org.neo4j.internal.id.IdGenerator.Marker;
+import org.neo4j.internal.id.IdRangeLease;
 import org.neo4j.internal.id.IdSlotDistribution;
 import org.neo4j.internal.id.IdValidator;
 import org.neo4j.internal.id.SchemaIdType;
@@ -104,6 +109,8 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.neo4j.annotations.documented.ReporterFactories.noopReporterFactory;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.id_generator_locality_aware_reuse;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.lazy_id_generator_rebuild;
 import static org.neo4j.configuration.GraphDatabaseInternalSettings.strictly_prioritize_id_freelist;
 import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
 import static org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker.readOnly;
@@ -154,6 +161,12 @@ class IndexedIdGeneratorTest
                 DEFAULT_DATABASE_NAME, NULL, monitor, immutable.empty(), slotDistribution );
     }
 
+    void openWithLazyRebuild( long highId )
+    {
+        idGenerator = new IndexedIdGenerator( pageCache, file, immediate(), TestIdType.TEST, false, () -> highId, MAX_ID, writable(),
+                Config.defaults( lazy_id_generator_rebuild, true ), DEFAULT_DATABASE_NAME, NULL, NO_MONITOR, immutable.empty(), SINGLE_IDS );
+    }
+
     @AfterEach
     void stop()
     {
@@ -449,6 +462,67 @@ class IndexedIdGeneratorTest
         assertEquals( 1L, idGenerator.nextId( NULL ) );
     }
 
+    @Test
+    void shouldAllocateFromHighIdUntilLazyRebuildHasCompleted() throws IOException
+    {
+        // given
+        openWithLazyRebuild( 40 );
+        idGenerator.start( freeIds( 10, 20, 30 ), NULL );
+
+        // when/then
+        assertEquals( 40L, idGenerator.nextId( NULL ) );
+        markUsed( 40 );
+        idGenerator.maintenance( NULL );
+        assertEquals( 10L, idGenerator.nextId( NULL ) );
+        assertEquals( 20L, idGenerator.nextId( NULL ) );
+        assertEquals( 30L, idGenerator.nextId( NULL ) );
+        assertEquals( 41L, idGenerator.nextId( NULL ) );
+    }
+
+    @Test
+    void shouldLeaveIdsDeletedWhileLazyRebuildIsPendingToBeFreedNormally() throws IOException
+    {
+        // given
+        openWithLazyRebuild( 40 );
+        idGenerator.start( freeIds( 10, 20, 30 ), NULL );
+
+        // when
+        markDeleted( 20 );
+        idGenerator.maintenance( NULL );
+
+        // then
+        assertEquals( 10L, idGenerator.nextId( NULL ) );
+        assertEquals( 30L, idGenerator.nextId( NULL ) );
+        assertEquals( 40L, idGenerator.nextId( NULL ) );
+
+        // and when
+        markFree( 20 );
+        idGenerator.maintenance( NULL );
+
+        // then
+        assertEquals( 20L, idGenerator.nextId( NULL ) );
+    }
+
+    @Test
+    void shouldRedoLazyRebuildOnNextStartupIfNotCompleted() throws IOException
+    {
+        // given
+        openWithLazyRebuild( 40 );
+        idGenerator.start( freeIds( 10, 20, 30 ), NULL );
+        idGenerator.checkpoint( NULL );
+        stop();
+
+        // when
+        openWithLazyRebuild( 40 );
+        idGenerator.start( freeIds( 10, 20, 30 ), NULL );
+        idGenerator.maintenance( NULL );
+
+        // then
+        assertEquals( 10L, idGenerator.nextId( NULL ) );
+        assertEquals( 20L, idGenerator.nextId( NULL ) );
+        assertEquals( 30L, idGenerator.nextId( NULL ) );
+    }
+
     @Test
     void shouldHandle_Used_Deleted_Used() throws IOException
     {
@@ -1169,6 +1243,270 @@ class IndexedIdGeneratorTest
         assertThat( postId ).isEqualTo( 128 + 32 );
     }
 
+    @Test
+    void shouldHandOutConsecutiveIdsFromLeasedRange() throws IOException
+    {
+        // given
+        open();
+        idGenerator.start( NO_FREE_IDS, NULL );
+        IdRangeLease lease = idGenerator.leaseIdRange( 8 );
+
+        // when
+        long firstId = lease.nextId( NULL );
+        long otherId = idGenerator.nextId( NULL );
+
+        // then
+        for ( int i = 1; i < 8; i++ )
+        {
+            assertThat( lease.nextId( NULL ) ).isEqualTo( firstId + i );
+        }
+        assertThat( otherId ).isEqualTo( firstId + 8 );
+        assertThat( lease.nextId( NULL ) ).isEqualTo( otherId + 1 );
+        lease.close();
+    }
+
+    @Test
+    void shouldGiveBackRemainderOfLeasedRangeOnClose() throws IOException
+    {
+        // given
+        open();
+        idGenerator.start( NO_FREE_IDS, NULL );
+        IdRangeLease lease = idGenerator.leaseIdRange( 8 );
+        long firstId = lease.nextId( NULL );
+        lease.nextId( NULL );
+        markUsed( firstId, 2 );
+
+        // when
+        lease.close();
+        idGenerator.maintenance( NULL );
+
+        // then
+        MutableLongSet reusedIds = LongSets.mutable.empty();
+        for ( int i = 0; i < 6; i++ )
+        {
+            reusedIds.add( idGenerator.nextId( NULL ) );
+        }
+        assertThat( reusedIds.toSortedArray() ).containsExactly( LongStream.range( firstId + 2, firstId + 8 ).toArray() );
+        assertThat( idGenerator.getHighId() ).isEqualTo( firstId + 8 );
+    }
+
+    @Test
+    void shouldPreferFreeIdsOverLeasingFromHighId() throws IOException
+    {
+        // given
+        open();
+        idGenerator.start( NO_FREE_IDS, NULL );
+        long id = idGenerator.nextId( NULL );
+        idGenerator.nextId( NULL );
+        markUsed( id );
+        markDeleted( id );
+        markFree( id );
+        long highIdBefore = idGenerator.getHighId();
+
+        // when
+        try ( IdRangeLease lease = idGenerator.leaseIdRange( 8 ) )
+        {
+            // then
+            assertThat( lease.nextId( NULL ) ).isEqualTo( id );
+            assertThat( idGenerator.getHighId() ).isEqualTo( highIdBefore );
+            assertThat( lease.nextId( NULL ) ).isEqualTo( highIdBefore );
+        }
+    }
+
+    @Test
+    void shouldLeaseRangesFromFreelistIfAvailable() throws IOException
+    {
+        // given
+        var leasedRanges = new ArrayList<Boolean>();
+        var monitor = new IndexedIdGenerator.Monitor.Adapter()
+        {
+            @Override
+            public void leasedIdRange( long firstId, int numberOfIds, boolean fromHighId )
+            {
+                leasedRanges.add( fromHighId );
+            }
+        };
+        open( Config.defaults(), monitor, writable(), diminishingSlotDistribution( powerTwoSlotSizesDownwards( 8 ) ) );
+        idGenerator.start( NO_FREE_IDS, NULL );
+        long id = idGenerator.nextConsecutiveIdRange( 8, true, NULL );
+        markUsed( id, 8 );
+        markDeleted( id, 8 );
+        markFree( id, 8 );
+        long highIdBefore = idGenerator.getHighId();
+
+        // when
+        try ( IdRangeLease lease = idGenerator.leaseIdRange( 8 ) )
+        {
+            for ( int i = 0; i < 8; i++ )
+            {
+                assertThat( lease.nextId( NULL ) ).isEqualTo( id + i );
+            }
+        }
+
+        // then
+        assertThat( leasedRanges ).containsExactly( false );
+        assertThat( idGenerator.getHighId() ).isEqualTo( highIdBefore );
+    }
+
+    @Test
+    void shouldAllocateUniqueIdsFromConcurrentLeases() throws IOException
+    {
+        // given
+        open();
+        idGenerator.start( NO_FREE_IDS, NULL );
+        int numThreads = 4;
+        BitSet[] allocatedIds = new BitSet[numThreads];
+        for ( int i = 0; i < allocatedIds.length; i++ )
+        {
+            allocatedIds[i] = new BitSet();
+        }
+
+        // when
+        Race race = new Race();
+        race.addContestants( numThreads, t -> () ->
+        {
+            try ( IdRangeLease lease = idGenerator.leaseIdRange( ThreadLocalRandom.current().nextInt( 2, 64 ) ) )
+            {
+                for ( int i = 0; i < 1_000; i++ )
+                {
+                    allocatedIds[t].set( (int) lease.nextId( NULL ) );
+                }
+            }
+        }, 1 );
+        race.goUnchecked();
+
+        // then
+        int totalCount = stream( allocatedIds ).mapToInt( BitSet::cardinality ).sum();
+        BitSet merged = new BitSet();
+        for ( BitSet ids : allocatedIds )
+        {
+            merged.or( ids );
+        }
+        assertThat( totalCount ).isEqualTo( numThreads * 1_000 );
+        assertThat( merged.cardinality() ).isEqualTo( totalCount );
+    }
+
+    @Test
+    void shouldAllocateFreeIdClosestToNearIdIfLocalityAwareReuse() throws IOException
+    {
+        // given
+        open( Config.defaults( id_generator_locality_aware_reuse, true ), NO_MONITOR, writable(), SINGLE_IDS );
+        idGenerator.start( NO_FREE_IDS, NULL );
+        long[] ids = new long[IDS_PER_ENTRY * 4];
+        for ( int i = 0; i < ids.length; i++ )
+        {
+            ids[i] = idGenerator.nextId( NULL );
+            markUsed( ids[i] );
+        }
+        long farAwayId = ids[10];
+        long closeId = ids[IDS_PER_ENTRY * 2 + 20];
+        long closerId = ids[IDS_PER_ENTRY * 2 + 40];
+        for ( long id : new long[]{farAwayId, closeId, closerId} )
+        {
+            markDeleted( id );
+            markFree( id );
+        }
+
+        // when
+        long nearId = ids[IDS_PER_ENTRY * 2 + 50];
+        long id = idGenerator.nextIdNear( nearId, NULL );
+        long secondId = idGenerator.nextIdNear( nearId, NULL );
+
+        // then
+        assertThat( id ).isEqualTo( closerId );
+        assertThat( secondId ).isEqualTo( closeId );
+        assertThat( idGenerator.nextIdNear( nearId, NULL ) ).isEqualTo( farAwayId );
+    }
+
+    @Test
+    void shouldAllocateFreeIdNearNearIdFromLeaseOnlyIfThereIsOne() throws IOException
+    {
+        // given
+        open( Config.defaults( id_generator_locality_aware_reuse, true ), NO_MONITOR, writable(), SINGLE_IDS );
+        idGenerator.start( NO_FREE_IDS, NULL );
+        long[] ids = new long[IDS_PER_ENTRY * 4];
+        for ( int i = 0; i < ids.length; i++ )
+        {
+            ids[i] = idGenerator.nextId( NULL );
+            markUsed( ids[i] );
+        }
+        long closeId = ids[IDS_PER_ENTRY * 2 + 20];
+        markDeleted( closeId );
+        markFree( closeId );
+        long highId = idGenerator.getHighId();
+
+        // when
+        long nearId = ids[IDS_PER_ENTRY * 2 + 50];
+        try ( IdRangeLease lease = idGenerator.leaseIdRange( 8 ) )
+        {
+            long id = lease.nextIdNear( nearId, NULL );
+            long secondId = lease.nextIdNear( nearId, NULL );
+            long thirdId = lease.nextId( NULL );
+
+            // then the first id is the free one near the given id and the others come from the leased range
+            assertThat( id ).isEqualTo( closeId );
+            assertThat( secondId ).isEqualTo( highId );
+            assertThat( thirdId ).isEqualTo( highId + 1 );
+        }
+    }
+
+    @Test
+    void shouldNotAllocateFreeIdsOutsideNeighbouringRangesAsNear() throws IOException
+    {
+        // given
+        var reservedIds = new ArrayList<Long>();
+        open( Config.defaults( id_generator_locality_aware_reuse, true ), new IndexedIdGenerator.Monitor.Adapter()
+        {
+            @Override
+            public void markedAsReserved( long markedId, int numberOfIds )
+            {
+                reservedIds.add( markedId );
+            }
+        }, writable(), SINGLE_IDS );
+        idGenerator.start( NO_FREE_IDS, NULL );
+        long[] ids = new long[IDS_PER_ENTRY * 4];
+        for ( int i = 0; i < ids.length; i++ )
+        {
+            ids[i] = idGenerator.nextId( NULL );
+            markUsed( ids[i] );
+        }
+        long freeId = ids[10];
+        markDeleted( freeId );
+        markFree( freeId );
+
+        // when
+        long id = idGenerator.nextIdNear( ids[IDS_PER_ENTRY * 3], NULL );
+
+        // then the id comes from the regular cache and not from looking near the given id
+        assertThat( id ).isEqualTo( freeId );
+        assertThat( reservedIds ).containsExactly( freeId );
+    }
+
+    @Test
+    void shouldIgnoreNearIdIfNotLocalityAwareReuse() throws IOException
+    {
+        // given
+        open();
+        idGenerator.start( NO_FREE_IDS, NULL );
+        long[] ids = new long[IDS_PER_ENTRY];
+        for ( int i = 0; i < ids.length; i++ )
+        {
+            ids[i] = idGenerator.nextId( NULL );
+            markUsed( ids[i] );
+        }
+        for ( long id : new long[]{ids[10], ids[100]} )
+        {
+            markDeleted( id );
+            markFree( id );
+        }
+
+        // when
+        long id = idGenerator.nextIdNear( ids[100], NULL );
+
+        // then
+        assertThat( id ).isEqualTo( ids[10] );
+    }
+
     private void assertOperationPermittedInReadOnlyMode( Function<IndexedIdGenerator,Executable> operation ) throws IOException
     {
         Path file = directory.file( "existing" );
@@ -1221,6 +1559,74 @@ class IndexedIdGeneratorTest
         }
     }
 
+    @Test
+    void shouldReportScanLockContention() throws Exception
+    {
+        // given
+        stop();
+        var barrier = new Barrier.Control();
+        var contentions = new AtomicInteger();
+        var monitor = new IndexedIdGenerator.Monitor.Adapter()
+        {
+            @Override
+            public void markedAsReserved( long markedId, int numberOfIds )
+            {
+                barrier.reached();
+            }
+
+            @Override
+            public void scanLockContended()
+            {
+                contentions.incrementAndGet();
+            }
+        };
+        open( Config.defaults( strictly_prioritize_id_freelist, false ), monitor, writable(), SINGLE_IDS );
+        idGenerator.start( NO_FREE_IDS, NULL );
+        var id = idGenerator.nextId( NULL );
+        markUsed( id );
+        markDeleted( id );
+        markFree( id );
+
+        // when
+        try ( var t2 = new OtherThreadExecutor( "T2" ) )
+        {
+            var nextIdFuture = t2.executeDontWait( () -> idGenerator.nextId( NULL ) );
+            barrier.awaitUninterruptibly();
+            idGenerator.nextId( NULL );
+            barrier.release();
+            nextIdFuture.get();
+        }
+
+        // then
+        assertThat( contentions.get() ).isEqualTo( 1 );
+    }
+
+    @Test
+    void shouldReportHighIdContention() throws Throwable
+    {
+        // given
+        var retries = new AtomicInteger();
+        var monitor = new IndexedIdGenerator.Monitor.Adapter()
+        {
+            @Override
+            public void highIdContended( int numberOfRetries )
+            {
+                assertThat( numberOfRetries ).isGreaterThan( 0 );
+                retries.addAndGet( numberOfRetries );
+            }
+        };
+        open( Config.defaults(), monitor, writable(), SINGLE_IDS );
+        idGenerator.start( NO_FREE_IDS, NULL );
+
+        // when
+        Race race = new Race().withEndCondition( () -> retries.get() > 0 ).withMaxDuration( 10, TimeUnit.SECONDS );
+        race.addContestants( 8, () -> idGenerator.nextConsecutiveIdRange( 4, false, NULL ) );
+        race.go();
+
+        // then
+        assertThat( retries.get() ).isGreaterThan( 0 );
+    }
+
     private void assertOperationThrowInReadOnlyMode( Function<IndexedIdGenerator,Executable> operation )
             throws IOException
     {
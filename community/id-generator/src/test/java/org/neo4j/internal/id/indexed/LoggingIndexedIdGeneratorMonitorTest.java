@@ -99,6 +99,16 @@ class LoggingIndexedIdGeneratorMonitorTest
             clock.forward( timeStep, MILLISECONDS );
             monitor.clearedCache();
             clock.forward( timeStep, MILLISECONDS );
+            monitor.leasedIdRange( 14, 4, true );
+            clock.forward( timeStep, MILLISECONDS );
+            monitor.leasedIdRange( 15, 4, false );
+            clock.forward( timeStep, MILLISECONDS );
+            monitor.returnedLeasedIds( 16, 2 );
+            clock.forward( timeStep, MILLISECONDS );
+            monitor.highIdContended( 3 );
+            clock.forward( timeStep, MILLISECONDS );
+            monitor.scanLockContended();
+            clock.forward( timeStep, MILLISECONDS );
         }
 
         // then
@@ -120,6 +130,11 @@ class LoggingIndexedIdGeneratorMonitorTest
         verify( dumper ).typeAndId( LoggingIndexedIdGeneratorMonitor.Type.NORMALIZED, time += timeStep, 13 );
         verify( dumper ).type( LoggingIndexedIdGeneratorMonitor.Type.CLEARING_CACHE, time += timeStep);
         verify( dumper ).type( LoggingIndexedIdGeneratorMonitor.Type.CLEARED_CACHE, time += timeStep);
+        verify( dumper ).typeAndTwoIds( LoggingIndexedIdGeneratorMonitor.Type.LEASE_HIGH, time += timeStep, 14, 4 );
+        verify( dumper ).typeAndTwoIds( LoggingIndexedIdGeneratorMonitor.Type.LEASE_REUSED, time += timeStep, 15, 4 );
+        verify( dumper ).typeAndTwoIds( LoggingIndexedIdGeneratorMonitor.Type.LEASE_RETURNED, time += timeStep, 16, 2 );
+        verify( dumper ).typeAndId( LoggingIndexedIdGeneratorMonitor.Type.HIGH_ID_CONTENDED, time += timeStep, 3 );
+        verify( dumper ).type( LoggingIndexedIdGeneratorMonitor.Type.SCAN_LOCK_CONTENDED, time += timeStep );
         verify( dumper ).type( LoggingIndexedIdGeneratorMonitor.Type.CLOSED, time += timeStep);
     }
 
@@ -19,6 +19,9 @@
  */
 package org.neo4j.index.internal.gbptree;
 
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+
 import java.io.IOException;
 
 import org.neo4j.io.pagecache.PageCursor;
@@ -50,6 +53,16 @@ class FreeListIdProvider implements IdProvider
         default void releasedFreelistPageId( long freelistPageId )
         {   // Empty by default
         }
+
+        /**
+         * Called when released ids at the end of the file were given back by lowering the last id, instead of
+         * being written to the free-list.
+         *
+         * @param count number of ids trimmed from the end of the file.
+         */
+        default void trimmedIds( long count )
+        {   // Empty by default
+        }
     }
 
     static final Monitor NO_MONITOR = new Monitor()
@@ -101,17 +114,36 @@ class FreeListIdProvider implements IdProvider
      */
     private final Monitor monitor;
 
+    /**
+     * Ids released, but not yet written to the free-list, or {@code null} if releases are written right away.
+     * Released ids are buffered and written in ascending order, a full free-list page at a time or on {@link #flushPendingReleases checkpoint},
+     * so that ids are later acquired in file order and freed pages are reused sequentially rather than in release order.
+     * This is safe since an id released in the unstable generation can't be acquired before the next checkpoint anyway.
+     */
+    private final MutableLongList pendingReleases;
+
+    /**
+     * Unstable generation in which the {@link #pendingReleases} were released.
+     */
+    private long pendingReleasesGeneration;
+
     FreeListIdProvider( PagedFile pagedFile, long lastId )
     {
         this( pagedFile, lastId, NO_MONITOR );
     }
 
     FreeListIdProvider( PagedFile pagedFile, long lastId, Monitor monitor )
+    {
+        this( pagedFile, lastId, monitor, false );
+    }
+
+    FreeListIdProvider( PagedFile pagedFile, long lastId, Monitor monitor, boolean batchReleases )
     {
         this.pagedFile = pagedFile;
         this.monitor = monitor;
         this.freelistNode = new FreelistNode( pagedFile.pageSize() );
         this.lastId = lastId;
+        this.pendingReleases = batchReleases ? new LongArrayList() : null;
     }
 
     void initialize( long lastId, long writePageId, long readPageId, int writePos, int readPos )
@@ -203,6 +235,78 @@ class FreeListIdProvider implements IdProvider
 
     @Override
     public void releaseId( long stableGeneration, long unstableGeneration, long id, CursorContext cursorContext ) throws IOException
+    {
+        if ( pendingReleases == null )
+        {
+            writeReleasedId( stableGeneration, unstableGeneration, id, cursorContext );
+            return;
+        }
+
+        pendingReleases.add( id );
+        pendingReleasesGeneration = unstableGeneration;
+        if ( pendingReleases.size() >= freelistNode.maxEntries() )
+        {
+            flushPendingReleases( stableGeneration, unstableGeneration, false, cursorContext );
+        }
+    }
+
+    /**
+     * Writes all buffered released ids to the free-list in ascending order. Does nothing if releases aren't batched.
+     * <p>
+     * If {@code trimEnd} is {@code true} then released ids forming a contiguous range up to and including {@link #lastId()}
+     * are given back by lowering the last id instead, which keeps the file from accumulating free pages at its end.
+     * This must only be done as part of a checkpoint, right before the free-list state is written, since trimmed ids
+     * will be handed out again from the end of the file without going through the free-list generation check.
+     *
+     * @param stableGeneration current stable generation.
+     * @param unstableGeneration current unstable generation.
+     * @param trimEnd whether or not to trim released ids at the end of the file.
+     * @param cursorContext underlying page cursor context.
+     * @throws IOException on {@link PageCursor} error.
+     */
+    void flushPendingReleases( long stableGeneration, long unstableGeneration, boolean trimEnd, CursorContext cursorContext ) throws IOException
+    {
+        // Writing ids may release an exhausted free-list page, which then ends up in the pending releases again
+        while ( pendingReleases != null && !pendingReleases.isEmpty() )
+        {
+            long[] ids = pendingReleases.toSortedArray();
+            pendingReleases.clear();
+
+            int end = ids.length;
+            if ( trimEnd )
+            {
+                while ( end > 0 && ids[end - 1] == lastId - (ids.length - end) )
+                {
+                    end--;
+                }
+            }
+
+            long lastIdBeforeWrite = lastId;
+            for ( int i = 0; i < end; i++ )
+            {
+                writeReleasedId( stableGeneration, unstableGeneration, ids[i], cursorContext );
+            }
+
+            if ( end < ids.length )
+            {
+                if ( lastId == lastIdBeforeWrite )
+                {
+                    lastId -= ids.length - end;
+                    monitor.trimmedIds( ids.length - end );
+                }
+                else
+                {
+                    // A new free-list page was allocated at the end of the file, the tail is no longer at the end
+                    for ( int i = end; i < ids.length; i++ )
+                    {
+                        writeReleasedId( stableGeneration, unstableGeneration, ids[i], cursorContext );
+                    }
+                }
+            }
+        }
+    }
+
+    private void writeReleasedId( long stableGeneration, long unstableGeneration, long id, CursorContext cursorContext ) throws IOException
     {
         try ( PageCursor cursor = pagedFile.io( writePageId, PagedFile.PF_SHARED_WRITE_LOCK, cursorContext ) )
         {
@@ -225,6 +329,10 @@ class FreeListIdProvider implements IdProvider
         }
     }
 
+    /**
+     * Visits the free-list pages and their entries, followed by any released ids which have not yet been written to the free-list.
+     * Those are reported as entries of the last visited free-list page.
+     */
     @Override
     public void visitFreelist( IdProviderVisitor visitor, CursorContext cursorContext ) throws IOException
     {
@@ -268,6 +376,15 @@ class FreeListIdProvider implements IdProvider
             }
             while ( prevPage != writePageId );
         }
+
+        if ( pendingReleases != null )
+        {
+            long[] pending = pendingReleases.toArray();
+            for ( int i = 0; i < pending.length; i++ )
+            {
+                visitor.freelistEntry( pending[i], pendingReleasesGeneration, writePos + i );
+            }
+        }
     }
 
     @Override
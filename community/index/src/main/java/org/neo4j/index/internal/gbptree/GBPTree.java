@@ -20,6 +20,7 @@
 package org.neo4j.index.internal.gbptree;
 
 import org.apache.commons.lang3.mutable.MutableBoolean;
+import org.apache.commons.lang3.mutable.MutableObject;
 import org.apache.commons.lang3.tuple.Pair;
 import org.eclipse.collections.api.set.ImmutableSet;
 
@@ -32,9 +33,11 @@ import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import java.util.function.LongSupplier;
 import java.util.function.Supplier;
@@ -48,6 +51,7 @@ import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.util.FeatureToggles;
 import org.neo4j.util.Preconditions;
 import org.neo4j.util.VisibleForTesting;
 
@@ -141,6 +145,17 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
 {
     private static final String INDEX_INTERNAL_TAG = "indexInternal";
 
+    /**
+     * Whether or not released ids are buffered and written to the free-list in ascending order, see {@link FreeListIdProvider}.
+     */
+    private static final boolean BATCH_FREELIST_RELEASES = FeatureToggles.flag( GBPTree.class, "batchFreelistReleases", false );
+
+    /**
+     * Number of leaves to visit for {@link #compactSparseLeaves(int, CursorContext) compaction} on every checkpoint, 0 means no compaction.
+     */
+    private static final int SPARSE_LEAF_COMPACTION_LEAVES_PER_CHECKPOINT =
+            FeatureToggles.getInteger( GBPTree.class, "sparseLeafCompactionLeavesPerCheckpoint", 0 );
+
     /**
      * For monitoring {@link GBPTree}.
      */
@@ -200,6 +215,11 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
             public void treeShrink()
             {   // no-op
             }
+
+            @Override
+            public void seekRetries( long retries, long rootCatchups, long generationCheckFailures, long splitRaces )
+            {   // no-op
+            }
         }
 
         class Delegate implements Monitor
@@ -270,6 +290,12 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
             {
                 delegate.treeShrink();
             }
+
+            @Override
+            public void seekRetries( long retries, long rootCatchups, long generationCheckFailures, long splitRaces )
+            {
+                delegate.seekRetries( retries, rootCatchups, generationCheckFailures, splitRaces );
+            }
         }
 
         /**
@@ -329,6 +355,17 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
          * Report tree shrink, when root becomes empty.
          */
         void treeShrink();
+
+        /**
+         * Report how often seeks in this tree had to deal with concurrent changes since the previous report.
+         * Called on every {@link GBPTree#checkpoint(CursorContext) checkpoint}, right before {@link #checkpointCompleted()}.
+         *
+         * @param retries number of reads which had to be retried because the tree node was changed while reading it.
+         * @param rootCatchups number of times a seek had to start over from the root.
+         * @param generationCheckFailures number of times a seek found a tree node to have been reused since it got to it.
+         * @param splitRaces number of times keys were moved by a split or merge while a seek was moving over to a sibling.
+         */
+        void seekRetries( long retries, long rootCatchups, long generationCheckFailures, long splitRaces );
     }
 
     /**
@@ -384,6 +421,11 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
      */
     private final SingleWriter writer;
 
+    /**
+     * Latches coordinating {@link ConcurrentWriter concurrent writers} with each other.
+     */
+    private final WriterLatches writerLatches = new WriterLatches();
+
     /**
      * Tells whether or not there have been made changes (using {@link #writer(CursorContext)}) to this tree
      * since last call to {@link #checkpoint(CursorContext)}. This variable is set when calling {@link #writer(CursorContext)}
@@ -441,6 +483,13 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
      */
     private volatile Root root;
 
+    /**
+     * Key covered by the next leaf to visit in {@link #compactSparseLeaves(int, CursorContext)}, {@code null} until first compaction.
+     * Only accessed while holding the single writer.
+     */
+    private KEY compactionPosition;
+    private KEY compactionNextPosition;
+
     private final RootInitializer rootInitializer = cursor -> root.goTo( cursor );
 
     /**
@@ -448,6 +497,12 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
      */
     private final Supplier<RootCatchup> rootCatchupSupplier = () -> new TripCountingRootCatchup( () -> root );
 
+    /**
+     * Counts retries and other ways of dealing with concurrent changes for all {@link SeekCursor seekers} of this tree,
+     * reported to {@link #monitor} on checkpoint.
+     */
+    private final SeekRetryCounter seekRetryCounter = new SeekRetryCounter();
+
     /**
      * Supplier of generation to readers. This supplier will actually very rarely be used, because normally
      * a {@link SeekCursor} is bootstrapped from {@link #generation}. The only time this supplier will be
@@ -608,7 +663,7 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
                 meta.verify( layout );
                 format = TreeNodeSelector.selectByFormat( meta.getFormatIdentifier(), meta.getFormatVersion() );
             }
-            this.freeList = new FreeListIdProvider( pagedFile, rootId );
+            this.freeList = new FreeListIdProvider( pagedFile, rootId, FreeListIdProvider.NO_MONITOR, BATCH_FREELIST_RELEASES );
             OffloadStoreImpl<KEY,VALUE> offloadStore = buildOffload( layout, freeList, pagedFile, pageSize );
             this.bTreeNode = format.create( pageSize, layout, offloadStore );
             this.writer = new SingleWriter( new InternalTreeLogic<>( freeList, bTreeNode, layout, monitor ) );
@@ -1008,7 +1063,7 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
     @Override
     public Seeker<KEY,VALUE> allocateSeeker( CursorContext cursorContext ) throws IOException
     {
-        return internalAllocateSeeker( cursorContext, SeekCursor.NO_MONITOR );
+        return internalAllocateSeeker( cursorContext, seekRetryCounter );
     }
 
     private SeekCursor<KEY,VALUE> internalAllocateSeeker( CursorContext cursorContext, SeekCursor.Monitor monitor ) throws IOException
@@ -1030,6 +1085,81 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         return ((SeekCursor<KEY,VALUE>) seeker).initialize( fromInclusive, toExclusive, readAheadLength, searchLevel );
     }
 
+    /**
+     * Seeks hits in this tree for a batch of key ranges in one go, as opposed to one {@link #seek(Object, Object, CursorContext)} per range.
+     * The ranges are sought in the given order and the hits of all of them are iterated over using the returned {@link Seeker}.
+     * A range which starts in the leaf where the previous range ended, or in its right sibling, continues from there
+     * instead of traversing the tree from the root again, which makes this much cheaper than separate seeks for batches of keys
+     * which are close to each other.
+     * <p>
+     * All ranges must go in the same direction, see {@link #seek(Object, Object, CursorContext)}, where exact ranges, i.e. {@code fromInclusive}
+     * equal to {@code toExclusive}, go in either direction. The ranges must also be sorted in that direction and must not overlap.
+     *
+     * @param fromInclusive lower bounds of the ranges to seek (inclusive).
+     * @param toExclusive higher bounds of the ranges to seek (exclusive), one for each bound in {@code fromInclusive}.
+     * @param cursorContext underlying page cursor context
+     * @return a {@link Seeker} used to iterate over the hits within the specified key ranges.
+     * @throws IllegalArgumentException if the ranges are of different count, go in different directions, aren't sorted or overlap.
+     * @throws IOException on error reading from index.
+     */
+    public Seeker<KEY,VALUE> multiSeek( List<KEY> fromInclusive, List<KEY> toExclusive, CursorContext cursorContext ) throws IOException
+    {
+        validateMultiSeekRanges( fromInclusive, toExclusive );
+        SeekCursor<KEY,VALUE> seeker = internalAllocateSeeker( cursorContext, seekRetryCounter );
+        boolean success = false;
+        try
+        {
+            MultiSeekCursor<KEY,VALUE> multiSeeker = new MultiSeekCursor<>( seeker, fromInclusive, toExclusive );
+            success = true;
+            return multiSeeker;
+        }
+        finally
+        {
+            if ( !success )
+            {
+                seeker.close();
+            }
+        }
+    }
+
+    private void validateMultiSeekRanges( List<KEY> fromInclusive, List<KEY> toExclusive )
+    {
+        if ( fromInclusive.size() != toExclusive.size() )
+        {
+            throw new IllegalArgumentException(
+                    "Expected as many lower as higher bounds, but got " + fromInclusive.size() + " lower and " + toExclusive.size() + " higher bounds" );
+        }
+        int direction = 0;
+        for ( int i = 0; i < fromInclusive.size(); i++ )
+        {
+            int rangeDirection = Integer.signum( layout.compare( toExclusive.get( i ), fromInclusive.get( i ) ) );
+            if ( rangeDirection != 0 )
+            {
+                if ( direction != 0 && direction != rangeDirection )
+                {
+                    throw new IllegalArgumentException( "All ranges must go in the same direction, but range " + i + " doesn't" );
+                }
+                direction = rangeDirection;
+            }
+        }
+        if ( direction == 0 && fromInclusive.size() > 1 )
+        {
+            // Only exact ranges, which can be sought in either direction
+            direction = Integer.signum( layout.compare( fromInclusive.get( 1 ), fromInclusive.get( 0 ) ) );
+        }
+        int stride = direction < 0 ? -1 : 1;
+        for ( int i = 1; i < fromInclusive.size(); i++ )
+        {
+            KEY previousTo = toExclusive.get( i - 1 );
+            boolean previousExact = layout.compare( fromInclusive.get( i - 1 ), previousTo ) == 0;
+            int distance = layout.compare( fromInclusive.get( i ), previousTo ) * stride;
+            if ( distance < 0 || (previousExact && distance == 0) )
+            {
+                throw new IllegalArgumentException( "Ranges must be sorted and must not overlap, but range " + i + " starts before range " + (i - 1) + " ends" );
+            }
+        }
+    }
+
     /**
      * Partitions the provided key range into {@code numberOfPartitions} partitions and instantiates a {@link Seeker} for each.
      * Caller can seek through the partitions in parallel. Caller is responsible for closing the returned {@link Seeker seekers}.
@@ -1231,6 +1361,12 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
 
     private void checkpoint( Header.Writer headerWriter, CursorContext cursorContext ) throws IOException
     {
+        // Compact some sparsely filled leaves, if enabled, so that the pages it dirties are also flushed outside the lock below
+        if ( SPARSE_LEAF_COMPACTION_LEAVES_PER_CHECKPOINT > 0 && changesSinceLastCheckpoint && !readOnlyChecker.isReadOnly() )
+        {
+            compactSparseLeaves( SPARSE_LEAF_COMPACTION_LEAVES_PER_CHECKPOINT, cursorContext );
+        }
+
         // Flush dirty pages of the tree, do this before acquiring the lock so that writers won't be
         // blocked while we do this
         pagedFile.flushAndForce();
@@ -1241,6 +1377,9 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         try
         {
             assertRecoveryCleanSuccessful();
+            // Write ids released in this generation to the free-list, if they were batched, or give them back
+            // by lowering the last id if they are at the end of the file.
+            freeList.flushPendingReleases( stableGeneration( generation ), unstableGeneration( generation ), true, cursorContext );
             // Flush dirty pages since that last flush above. This should be a very small set of pages
             // and should be rather fast. In here writers are blocked and we want to minimize this
             // windows of time as much as possible, that's why there's an initial flush outside this lock.
@@ -1256,6 +1395,7 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
             pagedFile.flushAndForce();
 
             // Expose this fact.
+            seekRetryCounter.report( monitor );
             monitor.checkpointCompleted();
 
             // Clear flag so that until next change there's no need to do another checkpoint.
@@ -1392,6 +1532,42 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         return unsafeWriter( ratioToKeepInLeftOnSplit, cursorContext );
     }
 
+    /**
+     * Use default value for ratioToKeepInLeftOnSplit
+     * @param cursorContext underlying page cursor context
+     * @see GBPTree#concurrentWriter(double, CursorContext)
+     */
+    public Writer<KEY,VALUE> concurrentWriter( CursorContext cursorContext ) throws IOException
+    {
+        return concurrentWriter( InternalTreeLogic.DEFAULT_SPLIT_RATIO, cursorContext );
+    }
+
+    /**
+     * Returns a {@link Writer} able to modify the index concurrently with other writers returned from this method, as opposed to
+     * {@link #writer(double, CursorContext)} which hands out the single exclusive writer. Changes which stay within a leaf are made
+     * concurrently with changes to other leaves, whereas changes to the structure of the tree, e.g. splits and merges, block all
+     * concurrent writers while they are made. After usage the returned writer must be closed, typically by using try-with-resource clause.
+     * A checkpoint waits for all concurrent writers to be closed and blocks new ones from being acquired while waiting.
+     * <p>
+     * Existing entries are only merged within a leaf for layouts with fixed size values, otherwise the merge is made as a structural change.
+     * Either way the {@link ValueMerger} is asked once per merge.
+     * <p>
+     * A concurrent writer must only be used by one thread at a time.
+     *
+     * @param ratioToKeepInLeftOnSplit Decide how much to keep in left node on split, 0=keep nothing, 0.5=split 50-50, 1=keep everything.
+     * @param cursorContext underlying page cursor context
+     * @return a new {@link Writer} for this index, which can be used concurrently with other concurrent writers.
+     * @throws IOException on error accessing the index.
+     */
+    public Writer<KEY,VALUE> concurrentWriter( double ratioToKeepInLeftOnSplit, CursorContext cursorContext ) throws IOException
+    {
+        assertNotReadOnly( "Open concurrent tree writer." );
+        ConcurrentWriter concurrentWriter = new ConcurrentWriter();
+        concurrentWriter.initialize( ratioToKeepInLeftOnSplit, cursorContext );
+        changesSinceLastCheckpoint = true;
+        return concurrentWriter;
+    }
+
     public Writer<KEY,VALUE> unsafeWriter(  CursorContext cursorContext ) throws IOException
     {
         return unsafeWriter( InternalTreeLogic.DEFAULT_SPLIT_RATIO, cursorContext );
@@ -1404,6 +1580,109 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         return writer;
     }
 
+    /**
+     * Rewrites sparsely filled leaves, i.e. leaves which are left underflowing by removals that couldn't rebalance nor merge them at the time,
+     * by rebalancing or merging them with a sibling. Up to {@code maxLeaves} leaves are visited in key order, continuing where the previous
+     * call left off and starting over from the lowest key when reaching the end of the tree. Calling this regularly, e.g. on every checkpoint,
+     * keeps a long-lived tree densely packed so that range scans keep reading few pages. Holds the single writer while running.
+     *
+     * @param maxLeaves maximum number of leaves to visit.
+     * @param cursorContext underlying page cursor context
+     * @return number of leaves which were rebalanced or merged.
+     * @throws IOException on error accessing the index.
+     */
+    public int compactSparseLeaves( int maxLeaves, CursorContext cursorContext ) throws IOException
+    {
+        assertNotReadOnly( "Compact sparse leaves." );
+        writer.initialize( InternalTreeLogic.DEFAULT_SPLIT_RATIO, cursorContext );
+        changesSinceLastCheckpoint = true;
+        try
+        {
+            if ( compactionPosition == null )
+            {
+                compactionPosition = layout.newKey();
+                compactionNextPosition = layout.newKey();
+                layout.initializeAsLowest( compactionPosition );
+            }
+
+            int compacted = 0;
+            for ( int i = 0; i < maxLeaves; i++ )
+            {
+                boolean hasNext = writer.treeLogic.firstKeyOfRightSibling( writer.cursor, compactionPosition, compactionNextPosition,
+                        writer.stableGeneration, writer.unstableGeneration, cursorContext );
+                if ( writer.treeLogic.compactLeaf( writer.cursor, writer.structurePropagation, compactionPosition,
+                        writer.stableGeneration, writer.unstableGeneration, cursorContext ) )
+                {
+                    compacted++;
+                }
+                writer.handleStructureChanges( cursorContext );
+
+                if ( !hasNext )
+                {
+                    layout.initializeAsLowest( compactionPosition );
+                    break;
+                }
+                layout.copyKey( compactionNextPosition, compactionPosition );
+            }
+            return compacted;
+        }
+        catch ( Throwable e )
+        {
+            appendTreeInformation( e );
+            throw e;
+        }
+        finally
+        {
+            writer.close();
+        }
+    }
+
+    /**
+     * Returns a {@link Writer} which builds the tree bottom-up from keys given in ascending order, instead of inserting them one by one.
+     * Leaves are filled up to the given fill factor, one after the other, and internal nodes are built on top of them as leaves
+     * are completed. This is much cheaper than using {@link #writer(double, CursorContext)} for loading lots of data into a new tree,
+     * and leaves no half-full leaves behind. The tree must be empty and the loaded tree becomes visible when the returned writer is closed.
+     * <p>
+     * The returned writer has the following restrictions compared to a normal {@link Writer}:
+     * <ul>
+     *     <li>Keys must be given in ascending order. A key equal to the previous key is merged with it using the given {@link ValueMerger}.</li>
+     *     <li>Keys can not be removed, neither by {@link Writer#remove(Object)} nor by a merger.</li>
+     * </ul>
+     * The returned writer holds the single writer of this tree until it is closed.
+     *
+     * @param fillFactor how much of each leaf to fill, in the range (0,1] where 1=completely full.
+     * @param cursorContext underlying page cursor context
+     * @return a {@link Writer} for bulk loading this index. The returned writer must be {@link Writer#close() closed} for the
+     * loaded data to become visible and before another caller can acquire a writer.
+     * @throws IOException on error accessing the index.
+     * @throws IllegalStateException if the tree isn't empty, or for calls made between a successful call to this method and closing the
+     * returned writer.
+     */
+    public Writer<KEY,VALUE> bulkLoader( double fillFactor, CursorContext cursorContext ) throws IOException
+    {
+        assertNotReadOnly( "Open tree bulk loader." );
+        writer.initialize( InternalTreeLogic.DEFAULT_SPLIT_RATIO, cursorContext );
+        boolean success = false;
+        try
+        {
+            if ( !TreeNode.isLeaf( writer.cursor ) || TreeNode.keyCount( writer.cursor ) != 0 )
+            {
+                throw new IllegalStateException( "Can only bulk load into an empty tree, but " + this + " isn't empty" );
+            }
+            BulkLoader bulkLoader = new BulkLoader( fillFactor, cursorContext );
+            changesSinceLastCheckpoint = true;
+            success = true;
+            return bulkLoader;
+        }
+        finally
+        {
+            if ( !success )
+            {
+                writer.close();
+            }
+        }
+    }
+
     private void setRoot( long rootId, long rootGeneration )
     {
         this.root = new Root( rootId, rootGeneration );
@@ -1590,6 +1869,46 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         Exceptions.withMessage( e, e.getMessage() + " | " + toString() );
     }
 
+    /**
+     * Counts how often seeks have to deal with concurrent changes. Shared by all seekers of the tree.
+     */
+    private static class SeekRetryCounter extends SeekCursor.MonitorAdaptor
+    {
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder rootCatchups = new LongAdder();
+        private final LongAdder generationCheckFailures = new LongAdder();
+        private final LongAdder splitRaces = new LongAdder();
+
+        @Override
+        public void retry()
+        {
+            retries.increment();
+        }
+
+        @Override
+        public void rootCatchup()
+        {
+            rootCatchups.increment();
+        }
+
+        @Override
+        public void generationCheckFailure()
+        {
+            generationCheckFailures.increment();
+        }
+
+        @Override
+        public void splitRace()
+        {
+            splitRaces.increment();
+        }
+
+        void report( Monitor monitor )
+        {
+            monitor.seekRetries( retries.sumThenReset(), rootCatchups.sumThenReset(), generationCheckFailures.sumThenReset(), splitRaces.sumThenReset() );
+        }
+    }
+
     private static class SeekDepthMonitor extends SeekCursor.MonitorAdaptor
     {
         private boolean reachedLeafLevel;
@@ -1604,20 +1923,20 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
     private class SingleWriter implements Writer<KEY,VALUE>
     {
         /**
-         * Currently an index only supports one concurrent writer and so this boolean will act as
-         * guard so that only one writer ever exist.
+         * There's only one single writer per index and so this boolean will act as
+         * guard so that only one writer ever exist. Concurrent writers are handed out as {@link ConcurrentWriter}.
          */
         private final AtomicBoolean writerTaken = new AtomicBoolean();
-        private final InternalTreeLogic<KEY,VALUE> treeLogic;
+        final InternalTreeLogic<KEY,VALUE> treeLogic;
         private final StructurePropagation<KEY> structurePropagation;
-        private PageCursor cursor;
-        private CursorContext cursorContext;
+        PageCursor cursor;
+        CursorContext cursorContext;
 
         // Writer can't live past a checkpoint because of the mutex with checkpoint,
         // therefore safe to locally cache these generation fields from the volatile generation in the tree
-        private long stableGeneration;
-        private long unstableGeneration;
-        private double ratioToKeepInLeftOnSplit;
+        long stableGeneration;
+        long unstableGeneration;
+        double ratioToKeepInLeftOnSplit;
 
         SingleWriter( InternalTreeLogic<KEY,VALUE> treeLogic )
         {
@@ -1659,14 +1978,7 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
             {
                 // Block here until cleaning has completed, if cleaning was required
                 lock.writerAndCleanerLock();
-                assertRecoveryCleanSuccessful();
-                cursor = openRootCursor( PagedFile.PF_SHARED_WRITE_LOCK, cursorContext );
-                this.cursorContext = cursorContext;
-                stableGeneration = stableGeneration( generation );
-                unstableGeneration = unstableGeneration( generation );
-                this.ratioToKeepInLeftOnSplit = ratioToKeepInLeftOnSplit;
-                assert assertNoSuccessor( cursor, stableGeneration, unstableGeneration );
-                treeLogic.initialize( cursor, ratioToKeepInLeftOnSplit );
+                open( ratioToKeepInLeftOnSplit, cursorContext );
                 success = true;
             }
             catch ( Throwable e )
@@ -1683,6 +1995,18 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
             }
         }
 
+        void open( double ratioToKeepInLeftOnSplit, CursorContext cursorContext ) throws IOException
+        {
+            assertRecoveryCleanSuccessful();
+            cursor = openRootCursor( PagedFile.PF_SHARED_WRITE_LOCK, cursorContext );
+            this.cursorContext = cursorContext;
+            stableGeneration = stableGeneration( generation );
+            unstableGeneration = unstableGeneration( generation );
+            this.ratioToKeepInLeftOnSplit = ratioToKeepInLeftOnSplit;
+            assert assertNoSuccessor( cursor, stableGeneration, unstableGeneration );
+            treeLogic.initialize( cursor, ratioToKeepInLeftOnSplit );
+        }
+
         @Override
         public void put( KEY key, VALUE value )
         {
@@ -1701,7 +2025,7 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
             internalMerge( key, value, valueMerger, false );
         }
 
-        private void internalMerge( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger, boolean createIfNotExists )
+        void internalMerge( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger, boolean createIfNotExists )
         {
             try
             {
@@ -1793,7 +2117,7 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
             lock.writerAndCleanerUnlock();
         }
 
-        private void closeCursor()
+        void closeCursor()
         {
             if ( cursor != null )
             {
@@ -1803,6 +2127,293 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         }
     }
 
+    /**
+     * Writer handed out by {@link #bulkLoader(double, CursorContext)}, holding the single writer while building the tree
+     * using a {@link GBPTreeBulkLoader}. The root is changed to the root of the built tree on close.
+     */
+    private class BulkLoader implements Writer<KEY,VALUE>
+    {
+        private final GBPTreeBulkLoader<KEY,VALUE> loader;
+        private final PageCursor internalCursor;
+        private final long emptyRootId;
+        private boolean closed;
+
+        BulkLoader( double fillFactor, CursorContext cursorContext ) throws IOException
+        {
+            this.emptyRootId = writer.cursor.getCurrentPageId();
+            this.internalCursor = writer.cursor.openLinkedCursor( emptyRootId );
+            this.loader = new GBPTreeBulkLoader<>( bTreeNode, layout, freeList, writer.cursor, internalCursor, fillFactor,
+                    writer.stableGeneration, writer.unstableGeneration, cursorContext );
+        }
+
+        @Override
+        public void put( KEY key, VALUE value )
+        {
+            merge( key, value, ValueMergers.overwrite() );
+        }
+
+        @Override
+        public void merge( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger )
+        {
+            add( key, value, valueMerger, true );
+        }
+
+        @Override
+        public void mergeIfExists( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger )
+        {
+            add( key, value, valueMerger, false );
+        }
+
+        private void add( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger, boolean createIfNotExists )
+        {
+            try
+            {
+                loader.add( key, value, valueMerger, createIfNotExists );
+            }
+            catch ( IOException e )
+            {
+                appendTreeInformation( e );
+                throw new UncheckedIOException( e );
+            }
+            checkOutOfBounds( writer.cursor );
+            checkOutOfBounds( internalCursor );
+        }
+
+        @Override
+        public VALUE remove( KEY key )
+        {
+            throw new UnsupportedOperationException( "Can not remove keys when bulk loading" );
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            if ( closed )
+            {
+                throw new IllegalStateException( "Tried to close bulk loader of " + GBPTree.this + ", but it is already closed." );
+            }
+            closed = true;
+            try
+            {
+                long newRootId = loader.finish();
+                checkOutOfBounds( internalCursor );
+                if ( newRootId != TreeNode.NO_NODE_FLAG )
+                {
+                    GBPTree.this.setRoot( newRootId, writer.unstableGeneration );
+                    freeList.releaseId( writer.stableGeneration, writer.unstableGeneration, emptyRootId, writer.cursorContext );
+                }
+            }
+            catch ( Throwable e )
+            {
+                appendTreeInformation( e );
+                throw e;
+            }
+            finally
+            {
+                internalCursor.close();
+                writer.close();
+            }
+        }
+    }
+
+    /**
+     * Writer used concurrently with other concurrent writers of the same tree, each having its own {@link InternalTreeLogic} and cursor.
+     * Changes within a single leaf are made holding the {@link WriterLatches structure latch} shared and the leaf latched. Changes
+     * needing structural changes are made by the same logic as the single writer, holding the structure latch exclusively.
+     * Structural changes are therefore never concurrent, which keeps crash generation cleaning and consistency checking as they are.
+     */
+    private class ConcurrentWriter extends SingleWriter
+    {
+        private long seenStructureVersion;
+        private boolean closed;
+
+        ConcurrentWriter()
+        {
+            super( new InternalTreeLogic<>( freeList, bTreeNode, layout, monitor ) );
+        }
+
+        @Override
+        void initialize( double ratioToKeepInLeftOnSplit, CursorContext cursorContext ) throws IOException
+        {
+            boolean success = false;
+            // Block here until cleaning has completed, if cleaning was required
+            lock.sharedWriterAndCleanerLock();
+            try
+            {
+                writerLatches.acquireShared();
+                try
+                {
+                    open( ratioToKeepInLeftOnSplit, cursorContext );
+                    seenStructureVersion = writerLatches.structureVersion();
+                }
+                finally
+                {
+                    writerLatches.releaseShared();
+                }
+                success = true;
+            }
+            catch ( Throwable e )
+            {
+                appendTreeInformation( e );
+                throw e;
+            }
+            finally
+            {
+                if ( !success )
+                {
+                    close();
+                }
+            }
+        }
+
+        @Override
+        void internalMerge( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger, boolean createIfNotExists )
+        {
+            InternalTreeLogic.LeafChange change;
+            writerLatches.acquireShared();
+            try
+            {
+                catchUpWithStructureChanges();
+                treeLogic.moveToLeaf( cursor, key, stableGeneration, unstableGeneration, cursorContext );
+                long leafId = cursor.getCurrentPageId();
+                writerLatches.latchLeaf( leafId );
+                try
+                {
+                    change = treeLogic.tryInsertInLeaf( cursor, key, value, valueMerger, createIfNotExists,
+                            stableGeneration, unstableGeneration, cursorContext );
+                }
+                finally
+                {
+                    writerLatches.unlatchLeaf( leafId );
+                }
+            }
+            catch ( IOException e )
+            {
+                appendTreeInformation( e );
+                throw new UncheckedIOException( e );
+            }
+            catch ( Throwable t )
+            {
+                appendTreeInformation( t );
+                throw t;
+            }
+            finally
+            {
+                writerLatches.releaseShared();
+            }
+
+            if ( change == InternalTreeLogic.LeafChange.NEEDS_STRUCTURE_CHANGE )
+            {
+                exclusively( () -> super.internalMerge( key, value, valueMerger, createIfNotExists ) );
+                return;
+            }
+            checkOutOfBounds( cursor );
+        }
+
+        @Override
+        public VALUE remove( KEY key )
+        {
+            VALUE result = layout.newValue();
+            InternalTreeLogic.LeafChange change;
+            writerLatches.acquireShared();
+            try
+            {
+                catchUpWithStructureChanges();
+                treeLogic.moveToLeaf( cursor, key, stableGeneration, unstableGeneration, cursorContext );
+                long leafId = cursor.getCurrentPageId();
+                writerLatches.latchLeaf( leafId );
+                try
+                {
+                    change = treeLogic.tryRemoveFromLeaf( cursor, key, result, stableGeneration, unstableGeneration, cursorContext );
+                }
+                finally
+                {
+                    writerLatches.unlatchLeaf( leafId );
+                }
+            }
+            catch ( IOException e )
+            {
+                appendTreeInformation( e );
+                throw new UncheckedIOException( e );
+            }
+            catch ( Throwable e )
+            {
+                appendTreeInformation( e );
+                throw e;
+            }
+            finally
+            {
+                writerLatches.releaseShared();
+            }
+
+            if ( change == InternalTreeLogic.LeafChange.NEEDS_STRUCTURE_CHANGE )
+            {
+                MutableObject<VALUE> removed = new MutableObject<>();
+                exclusively( () -> removed.setValue( super.remove( key ) ) );
+                return removed.getValue();
+            }
+            checkOutOfBounds( cursor );
+            return change == InternalTreeLogic.LeafChange.DONE ? result : null;
+        }
+
+        /**
+         * Makes a change using the single writer logic, which may change the structure of the tree, while holding the structure latch exclusively.
+         */
+        private void exclusively( Runnable change )
+        {
+            boolean success = false;
+            writerLatches.acquireExclusive();
+            try
+            {
+                catchUpWithStructureChanges();
+                change.run();
+                success = true;
+            }
+            catch ( IOException e )
+            {
+                appendTreeInformation( e );
+                throw new UncheckedIOException( e );
+            }
+            finally
+            {
+                long structureVersion = writerLatches.releaseExclusive();
+                if ( success )
+                {
+                    // The path cached in our tree logic is still valid since this writer made the latest structural change
+                    seenStructureVersion = structureVersion;
+                }
+            }
+        }
+
+        /**
+         * If another writer has changed the structure of the tree since this writer last saw it then the path down the tree
+         * cached in the tree logic may no longer be valid, so start over from the root.
+         */
+        private void catchUpWithStructureChanges() throws IOException
+        {
+            long structureVersion = writerLatches.structureVersion();
+            if ( seenStructureVersion != structureVersion )
+            {
+                root.goTo( cursor );
+                treeLogic.initialize( cursor, ratioToKeepInLeftOnSplit );
+                seenStructureVersion = structureVersion;
+            }
+        }
+
+        @Override
+        public void close()
+        {
+            if ( closed )
+            {
+                throw new IllegalStateException( "Tried to close concurrent writer of " + GBPTree.this +
+                        ", but writer is already closed." );
+            }
+            closed = true;
+            closeCursor();
+            lock.sharedWriterAndCleanerUnlock();
+        }
+    }
+
     /**
      * Total size limit for key and value.
      * This limit includes storage overhead that is specific to key implementation for example entity id or meta data about type.
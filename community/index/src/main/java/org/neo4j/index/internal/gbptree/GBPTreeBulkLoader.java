@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.context.CursorContext;
+
+import static java.lang.String.format;
+import static org.neo4j.index.internal.gbptree.PageCursorUtil.goTo;
+import static org.neo4j.index.internal.gbptree.TreeNode.NO_NODE_FLAG;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.INTERNAL;
+
+/**
+ * Builds a tree bottom-up from keys and values given in ascending key order, as opposed to inserting them one by one
+ * from the root, which splits a leaf every time it gets full. Leaves are filled one after the other, up to a fill factor,
+ * leaving room for later inserts. When a node is completed its key and pointer is appended to the open node on the level
+ * above, which is completed the same way when it's full. Internal nodes are filled completely.
+ * <p>
+ * A node is added to its parent first when it's completed, the first node on each level being the first child of its parent.
+ * This way the last node on a level, which is completed when all keys have been added, can take a key and child from its left
+ * sibling in the rare case where it only got a single child, instead of being left without keys.
+ * <p>
+ * All nodes are new nodes of the unstable generation and none of them are reachable until the root of the tree is changed
+ * to the root returned from {@link #finish()}. A crash before the next checkpoint therefore leaves the tree as it was
+ * before the bulk load, like for any other change.
+ *
+ * @param <KEY> type of keys
+ * @param <VALUE> type of values
+ */
+class GBPTreeBulkLoader<KEY,VALUE>
+{
+    private final TreeNode<KEY,VALUE> bTreeNode;
+    private final Layout<KEY,VALUE> layout;
+    private final IdProvider idProvider;
+    private final PageCursor leafCursor;
+    private final PageCursor internalCursor;
+    private final double fillFactor;
+    private final long stableGeneration;
+    private final long unstableGeneration;
+    private final CursorContext cursorContext;
+
+    /**
+     * Levels of internal nodes, where the first is the level right above the leaves.
+     */
+    private final List<Level> levels = new ArrayList<>();
+    private final KEY lastKey;
+    private final KEY leafSeparator;
+    private final KEY stolenKey;
+    private final VALUE readValue;
+    private long leafId = NO_NODE_FLAG;
+    private long previousLeafId = NO_NODE_FLAG;
+    private int leafKeyCount;
+    private boolean leafCompacted;
+
+    GBPTreeBulkLoader( TreeNode<KEY,VALUE> bTreeNode, Layout<KEY,VALUE> layout, IdProvider idProvider, PageCursor leafCursor, PageCursor internalCursor,
+            double fillFactor, long stableGeneration, long unstableGeneration, CursorContext cursorContext )
+    {
+        if ( fillFactor <= 0 || fillFactor > 1 )
+        {
+            throw new IllegalArgumentException( "Fill factor must be in the range (0,1], but was " + fillFactor );
+        }
+        this.bTreeNode = bTreeNode;
+        this.layout = layout;
+        this.idProvider = idProvider;
+        this.leafCursor = leafCursor;
+        this.internalCursor = internalCursor;
+        this.fillFactor = fillFactor;
+        this.stableGeneration = stableGeneration;
+        this.unstableGeneration = unstableGeneration;
+        this.cursorContext = cursorContext;
+        this.lastKey = layout.newKey();
+        this.leafSeparator = layout.newKey();
+        this.stolenKey = layout.newKey();
+        this.readValue = layout.newValue();
+    }
+
+    /**
+     * Add key and value after all previously added keys and values. If the key is equal to the previously added key their values
+     * are merged using the given {@link ValueMerger}, except that the merger may not {@link ValueMerger.MergeResult#REMOVED remove} it.
+     *
+     * @param key key to add, must not be lower than the previously added key.
+     * @param value value to add.
+     * @param valueMerger {@link ValueMerger} to consult if key is equal to the previously added key.
+     * @param createIfNotExists whether or not to add a key which isn't equal to the previously added key.
+     * @throws IllegalArgumentException if key is lower than the previously added key.
+     */
+    void add( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger, boolean createIfNotExists ) throws IOException
+    {
+        int comparison = leafKeyCount == 0 ? 1 : layout.compare( key, lastKey );
+        if ( comparison < 0 )
+        {
+            throw new IllegalArgumentException( format( "Keys must be bulk loaded in ascending order, but %s came after %s", key, lastKey ) );
+        }
+        if ( comparison == 0 )
+        {
+            mergeWithLast( key, value, valueMerger );
+        }
+        else if ( createIfNotExists )
+        {
+            append( key, value );
+        }
+    }
+
+    /**
+     * Completes the last node on every level.
+     *
+     * @return id of the root of the loaded tree, or {@link TreeNode#NO_NODE_FLAG} if nothing was loaded.
+     */
+    long finish() throws IOException
+    {
+        if ( leafId == NO_NODE_FLAG )
+        {
+            return NO_NODE_FLAG;
+        }
+        if ( previousLeafId == NO_NODE_FLAG )
+        {
+            return leafId;
+        }
+        addToLevel( 0, leafSeparator, leafId );
+        for ( int i = 0; i < levels.size(); i++ )
+        {
+            Level level = levels.get( i );
+            if ( level.keyCount == 0 )
+            {
+                level.takeLastFromPrevious();
+            }
+            if ( level.previousId == NO_NODE_FLAG )
+            {
+                // Only node on this level, and therefore the top level
+                return level.nodeId;
+            }
+            addToLevel( i + 1, level.separator, level.nodeId );
+        }
+        throw new IllegalStateException( "Expected the top level to have a single node" );
+    }
+
+    private void append( KEY key, VALUE value ) throws IOException
+    {
+        if ( leafId == NO_NODE_FLAG )
+        {
+            leafId = idProvider.acquireNewId( stableGeneration, unstableGeneration, cursorContext );
+            goTo( leafCursor, "first leaf", leafId );
+            bTreeNode.initializeLeaf( leafCursor, stableGeneration, unstableGeneration );
+        }
+        else if ( !leafHasRoomFor( key, value ) )
+        {
+            long newLeafId = idProvider.acquireNewId( stableGeneration, unstableGeneration, cursorContext );
+            TreeNode.setRightSibling( leafCursor, newLeafId, stableGeneration, unstableGeneration );
+            if ( previousLeafId == NO_NODE_FLAG )
+            {
+                newLevel( leafId );
+            }
+            else
+            {
+                addToLevel( 0, leafSeparator, leafId );
+            }
+            layout.minimalSplitter( lastKey, key, leafSeparator );
+
+            goTo( leafCursor, "new leaf", newLeafId );
+            bTreeNode.initializeLeaf( leafCursor, stableGeneration, unstableGeneration );
+            TreeNode.setLeftSibling( leafCursor, leafId, stableGeneration, unstableGeneration );
+            previousLeafId = leafId;
+            leafId = newLeafId;
+            leafKeyCount = 0;
+            leafCompacted = false;
+        }
+
+        bTreeNode.insertKeyValueAt( leafCursor, key, value, leafKeyCount, leafKeyCount, stableGeneration, unstableGeneration, cursorContext );
+        leafKeyCount++;
+        TreeNode.setKeyCount( leafCursor, leafKeyCount );
+        layout.copyKey( key, lastKey );
+    }
+
+    private boolean leafHasRoomFor( KEY key, VALUE value )
+    {
+        if ( bTreeNode.leafHasRoomFor( leafCursor, leafKeyCount, key, value, fillFactor ) )
+        {
+            return true;
+        }
+        if ( !leafCompacted )
+        {
+            // Some formats can make room by rewriting a full leaf, but it's only worth trying once per leaf
+            leafCompacted = true;
+            return bTreeNode.compactLeaf( leafCursor, leafKeyCount ) && bTreeNode.leafHasRoomFor( leafCursor, leafKeyCount, key, value, fillFactor );
+        }
+        return false;
+    }
+
+    private void mergeWithLast( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger ) throws IOException
+    {
+        int pos = leafKeyCount - 1;
+        bTreeNode.valueAt( leafCursor, readValue, pos, cursorContext );
+        ValueMerger.MergeResult mergeResult = valueMerger.merge( lastKey, key, readValue, value );
+        if ( mergeResult == ValueMerger.MergeResult.UNCHANGED )
+        {
+            return;
+        }
+        if ( mergeResult == ValueMerger.MergeResult.REMOVED )
+        {
+            throw new UnsupportedOperationException( "Can not remove keys when bulk loading, but merging " + key + " removed it" );
+        }
+
+        VALUE mergedValue = mergeResult == ValueMerger.MergeResult.REPLACED ? value : readValue;
+        if ( !bTreeNode.setValueAt( leafCursor, mergedValue, pos ) )
+        {
+            // Value could not be overwritten because they differ in size. The key is the last one so remove and append it again.
+            bTreeNode.removeKeyValueAt( leafCursor, pos, leafKeyCount, stableGeneration, unstableGeneration, cursorContext );
+            bTreeNode.defragmentLeaf( leafCursor );
+            leafKeyCount--;
+            TreeNode.setKeyCount( leafCursor, leafKeyCount );
+            if ( leafKeyCount > 0 )
+            {
+                bTreeNode.keyAt( leafCursor, lastKey, leafKeyCount - 1, TreeNode.Type.LEAF, cursorContext );
+            }
+            append( key, mergedValue );
+        }
+    }
+
+    /**
+     * Add key and child to the open node on the given level, starting a new node on that level if the open node is full.
+     */
+    private void addToLevel( int levelIndex, KEY key, long child ) throws IOException
+    {
+        Level level = levels.get( levelIndex );
+        goTo( internalCursor, "open internal node", level.nodeId );
+        if ( bTreeNode.internalOverflow( internalCursor, level.keyCount, key ) == TreeNode.Overflow.NO )
+        {
+            bTreeNode.insertKeyAndRightChildAt( internalCursor, key, child, level.keyCount, level.keyCount, stableGeneration, unstableGeneration,
+                    cursorContext );
+            level.keyCount++;
+            TreeNode.setKeyCount( internalCursor, level.keyCount );
+            return;
+        }
+
+        // The open node is full. The key will separate it from a new node with the child as first child.
+        long newNodeId = idProvider.acquireNewId( stableGeneration, unstableGeneration, cursorContext );
+        TreeNode.setRightSibling( internalCursor, newNodeId, stableGeneration, unstableGeneration );
+        if ( level.previousId == NO_NODE_FLAG )
+        {
+            newLevel( level.nodeId );
+        }
+        else
+        {
+            addToLevel( levelIndex + 1, level.separator, level.nodeId );
+        }
+        layout.copyKey( key, level.separator );
+
+        goTo( internalCursor, "new internal node", newNodeId );
+        bTreeNode.initializeInternal( internalCursor, stableGeneration, unstableGeneration );
+        TreeNode.setLeftSibling( internalCursor, level.nodeId, stableGeneration, unstableGeneration );
+        bTreeNode.setChildAt( internalCursor, child, 0, stableGeneration, unstableGeneration );
+        level.previousId = level.nodeId;
+        level.nodeId = newNodeId;
+        level.keyCount = 0;
+    }
+
+    /**
+     * Start a new level on top of the others, with the first node on the level below as first child.
+     */
+    private void newLevel( long firstChild ) throws IOException
+    {
+        Level level = new Level();
+        level.nodeId = idProvider.acquireNewId( stableGeneration, unstableGeneration, cursorContext );
+        goTo( internalCursor, "new level", level.nodeId );
+        bTreeNode.initializeInternal( internalCursor, stableGeneration, unstableGeneration );
+        bTreeNode.setChildAt( internalCursor, firstChild, 0, stableGeneration, unstableGeneration );
+        levels.add( level );
+    }
+
+    private class Level
+    {
+        private final KEY separator = layout.newKey();
+        private long nodeId;
+        private long previousId = NO_NODE_FLAG;
+        private int keyCount;
+
+        /**
+         * Give this node, which only has a single child, the last key and child of the previous node on this level.
+         * The previous node was completed because it was full, so it will still have keys left.
+         */
+        void takeLastFromPrevious() throws IOException
+        {
+            goTo( internalCursor, "previous internal node", previousId );
+            int previousKeyCount = TreeNode.keyCount( internalCursor );
+            bTreeNode.keyAt( internalCursor, stolenKey, previousKeyCount - 1, INTERNAL, cursorContext );
+            long stolenChild = bTreeNode.childAt( internalCursor, previousKeyCount, stableGeneration, unstableGeneration );
+            bTreeNode.removeKeyAndRightChildAt( internalCursor, previousKeyCount - 1, previousKeyCount, stableGeneration, unstableGeneration,
+                    cursorContext );
+            TreeNode.setKeyCount( internalCursor, previousKeyCount - 1 );
+
+            goTo( internalCursor, "internal node", nodeId );
+            long onlyChild = bTreeNode.childAt( internalCursor, 0, stableGeneration, unstableGeneration );
+            bTreeNode.setChildAt( internalCursor, stolenChild, 0, stableGeneration, unstableGeneration );
+            bTreeNode.insertKeyAndRightChildAt( internalCursor, separator, onlyChild, 0, 0, stableGeneration, unstableGeneration, cursorContext );
+            keyCount = 1;
+            TreeNode.setKeyCount( internalCursor, keyCount );
+            layout.copyKey( stolenKey, separator );
+        }
+    }
+}
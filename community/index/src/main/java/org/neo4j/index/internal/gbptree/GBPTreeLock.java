@@ -26,10 +26,19 @@ import java.util.concurrent.locks.LockSupport;
 
 import org.neo4j.util.VisibleForTesting;
 
+/**
+ * Lock guarding writers, cleaner and checkpoint of a {@link GBPTree} from each other. Writer and cleaner are locked exclusively,
+ * except for concurrent writers which share the writer and cleaner lock between them, see {@link #sharedWriterAndCleanerLock()}.
+ * The first shared writer locks writer and cleaner and the last one to leave unlocks them. An exclusive locker waiting for
+ * shared writers to leave blocks new shared writers from entering so that a checkpoint isn't starved by a steady stream of them.
+ */
 class GBPTreeLock
 {
     private static final long writerLockBit = 0x00000000_00000001L;
     private static final long cleanerLockBit = 0x00000000_00000002L;
+    private static final long exclusiveWaitingBit = 0x00000000_00000004L;
+    private static final int sharedWritersShift = 32;
+    private static final long sharedWriterUnit = 1L << sharedWritersShift;
     @SuppressWarnings( "unused" ) // accessed via VarHandle
     private long state;
     private static final VarHandle STATE;
@@ -85,6 +94,39 @@ class GBPTreeLock
         doUnlock( writerLockBit | cleanerLockBit );
     }
 
+    /**
+     * Locks writer and cleaner, shared with other concurrent writers. Blocks while writer or cleaner is locked exclusively,
+     * or while someone is waiting to lock them exclusively.
+     */
+    void sharedWriterAndCleanerLock()
+    {
+        doSharedLock();
+    }
+
+    /**
+     * Leaves the shared writer and cleaner lock, unlocking writer and cleaner if this was the last shared writer.
+     */
+    void sharedWriterAndCleanerUnlock()
+    {
+        long currentState;
+        long newState;
+        do
+        {
+            currentState = (long) STATE.getVolatile( this );
+            long sharedWriters = sharedWriters( currentState );
+            if ( sharedWriters == 0 )
+            {
+                throw new IllegalStateException( "Can not unlock shared writer lock that isn't locked" );
+            }
+            newState = currentState - sharedWriterUnit;
+            if ( sharedWriters == 1 )
+            {
+                newState &= ~(writerLockBit | cleanerLockBit);
+            }
+        }
+        while ( !STATE.weakCompareAndSet( this, currentState, newState ) );
+    }
+
     private void doLock( long targetLockBit )
     {
         long currentState;
@@ -93,12 +135,34 @@ class GBPTreeLock
         {
             currentState = (long) STATE.getVolatile( this );
             while ( !canLock( currentState, targetLockBit ) )
+            {
+                if ( sharedWriters( currentState ) > 0 && (currentState & exclusiveWaitingBit) == 0 )
+                {
+                    // Stop new shared writers from entering so that the current ones eventually leave
+                    STATE.weakCompareAndSet( this, currentState, currentState | exclusiveWaitingBit );
+                }
+                // sleep
+                sleep();
+                currentState = (long) STATE.getVolatile( this );
+            }
+            newState = (currentState | targetLockBit) & ~exclusiveWaitingBit;
+        } while ( !STATE.weakCompareAndSet( this, currentState, newState ) );
+    }
+
+    private void doSharedLock()
+    {
+        long currentState;
+        long newState;
+        do
+        {
+            currentState = (long) STATE.getVolatile( this );
+            while ( !canLockShared( currentState ) )
             {
                 // sleep
                 sleep();
                 currentState = (long) STATE.getVolatile( this );
             }
-            newState = currentState | targetLockBit;
+            newState = (currentState | writerLockBit | cleanerLockBit) + sharedWriterUnit;
         } while ( !STATE.weakCompareAndSet( this, currentState, newState ) );
     }
 
@@ -113,6 +177,10 @@ class GBPTreeLock
             {
                 throw new IllegalStateException( "Can not unlock lock that is already locked" );
             }
+            if ( sharedWriters( currentState ) > 0 )
+            {
+                throw new IllegalStateException( "Can not unlock lock that is held by shared writers" );
+            }
             newState = currentState & ~targetLockBit;
         }
         while ( !STATE.weakCompareAndSet( this, currentState, newState ) );
@@ -123,6 +191,20 @@ class GBPTreeLock
         return (state & targetLockBit) == 0;
     }
 
+    private static boolean canLockShared( long state )
+    {
+        if ( (state & exclusiveWaitingBit) != 0 )
+        {
+            return false;
+        }
+        return sharedWriters( state ) > 0 || canLock( state, writerLockBit | cleanerLockBit );
+    }
+
+    private static long sharedWriters( long state )
+    {
+        return state >>> sharedWritersShift;
+    }
+
     private static boolean canUnlock( long state, long targetLockBit )
     {
         return (state & targetLockBit) == targetLockBit;
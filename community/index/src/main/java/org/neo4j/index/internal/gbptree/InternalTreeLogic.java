@@ -90,6 +90,25 @@ class InternalTreeLogic<KEY,VALUE>
 {
     static final double DEFAULT_SPLIT_RATIO = 0.5;
 
+    /**
+     * Outcome of trying to make a change within a single leaf, without changing the structure of the tree.
+     */
+    enum LeafChange
+    {
+        /**
+         * The change was made, or there was nothing to change.
+         */
+        DONE,
+        /**
+         * The key to remove doesn't exist.
+         */
+        NOT_FOUND,
+        /**
+         * The change needs a structural change of the tree, e.g. split, merge or new successor, and nothing was changed.
+         */
+        NEEDS_STRUCTURE_CHANGE
+    }
+
     private final IdProvider idProvider;
     private final TreeNode<KEY,VALUE> bTreeNode;
     private final Layout<KEY,VALUE> layout;
@@ -777,6 +796,253 @@ class InternalTreeLogic<KEY,VALUE>
         return into;
     }
 
+    /**
+     * Rewrites the leaf covering {@code key} if it's sparsely filled, i.e. underflowing, by rebalancing or merging it with a sibling
+     * the same way as {@link #remove(PageCursor, StructurePropagation, Object, Object, long, long, CursorContext) remove} does.
+     * Leaves can be left underflowing by removals which couldn't rebalance nor merge at the time, or by concurrent writers.
+     * <p>
+     * Leaves cursor at the page which was last updated. No guarantees on offset.
+     *
+     * @param cursor {@link PageCursor} pinned to root of tree (if first change since {@link #initialize(PageCursor)})
+     * or at where last change left it.
+     * @param structurePropagation {@link StructurePropagation} used to report structure changes between tree levels.
+     * @param key key covered by the leaf to compact.
+     * @param stableGeneration stable generation, i.e. generations <= this generation are considered stable.
+     * @param unstableGeneration unstable generation, i.e. generation which is under development right now.
+     * @param cursorContext underlying page cursor context
+     * @return {@code true} if the leaf was underflowing and could be rebalanced or merged, otherwise {@code false}.
+     * @throws IOException on cursor failure
+     */
+    boolean compactLeaf( PageCursor cursor, StructurePropagation<KEY> structurePropagation, KEY key,
+            long stableGeneration, long unstableGeneration, CursorContext cursorContext ) throws IOException
+    {
+        assert cursorIsAtExpectedLocation( cursor );
+        moveToCorrectLeaf( cursor, key, stableGeneration, unstableGeneration, cursorContext );
+
+        int keyCount = TreeNode.keyCount( cursor );
+        if ( keyCount == 0 || !bTreeNode.leafUnderflow( cursor, keyCount ) ||
+                (!TreeNode.isNode( TreeNode.leftSibling( cursor, stableGeneration, unstableGeneration ) ) &&
+                        !TreeNode.isNode( TreeNode.rightSibling( cursor, stableGeneration, unstableGeneration ) )) )
+        {
+            return false;
+        }
+
+        createSuccessorIfNeeded( cursor, structurePropagation, UPDATE_MID_CHILD,
+                stableGeneration, unstableGeneration, cursorContext );
+        underflowInLeaf( cursor, structurePropagation, keyCount, stableGeneration, unstableGeneration, cursorContext );
+        boolean compacted = structurePropagation.hasLeftKeyReplace || structurePropagation.hasRightKeyReplace;
+
+        handleStructureChanges( cursor, structurePropagation, stableGeneration, unstableGeneration, cursorContext );
+
+        if ( currentLevel <= 0 )
+        {
+            tryShrinkTree( cursor, structurePropagation, stableGeneration, unstableGeneration, cursorContext );
+        }
+
+        return compacted;
+    }
+
+    /**
+     * Reads the first key of the right sibling of the leaf covering {@code key}, without changing anything.
+     * Used for visiting leaves one after the other while changing them, e.g. by {@link #compactLeaf(PageCursor, StructurePropagation, Object,
+     * long, long, CursorContext)}.
+     *
+     * @param cursor {@link PageCursor} pinned to root of tree (if first change since {@link #initialize(PageCursor)})
+     * or at where last change left it.
+     * @param key key covered by the leaf whose right sibling to read from.
+     * @param into {@code KEY} instance to read the first key of the right sibling into.
+     * @param stableGeneration stable generation, i.e. generations <= this generation are considered stable.
+     * @param unstableGeneration unstable generation, i.e. generation which is under development right now.
+     * @param cursorContext underlying page cursor context
+     * @return {@code true} if there was a right sibling with keys, otherwise {@code false}.
+     * @throws IOException on cursor failure
+     */
+    boolean firstKeyOfRightSibling( PageCursor cursor, KEY key, KEY into, long stableGeneration, long unstableGeneration, CursorContext cursorContext )
+            throws IOException
+    {
+        assert cursorIsAtExpectedLocation( cursor );
+        moveToCorrectLeaf( cursor, key, stableGeneration, unstableGeneration, cursorContext );
+
+        long rightSibling = TreeNode.rightSibling( cursor, stableGeneration, unstableGeneration );
+        checkRightSiblingPointer( rightSibling, true, cursor, stableGeneration, unstableGeneration );
+        if ( !TreeNode.isNode( rightSibling ) )
+        {
+            return false;
+        }
+        try ( PageCursor rightSiblingCursor = cursor.openLinkedCursor( GenerationSafePointerPair.pointer( rightSibling ) ) )
+        {
+            rightSiblingCursor.next();
+            if ( TreeNode.keyCount( rightSiblingCursor ) == 0 )
+            {
+                return false;
+            }
+            bTreeNode.keyAt( rightSiblingCursor, into, 0, LEAF, cursorContext );
+            return true;
+        }
+    }
+
+    /**
+     * Moves the cursor to the leaf covering {@code key}, taking the current path into consideration, without changing anything.
+     * Used by concurrent writers, which latch the leaf before trying to change it using
+     * {@link #tryInsertInLeaf(PageCursor, Object, Object, ValueMerger, boolean, long, long, CursorContext)} or
+     * {@link #tryRemoveFromLeaf(PageCursor, Object, Object, long, long, CursorContext)}.
+     *
+     * @param cursor {@link PageCursor} pinned to root of tree (if first change since {@link #initialize(PageCursor)})
+     * or at where last change left it.
+     * @param key key to find the leaf for.
+     * @param stableGeneration stable generation, i.e. generations <= this generation are considered stable.
+     * @param unstableGeneration unstable generation, i.e. generation which is under development right now.
+     * @param cursorContext underlying page cursor context
+     * @throws IOException on cursor failure
+     */
+    void moveToLeaf( PageCursor cursor, KEY key, long stableGeneration, long unstableGeneration, CursorContext cursorContext ) throws IOException
+    {
+        assert cursorIsAtExpectedLocation( cursor );
+        moveToCorrectLeaf( cursor, key, stableGeneration, unstableGeneration, cursorContext );
+    }
+
+    /**
+     * Like {@link #insert(PageCursor, StructurePropagation, Object, Object, ValueMerger, boolean, long, long, CursorContext)},
+     * but only if the change can be made within the leaf the cursor is at, which is the case when the leaf is of the unstable
+     * generation, the entry is inlined and neither a split, defragmentation nor a change in entry size is needed. Otherwise nothing is changed
+     * and the change must be made using {@link #insert(PageCursor, StructurePropagation, Object, Object, ValueMerger, boolean, long, long,
+     * CursorContext) insert}. The {@link ValueMerger} is only asked when its decision can be carried out within the leaf, i.e. for trees
+     * with fixed size values, so it's never asked twice for the same change.
+     *
+     * @param cursor {@link PageCursor} pinned to the leaf covering {@code key}, see {@link #moveToLeaf(PageCursor, Object, long, long, CursorContext)}.
+     * @param key key to be inserted
+     * @param value value to be associated with key
+     * @param valueMerger {@link ValueMerger} for deciding what to do with existing keys
+     * @param createIfNotExists create this key if it doesn't exist
+     * @param stableGeneration stable generation, i.e. generations <= this generation are considered stable.
+     * @param unstableGeneration unstable generation, i.e. generation which is under development right now.
+     * @param cursorContext underlying page cursor context
+     * @return {@link LeafChange#DONE} if the change was made or there was nothing to change,
+     * otherwise {@link LeafChange#NEEDS_STRUCTURE_CHANGE}.
+     * @throws IOException on cursor failure
+     */
+    LeafChange tryInsertInLeaf( PageCursor cursor, KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger, boolean createIfNotExists,
+            long stableGeneration, long unstableGeneration, CursorContext cursorContext ) throws IOException
+    {
+        bTreeNode.validateKeyValueSize( key, value );
+        if ( TreeNode.generation( cursor ) != unstableGeneration )
+        {
+            // Would need a successor
+            return LeafChange.NEEDS_STRUCTURE_CHANGE;
+        }
+
+        int keyCount = TreeNode.keyCount( cursor );
+        int search = search( cursor, LEAF, key, readKey, keyCount, cursorContext );
+        int pos = positionOf( search );
+        if ( isHit( search ) )
+        {
+            return tryMergeValueInLeaf( cursor, key, value, valueMerger, pos, keyCount, stableGeneration, unstableGeneration, cursorContext );
+        }
+        if ( !createIfNotExists )
+        {
+            return LeafChange.DONE;
+        }
+
+        if ( layout.keySize( key ) + layout.valueSize( value ) > bTreeNode.inlineKeyValueSizeCap() )
+        {
+            // Would need to be offloaded
+            return LeafChange.NEEDS_STRUCTURE_CHANGE;
+        }
+        if ( bTreeNode.leafOverflow( cursor, keyCount, key, value ) != Overflow.NO )
+        {
+            // Would need a split, or a defragmentation which uses scratch space in the tree node shared between writers
+            return LeafChange.NEEDS_STRUCTURE_CHANGE;
+        }
+        bTreeNode.insertKeyValueAt( cursor, key, value, pos, keyCount, stableGeneration, unstableGeneration, cursorContext );
+        TreeNode.setKeyCount( cursor, keyCount + 1 );
+        return LeafChange.DONE;
+    }
+
+    /**
+     * Like {@link #remove(PageCursor, StructurePropagation, Object, Object, long, long, CursorContext)}, but only if the change
+     * can be made within the leaf the cursor is at, which is the case when the leaf is of the unstable generation, the entry is
+     * inlined and the leaf won't become empty. A leaf may be left underflowing, it will be rebalanced by a later structural
+     * change in it, the same way as when {@link #remove(PageCursor, StructurePropagation, Object, Object, long, long, CursorContext) remove}
+     * can neither rebalance nor merge an underflowing leaf.
+     *
+     * @param cursor {@link PageCursor} pinned to the leaf covering {@code key}, see {@link #moveToLeaf(PageCursor, Object, long, long, CursorContext)}.
+     * @param key key to be removed
+     * @param into {@code VALUE} instance to write removed value to
+     * @param stableGeneration stable generation, i.e. generations <= this generation are considered stable.
+     * @param unstableGeneration unstable generation, i.e. generation which is under development right now.
+     * @param cursorContext underlying page cursor context
+     * @return {@link LeafChange#DONE} if the key was removed, {@link LeafChange#NOT_FOUND} if it didn't exist,
+     * otherwise {@link LeafChange#NEEDS_STRUCTURE_CHANGE}.
+     * @throws IOException on cursor failure
+     */
+    LeafChange tryRemoveFromLeaf( PageCursor cursor, KEY key, VALUE into, long stableGeneration, long unstableGeneration, CursorContext cursorContext )
+            throws IOException
+    {
+        int keyCount = TreeNode.keyCount( cursor );
+        int search = search( cursor, LEAF, key, readKey, keyCount, cursorContext );
+        if ( !isHit( search ) )
+        {
+            return LeafChange.NOT_FOUND;
+        }
+        int pos = positionOf( search );
+        if ( TreeNode.generation( cursor ) != unstableGeneration || bTreeNode.offloadIdAt( cursor, pos, LEAF ) != TreeNode.NO_OFFLOAD_ID )
+        {
+            return LeafChange.NEEDS_STRUCTURE_CHANGE;
+        }
+        return tryRemoveAt( cursor, into, pos, keyCount, stableGeneration, unstableGeneration, cursorContext );
+    }
+
+    private LeafChange tryMergeValueInLeaf( PageCursor cursor, KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger, int pos, int keyCount,
+            long stableGeneration, long unstableGeneration, CursorContext cursorContext ) throws IOException
+    {
+        // Whatever the merger decides must be possible to do within the leaf, since it mustn't be asked again
+        if ( bTreeNode.offloadIdAt( cursor, pos, LEAF ) != TreeNode.NO_OFFLOAD_ID )
+        {
+            return LeafChange.NEEDS_STRUCTURE_CHANGE;
+        }
+        if ( !layout.fixedSize() )
+        {
+            // A merged value of a different size would need to be moved
+            return LeafChange.NEEDS_STRUCTURE_CHANGE;
+        }
+        if ( keyCount == 1 && currentLevel > 0 )
+        {
+            // Removing the entry would leave an empty leaf
+            return LeafChange.NEEDS_STRUCTURE_CHANGE;
+        }
+
+        bTreeNode.valueAt( cursor, readValue, pos, cursorContext );
+        ValueMerger.MergeResult mergeResult = valueMerger.merge( readKey, key, readValue, value );
+        if ( mergeResult == ValueMerger.MergeResult.UNCHANGED )
+        {
+            return LeafChange.DONE;
+        }
+        if ( mergeResult == ValueMerger.MergeResult.REPLACED || mergeResult == ValueMerger.MergeResult.MERGED )
+        {
+            VALUE mergedValue = mergeResult == ValueMerger.MergeResult.REPLACED ? value : readValue;
+            bTreeNode.setValueAt( cursor, mergedValue, pos );
+            return LeafChange.DONE;
+        }
+        if ( mergeResult == ValueMerger.MergeResult.REMOVED )
+        {
+            simplyRemoveFromLeaf( cursor, readValue, keyCount, pos, stableGeneration, unstableGeneration, cursorContext );
+            return LeafChange.DONE;
+        }
+        throw new UnsupportedOperationException( "Unexpected merge result " + mergeResult );
+    }
+
+    private LeafChange tryRemoveAt( PageCursor cursor, VALUE into, int pos, int keyCount, long stableGeneration, long unstableGeneration,
+            CursorContext cursorContext ) throws IOException
+    {
+        if ( keyCount == 1 && currentLevel > 0 )
+        {
+            // Would leave an empty leaf which needs to be merged with a sibling
+            return LeafChange.NEEDS_STRUCTURE_CHANGE;
+        }
+        simplyRemoveFromLeaf( cursor, into, keyCount, pos, stableGeneration, unstableGeneration, cursorContext );
+        return LeafChange.DONE;
+    }
+
     private void handleStructureChanges( PageCursor cursor, StructurePropagation<KEY> structurePropagation,
             long stableGeneration, long unstableGeneration, CursorContext cursorContext ) throws IOException
     {
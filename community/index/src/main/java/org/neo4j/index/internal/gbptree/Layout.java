@@ -40,6 +40,7 @@ public interface Layout<KEY, VALUE> extends Comparator<KEY>
 {
     int FIXED_SIZE_KEY = -1;
     int FIXED_SIZE_VALUE = -1;
+    int NO_KEY_PREFIX_COMPRESSION = -1;
 
     /**
      * @return new key instance.
@@ -122,6 +123,31 @@ public interface Layout<KEY, VALUE> extends Comparator<KEY>
         copyKey( right, into );
     }
 
+    /**
+     * Dynamic size layouts can have keys in leaves stored with the prefix they share with the other keys in the same leaf stripped off.
+     * Only the part of each written key after the first {@code offset} bytes is compressed, so that layouts writing something of high
+     * cardinality, e.g. an entity id, before the part that keys are sorted on still gets to share that part.
+     * This only affects how keys are stored, trees created with or without compression can be opened by the same layout.
+     *
+     * @return number of leading bytes of each written key to store as-is, or {@link #NO_KEY_PREFIX_COMPRESSION} if keys
+     * should not be prefix compressed.
+     */
+    default int keyPrefixCompressionOffset()
+    {
+        return NO_KEY_PREFIX_COMPRESSION;
+    }
+
+    /**
+     * Trees created with prefix compressed keys can't be opened by versions without support for it, so layouts able to compress keys may
+     * still want new trees to be created without. Trees are opened with the format they were created with either way.
+     *
+     * @return whether or not new trees are created with prefix compressed keys, see {@link #keyPrefixCompressionOffset()}.
+     */
+    default boolean createWithKeyPrefixCompression()
+    {
+        return keyPrefixCompressionOffset() != NO_KEY_PREFIX_COMPRESSION;
+    }
+
     /**
      * Used as verification when loading an index after creation, to verify that the same layout is used,
      * as the one it was initially created with.
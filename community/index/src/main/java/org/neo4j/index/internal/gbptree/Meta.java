@@ -157,9 +157,11 @@ public class Meta
                     layout.identifier(), layout.majorVersion(), layout.minorVersion() ) );
         }
 
+        // Versions of the same format are compatible with the layout, e.g. a tree created before the layout opted in to
+        // key compression keeps being opened with its uncompressed format.
         Factory formatByLayout = TreeNodeSelector.selectByLayout( layout );
         if ( formatByLayout.formatIdentifier() != formatIdentifier ||
-             formatByLayout.formatVersion() != formatVersion )
+             !TreeNodeSelector.isKnownFormat( formatIdentifier, formatVersion ) )
         {
             throw new MetadataMismatchException( format( "Tried to open using layout not compatible with what index was created with. " +
                     "Created with formatIdentifier:%d,formatVersion:%d. Opened with formatIdentifier:%d,formatVersion%d",
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.neo4j.index.internal.gbptree.SeekCursor.DEFAULT_MAX_READ_AHEAD;
+import static org.neo4j.index.internal.gbptree.SeekCursor.LEAF_LEVEL;
+
+/**
+ * {@link Seeker} over a sorted batch of key ranges, seeking them one after the other using the same {@link SeekCursor}.
+ * Each range after the first continues from the leaf where the previous range ended, if it starts there or in its right sibling,
+ * instead of traversing the tree from the root again, see {@link SeekCursor#continueWith(Object, Object, int)}.
+ *
+ * @param <KEY> type of keys in the tree.
+ * @param <VALUE> type of values in the tree.
+ */
+class MultiSeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
+{
+    private final SeekCursor<KEY,VALUE> seeker;
+    private final List<KEY> fromInclusive;
+    private final List<KEY> toExclusive;
+    private int rangeIndex;
+
+    MultiSeekCursor( SeekCursor<KEY,VALUE> seeker, List<KEY> fromInclusive, List<KEY> toExclusive ) throws IOException
+    {
+        this.seeker = seeker;
+        this.fromInclusive = fromInclusive;
+        this.toExclusive = toExclusive;
+        if ( !fromInclusive.isEmpty() )
+        {
+            seeker.initialize( fromInclusive.get( 0 ), toExclusive.get( 0 ), DEFAULT_MAX_READ_AHEAD, LEAF_LEVEL );
+        }
+    }
+
+    @Override
+    public boolean next() throws IOException
+    {
+        if ( rangeIndex >= fromInclusive.size() )
+        {
+            return false;
+        }
+        while ( !seeker.next() )
+        {
+            rangeIndex++;
+            if ( rangeIndex >= fromInclusive.size() )
+            {
+                return false;
+            }
+            seeker.continueWith( fromInclusive.get( rangeIndex ), toExclusive.get( rangeIndex ), DEFAULT_MAX_READ_AHEAD );
+        }
+        return true;
+    }
+
+    @Override
+    public KEY key()
+    {
+        return seeker.key();
+    }
+
+    @Override
+    public VALUE value()
+    {
+        return seeker.value();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        seeker.close();
+    }
+}
@@ -155,6 +155,28 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
          * @param keyCount number of keys in the visited leaf node.
          */
         void leafNode( int depth, int keyCount );
+
+        /**
+         * Called when a read had to be retried because the tree node was changed by a concurrent writer while reading it.
+         */
+        void retry();
+
+        /**
+         * Called when the seek had to start over from the root, because it ended up on an unexpected tree node.
+         */
+        void rootCatchup();
+
+        /**
+         * Called when a tree node turned out to have another generation than expected, which means that it has been reused
+         * since the seek read the pointer to it or since the seek last read from it.
+         */
+        void generationCheckFailure();
+
+        /**
+         * Called when keys were moved between the current tree node and its sibling, by a concurrent split or merge,
+         * while the seek was moving over to that sibling.
+         */
+        void splitRace();
     }
 
     static class MonitorAdaptor implements Monitor
@@ -168,6 +190,26 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
         public void leafNode( int depth, int keyCount )
         {   // no-op
         }
+
+        @Override
+        public void retry()
+        {   // no-op
+        }
+
+        @Override
+        public void rootCatchup()
+        {   // no-op
+        }
+
+        @Override
+        public void generationCheckFailure()
+        {   // no-op
+        }
+
+        @Override
+        public void splitRace()
+        {   // no-op
+        }
     }
 
     static final Monitor NO_MONITOR = new MonitorAdaptor();
@@ -469,7 +511,6 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
         this.firstKeyInNode = layout.newKey();
     }
 
-    @SuppressWarnings( "unchecked" )
     SeekCursor<KEY,VALUE> initialize( KEY fromInclusive, KEY toExclusive, int maxReadAhead, int searchLevel ) throws IOException
     {
         Preconditions.checkState( !closed, "Seeker already closed" );
@@ -490,14 +531,7 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
         this.seekForward = layout.compare( fromInclusive, toExclusive ) <= 0;
         this.stride = seekForward ? 1 : -1;
         this.searchLevel = searchLevel;
-        int batchSize = exactMatch ? 1 : maxReadAhead;
-        if ( mutableKeys == null || batchSize > mutableKeys.length )
-        {
-            this.mutableKeys = (KEY[]) new Object[batchSize];
-            this.mutableValues = (VALUE[]) new Object[batchSize];
-            this.mutableKeys[0] = layout.newKey();
-            this.mutableValues[0] = layout.newValue();
-        }
+        ensureBatchSize( exactMatch ? 1 : maxReadAhead );
         this.ended = false;
         this.pos = 0;
         this.keyCount = 0;
@@ -525,6 +559,146 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
         return this;
     }
 
+    /**
+     * Continues this seek with another key range, which comes after the range sought so far in the direction of this seek.
+     * If the new range starts in the leaf this seek is currently on, or for forward seeks in its right sibling, the seek continues
+     * from there by a binary search in that leaf, otherwise it starts over from the root like {@link #initialize(Object, Object, int, int)}.
+     * It also starts over if the new range goes in another direction, where exact ranges always go forward like they do in
+     * {@link #initialize(Object, Object, int, int)}.
+     * This makes seeking many ranges which are close to each other, like the ones of a sorted batch of keys, much cheaper than
+     * seeking them one by one.
+     *
+     * @param fromInclusive lower bound of the next range to seek (inclusive).
+     * @param toExclusive higher bound of the next range to seek (exclusive).
+     * @param maxReadAhead max number of keys to read ahead in the next range.
+     * @throws IOException on {@link PageCursor} error.
+     */
+    void continueWith( KEY fromInclusive, KEY toExclusive, int maxReadAhead ) throws IOException
+    {
+        Preconditions.checkState( !closed, "Seeker already closed" );
+        boolean startsHere;
+        try
+        {
+            boolean forward = layout.compare( fromInclusive, toExclusive ) <= 0;
+            startsHere = searchLevel == LEAF_LEVEL && forward == seekForward && startsInCurrentOrNextLeaf( fromInclusive );
+        }
+        catch ( Throwable e )
+        {
+            exceptionDecorator.accept( e );
+            throw e;
+        }
+        if ( !startsHere )
+        {
+            initialize( fromInclusive, toExclusive, maxReadAhead, LEAF_LEVEL );
+            return;
+        }
+
+        this.fromInclusive = fromInclusive;
+        this.toExclusive = toExclusive;
+        this.exactMatch = layout.compare( fromInclusive, toExclusive ) == 0;
+        ensureBatchSize( exactMatch ? 1 : maxReadAhead );
+        this.first = true;
+        this.ended = false;
+        this.cachedIndex = 0;
+        this.cachedLength = 0;
+        this.resultOnTrack = false;
+        this.verifyExpectedFirstAfterGoToNext = false;
+        // Makes the next read search for the start of the new range in this leaf, and go on to the next leaf if it's not here,
+        // the same way as when searching again after a concurrent change
+        this.concurrentWriteHappened = true;
+    }
+
+    /**
+     * Reads the keys at the ends of the leaf this seek is currently on and for forward seeks, if needed, the last key of its right sibling,
+     * to see if the given key is in the range of keys in those leaves. The key can not be before the first key in the current leaf,
+     * since keys before it could then be in the previous sibling, which a seek doesn't go back to.
+     *
+     * @return {@code true} if the key is in the range of the current leaf, or the next leaf for forward seeks, otherwise {@code false}.
+     */
+    private boolean startsInCurrentOrNextLeaf( KEY key ) throws IOException
+    {
+        boolean inCurrentLeaf;
+        boolean maybeInNextLeaf;
+        long rightSibling;
+        do
+        {
+            inCurrentLeaf = false;
+            maybeInNextLeaf = false;
+            rightSibling = TreeNode.NO_NODE_FLAG;
+            if ( readHeader() && !isInternal && keyCount > 0 )
+            {
+                bTreeNode.keyAt( cursor, mutableKeys[0], 0, LEAF, cursorContext );
+                int comparedToFirst = layout.compare( key, mutableKeys[0] );
+                bTreeNode.keyAt( cursor, mutableKeys[0], keyCount - 1, LEAF, cursorContext );
+                int comparedToLast = layout.compare( key, mutableKeys[0] );
+                inCurrentLeaf = comparedToFirst >= 0 && comparedToLast <= 0;
+                if ( seekForward && comparedToLast > 0 )
+                {
+                    maybeInNextLeaf = true;
+                    rightSibling = TreeNode.rightSibling( cursor, stableGeneration, unstableGeneration, generationKeeper );
+                }
+            }
+        }
+        while ( shouldRetry() );
+        checkOutOfBoundsAndClosed();
+        cursor.checkAndClearCursorException();
+
+        if ( !endedUpOnExpectedNode() )
+        {
+            return false;
+        }
+        if ( inCurrentLeaf )
+        {
+            return true;
+        }
+        return maybeInNextLeaf && GenerationSafePointerPair.isSuccess( rightSibling ) && TreeNode.isNode( rightSibling ) &&
+               lastKeyInLeafIsAtLeast( rightSibling, key );
+    }
+
+    /**
+     * Reads the last key of the given leaf, without moving the main {@link PageCursor} to it, like {@link #scoutNextSibling()}.
+     * The seek will move to the leaf the ordinary way, by following the sibling pointer of the current leaf.
+     *
+     * @return {@code true} if the leaf was read successfully and its last key isn't lower than the given key, otherwise {@code false}.
+     */
+    private boolean lastKeyInLeafIsAtLeast( long leafPointer, KEY key ) throws IOException
+    {
+        boolean atLeast;
+        try ( PageCursor scout = this.cursor.openLinkedCursor( GenerationSafePointerPair.pointer( leafPointer ) ) )
+        {
+            scout.next();
+            do
+            {
+                atLeast = false;
+                if ( TreeNode.nodeType( scout ) == TreeNode.NODE_TYPE_TREE_NODE && TreeNode.isLeaf( scout ) )
+                {
+                    int leafKeyCount = TreeNode.keyCount( scout );
+                    if ( keyCountIsSane( leafKeyCount ) && leafKeyCount > 0 )
+                    {
+                        bTreeNode.keyAt( scout, mutableKeys[0], leafKeyCount - 1, LEAF, cursorContext );
+                        atLeast = layout.compare( mutableKeys[0], key ) >= 0;
+                    }
+                }
+            }
+            while ( scout.shouldRetry() );
+            checkOutOfBounds( scout );
+            scout.checkAndClearCursorException();
+        }
+        return atLeast;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private void ensureBatchSize( int batchSize )
+    {
+        if ( mutableKeys == null || batchSize > mutableKeys.length )
+        {
+            this.mutableKeys = (KEY[]) new Object[batchSize];
+            this.mutableValues = (VALUE[]) new Object[batchSize];
+            this.mutableKeys[0] = layout.newKey();
+            this.mutableValues[0] = layout.newValue();
+        }
+    }
+
     /**
      * Traverses from the root down to the node on target level (usually leaf) containing the next key that we're looking for,
      * or the first one provided in the constructor if no result have yet been returned.
@@ -569,7 +743,7 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
                     pointerGeneration = generationKeeper.generation;
                 }
             }
-            while ( cursor.shouldRetry() );
+            while ( shouldRetry() );
             checkOutOfBounds( cursor );
             cursor.checkAndClearCursorException();
 
@@ -645,7 +819,7 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
                 //   are made only once per batch instead of once per key/value.
                 // - (FAST) there are keys/values read and validated and ready to simply be returned to the user.
 
-                if ( cachedIndex + 1 < cachedLength && !(concurrentWriteHappened = cursor.shouldRetry()) )
+                if ( cachedIndex + 1 < cachedLength && !(concurrentWriteHappened = shouldRetry()) )
                 {   // FAST, key/value is readily available
                     cachedIndex++;
                     if ( resultOnTrack )
@@ -714,6 +888,16 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
 
     private boolean readAndValidateNextKeyValueBatch() throws IOException
     {
+        // The page cursor validates reads against a version stamp of the page, i.e. of this tree node, which every write to it bumps.
+        // When about to read more from the same node as the previous batch, check that stamp before reading anything.
+        // If the node is unchanged then the header read before is still valid and if it has changed then the search for where
+        // to continue from is done right away, instead of first reading a batch which would have to be read again.
+        boolean nodeUnchanged = false;
+        if ( !concurrentWriteHappened && !forceReadHeader && !verifyExpectedFirstAfterGoToNext )
+        {
+            concurrentWriteHappened = shouldRetry();
+            nodeUnchanged = !concurrentWriteHappened;
+        }
         do
         {
             cachedIndex = 0;
@@ -721,7 +905,7 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
             resultOnTrack = false;
 
             // Where we are
-            if ( concurrentWriteHappened || forceReadHeader || !seekForward )
+            if ( concurrentWriteHappened || forceReadHeader || !(seekForward || nodeUnchanged) )
             {
                 if ( !readHeader() || (isInternal && searchLevel == LEAF_LEVEL) )
                 {
@@ -794,7 +978,7 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
                 }
             }
         }
-        while ( concurrentWriteHappened = cursor.shouldRetry() );
+        while ( concurrentWriteHappened = shouldRetry() );
         checkOutOfBoundsAndClosed();
         cursor.checkAndClearCursorException();
 
@@ -939,6 +1123,7 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
         boolean result = true;
         if ( verifyExpectedFirstAfterGoToNext && layout.compare( firstKeyInNode, expectedFirstAfterGoToNext ) != 0 )
         {
+            monitor.splitRace();
             concurrentWriteHappened = true;
             result = false;
         }
@@ -1011,6 +1196,22 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
         return keyCountIsSane( keyCount );
     }
 
+    /**
+     * Calls {@link PageCursor#shouldRetry()} on the main {@link PageCursor} and tells the {@link #monitor} about retries.
+     *
+     * @return {@code true} if the most recent read has to be retried, otherwise {@code false}.
+     * @throws IOException on {@link PageCursor} error.
+     */
+    private boolean shouldRetry() throws IOException
+    {
+        if ( cursor.shouldRetry() )
+        {
+            monitor.retry();
+            return true;
+        }
+        return false;
+    }
+
     private boolean endedUpOnExpectedNode()
     {
         return nodeType == TreeNode.NODE_TYPE_TREE_NODE && verifyNodeGenerationInvariants();
@@ -1117,7 +1318,7 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
                 }
             }
 
-            if ( this.cursor.shouldRetry() )
+            if ( shouldRetry() )
             {
                 // We scouted next sibling but either next sibling or current node has been changed
                 // since we left shouldRetry loop, this means keys could have been moved passed us
@@ -1195,6 +1396,7 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
      */
     private void prepareToStartFromRoot() throws IOException
     {
+        monitor.rootCatchup();
         generationCatchup();
         Root root = rootCatchup.catchupFrom( cursor.getCurrentPageId() );
         lastFollowedPointerGeneration = root.goTo( cursor );
@@ -1243,6 +1445,7 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
                 // the first read on it. It looks like the node we arrived at have a higher generation
                 // than the pointer generation, this means that this node node have been reused between
                 // following the pointer and reading the node after getting there.
+                monitor.generationCheckFailure();
                 return false;
             }
             lastFollowedPointerGeneration = 0;
@@ -1252,6 +1455,7 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
         {
             // We've read more than once from this node and between reads the node generation has changed.
             // This means the node has been reused.
+            monitor.generationCheckFailure();
             return false;
         }
         return true;
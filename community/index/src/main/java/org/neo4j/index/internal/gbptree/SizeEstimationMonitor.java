@@ -22,7 +22,7 @@ package org.neo4j.index.internal.gbptree;
 import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
 import org.eclipse.collections.impl.factory.primitive.IntObjectMaps;
 
-class SizeEstimationMonitor implements SeekCursor.Monitor
+class SizeEstimationMonitor extends SeekCursor.MonitorAdaptor
 {
     private static final int DEPTH_NOT_DECIDED = -1;
 
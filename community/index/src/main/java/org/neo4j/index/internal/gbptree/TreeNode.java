@@ -361,6 +361,25 @@ abstract class TreeNode<KEY,VALUE>
 
     abstract boolean leafUnderflow( PageCursor cursor, int keyCount );
 
+    /**
+     * Can new key and value be appended to leaf without filling it beyond the given fill factor? Used when bulk loading,
+     * where leaves are filled one after the other and never split. An empty leaf always has room for a new key and value.
+     * @param fillFactor how much of the leaf to fill, 1=completely full.
+     * @return true if new key and value fit in leaf, otherwise false.
+     */
+    abstract boolean leafHasRoomFor( PageCursor cursor, int currentKeyCount, KEY newKey, VALUE newValue, double fillFactor );
+
+    /**
+     * Rewrite leaf in a more compact way, if the format has one, to make room for more keys and values.
+     * Used when bulk loading, where it's done at most once per leaf.
+     * @return true if leaf was rewritten, otherwise false.
+     */
+    boolean compactLeaf( PageCursor cursor, int keyCount )
+    {
+        return false;
+    }
+
+
     /**
      * How do we best rebalance left and right leaf?
      * Can we move keys from underflowing left to right so that none of them underflow?
@@ -102,22 +102,31 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     private static final int LEAST_NUMBER_OF_ENTRIES_PER_PAGE = 2;
     private static final int MINIMUM_ENTRY_SIZE_CAP = Long.SIZE;
 
-    private final DynamicSizeOffsetFormat offsetFormat;
+    final DynamicSizeOffsetFormat offsetFormat;
     private final int inlineKeyValueSizeCap;
     private final int keyValueSizeCap;
-    private final boolean msbIsOffload;
+    final boolean msbIsOffload;
     private final MutableIntStack deadKeysOffset = new IntArrayStack();
     private final MutableIntStack aliveKeysOffset = new IntArrayStack();
     private final int[] oldOffset;
     private final int[] newOffset;
-    private final int totalSpace;
-    private final int halfSpace;
+    final int totalSpace;
+    final int halfSpace;
     private final KEY tmpKeyLeft;
     private final KEY tmpKeyRight;
-    private final OffloadStore<KEY,VALUE> offloadStore;
+    final OffloadStore<KEY,VALUE> offloadStore;
     private final int maxKeyCount;
 
     TreeNodeDynamicSize( int pageSize, Layout<KEY,VALUE> layout, OffloadStore<KEY,VALUE> offloadStore )
+    {
+        this( pageSize, layout, offloadStore, inlineKeyValueSizeCap( pageSize ) );
+    }
+
+    /**
+     * @param inlineKeyValueSizeCap cap for inlined entries, for formats needing to reserve some space in each entry
+     * or page compared to {@link #inlineKeyValueSizeCap(int)}.
+     */
+    TreeNodeDynamicSize( int pageSize, Layout<KEY,VALUE> layout, OffloadStore<KEY,VALUE> offloadStore, int inlineKeyValueSizeCap )
     {
         super( pageSize, layout );
 
@@ -188,8 +197,8 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         inlineKeyValueSizeCap - How large entries can be inlined?
          */
         msbIsOffload = useOffloadStore( pageSize );
-        inlineKeyValueSizeCap = inlineKeyValueSizeCap( pageSize );
-        keyValueSizeCap = keyValueSizeCapFromPageSize( pageSize );
+        this.inlineKeyValueSizeCap = inlineKeyValueSizeCap;
+        keyValueSizeCap = msbIsOffload ? keyValueSizeCapFromPageSize( pageSize ) : Math.min( FIXED_MAX_KEY_VALUE_SIZE_CAP, inlineKeyValueSizeCap );
 
         if ( inlineKeyValueSizeCap < MINIMUM_ENTRY_SIZE_CAP )
         {
@@ -247,6 +256,40 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         setDeadSpace( cursor, 0 );
     }
 
+    /**
+     * @return offset where the data space of the given node ends, i.e. where the first key is written in an empty node.
+     */
+    int dataEnd( PageCursor cursor, Type type )
+    {
+        return pageSize;
+    }
+
+    /**
+     * Reads an inlined leaf key of the given stored size at the current offset of the cursor, leaving the cursor directly after it.
+     */
+    void readLeafKey( PageCursor cursor, KEY into, int storedKeySize )
+    {
+        layout.readKey( cursor, into, storedKeySize );
+    }
+
+    /**
+     * @return number of bytes the given key, of the given {@code keySize}, will occupy when inlined in the leaf the cursor is at.
+     * Prepares for a following {@link #writeLeafKey(PageCursor, Object)} of the same key.
+     */
+    int storedLeafKeySize( PageCursor cursor, KEY key, int keySize )
+    {
+        return keySize;
+    }
+
+    /**
+     * Writes an inlined leaf key at the current offset of the cursor. Must be preceded by {@link #storedLeafKeySize(PageCursor, Object, int)}
+     * for the same key and leaf.
+     */
+    void writeLeafKey( PageCursor cursor, KEY key )
+    {
+        layout.writeKey( cursor, key );
+    }
+
     @Override
     long offloadIdAt( PageCursor cursor, int pos, Type type )
     {
@@ -292,7 +335,14 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
                 readUnreliableKeyValueSize( cursor, keySize, valueSize, keyValueSize, pos );
                 return into;
             }
-            layout.readKey( cursor, into, keySize );
+            if ( type == LEAF )
+            {
+                readLeafKey( cursor, into, keySize );
+            }
+            else
+            {
+                layout.readKey( cursor, into, keySize );
+            }
         }
         return into;
     }
@@ -325,7 +375,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
                 readUnreliableKeyValueSize( cursor, keySize, valueSize, keyValueSize, pos );
                 return;
             }
-            layout.readKey( cursor, intoKey, keySize );
+            readLeafKey( cursor, intoKey, keySize );
             layout.readValue( cursor, intoValue, valueSize );
         }
     }
@@ -380,12 +430,13 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         int newKeyValueOffset;
         if ( canInline( keySize + valueSize ) )
         {
-            newKeyValueOffset = currentKeyValueOffset - keySize - valueSize - getOverhead( keySize, valueSize, false );
+            int storedKeySize = storedLeafKeySize( cursor, key, keySize );
+            newKeyValueOffset = currentKeyValueOffset - storedKeySize - valueSize - getOverhead( storedKeySize, valueSize, false );
 
             // Write key and value
             cursor.setOffset( newKeyValueOffset );
-            putKeyValueSize( cursor, keySize, valueSize, false );
-            layout.writeKey( cursor, key );
+            putKeyValueSize( cursor, storedKeySize, valueSize, false );
+            writeLeafKey( cursor, key );
             layout.writeValue( cursor, value );
         }
         else
@@ -660,15 +711,27 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         int allocSpace = getAllocSpace( cursor, currentKeyCount, LEAF );
 
         // How much space do we need?
-        int neededSpace = totalSpaceOfKeyValue( newKey, newValue );
+        int neededSpace = totalSpaceOfKeyValue( cursor, newKey, newValue );
 
         // There is your answer!
         return neededSpace <= allocSpace ? Overflow.NO :
                neededSpace <= allocSpace + deadSpace ? Overflow.NO_NEED_DEFRAG : Overflow.YES;
     }
 
+    @Override
+    boolean leafHasRoomFor( PageCursor cursor, int currentKeyCount, KEY newKey, VALUE newValue, double fillFactor )
+    {
+        if ( leafOverflow( cursor, currentKeyCount, newKey, newValue ) != Overflow.NO )
+        {
+            return false;
+        }
+        int neededSpace = totalSpaceOfKeyValue( cursor, newKey, newValue );
+        return currentKeyCount == 0 || totalActiveSpace( cursor, currentKeyCount, LEAF ) + neededSpace <= totalSpace * fillFactor;
+    }
+
     @Override
     void defragmentLeaf( PageCursor cursor )
+
     {
         doDefragment( cursor, LEAF );
     }
@@ -733,7 +796,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         int oldOffsetCursor = 0;
         int newOffsetCursor = 0;
 
-        int aliveRangeOffset = pageSize; // Everything after this point is alive
+        int aliveRangeOffset = dataEnd( cursor, type ); // Everything after this point is alive
         int deadRangeOffset; // Everything between this point and aliveRangeOffset is dead space
 
         // Rightmost alive keys does not need to move
@@ -1145,7 +1208,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return newRightAllocSpace;
     }
 
-    private int getAllocSpace( PageCursor cursor, int keyCount, Type type )
+    int getAllocSpace( PageCursor cursor, int keyCount, Type type )
     {
         int allocOffset = getAllocOffset( cursor );
         int endOfOffsetArray = type == LEAF ? keyPosOffsetLeaf( keyCount ) : keyPosOffsetInternal( keyCount );
@@ -1155,7 +1218,8 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     private void recordDeadAndAliveLeaf( PageCursor cursor, MutableIntStack deadKeysOffset, MutableIntStack aliveKeysOffset )
     {
         int currentOffset = getAllocOffset( cursor );
-        while ( currentOffset < pageSize )
+        int dataEnd = dataEnd( cursor, LEAF );
+        while ( currentOffset < dataEnd )
         {
             cursor.setOffset( currentOffset );
             long keyValueSize = readKeyValueSize( cursor, msbIsOffload );
@@ -1348,7 +1412,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         int accumulatedLeftSpace = 0;
         int currentDelta = targetLeftSpace;
         int prevDelta;
-        int spaceOfNewKey = totalSpaceOfKeyValue( newKey, newValue );
+        int spaceOfNewKey = totalSpaceOfKeyValue( cursor, newKey, newValue );
         int totalSpaceIncludingNewKey = totalActiveSpace( cursor, keyCountAfterInsert - 1, LEAF ) + spaceOfNewKey;
         boolean includedNew = false;
         boolean prevPosPossible;
@@ -1393,21 +1457,22 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return splitPos;
     }
 
-    private int totalActiveSpace( PageCursor cursor, int keyCount, Type type )
+    int totalActiveSpace( PageCursor cursor, int keyCount, Type type )
     {
         int deadSpace = getDeadSpace( cursor );
         int allocSpace = getAllocSpace( cursor, keyCount, type );
         return totalSpace - deadSpace - allocSpace;
     }
 
-    private int totalSpaceOfKeyValue( KEY key, VALUE value )
+    private int totalSpaceOfKeyValue( PageCursor cursor, KEY key, VALUE value )
     {
         int keySize = layout.keySize( key );
         int valueSize = layout.valueSize( value );
         boolean canInline = canInline( keySize + valueSize );
         if ( canInline )
         {
-            return bytesKeyOffset() + getOverhead( keySize, valueSize, false ) + keySize + valueSize;
+            int storedKeySize = storedLeafKeySize( cursor, key, keySize );
+            return bytesKeyOffset() + getOverhead( storedKeySize, valueSize, false ) + storedKeySize + valueSize;
         }
         else
         {
@@ -1471,7 +1536,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return offsetFormat.getOffset( cursor, offsetFormat.getBytePosDeadSpace() );
     }
 
-    private void placeCursorAtActualKey( PageCursor cursor, int pos, Type type )
+    void placeCursorAtActualKey( PageCursor cursor, int pos, Type type )
     {
         // Set cursor to correct place in offset array
         int keyPosOffset = keyPosOffset( pos, type );
@@ -1515,7 +1580,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         }
     }
 
-    private int keyPosOffsetLeaf( int pos )
+    int keyPosOffsetLeaf( int pos )
     {
         return offsetFormat.getHeaderLength() + pos * bytesKeyOffset();
     }
@@ -1536,7 +1601,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return SIZE_PAGE_REFERENCE;
     }
 
-    private int bytesKeyOffset()
+    int bytesKeyOffset()
     {
         return offsetFormat.offsetSize();
     }
@@ -1576,8 +1641,9 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         KEY readKey = layout.newKey();
         VALUE readValue = layout.newValue();
         StringJoiner keys = new StringJoiner( " " );
+        int dataEnd = dataEnd( cursor, type );
         cursor.setOffset( allocOffset );
-        while ( cursor.getOffset() < cursor.getCurrentPageSize() )
+        while ( cursor.getOffset() < dataEnd )
         {
             StringJoiner singleKey = new StringJoiner( "|" );
             singleKey.add( Integer.toString( cursor.getOffset() ) );
@@ -1612,11 +1678,15 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
             }
             else
             {
-                layout.readKey( cursor, readKey, keySize );
                 if ( type == LEAF )
                 {
+                    readLeafKey( cursor, readKey, keySize );
                     layout.readValue( cursor, readValue, valueSize );
                 }
+                else
+                {
+                    layout.readKey( cursor, readKey, keySize );
+                }
                 singleKey.add( Integer.toString( keySize ) );
                 if ( type == LEAF && includeValue )
                 {
@@ -1691,7 +1761,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
             }
         }
 
-        if ( allocOffset < pageSize && allocOffset >= 0 )
+        if ( allocOffset < dataEnd( cursor, type ) && allocOffset >= 0 )
         {
             // Verify allocOffset point at start of key
             cursor.setOffset( allocOffset );
@@ -1713,7 +1783,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
 
     private int lowestActiveKeyOffset( PageCursor cursor, int keyCount, Type type )
     {
-        int lowestOffsetSoFar = pageSize;
+        int lowestOffsetSoFar = dataEnd( cursor, type );
         for ( int pos = 0; pos < keyCount; pos++ )
         {
             // Set cursor to correct place in offset array
@@ -1738,7 +1808,8 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         // Alive keys
         int aliveKeySize = 0;
         int nextKeyOffset = getAllocOffset( cursor );
-        while ( nextKeyOffset < pageSize )
+        int dataEnd = dataEnd( cursor, type );
+        while ( nextKeyOffset < dataEnd )
         {
             cursor.setOffset( nextKeyOffset );
             long keyValueSize = readKeyValueSize( cursor, msbIsOffload );
@@ -1752,7 +1823,8 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
             }
             nextKeyOffset = cursor.getOffset() + (offload ? DynamicSizeUtil.SIZE_OFFLOAD_ID : keySize + valueSize);
         }
-        return offsetArraySize + aliveKeySize;
+        // Anything after the data, e.g. a compression prefix, counts as active
+        return offsetArraySize + aliveKeySize + pageSize - dataEnd;
     }
 
     private String readAllocSpace( PageCursor cursor, int allocOffset, Type type )
@@ -1795,7 +1867,8 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return offsetArray.toString();
     }
 
-    private boolean canInline( int entrySize )
+    boolean canInline( int entrySize )
+
     {
         return entrySize <= inlineKeyValueSizeCap;
     }
@@ -0,0 +1,621 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.CursorException;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.context.CursorContext;
+
+import static java.lang.String.format;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.extractKeySize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.extractOffload;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.extractValueSize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.getOverhead;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.putKeyValueSize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.readKeyValueSize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.readOffloadId;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.LEAF;
+
+/**
+ * {@link TreeNodeDynamicSize} where keys in leaves are prefix compressed. Internal nodes are identical to {@link TreeNodeDynamicSize},
+ * their keys are already kept short by {@link Layout#minimalSplitter(Object, Object, Object)}.
+ * <p>
+ * Each leaf keeps a prefix, at most {@value #MAX_PREFIX_LENGTH} bytes, at the end of the page, followed by the length of that prefix.
+ * An inlined key is stored as the first {@link Layout#keyPrefixCompressionOffset()} bytes of the written key as-is, followed by the number
+ * of bytes shared with the prefix of the leaf and then the rest of the written key. Offloaded entries are stored as in {@link TreeNodeDynamicSize}.
+ * The stored key size is what's written as key size in the entry, so everything not looking at the key bytes themselves works as for
+ * {@link TreeNodeDynamicSize}.
+ *
+ * LEAF
+ * [HEADER]|[KEY_OFFSETS]##########[KEYS_VALUES][PREFIX][PREFIX_LENGTH]
+ * <p>
+ * The prefix of a leaf is chosen as the longest prefix common to all its inlined keys whenever the leaf is rewritten as part of
+ * split, merge or rebalance. Keys inserted in between are stored with as much of the prefix they happen to share, meaning that
+ * the prefix never needs to change on insert. A leaf written with such a prefix never needs more space than its keys would with
+ * an empty prefix, plus one byte for each entry and one for the page, which is what the lower inline cap of this format reserves for.
+ */
+class TreeNodeDynamicSizeCompressed<KEY, VALUE> extends TreeNodeDynamicSize<KEY,VALUE>
+{
+    static final byte FORMAT_VERSION = 1;
+
+    static final int MAX_PREFIX_LENGTH = 0xFF;
+    private static final int SIZE_PREFIX_LENGTH = Byte.BYTES;
+    private static final int SIZE_SHARED_LENGTH = Byte.BYTES;
+
+    /**
+     * Buffer for encoding and decoding keys. Readers and concurrent writers share tree node instance, so it's per thread.
+     */
+    private static final ThreadLocal<KeyBuffer> KEY_BUFFER = ThreadLocal.withInitial( KeyBuffer::new );
+
+    private final int keyPrefixOffset;
+    private final KEY tmpKeyLeft;
+    private final KEY tmpKeyRight;
+
+    // Entries of leaves being rewritten as part of structural changes, which are only done by the exclusive writer
+    private byte[] entryData;
+    private PageCursor entryCursor;
+    private int entryDataSize;
+    private int entryCount;
+    private int[] entryKeyOffset = new int[0];
+    private int[] entryKeySize = new int[0];
+    private int[] entryValueSize = new int[0];
+    private long[] entryOffloadId = new long[0];
+    private int[] leftBound = new int[0];
+    private int[] rightBound = new int[0];
+
+    TreeNodeDynamicSizeCompressed( int pageSize, Layout<KEY,VALUE> layout, OffloadStore<KEY,VALUE> offloadStore )
+    {
+        super( pageSize, layout, offloadStore, inlineKeyValueSizeCap( pageSize ) - SIZE_SHARED_LENGTH - SIZE_PREFIX_LENGTH );
+        this.keyPrefixOffset = Math.max( 0, layout.keyPrefixCompressionOffset() );
+        this.tmpKeyLeft = layout.newKey();
+        this.tmpKeyRight = layout.newKey();
+        this.entryData = new byte[pageSize];
+        this.entryCursor = new ByteArrayPageCursor( ByteBuffer.wrap( entryData ) );
+    }
+
+    @Override
+    void writeAdditionalHeader( PageCursor cursor )
+    {
+        if ( isLeaf( cursor ) )
+        {
+            cursor.putByte( pageSize - SIZE_PREFIX_LENGTH, (byte) 0 );
+            setAllocOffset( cursor, pageSize - SIZE_PREFIX_LENGTH );
+            setDeadSpace( cursor, 0 );
+        }
+        else
+        {
+            super.writeAdditionalHeader( cursor );
+        }
+    }
+
+    @Override
+    int dataEnd( PageCursor cursor, Type type )
+    {
+        return type == LEAF ? prefixOffset( cursor ) : pageSize;
+    }
+
+    @Override
+    void readLeafKey( PageCursor cursor, KEY into, int storedKeySize )
+    {
+        int headLength = Math.min( keyPrefixOffset, storedKeySize - SIZE_SHARED_LENGTH );
+        if ( headLength < 0 )
+        {
+            cursor.setCursorException( format( "Read unreliable prefix compressed key size %d", storedKeySize ) );
+            return;
+        }
+        int suffixLength = storedKeySize - headLength - SIZE_SHARED_LENGTH;
+        KeyBuffer buffer = KEY_BUFFER.get();
+        buffer.ensureCapacity( storedKeySize + MAX_PREFIX_LENGTH );
+
+        cursor.getBytes( buffer.bytes, 0, headLength );
+        int sharedLength = cursor.getByte() & 0xFF;
+        int prefixLength = prefixLength( cursor );
+        if ( sharedLength > prefixLength )
+        {
+            cursor.setCursorException( format( "Read unreliable prefix compressed key sharing %d bytes of prefix of length %d", sharedLength,
+                    prefixLength ) );
+            return;
+        }
+        int suffixOffset = cursor.getOffset();
+        cursor.setOffset( pageSize - SIZE_PREFIX_LENGTH - prefixLength );
+        cursor.getBytes( buffer.bytes, headLength, sharedLength );
+        cursor.setOffset( suffixOffset );
+        cursor.getBytes( buffer.bytes, headLength + sharedLength, suffixLength );
+
+        PageCursor keyCursor = buffer.cursor;
+        keyCursor.setOffset( 0 );
+        try
+        {
+            layout.readKey( keyCursor, into, headLength + sharedLength + suffixLength );
+            keyCursor.checkAndClearCursorException();
+        }
+        catch ( CursorException e )
+        {
+            cursor.setCursorException( e.getMessage() );
+        }
+        catch ( BufferUnderflowException | IndexOutOfBoundsException e )
+        {
+            // Inconsistent read of a page that was concurrently changed, let the reader retry
+            cursor.setCursorException( "Read unreliable prefix compressed key: " + e );
+        }
+    }
+
+    @Override
+    int storedLeafKeySize( PageCursor cursor, KEY key, int keySize )
+    {
+        KeyBuffer buffer = KEY_BUFFER.get();
+        buffer.ensureCapacity( keySize );
+        buffer.cursor.setOffset( 0 );
+        layout.writeKey( buffer.cursor, key );
+
+        int headLength = Math.min( keyPrefixOffset, keySize );
+        int prefixLength = prefixLength( cursor );
+        int prefixOffset = pageSize - SIZE_PREFIX_LENGTH - prefixLength;
+        int maxSharedLength = Math.min( prefixLength, keySize - headLength );
+        int sharedLength = 0;
+        while ( sharedLength < maxSharedLength && buffer.bytes[headLength + sharedLength] == cursor.getByte( prefixOffset + sharedLength ) )
+        {
+            sharedLength++;
+        }
+        buffer.keySize = keySize;
+        buffer.headLength = headLength;
+        buffer.sharedLength = sharedLength;
+        return keySize - sharedLength + SIZE_SHARED_LENGTH;
+    }
+
+    @Override
+    void writeLeafKey( PageCursor cursor, KEY key )
+    {
+        KeyBuffer buffer = KEY_BUFFER.get();
+        int suffixOffset = buffer.headLength + buffer.sharedLength;
+        cursor.putBytes( buffer.bytes, 0, buffer.headLength );
+        cursor.putByte( (byte) buffer.sharedLength );
+        cursor.putBytes( buffer.bytes, suffixOffset, buffer.keySize - suffixOffset );
+    }
+
+    @Override
+    int canRebalanceLeaves( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
+    {
+        clearEntries();
+        readEntries( leftCursor, 0, leftKeyCount );
+        readEntries( rightCursor, 0, rightKeyCount );
+        if ( spaceOf( 0, entryCount ) <= totalSpace )
+        {
+            // We can merge
+            return -1;
+        }
+        if ( totalActiveSpace( leftCursor, leftKeyCount, LEAF ) < totalActiveSpace( rightCursor, rightKeyCount, LEAF ) )
+        {
+            // Moving keys to the right will only create more imbalance
+            return 0;
+        }
+
+        int splitPos = splitPos( 1, leftKeyCount - 1, 0.5 );
+        if ( splitPos == -1 )
+        {
+            return 0;
+        }
+        boolean canRebalance = spaceOf( 0, splitPos ) > halfSpace && spaceOf( splitPos, entryCount ) > halfSpace;
+        return canRebalance ? leftKeyCount - splitPos : 0;
+    }
+
+    @Override
+    boolean canMergeLeaves( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
+    {
+        clearEntries();
+        readEntries( leftCursor, 0, leftKeyCount );
+        readEntries( rightCursor, 0, rightKeyCount );
+        return spaceOf( 0, entryCount ) <= totalSpace;
+    }
+
+    @Override
+    boolean compactLeaf( PageCursor cursor, int keyCount )
+    {
+        clearEntries();
+        readEntries( cursor, 0, keyCount );
+        if ( (int) prefixOf( 0, entryCount ) <= prefixLength( cursor ) )
+        {
+            // Keys appended since the leaf was last written share no more than they did then
+            return false;
+        }
+        writeEntries( cursor, 0, entryCount );
+        return true;
+    }
+
+    @Override
+    void doSplitLeaf( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int insertPos, KEY newKey,
+            VALUE newValue, KEY newSplitter, double ratioToKeepInLeftOnSplit, long stableGeneration, long unstableGeneration,
+            CursorContext cursorContext ) throws IOException
+    {
+        clearEntries();
+        readEntries( leftCursor, 0, insertPos );
+        addEntry( newKey, newValue, stableGeneration, unstableGeneration, cursorContext );
+        readEntries( leftCursor, insertPos, leftKeyCount );
+
+        int splitPos = splitPos( 1, entryCount - 1, ratioToKeepInLeftOnSplit );
+        if ( splitPos == -1 )
+        {
+            throw new IllegalStateException( format( "There's not enough space to insert new key, even when splitting the leaf. Space needed:%d, " +
+                    "max space allowed:%d", spaceOf( 0, entryCount ), totalSpace * 2 ) );
+        }
+        KEY leftInSplit = entryKey( splitPos - 1, tmpKeyLeft, cursorContext );
+        KEY rightInSplit = entryKey( splitPos, tmpKeyRight, cursorContext );
+        layout.minimalSplitter( leftInSplit, rightInSplit, newSplitter );
+
+        writeEntries( leftCursor, 0, splitPos );
+        writeEntries( rightCursor, splitPos, entryCount );
+    }
+
+    @Override
+    void moveKeyValuesFromLeftToRight( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount,
+            int fromPosInLeftNode )
+    {
+        clearEntries();
+        readEntries( leftCursor, 0, leftKeyCount );
+        readEntries( rightCursor, 0, rightKeyCount );
+        writeEntries( leftCursor, 0, fromPosInLeftNode );
+        writeEntries( rightCursor, fromPosInLeftNode, entryCount );
+    }
+
+    @Override
+    void copyKeyValuesFromLeftToRight( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
+    {
+        clearEntries();
+        readEntries( leftCursor, 0, leftKeyCount );
+        readEntries( rightCursor, 0, rightKeyCount );
+        writeEntries( rightCursor, 0, entryCount );
+    }
+
+    private int prefixLength( PageCursor cursor )
+    {
+        return cursor.getByte( pageSize - SIZE_PREFIX_LENGTH ) & 0xFF;
+    }
+
+    private int prefixOffset( PageCursor cursor )
+    {
+        return pageSize - SIZE_PREFIX_LENGTH - prefixLength( cursor );
+    }
+
+    private void clearEntries()
+    {
+        entryCount = 0;
+        entryDataSize = 0;
+    }
+
+    private int newEntry( int dataSize )
+    {
+        if ( entryCount == entryKeySize.length )
+        {
+            int capacity = Math.max( 16, entryCount * 2 );
+            entryKeyOffset = Arrays.copyOf( entryKeyOffset, capacity );
+            entryKeySize = Arrays.copyOf( entryKeySize, capacity );
+            entryValueSize = Arrays.copyOf( entryValueSize, capacity );
+            entryOffloadId = Arrays.copyOf( entryOffloadId, capacity );
+        }
+        if ( entryDataSize + dataSize > entryData.length )
+        {
+            entryData = Arrays.copyOf( entryData, Math.max( entryDataSize + dataSize, entryData.length * 2 ) );
+            entryCursor = new ByteArrayPageCursor( ByteBuffer.wrap( entryData ) );
+        }
+        int entry = entryCount++;
+        entryKeyOffset[entry] = entryDataSize;
+        entryKeySize[entry] = 0;
+        entryValueSize[entry] = 0;
+        entryOffloadId[entry] = NO_OFFLOAD_ID;
+        return entry;
+    }
+
+    /**
+     * Reads the entries at the given positions in the leaf, with their keys decompressed, into the entries of this node.
+     */
+    private void readEntries( PageCursor cursor, int fromPos, int toPos )
+    {
+        int prefixLength = prefixLength( cursor );
+        int prefixOffset = pageSize - SIZE_PREFIX_LENGTH - prefixLength;
+        for ( int pos = fromPos; pos < toPos; pos++ )
+        {
+            placeCursorAtActualKey( cursor, pos, LEAF );
+            long keyValueSize = readKeyValueSize( cursor, msbIsOffload );
+            if ( extractOffload( keyValueSize ) )
+            {
+                int entry = newEntry( 0 );
+                entryOffloadId[entry] = readOffloadId( cursor );
+                continue;
+            }
+
+            int storedKeySize = extractKeySize( keyValueSize );
+            int valueSize = extractValueSize( keyValueSize );
+            int headLength = Math.min( keyPrefixOffset, storedKeySize - SIZE_SHARED_LENGTH );
+            int suffixLength = storedKeySize - headLength - SIZE_SHARED_LENGTH;
+            int entry = newEntry( storedKeySize + prefixLength + valueSize );
+            int offset = entryKeyOffset[entry];
+            cursor.getBytes( entryData, offset, headLength );
+            int sharedLength = cursor.getByte() & 0xFF;
+            int suffixOffset = cursor.getOffset();
+            cursor.setOffset( prefixOffset );
+            cursor.getBytes( entryData, offset + headLength, sharedLength );
+            cursor.setOffset( suffixOffset );
+            // Value follows directly after key
+            cursor.getBytes( entryData, offset + headLength + sharedLength, suffixLength + valueSize );
+
+            entryKeySize[entry] = headLength + sharedLength + suffixLength;
+            entryValueSize[entry] = valueSize;
+            entryDataSize += entryKeySize[entry] + valueSize;
+        }
+    }
+
+    private void addEntry( KEY key, VALUE value, long stableGeneration, long unstableGeneration, CursorContext cursorContext ) throws IOException
+    {
+        int keySize = layout.keySize( key );
+        int valueSize = layout.valueSize( value );
+        if ( canInline( keySize + valueSize ) )
+        {
+            int entry = newEntry( keySize + valueSize );
+            entryCursor.setOffset( entryKeyOffset[entry] );
+            layout.writeKey( entryCursor, key );
+            layout.writeValue( entryCursor, value );
+            entryKeySize[entry] = keySize;
+            entryValueSize[entry] = valueSize;
+            entryDataSize += keySize + valueSize;
+        }
+        else
+        {
+            int entry = newEntry( 0 );
+            entryOffloadId[entry] = offloadStore.writeKeyValue( key, value, stableGeneration, unstableGeneration, cursorContext );
+        }
+    }
+
+    private KEY entryKey( int entry, KEY into, CursorContext cursorContext ) throws IOException
+    {
+        if ( entryOffloadId[entry] != NO_OFFLOAD_ID )
+        {
+            offloadStore.readKey( entryOffloadId[entry], into, cursorContext );
+        }
+        else
+        {
+            entryCursor.setOffset( entryKeyOffset[entry] );
+            layout.readKey( entryCursor, into, entryKeySize[entry] );
+        }
+        return into;
+    }
+
+    private boolean isInline( int entry )
+    {
+        return entryOffloadId[entry] == NO_OFFLOAD_ID;
+    }
+
+    private int headLength( int entry )
+    {
+        return Math.min( keyPrefixOffset, entryKeySize[entry] );
+    }
+
+    private int tailLength( int entry )
+    {
+        return entryKeySize[entry] - headLength( entry );
+    }
+
+    /**
+     * @return length of common prefix, up to {@code maxLength}, of the parts after the head of the keys of the given inlined entries.
+     */
+    private int commonPrefixLength( int entry, int otherEntry, int maxLength )
+    {
+        int offset = entryKeyOffset[entry] + headLength( entry );
+        int otherOffset = entryKeyOffset[otherEntry] + headLength( otherEntry );
+        int length = Math.min( maxLength, tailLength( otherEntry ) );
+        int common = 0;
+        while ( common < length && entryData[offset + common] == entryData[otherOffset + common] )
+        {
+            common++;
+        }
+        return common;
+    }
+
+    /**
+     * @return the prefix to use for a leaf with the given entries, as an entry and a length.
+     */
+    private long prefixOf( int fromEntry, int toEntry )
+    {
+        int prefixEntry = -1;
+        int prefixLength = 0;
+        for ( int entry = fromEntry; entry < toEntry; entry++ )
+        {
+            if ( isInline( entry ) )
+            {
+                if ( prefixEntry == -1 )
+                {
+                    prefixEntry = entry;
+                    prefixLength = Math.min( MAX_PREFIX_LENGTH, tailLength( entry ) );
+                }
+                else
+                {
+                    prefixLength = commonPrefixLength( prefixEntry, entry, prefixLength );
+                }
+            }
+        }
+        return (long) prefixEntry << Integer.SIZE | prefixLength;
+    }
+
+    private int entrySpace( int entry, int sharedLength )
+    {
+        if ( !isInline( entry ) )
+        {
+            return bytesKeyOffset() + getOverhead( 0, 0, true );
+        }
+        int storedKeySize = entryKeySize[entry] - sharedLength + SIZE_SHARED_LENGTH;
+        int valueSize = entryValueSize[entry];
+        return bytesKeyOffset() + getOverhead( storedKeySize, valueSize, false ) + storedKeySize + valueSize;
+    }
+
+    /**
+     * @return active space of a leaf written with the given entries.
+     */
+    private int spaceOf( int fromEntry, int toEntry )
+    {
+        int prefixLength = (int) prefixOf( fromEntry, toEntry );
+        int space = SIZE_PREFIX_LENGTH + prefixLength;
+        for ( int entry = fromEntry; entry < toEntry; entry++ )
+        {
+            space += entrySpace( entry, prefixLength );
+        }
+        return space;
+    }
+
+    /**
+     * Finds where to divide the entries into two leaves. Space of each side is estimated from above by assuming that every
+     * entry shares all of the common prefix, but that the overhead of each entry is that of its uncompressed key.
+     *
+     * @return the number of entries to keep in the left leaf, between {@code minPos} and {@code maxPos}, that comes closest to
+     * {@code ratioToKeepInLeft} of a full leaf while both leaves fit, or -1 if there is no such position.
+     */
+    private int splitPos( int minPos, int maxPos, double ratioToKeepInLeft )
+    {
+        if ( leftBound.length < entryCount + 1 )
+        {
+            leftBound = new int[entryCount + 1];
+            rightBound = new int[entryCount + 1];
+        }
+        boundsOfSides( leftBound, 0, entryCount, 1 );
+        boundsOfSides( rightBound, entryCount - 1, -1, -1 );
+
+        int targetLeftSpace = (int) (totalSpace * ratioToKeepInLeft);
+        int splitPos = -1;
+        int bestDelta = Integer.MAX_VALUE;
+        for ( int pos = minPos; pos <= maxPos; pos++ )
+        {
+            // leftBound[pos] covers entries [0,pos), rightBound[pos] covers entries [pos,entryCount)
+            if ( leftBound[pos] <= totalSpace && rightBound[pos] <= totalSpace )
+            {
+                int delta = Math.abs( leftBound[pos] - targetLeftSpace );
+                if ( delta < bestDelta )
+                {
+                    bestDelta = delta;
+                    splitPos = pos;
+                }
+            }
+        }
+        return splitPos;
+    }
+
+    private void boundsOfSides( int[] bounds, int fromEntry, int toEntry, int step )
+    {
+        int prefixEntry = -1;
+        int prefixLength = 0;
+        int inlineCount = 0;
+        int uncompressedSpace = 0;
+        for ( int entry = fromEntry; entry != toEntry; entry += step )
+        {
+            if ( isInline( entry ) )
+            {
+                inlineCount++;
+                if ( prefixEntry == -1 )
+                {
+                    prefixEntry = entry;
+                    prefixLength = Math.min( MAX_PREFIX_LENGTH, tailLength( entry ) );
+                }
+                else
+                {
+                    prefixLength = commonPrefixLength( prefixEntry, entry, prefixLength );
+                }
+            }
+            uncompressedSpace += entrySpace( entry, 0 );
+            int bound = SIZE_PREFIX_LENGTH + prefixLength + uncompressedSpace - inlineCount * prefixLength;
+            bounds[step > 0 ? entry + 1 : entry] = bound;
+        }
+    }
+
+    /**
+     * Rewrites the leaf with the given entries, compressed with their common prefix.
+     */
+    private void writeEntries( PageCursor cursor, int fromEntry, int toEntry )
+    {
+        long prefix = prefixOf( fromEntry, toEntry );
+        int prefixEntry = (int) (prefix >>> Integer.SIZE);
+        int prefixLength = (int) prefix;
+        int allocOffset = pageSize - SIZE_PREFIX_LENGTH - prefixLength;
+        cursor.putByte( pageSize - SIZE_PREFIX_LENGTH, (byte) prefixLength );
+        if ( prefixLength > 0 )
+        {
+            cursor.setOffset( allocOffset );
+            cursor.putBytes( entryData, entryKeyOffset[prefixEntry] + headLength( prefixEntry ), prefixLength );
+        }
+
+        for ( int entry = fromEntry; entry < toEntry; entry++ )
+        {
+            allocOffset -= entrySpace( entry, prefixLength ) - bytesKeyOffset();
+            cursor.setOffset( allocOffset );
+            if ( isInline( entry ) )
+            {
+                int keyOffset = entryKeyOffset[entry];
+                int headLength = headLength( entry );
+                int suffixOffset = keyOffset + headLength + prefixLength;
+                int valueSize = entryValueSize[entry];
+                putKeyValueSize( cursor, entryKeySize[entry] - prefixLength + SIZE_SHARED_LENGTH, valueSize, false );
+                cursor.putBytes( entryData, keyOffset, headLength );
+                cursor.putByte( (byte) prefixLength );
+                // Value follows directly after key
+                cursor.putBytes( entryData, suffixOffset, keyOffset + entryKeySize[entry] + valueSize - suffixOffset );
+            }
+            else
+            {
+                putKeyValueSize( cursor, 0, 0, true );
+                DynamicSizeUtil.putOffloadId( cursor, entryOffloadId[entry] );
+            }
+            cursor.setOffset( keyPosOffsetLeaf( entry - fromEntry ) );
+            offsetFormat.putOffset( cursor, allocOffset );
+        }
+
+        int keyCount = toEntry - fromEntry;
+        setAllocOffset( cursor, allocOffset );
+
+        setDeadSpace( cursor, 0 );
+        setKeyCount( cursor, keyCount );
+    }
+
+    @Override
+    public String toString()
+    {
+        return "TreeNodeDynamicSizeCompressed[pageSize:" + pageSize + ", keyValueSizeCap:" + keyValueSizeCap() + ", inlineKeyValueSizeCap:" +
+                inlineKeyValueSizeCap() + ", keyPrefixOffset:" + keyPrefixOffset + "]";
+    }
+
+    private static class KeyBuffer
+    {
+        private byte[] bytes = new byte[256];
+        private PageCursor cursor = new ByteArrayPageCursor( ByteBuffer.wrap( bytes ) );
+        private int keySize;
+        private int headLength;
+        private int sharedLength;
+
+        void ensureCapacity( int capacity )
+        {
+            if ( bytes.length < capacity )
+            {
+                bytes = new byte[Math.max( capacity, bytes.length * 2 )];
+                cursor = new ByteArrayPageCursor( ByteBuffer.wrap( bytes ) );
+            }
+        }
+    }
+}
@@ -337,8 +337,15 @@ class TreeNodeFixedSize<KEY,VALUE> extends TreeNode<KEY,VALUE>
         return currentKeyCount + 1 > leafMaxKeyCount() ? Overflow.YES : Overflow.NO;
     }
 
+    @Override
+    boolean leafHasRoomFor( PageCursor cursor, int currentKeyCount, KEY newKey, VALUE newValue, double fillFactor )
+    {
+        return currentKeyCount == 0 || currentKeyCount + 1 <= leafMaxKeyCount() * fillFactor;
+    }
+
     @Override
     void defragmentLeaf( PageCursor cursor )
+
     {   // no-op
     }
 
@@ -75,6 +75,35 @@ class TreeNodeSelector
         }
     };
 
+    /**
+     * Creates {@link TreeNodeDynamicSizeCompressed} instances.
+     */
+    private static final Factory DYNAMIC_COMPRESSED = new Factory()
+    {
+        @Override
+        public <KEY,VALUE> TreeNode<KEY,VALUE> create( int pageSize, Layout<KEY,VALUE> layout, OffloadStore<KEY,VALUE> offloadStore )
+        {
+            return new TreeNodeDynamicSizeCompressed<>( pageSize, layout, offloadStore );
+        }
+
+        @Override
+        public byte formatIdentifier()
+        {
+            return TreeNodeDynamicSize.FORMAT_IDENTIFIER;
+        }
+
+        @Override
+        public byte formatVersion()
+        {
+            return TreeNodeDynamicSizeCompressed.FORMAT_VERSION;
+        }
+    };
+
+    /**
+     * All formats which can be selected by format identifier and version.
+     */
+    private static final Factory[] FORMATS = {FIXED, DYNAMIC, DYNAMIC_COMPRESSED};
+
     /**
      * Selects a format based on the given {@link Layout}.
      *
@@ -83,8 +112,12 @@ class TreeNodeSelector
      */
     static Factory selectByLayout( Layout<?,?> layout )
     {
-        // For now the selection is done in a simple fashion, by looking at layout.fixedSize().
-        return layout.fixedSize() ? FIXED : DYNAMIC;
+        // For now the selection is done in a simple fashion, by looking at layout.fixedSize() and whether or not keys are to be compressed.
+        if ( layout.fixedSize() )
+        {
+            return FIXED;
+        }
+        return layout.createWithKeyPrefixCompression() ? DYNAMIC_COMPRESSED : DYNAMIC;
     }
 
     /**
@@ -96,18 +129,35 @@ class TreeNodeSelector
      */
     static Factory selectByFormat( byte formatIdentifier, byte formatVersion )
     {
-        // For now do a simple selection of the two formats we know. Moving forward this can contain
-        // many more identifiers and different versions of each.
-        if ( formatIdentifier == TreeNodeFixedSize.FORMAT_IDENTIFIER && formatVersion == TreeNodeFixedSize.FORMAT_VERSION )
+        Factory factory = findByFormat( formatIdentifier, formatVersion );
+        if ( factory == null )
         {
-            return FIXED;
+            throw new IllegalArgumentException(
+                    format( "Unknown format identifier:%d and version:%d combination", formatIdentifier, formatVersion ) );
         }
-        else if ( formatIdentifier == TreeNodeDynamicSize.FORMAT_IDENTIFIER && formatVersion == TreeNodeDynamicSize.FORMAT_VERSION )
+        return factory;
+    }
+
+    /**
+     * @param formatIdentifier format identifier, see {@link Meta#getFormatIdentifier()}
+     * @param formatVersion format version, see {@link Meta#getFormatVersion()}.
+     * @return whether or not there is a {@link Factory} for the given format specification.
+     */
+    static boolean isKnownFormat( byte formatIdentifier, byte formatVersion )
+    {
+        return findByFormat( formatIdentifier, formatVersion ) != null;
+    }
+
+    private static Factory findByFormat( byte formatIdentifier, byte formatVersion )
+    {
+        for ( Factory factory : FORMATS )
         {
-            return DYNAMIC;
+            if ( factory.formatIdentifier() == formatIdentifier && factory.formatVersion() == formatVersion )
+            {
+                return factory;
+            }
         }
-        throw new IllegalArgumentException(
-                format( "Unknown format identifier:%d and version:%d combination", formatIdentifier, formatVersion ) );
+        return null;
     }
 
     /**
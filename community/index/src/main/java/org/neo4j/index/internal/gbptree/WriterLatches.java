@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.neo4j.io.pagecache.context.CursorContext;
+
+/**
+ * Latches coordinating concurrent writers of a {@link GBPTree}, see {@link GBPTree#concurrentWriter(CursorContext)}.
+ * <p>
+ * A change which stays within a single leaf is made holding the structure latch shared and the latch of that leaf exclusively.
+ * A change to the structure of the tree, e.g. a split, merge, rebalance, new successor or offloaded entry, is made holding the
+ * structure latch exclusively. Internal nodes therefore only ever change under the exclusive structure latch and a writer holding
+ * it shared can descend the tree without latching them.
+ * <p>
+ * Leaf latches are striped on tree node id, which means that two different leaves may share a latch.
+ */
+class WriterLatches
+{
+    private static final int LEAF_LATCH_STRIPES = 128;
+
+    private final ReentrantReadWriteLock structureLatch = new ReentrantReadWriteLock();
+    private final ReentrantLock[] leafLatches = new ReentrantLock[LEAF_LATCH_STRIPES];
+    /**
+     * Incremented every time the exclusive structure latch is released, so that writers know when their cached path
+     * down the tree may no longer be valid.
+     */
+    private volatile long structureVersion;
+
+    WriterLatches()
+    {
+        for ( int i = 0; i < leafLatches.length; i++ )
+        {
+            leafLatches[i] = new ReentrantLock();
+        }
+    }
+
+    void acquireShared()
+    {
+        structureLatch.readLock().lock();
+    }
+
+    void releaseShared()
+    {
+        structureLatch.readLock().unlock();
+    }
+
+    void acquireExclusive()
+    {
+        structureLatch.writeLock().lock();
+    }
+
+    /**
+     * @return the new structure version, as seen by the writer releasing the latch.
+     */
+    long releaseExclusive()
+    {
+        long version = structureVersion + 1;
+        structureVersion = version;
+        structureLatch.writeLock().unlock();
+        return version;
+    }
+
+    long structureVersion()
+    {
+        return structureVersion;
+    }
+
+    void latchLeaf( long treeNodeId )
+    {
+        leafLatch( treeNodeId ).lock();
+    }
+
+    void unlatchLeaf( long treeNodeId )
+    {
+        leafLatch( treeNodeId ).unlock();
+    }
+
+    private ReentrantLock leafLatch( long treeNodeId )
+    {
+        return leafLatches[(int) (treeNodeId & (LEAF_LATCH_STRIPES - 1))];
+    }
+}
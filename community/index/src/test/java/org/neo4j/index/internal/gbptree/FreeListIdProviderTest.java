@@ -39,6 +39,7 @@ import org.neo4j.test.RandomSupport;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -270,6 +271,103 @@ class FreeListIdProviderTest
         assertTrue( expected.isEmpty() );
     }
 
+    @Test
+    void shouldAcquireBatchedReleasesInAscendingOrder() throws Exception
+    {
+        // GIVEN
+        freelist = batchingFreelist();
+        long baseId = 101;
+        int entries = freelist.entriesPerPage() / 2;
+        for ( int i = entries - 1; i >= 0; i-- )
+        {
+            freelist.releaseId( GENERATION_ONE, GENERATION_TWO, baseId + i * 2, NULL );
+        }
+
+        // WHEN
+        freelist.flushPendingReleases( GENERATION_ONE, GENERATION_TWO, false, NULL );
+
+        // THEN
+        for ( int i = 0; i < entries; i++ )
+        {
+            assertEquals( baseId + i * 2, freelist.acquireNewId( GENERATION_TWO, GENERATION_THREE, NULL ) );
+        }
+    }
+
+    @Test
+    void shouldTrimBatchedReleasesAtEndOfFile() throws Exception
+    {
+        // GIVEN
+        freelist = batchingFreelist();
+        long lastIdBefore = freelist.lastId();
+        long[] acquired = new long[10];
+        for ( int i = 0; i < acquired.length; i++ )
+        {
+            acquired[i] = freelist.acquireNewId( GENERATION_ONE, GENERATION_TWO, NULL );
+        }
+        // release all except the first one, in random order
+        for ( int i = acquired.length - 1; i > 0; i-- )
+        {
+            freelist.releaseId( GENERATION_ONE, GENERATION_TWO, acquired[(i * 7) % (acquired.length - 1) + 1], NULL );
+        }
+
+        // WHEN
+        freelist.flushPendingReleases( GENERATION_ONE, GENERATION_TWO, true, NULL );
+
+        // THEN
+        assertEquals( lastIdBefore + 1, freelist.lastId() );
+        assertEquals( lastIdBefore + 2, freelist.acquireNewId( GENERATION_TWO, GENERATION_THREE, NULL ) );
+        freelist.visitFreelist( new IdProvider.IdProviderVisitor.Adaptor()
+        {
+            @Override
+            public void freelistEntry( long pageId, long generation, int pos )
+            {
+                fail( "Expected no free-list entries, but got " + pageId );
+            }
+        }, NULL );
+    }
+
+    @Test
+    void shouldVisitPendingBatchedReleases() throws Exception
+    {
+        // GIVEN
+        freelist = batchingFreelist();
+        MutableLongSet expected = new LongHashSet();
+        for ( int i = 0; i < freelist.entriesPerPage() * 3 + 5; i++ )
+        {
+            expected.add( freelist.acquireNewId( GENERATION_ONE, GENERATION_TWO, NULL ) );
+        }
+        expected.forEach( id ->
+        {
+            try
+            {
+                freelist.releaseId( GENERATION_ONE, GENERATION_TWO, id, NULL );
+            }
+            catch ( IOException e )
+            {
+                throw new RuntimeException( e );
+            }
+        } );
+
+        // WHEN/THEN
+        freelist.visitFreelist( new IdProvider.IdProviderVisitor.Adaptor()
+        {
+            @Override
+            public void freelistEntry( long pageId, long generation, int pos )
+            {
+                assertEquals( GENERATION_TWO, generation );
+                assertTrue( expected.remove( pageId ) );
+            }
+        }, NULL );
+        assertTrue( expected.isEmpty() );
+    }
+
+    private FreeListIdProvider batchingFreelist()
+    {
+        FreeListIdProvider batching = new FreeListIdProvider( pagedFile, BASE_ID, monitor, true );
+        batching.initialize( BASE_ID + 1, BASE_ID + 1, BASE_ID + 1, 0, 0 );
+        return batching;
+    }
+
     private void fillPageWithRandomBytes( long releasedId )
     {
         cursor.next( releasedId );
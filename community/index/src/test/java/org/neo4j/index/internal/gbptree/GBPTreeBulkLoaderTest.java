@@ -0,0 +1,346 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.apache.commons.lang3.mutable.MutableInt;
+import org.apache.commons.lang3.mutable.MutableLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.pagecache.PageCacheSupportExtension;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.utils.PageCacheConfig;
+import org.neo4j.test.utils.TestDirectory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+
+@EphemeralTestDirectoryExtension
+class GBPTreeBulkLoaderTest
+{
+    private static final int PAGE_SIZE = 512;
+
+    @RegisterExtension
+    static PageCacheSupportExtension pageCacheExtension = new PageCacheSupportExtension( PageCacheConfig.config().withPageSize( PAGE_SIZE ) );
+    @Inject
+    private TestDirectory directory;
+    @Inject
+    private PageCache pageCache;
+
+    enum Format
+    {
+        FIXED
+                {
+                    @Override
+                    TestLayout<?,?> layout()
+                    {
+                        return SimpleLongLayout.longLayout().withFixedSize( true ).build();
+                    }
+                },
+        DYNAMIC
+                {
+                    @Override
+                    TestLayout<?,?> layout()
+                    {
+                        return SimpleLongLayout.longLayout().withFixedSize( false ).build();
+                    }
+                },
+        DYNAMIC_COMPRESSED
+                {
+                    @Override
+                    TestLayout<?,?> layout()
+                    {
+                        return new SimpleByteArrayLayout()
+                        {
+                            @Override
+                            public int keyPrefixCompressionOffset()
+                            {
+                                return 0;
+                            }
+                        };
+                    }
+                };
+
+        abstract TestLayout<?,?> layout();
+    }
+
+    @ParameterizedTest
+    @EnumSource( Format.class )
+    void shouldBulkLoadCompletelyFullLeaves( Format format ) throws IOException
+    {
+        shouldBulkLoad( format.layout(), 1 );
+    }
+
+    @ParameterizedTest
+    @EnumSource( Format.class )
+    void shouldBulkLoadPartiallyFullLeaves( Format format ) throws IOException
+    {
+        shouldBulkLoad( format.layout(), 0.5 );
+    }
+
+    @ParameterizedTest
+    @EnumSource( Format.class )
+    void shouldBulkLoadSingleKey( Format format ) throws IOException
+    {
+        shouldBulkLoad( format.layout(), 1, 1 );
+    }
+
+    @ParameterizedTest
+    @EnumSource( Format.class )
+    void shouldAllowChangesAfterBulkLoad( Format format ) throws IOException
+    {
+        allowChangesAfterBulkLoad( format.layout() );
+    }
+
+    @Test
+    void shouldBulkLoadNumberOfKeysFillingLastNodesToAnyDegree() throws IOException
+    {
+        // Let the last node on each level get anything from a single child and up, which covers completing a node by
+        // taking a child from its left sibling
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().withFixedSize( true ).build();
+        for ( int count = 1; count < 2_000; count += 7 )
+        {
+            shouldBulkLoad( layout, 1, count, "index-" + count );
+        }
+    }
+
+    @Test
+    void shouldLeaveRoomInLeavesAccordingToFillFactor() throws IOException
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().withFixedSize( true ).build();
+        int fullLeaves = countLeaves( layout, 1 );
+        int halfFullLeaves = countLeaves( layout, 0.5 );
+        assertThat( halfFullLeaves ).isBetween( fullLeaves * 2 - 1, fullLeaves * 2 + 1 );
+    }
+
+    @Test
+    void shouldMergeValueOfEqualKeys() throws IOException
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().build();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            try ( Writer<MutableLong,MutableLong> loader = tree.bulkLoader( 1, NULL ) )
+            {
+                loader.put( layout.key( 1 ), layout.value( 1 ) );
+                loader.put( layout.key( 2 ), layout.value( 2 ) );
+                loader.put( layout.key( 2 ), layout.value( 3 ) );
+                loader.merge( layout.key( 2 ), layout.value( 4 ), ValueMergers.keepExisting() );
+                loader.mergeIfExists( layout.key( 3 ), layout.value( 3 ), ValueMergers.overwrite() );
+            }
+
+            try ( Seeker<MutableLong,MutableLong> seeker = tree.seek( layout.key( 0 ), layout.key( 10 ), NULL ) )
+            {
+                assertTrue( seeker.next() );
+                assertEquals( 1, seeker.value().longValue() );
+                assertTrue( seeker.next() );
+                assertEquals( 2, seeker.key().longValue() );
+                assertEquals( 3, seeker.value().longValue() );
+                assertFalse( seeker.next() );
+            }
+        }
+    }
+
+    @Test
+    void shouldNotAcceptKeysOutOfOrder() throws IOException
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().build();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build();
+              Writer<MutableLong,MutableLong> loader = tree.bulkLoader( 1, NULL ) )
+        {
+            loader.put( layout.key( 2 ), layout.value( 2 ) );
+            assertThrows( IllegalArgumentException.class, () -> loader.put( layout.key( 1 ), layout.value( 1 ) ) );
+            assertThrows( UnsupportedOperationException.class, () -> loader.remove( layout.key( 2 ) ) );
+        }
+    }
+
+    @Test
+    void shouldOnlyBulkLoadIntoEmptyTree() throws IOException
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().build();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer( NULL ) )
+            {
+                writer.put( layout.key( 1 ), layout.value( 1 ) );
+            }
+
+            assertThrows( IllegalStateException.class, () -> tree.bulkLoader( 1, NULL ) );
+
+            // and the writer should be released again
+            tree.writer( NULL ).close();
+        }
+    }
+
+    @Test
+    void shouldLeaveTreeEmptyWhenNothingLoaded() throws IOException
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().build();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            tree.bulkLoader( 1, NULL ).close();
+
+            try ( Seeker<MutableLong,MutableLong> seeker = tree.seek( layout.key( Long.MIN_VALUE ), layout.key( Long.MAX_VALUE ), NULL ) )
+            {
+                assertFalse( seeker.next() );
+            }
+            assertTrue( tree.consistencyCheck( NULL ) );
+        }
+    }
+
+    private <KEY,VALUE> void shouldBulkLoad( TestLayout<KEY,VALUE> layout, double fillFactor ) throws IOException
+    {
+        shouldBulkLoad( layout, fillFactor, 10_000 );
+    }
+
+    private <KEY,VALUE> void shouldBulkLoad( TestLayout<KEY,VALUE> layout, double fillFactor, int count ) throws IOException
+    {
+        shouldBulkLoad( layout, fillFactor, count, "index" );
+    }
+
+    private <KEY,VALUE> void shouldBulkLoad( TestLayout<KEY,VALUE> layout, double fillFactor, int count, String fileName ) throws IOException
+    {
+        try ( GBPTree<KEY,VALUE> tree = new GBPTreeBuilder<>( pageCache, directory.file( fileName ), layout ).build() )
+        {
+            // when
+            try ( Writer<KEY,VALUE> loader = tree.bulkLoader( fillFactor, NULL ) )
+            {
+                for ( long i = 0; i < count; i++ )
+                {
+                    loader.put( layout.key( i * 2 ), layout.value( i ) );
+                }
+            }
+
+            // then
+            assertTrue( tree.consistencyCheck( NULL ) );
+            assertLoaded( tree, layout, count );
+            tree.checkpoint( NULL );
+        }
+
+        try ( GBPTree<KEY,VALUE> tree = new GBPTreeBuilder<>( pageCache, directory.file( fileName ), layout ).build() )
+        {
+            assertLoaded( tree, layout, count );
+        }
+    }
+
+    private <KEY,VALUE> void allowChangesAfterBulkLoad( TestLayout<KEY,VALUE> layout ) throws IOException
+    {
+        int count = 5_000;
+        try ( GBPTree<KEY,VALUE> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            try ( Writer<KEY,VALUE> loader = tree.bulkLoader( 0.8, NULL ) )
+            {
+                for ( long i = 0; i < count; i++ )
+                {
+                    loader.put( layout.key( i * 2 ), layout.value( i ) );
+                }
+            }
+
+            // when
+            try ( Writer<KEY,VALUE> writer = tree.writer( NULL ) )
+            {
+                for ( long i = 0; i < count; i++ )
+                {
+                    writer.put( layout.key( i * 2 + 1 ), layout.value( i ) );
+                    if ( i % 2 == 0 )
+                    {
+                        writer.remove( layout.key( i * 2 ) );
+                    }
+                }
+            }
+
+            // then
+            assertTrue( tree.consistencyCheck( NULL ) );
+            try ( Seeker<KEY,VALUE> seeker = tree.seek( layout.key( 0 ), layout.key( count * 2 ), NULL ) )
+            {
+                for ( long i = 0; i < count * 2; i++ )
+                {
+                    if ( i % 4 != 0 )
+                    {
+                        assertTrue( seeker.next() );
+                        assertEquals( i, layout.keySeed( seeker.key() ) );
+                        assertEquals( i / 2, layout.valueSeed( seeker.value() ) );
+                    }
+                }
+                assertFalse( seeker.next() );
+            }
+        }
+    }
+
+    private <KEY,VALUE> void assertLoaded( GBPTree<KEY,VALUE> tree, TestLayout<KEY,VALUE> layout, int count ) throws IOException
+    {
+        try ( Seeker<KEY,VALUE> seeker = tree.seek( layout.key( 0 ), layout.key( Long.MAX_VALUE ), NULL ) )
+        {
+            for ( long i = 0; i < count; i++ )
+            {
+                assertTrue( seeker.next() );
+                assertEquals( i * 2, layout.keySeed( seeker.key() ) );
+                assertEquals( i, layout.valueSeed( seeker.value() ) );
+            }
+            assertFalse( seeker.next() );
+        }
+        // and also seeking backwards, which follows left sibling pointers
+        try ( Seeker<KEY,VALUE> seeker = tree.seek( layout.key( Long.MAX_VALUE ), layout.key( -1 ), NULL ) )
+        {
+            for ( long i = count - 1; i >= 0; i-- )
+            {
+                assertTrue( seeker.next() );
+                assertEquals( i * 2, layout.keySeed( seeker.key() ) );
+            }
+            assertFalse( seeker.next() );
+        }
+    }
+
+    private int countLeaves( SimpleLongLayout layout, double fillFactor ) throws IOException
+    {
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index-" + fillFactor ), layout ).build() )
+        {
+            try ( Writer<MutableLong,MutableLong> loader = tree.bulkLoader( fillFactor, NULL ) )
+            {
+                for ( long i = 0; i < 10_000; i++ )
+                {
+                    loader.put( layout.key( i ), layout.value( i ) );
+                }
+            }
+            MutableInt leaves = new MutableInt();
+            tree.visit( new GBPTreeVisitor.Adaptor<>()
+            {
+                @Override
+                public void beginNode( long pageId, boolean isLeaf, long generation, int keyCount )
+                {
+                    if ( isLeaf )
+                    {
+                        leaves.increment();
+                    }
+                }
+            }, NULL );
+            return leaves.intValue();
+        }
+    }
+}
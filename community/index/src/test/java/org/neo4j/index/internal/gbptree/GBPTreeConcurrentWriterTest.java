@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.apache.commons.lang3.mutable.MutableInt;
+import org.apache.commons.lang3.mutable.MutableLong;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.util.TreeMap;
+
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.test.Race;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.pagecache.PageCacheSupportExtension;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.utils.PageCacheConfig;
+import org.neo4j.test.utils.TestDirectory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+import static org.neo4j.test.Race.throwing;
+
+@EphemeralTestDirectoryExtension
+class GBPTreeConcurrentWriterTest
+{
+    private static final int WRITERS = 8;
+    private static final int KEYS_PER_WRITER = 5_000;
+
+    @RegisterExtension
+    static PageCacheSupportExtension pageCacheExtension = new PageCacheSupportExtension( PageCacheConfig.config().withPageSize( 512 ) );
+    @Inject
+    private TestDirectory directory;
+    @Inject
+    private PageCache pageCache;
+
+    @ParameterizedTest
+    @ValueSource( booleans = {true, false} )
+    void shouldAllowMultipleConcurrentWritersAtTheSameTime( boolean fixedSize ) throws IOException
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().withFixedSize( fixedSize ).build();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            try ( Writer<MutableLong,MutableLong> writer1 = tree.concurrentWriter( NULL );
+                  Writer<MutableLong,MutableLong> writer2 = tree.concurrentWriter( NULL ) )
+            {
+                writer1.put( layout.key( 1 ), layout.value( 10 ) );
+                writer2.put( layout.key( 2 ), layout.value( 20 ) );
+                assertEquals( 10, writer2.remove( layout.key( 1 ) ).longValue() );
+                assertNull( writer1.remove( layout.key( 1 ) ) );
+            }
+
+            TreeMap<Long,Long> expected = new TreeMap<>();
+            expected.put( 2L, 20L );
+            assertContents( tree, layout, expected );
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource( booleans = {true, false} )
+    void shouldApplyChangesFromConcurrentWritersInterleavedWithCheckpoints( boolean fixedSize ) throws Throwable
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().withFixedSize( fixedSize ).build();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            // when writers interleave their keys so that they share leaves, while checkpoints come and go
+            Race race = new Race();
+            race.addContestants( WRITERS, writer -> throwing( () ->
+            {
+                for ( int batch = 0; batch < 5; batch++ )
+                {
+                    try ( Writer<MutableLong,MutableLong> treeWriter = tree.concurrentWriter( NULL ) )
+                    {
+                        for ( int i = batch; i < KEYS_PER_WRITER; i += 5 )
+                        {
+                            long key = key( writer, i );
+                            treeWriter.put( layout.key( key ), layout.value( key ) );
+                        }
+                    }
+                    if ( batch % 2 == writer % 2 )
+                    {
+                        tree.checkpoint( NULL );
+                    }
+                }
+                try ( Writer<MutableLong,MutableLong> treeWriter = tree.concurrentWriter( NULL ) )
+                {
+                    for ( int i = 0; i < KEYS_PER_WRITER; i++ )
+                    {
+                        long key = key( writer, i );
+                        if ( i % 3 == 0 )
+                        {
+                            assertEquals( key, treeWriter.remove( layout.key( key ) ).longValue() );
+                        }
+                        else if ( i % 3 == 1 )
+                        {
+                            treeWriter.put( layout.key( key ), layout.value( key * 2 ) );
+                        }
+                    }
+                }
+            } ), 1 );
+            race.go();
+
+            // then
+            TreeMap<Long,Long> expected = new TreeMap<>();
+            for ( int writer = 0; writer < WRITERS; writer++ )
+            {
+                for ( int i = 0; i < KEYS_PER_WRITER; i++ )
+                {
+                    long key = key( writer, i );
+                    if ( i % 3 == 1 )
+                    {
+                        expected.put( key, key * 2 );
+                    }
+                    else if ( i % 3 == 2 )
+                    {
+                        expected.put( key, key );
+                    }
+                }
+            }
+            assertContents( tree, layout, expected );
+            assertTrue( tree.consistencyCheck( NULL ) );
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource( booleans = {true, false} )
+    void shouldCompactLeavesLeftSparseByConcurrentWriters( boolean fixedSize ) throws IOException
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().withFixedSize( fixedSize ).build();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            // given leaves left underflowing by concurrent writers, which never rebalance nor merge leaves
+            int count = 10_000;
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer( NULL ) )
+            {
+                for ( long i = 0; i < count; i++ )
+                {
+                    writer.put( layout.key( i ), layout.value( i ) );
+                }
+            }
+            TreeMap<Long,Long> expected = new TreeMap<>();
+            try ( Writer<MutableLong,MutableLong> writer = tree.concurrentWriter( NULL ) )
+            {
+                for ( long i = 0; i < count; i++ )
+                {
+                    if ( i % 20 == 0 )
+                    {
+                        expected.put( i, i );
+                    }
+                    else
+                    {
+                        writer.remove( layout.key( i ) );
+                    }
+                }
+            }
+            int leavesBefore = countLeaves( tree );
+
+            // when
+            int compacted = tree.compactSparseLeaves( Integer.MAX_VALUE, NULL );
+
+            // then
+            assertTrue( compacted > 0 );
+            assertTrue( countLeaves( tree ) < leavesBefore / 2 );
+            assertContents( tree, layout, expected );
+            assertTrue( tree.consistencyCheck( NULL ) );
+            tree.checkpoint( NULL );
+            assertTrue( tree.consistencyCheck( NULL ) );
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource( booleans = {true, false} )
+    void shouldAskValueMergerOncePerMerge( boolean fixedSize ) throws IOException
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().withFixedSize( fixedSize ).build();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            int count = 2_000;
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer( NULL ) )
+            {
+                for ( long i = 0; i < count; i++ )
+                {
+                    writer.put( layout.key( i ), layout.value( i ) );
+                }
+            }
+
+            // when merging into, and then removing, every entry, which empties every leaf along the way
+            MutableInt merges = new MutableInt();
+            try ( Writer<MutableLong,MutableLong> writer = tree.concurrentWriter( NULL ) )
+            {
+                for ( long i = 0; i < count; i++ )
+                {
+                    writer.mergeIfExists( layout.key( i ), layout.value( 1 ), ( existingKey, newKey, existingValue, newValue ) ->
+                    {
+                        merges.increment();
+                        existingValue.add( newValue.longValue() );
+                        return ValueMerger.MergeResult.MERGED;
+                    } );
+                }
+                for ( long i = 0; i < count; i++ )
+                {
+                    writer.mergeIfExists( layout.key( i ), layout.value( 0 ), ( existingKey, newKey, existingValue, newValue ) ->
+                    {
+                        merges.increment();
+                        assertEquals( existingKey.longValue() + 1, existingValue.longValue() );
+                        return ValueMerger.MergeResult.REMOVED;
+                    } );
+                }
+            }
+
+            // then
+            assertEquals( 2 * count, merges.intValue() );
+            assertContents( tree, layout, new TreeMap<>() );
+            assertTrue( tree.consistencyCheck( NULL ) );
+        }
+    }
+
+    private static int countLeaves( GBPTree<MutableLong,MutableLong> tree ) throws IOException
+    {
+        MutableInt leaves = new MutableInt();
+        tree.visit( new GBPTreeVisitor.Adaptor<>()
+        {
+            @Override
+            public void beginNode( long pageId, boolean isLeaf, long generation, int keyCount )
+            {
+                if ( isLeaf )
+                {
+                    leaves.increment();
+                }
+            }
+        }, NULL );
+        return leaves.intValue();
+    }
+
+    private static long key( int writer, int i )
+    {
+        return (long) i * WRITERS + writer;
+    }
+
+    private static void assertContents( GBPTree<MutableLong,MutableLong> tree, SimpleLongLayout layout, TreeMap<Long,Long> expected ) throws IOException
+    {
+        try ( Seeker<MutableLong,MutableLong> seeker = tree.seek( layout.key( Long.MIN_VALUE ), layout.key( Long.MAX_VALUE ), NULL ) )
+        {
+            for ( var entry : expected.entrySet() )
+            {
+                assertTrue( seeker.next() );
+                assertEquals( entry.getKey().longValue(), seeker.key().longValue() );
+                assertEquals( entry.getValue().longValue(), seeker.value().longValue() );
+            }
+            assertFalse( seeker.next() );
+        }
+    }
+}
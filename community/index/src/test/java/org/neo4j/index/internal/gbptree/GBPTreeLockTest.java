@@ -32,6 +32,7 @@ import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.actors.Actor;
 import org.neo4j.test.extension.actors.ActorsExtension;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -52,6 +53,8 @@ class GBPTreeLockTest
 
     @Inject
     Actor executor;
+    @Inject
+    Actor sharedExecutor;
 
     @Test
     void test_UU_UL_UU() throws Exception
@@ -163,6 +166,88 @@ class GBPTreeLockTest
         assertOnlyOneSucceeds( lock::writerAndCleanerLock, lock::writerAndCleanerLock );
     }
 
+    @Test
+    void sharedWritersShouldNotBlockEachOther()
+    {
+        // given
+        assertUU();
+
+        // when
+        lock.sharedWriterAndCleanerLock();
+        lock.sharedWriterAndCleanerLock();
+
+        // then
+        lock.sharedWriterAndCleanerUnlock();
+        lock.sharedWriterAndCleanerUnlock();
+        assertUU();
+        assertThrows( IllegalStateException.class, lock::sharedWriterAndCleanerUnlock );
+    }
+
+    @Test
+    void sharedWritersShouldBlockExclusiveUntilLastOneLeaves() throws Exception
+    {
+        // given
+        lock.sharedWriterAndCleanerLock();
+        lock.sharedWriterAndCleanerLock();
+        assertThrows( IllegalStateException.class, lock::writerAndCleanerUnlock );
+
+        // when
+        Future<Object> exclusive = executor.submit( () ->
+        {
+            lock.writerAndCleanerLock();
+            return null;
+        } );
+        executor.untilWaitingIn( GBPTreeLock.class.getDeclaredMethod( "doLock", long.class ) );
+        lock.sharedWriterAndCleanerUnlock();
+        assertFalse( exclusive.isDone() );
+        lock.sharedWriterAndCleanerUnlock();
+
+        // then
+        exclusive.get();
+        assertLL();
+    }
+
+    @Test
+    void exclusiveShouldBlockSharedWriters() throws Exception
+    {
+        // given
+        lock.cleanerLock();
+
+        // then
+        copy = lock.copy();
+        assertSharedBlock( copy::cleanerUnlock );
+    }
+
+    @Test
+    void waitingExclusiveShouldBlockNewSharedWriters() throws Exception
+    {
+        // given
+        lock.sharedWriterAndCleanerLock();
+        Future<Object> exclusive = executor.submit( () ->
+        {
+            lock.writerAndCleanerLock();
+            return null;
+        } );
+        executor.untilWaitingIn( GBPTreeLock.class.getDeclaredMethod( "doLock", long.class ) );
+
+        // when
+        Future<Object> shared = sharedExecutor.submit( () ->
+        {
+            lock.sharedWriterAndCleanerLock();
+            return null;
+        } );
+        sharedExecutor.untilWaitingIn( GBPTreeLock.class.getDeclaredMethod( "doSharedLock" ) );
+
+        // then
+        lock.sharedWriterAndCleanerUnlock();
+        exclusive.get();
+        assertFalse( shared.isDone() );
+        lock.writerAndCleanerUnlock();
+        shared.get();
+        lock.sharedWriterAndCleanerUnlock();
+        assertUU();
+    }
+
     private void assertOnlyOneSucceeds( Runnable lockAction1, Runnable lockAction2 )
     {
         assertUU();
@@ -261,6 +346,18 @@ class GBPTreeLockTest
         future.get();
     }
 
+    private void assertSharedBlock( Runnable runUnlock ) throws Exception
+    {
+        Future<Object> future = executor.submit( () ->
+        {
+            copy.sharedWriterAndCleanerLock();
+            return null;
+        } );
+        executor.untilWaitingIn( GBPTreeLock.class.getDeclaredMethod( "doSharedLock" ) );
+        runUnlock.run();
+        future.get();
+    }
+
     private void assertUU()
     {
         assertThrows( IllegalStateException.class, lock::writerUnlock );
@@ -0,0 +1,361 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.apache.commons.lang3.mutable.MutableLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.test.RandomSupport;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.test.extension.pagecache.PageCacheSupportExtension;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.utils.PageCacheConfig;
+import org.neo4j.test.utils.TestDirectory;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+
+@EphemeralTestDirectoryExtension
+@ExtendWith( RandomExtension.class )
+class GBPTreeMultiSeekTest
+{
+    private static final int PAGE_SIZE = 512;
+    private static final int COUNT = 10_000;
+
+    @RegisterExtension
+    static PageCacheSupportExtension pageCacheExtension = new PageCacheSupportExtension( PageCacheConfig.config().withPageSize( PAGE_SIZE ) );
+    @Inject
+    private TestDirectory directory;
+    @Inject
+    private PageCache pageCache;
+    @Inject
+    private RandomSupport random;
+
+    private final SimpleLongLayout layout = SimpleLongLayout.longLayout().build();
+
+    enum Direction
+    {
+        FORWARD,
+        BACKWARD
+    }
+
+    @ParameterizedTest
+    @EnumSource( Direction.class )
+    void shouldFindSameAsSeekPerKeyForDenseKeys( Direction direction ) throws IOException
+    {
+        shouldFindSameAsSeekPerRange( direction, 0.5, 1, 0 );
+    }
+
+    @ParameterizedTest
+    @EnumSource( Direction.class )
+    void shouldFindSameAsSeekPerKeyForSparseKeys( Direction direction ) throws IOException
+    {
+        shouldFindSameAsSeekPerRange( direction, 0.01, 1, 0 );
+    }
+
+    @ParameterizedTest
+    @EnumSource( Direction.class )
+    void shouldFindSameAsSeekPerRangeForShortRanges( Direction direction ) throws IOException
+    {
+        shouldFindSameAsSeekPerRange( direction, 0.1, 10, 0 );
+    }
+
+    @ParameterizedTest
+    @EnumSource( Direction.class )
+    void shouldFindSameAsSeekPerRangeForRangesSpanningMultipleLeaves( Direction direction ) throws IOException
+    {
+        shouldFindSameAsSeekPerRange( direction, 0.005, 500, 0 );
+    }
+
+    @ParameterizedTest
+    @EnumSource( Direction.class )
+    void shouldFindSameAsSeekPerRangeForMixOfKeysAndRanges( Direction direction ) throws IOException
+    {
+        shouldFindSameAsSeekPerRange( direction, 0.05, 10, 0.5 );
+    }
+
+    @Test
+    void shouldPinFewerPagesThanSeekPerKey() throws IOException
+    {
+        try ( GBPTree<MutableLong,MutableLong> tree = createTree() )
+        {
+            List<MutableLong> keys = new ArrayList<>();
+            for ( long key = 0; key < COUNT * 2; key += 10 )
+            {
+                keys.add( layout.key( key ) );
+            }
+
+            var pageCacheTracer = new DefaultPageCacheTracer();
+            long multiSeekPins;
+            try ( var cursorContext = new CursorContext( pageCacheTracer.createPageCursorTracer( "multiSeek" ) );
+                  Seeker<MutableLong,MutableLong> seeker = tree.multiSeek( keys, keys, cursorContext ) )
+            {
+                while ( seeker.next() )
+                {
+                    // just go through the hits
+                }
+                multiSeekPins = cursorContext.getCursorTracer().pins();
+            }
+            long seekPins;
+            try ( var cursorContext = new CursorContext( pageCacheTracer.createPageCursorTracer( "seek" ) ) )
+            {
+                for ( MutableLong key : keys )
+                {
+                    try ( Seeker<MutableLong,MutableLong> seeker = tree.seek( key, key, cursorContext ) )
+                    {
+                        assertTrue( seeker.next() );
+                    }
+                }
+                seekPins = cursorContext.getCursorTracer().pins();
+            }
+
+            assertThat( multiSeekPins ).isLessThan( seekPins / 2 );
+        }
+    }
+
+    @Test
+    void shouldFindNothingForNoRanges() throws IOException
+    {
+        try ( GBPTree<MutableLong,MutableLong> tree = createTree() )
+        {
+            try ( Seeker<MutableLong,MutableLong> seeker = tree.multiSeek( List.of(), List.of(), NULL ) )
+            {
+                assertFalse( seeker.next() );
+                assertFalse( seeker.next() );
+            }
+        }
+    }
+
+    @Test
+    void shouldFindKeysOutsideOfTree() throws IOException
+    {
+        try ( GBPTree<MutableLong,MutableLong> tree = createTree() )
+        {
+            List<MutableLong> keys = asList( layout.key( -10 ), layout.key( 2 ), layout.key( 3 ), layout.key( COUNT * 2 ), layout.key( COUNT * 4 ) );
+            try ( Seeker<MutableLong,MutableLong> seeker = tree.multiSeek( keys, keys, NULL ) )
+            {
+                assertTrue( seeker.next() );
+                assertEquals( 2, seeker.key().longValue() );
+                assertEquals( 1, seeker.value().longValue() );
+                assertFalse( seeker.next() );
+            }
+        }
+    }
+
+    @Test
+    void shouldSeeChangesMadeWhileSeeking() throws IOException
+    {
+        try ( GBPTree<MutableLong,MutableLong> tree = createTree() )
+        {
+            List<MutableLong> from = new ArrayList<>();
+            List<MutableLong> to = new ArrayList<>();
+            for ( long key = 0; key < COUNT * 2; key += 100 )
+            {
+                from.add( layout.key( key ) );
+                to.add( layout.key( key + 10 ) );
+            }
+
+            List<Long> found = new ArrayList<>();
+            try ( Seeker<MutableLong,MutableLong> seeker = tree.multiSeek( from, to, NULL ) )
+            {
+                while ( seeker.next() )
+                {
+                    long key = seeker.key().longValue();
+                    found.add( key );
+                    // Split leaves in front of the seeker by filling the gap after the next range with keys outside of any range
+                    long rangeStart = key - key % 100;
+                    try ( Writer<MutableLong,MutableLong> writer = tree.writer( NULL ) )
+                    {
+                        for ( long gap = rangeStart + 111; gap < rangeStart + 200; gap += 2 )
+                        {
+                            writer.put( layout.key( gap ), layout.value( gap ) );
+                        }
+                    }
+                }
+            }
+
+            List<Long> expected = new ArrayList<>();
+            for ( long key = 0; key < COUNT * 2; key += 100 )
+            {
+                for ( long i = key; i < key + 10; i += 2 )
+                {
+                    expected.add( i );
+                }
+            }
+            assertThat( found ).isEqualTo( expected );
+        }
+    }
+
+    @Test
+    void shouldNotAcceptDifferentNumberOfBounds() throws IOException
+    {
+        try ( GBPTree<MutableLong,MutableLong> tree = createTree() )
+        {
+            assertThrows( IllegalArgumentException.class,
+                    () -> tree.multiSeek( asList( layout.key( 1 ), layout.key( 3 ) ), List.of( layout.key( 2 ) ), NULL ) );
+        }
+    }
+
+    @Test
+    void shouldNotAcceptRangesInDifferentDirections() throws IOException
+    {
+        try ( GBPTree<MutableLong,MutableLong> tree = createTree() )
+        {
+            assertThrows( IllegalArgumentException.class,
+                    () -> tree.multiSeek( asList( layout.key( 1 ), layout.key( 10 ) ), asList( layout.key( 5 ), layout.key( 6 ) ), NULL ) );
+        }
+    }
+
+    @Test
+    void shouldNotAcceptUnsortedOrOverlappingRanges() throws IOException
+    {
+        try ( GBPTree<MutableLong,MutableLong> tree = createTree() )
+        {
+            // unsorted
+            assertThrows( IllegalArgumentException.class,
+                    () -> tree.multiSeek( asList( layout.key( 10 ), layout.key( 1 ) ), asList( layout.key( 20 ), layout.key( 5 ) ), NULL ) );
+            // overlapping
+            assertThrows( IllegalArgumentException.class,
+                    () -> tree.multiSeek( asList( layout.key( 1 ), layout.key( 4 ) ), asList( layout.key( 5 ), layout.key( 8 ) ), NULL ) );
+            // same key twice
+            assertThrows( IllegalArgumentException.class,
+                    () -> tree.multiSeek( asList( layout.key( 4 ), layout.key( 4 ) ), asList( layout.key( 4 ), layout.key( 4 ) ), NULL ) );
+        }
+    }
+
+    @Test
+    void shouldAcceptAdjacentRanges() throws IOException
+    {
+        try ( GBPTree<MutableLong,MutableLong> tree = createTree() )
+        {
+            List<MutableLong> from = asList( layout.key( 0 ), layout.key( 4 ), layout.key( 6 ) );
+            List<MutableLong> to = asList( layout.key( 4 ), layout.key( 6 ), layout.key( 6 ) );
+            try ( Seeker<MutableLong,MutableLong> seeker = tree.multiSeek( from, to, NULL ) )
+            {
+                for ( long expected = 0; expected <= 6; expected += 2 )
+                {
+                    assertTrue( seeker.next() );
+                    assertEquals( expected, seeker.key().longValue() );
+                }
+                assertFalse( seeker.next() );
+            }
+        }
+    }
+
+    private void shouldFindSameAsSeekPerRange( Direction direction, double rangeProbability, int maxRangeLength, double exactProbability ) throws IOException
+    {
+        try ( GBPTree<MutableLong,MutableLong> tree = createTree() )
+        {
+            // given
+            List<MutableLong> from = new ArrayList<>();
+            List<MutableLong> to = new ArrayList<>();
+            long key = -1;
+            while ( key < COUNT * 2 + 1 )
+            {
+                if ( random.nextDouble() < rangeProbability )
+                {
+                    long length = maxRangeLength == 1 || random.nextDouble() < exactProbability ? 0 : random.nextLong( 1, maxRangeLength * 2L );
+                    if ( length == 0 )
+                    {
+                        from.add( layout.key( key ) );
+                        to.add( layout.key( key ) );
+                    }
+                    else if ( direction == Direction.FORWARD )
+                    {
+                        from.add( layout.key( key ) );
+                        to.add( layout.key( key + length ) );
+                    }
+                    else
+                    {
+                        from.add( layout.key( key + length - 1 ) );
+                        to.add( layout.key( key - 1 ) );
+                    }
+                    key += Math.max( length, 1 );
+                }
+                else
+                {
+                    key++;
+                }
+            }
+            if ( direction == Direction.BACKWARD )
+            {
+                Collections.reverse( from );
+                Collections.reverse( to );
+            }
+
+            // when
+            List<Long> found = new ArrayList<>();
+            try ( Seeker<MutableLong,MutableLong> seeker = tree.multiSeek( from, to, NULL ) )
+            {
+                while ( seeker.next() )
+                {
+                    found.add( seeker.key().longValue() );
+                    assertEquals( seeker.key().longValue() / 2, seeker.value().longValue() );
+                }
+            }
+
+            // then
+            List<Long> expected = new ArrayList<>();
+            for ( int i = 0; i < from.size(); i++ )
+            {
+                try ( Seeker<MutableLong,MutableLong> seeker = tree.seek( from.get( i ), to.get( i ), NULL ) )
+                {
+                    while ( seeker.next() )
+                    {
+                        expected.add( seeker.key().longValue() );
+                    }
+                }
+            }
+            assertThat( expected ).isNotEmpty();
+            assertThat( found ).isEqualTo( expected );
+        }
+    }
+
+    private GBPTree<MutableLong,MutableLong> createTree() throws IOException
+    {
+        GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build();
+        try ( Writer<MutableLong,MutableLong> writer = tree.writer( NULL ) )
+        {
+            for ( long i = 0; i < COUNT; i++ )
+            {
+                writer.put( layout.key( i * 2 ), layout.value( i ) );
+            }
+        }
+        return tree;
+    }
+}
@@ -312,6 +312,63 @@ class GBPTreeTest
         }
     }
 
+    @Test
+    void shouldCreateWithKeyPrefixCompressionOnlyIfLayoutAsksForIt() throws Exception
+    {
+        try ( PageCache pageCache = createPageCache( defaultPageSize ) )
+        {
+            new GBPTreeBuilder<>( pageCache, indexFile, keyPrefixCompressionLayout( false ) ).build().close();
+            assertEquals( TreeNodeDynamicSize.FORMAT_VERSION, readMeta( pageCache ).getFormatVersion() );
+
+            fileSystem.deleteFile( indexFile );
+            new GBPTreeBuilder<>( pageCache, indexFile, keyPrefixCompressionLayout( true ) ).build().close();
+            assertEquals( TreeNodeDynamicSizeCompressed.FORMAT_VERSION, readMeta( pageCache ).getFormatVersion() );
+        }
+    }
+
+    @Test
+    void shouldOpenWithTheKeyPrefixCompressionTreeWasCreatedWith() throws Exception
+    {
+        for ( boolean createdWithCompression : new boolean[]{false, true} )
+        {
+            // GIVEN
+            fileSystem.deleteFile( indexFile );
+            SimpleByteArrayLayout createLayout = keyPrefixCompressionLayout( createdWithCompression );
+            int count = 1_000;
+            try ( PageCache pageCache = createPageCache( defaultPageSize ) )
+            {
+                try ( GBPTree<RawBytes,RawBytes> tree = new GBPTreeBuilder<>( pageCache, indexFile, createLayout ).build() )
+                {
+                    try ( Writer<RawBytes,RawBytes> writer = tree.writer( NULL ) )
+                    {
+                        for ( int i = 0; i < count; i++ )
+                        {
+                            writer.put( createLayout.key( i ), createLayout.value( i ) );
+                        }
+                    }
+                    tree.checkpoint( NULL );
+                }
+
+                // WHEN
+                SimpleByteArrayLayout openLayout = keyPrefixCompressionLayout( !createdWithCompression );
+                try ( GBPTree<RawBytes,RawBytes> tree = new GBPTreeBuilder<>( pageCache, indexFile, openLayout ).build();
+                        Seeker<RawBytes,RawBytes> seeker = tree.seek( openLayout.key( 0 ), openLayout.key( count ), NULL ) )
+                {
+                    // THEN
+                    for ( int i = 0; i < count; i++ )
+                    {
+                        assertTrue( seeker.next() );
+                        assertEquals( i, openLayout.keySeed( seeker.key() ) );
+                        assertEquals( i, openLayout.valueSeed( seeker.value() ) );
+                    }
+                    assertFalse( seeker.next() );
+                }
+                byte expectedFormatVersion = createdWithCompression ? TreeNodeDynamicSizeCompressed.FORMAT_VERSION : TreeNodeDynamicSize.FORMAT_VERSION;
+                assertEquals( expectedFormatVersion, readMeta( pageCache ).getFormatVersion() );
+            }
+        }
+    }
+
     @Test
     void shouldReturnNoResultsOnEmptyIndex() throws Exception
     {
@@ -1240,6 +1297,41 @@ class GBPTreeTest
         }
     }
 
+    @Test
+    void shouldReportSeekRetriesOnCheckpoint() throws Exception
+    {
+        // GIVEN
+        SeekRetryRecorder seekRetries = new SeekRetryRecorder();
+        try ( PageCache pageCache = createPageCache( defaultPageSize );
+                GBPTree<MutableLong,MutableLong> index = index( pageCache ).with( seekRetries ).build() )
+        {
+            for ( long key = 0; key < 10; key += 2 )
+            {
+                insert( index, key, key );
+            }
+
+            // WHEN
+            try ( Seeker<MutableLong,MutableLong> seeker = index.seek( new MutableLong( 0 ), new MutableLong( 10 ), NULL ) )
+            {
+                assertTrue( seeker.next() );
+                // change the leaf under the seeker
+                insert( index, 1, 1 );
+                int count = 1;
+                while ( seeker.next() )
+                {
+                    count++;
+                }
+                assertEquals( 6, count );
+            }
+            index.checkpoint( NULL );
+
+            // THEN
+            assertThat( seekRetries.retries ).isGreaterThan( 0 );
+            index.checkpoint( NULL );
+            assertEquals( 0, seekRetries.retries );
+        }
+    }
+
     @Test
     void mustNotSeeUpdatesThatWasNotCheckpointed() throws Exception
     {
@@ -2213,6 +2305,34 @@ class GBPTreeTest
         return new GBPTreeBuilder<>( pageCache, indexFile, layout );
     }
 
+    private static SimpleByteArrayLayout keyPrefixCompressionLayout( boolean createWithKeyPrefixCompression )
+    {
+        return new SimpleByteArrayLayout()
+        {
+            @Override
+            public int keyPrefixCompressionOffset()
+            {
+                return 0;
+            }
+
+            @Override
+            public boolean createWithKeyPrefixCompression()
+            {
+                return createWithKeyPrefixCompression;
+            }
+        };
+    }
+
+    private Meta readMeta( PageCache pageCache ) throws IOException
+    {
+        try ( PagedFile pagedFile = pageCache.map( indexFile, pageCache.pageSize(), DEFAULT_DATABASE_NAME );
+                PageCursor cursor = pagedFile.io( IdSpace.META_PAGE_ID, PF_SHARED_WRITE_LOCK, NULL ) )
+        {
+            assertTrue( cursor.next() );
+            return Meta.read( cursor );
+        }
+    }
+
     private PageCache pageCacheWithBarrierInClose( final AtomicBoolean enabled, final Barrier.Control barrier )
     {
         return new DelegatingPageCache( createPageCache( defaultPageSize * 4 ) )
@@ -2298,6 +2418,17 @@ class GBPTreeTest
         }
     }
 
+    private static class SeekRetryRecorder extends Monitor.Adaptor
+    {
+        private long retries;
+
+        @Override
+        public void seekRetries( long retries, long rootCatchups, long generationCheckFailures, long splitRaces )
+        {
+            this.retries = retries;
+        }
+    }
+
     private static class MonitorDirty extends Monitor.Adaptor
     {
         private boolean called;
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.nio.ByteBuffer;
+
+class InternalTreeLogicDynamicSizeCompressedTest extends InternalTreeLogicDynamicSizeTest
+{
+    @Override
+    protected TreeNode<RawBytes,RawBytes> getTreeNode( int pageSize, Layout<RawBytes,RawBytes> layout, OffloadStore<RawBytes,RawBytes> offloadStore )
+    {
+        return new TreeNodeDynamicSizeCompressed<>( pageSize, layout, offloadStore );
+    }
+
+    @Override
+    protected TestLayout<RawBytes,RawBytes> getLayout()
+    {
+        // Keys vary in size and share prefixes, which is what the compression works with. Values all have the largest size
+        // the default layout generates so that leaves, which are less full when compressed, are still as full as the
+        // tests expect them to be, and so that overwriting a value is done in place instead of causing an underflow.
+        return new SimpleByteArrayLayout()
+        {
+            @Override
+            public RawBytes value( long seed )
+            {
+                RawBytes value = newValue();
+                value.bytes = ByteBuffer.allocate( Long.BYTES + Long.BYTES - 1 ).putLong( seed ).array();
+
+                return value;
+            }
+        };
+    }
+}
+
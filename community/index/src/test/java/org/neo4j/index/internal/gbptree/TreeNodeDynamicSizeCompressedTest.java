@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.neo4j.io.pagecache.PageCursor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.LEAF;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+
+public class TreeNodeDynamicSizeCompressedTest extends TreeNodeTestBase<RawBytes,RawBytes>
+{
+    private static final int PREFIX_LENGTH = 40;
+
+    private final SimpleByteArrayLayout layout = new SimpleByteArrayLayout();
+
+    @Override
+    protected TestLayout<RawBytes,RawBytes> getLayout()
+    {
+        return layout;
+    }
+
+    @Override
+    protected TreeNodeDynamicSizeCompressed<RawBytes,RawBytes> getNode( int pageSize, Layout<RawBytes,RawBytes> layout,
+            OffloadStore<RawBytes,RawBytes> offloadStore )
+    {
+        return new TreeNodeDynamicSizeCompressed<>( pageSize, layout, offloadStore );
+    }
+
+    @Override
+    void assertAdditionalHeader( PageCursor cursor, TreeNode<RawBytes,RawBytes> node, int pageSize )
+    {
+        // When
+        int currentAllocSpace = ((TreeNodeDynamicSize<RawBytes,RawBytes>) node).getAllocOffset( cursor );
+
+        // Then
+        int expectedAllocSpace = TreeNode.isLeaf( cursor ) ? pageSize - 1 : pageSize;
+        assertEquals( expectedAllocSpace, currentAllocSpace, "allocSpace point to end of page, before prefix length in leaves" );
+    }
+
+    @Test
+    void shouldCompressCommonPrefixOfKeysWhenRewritingLeaf() throws IOException
+    {
+        // given
+        TreeNodeDynamicSizeCompressed<RawBytes,RawBytes> node = getNode( PAGE_SIZE, bytewiseLayout( 0 ), createOffloadStore() );
+        int keyCount = 8;
+        node.initializeLeaf( cursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        for ( int i = 0; i < keyCount; i++ )
+        {
+            node.insertKeyValueAt( cursor, key( new byte[0], i ), value( i ), i, i, STABLE_GENERATION, UNSTABLE_GENERATION, NULL );
+        }
+        TreeNode.setKeyCount( cursor, keyCount );
+        int spaceBefore = PAGE_SIZE - node.getAllocOffset( cursor );
+
+        // when
+        PageAwareByteArrayCursor right = cursor.duplicate( 1 );
+        right.next();
+        node.initializeLeaf( right, STABLE_GENERATION, UNSTABLE_GENERATION );
+        node.copyKeyValuesFromLeftToRight( cursor, keyCount, right, 0 );
+
+        // then
+        int spaceAfter = PAGE_SIZE - node.getAllocOffset( right );
+        assertThat( spaceAfter ).isLessThanOrEqualTo( spaceBefore - (keyCount - 1) * PREFIX_LENGTH + keyCount );
+        assertKeysAndValues( node, right, new byte[0], keyCount );
+        assertEquals( "", node.checkMetaConsistency( right, keyCount, LEAF, new GBPTreeConsistencyCheckVisitor.Adaptor<>() ) );
+
+        // and when inserting another key sharing the prefix
+        RawBytes key = key( new byte[0], keyCount );
+        assertEquals( TreeNode.Overflow.NO, node.leafOverflow( right, keyCount, key, value( keyCount ) ) );
+        int allocOffsetBefore = node.getAllocOffset( right );
+        node.insertKeyValueAt( right, key, value( keyCount ), keyCount, keyCount, STABLE_GENERATION, UNSTABLE_GENERATION, NULL );
+        TreeNode.setKeyCount( right, keyCount + 1 );
+
+        // then it's stored compressed as well
+        assertThat( allocOffsetBefore - node.getAllocOffset( right ) ).isLessThan( PREFIX_LENGTH );
+        assertKeysAndValues( node, right, new byte[0], keyCount + 1 );
+    }
+
+    @Test
+    void shouldKeepLeadingBytesBeforeCompressionOffset() throws IOException
+    {
+        // given keys starting with bytes that differ between all of them, followed by a common prefix
+        int offset = Long.BYTES;
+        TreeNodeDynamicSizeCompressed<RawBytes,RawBytes> node = getNode( PAGE_SIZE, bytewiseLayout( offset ), createOffloadStore() );
+        byte[] head = new byte[offset];
+        Arrays.fill( head, (byte) 0xFF );
+        int keyCount = 6;
+        node.initializeLeaf( cursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        for ( int i = 0; i < keyCount; i++ )
+        {
+            head[0] = (byte) (keyCount - i);
+            node.insertKeyValueAt( cursor, key( head, i ), value( i ), i, i, STABLE_GENERATION, UNSTABLE_GENERATION, NULL );
+        }
+        TreeNode.setKeyCount( cursor, keyCount );
+        int spaceBefore = PAGE_SIZE - node.getAllocOffset( cursor );
+
+        // when
+        PageAwareByteArrayCursor right = cursor.duplicate( 1 );
+        right.next();
+        node.initializeLeaf( right, STABLE_GENERATION, UNSTABLE_GENERATION );
+        node.moveKeyValuesFromLeftToRight( cursor, keyCount, right, 0, keyCount / 2 );
+
+        // then
+        int spaceAfter = (PAGE_SIZE - node.getAllocOffset( cursor )) + (PAGE_SIZE - node.getAllocOffset( right ));
+        assertThat( spaceAfter ).isLessThan( spaceBefore - (keyCount - 2) * PREFIX_LENGTH );
+        assertEquals( keyCount / 2, TreeNode.keyCount( cursor ) );
+        assertEquals( keyCount - keyCount / 2, TreeNode.keyCount( right ) );
+        RawBytes readKey = layout.newKey();
+        for ( int i = 0; i < keyCount; i++ )
+        {
+            head[0] = (byte) (keyCount - i);
+            PageCursor leaf = i < keyCount / 2 ? cursor : right;
+            int pos = i < keyCount / 2 ? i : i - keyCount / 2;
+            assertArrayEquals( key( head, i ).bytes, node.keyAt( leaf, readKey, pos, LEAF, NULL ).bytes );
+        }
+    }
+
+    private static SimpleByteArrayLayout bytewiseLayout( int keyPrefixCompressionOffset )
+    {
+        return new SimpleByteArrayLayout( false )
+        {
+            @Override
+            public int keyPrefixCompressionOffset()
+            {
+                return keyPrefixCompressionOffset;
+            }
+        };
+    }
+
+    private void assertKeysAndValues( TreeNode<RawBytes,RawBytes> node, PageCursor cursor, byte[] head, int keyCount )
+    {
+        RawBytes readKey = layout.newKey();
+        RawBytes readValue = layout.newValue();
+        for ( int i = 0; i < keyCount; i++ )
+        {
+            node.keyValueAt( cursor, readKey, readValue, i, NULL );
+            assertArrayEquals( key( head, i ).bytes, readKey.bytes );
+            assertArrayEquals( value( i ).bytes, readValue.bytes );
+        }
+    }
+
+    private static RawBytes key( byte[] head, int suffix )
+    {
+        RawBytes key = new RawBytes();
+        key.bytes = new byte[head.length + PREFIX_LENGTH + 1];
+        System.arraycopy( head, 0, key.bytes, 0, head.length );
+        Arrays.fill( key.bytes, head.length, head.length + PREFIX_LENGTH, (byte) 7 );
+        key.bytes[key.bytes.length - 1] = (byte) suffix;
+        return key;
+    }
+
+    private static RawBytes value( int value )
+    {
+        RawBytes rawValue = new RawBytes();
+        rawValue.bytes = new byte[]{(byte) value};
+        return rawValue;
+    }
+}
@@ -433,6 +433,36 @@ public interface Read
      */
     void relationshipProperties( long relationshipReference, Reference reference, PropertySelection selection, PropertyCursor cursor );
 
+    /**
+     * Reads the selected properties of a batch of nodes into columns, one column per selected property key. This is cheaper than reading
+     * the properties of one node at a time since the nodes are visited in the order that suits the underlying storage best.
+     *
+     * @param nodeReferences references to the nodes to read properties for, e.g. from {@link NodeCursor#nodeReference()}.
+     * @param selection which properties to read, this must be limited to specific keys.
+     * @param nodeCursor the cursor to use for reading the nodes.
+     * @param propertyCursor the cursor to use for reading the properties.
+     * @param columns the output, where {@code columns[k][i]} will be set to the value of the property with key {@code selection.key( k )}
+     * for the node {@code nodeReferences[i]}, or {@link Values#NO_VALUE} if the node doesn't exist or doesn't have that property.
+     */
+    void nodeProperties( long[] nodeReferences, PropertySelection selection, NodeCursor nodeCursor, PropertyCursor propertyCursor, Value[][] columns );
+
+    /**
+     * Reads the selected properties of a batch of relationships into columns, one column per selected property key. This is cheaper than
+     * reading the properties of one relationship at a time since the relationships are visited in the order that suits the underlying
+     * storage best.
+     *
+     * @param relationshipReferences references to the relationships to read properties for,
+     * e.g. from {@link RelationshipDataAccessor#relationshipReference()}.
+     * @param selection which properties to read, this must be limited to specific keys.
+     * @param relationshipCursor the cursor to use for reading the relationships.
+     * @param propertyCursor the cursor to use for reading the properties.
+     * @param columns the output, where {@code columns[k][i]} will be set to the value of the property with key {@code selection.key( k )}
+     * for the relationship {@code relationshipReferences[i]}, or {@link Values#NO_VALUE} if the relationship doesn't exist or doesn't
+     * have that property.
+     */
+    void relationshipProperties( long[] relationshipReferences, PropertySelection selection, RelationshipScanCursor relationshipCursor,
+            PropertyCursor propertyCursor, Value[][] columns );
+
     /**
      * Checks if a node was deleted in the current transaction
      * @param node the node to check
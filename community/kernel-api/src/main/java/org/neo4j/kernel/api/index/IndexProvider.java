@@ -115,6 +115,19 @@ public abstract class IndexProvider extends LifecycleAdapter implements IndexCon
         void recoveryCleanupClosed( Path indexFile, IndexDescriptor index );
 
         void recoveryCleanupFailed( Path indexFile, IndexDescriptor index, Throwable throwable );
+
+        /**
+         * Called when an index with an in-memory bloom filter is forced.
+         *
+         * @param indexFile the index file.
+         * @param index the index.
+         * @param memoryUsageBytes memory used by the filter.
+         * @param estimatedFalsePositiveRate estimated probability of the filter not ruling out a lookup of a value which isn't in the index.
+         * @param lookups number of exact lookups checked against the filter since the index was opened.
+         * @param skippedLookups number of those lookups answered by the filter alone, without seeking in the index.
+         */
+        void bloomFilterReport( Path indexFile, IndexDescriptor index, long memoryUsageBytes, double estimatedFalsePositiveRate,
+                long lookups, long skippedLookups );
     }
 
     public static final IndexProvider EMPTY =
@@ -28,6 +28,7 @@ import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.logging.Log;
 
 import static org.neo4j.internal.helpers.Format.duration;
+import static org.neo4j.io.ByteUnit.bytesToString;
 
 public class LoggingMonitor implements IndexProvider.Monitor
 {
@@ -89,6 +90,18 @@ public class LoggingMonitor implements IndexProvider.Monitor
                 indexDescription( indexFile, index ), ExceptionUtils.getStackTrace( throwable ) ) );
     }
 
+    @Override
+    public void bloomFilterReport( Path indexFile, IndexDescriptor index, long memoryUsageBytes, double estimatedFalsePositiveRate,
+            long lookups, long skippedLookups )
+    {
+        StringJoiner joiner = new StringJoiner( ", ", "Schema index bloom filter: " + indexDescription( indexFile, index ) + " ", "" );
+        joiner.add( "Memory usage: " + bytesToString( memoryUsageBytes ) );
+        joiner.add( "Estimated false positive rate: " + String.format( "%.4f", estimatedFalsePositiveRate ) );
+        joiner.add( "Lookups: " + lookups );
+        joiner.add( "Skipped lookups: " + skippedLookups );
+        log.debug( joiner.toString() );
+    }
+
     private static String indexDescription( Path indexFile, IndexDescriptor indexDescriptor )
     {
         return "descriptor=" + indexDescriptor + ", indexFile=" + indexFile.toAbsolutePath();
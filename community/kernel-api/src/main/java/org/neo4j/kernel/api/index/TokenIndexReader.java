@@ -51,6 +51,23 @@ public interface TokenIndexReader extends IndexReader
     void query( IndexProgressor.EntityTokenClient client,
                 IndexQueryConstraints constraints, TokenPredicate query, EntityRange range, CursorContext cursorContext );
 
+    /**
+     * Queries a specific range of entities for the entities having all of the given tokens, i.e. the intersection of the entities of each token,
+     * and coordinates with the supplied {@link IndexProgressor.EntityTokenClient} to return the results. This is much cheaper than querying
+     * one of the tokens and filtering on the others, since the intersection is computed on the stored bit sets of the tokens.
+     * <p>
+     * The client is initialized with the first of the tokens, so any entities which the client adds for that token, e.g. from transaction state,
+     * still needs to be checked for the other tokens by the caller.
+     *
+     * @param client       a handle for the token reader to propagate the queried results.
+     * @param constraints  represents all constraints for this query like ordering, limit etc.
+     * @param query        the predicates to identify the tokens being queried, at least one.
+     * @param range        the range of entities that should be queried.
+     * @param cursorContext underlying page cursor context
+     */
+    void queryIntersection( IndexProgressor.EntityTokenClient client,
+                IndexQueryConstraints constraints, TokenPredicate[] query, EntityRange range, CursorContext cursorContext );
+
     TokenScan entityTokenScan( int tokenId, CursorContext cursorContext );
 
     PartitionedTokenScan entityTokenScan( int desiredNumberOfPartitions, CursorContext context, TokenPredicate query );
@@ -69,6 +86,12 @@ public interface TokenIndexReader extends IndexReader
 
         }
 
+        @Override
+        public void queryIntersection( IndexProgressor.EntityTokenClient client,
+                           IndexQueryConstraints constraints, TokenPredicate[] query, EntityRange range, CursorContext cursorContext )
+        {
+        }
+
         @Override
         public TokenScan entityTokenScan( int tokenId, CursorContext cursorContext )
         {
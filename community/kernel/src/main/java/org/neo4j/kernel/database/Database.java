@@ -506,6 +506,12 @@ public class Database extends LifecycleAdapter
             this.checkpointerLifecycle = new CheckpointerLifecycle( transactionLogModule.checkPointer(), databaseHealth, ioController );
 
             life.add( onStart( this::registerUpgradeListener ) );
+            if ( databaseConfig.get( GraphDatabaseInternalSettings.store_compaction_enabled ) )
+            {
+                life.add( new StoreCompactor( storageEngine, databaseDependencies.resolveDependency( TransactionCommitProcess.class ), locks,
+                        leaseService, ioController, scheduler, pageCacheTracer, readOnlyDatabaseChecker, clock, databaseConfig,
+                        internalLogProvider.getLog( StoreCompactor.class ), namedDatabaseId.name() ) );
+            }
             life.add( databaseHealth );
             life.add( databaseAvailabilityGuard );
             life.add( databaseAvailability );
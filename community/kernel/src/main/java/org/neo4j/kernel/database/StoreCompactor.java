@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.database;
+
+import java.time.Clock;
+import java.util.List;
+
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker;
+import org.neo4j.exceptions.KernelException;
+import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
+import org.neo4j.internal.kernel.api.security.AuthSubject;
+import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.kernel.impl.api.LeaseService;
+import org.neo4j.kernel.impl.api.LeaseService.NoLeaseClient;
+import org.neo4j.kernel.impl.api.TransactionCommitProcess;
+import org.neo4j.kernel.impl.api.TransactionToApply;
+import org.neo4j.kernel.impl.locking.Locks;
+import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.tracing.CommitEvent;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.lock.ResourceTypes;
+import org.neo4j.logging.Log;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.storageengine.api.AllNodeScan;
+import org.neo4j.storageengine.api.StorageCommand;
+import org.neo4j.storageengine.api.StorageEngine;
+import org.neo4j.storageengine.api.StorageNodeCursor;
+import org.neo4j.storageengine.api.StorageReader;
+import org.neo4j.storageengine.api.TransactionApplicationMode;
+import org.neo4j.storageengine.api.cursor.StoreCursors;
+
+import static java.lang.Math.toIntExact;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.commons.lang3.ArrayUtils.EMPTY_BYTE_ARRAY;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.store_compaction_batch_size;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.store_compaction_interval;
+import static org.neo4j.kernel.impl.api.KernelTransactions.SYSTEM_TRANSACTION_ID;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+import static org.neo4j.scheduler.JobMonitoringParams.systemJob;
+
+/**
+ * Background job which goes through all nodes in the store, a batch at a time, and asks the {@link StorageEngine} to
+ * {@link StorageEngine#createNodeCompactionCommands(long, CursorContext, StoreCursors) compact} each one of them.
+ * Each node gets compacted in its own small internal transaction, committed the same way as ordinary transactions,
+ * while holding an exclusive lock on the node. Nodes which are locked by other transactions are skipped until the next lap.
+ * The rate at which it runs is controlled by the configured interval and batch size, and the pages touched by every compaction
+ * transaction are reported to the database {@link IOController} which may choose to slow it down. Failures to compact a node are logged and
+ * the compaction carries on with the next node, the failed node is tried again in the next lap.
+ */
+class StoreCompactor extends LifecycleAdapter
+{
+    private static final String STORE_COMPACTION_TAG = "storeCompaction";
+
+    private final StorageEngine storageEngine;
+    private final TransactionCommitProcess commitProcess;
+    private final Locks locks;
+    private final LeaseService leaseService;
+    private final IOController ioController;
+    private final JobScheduler scheduler;
+    private final PageCacheTracer pageCacheTracer;
+    private final DatabaseReadOnlyChecker readOnlyChecker;
+    private final Clock clock;
+    private final Config config;
+    private final Log log;
+    private final String databaseName;
+    private final long intervalMillis;
+    private final int batchSize;
+
+    private volatile JobHandle<?> handle;
+    private volatile boolean stopped;
+    // Only keeps track of where in the store the previous batch ended, it's safe to use with any reader
+    private AllNodeScan scan;
+
+    StoreCompactor( StorageEngine storageEngine, TransactionCommitProcess commitProcess, Locks locks, LeaseService leaseService,
+            IOController ioController, JobScheduler scheduler, PageCacheTracer pageCacheTracer, DatabaseReadOnlyChecker readOnlyChecker,
+            Clock clock, Config config, Log log, String databaseName )
+    {
+        this.storageEngine = storageEngine;
+        this.commitProcess = commitProcess;
+        this.locks = locks;
+        this.leaseService = leaseService;
+        this.ioController = ioController;
+        this.scheduler = scheduler;
+        this.pageCacheTracer = pageCacheTracer;
+        this.readOnlyChecker = readOnlyChecker;
+        this.clock = clock;
+        this.config = config;
+        this.log = log;
+        this.databaseName = databaseName;
+        this.intervalMillis = config.get( store_compaction_interval ).toMillis();
+        this.batchSize = config.get( store_compaction_batch_size );
+    }
+
+    @Override
+    public void start()
+    {
+        stopped = false;
+        handle = scheduler.scheduleRecurring( Group.STORAGE_MAINTENANCE, systemJob( databaseName, "Store compaction" ), this::compactBatch,
+                intervalMillis, MILLISECONDS );
+    }
+
+    @Override
+    public void stop()
+    {
+        stopped = true;
+        if ( handle != null )
+        {
+            handle.cancel();
+            handle = null;
+        }
+    }
+
+    /**
+     * Compacts the next batch of nodes. Failures are logged, never thrown, so that the recurring job keeps running.
+     * @return number of nodes that were compacted.
+     */
+    int compactBatch()
+    {
+        if ( stopped || readOnlyChecker.isReadOnly() )
+        {
+            return 0;
+        }
+
+        int compacted = 0;
+        try ( CursorContext cursorContext = new CursorContext( pageCacheTracer.createPageCursorTracer( STORE_COMPACTION_TAG ) );
+              StoreCursors storeCursors = storageEngine.createStorageCursors( cursorContext );
+              Locks.Client lockClient = locks.newClient() )
+        {
+            lockClient.initialize( NoLeaseClient.INSTANCE, SYSTEM_TRANSACTION_ID, INSTANCE, config );
+            MutableLongList nodeIds = nextBatch( cursorContext, storeCursors );
+            for ( int i = 0; i < nodeIds.size() && !stopped; i++ )
+            {
+                long nodeId = nodeIds.get( i );
+                if ( !lockClient.tryExclusiveLock( ResourceTypes.NODE, nodeId ) )
+                {
+                    // Someone is working with this node right now, it'll be picked up in the next lap
+                    continue;
+                }
+                try
+                {
+                    if ( compactNode( nodeId, cursorContext, storeCursors ) )
+                    {
+                        compacted++;
+                    }
+                }
+                catch ( KernelException e )
+                {
+                    log.warn( format( "Store compaction of node %d failed, will try again in the next lap", nodeId ), e );
+                }
+                catch ( RuntimeException e )
+                {
+                    log.error( format( "Store compaction of node %d failed unexpectedly, will try again in the next lap", nodeId ), e );
+                }
+                finally
+                {
+                    lockClient.releaseExclusive( ResourceTypes.NODE, nodeId );
+                }
+            }
+        }
+        catch ( RuntimeException e )
+        {
+            log.error( "Store compaction failed unexpectedly, will try again in the next run", e );
+        }
+        return compacted;
+    }
+
+    private boolean compactNode( long nodeId, CursorContext cursorContext, StoreCursors storeCursors ) throws KernelException
+    {
+        List<StorageCommand> commands = storageEngine.createNodeCompactionCommands( nodeId, cursorContext, storeCursors );
+        if ( commands.isEmpty() )
+        {
+            return false;
+        }
+        PageCursorTracer cursorTracer = cursorContext.getCursorTracer();
+        long pinsBefore = cursorTracer.pins();
+        commit( commands, cursorContext, storeCursors );
+        // Every page pinned while applying the transaction is a page the compaction made dirty or had to read to do so
+        ioController.maybeLimitIO( toIntExact( cursorTracer.pins() - pinsBefore ), () -> {}, MajorFlushEvent.NULL );
+        return true;
+    }
+
+    private MutableLongList nextBatch( CursorContext cursorContext, StoreCursors storeCursors )
+    {
+        MutableLongList nodeIds = new LongArrayList( batchSize );
+        try ( StorageReader reader = storageEngine.newReader();
+              StorageNodeCursor nodeCursor = reader.allocateNodeCursor( cursorContext, storeCursors ) )
+        {
+            if ( scan == null )
+            {
+                scan = reader.allNodeScan();
+            }
+            if ( nodeCursor.scanBatch( scan, batchSize ) )
+            {
+                while ( nodeCursor.next() )
+                {
+                    nodeIds.add( nodeCursor.entityReference() );
+                }
+            }
+            else
+            {
+                // Reached the end of the store, start over from the beginning in the next run
+                scan = null;
+            }
+        }
+        return nodeIds;
+    }
+
+    private void commit( List<StorageCommand> commands, CursorContext cursorContext, StoreCursors storeCursors ) throws TransactionFailureException
+    {
+        PhysicalTransactionRepresentation transactionRepresentation = new PhysicalTransactionRepresentation( commands );
+        long time = clock.millis();
+        transactionRepresentation.setHeader( EMPTY_BYTE_ARRAY, time, storageEngine.metadataProvider().getLastClosedTransactionId(), time,
+                leaseService.newClient().leaseId(), AuthSubject.AUTH_DISABLED );
+        commitProcess.commit( new TransactionToApply( transactionRepresentation, cursorContext, storeCursors ), CommitEvent.NULL,
+                TransactionApplicationMode.INTERNAL );
+    }
+}
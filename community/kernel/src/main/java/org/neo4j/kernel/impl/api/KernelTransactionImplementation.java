@@ -71,6 +71,7 @@ import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.internal.schema.IndexPrototype;
 import org.neo4j.internal.schema.SchemaState;
 import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.context.EmptyVersionContext;
 import org.neo4j.io.pagecache.context.VersionContextSupplier;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracer;
@@ -184,6 +185,10 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
     private final ConstraintSemantics constraintSemantics;
     private final StorageLocks storageLocks;
     private CursorContext cursorContext;
+    /**
+     * Whether or not {@link #cursorContext}, and the cursors bound to it, are kept when this transaction is reset to be reused.
+     */
+    private final boolean reuseCursors;
     private final DatabaseReadOnlyChecker readOnlyDatabaseChecker;
     private final SecurityAuthorizationHandler securityAuthorizationHandler;
 
@@ -288,7 +293,14 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
         this.constraintSemantics = constraintSemantics;
         this.transactionalCursors = storageEngine.createStorageCursors( CursorContext.NULL );
         this.storageLocks = storageEngine.createStorageLocks( lockClient );
-        DefaultPooledCursors cursors = new DefaultPooledCursors( storageReader, transactionalCursors, config );
+        this.reuseCursors = config.get( GraphDatabaseInternalSettings.transaction_reuse_cursors ) &&
+                versionContextSupplier.createVersionContext() == EmptyVersionContext.EMPTY;
+        if ( reuseCursors )
+        {
+            this.cursorContext = newCursorContext();
+            this.transactionalCursors.reset( cursorContext );
+        }
+        DefaultPooledCursors cursors = new DefaultPooledCursors( storageReader, transactionalCursors, config, reuseCursors );
         this.securityAuthorizationHandler = new SecurityAuthorizationHandler( securityLog );
         this.allStoreHolder = new AllStoreHolder( storageReader, this, storageLocks, cursors, globalProcedures, schemaState,
                 indexingService, indexStatisticsStore, dependencies, memoryTracker );
@@ -321,6 +333,11 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
         this.kernelTransactions = kernelTransactions;
     }
 
+    private CursorContext newCursorContext()
+    {
+        return new CursorContext( pageCacheTracer.createPageCursorTracer( TRANSACTION_TAG ), versionContextSupplier.createVersionContext() );
+    }
+
     /**
      * Reset this transaction to a vanilla state, turning it into a logically new transaction.
      */
@@ -329,8 +346,11 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
     {
         assert memoryTracker.estimatedHeapMemory() == 0;
         assert memoryTracker.usedNativeMemory() == 0;
-        this.cursorContext = new CursorContext( pageCacheTracer.createPageCursorTracer( TRANSACTION_TAG ), versionContextSupplier.createVersionContext() );
-        this.transactionalCursors.reset( cursorContext );
+        if ( !reuseCursors )
+        {
+            this.cursorContext = newCursorContext();
+            this.transactionalCursors.reset( cursorContext );
+        }
         this.accessCapability = accessCapabilityFactory.newAccessCapability( readOnlyDatabaseChecker );
         this.kernelTransactionMonitor = KernelTransaction.NO_MONITOR;
         this.type = type;
@@ -1139,7 +1159,9 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
             releaseStatementResources();
             operations.release();
             commandCreationContext.close();
+            // Closes the page cursors, but the store cursors can still be used afterwards
             transactionalCursors.close();
+            // Reports and resets the page cursor events of this transaction, which leaves the context ready to be used by the next one
             cursorContext.close();
             initializationTrace = NONE;
             memoryTracker.reset();
@@ -376,7 +376,7 @@ public class MultipleIndexPopulator implements StoreScan.ExternalUpdatesCheck, A
 
     private IntStream propertyKeyIds( IndexPopulation population )
     {
-        return IntStream.of( population.schema().getPropertyIds() );
+        return IntStream.concat( IntStream.of( population.schema().getPropertyIds() ), IntStream.of( population.includedPropertyIds() ) );
     }
 
     private int[] entityTokenIds()
@@ -723,6 +723,12 @@ public class MultipleIndexPopulator implements StoreScan.ExternalUpdatesCheck, A
             return indexProxyStrategy.getIndexDescriptor().schema();
         }
 
+        @Override
+        public int[] includedPropertyIds()
+        {
+            return indexProxyStrategy.getIndexDescriptor().includedPropertyIds();
+        }
+
         @Override
         public String userDescription( TokenNameLookup tokenNameLookup )
         {
@@ -394,7 +394,7 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>>
                 if ( seek.next() )
                 {
                     long secondEntityId = key.getEntityId();
-                    throw new IndexEntryConflictException( firstEntityId, secondEntityId, key.asValues() );
+                    throw new IndexEntryConflictException( firstEntityId, secondEntityId, key.asKeyValues() );
                 }
             }
         }
@@ -431,7 +431,7 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>>
             Comparator<KEY> samplingComparator = descriptor.isUnique() ? null : layout::compareValue;
             try ( var merger = new PartMerger<>( populationWorkScheduler, parts, layout, samplingComparator, cancellation, PartMerger.DEFAULT_BATCH_SIZE );
                   var allEntries = merger.startMerge();
-                  var writer = tree.writer( 1, cursorContext ) )
+                  var writer = scanUpdatesWriter( cursorContext ) )
             {
                 while ( allEntries.next() && !cancellation.cancelled() )
                 {
@@ -443,6 +443,16 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>>
         }
     }
 
+    /**
+     * The merged scan updates come in key order and the tree is empty at this point, so for non-unique indexes the tree is built bottom-up
+     * with completely full leaves, like the ones a writer splitting at the far right would leave behind. For unique indexes conflicting keys are
+     * put again with relaxed uniqueness, i.e. after keys which may be higher than themselves, so they go through the ordinary writer.
+     */
+    private Writer<KEY,NullValue> scanUpdatesWriter( CursorContext cursorContext ) throws IOException
+    {
+        return descriptor.isUnique() ? tree.writer( 1, cursorContext ) : tree.bulkLoader( 1, cursorContext );
+    }
+
     @Override
     public IndexUpdater newPopulatingUpdater( CursorContext cursorContext )
     {
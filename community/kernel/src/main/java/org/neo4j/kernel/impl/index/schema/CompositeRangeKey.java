@@ -25,17 +25,29 @@ import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.util.Preconditions;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueGroup;
+import org.neo4j.values.storable.Values;
 
 /**
  * {@link RangeKey} which has an array of {@link RangeKey} inside and can therefore hold composite key state.
  * For single-keys please instead use the more efficient {@link RangeKey}.
+ * <p>
+ * The first {@code keySlots} slots make up the compared part of the key. Any slots after those hold included values,
+ * which are stored along with the key but never take part in comparisons or minimal splitters.
  */
 final class CompositeRangeKey extends RangeKey
 {
+    private final int keySlots;
     private RangeKey[] states;
 
     CompositeRangeKey( int slots )
     {
+        this( slots, slots );
+    }
+
+    CompositeRangeKey( int keySlots, int slots )
+    {
+        Preconditions.requireBetween( keySlots, 1, slots + 1 );
+        this.keySlots = keySlots;
         states = new RangeKey[slots];
         for ( int i = 0; i < slots; i++ )
         {
@@ -66,6 +78,21 @@ final class CompositeRangeKey extends RangeKey
         return values;
     }
 
+    @Override
+    Value[] asKeyValues()
+    {
+        if ( keySlots == numberOfStateSlots() )
+        {
+            return asValues();
+        }
+        Value[] values = new Value[keySlots];
+        for ( int i = 0; i < keySlots; i++ )
+        {
+            values[i] = stateSlot( i ).asValue();
+        }
+        return values;
+    }
+
     @Override
     void initValueAsLowest( int stateSlot, ValueGroup valueGroup )
     {
@@ -81,8 +108,7 @@ final class CompositeRangeKey extends RangeKey
     @Override
     int compareValueToInternal( RangeKey other )
     {
-        int slots = numberOfStateSlots();
-        for ( int i = 0; i < slots; i++ )
+        for ( int i = 0; i < keySlots; i++ )
         {
             int comparison = stateSlot( i ).compareValueToInternal( other.stateSlot( i ) );
             if ( comparison != 0 )
@@ -195,7 +221,7 @@ final class CompositeRangeKey extends RangeKey
         assert right.numberOfStateSlots() == stateCount;
         assert into.numberOfStateSlots() == stateCount;
 
-        while ( compare == 0 && firstStateToDiffer < stateCount )
+        while ( compare == 0 && firstStateToDiffer < keySlots )
         {
             RangeKey leftState = left.stateSlot( firstStateToDiffer );
             RangeKey rightState = right.stateSlot( firstStateToDiffer );
@@ -207,12 +233,17 @@ final class CompositeRangeKey extends RangeKey
         {
             into.stateSlot( i ).copyFromInternal( right.stateSlot( i ) );
         }
-        for ( int i = firstStateToDiffer; i < stateCount; i++ )
+        for ( int i = firstStateToDiffer; i < keySlots; i++ )
         {
             RangeKey leftState = left.stateSlot( i );
             RangeKey rightState = right.stateSlot( i );
             rightState.minimalSplitterInternal( leftState, rightState, into.stateSlot( i ) );
         }
+        // Included values are not needed to guide searches, so keep the splitter small by leaving them absent
+        for ( int i = keySlots; i < stateCount; i++ )
+        {
+            into.stateSlot( i ).writeValue( Values.NO_VALUE, Inclusion.NEUTRAL );
+        }
     }
 
     @Override
@@ -75,6 +75,61 @@ public class DefaultTokenIndexReader implements TokenIndexReader
         }
     }
 
+    @Override
+    public void queryIntersection(
+            IndexProgressor.EntityTokenClient client, IndexQueryConstraints constraints, TokenPredicate[] query, EntityRange range, CursorContext cursorContext )
+    {
+        Preconditions.checkArgument( query.length > 0, "Expected at least one token to query" );
+        if ( query.length == 1 )
+        {
+            query( client, constraints, query[0], range, cursorContext );
+            return;
+        }
+
+        final IndexOrder order = constraints.order();
+        int[] tokenIds = new int[query.length];
+        @SuppressWarnings( "unchecked" )
+        Seeker<TokenScanKey,TokenScanValue>[] seekers = new Seeker[query.length];
+        try
+        {
+            for ( int i = 0; i < query.length; i++ )
+            {
+                tokenIds[i] = query[i].tokenId();
+                seekers[i] = seekerForToken( range, tokenIds[i], order, cursorContext );
+            }
+        }
+        catch ( IOException e )
+        {
+            closeAll( seekers, e );
+            throw new UncheckedIOException( e );
+        }
+
+        // Re-seeks from a given id range towards the end of the queried range, which depends on the order, see seekerForToken
+        long toIdRange = rangeOf( order == IndexOrder.DESCENDING ? range.fromInclusive : range.toExclusive );
+        TokenScanIntersectionProgressor.TokenSeekerFactory seekerFactory = ( tokenId, fromIdRange ) ->
+                index.seek( new TokenScanKey( tokenId, fromIdRange ), new TokenScanKey( tokenId, toIdRange ), cursorContext );
+        IndexProgressor progressor = new TokenScanIntersectionProgressor( tokenIds, seekers, seekerFactory, client, order, range );
+        client.initialize( progressor, tokenIds[0], order );
+    }
+
+    private static void closeAll( Seeker<TokenScanKey,TokenScanValue>[] seekers, IOException failure )
+    {
+        for ( Seeker<TokenScanKey,TokenScanValue> seeker : seekers )
+        {
+            if ( seeker != null )
+            {
+                try
+                {
+                    seeker.close();
+                }
+                catch ( IOException e )
+                {
+                    failure.addSuppressed( e );
+                }
+            }
+        }
+    }
+
     @Override
     public TokenScan entityTokenScan( int tokenId, CursorContext cursorContext )
     {
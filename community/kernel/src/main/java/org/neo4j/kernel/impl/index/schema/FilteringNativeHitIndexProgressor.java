@@ -36,7 +36,7 @@ class FilteringNativeHitIndexProgressor<KEY extends NativeIndexKey<KEY>> extends
     @Override
     protected boolean acceptValue( Value[] values )
     {
-        for ( int i = 0; i < values.length; i++ )
+        for ( int i = 0; i < filter.length; i++ )
         {
             if ( !filter[i].acceptsValue( values[i] ) )
             {
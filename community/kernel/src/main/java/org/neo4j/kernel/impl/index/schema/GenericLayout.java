@@ -27,12 +27,19 @@ class GenericLayout extends IndexLayout<BtreeKey>
 {
     private final int numberOfSlots;
     private final IndexSpecificSpaceFillingCurveSettings spatialSettings;
+    private final boolean keyPrefixCompression;
 
     GenericLayout( int numberOfSlots, IndexSpecificSpaceFillingCurveSettings spatialSettings )
+    {
+        this( numberOfSlots, spatialSettings, false );
+    }
+
+    GenericLayout( int numberOfSlots, IndexSpecificSpaceFillingCurveSettings spatialSettings, boolean keyPrefixCompression )
     {
         super( false, Layout.namedIdentifier( "NSIL", numberOfSlots ), 0, 5 );
         this.numberOfSlots = numberOfSlots;
         this.spatialSettings = spatialSettings;
+        this.keyPrefixCompression = keyPrefixCompression;
     }
 
     @Override
@@ -76,6 +83,19 @@ class GenericLayout extends IndexLayout<BtreeKey>
         right.minimalSplitter( left, right, into );
     }
 
+    @Override
+    public int keyPrefixCompressionOffset()
+    {
+        // Entity id is written first, values after it are what neighbouring keys share
+        return NativeIndexKey.ENTITY_ID_SIZE;
+    }
+
+    @Override
+    public boolean createWithKeyPrefixCompression()
+    {
+        return keyPrefixCompression;
+    }
+
     IndexSpecificSpaceFillingCurveSettings getSpaceFillingCurveSettings()
     {
         return spatialSettings;
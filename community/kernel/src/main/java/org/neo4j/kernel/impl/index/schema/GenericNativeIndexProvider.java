@@ -134,6 +134,7 @@ public class GenericNativeIndexProvider extends NativeIndexProvider<BtreeKey,Gen
      */
     private final SpaceFillingCurveConfiguration configuration;
     private final boolean archiveFailedIndex;
+    private final boolean keyPrefixCompression;
     private final Config config;
 
     public GenericNativeIndexProvider( DatabaseIndexContext databaseIndexContext, IndexDirectoryStructure.Factory directoryStructureFactory,
@@ -144,6 +145,7 @@ public class GenericNativeIndexProvider extends NativeIndexProvider<BtreeKey,Gen
         this.configuredSettings = new ConfiguredSpaceFillingCurveSettingsCache( config );
         this.configuration = getConfiguredSpaceFillingCurveConfiguration( config );
         this.archiveFailedIndex = config.get( GraphDatabaseInternalSettings.archive_failed_index );
+        this.keyPrefixCompression = config.get( GraphDatabaseInternalSettings.index_key_prefix_compression_enabled );
         this.config = config;
     }
 
@@ -176,7 +178,7 @@ public class GenericNativeIndexProvider extends NativeIndexProvider<BtreeKey,Gen
         int numberOfSlots = descriptor.schema().getPropertyIds().length;
         IndexConfig indexConfig = descriptor.getIndexConfig();
         Map<CoordinateReferenceSystem,SpaceFillingCurveSettings> settings = SpatialIndexConfig.extractSpatialConfig( indexConfig );
-        return new GenericLayout( numberOfSlots, new IndexSpecificSpaceFillingCurveSettings( settings ) );
+        return new GenericLayout( numberOfSlots, new IndexSpecificSpaceFillingCurveSettings( settings ), keyPrefixCompression );
     }
 
     @Override
@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.neo4j.gis.spatial.index.curves.SpaceFillingCurve;
@@ -33,7 +34,6 @@ import org.neo4j.internal.kernel.api.QueryContext;
 import org.neo4j.internal.kernel.api.security.AccessMode;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.internal.schema.IndexQuery.IndexQueryType;
-import org.neo4j.kernel.api.index.BridgingIndexProgressor;
 import org.neo4j.kernel.api.index.IndexProgressor;
 import org.neo4j.kernel.impl.index.schema.config.IndexSpecificSpaceFillingCurveSettings;
 import org.neo4j.values.storable.CoordinateReferenceSystem;
@@ -79,13 +79,15 @@ class GenericNativeIndexReader extends NativeIndexReader<BtreeKey>
             {
                 // If there's a GeometryRangeQuery among the predicates then this query changes from a straight-forward: build from/to and seek...
                 // into a query that is split into multiple sub-queries. Predicates both before and after will have to be accompanied each sub-query.
-                BridgingIndexProgressor multiProgressor = new BridgingIndexProgressor( client, descriptor.schema().getPropertyIds() );
-                client.initialize( descriptor, multiProgressor, accessMode, false, constraints, query );
+                // The sub-queries are sorted and sought together in one multi-seek.
                 double[] from = geometryRangePredicate.from() == null ? null : geometryRangePredicate.from().coordinate();
                 double[] to = geometryRangePredicate.to() == null ? null : geometryRangePredicate.to().coordinate();
                 CoordinateReferenceSystem crs = geometryRangePredicate.crs();
                 SpaceFillingCurve curve = spaceFillingCurveSettings.forCrs( crs );
                 List<SpaceFillingCurve.LongRange> ranges = curve.getTilesIntersectingEnvelope( from, to, configuration );
+                List<BtreeKey> treeKeysFrom = new ArrayList<>( ranges.size() );
+                List<BtreeKey> treeKeysTo = new ArrayList<>( ranges.size() );
+                boolean needFiltering = false;
                 for ( SpaceFillingCurve.LongRange range : ranges )
                 {
                     // Here's a sub-query that we'll have to do for this geometry range. Build this query from all predicates
@@ -93,10 +95,12 @@ class GenericNativeIndexReader extends NativeIndexReader<BtreeKey>
                     BtreeKey treeKeyFrom = layout.newKey();
                     BtreeKey treeKeyTo = layout.newKey();
                     initializeFromToKeys( treeKeyFrom, treeKeyTo );
-                    boolean needFiltering = initializeRangeForGeometrySubQuery( treeKeyFrom, treeKeyTo, query, crs, range );
-                    startSeekForInitializedRange( multiProgressor, treeKeyFrom, treeKeyTo, context.cursorContext(), accessMode,
-                                                  needFiltering, constraints, query );
+                    needFiltering |= initializeRangeForGeometrySubQuery( treeKeyFrom, treeKeyTo, query, crs, range );
+                    treeKeysFrom.add( treeKeyFrom );
+                    treeKeysTo.add( treeKeyTo );
                 }
+                startMultiSeekForInitializedRanges( client, treeKeysFrom, treeKeysTo, context.cursorContext(), accessMode,
+                                                    needFiltering, constraints, query );
             }
             catch ( IllegalArgumentException e )
             {
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.neo4j.hashing.HashFunction;
+import org.neo4j.values.storable.Value;
+
+/**
+ * In-memory bloom filter over the values of the entries in a {@link NativeIndexAccessor native index}, letting exact lookups of values
+ * which are not in the index be answered without seeking in the tree.
+ * <p>
+ * Values are only ever added to the filter, never removed, so entries that are removed or changed leave bits behind and raise the
+ * false positive rate until the index is opened again, at which point the filter is rebuilt from the tree.
+ * <p>
+ * The filter can be updated and queried concurrently. Updaters add the values of an entry to the filter before inserting
+ * it into the tree, which means that a lookup not finding the values in the filter can't miss an entry that was in the tree
+ * when the lookup started.
+ */
+class IndexBloomFilter
+{
+    private static final HashFunction HASH = HashFunction.incrementalXXH64();
+    private static final long HASH_INIT = HASH.initialise( 0x6a09e667f3bcc908L );
+    private static final int MIN_NUMBER_OF_BITS = 1 << 16;
+    private static final long MAX_NUMBER_OF_BITS = 1L << 33;
+    private static final int MAX_NUMBER_OF_HASHES = 16;
+
+    private final AtomicLongArray words;
+    private final long mask;
+    private final int numberOfHashes;
+    private final LongAdder bitsSet = new LongAdder();
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder negativeProbes = new LongAdder();
+
+    private IndexBloomFilter( long numberOfBits, int numberOfHashes )
+    {
+        this.words = new AtomicLongArray( (int) (numberOfBits >>> 6) );
+        this.mask = numberOfBits - 1;
+        this.numberOfHashes = numberOfHashes;
+    }
+
+    /**
+     * @param expectedNumberOfEntries number of entries the filter is sized for. The filter still works correctly with more entries,
+     * only with a higher false positive rate.
+     * @param bitsPerEntry number of bits to use per expected entry.
+     * @return a new, empty filter.
+     */
+    static IndexBloomFilter create( long expectedNumberOfEntries, int bitsPerEntry )
+    {
+        long wantedBits = Math.max( MIN_NUMBER_OF_BITS, Math.max( 0, expectedNumberOfEntries ) * bitsPerEntry );
+        long numberOfBits = Math.min( MAX_NUMBER_OF_BITS, Long.highestOneBit( wantedBits - 1 ) << 1 );
+        int numberOfHashes = (int) Math.max( 1, Math.min( MAX_NUMBER_OF_HASHES, Math.round( bitsPerEntry * Math.log( 2 ) ) ) );
+        return new IndexBloomFilter( numberOfBits, numberOfHashes );
+    }
+
+    void add( NativeIndexKey<?> key )
+    {
+        long hash = hash( key.asKeyValues() );
+        long increment = incrementOf( hash );
+        for ( int i = 0; i < numberOfHashes; i++, hash += increment )
+        {
+            if ( setBit( hash & mask ) )
+            {
+                bitsSet.increment();
+            }
+        }
+    }
+
+    /**
+     * @param key key with its values initialized for an exact lookup.
+     * @return {@code false} if no entry with the values of the given key can be in the index, otherwise {@code true}.
+     */
+    boolean mightContain( NativeIndexKey<?> key )
+    {
+        probes.increment();
+        long hash = hash( key.asKeyValues() );
+        long increment = incrementOf( hash );
+        for ( int i = 0; i < numberOfHashes; i++, hash += increment )
+        {
+            if ( !isSet( hash & mask ) )
+            {
+                negativeProbes.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long memoryUsage()
+    {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    /**
+     * @return the probability of {@link #mightContain(NativeIndexKey)} returning {@code true} for values not in the index,
+     * given the current number of set bits.
+     */
+    double estimatedFalsePositiveRate()
+    {
+        return Math.pow( (double) bitsSet.sum() / (mask + 1), numberOfHashes );
+    }
+
+    long probes()
+    {
+        return probes.sum();
+    }
+
+    long negativeProbes()
+    {
+        return negativeProbes.sum();
+    }
+
+    private boolean setBit( long bit )
+    {
+        int index = (int) (bit >>> 6);
+        long bitMask = 1L << bit;
+        long word;
+        do
+        {
+            word = words.get( index );
+            if ( (word & bitMask) != 0 )
+            {
+                return false;
+            }
+        }
+        while ( !words.compareAndSet( index, word, word | bitMask ) );
+        return true;
+    }
+
+    private boolean isSet( long bit )
+    {
+        return (words.get( (int) (bit >>> 6) ) & (1L << bit)) != 0;
+    }
+
+    /**
+     * The bit positions are derived from one 64-bit hash by double hashing, where the increment is made odd so that it's
+     * co-prime with the power-of-two number of bits.
+     */
+    private static long incrementOf( long hash )
+    {
+        return Long.rotateLeft( hash, 32 ) | 1;
+    }
+
+    /**
+     * Hashes on {@link Value#hashCode()} rather than {@link Value#updateHash(HashFunction, long)} since the former is consistent with
+     * value equality across types, e.g. for {@code 1} and {@code 1.0}, which the index treats as equal too.
+     */
+    private static long hash( Value[] values )
+    {
+        long hash = HASH_INIT;
+        for ( Value value : values )
+        {
+            hash = HASH.update( hash, value.hashCode() );
+        }
+        return HASH.finalise( hash );
+    }
+}
@@ -52,7 +52,7 @@ abstract class NativeIndex<KEY extends NativeIndexKey<KEY>> implements Consisten
     private final Monitors monitors;
     private final String monitorTag;
     private final DatabaseReadOnlyChecker readOnlyChecker;
-    private final PageCacheTracer pageCacheTracer;
+    final PageCacheTracer pageCacheTracer;
     private final String databaseName;
 
     protected GBPTree<KEY,NullValue> tree;
@@ -88,8 +88,12 @@ abstract class NativeIndex<KEY extends NativeIndexKey<KEY>> implements Consisten
     private GBPTree.Monitor treeMonitor()
     {
         GBPTree.Monitor treeMonitor = monitors.newMonitor( GBPTree.Monitor.class, monitorTag );
-        IndexProvider.Monitor indexMonitor = monitors.newMonitor( IndexProvider.Monitor.class, monitorTag );
-        return new IndexMonitorAdaptor( treeMonitor, indexMonitor, indexFiles, descriptor );
+        return new IndexMonitorAdaptor( treeMonitor, indexMonitor(), indexFiles, descriptor );
+    }
+
+    IndexProvider.Monitor indexMonitor()
+    {
+        return monitors.newMonitor( IndexProvider.Monitor.class, monitorTag );
     }
 
     private void ensureDirectoryExist()
@@ -45,8 +45,11 @@ import static org.neo4j.kernel.impl.index.schema.NativeIndexPopulator.BYTE_ONLIN
 public abstract class NativeIndexAccessor<KEY extends NativeIndexKey<KEY>> extends NativeIndex<KEY>
         implements IndexAccessor
 {
-    private final NativeIndexUpdater<KEY> singleUpdater;
+    private static final String BLOOM_FILTER_BUILD_TAG = "buildIndexBloomFilter";
+
+    private NativeIndexUpdater<KEY> singleUpdater;
     final NativeIndexHeaderWriter headerWriter;
+    IndexBloomFilter bloomFilter;
 
     NativeIndexAccessor( DatabaseIndexContext databaseIndexContext, IndexFiles indexFiles, IndexLayout<KEY> layout,
             IndexDescriptor descriptor )
@@ -78,6 +81,39 @@ public abstract class NativeIndexAccessor<KEY extends NativeIndexKey<KEY>> exten
         }
     }
 
+    /**
+     * Builds an {@link IndexBloomFilter} from the entries currently in the tree, which will from here on be kept up to date by the updater
+     * and consulted by readers for exact lookups. Expected to be called by sub-classes after the tree has been instantiated.
+     * @param bitsPerEntry number of bits to use per entry in the filter.
+     */
+    void buildBloomFilter( int bitsPerEntry )
+    {
+        KEY lowest = layout.newKey();
+        lowest.initialize( Long.MIN_VALUE );
+        lowest.initValuesAsLowest();
+        KEY highest = layout.newKey();
+        highest.initialize( Long.MAX_VALUE );
+        highest.initValuesAsHighest();
+        try ( CursorContext cursorContext = new CursorContext( pageCacheTracer.createPageCursorTracer( BLOOM_FILTER_BUILD_TAG ) ) )
+        {
+            // Sized with headroom for the index to grow to twice its current size before the false positive rate degrades
+            IndexBloomFilter filter = IndexBloomFilter.create( 2 * estimateNumberOfEntries( cursorContext ), bitsPerEntry );
+            try ( Seeker<KEY,NullValue> seeker = tree.seek( lowest, highest, cursorContext ) )
+            {
+                while ( seeker.next() )
+                {
+                    filter.add( seeker.key() );
+                }
+            }
+            bloomFilter = filter;
+            singleUpdater = new NativeIndexUpdater<>( layout.newKey(), indexUpdateIgnoreStrategy(), filter );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
     /**
      * {@link IndexUpdateIgnoreStrategy Ignore strategy} to be used by index updater.
      * Sub-classes are expected to override this method if they want to use something
@@ -93,6 +129,11 @@ public abstract class NativeIndexAccessor<KEY extends NativeIndexKey<KEY>> exten
     public void force( CursorContext cursorContext )
     {
         tree.checkpoint( cursorContext );
+        if ( bloomFilter != null )
+        {
+            indexMonitor().bloomFilterReport( indexFiles.getStoreFile(), descriptor, bloomFilter.memoryUsage(), bloomFilter.estimatedFalsePositiveRate(),
+                    bloomFilter.probes(), bloomFilter.negativeProbes() );
+        }
     }
 
     @Override
@@ -184,7 +225,7 @@ public abstract class NativeIndexAccessor<KEY extends NativeIndexKey<KEY>> exten
                     @Override
                     public Value[] values()
                     {
-                        return seeker.key().asValues();
+                        return seeker.key().asKeyValues();
                     }
 
                     @Override
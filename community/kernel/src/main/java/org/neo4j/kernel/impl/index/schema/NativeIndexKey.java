@@ -92,6 +92,14 @@ abstract class NativeIndexKey<SELF extends NativeIndexKey<SELF>> extends Tempora
 
     abstract Value[] asValues();
 
+    /**
+     * @return the values of the compared part of this key, i.e. {@link #asValues()} without any trailing included values.
+     */
+    Value[] asKeyValues()
+    {
+        return asValues();
+    }
+
     abstract void initValueAsLowest( int stateSlot, ValueGroup valueGroup );
 
     abstract void initValueAsHighest( int stateSlot, ValueGroup valueGroup );
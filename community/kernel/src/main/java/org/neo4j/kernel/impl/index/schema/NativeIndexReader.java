@@ -21,7 +21,10 @@ package org.neo4j.kernel.impl.index.schema;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 
 import org.neo4j.index.internal.gbptree.GBPTree;
@@ -33,6 +36,7 @@ import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotFoundKernelExcept
 import org.neo4j.internal.kernel.api.security.AccessMode;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.internal.schema.IndexOrder;
+import org.neo4j.internal.schema.IndexQuery.IndexQueryType;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.impl.FileIsNotMappedException;
 import org.neo4j.kernel.api.index.IndexProgressor;
@@ -40,6 +44,7 @@ import org.neo4j.kernel.api.index.IndexSampler;
 import org.neo4j.kernel.api.index.ValueIndexReader;
 import org.neo4j.util.Preconditions;
 import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueGroup;
 
 import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCause;
 import static org.neo4j.kernel.impl.index.schema.NativeIndexKey.Inclusion.NEUTRAL;
@@ -49,12 +54,23 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>> implements Val
     protected final IndexDescriptor descriptor;
     final IndexLayout<KEY> layout;
     final GBPTree<KEY,NullValue> tree;
+    private final IndexBloomFilter bloomFilter;
 
     NativeIndexReader( GBPTree<KEY,NullValue> tree, IndexLayout<KEY> layout, IndexDescriptor descriptor )
+    {
+        this( tree, layout, descriptor, null );
+    }
+
+    /**
+     * @param bloomFilter {@link IndexBloomFilter} to check exact lookups against before seeking in the tree,
+     * or {@code null} if there's no filter for the index.
+     */
+    NativeIndexReader( GBPTree<KEY,NullValue> tree, IndexLayout<KEY> layout, IndexDescriptor descriptor, IndexBloomFilter bloomFilter )
     {
         this.tree = tree;
         this.layout = layout;
         this.descriptor = descriptor;
+        this.bloomFilter = bloomFilter;
     }
 
     @Override
@@ -104,6 +120,16 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>> implements Val
             treeKeyFrom.initFromValue( i, propertyValues[i], NEUTRAL );
             treeKeyTo.initFromValue( i, propertyValues[i], NEUTRAL );
         }
+        for ( int i = propertyValues.length; i < treeKeyFrom.numberOfStateSlots(); i++ )
+        {
+            // Any remaining slots hold included values, which are not compared, but still need a state
+            treeKeyFrom.initValueAsLowest( i, ValueGroup.UNKNOWN );
+            treeKeyTo.initValueAsHighest( i, ValueGroup.UNKNOWN );
+        }
+        if ( bloomFilter != null && !bloomFilter.mightContain( treeKeyFrom ) )
+        {
+            return 0;
+        }
         try ( Seeker<KEY,NullValue> seeker = tree.seek( treeKeyFrom, treeKeyTo, cursorContext ) )
         {
             long count = 0;
@@ -135,6 +161,11 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>> implements Val
         initializeFromToKeys( treeKeyFrom, treeKeyTo );
 
         boolean needFilter = initializeRangeForQuery( treeKeyFrom, treeKeyTo, predicates );
+        if ( bloomFilter != null && isExactQuery( predicates ) && !bloomFilter.mightContain( treeKeyFrom ) )
+        {
+            cursor.initialize( descriptor, IndexProgressor.EMPTY, accessMode, false, constraints, predicates );
+            return;
+        }
         startSeekForInitializedRange( cursor, treeKeyFrom, treeKeyTo, context.cursorContext(), accessMode, needFilter, constraints, predicates );
     }
 
@@ -144,6 +175,18 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>> implements Val
         treeKeyTo.initialize( Long.MAX_VALUE );
     }
 
+    private static boolean isExactQuery( PropertyIndexQuery[] predicates )
+    {
+        for ( PropertyIndexQuery predicate : predicates )
+        {
+            if ( predicate.type() != IndexQueryType.EXACT )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
     abstract void validateQuery( IndexQueryConstraints constraints, PropertyIndexQuery[] predicates );
 
     /**
@@ -171,6 +214,50 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>> implements Val
         }
     }
 
+    /**
+     * Like {@link #startSeekForInitializedRange(IndexProgressor.EntityValueClient, NativeIndexKey, NativeIndexKey, CursorContext, AccessMode,
+     * boolean, IndexQueryConstraints, PropertyIndexQuery...)}, but for multiple ranges making up the result of one query,
+     * like the sub-ranges of a geometry range query. The ranges are sought with a single {@link GBPTree#multiSeek(List, List, CursorContext)}
+     * and must therefore be sorted in ascending order and must not overlap.
+     */
+    void startMultiSeekForInitializedRanges( IndexProgressor.EntityValueClient client, List<KEY> treeKeysFrom, List<KEY> treeKeysTo,
+            CursorContext cursorContext, AccessMode accessMode, boolean needFilter, IndexQueryConstraints constraints, PropertyIndexQuery... query )
+    {
+        List<KEY> froms = new ArrayList<>( treeKeysFrom.size() );
+        List<KEY> tos = new ArrayList<>( treeKeysTo.size() );
+        for ( int i = 0; i < treeKeysFrom.size(); i++ )
+        {
+            if ( !isEmptyRange( treeKeysFrom.get( i ), treeKeysTo.get( i ) ) )
+            {
+                froms.add( treeKeysFrom.get( i ) );
+                tos.add( treeKeysTo.get( i ) );
+            }
+        }
+        if ( froms.isEmpty() )
+        {
+            client.initialize( descriptor, IndexProgressor.EMPTY, accessMode, false, constraints, query );
+            return;
+        }
+        if ( constraints.order() == IndexOrder.DESCENDING )
+        {
+            List<KEY> tmpKeys = froms;
+            froms = tos;
+            tos = tmpKeys;
+            Collections.reverse( froms );
+            Collections.reverse( tos );
+        }
+        try
+        {
+            Seeker<KEY,NullValue> seeker = tree.multiSeek( froms, tos, cursorContext );
+            IndexProgressor hitProgressor = getIndexProgressor( seeker, client, needFilter, query );
+            client.initialize( descriptor, hitProgressor, accessMode, false, constraints, query );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
     Seeker<KEY,NullValue> makeIndexSeeker( KEY treeKeyFrom, KEY treeKeyTo, IndexOrder indexOrder, CursorContext cursorContext ) throws IOException
     {
         if ( indexOrder == IndexOrder.DESCENDING )
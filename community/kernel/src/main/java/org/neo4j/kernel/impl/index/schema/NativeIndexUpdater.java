@@ -28,20 +28,31 @@ import org.neo4j.storageengine.api.ValueIndexEntryUpdate;
 import org.neo4j.values.storable.Value;
 
 import static org.neo4j.kernel.impl.index.schema.NativeIndexKey.Inclusion.NEUTRAL;
+import static org.neo4j.storageengine.api.UpdateMode.REMOVED;
 
 class NativeIndexUpdater<KEY extends NativeIndexKey<KEY>> implements IndexUpdater
 {
     private final KEY treeKey;
     private final IndexUpdateIgnoreStrategy ignoreStrategy;
+    private final IndexBloomFilter bloomFilter;
     private final ConflictDetectingValueMerger<KEY,Value[]> conflictDetectingValueMerger = new ThrowingConflictDetector<>( true );
     private Writer<KEY,NullValue> writer;
 
     private boolean closed = true;
 
     NativeIndexUpdater( KEY treeKey, IndexUpdateIgnoreStrategy ignoreStrategy )
+    {
+        this( treeKey, ignoreStrategy, null );
+    }
+
+    /**
+     * @param bloomFilter {@link IndexBloomFilter} to add the values of added entries to, or {@code null} if there's no filter for the index.
+     */
+    NativeIndexUpdater( KEY treeKey, IndexUpdateIgnoreStrategy ignoreStrategy, IndexBloomFilter bloomFilter )
     {
         this.treeKey = treeKey;
         this.ignoreStrategy = ignoreStrategy;
+        this.bloomFilter = bloomFilter;
     }
 
     NativeIndexUpdater<KEY> initialize( Writer<KEY,NullValue> writer )
@@ -61,6 +72,12 @@ class NativeIndexUpdater<KEY extends NativeIndexKey<KEY>> implements IndexUpdate
     {
         assertOpen();
         ValueIndexEntryUpdate<?> valueUpdate = asValueUpdate( update );
+        if ( bloomFilter != null && valueUpdate.updateMode() != REMOVED && !ignoreStrategy.ignore( valueUpdate.values() ) )
+        {
+            // Must be added before the entry is inserted into the tree, see IndexBloomFilter
+            initializeKeyFromUpdate( treeKey, valueUpdate.getEntityId(), valueUpdate.values() );
+            bloomFilter.add( treeKey );
+        }
         processUpdate( treeKey, valueUpdate, writer, conflictDetectingValueMerger, ignoreStrategy );
     }
 
@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.List;
@@ -33,7 +34,6 @@ import org.neo4j.internal.kernel.api.security.AccessMode;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.internal.schema.IndexOrder;
 import org.neo4j.internal.schema.IndexQuery.IndexQueryType;
-import org.neo4j.kernel.api.index.BridgingIndexProgressor;
 import org.neo4j.kernel.api.index.IndexProgressor;
 import org.neo4j.kernel.impl.index.schema.config.IndexSpecificSpaceFillingCurveSettings;
 import org.neo4j.values.storable.CoordinateReferenceSystem;
@@ -107,14 +107,14 @@ class PointIndexReader extends NativeIndexReader<PointKey>
             try
             {
                 // With GeometryRangeQuery predicate this query changes from a straight-forward: build from/to and seek...
-                // into a query that is split into multiple sub-queries.
-                BridgingIndexProgressor multiProgressor = new BridgingIndexProgressor( client, descriptor.schema().getPropertyIds() );
-                client.initialize( descriptor, multiProgressor, accessMode, false, constraints, geometryRangePredicate );
+                // into a query that is split into multiple sub-queries, which are sorted and sought together in one multi-seek.
                 double[] from = geometryRangePredicate.from() == null ? null : geometryRangePredicate.from().coordinate();
                 double[] to = geometryRangePredicate.to() == null ? null : geometryRangePredicate.to().coordinate();
                 CoordinateReferenceSystem crs = geometryRangePredicate.crs();
                 SpaceFillingCurve curve = spaceFillingCurveSettings.forCrs( crs );
                 List<SpaceFillingCurve.LongRange> ranges = curve.getTilesIntersectingEnvelope( from, to, configuration );
+                List<PointKey> treeKeysFrom = new ArrayList<>( ranges.size() );
+                List<PointKey> treeKeysTo = new ArrayList<>( ranges.size() );
                 for ( SpaceFillingCurve.LongRange range : ranges )
                 {
                     // Here's a sub-query that we'll have to do for this geometry range.
@@ -125,9 +125,11 @@ class PointIndexReader extends NativeIndexReader<PointKey>
                     // Inclusion.LOW / HIGH respectively and filter out points later on.
                     treeKeyFrom.writePointDerived( crs, range.min, LOW );
                     treeKeyTo.writePointDerived( crs, range.max + 1, HIGH );
-                    startSeekForInitializedRange( multiProgressor, treeKeyFrom, treeKeyTo, context.cursorContext(), accessMode,
-                            true, constraints, geometryRangePredicate );
+                    treeKeysFrom.add( treeKeyFrom );
+                    treeKeysTo.add( treeKeyTo );
                 }
+                startMultiSeekForInitializedRanges( client, treeKeysFrom, treeKeysTo, context.cursorContext(), accessMode,
+                        true, constraints, geometryRangePredicate );
             }
             catch ( IllegalArgumentException e )
             {
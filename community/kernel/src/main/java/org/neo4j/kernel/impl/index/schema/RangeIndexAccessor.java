@@ -35,10 +35,24 @@ public class RangeIndexAccessor extends NativeIndexAccessor<RangeKey>
     RangeIndexAccessor( DatabaseIndexContext databaseIndexContext, IndexFiles indexFiles,
             IndexLayout<RangeKey> layout, RecoveryCleanupWorkCollector recoveryCleanupWorkCollector,
             IndexDescriptor descriptor, TokenNameLookup tokenNameLookup )
+    {
+        this( databaseIndexContext, indexFiles, layout, recoveryCleanupWorkCollector, descriptor, tokenNameLookup, 0 );
+    }
+
+    /**
+     * @param bloomFilterBitsPerEntry bits per entry of an {@link IndexBloomFilter} to build for the index, or {@code 0} for no filter.
+     */
+    RangeIndexAccessor( DatabaseIndexContext databaseIndexContext, IndexFiles indexFiles,
+            IndexLayout<RangeKey> layout, RecoveryCleanupWorkCollector recoveryCleanupWorkCollector,
+            IndexDescriptor descriptor, TokenNameLookup tokenNameLookup, int bloomFilterBitsPerEntry )
     {
         super( databaseIndexContext, indexFiles, layout, descriptor );
         this.tokenNameLookup = tokenNameLookup;
         instantiateTree( recoveryCleanupWorkCollector, headerWriter );
+        if ( bloomFilterBitsPerEntry > 0 )
+        {
+            buildBloomFilter( bloomFilterBitsPerEntry );
+        }
     }
 
     @Override
@@ -51,7 +65,7 @@ public class RangeIndexAccessor extends NativeIndexAccessor<RangeKey>
     public ValueIndexReader newValueReader()
     {
         assertOpen();
-        return new RangeIndexReader( tree, layout, descriptor );
+        return new RangeIndexReader( tree, layout, descriptor, bloomFilter );
     }
 
     @Override
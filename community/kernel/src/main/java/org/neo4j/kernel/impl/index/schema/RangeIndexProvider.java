@@ -19,6 +19,8 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import org.apache.commons.lang3.ArrayUtils;
+
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.EnumSet;
@@ -114,6 +116,8 @@ public class RangeIndexProvider extends NativeIndexProvider<RangeKey,RangeLayout
     public static final RangeIndexCapability CAPABILITY = new RangeIndexCapability();
 
     private final boolean archiveFailedIndex;
+    private final int bloomFilterBitsPerEntry;
+    private final boolean keyPrefixCompression;
     private final Config config;
 
     public RangeIndexProvider( DatabaseIndexContext databaseIndexContext, IndexDirectoryStructure.Factory directoryStructureFactory,
@@ -122,6 +126,8 @@ public class RangeIndexProvider extends NativeIndexProvider<RangeKey,RangeLayout
         super( databaseIndexContext, DESCRIPTOR, directoryStructureFactory, recoveryCleanupWorkCollector );
 
         this.archiveFailedIndex = config.get( GraphDatabaseInternalSettings.archive_failed_index );
+        this.bloomFilterBitsPerEntry = config.get( GraphDatabaseInternalSettings.range_index_bloom_filter_bits_per_entry );
+        this.keyPrefixCompression = config.get( GraphDatabaseInternalSettings.index_key_prefix_compression_enabled );
         this.config = config;
     }
 
@@ -135,7 +141,7 @@ public class RangeIndexProvider extends NativeIndexProvider<RangeKey,RangeLayout
     RangeLayout layout( IndexDescriptor descriptor, Path storeFile )
     {
         int numberOfSlots = descriptor.schema().getPropertyIds().length;
-        return new RangeLayout( numberOfSlots );
+        return new RangeLayout( numberOfSlots, descriptor.includedPropertyIds().length, keyPrefixCompression );
     }
 
     @Override
@@ -149,7 +155,8 @@ public class RangeIndexProvider extends NativeIndexProvider<RangeKey,RangeLayout
     @Override
     protected IndexAccessor newIndexAccessor( IndexFiles indexFiles, RangeLayout layout, IndexDescriptor descriptor, TokenNameLookup tokenNameLookup )
     {
-        return new RangeIndexAccessor( databaseIndexContext, indexFiles, layout, recoveryCleanupWorkCollector, descriptor, tokenNameLookup );
+        return new RangeIndexAccessor( databaseIndexContext, indexFiles, layout, recoveryCleanupWorkCollector, descriptor, tokenNameLookup,
+                bloomFilterBitsPerEntry );
     }
 
     @Override
@@ -168,6 +175,19 @@ public class RangeIndexProvider extends NativeIndexProvider<RangeKey,RangeLayout
                     "The " + prototype.schema() + " index schema is not a range index schema, which it is required to be for the '" +
                     getProviderDescriptor().name() + "' index provider to be able to create an index." );
         }
+
+        int[] includedPropertyIds = IndexDescriptor.includedPropertyIds( prototype.getIndexConfig() );
+        int[] propertyIds = prototype.schema().getPropertyIds();
+        for ( int i = 0; i < includedPropertyIds.length; i++ )
+        {
+            int includedPropertyId = includedPropertyIds[i];
+            if ( includedPropertyId < 0 || ArrayUtils.contains( propertyIds, includedPropertyId ) ||
+                    ArrayUtils.indexOf( includedPropertyIds, includedPropertyId ) != i )
+            {
+                throw new IllegalArgumentException( "Invalid '" + IndexDescriptor.INCLUDED_PROPERTIES + "' " + Arrays.toString( includedPropertyIds ) +
+                        " for " + prototype.schema() + ", included properties must be distinct and not part of the index schema." );
+            }
+        }
     }
 
     @Override
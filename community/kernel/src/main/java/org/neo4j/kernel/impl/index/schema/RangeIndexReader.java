@@ -43,6 +43,12 @@ public class RangeIndexReader extends NativeIndexReader<RangeKey>
         super( tree, layout, descriptor );
     }
 
+    RangeIndexReader( GBPTree<RangeKey,NullValue> tree,
+            IndexLayout<RangeKey> layout, IndexDescriptor descriptor, IndexBloomFilter bloomFilter )
+    {
+        super( tree, layout, descriptor, bloomFilter );
+    }
+
     @Override
     void validateQuery( IndexQueryConstraints constraints, PropertyIndexQuery[] predicates )
     {
@@ -90,6 +96,12 @@ public class RangeIndexReader extends NativeIndexReader<RangeKey>
                 throw new IllegalArgumentException( "IndexQuery of type " + predicate.type() + " is not supported." );
             }
         }
+        // Slots of included values are never compared, but are required to be initialized such that the keys can be copied
+        for ( int i = predicates.length; i < treeKeyFrom.numberOfStateSlots(); i++ )
+        {
+            treeKeyFrom.initValueAsLowest( i, ValueGroup.UNKNOWN );
+            treeKeyTo.initValueAsHighest( i, ValueGroup.UNKNOWN );
+        }
         return false;
     }
 
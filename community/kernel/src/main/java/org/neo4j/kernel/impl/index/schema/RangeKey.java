@@ -67,6 +67,12 @@ public class RangeKey extends GenericKey<RangeKey>
         return this;
     }
 
+    @Override
+    public void writeNull()
+    {
+        setType( Types.NO_VALUE );
+    }
+
     @Override
     public void writePoint( CoordinateReferenceSystem crs, double[] coordinate )
     {
@@ -25,21 +25,48 @@ import org.neo4j.io.pagecache.PageCursor;
 class RangeLayout extends IndexLayout<RangeKey>
 {
     private final int numberOfSlots;
+    private final int numberOfIncludedSlots;
+    private final boolean keyPrefixCompression;
 
     RangeLayout( int numberOfSlots )
     {
-        super( false, Layout.namedIdentifier( "RL", numberOfSlots ), 0, 1 );
+        this( numberOfSlots, 0 );
+    }
+
+    RangeLayout( int numberOfSlots, int numberOfIncludedSlots )
+    {
+        this( numberOfSlots, numberOfIncludedSlots, false );
+    }
+
+    /**
+     * @param numberOfSlots number of compared key slots, one per indexed property.
+     * @param numberOfIncludedSlots number of trailing slots holding included property values, which are stored in the key but never compared.
+     * @param keyPrefixCompression whether or not new trees are created with prefix compressed keys.
+     */
+    RangeLayout( int numberOfSlots, int numberOfIncludedSlots, boolean keyPrefixCompression )
+    {
+        super( false, identifier( numberOfSlots, numberOfIncludedSlots ), 0, 1 );
         this.numberOfSlots = numberOfSlots;
+        this.numberOfIncludedSlots = numberOfIncludedSlots;
+        this.keyPrefixCompression = keyPrefixCompression;
+    }
+
+    private static long identifier( int numberOfSlots, int numberOfIncludedSlots )
+    {
+        // Keep the identifier of indexes without included properties as it was, so that those are still compatible
+        return numberOfIncludedSlots == 0
+               ? Layout.namedIdentifier( "RL", numberOfSlots )
+               : Layout.namedIdentifier( "RLI", numberOfSlots << Short.SIZE | numberOfIncludedSlots );
     }
 
     @Override
     public RangeKey newKey()
     {
-        return numberOfSlots == 1
+        return numberOfSlots == 1 && numberOfIncludedSlots == 0
                // An optimized version which has the GenericKeyState built-in w/o indirection
                ? new RangeKey()
                // A version which has an indirection to GenericKeyState[]
-               : new CompositeRangeKey( numberOfSlots );
+               : new CompositeRangeKey( numberOfSlots, numberOfSlots + numberOfIncludedSlots );
     }
 
     @Override
@@ -73,6 +100,19 @@ class RangeLayout extends IndexLayout<RangeKey>
         right.minimalSplitter( left, right, into );
     }
 
+    @Override
+    public int keyPrefixCompressionOffset()
+    {
+        // Entity id is written first, values after it are what neighbouring keys share
+        return NativeIndexKey.ENTITY_ID_SIZE;
+    }
+
+    @Override
+    public boolean createWithKeyPrefixCompression()
+    {
+        return keyPrefixCompression;
+    }
+
     @Override
     public void initializeAsLowest( RangeKey key )
     {
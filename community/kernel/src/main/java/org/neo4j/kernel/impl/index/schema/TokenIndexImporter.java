@@ -19,57 +19,144 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
+
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 
 import org.neo4j.configuration.Config;
+import org.neo4j.index.internal.gbptree.Writer;
 import org.neo4j.internal.batchimport.IndexImporter;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.memory.ByteBufferFactory;
+import org.neo4j.io.memory.ScopedBuffer;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.context.CursorContext;
-import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
-import org.neo4j.kernel.api.index.IndexUpdater;
-import org.neo4j.storageengine.api.IndexEntryUpdate;
+import org.neo4j.memory.EmptyMemoryTracker;
 
-import static org.neo4j.collection.PrimitiveLongCollections.EMPTY_LONG_ARRAY;
+import static java.lang.Math.toIntExact;
 import static org.neo4j.common.EntityType.NODE;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.index_populator_block_size;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.index_populator_merge_factor;
 import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
 import static org.neo4j.io.IOUtils.closeAll;
-import static org.neo4j.kernel.impl.api.index.IndexUpdateMode.ONLINE;
+import static org.neo4j.io.IOUtils.closeAllUnchecked;
+import static org.neo4j.kernel.impl.index.schema.BlockStorage.Cancellation.NOT_CANCELLABLE;
+import static org.neo4j.kernel.impl.index.schema.BlockStorage.Monitor.NO_MONITOR;
+import static org.neo4j.kernel.impl.index.schema.TokenIndexUpdater.rangeOf;
+import static org.neo4j.kernel.impl.index.schema.TokenScanValue.RANGE_SIZE;
 
+/**
+ * Builds a token index from entities and their tokens given by an import. Tokens of consecutive entities in the same range are
+ * gathered into one key and value per token, which are sorted in a {@link BlockStorage} and bulk loaded into the empty tree on
+ * {@link #close()}, since entities come in entity id order whereas the tree is ordered by token first.
+ */
 public class TokenIndexImporter implements IndexImporter
 {
-    private final IndexUpdater updater;
     private final IndexDescriptor index;
     private final TokenIndexAccessor accessor;
     private final CursorContext cursorContext;
+    private final int mergeFactor;
+    private final ByteBufferFactory bufferFactory;
+    private final BlockStorage<TokenScanKey,TokenScanValue> scanUpdates;
+    private final MutableLongObjectMap<TokenScanValue> currentRangeValues = new LongObjectHashMap<>();
+    private long currentRange = -1;
 
     TokenIndexImporter( IndexDescriptor index, DatabaseLayout layout, FileSystemAbstraction fs, PageCache cache, CursorContext cursorContext, Config config )
     {
         this.index = index;
         this.accessor = tokenIndexAccessor( layout, fs, cache, config );
         this.cursorContext = cursorContext;
-        this.updater = accessor.newUpdater( ONLINE, cursorContext );
+        this.mergeFactor = config.get( index_populator_merge_factor );
+        this.bufferFactory = new ByteBufferFactory( UnsafeDirectByteBufferAllocator::new, config.get( index_populator_block_size ).intValue() );
+        Path storeFile = accessor.indexFiles.getStoreFile();
+        try
+        {
+            this.scanUpdates = new BlockStorage<>( new TokenScanLayout(), bufferFactory, fs, storeFile.resolveSibling( storeFile.getFileName() + ".scan" ),
+                    NO_MONITOR, EmptyMemoryTracker.INSTANCE );
+        }
+        catch ( IOException e )
+        {
+            closeAllUnchecked( bufferFactory, accessor );
+            throw new UncheckedIOException( e );
+        }
     }
 
     @Override
     public void add( long entity, long[] tokens )
     {
-        try
+        long range = rangeOf( entity );
+        if ( range != currentRange )
         {
-            updater.process( IndexEntryUpdate.change( entity, index, EMPTY_LONG_ARRAY, tokens ) );
+            flushCurrentRange();
+            currentRange = range;
         }
-        catch ( IndexEntryConflictException e )
+        int offset = toIntExact( entity % RANGE_SIZE );
+        for ( long token : tokens )
         {
-            throw new RuntimeException( e );
+            currentRangeValues.getIfAbsentPut( token, TokenScanValue::new ).set( offset );
         }
     }
 
     @Override
     public void close() throws IOException
     {
-        closeAll( updater, () -> accessor.force( cursorContext ), accessor );
+        try
+        {
+            flushCurrentRange();
+            scanUpdates.doneAdding();
+            scanUpdates.merge( mergeFactor, NOT_CANCELLABLE );
+            writeScanUpdatesToTree();
+        }
+        finally
+        {
+            closeAll( scanUpdates, bufferFactory, () -> accessor.force( cursorContext ), accessor );
+        }
+    }
+
+    private void flushCurrentRange()
+    {
+        try
+        {
+            for ( var tokenValue : currentRangeValues.keyValuesView() )
+            {
+                scanUpdates.add( new TokenScanKey( toIntExact( tokenValue.getOne() ), currentRange ), tokenValue.getTwo() );
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+        currentRangeValues.clear();
+    }
+
+    /**
+     * The same token and range can appear more than once if entities didn't come in order, in which case their bits are added together.
+     */
+    private void writeScanUpdatesToTree() throws IOException
+    {
+        AddMerger addMerger = new AddMerger( TokenIndex.EMPTY );
+        try ( ByteBufferFactory.Allocator allocator = bufferFactory.newLocalAllocator();
+              ScopedBuffer readBuffer = allocator.allocate( bufferFactory.bufferSize(), EmptyMemoryTracker.INSTANCE );
+              BlockReader<TokenScanKey,TokenScanValue> reader = scanUpdates.reader( false );
+              Writer<TokenScanKey,TokenScanValue> writer = accessor.index.bulkLoader( 1, cursorContext ) )
+        {
+            BlockEntryReader<TokenScanKey,TokenScanValue> entries = reader.nextBlock( readBuffer );
+            if ( entries != null )
+            {
+                try ( entries )
+                {
+                    while ( entries.next() )
+                    {
+                        writer.merge( entries.key(), entries.value(), addMerger );
+                    }
+                }
+            }
+        }
     }
 
     private TokenIndexAccessor tokenIndexAccessor( DatabaseLayout layout, FileSystemAbstraction fs, PageCache pageCache, Config config )
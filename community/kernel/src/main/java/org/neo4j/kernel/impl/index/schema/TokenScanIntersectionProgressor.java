@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.neo4j.graphdb.Resource;
+import org.neo4j.index.internal.gbptree.Seeker;
+import org.neo4j.internal.schema.IndexOrder;
+import org.neo4j.kernel.api.index.EntityRange;
+import org.neo4j.kernel.api.index.IndexProgressor;
+
+/**
+ * {@link IndexProgressor} over the entities having all of a number of tokens. Steps over the {@link TokenScanValue} of each token
+ * range by range, where only ranges present for all tokens are considered and their bit sets are AND:ed together, such that
+ * entity ids are only produced from the combined bit set, i.e. {@code entityIdRange+bitOffset}, instead of from a scan of one token
+ * filtered on the others.
+ * <p>
+ * A token lagging behind the others is moved forward range by range for a few ranges, after which it's instead
+ * re-seeked from the range it needs to catch up to. This lets a token with few entities skip over the ranges of
+ * a token with many, much like container skipping in compressed bitmap intersections.
+ */
+class TokenScanIntersectionProgressor implements IndexProgressor, Resource
+{
+    /**
+     * Number of ranges to step over by reading the next range, before re-seeking to the target range instead.
+     */
+    static final int STEPS_BEFORE_RESEEK = 8;
+
+    /**
+     * Opens a {@link Seeker} for a token, from the given {@link TokenScanKey#idRange} and to the end of the queried range.
+     */
+    @FunctionalInterface
+    interface TokenSeekerFactory
+    {
+        Seeker<TokenScanKey,TokenScanValue> seek( int tokenId, long fromIdRange ) throws IOException;
+    }
+
+    private final int[] tokenIds;
+    private final Seeker<TokenScanKey,TokenScanValue>[] seekers;
+    private final TokenSeekerFactory seekerFactory;
+    private final EntityTokenClient client;
+    private final IndexOrder indexOrder;
+    private final EntityRange range;
+    /**
+     * Current {@link TokenScanKey#idRange} of each of the {@link #seekers}.
+     */
+    private final long[] idRanges;
+
+    /**
+     * Current base entityId, i.e. the {@link TokenScanKey#idRange} common to all tokens.
+     */
+    private long baseEntityId;
+    /**
+     * Intersection of the bit sets of all tokens for the current range.
+     */
+    private long bits;
+    private boolean closed;
+
+    TokenScanIntersectionProgressor( int[] tokenIds, Seeker<TokenScanKey,TokenScanValue>[] seekers, TokenSeekerFactory seekerFactory,
+            EntityTokenClient client, IndexOrder indexOrder, EntityRange range )
+    {
+        this.tokenIds = tokenIds;
+        this.seekers = seekers;
+        this.seekerFactory = seekerFactory;
+        this.client = client;
+        this.indexOrder = indexOrder;
+        this.range = range;
+        this.idRanges = new long[seekers.length];
+    }
+
+    @Override
+    public boolean next()
+    {
+        for ( ; ; )
+        {
+            while ( bits != 0 )
+            {
+                long idForClient;
+                if ( indexOrder != IndexOrder.DESCENDING )
+                {
+                    int delta = Long.numberOfTrailingZeros( bits );
+                    bits &= bits - 1;
+                    idForClient = baseEntityId + delta;
+                }
+                else
+                {
+                    int delta = Long.numberOfLeadingZeros( bits );
+                    bits &= ~(1L << (Long.SIZE - delta - 1));
+                    idForClient = (baseEntityId + Long.SIZE) - 1 - delta;
+                }
+
+                if ( isInRange( idForClient ) && client.acceptEntity( idForClient, null ) )
+                {
+                    return true;
+                }
+            }
+
+            try
+            {
+                if ( closed || !nextCommonRange() )
+                {
+                    close();
+                    return false;
+                }
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+        }
+    }
+
+    /**
+     * Moves all seekers to the next range present for all tokens and intersects their bit sets.
+     *
+     * @return {@code true} if there was such a range, otherwise {@code false}.
+     */
+    private boolean nextCommonRange() throws IOException
+    {
+        for ( int i = 0; i < seekers.length; i++ )
+        {
+            if ( !seekers[i].next() )
+            {
+                return false;
+            }
+            idRanges[i] = seekers[i].key().idRange;
+        }
+
+        boolean aligned;
+        do
+        {
+            long target = idRanges[0];
+            for ( int i = 1; i < seekers.length; i++ )
+            {
+                if ( isBefore( target, idRanges[i] ) )
+                {
+                    target = idRanges[i];
+                }
+            }
+
+            aligned = true;
+            for ( int i = 0; i < seekers.length; i++ )
+            {
+                if ( idRanges[i] != target )
+                {
+                    if ( !catchUp( i, target ) )
+                    {
+                        return false;
+                    }
+                    aligned &= idRanges[i] == target;
+                }
+            }
+        }
+        while ( !aligned );
+
+        long intersection = -1L;
+        for ( Seeker<TokenScanKey,TokenScanValue> seeker : seekers )
+        {
+            intersection &= seeker.value().bits;
+        }
+        baseEntityId = idRanges[0] * TokenScanValue.RANGE_SIZE;
+        bits = intersection;
+        return true;
+    }
+
+    /**
+     * Moves the seeker at {@code index} to the first range which isn't before {@code target}.
+     */
+    private boolean catchUp( int index, long target ) throws IOException
+    {
+        for ( int steps = 0; isBefore( idRanges[index], target ); steps++ )
+        {
+            if ( steps == STEPS_BEFORE_RESEEK )
+            {
+                seekers[index].close();
+                seekers[index] = seekerFactory.seek( tokenIds[index], target );
+            }
+            if ( !seekers[index].next() )
+            {
+                return false;
+            }
+            idRanges[index] = seekers[index].key().idRange;
+        }
+        return true;
+    }
+
+    private boolean isBefore( long idRange, long otherIdRange )
+    {
+        return indexOrder == IndexOrder.DESCENDING ? idRange > otherIdRange : idRange < otherIdRange;
+    }
+
+    /**
+     * Filters out the entity ids outside of the queried range, present because of the range granularity of the seekers,
+     * see {@link TokenScanValueIndexProgressor}.
+     */
+    private boolean isInRange( long entityId )
+    {
+        return entityId >= range.fromInclusive && entityId < range.toExclusive;
+    }
+
+    @Override
+    public void close()
+    {
+        if ( !closed )
+        {
+            closed = true;
+            bits = 0;
+            IOException failure = null;
+            for ( Seeker<TokenScanKey,TokenScanValue> seeker : seekers )
+            {
+                try
+                {
+                    seeker.close();
+                }
+                catch ( IOException e )
+                {
+                    if ( failure == null )
+                    {
+                        failure = e;
+                    }
+                    else
+                    {
+                        failure.addSuppressed( e );
+                    }
+                }
+            }
+            if ( failure != null )
+            {
+                throw new UncheckedIOException( failure );
+            }
+        }
+    }
+}
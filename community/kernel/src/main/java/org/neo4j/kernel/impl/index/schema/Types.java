@@ -64,6 +64,8 @@ class Types
     static final TextArrayType TEXT_ARRAY = new TextArrayType( (byte) 17 );
     static final BooleanArrayType BOOLEAN_ARRAY = new BooleanArrayType( (byte) 18 );
     static final NumberArrayType NUMBER_ARRAY = new NumberArrayType( (byte) 19 );
+    // Only known by range indexes, where it marks an absent included property value
+    static final NoValueType NO_VALUE = new NoValueType( (byte) 20 );
 
     /* Geometry constants are located in PointKeyUtil */
     public static final int SIZE_ZONED_DATE_TIME = Long.BYTES +    /* epochSecond */
@@ -210,10 +212,15 @@ class Types
 
     static class Range
     {
+        /**
+         * All types which values can be compared, i.e. all types except {@link Types#NO_VALUE}.
+         */
+        private static final Type[] VALUE_TYPES = instantiateTypes( GEOMETRY_2, GEOMETRY_ARRAY_2 );
+
         /**
          * Holds typeId --> {@link Type} mapping.
          */
-        static final Type[] BY_ID = instantiateTypes( GEOMETRY_2, GEOMETRY_ARRAY_2);
+        static final Type[] BY_ID = withNoValueType( VALUE_TYPES );
 
         /**
          * Holds {@link ValueGroup#ordinal()} --> {@link Type} mapping.
@@ -228,17 +235,17 @@ class Types
         /**
          * Lowest {@link Type} according to {@link Type#COMPARATOR}.
          */
-        static final Type LOWEST_BY_VALUE_GROUP = Collections.min( Arrays.asList( BY_ID ), Type.COMPARATOR );
+        static final Type LOWEST_BY_VALUE_GROUP = Collections.min( Arrays.asList( VALUE_TYPES ), Type.COMPARATOR );
 
         /**
          * Highest {@link Type} according to {@link Type#COMPARATOR}.
          */
-        static final Type HIGHEST_BY_VALUE_GROUP = Collections.max( Arrays.asList( BY_ID ), Type.COMPARATOR );
+        static final Type HIGHEST_BY_VALUE_GROUP = Collections.max( Arrays.asList( VALUE_TYPES ), Type.COMPARATOR );
 
         static
         {
             // Build BY_GROUP mapping.
-            for ( Type type : BY_ID )
+            for ( Type type : VALUE_TYPES )
             {
                 BY_GROUP[type.valueGroup.ordinal()] = type;
             }
@@ -249,6 +256,17 @@ class Types
                 BY_ARRAY_TYPE[arrayType.ordinal()] = typeOf( arrayType, GEOMETRY_ARRAY_2 );
             }
         }
+
+        private static Type[] withNoValueType( Type[] valueTypes )
+        {
+            Type[] types = Arrays.copyOf( valueTypes, valueTypes.length + 1 );
+            types[valueTypes.length] = NO_VALUE;
+            if ( NO_VALUE.typeId != valueTypes.length )
+            {
+                throw new IllegalStateException( "The order in this list is not the intended one" );
+            }
+            return types;
+        }
     }
 
 }
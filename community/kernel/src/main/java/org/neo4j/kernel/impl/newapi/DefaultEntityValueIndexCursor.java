@@ -83,6 +83,8 @@ abstract class DefaultEntityValueIndexCursor<CURSOR> extends IndexCursor<IndexPr
     private float score;
     private PropertyIndexQuery[] query;
     private Value[] values;
+    private int numberOfKeyProperties;
+    private int numberOfIncludedValues;
     // TODO: The following three fields are related to b-tree index type only
     // and should be removed together with all related code when b-tree is gone
     private IndexType indexType;
@@ -120,6 +122,10 @@ abstract class DefaultEntityValueIndexCursor<CURSOR> extends IndexCursor<IndexPr
         sortedMergeJoin.initialize( indexOrder );
 
         this.query = query;
+        this.numberOfKeyProperties = descriptor.schema().getPropertyIds().length;
+        // Values of included properties come straight from the index, so they can only be exposed when there is neither security
+        // nor transaction state to take into account
+        this.numberOfIncludedValues = allowsAll() && !read.hasTxStateWithChanges() ? descriptor.includedPropertyIds().length : 0;
 
         if ( tracer != null )
         {
@@ -227,7 +233,8 @@ abstract class DefaultEntityValueIndexCursor<CURSOR> extends IndexCursor<IndexPr
         {
             this.entity = reference;
             this.score = score;
-            this.values = values;
+            this.values = values != null && values.length > numberOfKeyProperties + numberOfIncludedValues
+                          ? Arrays.copyOf( values, numberOfKeyProperties ) : values;
             return true;
         }
     }
@@ -456,7 +463,12 @@ abstract class DefaultEntityValueIndexCursor<CURSOR> extends IndexCursor<IndexPr
     @Override
     public final int numberOfProperties()
     {
-        return query == null ? 0 : query.length;
+        if ( query == null )
+        {
+            return 0;
+        }
+        // Included values follow the values of all the indexed properties
+        return numberOfIncludedValues == 0 ? query.length : numberOfKeyProperties + numberOfIncludedValues;
     }
 
     @Override
@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.newapi;
 import java.util.ArrayList;
 
 import org.neo4j.configuration.Config;
+import org.neo4j.internal.kernel.api.AutoCloseablePlus;
 import org.neo4j.internal.kernel.api.CursorFactory;
 import org.neo4j.internal.kernel.api.RelationshipScanCursor;
 import org.neo4j.internal.kernel.api.RelationshipTraversalCursor;
@@ -31,9 +32,14 @@ import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.memory.MemoryTracker;
 import org.neo4j.storageengine.api.StorageReader;
 import org.neo4j.storageengine.api.cursor.StoreCursors;
+import org.neo4j.util.VisibleForTesting;
 
 /**
  * Cursor factory which pools 1 cursor of each kind. Not thread-safe at all.
+ * <p>
+ * The pool can optionally be kept across transactions, if the owner of the pool always allocates cursors with the same {@link CursorContext}.
+ * Pooled cursors then only close their underlying storage and page cursors on {@link #release()}, but are otherwise kept as they are,
+ * so that the next transaction doesn't have to create them again.
  */
 public class DefaultPooledCursors extends DefaultCursors implements CursorFactory
 {
@@ -54,12 +60,21 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
     private DefaultRelationshipValueIndexCursor relationshipValueIndexCursor;
     private DefaultRelationshipTypeIndexCursor relationshipTypeIndexCursor;
     private DefaultRelationshipTypeIndexCursor fullAccessRelationshipTypeIndexCursor;
+    private final boolean keepAcrossTransactions;
+    // Number of cursors handed out from this pool which haven't been returned to it yet
+    private int openCursors;
 
     public DefaultPooledCursors( StorageReader storageReader, StoreCursors storeCursors, Config config )
+    {
+        this( storageReader, storeCursors, config, false );
+    }
+
+    public DefaultPooledCursors( StorageReader storageReader, StoreCursors storeCursors, Config config, boolean keepAcrossTransactions )
     {
         super( new ArrayList<>(), config );
         this.storageReader = storageReader;
         this.storeCursors = storeCursors;
+        this.keepAcrossTransactions = keepAcrossTransactions;
     }
 
     @Override
@@ -89,6 +104,7 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
             nodeCursor.release();
         }
         cursor.removeTracer();
+        returned();
         nodeCursor = cursor;
     }
 
@@ -117,6 +133,7 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
             fullAccessNodeCursor.release();
         }
         cursor.removeTracer();
+        returned();
         fullAccessNodeCursor = (FullAccessNodeCursor) cursor;
     }
 
@@ -126,7 +143,7 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
         if ( relationshipScanCursor == null )
         {
             return trace( new DefaultRelationshipScanCursor( this::accept, storageReader.allocateRelationshipScanCursor( cursorContext, storeCursors ),
-                    new DefaultNodeCursor( this::accept,
+                    new DefaultNodeCursor( ownedCursor( this::accept ),
                                            storageReader.allocateNodeCursor( cursorContext, storeCursors ),
                                            storageReader.allocateNodeCursor( cursorContext, storeCursors ),
                                            storageReader.allocateRelationshipTraversalCursor( cursorContext, storeCursors ) ) ) );
@@ -149,6 +166,7 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
             relationshipScanCursor.release();
         }
         cursor.removeTracer();
+        returned();
         relationshipScanCursor = cursor;
     }
 
@@ -171,12 +189,48 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
         }
     }
 
-    private static <C extends TraceableCursor<?>> C acquire( C cursor )
+    private <C extends TraceableCursor<?>> C acquire( C cursor )
     {
         cursor.acquire();
+        openCursors++;
         return cursor;
     }
 
+    @Override
+    protected <T extends AutoCloseablePlus> T trace( T closeable )
+    {
+        openCursors++;
+        return super.trace( closeable );
+    }
+
+    /**
+     * Pool for cursors that are owned by, and released together with, another cursor. When the pool is kept across transactions such
+     * cursors must never end up in this pool on their own: they could be handed out again while still being used by their owner in a
+     * later transaction. Otherwise they join the pool when their owner is released, and are counted as handed out just before that.
+     */
+    private <C> CursorPool<C> ownedCursor( CursorPool<C> pool )
+    {
+        return keepAcrossTransactions ? cursor ->
+        {
+        } : cursor ->
+        {
+            openCursors++;
+            pool.accept( cursor );
+        };
+    }
+
+    private void returned()
+    {
+        assert openCursors > 0 : "More cursors returned to the pool than were handed out";
+        openCursors--;
+    }
+
+    @VisibleForTesting
+    int openCursors()
+    {
+        return openCursors;
+    }
+
     private void acceptFullAccess( DefaultRelationshipScanCursor cursor )
     {
         if ( fullAccessRelationshipScanCursor != null )
@@ -184,6 +238,7 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
             fullAccessRelationshipScanCursor.release();
         }
         cursor.removeTracer();
+        returned();
         fullAccessRelationshipScanCursor = (FullAccessRelationshipScanCursor) cursor;
     }
 
@@ -194,7 +249,7 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
         {
             return trace( new DefaultRelationshipTraversalCursor( this::accept,
                     storageReader.allocateRelationshipTraversalCursor( cursorContext, storeCursors ),
-                    new DefaultNodeCursor( this::accept,
+                    new DefaultNodeCursor( ownedCursor( this::accept ),
                             storageReader.allocateNodeCursor( cursorContext, storeCursors ),
                             storageReader.allocateNodeCursor( cursorContext, storeCursors ),
                             storageReader.allocateRelationshipTraversalCursor( cursorContext, storeCursors ) ) ) );
@@ -217,6 +272,7 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
             relationshipTraversalCursor.release();
         }
         cursor.removeTracer();
+        returned();
         relationshipTraversalCursor = cursor;
     }
 
@@ -246,6 +302,7 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
             fullAccessRelationshipTraversalCursor.release();
         }
         cursor.removeTracer();
+        returned();
         fullAccessRelationshipTraversalCursor = (FullAccessRelationshipTraversalCursor) cursor;
     }
 
@@ -255,9 +312,9 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
         if ( propertyCursor == null )
         {
             FullAccessNodeCursor nodeCursor =
-                    new FullAccessNodeCursor( this::acceptFullAccess, storageReader.allocateNodeCursor( cursorContext, storeCursors ) );
+                    new FullAccessNodeCursor( ownedCursor( this::acceptFullAccess ), storageReader.allocateNodeCursor( cursorContext, storeCursors ) );
             FullAccessRelationshipScanCursor relCursor = new FullAccessRelationshipScanCursor(
-                    this::acceptFullAccess, storageReader.allocateRelationshipScanCursor( cursorContext, storeCursors ) );
+                    ownedCursor( this::acceptFullAccess ), storageReader.allocateRelationshipScanCursor( cursorContext, storeCursors ) );
             return trace(
                     new DefaultPropertyCursor( this::accept, storageReader.allocatePropertyCursor( cursorContext, storeCursors, memoryTracker ), nodeCursor,
                             relCursor ) );
@@ -280,6 +337,7 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
             propertyCursor.release();
         }
         cursor.removeTracer();
+        returned();
         propertyCursor = cursor;
     }
 
@@ -309,6 +367,7 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
             fullAccessPropertyCursor.release();
         }
         cursor.removeTracer();
+        returned();
         fullAccessPropertyCursor = (FullAccessPropertyCursor) cursor;
     }
 
@@ -318,7 +377,7 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
         if ( nodeValueIndexCursor == null )
         {
             return trace( new DefaultNodeValueIndexCursor( this::accept,
-                    new DefaultNodeCursor( this::accept, storageReader.allocateNodeCursor( cursorContext, storeCursors ),
+                    new DefaultNodeCursor( ownedCursor( this::accept ), storageReader.allocateNodeCursor( cursorContext, storeCursors ),
                             storageReader.allocateNodeCursor( cursorContext, storeCursors ),
                             storageReader.allocateRelationshipTraversalCursor( cursorContext, storeCursors ) ), memoryTracker ) );
         }
@@ -340,6 +399,7 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
             nodeValueIndexCursor.release();
         }
         cursor.removeTracer();
+        returned();
         nodeValueIndexCursor = cursor;
     }
 
@@ -368,6 +428,7 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
             fullAccessNodeValueIndexCursor.release();
         }
         cursor.removeTracer();
+        returned();
         fullAccessNodeValueIndexCursor = (FullAccessNodeValueIndexCursor) cursor;
     }
 
@@ -376,7 +437,7 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
     {
         if ( nodeLabelIndexCursor == null )
         {
-            return trace( new DefaultNodeLabelIndexCursor( this::accept, new DefaultNodeCursor( this::accept,
+            return trace( new DefaultNodeLabelIndexCursor( this::accept, new DefaultNodeCursor( ownedCursor( this::accept ),
                     storageReader.allocateNodeCursor( cursorContext, storeCursors ), storageReader.allocateNodeCursor( cursorContext, storeCursors ),
                     storageReader.allocateRelationshipTraversalCursor( cursorContext, storeCursors ) ) ) );
         }
@@ -398,6 +459,7 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
             nodeLabelIndexCursor.release();
         }
         cursor.removeTracer();
+        returned();
         nodeLabelIndexCursor = cursor;
     }
 
@@ -425,6 +487,7 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
         {
             fullAccessNodeLabelIndexCursor.release();
         }
+        returned();
         fullAccessNodeLabelIndexCursor = cursor;
     }
 
@@ -433,11 +496,11 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
     {
         if ( relationshipValueIndexCursor == null )
         {
-            DefaultNodeCursor nodeCursor = new DefaultNodeCursor( this::accept,
+            DefaultNodeCursor nodeCursor = new DefaultNodeCursor( ownedCursor( this::accept ),
                     storageReader.allocateNodeCursor( cursorContext, storeCursors ), storageReader.allocateNodeCursor( cursorContext, storeCursors ),
                     storageReader.allocateRelationshipTraversalCursor( cursorContext, storeCursors ) );
             DefaultRelationshipScanCursor relationshipScanCursor = new DefaultRelationshipScanCursor(
-                    this::accept, storageReader.allocateRelationshipScanCursor( cursorContext, storeCursors ), nodeCursor );
+                    ownedCursor( this::accept ), storageReader.allocateRelationshipScanCursor( cursorContext, storeCursors ), nodeCursor );
             return trace( new DefaultRelationshipValueIndexCursor( this::accept, relationshipScanCursor, memoryTracker ) );
         }
 
@@ -458,6 +521,7 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
             relationshipValueIndexCursor.release();
         }
         cursor.removeTracer();
+        returned();
         relationshipValueIndexCursor = cursor;
     }
 
@@ -466,11 +530,11 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
     {
         if ( relationshipTypeIndexCursor == null )
         {
-            var nodeCursor = new DefaultNodeCursor( this::accept, storageReader.allocateNodeCursor( cursorContext, storeCursors ),
+            var nodeCursor = new DefaultNodeCursor( ownedCursor( this::accept ), storageReader.allocateNodeCursor( cursorContext, storeCursors ),
                                                     storageReader.allocateNodeCursor( cursorContext, storeCursors ),
                                                     storageReader.allocateRelationshipTraversalCursor( cursorContext, storeCursors ) );
             var relationshipScanCursor =
-                    new DefaultRelationshipScanCursor( this::accept, storageReader.allocateRelationshipScanCursor( cursorContext, storeCursors ),
+                    new DefaultRelationshipScanCursor( ownedCursor( this::accept ), storageReader.allocateRelationshipScanCursor( cursorContext, storeCursors ),
                                                                             nodeCursor );
             return trace( new DefaultRelationshipTypeIndexCursor( this::accept, relationshipScanCursor ) );
         }
@@ -492,6 +556,7 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
             relationshipTypeIndexCursor.release();
         }
         cursor.removeTracer();
+        returned();
         relationshipTypeIndexCursor = cursor;
     }
 
@@ -519,9 +584,15 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
         {
             fullAccessRelationshipTypeIndexCursor.release();
         }
+        returned();
         fullAccessRelationshipTypeIndexCursor = cursor;
     }
 
+    /**
+     * Releases the resources held by the pooled cursors. Unless the pool is kept across transactions the cursors themselves are dropped too.
+     * The pool is never kept if there are cursors handed out from it which haven't been closed, since it's then not known what state
+     * those cursors will be in when they eventually come back.
+     */
     public void release()
     {
         if ( nodeCursor != null )
@@ -584,6 +655,11 @@ public class DefaultPooledCursors extends DefaultCursors implements CursorFactor
         {
             fullAccessRelationshipTypeIndexCursor.release();
         }
+        if ( keepAcrossTransactions && openCursors == 0 )
+        {
+            return;
+        }
+        openCursors = 0;
         nodeCursor = null;
         fullAccessNodeCursor = null;
         relationshipScanCursor = null;
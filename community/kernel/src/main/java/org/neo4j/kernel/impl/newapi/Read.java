@@ -68,6 +68,9 @@ import org.neo4j.storageengine.api.RelationshipSelection;
 import org.neo4j.storageengine.api.StorageLocks;
 import org.neo4j.storageengine.api.StorageReader;
 import org.neo4j.storageengine.api.txstate.ReadableTransactionState;
+import org.neo4j.util.Preconditions;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
 
 import static java.lang.String.format;
 import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unconstrained;
@@ -434,6 +437,81 @@ abstract class Read implements TxStateHolder,
         ((DefaultPropertyCursor) cursor).initRelationship( relationshipReference, reference, selection, this, ktx );
     }
 
+    @Override
+    public void nodeProperties( long[] nodeReferences, PropertySelection selection, NodeCursor nodeCursor, PropertyCursor propertyCursor,
+            Value[][] columns )
+    {
+        ktx.assertOpen();
+        validateColumns( nodeReferences.length, selection, columns );
+        int[] order = new int[nodeReferences.length];
+        storageReader.batchReadOrder( EntityType.NODE, nodeReferences, nodeReferences.length, order );
+        for ( int index : order )
+        {
+            clearRow( columns, index );
+            singleNode( nodeReferences[index], nodeCursor );
+            if ( nodeCursor.next() )
+            {
+                nodeCursor.properties( propertyCursor, selection );
+                readRow( selection, propertyCursor, columns, index );
+            }
+        }
+    }
+
+    @Override
+    public void relationshipProperties( long[] relationshipReferences, PropertySelection selection, RelationshipScanCursor relationshipCursor,
+            PropertyCursor propertyCursor, Value[][] columns )
+    {
+        ktx.assertOpen();
+        validateColumns( relationshipReferences.length, selection, columns );
+        int[] order = new int[relationshipReferences.length];
+        storageReader.batchReadOrder( EntityType.RELATIONSHIP, relationshipReferences, relationshipReferences.length, order );
+        for ( int index : order )
+        {
+            clearRow( columns, index );
+            singleRelationship( relationshipReferences[index], relationshipCursor );
+            if ( relationshipCursor.next() )
+            {
+                relationshipCursor.properties( propertyCursor, selection );
+                readRow( selection, propertyCursor, columns, index );
+            }
+        }
+    }
+
+    private static void validateColumns( int count, PropertySelection selection, Value[][] columns )
+    {
+        Preconditions.checkArgument( selection.isLimited(), "Batched property reads require a selection of specific keys, got %s", selection );
+        Preconditions.checkArgument( columns.length == selection.numberOfKeys(), "Expected %d columns for %s, got %d",
+                selection.numberOfKeys(), selection, columns.length );
+        for ( Value[] column : columns )
+        {
+            Preconditions.checkArgument( column.length >= count, "Columns must fit %d values, got a column of size %d", count, column.length );
+        }
+    }
+
+    private static void clearRow( Value[][] columns, int index )
+    {
+        for ( Value[] column : columns )
+        {
+            column[index] = Values.NO_VALUE;
+        }
+    }
+
+    private static void readRow( PropertySelection selection, PropertyCursor propertyCursor, Value[][] columns, int index )
+    {
+        while ( propertyCursor.next() )
+        {
+            int key = propertyCursor.propertyKey();
+            for ( int k = 0; k < columns.length; k++ )
+            {
+                if ( selection.key( k ) == key )
+                {
+                    columns[k][index] = propertyCursor.propertyValue();
+                    break;
+                }
+            }
+        }
+    }
+
     private void validateConstraints( IndexQueryConstraints constraints, DefaultIndexReadSession indexSession, PropertyIndexQuery[] query )
     {
         if ( constraints.needsValues() && !supportsValueCapability( indexSession.reference(), query ) )
@@ -29,6 +29,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.neo4j.common.EntityType;
+import org.neo4j.internal.schema.SchemaDescriptor;
 import org.neo4j.internal.schema.SchemaDescriptorSupplier;
 import org.neo4j.internal.schema.SchemaDescriptors;
 import org.neo4j.io.pagecache.context.CursorContext;
@@ -209,6 +210,39 @@ class EntityValueUpdatesTest
                 );
     }
 
+    @Test
+    void shouldGenerateUpdateWhenOnlyIncludedPropertyChanges()
+    {
+        // Given
+        SchemaDescriptorSupplier index = indexWithIncludedProperties( PROPERTY_KEY_ID_1, PROPERTY_KEY_ID_2 );
+        Value newValue2 = Values.of( 101L );
+
+        // When
+        EntityUpdates updates = EntityUpdates.forEntity( ENTITY_ID, false ).withTokens( TOKEN )
+                                             .existing( PROPERTY_KEY_ID_1, PROPERTY_1.value() )
+                                             .changed( PROPERTY_KEY_ID_2, PROPERTY_2.value(), newValue2 )
+                                             .build();
+
+        // Then
+        assertThat( updates.valueUpdatesForIndexKeys( singleton( index ), assertNoLoading(), EntityType.NODE, NULL, StoreCursors.NULL, INSTANCE ) )
+                .containsExactly( IndexEntryUpdate.change( ENTITY_ID, index, new Value[]{PROPERTY_1.value(), PROPERTY_2.value()},
+                        new Value[]{PROPERTY_1.value(), newValue2} ) );
+    }
+
+    @Test
+    void shouldGenerateUpdateWithNoValueForMissingIncludedProperty()
+    {
+        // Given
+        SchemaDescriptorSupplier index = indexWithIncludedProperties( PROPERTY_KEY_ID_1, PROPERTY_KEY_ID_2 );
+
+        // When
+        EntityUpdates updates = EntityUpdates.forEntity( ENTITY_ID, false ).withTokens( EMPTY ).withTokensAfter( TOKEN ).build();
+
+        // Then
+        assertThat( updates.valueUpdatesForIndexKeys( singleton( index ), propertyLoader( PROPERTY_1 ), EntityType.NODE, NULL, StoreCursors.NULL, INSTANCE ) )
+                .containsExactly( IndexEntryUpdate.add( ENTITY_ID, index, PROPERTY_1.value(), Values.NO_VALUE ) );
+    }
+
     @ParameterizedTest
     @EnumSource( Entity.class )
     void shouldNotGenerateUpdateForPartialCompositeSchemaIndexUpdate( Entity entity )
@@ -598,6 +632,24 @@ class EntityValueUpdatesTest
         return stub;
     }
 
+    private static SchemaDescriptorSupplier indexWithIncludedProperties( int propertyKeyId, int... includedPropertyKeyIds )
+    {
+        return new SchemaDescriptorSupplier()
+        {
+            @Override
+            public SchemaDescriptor schema()
+            {
+                return SchemaDescriptors.forLabel( TOKEN_ID_1, propertyKeyId );
+            }
+
+            @Override
+            public int[] includedPropertyIds()
+            {
+                return includedPropertyKeyIds;
+            }
+        };
+    }
+
     private static StorageReader assertNoLoading()
     {
         StorageReader reader = mock( StorageReader.class );
@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.database;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.util.List;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker;
+import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
+import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.kernel.api.exceptions.Status;
+import org.neo4j.kernel.impl.api.TransactionCommitProcess;
+import org.neo4j.kernel.impl.locking.Locks;
+import org.neo4j.lock.ResourceTypes;
+import org.neo4j.logging.AssertableLogProvider;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.storageengine.api.AllNodeScan;
+import org.neo4j.storageengine.api.MetadataProvider;
+import org.neo4j.storageengine.api.StorageCommand;
+import org.neo4j.storageengine.api.StorageEngine;
+import org.neo4j.storageengine.api.StorageNodeCursor;
+import org.neo4j.storageengine.api.StorageReader;
+import org.neo4j.storageengine.api.cursor.StoreCursors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.store_compaction_batch_size;
+import static org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker.readOnly;
+import static org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker.writable;
+import static org.neo4j.kernel.impl.api.LeaseService.NO_LEASES;
+import static org.neo4j.logging.AssertableLogProvider.Level.ERROR;
+import static org.neo4j.logging.AssertableLogProvider.Level.WARN;
+import static org.neo4j.logging.LogAssertions.assertThat;
+
+class StoreCompactorTest
+{
+    private static final int BATCH_SIZE = 4;
+
+    private final StorageEngine storageEngine = mock( StorageEngine.class );
+    private final TransactionCommitProcess commitProcess = mock( TransactionCommitProcess.class );
+    private final Locks locks = mock( Locks.class );
+    private final Locks.Client lockClient = mock( Locks.Client.class );
+    private final IOController ioController = mock( IOController.class );
+    private final JobScheduler scheduler = mock( JobScheduler.class );
+    private final PageCursorTracer cursorTracer = mock( PageCursorTracer.class );
+    private final StorageNodeCursor nodeCursor = mock( StorageNodeCursor.class );
+    private final AssertableLogProvider logProvider = new AssertableLogProvider();
+    private final List<StorageCommand> commands = List.of( mock( StorageCommand.class ), mock( StorageCommand.class ) );
+
+    @BeforeEach
+    void setUp()
+    {
+        when( locks.newClient() ).thenReturn( lockClient );
+        when( lockClient.tryExclusiveLock( any(), anyLong() ) ).thenReturn( true );
+
+        StorageReader reader = mock( StorageReader.class );
+        when( reader.allNodeScan() ).thenReturn( mock( AllNodeScan.class ) );
+        when( reader.allocateNodeCursor( any(), any() ) ).thenReturn( nodeCursor );
+        when( storageEngine.newReader() ).thenReturn( reader );
+        when( storageEngine.createStorageCursors( any() ) ).thenReturn( StoreCursors.NULL );
+        when( storageEngine.metadataProvider() ).thenReturn( mock( MetadataProvider.class ) );
+        when( storageEngine.createNodeCompactionCommands( anyLong(), any(), any() ) ).thenReturn( commands );
+        fragmentedStoreWithNodes( 0, 1, 2, 3 );
+    }
+
+    @Test
+    void shouldCompactEveryNodeInBatch() throws Exception
+    {
+        // when
+        int compacted = newCompactor( writable() ).compactBatch();
+
+        // then
+        assertThat( compacted ).isEqualTo( 4 );
+        verify( commitProcess, times( 4 ) ).commit( any(), any(), any() );
+        for ( long nodeId = 0; nodeId < 4; nodeId++ )
+        {
+            verify( lockClient ).releaseExclusive( ResourceTypes.NODE, nodeId );
+        }
+    }
+
+    @Test
+    void shouldReportPagesTouchedByEachCompactionToIOController() throws Exception
+    {
+        // given every commit pins three pages, on top of whatever reading the node does
+        long[] pins = {10};
+        when( cursorTracer.pins() ).then( invocation -> pins[0] );
+        doAnswer( invocation ->
+        {
+            pins[0] += 3;
+            return 1L;
+        } ).when( commitProcess ).commit( any(), any(), any() );
+        doAnswer( invocation ->
+        {
+            pins[0] += 100;
+            return commands;
+        } ).when( storageEngine ).createNodeCompactionCommands( anyLong(), any(), any() );
+
+        // when
+        newCompactor( writable() ).compactBatch();
+
+        // then the IO controller gets to hold back the compactor after every node, based on the pages written rather than the number of commands
+        verify( ioController, times( 4 ) ).maybeLimitIO( eq( 3 ), any(), eq( MajorFlushEvent.NULL ) );
+    }
+
+    @Test
+    void shouldSkipNodesLockedByOthersUntilNextLap() throws Exception
+    {
+        // given
+        when( lockClient.tryExclusiveLock( ResourceTypes.NODE, 1 ) ).thenReturn( false );
+
+        // when
+        int compacted = newCompactor( writable() ).compactBatch();
+
+        // then
+        assertThat( compacted ).isEqualTo( 3 );
+        verify( storageEngine, never() ).createNodeCompactionCommands( eq( 1L ), any(), any() );
+        verify( lockClient, never() ).releaseExclusive( ResourceTypes.NODE, 1 );
+    }
+
+    @Test
+    void shouldNotCommitNodesWhichAreAlreadyCompact() throws Exception
+    {
+        // given
+        when( storageEngine.createNodeCompactionCommands( anyLong(), any(), any() ) ).thenReturn( List.of() );
+
+        // when
+        int compacted = newCompactor( writable() ).compactBatch();
+
+        // then
+        assertThat( compacted ).isZero();
+        verify( commitProcess, never() ).commit( any(), any(), any() );
+        verify( ioController, never() ).maybeLimitIO( anyInt(), any(), any() );
+    }
+
+    @Test
+    void shouldNotCompactReadOnlyDatabase()
+    {
+        // when
+        int compacted = newCompactor( readOnly() ).compactBatch();
+
+        // then
+        assertThat( compacted ).isZero();
+        verify( storageEngine, never() ).newReader();
+    }
+
+    @Test
+    void shouldStopCompactingRestOfBatchWhenStopped() throws Exception
+    {
+        // given
+        JobHandle<?> handle = mock( JobHandle.class );
+        doReturn( handle ).when( scheduler ).scheduleRecurring( any(), any(), any( Runnable.class ), anyLong(), any() );
+        StoreCompactor compactor = newCompactor( writable() );
+        compactor.start();
+        doAnswer( invocation ->
+        {
+            compactor.stop();
+            return 1L;
+        } ).when( commitProcess ).commit( any(), any(), any() );
+
+        // when
+        int compacted = compactor.compactBatch();
+
+        // then
+        assertThat( compacted ).isOne();
+        verify( handle ).cancel();
+        verify( storageEngine, never() ).createNodeCompactionCommands( eq( 1L ), any(), any() );
+        assertThat( compactor.compactBatch() ).isZero();
+    }
+
+    @Test
+    void shouldLogFailedCommitAndContinueWithNextNode() throws Exception
+    {
+        // given
+        TransactionFailureException failure = new TransactionFailureException( Status.Transaction.TransactionCommitFailed, "Commit failed" );
+        doThrow( failure ).doReturn( 1L ).when( commitProcess ).commit( any(), any(), any() );
+        StoreCompactor compactor = newCompactor( writable() );
+
+        // when
+        int firstRun = compactor.compactBatch();
+        fragmentedStoreWithNodes( 4, 5 );
+        int secondRun = compactor.compactBatch();
+
+        // then
+        assertThat( firstRun ).isEqualTo( 3 );
+        assertThat( secondRun ).isEqualTo( 2 );
+        verify( commitProcess, times( 6 ) ).commit( any(), any(), any() );
+        verify( lockClient ).releaseExclusive( ResourceTypes.NODE, 0 );
+        assertThat( logProvider ).forClass( StoreCompactor.class ).forLevel( WARN )
+                .containsMessageWithException( "Store compaction of node 0 failed", failure );
+    }
+
+    @Test
+    void shouldLogUnexpectedFailureAndContinueWithNextNode() throws Exception
+    {
+        // given
+        IllegalStateException failure = new IllegalStateException( "Inconsistent property chain" );
+        when( storageEngine.createNodeCompactionCommands( eq( 2L ), any(), any() ) ).thenThrow( failure );
+        StoreCompactor compactor = newCompactor( writable() );
+
+        // when
+        int firstRun = compactor.compactBatch();
+        fragmentedStoreWithNodes( 4, 5 );
+        int secondRun = compactor.compactBatch();
+
+        // then
+        assertThat( firstRun ).isEqualTo( 3 );
+        assertThat( secondRun ).isEqualTo( 2 );
+        verify( storageEngine ).createNodeCompactionCommands( eq( 3L ), any(), any() );
+        verify( lockClient ).releaseExclusive( ResourceTypes.NODE, 2 );
+        assertThat( logProvider ).forClass( StoreCompactor.class ).forLevel( ERROR )
+                .containsMessageWithException( "Store compaction of node 2 failed unexpectedly", failure );
+    }
+
+    @Test
+    void shouldLogFailureToReadBatchAndContinueInNextRun() throws Exception
+    {
+        // given
+        IllegalStateException failure = new IllegalStateException( "Could not read node store" );
+        when( nodeCursor.scanBatch( any(), eq( BATCH_SIZE ) ) ).thenThrow( failure );
+        StoreCompactor compactor = newCompactor( writable() );
+
+        // when
+        int firstRun = compactor.compactBatch();
+        fragmentedStoreWithNodes( 4, 5 );
+        int secondRun = compactor.compactBatch();
+
+        // then
+        assertThat( firstRun ).isZero();
+        assertThat( secondRun ).isEqualTo( 2 );
+        assertThat( logProvider ).forClass( StoreCompactor.class ).forLevel( ERROR ).containsMessageWithException( "Store compaction failed", failure );
+    }
+
+    private void fragmentedStoreWithNodes( long... nodeIds )
+    {
+        doReturn( true ).when( nodeCursor ).scanBatch( any(), eq( BATCH_SIZE ) );
+        Boolean[] moreNodes = new Boolean[nodeIds.length];
+        for ( int i = 0; i < nodeIds.length; i++ )
+        {
+            moreNodes[i] = i < nodeIds.length - 1;
+        }
+        when( nodeCursor.next() ).thenReturn( true, moreNodes );
+        Long[] restOfIds = new Long[nodeIds.length - 1];
+        for ( int i = 1; i < nodeIds.length; i++ )
+        {
+            restOfIds[i - 1] = nodeIds[i];
+        }
+        when( nodeCursor.entityReference() ).thenReturn( nodeIds[0], restOfIds );
+    }
+
+    private StoreCompactor newCompactor( DatabaseReadOnlyChecker readOnlyChecker )
+    {
+        PageCacheTracer pageCacheTracer = mock( PageCacheTracer.class );
+        when( pageCacheTracer.createPageCursorTracer( anyString() ) ).thenReturn( cursorTracer );
+        return new StoreCompactor( storageEngine, commitProcess, locks, NO_LEASES, ioController, scheduler,
+                pageCacheTracer, readOnlyChecker, Clock.systemUTC(), Config.defaults( store_compaction_batch_size, BATCH_SIZE ),
+                logProvider.getLog( StoreCompactor.class ), "neo4j" );
+    }
+}
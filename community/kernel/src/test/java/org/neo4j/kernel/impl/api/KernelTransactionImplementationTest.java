@@ -48,7 +48,11 @@ import org.neo4j.internal.kernel.api.security.CommunitySecurityLog;
 import org.neo4j.internal.kernel.api.security.LoginContext;
 import org.neo4j.internal.kernel.api.security.SecurityContext;
 import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.internal.kernel.api.NodeCursor;
+import org.neo4j.internal.kernel.api.RelationshipTraversalCursor;
 import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.context.VersionContext;
+import org.neo4j.io.pagecache.context.VersionContextSupplier;
 import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.PageFaultEvent;
 import org.neo4j.io.pagecache.tracing.PinEvent;
@@ -71,7 +75,10 @@ import org.neo4j.memory.MemoryTracker;
 import org.neo4j.resources.CpuClock;
 import org.neo4j.storageengine.api.CommandCreationContext;
 import org.neo4j.storageengine.api.StorageCommand;
+import org.neo4j.storageengine.api.StorageNodeCursor;
 import org.neo4j.storageengine.api.StorageReader;
+import org.neo4j.storageengine.api.StorageRelationshipScanCursor;
+import org.neo4j.storageengine.api.StorageRelationshipTraversalCursor;
 import org.neo4j.storageengine.api.cursor.StoreCursors;
 import org.neo4j.storageengine.api.txstate.TxStateVisitor;
 import org.neo4j.test.DoubleLatch;
@@ -98,6 +105,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.transaction_reuse_cursors;
 import static org.neo4j.configuration.GraphDatabaseSettings.memory_transaction_max_size;
 import static org.neo4j.configuration.GraphDatabaseSettings.read_only_database_default;
 import static org.neo4j.configuration.GraphDatabaseSettings.read_only_databases;
@@ -107,6 +115,7 @@ import static org.neo4j.internal.kernel.api.security.LoginContext.AUTH_DISABLED;
 import static org.neo4j.io.ByteUnit.mebiBytes;
 import static org.neo4j.io.IOUtils.closeAllUnchecked;
 import static org.neo4j.kernel.api.exceptions.Status.Transaction.TransactionValidationFailed;
+import static org.neo4j.storageengine.api.RelationshipSelection.ALL_RELATIONSHIPS;
 import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_COMMIT_TIMESTAMP;
 
 class KernelTransactionImplementationTest extends KernelTransactionTestBase
@@ -903,6 +912,114 @@ class KernelTransactionImplementationTest extends KernelTransactionTestBase
         }
     }
 
+    @Test
+    void shouldReuseCursorsAfterResetWhenEnabled() throws Exception
+    {
+        // given
+        mockStorageCursors();
+        KernelTransactionImplementation tx = newNotInitializedTransaction( Config.defaults( transaction_reuse_cursors, true ) );
+
+        // when
+        RelationshipTraversalCursor first = allocateAndUseTraversalCursorInTransaction( tx );
+        RelationshipTraversalCursor second = allocateAndUseTraversalCursorInTransaction( tx );
+
+        // then the node cursor owned by the traversal cursor, closed when the pool is released, didn't make the pool look like it had a leak
+        assertSame( first, second );
+    }
+
+    @Test
+    void shouldNotReuseCursorsAfterResetWhenDisabled() throws Exception
+    {
+        // given
+        mockStorageCursors();
+        KernelTransactionImplementation tx = newNotInitializedTransaction( Config.defaults( transaction_reuse_cursors, false ) );
+
+        // when
+        RelationshipTraversalCursor first = allocateAndUseTraversalCursorInTransaction( tx );
+        RelationshipTraversalCursor second = allocateAndUseTraversalCursorInTransaction( tx );
+
+        // then
+        assertNotSame( first, second );
+    }
+
+    @Test
+    void shouldClosePageCursorsAtEndOfEveryTransactionWhenReusingCursors() throws Exception
+    {
+        // given
+        StoreCursors storeCursors = mock( StoreCursors.class );
+        when( storageEngine.createStorageCursors( any() ) ).thenReturn( storeCursors );
+        KernelTransactionImplementation tx = newNotInitializedTransaction( Config.defaults( transaction_reuse_cursors, true ) );
+
+        // when
+        initializeAndClose( tx, 3, false );
+
+        // then the store cursors are bound to the cursor context once, but their page cursors are closed after every transaction
+        verify( storeCursors ).reset( any() );
+        verify( storeCursors, times( 3 ) ).close();
+    }
+
+    @Test
+    void shouldDropCursorPoolIfCursorLeaked() throws Exception
+    {
+        // given
+        mockStorageCursors();
+        KernelTransactionImplementation tx = newNotInitializedTransaction( Config.defaults( transaction_reuse_cursors, true ) );
+        initialize( tx );
+        RelationshipTraversalCursor first = tx.cursors().allocateRelationshipTraversalCursor( tx.cursorContext() );
+        tx.dataRead().relationships( 1, 1, ALL_RELATIONSHIPS, first );
+        first.close();
+        NodeCursor leaked = tx.cursors().allocateNodeCursor( tx.cursorContext() );
+        tx.dataRead().singleNode( 1, leaked );
+        tx.close();
+
+        // when
+        RelationshipTraversalCursor second = allocateAndUseTraversalCursorInTransaction( tx );
+
+        // then
+        assertNotSame( first, second );
+    }
+
+    @Test
+    void shouldNotReuseCursorsWithVersionedCursorContext() throws Exception
+    {
+        // given
+        mockStorageCursors();
+        VersionContextSupplier versionContextSupplier = mock( VersionContextSupplier.class );
+        when( versionContextSupplier.createVersionContext() ).then( invocation -> mock( VersionContext.class ) );
+        KernelTransactionImplementation tx = newNotInitializedTransaction( Config.defaults( transaction_reuse_cursors, true ), versionContextSupplier );
+
+        // when
+        RelationshipTraversalCursor first = allocateAndUseTraversalCursorInTransaction( tx );
+        RelationshipTraversalCursor second = allocateAndUseTraversalCursorInTransaction( tx );
+
+        // then
+        assertNotSame( first, second );
+    }
+
+    private void mockStorageCursors()
+    {
+        when( storageReader.allocateNodeCursor( any(), any() ) ).then( invocation -> mock( StorageNodeCursor.class ) );
+        when( storageReader.allocateRelationshipScanCursor( any(), any() ) ).then( invocation -> mock( StorageRelationshipScanCursor.class ) );
+        when( storageReader.allocateRelationshipTraversalCursor( any(), any() ) ).then( invocation -> mock( StorageRelationshipTraversalCursor.class ) );
+    }
+
+    private static RelationshipTraversalCursor allocateAndUseTraversalCursorInTransaction( KernelTransactionImplementation tx ) throws Exception
+    {
+        initialize( tx );
+        RelationshipTraversalCursor cursor = tx.cursors().allocateRelationshipTraversalCursor( tx.cursorContext() );
+        tx.dataRead().relationships( 1, 1, ALL_RELATIONSHIPS, cursor );
+        cursor.close();
+        tx.close();
+        return cursor;
+    }
+
+    private static void initialize( KernelTransactionImplementation tx )
+    {
+        tx.initialize( 0, BASE_TX_COMMIT_TIMESTAMP, KernelTransaction.Type.IMPLICIT,
+                AnonymousContext.read().authorize( LoginContext.IdLookup.EMPTY, GraphDatabaseSettings.DEFAULT_DATABASE_NAME, CommunitySecurityLog.NULL_LOG ),
+                0L, 1L, EMBEDDED_CONNECTION );
+    }
+
     private static LoginContext loginContext( boolean isWriteTx )
     {
         return isWriteTx ? AnonymousContext.write() : AnonymousContext.read();
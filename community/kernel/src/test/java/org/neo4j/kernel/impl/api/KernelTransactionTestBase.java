@@ -46,6 +46,7 @@ import org.neo4j.internal.schema.SchemaState;
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.context.EmptyVersionContextSupplier;
+import org.neo4j.io.pagecache.context.VersionContextSupplier;
 import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
 import org.neo4j.kernel.KernelVersion;
 import org.neo4j.kernel.api.KernelTransaction;
@@ -180,6 +181,17 @@ class KernelTransactionTestBase
     }
 
     KernelTransactionImplementation newNotInitializedTransaction( LeaseService leaseService, Config config, NamedDatabaseId databaseId )
+    {
+        return newNotInitializedTransaction( leaseService, config, databaseId, EmptyVersionContextSupplier.EMPTY );
+    }
+
+    KernelTransactionImplementation newNotInitializedTransaction( Config config, VersionContextSupplier versionContextSupplier )
+    {
+        return newNotInitializedTransaction( LeaseService.NO_LEASES, config, from( DEFAULT_DATABASE_NAME, UUID.randomUUID() ), versionContextSupplier );
+    }
+
+    KernelTransactionImplementation newNotInitializedTransaction( LeaseService leaseService, Config config, NamedDatabaseId databaseId,
+            VersionContextSupplier versionContextSupplier )
     {
         Dependencies dependencies = new Dependencies();
         Locks.Client locksClient = mock( Locks.Client.class );
@@ -194,7 +206,7 @@ class KernelTransactionTestBase
                                                     null, null,
                                                     commitProcess, transactionMonitor, txPool, clock, new AtomicReference<>( CpuClock.NOT_AVAILABLE ),
                                                     new DatabaseTracers( new DefaultTracer(), LockTracer.NONE, new DefaultPageCacheTracer() ), storageEngine,
-                                                    any -> CanWrite.INSTANCE, EmptyVersionContextSupplier.EMPTY, () -> collectionsFactory,
+                                                    any -> CanWrite.INSTANCE, versionContextSupplier, () -> collectionsFactory,
                                                     new StandardConstraintSemantics(), mock( SchemaState.class ), mockedTokenHolders(),
                                                     mock( IndexingService.class ), mock( IndexStatisticsStore.class ), dependencies, databaseId,
                                                     leaseService, memoryPool, readOnlyChecker.forDatabase( databaseId ),
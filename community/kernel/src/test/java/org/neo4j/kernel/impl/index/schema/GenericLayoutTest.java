@@ -27,7 +27,10 @@ import java.util.Map;
 import org.neo4j.configuration.Config;
 import org.neo4j.kernel.impl.index.schema.config.IndexSpecificSpaceFillingCurveSettings;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class GenericLayoutTest
 {
@@ -47,4 +50,17 @@ class GenericLayoutTest
                                     "firstSlotCount=%s, secondSlotCount=%s.", previous, i ) );
         }
     }
+
+    @Test
+    void shouldOnlyCreateWithKeyPrefixCompressionWhenAskedTo()
+    {
+        GenericLayout layout = new GenericLayout( 2, spatialSettings );
+        GenericLayout compressingLayout = new GenericLayout( 2, spatialSettings, true );
+
+        assertFalse( layout.createWithKeyPrefixCompression() );
+        assertTrue( compressingLayout.createWithKeyPrefixCompression() );
+        // Trees created either way must be readable with the same layout
+        assertEquals( layout.identifier(), compressingLayout.identifier() );
+        assertEquals( layout.keyPrefixCompressionOffset(), compressingLayout.keyPrefixCompressionOffset() );
+    }
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.kernel.impl.index.schema.NativeIndexKey.Inclusion.NEUTRAL;
+
+class IndexBloomFilterTest
+{
+    private final RangeLayout layout = new RangeLayout( 1 );
+
+    @Test
+    void shouldContainAllAddedValues()
+    {
+        IndexBloomFilter filter = IndexBloomFilter.create( 10_000, 10 );
+        for ( int i = 0; i < 10_000; i++ )
+        {
+            filter.add( key( Values.stringValue( "value-" + i ) ) );
+        }
+
+        for ( int i = 0; i < 10_000; i++ )
+        {
+            assertTrue( filter.mightContain( key( Values.stringValue( "value-" + i ) ) ) );
+        }
+        assertEquals( 10_000, filter.probes() );
+        assertEquals( 0, filter.negativeProbes() );
+    }
+
+    @Test
+    void shouldRuleOutMostAbsentValues()
+    {
+        IndexBloomFilter filter = IndexBloomFilter.create( 10_000, 10 );
+        for ( int i = 0; i < 10_000; i++ )
+        {
+            filter.add( key( Values.longValue( i ) ) );
+        }
+
+        int falsePositives = 0;
+        for ( int i = 10_000; i < 20_000; i++ )
+        {
+            if ( filter.mightContain( key( Values.longValue( i ) ) ) )
+            {
+                falsePositives++;
+            }
+        }
+        assertTrue( falsePositives < 200, "Too many false positives " + falsePositives );
+        assertEquals( 10_000 - falsePositives, filter.negativeProbes() );
+        assertTrue( filter.estimatedFalsePositiveRate() > 0 && filter.estimatedFalsePositiveRate() < 0.02, "" + filter.estimatedFalsePositiveRate() );
+    }
+
+    @Test
+    void shouldConsiderEqualNumbersOfDifferentTypesEqual()
+    {
+        IndexBloomFilter filter = IndexBloomFilter.create( 10, 10 );
+        filter.add( key( Values.intValue( 5 ) ) );
+        filter.add( key( Values.doubleValue( 7.0 ) ) );
+
+        assertTrue( filter.mightContain( key( Values.doubleValue( 5.0 ) ) ) );
+        assertTrue( filter.mightContain( key( Values.longValue( 5 ) ) ) );
+        assertTrue( filter.mightContain( key( Values.byteValue( (byte) 7 ) ) ) );
+    }
+
+    @Test
+    void shouldSizeFilterFromExpectedNumberOfEntries()
+    {
+        IndexBloomFilter empty = IndexBloomFilter.create( 0, 10 );
+        assertFalse( empty.mightContain( key( Values.stringValue( "a" ) ) ) );
+        assertEquals( 0.0, empty.estimatedFalsePositiveRate() );
+
+        IndexBloomFilter small = IndexBloomFilter.create( 1_000, 10 );
+        IndexBloomFilter large = IndexBloomFilter.create( 1_000_000, 10 );
+        assertEquals( 8 * 1024, small.memoryUsage() );
+        assertEquals( 16 * 1024 * 1024 / 8, large.memoryUsage() );
+    }
+
+    private RangeKey key( Value value )
+    {
+        RangeKey key = layout.newKey();
+        key.initialize( 0 );
+        key.initFromValue( 0, value, NEUTRAL );
+        return key;
+    }
+}
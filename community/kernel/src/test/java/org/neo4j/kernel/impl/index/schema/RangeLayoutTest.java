@@ -24,7 +24,12 @@ import org.junit.jupiter.api.Test;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.neo4j.kernel.impl.index.schema.NativeIndexKey.Inclusion.NEUTRAL;
 
 class RangeLayoutTest
 {
@@ -42,4 +47,50 @@ class RangeLayoutTest
                                     "firstSlotCount=%s, secondSlotCount=%s.", previous, i ) );
         }
     }
+
+    @Test
+    void shouldHaveDifferentIdentifierWithIncludedSlots()
+    {
+        assertThat( new RangeLayout( 1, 1 ).identifier() ).isNotEqualTo( new RangeLayout( 1 ).identifier() )
+                                                          .isNotEqualTo( new RangeLayout( 2 ).identifier() )
+                                                          .isNotEqualTo( new RangeLayout( 2, 1 ).identifier() )
+                                                          .isNotEqualTo( new RangeLayout( 1, 2 ).identifier() );
+        assertThat( new RangeLayout( 3, 0 ).identifier() ).isEqualTo( new RangeLayout( 3 ).identifier() );
+    }
+
+    @Test
+    void shouldOnlyCreateWithKeyPrefixCompressionWhenAskedTo()
+    {
+        RangeLayout layout = new RangeLayout( 2, 1 );
+        RangeLayout compressingLayout = new RangeLayout( 2, 1, true );
+
+        assertThat( layout.createWithKeyPrefixCompression() ).isFalse();
+        assertThat( compressingLayout.createWithKeyPrefixCompression() ).isTrue();
+        // Trees created either way must be readable with the same layout
+        assertThat( compressingLayout.identifier() ).isEqualTo( layout.identifier() );
+        assertThat( compressingLayout.keyPrefixCompressionOffset() ).isEqualTo( layout.keyPrefixCompressionOffset() );
+    }
+
+    @Test
+    void shouldNotCompareIncludedValues()
+    {
+        RangeLayout layout = new RangeLayout( 1, 2 );
+        RangeKey key1 = keyWithValues( layout, Values.intValue( 5 ), Values.stringValue( "a" ), Values.NO_VALUE );
+        RangeKey key2 = keyWithValues( layout, Values.intValue( 5 ), Values.stringValue( "b" ), Values.longValue( 10 ) );
+
+        assertThat( layout.compare( key1, key2 ) ).isZero();
+        assertThat( key1.asKeyValues() ).containsExactly( Values.intValue( 5 ) );
+        assertThat( key1.asValues() ).containsExactly( Values.intValue( 5 ), Values.stringValue( "a" ), Values.NO_VALUE );
+    }
+
+    private static RangeKey keyWithValues( RangeLayout layout, Value... values )
+    {
+        RangeKey key = layout.newKey();
+        key.initialize( 1 );
+        for ( int i = 0; i < values.length; i++ )
+        {
+            key.initFromValue( i, values[i], NEUTRAL );
+        }
+        return key;
+    }
 }
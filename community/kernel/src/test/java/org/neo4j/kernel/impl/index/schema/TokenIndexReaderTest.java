@@ -23,13 +23,17 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 import java.io.IOException;
 import java.util.BitSet;
 
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.GBPTreeBuilder;
+import org.neo4j.internal.kernel.api.IndexQueryConstraints;
 import org.neo4j.internal.kernel.api.TokenPredicate;
+import org.neo4j.internal.schema.IndexOrder;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
@@ -131,6 +135,72 @@ class TokenIndexReaderTest
         shouldStartFromGivenId( 1000 );
     }
 
+    @ParameterizedTest
+    @EnumSource( value = IndexOrder.class, names = {"ASCENDING", "DESCENDING"} )
+    void shouldFindIntersectionOfTokens( IndexOrder order ) throws IOException, IndexEntryConflictException
+    {
+        // given a dense, a sparse and a super sparse token, so that the intersection needs to skip ranges of the denser ones
+        int[] sparsities = {2, 50, 500};
+        int highNodeId = 100_000;
+        BitSet expected = new BitSet( highNodeId );
+        expected.set( 0, highNodeId );
+        try ( TokenIndexUpdater writer = new TokenIndexUpdater( highNodeId, TokenIndex.EMPTY ) )
+        {
+            writer.initialize( tree.writer( NULL ) );
+            for ( int tokenId = 0; tokenId < sparsities.length; tokenId++ )
+            {
+                BitSet tokenNodes = new BitSet( highNodeId );
+                int updates = highNodeId / sparsities[tokenId];
+                for ( int i = 0; i < updates; i++ )
+                {
+                    tokenNodes.set( random.nextInt( highNodeId ) );
+                }
+                for ( int nodeId = tokenNodes.nextSetBit( 0 ); nodeId >= 0; nodeId = tokenNodes.nextSetBit( nodeId + 1 ) )
+                {
+                    writer.process( TokenIndexEntryUpdate.change( nodeId, null, EMPTY_LONG_ARRAY, new long[]{tokenId} ) );
+                }
+                expected.and( tokenNodes );
+            }
+        }
+        // and a bit of dense overlap so that the intersection isn't empty
+        try ( TokenIndexUpdater writer = new TokenIndexUpdater( highNodeId, TokenIndex.EMPTY ) )
+        {
+            writer.initialize( tree.writer( NULL ) );
+            int from = random.nextInt( highNodeId - 100 );
+            for ( int nodeId = from; nodeId < from + 100; nodeId++ )
+            {
+                if ( !expected.get( nodeId ) )
+                {
+                    writer.process( TokenIndexEntryUpdate.change( nodeId, null, EMPTY_LONG_ARRAY, new long[]{0, 1, 2} ) );
+                    expected.set( nodeId );
+                }
+            }
+        }
+
+        // when
+        EntityRange range = EntityRange.FULL;
+        if ( order == IndexOrder.ASCENDING )
+        {
+            long fromId = random.nextInt( highNodeId );
+            expected.clear( 0, toIntExact( fromId ) );
+            range = EntityRange.from( fromId );
+        }
+        var reader = new DefaultTokenIndexReader( tree );
+        var tokenClient = new SimpleEntityTokenClient();
+        TokenPredicate[] query = {new TokenPredicate( 2 ), new TokenPredicate( 0 ), new TokenPredicate( 1 )};
+        reader.queryIntersection( tokenClient, IndexQueryConstraints.constrained( order, false ), query, range, NULL );
+
+        // then
+        int nextExpectedId = order == IndexOrder.ASCENDING ? expected.nextSetBit( 0 ) : expected.previousSetBit( highNodeId );
+        while ( nextExpectedId != -1 )
+        {
+            assertTrue( tokenClient.next() );
+            assertThat( toIntExact( tokenClient.reference ) ).isEqualTo( nextExpectedId );
+            nextExpectedId = order == IndexOrder.ASCENDING ? expected.nextSetBit( nextExpectedId + 1 ) : expected.previousSetBit( nextExpectedId - 1 );
+        }
+        assertFalse( tokenClient.next() );
+    }
+
     private void shouldStartFromGivenId( int sparsity ) throws IOException, IndexEntryConflictException
     {
         // given
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.storageengine.api.StorageReader;
+import org.neo4j.storageengine.api.cursor.StoreCursors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.RETURNS_MOCKS;
+import static org.mockito.Mockito.mock;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+
+class DefaultPooledCursorsTest
+{
+    @ParameterizedTest
+    @ValueSource( booleans = {true, false} )
+    void shouldCountCursorsReturnedToThePool( boolean keepAcrossTransactions )
+    {
+        DefaultPooledCursors cursors = new DefaultPooledCursors( mock( StorageReader.class, RETURNS_MOCKS ), mock( StoreCursors.class ), Config.defaults(),
+                keepAcrossTransactions );
+
+        DefaultNodeCursor nodeCursor = cursors.allocateNodeCursor( NULL );
+        DefaultRelationshipTraversalCursor traversalCursor = cursors.allocateRelationshipTraversalCursor( NULL );
+        DefaultRelationshipScanCursor scanCursor = cursors.allocateRelationshipScanCursor( NULL );
+        assertEquals( 3, cursors.openCursors() );
+
+        traversalCursor.close();
+        scanCursor.close();
+        nodeCursor.close();
+        assertEquals( 0, cursors.openCursors() );
+
+        // Releasing the traversal cursor returns the node cursor it owns to the pool too
+        cursors.release();
+        assertEquals( 0, cursors.openCursors() );
+
+        cursors.allocateRelationshipTraversalCursor( NULL ).close();
+        cursors.allocateNodeCursor( NULL ).close();
+        assertEquals( 0, cursors.openCursors() );
+        cursors.release();
+        assertEquals( 0, cursors.openCursors() );
+    }
+}
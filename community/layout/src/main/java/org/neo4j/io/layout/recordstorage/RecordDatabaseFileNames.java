@@ -28,9 +28,12 @@ final class RecordDatabaseFileNames
 
     static final String NODE_STORE = "neostore.nodestore.db";
     static final String NODE_LABELS_STORE = "neostore.nodestore.db.labels";
+    static final String NODE_DEGREES_STORE = "neostore.nodestore.degrees.db";
 
     static final String RELATIONSHIP_STORE = "neostore.relationshipstore.db";
+    static final String RELATIONSHIP_ADJACENCY_STORE = "neostore.relationshipstore.adjacency.db";
     static final String RELATIONSHIP_GROUP_STORE = "neostore.relationshipgroupstore.db";
+    static final String RELATIONSHIP_GROUP_DIRECTORY = "neostore.relationshipgroupstore.directory.db";
     static final String RELATIONSHIP_GROUP_DEGREES_STORE = "neostore.relationshipgroupstore.degrees.db";
     static final String RELATIONSHIP_TYPE_TOKEN_STORE = "neostore.relationshiptypestore.db";
     static final String RELATIONSHIP_TYPE_TOKEN_NAMES_STORE = "neostore.relationshiptypestore.db.names";
@@ -40,6 +43,8 @@ final class RecordDatabaseFileNames
     static final String PROPERTY_STRING_STORE = "neostore.propertystore.db.strings";
     static final String PROPERTY_KEY_TOKEN_STORE = "neostore.propertystore.db.index";
     static final String PROPERTY_KEY_TOKEN_NAMES_STORE = "neostore.propertystore.db.index.keys";
+    static final String NODE_PROPERTY_COLUMNS_STORE = "neostore.propertystore.columns.db";
+    static final String NODE_PROPERTY_STATISTICS_STORE = "neostore.propertystore.statistics.db";
 
     static final String LABEL_TOKEN_STORE = "neostore.labeltokenstore.db";
     static final String LABEL_TOKEN_NAMES_STORE = "neostore.labeltokenstore.db.names";
@@ -79,6 +79,33 @@ public class RecordDatabaseLayout extends DatabaseLayout
         return file( RecordDatabaseFile.RELATIONSHIP_GROUP_DEGREES_STORE.getName() );
     }
 
+    // The stores below are optional and rebuilt from the other stores whenever they're missing,
+    // which is why they're not among the record database files.
+    public Path nodeDegreesStore()
+    {
+        return file( RecordDatabaseFileNames.NODE_DEGREES_STORE );
+    }
+
+    public Path relationshipAdjacencyStore()
+    {
+        return file( RecordDatabaseFileNames.RELATIONSHIP_ADJACENCY_STORE );
+    }
+
+    public Path nodePropertyColumnsStore()
+    {
+        return file( RecordDatabaseFileNames.NODE_PROPERTY_COLUMNS_STORE );
+    }
+
+    public Path nodePropertyStatisticsStore()
+    {
+        return file( RecordDatabaseFileNames.NODE_PROPERTY_STATISTICS_STORE );
+    }
+
+    public Path relationshipGroupDirectory()
+    {
+        return file( RecordDatabaseFileNames.RELATIONSHIP_GROUP_DIRECTORY );
+    }
+
     public Path propertyStringStore()
     {
         return file( RecordDatabaseFile.PROPERTY_STRING_STORE.getName() );
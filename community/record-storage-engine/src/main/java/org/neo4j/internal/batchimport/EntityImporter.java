@@ -146,7 +146,7 @@ abstract class EntityImporter extends InputEntityVisitor.Adapter
     {
         Value value = property instanceof Value ? (Value) property : Values.of( property );
         PropertyStore.encodeValue( block, key, value, dynamicStringRecordAllocator, dynamicArrayRecordAllocator, propertyStore.allowStorePointsAndTemporal(),
-                cursorContext, memoryTracker );
+                propertyStore.dynamicCompressionThreshold(), cursorContext, memoryTracker );
     }
 
     long createAndWritePropertyChain( CursorContext cursorContext )
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.counts;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.logging.LogProvider;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.storageengine.api.RelationshipDirection;
+
+import static java.lang.String.format;
+import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
+
+/**
+ * {@link NodeDegreesStore} backed by the {@link GBPTree}.
+ * @see GBPTreeGenericCountsStore
+ */
+public class GBPTreeNodeDegreesStore extends GBPTreeGenericCountsStore implements NodeDegreesStore
+{
+    private static final String NAME = "Node degrees store";
+    static final byte TYPE_NODE_DEGREE = (byte) 4;
+
+    public GBPTreeNodeDegreesStore( PageCache pageCache, Path file, FileSystemAbstraction fileSystem, RecoveryCleanupWorkCollector recoveryCollector,
+            NodeDegreesRebuilder rebuilder, DatabaseReadOnlyChecker readOnlyChecker, PageCacheTracer pageCacheTracer, Monitor monitor, String databaseName,
+            int maxCacheSize, LogProvider userLogProvider ) throws IOException
+    {
+        super( pageCache, file, fileSystem, recoveryCollector, new RebuilderWrapper( rebuilder ), readOnlyChecker, NAME, pageCacheTracer, monitor, databaseName,
+                maxCacheSize, userLogProvider );
+    }
+
+    @Override
+    public Updater apply( long txId, CursorContext cursorContext )
+    {
+        CountUpdater updater = updater( txId, cursorContext );
+        return updater != null ? new DegreeUpdater( updater ) : NO_OP_UPDATER;
+    }
+
+    @Override
+    public long degree( long nodeId, int type, RelationshipDirection direction, CursorContext cursorContext )
+    {
+        return read( degreeKey( nodeId, type, direction ), cursorContext );
+    }
+
+    private static class DegreeUpdater implements Updater, AutoCloseable
+    {
+        private final CountUpdater actual;
+
+        DegreeUpdater( CountUpdater actual )
+        {
+            this.actual = actual;
+        }
+
+        @Override
+        public void increment( long nodeId, int type, RelationshipDirection direction, long delta )
+        {
+            actual.increment( degreeKey( nodeId, type, direction ), delta );
+        }
+
+        @Override
+        public void close()
+        {
+            actual.close();
+        }
+    }
+
+    /**
+     * Public utility method for instantiating a {@link CountsKey} for a node degree.
+     *
+     * Key data layout for this type:
+     * <pre>
+     * first:  [nnnn,nnnn][nnnn,nnnn][nnnn,nnnn][nnnn,nnnn] [nnnn,nnnn][nnnn,nnnn][nnnn,nnnn][nnnn,nndd]
+     *         n: node id
+     *         d: {@link RelationshipDirection#id()}
+     * second: [tttt,tttt][tttt,tttt][tttt,tttt][tttt,tttt]
+     *         t: relationship type id
+     * </pre>
+     *
+     * @param nodeId node ID.
+     * @param type relationship type ID.
+     * @param direction direction of the relationships.
+     * @return a {@link CountsKey for the node, type and direction. The returned key can be put into {@link Map maps} and similar.
+     */
+    static CountsKey degreeKey( long nodeId, int type, RelationshipDirection direction )
+    {
+        return new CountsKey( TYPE_NODE_DEGREE, nodeId << 2 | direction.id(), type );
+    }
+
+    static String keyToString( CountsKey key )
+    {
+        if ( key.type == TYPE_NODE_DEGREE )
+        {
+            return format( "Degree[nodeId:%d, type:%d, direction:%s]", key.first >> 2, key.second, RelationshipDirection.ofId( (int) (key.first & 0x3) ) );
+        }
+        throw new IllegalArgumentException( "Unknown type " + key.type );
+    }
+
+    public static void dump( PageCache pageCache, Path file, PrintStream out, CursorContext cursorContext ) throws IOException
+    {
+        GBPTreeGenericCountsStore.dump( pageCache, file, out, DEFAULT_DATABASE_NAME, NAME, cursorContext, GBPTreeNodeDegreesStore::keyToString );
+    }
+
+    private static final Updater NO_OP_UPDATER = new Updater()
+    {
+        @Override
+        public void close()
+        {
+        }
+
+        @Override
+        public void increment( long nodeId, int type, RelationshipDirection direction, long delta )
+        {
+        }
+    };
+
+    public interface NodeDegreesRebuilder
+    {
+        /**
+         * @param updater the updater to write the degrees into. Note: the updater will write all degrees as absolute,
+         * so every node, type and direction must only be written once.
+         */
+        void rebuild( Updater updater, CursorContext cursorContext, MemoryTracker memoryTracker );
+
+        long lastCommittedTxId();
+    }
+
+    private static class RebuilderWrapper implements Rebuilder
+    {
+        private final NodeDegreesRebuilder rebuilder;
+
+        RebuilderWrapper( NodeDegreesRebuilder rebuilder )
+        {
+            this.rebuilder = rebuilder;
+        }
+
+        @Override
+        public void rebuild( CountUpdater updater, CursorContext cursorContext, MemoryTracker memoryTracker )
+        {
+            rebuilder.rebuild( new DegreeUpdater( updater ), cursorContext, memoryTracker );
+        }
+
+        @Override
+        public long lastCommittedTxId()
+        {
+            return rebuilder.lastCommittedTxId();
+        }
+    }
+}
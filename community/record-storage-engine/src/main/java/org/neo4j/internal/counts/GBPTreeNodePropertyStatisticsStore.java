@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.counts;
+
+import org.eclipse.collections.api.map.primitive.MutableObjectLongMap;
+import org.eclipse.collections.impl.factory.primitive.ObjectLongMaps;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.counts.InvalidCountException;
+import org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.logging.LogProvider;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.storageengine.api.cursor.StoreCursors;
+
+import static java.lang.String.format;
+import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
+
+/**
+ * {@link NodePropertyStatisticsStore} backed by the {@link GBPTree}.
+ * @see GBPTreeGenericCountsStore
+ */
+public class GBPTreeNodePropertyStatisticsStore extends GBPTreeGenericCountsStore implements NodePropertyStatisticsStore
+{
+    private static final String NAME = "Node property statistics store";
+    static final byte TYPE_PROPERTY_EXISTENCE = (byte) 5;
+    static final byte TYPE_PROPERTY_VALUE_BUCKET = (byte) 6;
+
+    private final RebuilderWrapper rebuilder;
+
+    public GBPTreeNodePropertyStatisticsStore( PageCache pageCache, Path file, FileSystemAbstraction fileSystem,
+            RecoveryCleanupWorkCollector recoveryCollector, NodePropertyStatisticsRebuilder rebuilder, DatabaseReadOnlyChecker readOnlyChecker,
+            PageCacheTracer pageCacheTracer, Monitor monitor, String databaseName, int maxCacheSize, LogProvider userLogProvider ) throws IOException
+    {
+        this( pageCache, file, fileSystem, recoveryCollector, new RebuilderWrapper( rebuilder ), readOnlyChecker, pageCacheTracer, monitor,
+                databaseName, maxCacheSize, userLogProvider );
+    }
+
+    private GBPTreeNodePropertyStatisticsStore( PageCache pageCache, Path file, FileSystemAbstraction fileSystem,
+            RecoveryCleanupWorkCollector recoveryCollector, RebuilderWrapper rebuilder, DatabaseReadOnlyChecker readOnlyChecker,
+            PageCacheTracer pageCacheTracer, Monitor monitor, String databaseName, int maxCacheSize, LogProvider userLogProvider ) throws IOException
+    {
+        super( pageCache, file, fileSystem, recoveryCollector, rebuilder, readOnlyChecker, NAME, pageCacheTracer, monitor, databaseName,
+                maxCacheSize, userLogProvider );
+        this.rebuilder = rebuilder;
+    }
+
+    @Override
+    public void start( CursorContext cursorContext, StoreCursors storeCursors, MemoryTracker memoryTracker ) throws IOException
+    {
+        if ( rebuilder.lastCommittedTxId() != txId() )
+        {
+            // The statistics will be rebuilt, remember which ones there are now so that they can be removed. This is done before the rebuild
+            // since the tree can't be read while it's being written to
+            visitAllCounts( ( key, count ) -> rebuilder.previousKeys.add( key ), cursorContext );
+        }
+        super.start( cursorContext, storeCursors, memoryTracker );
+    }
+
+    @Override
+    public Updater apply( long txId, CursorContext cursorContext )
+    {
+        CountUpdater updater = updater( txId, cursorContext );
+        return updater != null ? new StatisticsUpdater( updater ) : NO_OP_UPDATER;
+    }
+
+    @Override
+    public long nodesWithProperty( int labelId, int propertyKeyId, CursorContext cursorContext )
+    {
+        return readStatistic( existenceKey( labelId, propertyKeyId ), cursorContext );
+    }
+
+    @Override
+    public long nodesWithValueInBucket( int labelId, int propertyKeyId, int bucket, CursorContext cursorContext )
+    {
+        return readStatistic( valueBucketKey( labelId, propertyKeyId, bucket ), cursorContext );
+    }
+
+    private long readStatistic( CountsKey key, CursorContext cursorContext )
+    {
+        try
+        {
+            return Math.max( 0, read( key, cursorContext ) );
+        }
+        catch ( InvalidCountException e )
+        {
+            // These are only statistics, an invalid count must not fail the caller, it's fixed on rebuild
+            return 0;
+        }
+    }
+
+    private static class StatisticsUpdater implements Updater, AutoCloseable
+    {
+        private final CountUpdater actual;
+
+        StatisticsUpdater( CountUpdater actual )
+        {
+            this.actual = actual;
+        }
+
+        @Override
+        public void incrementNodesWithProperty( int labelId, int propertyKeyId, long delta )
+        {
+            actual.increment( existenceKey( labelId, propertyKeyId ), delta );
+        }
+
+        @Override
+        public void incrementNodesWithValueInBucket( int labelId, int propertyKeyId, int bucket, long delta )
+        {
+            actual.increment( valueBucketKey( labelId, propertyKeyId, bucket ), delta );
+        }
+
+        @Override
+        public void close()
+        {
+            actual.close();
+        }
+    }
+
+    /**
+     * Public utility method for instantiating a {@link CountsKey} for the number of nodes with a label which have a property.
+     *
+     * Key data layout for this type:
+     * <pre>
+     * first:  [llll,llll][llll,llll][llll,llll][llll,llll] [llll,llll][llll,llll][llll,llll][llll,llll]
+     *         l: label id
+     * second: [pppp,pppp][pppp,pppp][pppp,pppp][pppp,pppp]
+     *         p: property key id
+     * </pre>
+     *
+     * @param labelId label ID.
+     * @param propertyKeyId property key ID.
+     * @return a {@link CountsKey} for the label and property key.
+     */
+    static CountsKey existenceKey( int labelId, int propertyKeyId )
+    {
+        return new CountsKey( TYPE_PROPERTY_EXISTENCE, labelId, propertyKeyId );
+    }
+
+    /**
+     * Public utility method for instantiating a {@link CountsKey} for the number of nodes with a label which have a numeric value for a
+     * property in a {@link NumericValueBuckets bucket}.
+     *
+     * Key data layout for this type:
+     * <pre>
+     * first:  [llll,llll][llll,llll][llll,llll][llll,llll] [pppp,pppp][pppp,pppp][pppp,pppp][pppp,pppp]
+     *         l: label id
+     *         p: property key id
+     * second: [bbbb,bbbb][bbbb,bbbb][bbbb,bbbb][bbbb,bbbb]
+     *         b: bucket
+     * </pre>
+     *
+     * @param labelId label ID.
+     * @param propertyKeyId property key ID.
+     * @param bucket the bucket of the values.
+     * @return a {@link CountsKey} for the label, property key and bucket.
+     */
+    static CountsKey valueBucketKey( int labelId, int propertyKeyId, int bucket )
+    {
+        return new CountsKey( TYPE_PROPERTY_VALUE_BUCKET, ((long) labelId << Integer.SIZE) | (propertyKeyId & 0xFFFFFFFFL), bucket );
+    }
+
+    static String keyToString( CountsKey key )
+    {
+        if ( key.type == TYPE_PROPERTY_EXISTENCE )
+        {
+            return format( "PropertyExistence[label:%d, propertyKey:%d]", key.first, key.second );
+        }
+        if ( key.type == TYPE_PROPERTY_VALUE_BUCKET )
+        {
+            return format( "PropertyValueBucket[label:%d, propertyKey:%d, from:%s, to:%s]", key.first >> Integer.SIZE, (int) key.first,
+                    NumericValueBuckets.lowerBound( key.second ), NumericValueBuckets.upperBound( key.second ) );
+        }
+        throw new IllegalArgumentException( "Unknown type " + key.type );
+    }
+
+    public static void dump( PageCache pageCache, Path file, PrintStream out, CursorContext cursorContext ) throws IOException
+    {
+        GBPTreeGenericCountsStore.dump( pageCache, file, out, DEFAULT_DATABASE_NAME, NAME, cursorContext,
+                GBPTreeNodePropertyStatisticsStore::keyToString );
+    }
+
+    private static final Updater NO_OP_UPDATER = new Updater()
+    {
+        @Override
+        public void close()
+        {
+        }
+
+        @Override
+        public void incrementNodesWithProperty( int labelId, int propertyKeyId, long delta )
+        {
+        }
+
+        @Override
+        public void incrementNodesWithValueInBucket( int labelId, int propertyKeyId, int bucket, long delta )
+        {
+        }
+    };
+
+    public interface NodePropertyStatisticsRebuilder
+    {
+        /**
+         * @param updater the updater to write the statistics into. Increments are summed up before written to the store,
+         * so the statistics of each node can be written separately.
+         */
+        void rebuild( Updater updater, CursorContext cursorContext, MemoryTracker memoryTracker );
+
+        long lastCommittedTxId();
+    }
+
+    /**
+     * Sums up the increments from the {@link NodePropertyStatisticsRebuilder} and writes them as absolute counts. Statistics which were
+     * in the store before the rebuild, e.g. when it's rebuilt because transactions were recovered without being applied to it, are removed.
+     */
+    private static class RebuilderWrapper implements Rebuilder
+    {
+        private final NodePropertyStatisticsRebuilder rebuilder;
+        private final List<CountsKey> previousKeys = new ArrayList<>();
+
+        RebuilderWrapper( NodePropertyStatisticsRebuilder rebuilder )
+        {
+            this.rebuilder = rebuilder;
+        }
+
+        @Override
+        public void rebuild( CountUpdater updater, CursorContext cursorContext, MemoryTracker memoryTracker )
+        {
+            for ( CountsKey key : previousKeys )
+            {
+                updater.increment( key, 0 );
+            }
+            previousKeys.clear();
+
+            MutableObjectLongMap<CountsKey> counts = ObjectLongMaps.mutable.empty();
+            rebuilder.rebuild( new Updater()
+            {
+                @Override
+                public void incrementNodesWithProperty( int labelId, int propertyKeyId, long delta )
+                {
+                    counts.addToValue( existenceKey( labelId, propertyKeyId ), delta );
+                }
+
+                @Override
+                public void incrementNodesWithValueInBucket( int labelId, int propertyKeyId, int bucket, long delta )
+                {
+                    counts.addToValue( valueBucketKey( labelId, propertyKeyId, bucket ), delta );
+                }
+
+                @Override
+                public void close()
+                {
+                }
+            }, cursorContext, memoryTracker );
+            counts.forEachKeyValue( updater::increment );
+        }
+
+        @Override
+        public long lastCommittedTxId()
+        {
+            return rebuilder.lastCommittedTxId();
+        }
+    }
+}
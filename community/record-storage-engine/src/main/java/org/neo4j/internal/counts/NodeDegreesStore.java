@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.counts;
+
+import org.neo4j.counts.CountsStorage;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.storageengine.api.RelationshipDirection;
+
+/**
+ * Store for degrees of all nodes, sparse as well as dense. Node ID plus relationship type plus relationship direction forms the key for the counts.
+ * Loops are only counted in {@link RelationshipDirection#LOOP}, not in {@link RelationshipDirection#OUTGOING} or {@link RelationshipDirection#INCOMING}.
+ */
+public interface NodeDegreesStore extends CountsStorage
+{
+    /**
+     * @param txId for which transaction ID the changes will be made.
+     * @param cursorContext page cache access context
+     * @return an {@link Updater} which is able to make degree updates.
+     */
+    Updater apply( long txId, CursorContext cursorContext );
+
+    /**
+     * @param nodeId the node ID to look for.
+     * @param type the relationship type to look for.
+     * @param direction the direction to look for.
+     * @param cursorContext page cache access context.
+     * @return the degree for the given node, type and direction, or {@code 0} if it wasn't found.
+     */
+    long degree( long nodeId, int type, RelationshipDirection direction, CursorContext cursorContext );
+
+    interface Updater extends AutoCloseable
+    {
+        @Override
+        void close();
+
+        /**
+         * Changes the degree of the given node, type and direction.
+         *
+         * @param nodeId the node ID to make the change for.
+         * @param type the relationship type to make the change for.
+         * @param direction the direction to make the change for.
+         * @param delta delta value to apply, can be either positive or negative.
+         */
+        void increment( long nodeId, int type, RelationshipDirection direction, long delta );
+    }
+}
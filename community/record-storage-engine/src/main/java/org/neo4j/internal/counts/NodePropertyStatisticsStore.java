@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.counts;
+
+import org.neo4j.counts.CountsStorage;
+import org.neo4j.io.pagecache.context.CursorContext;
+
+/**
+ * Store for statistics about the properties of nodes, per label and property key:
+ * <ul>
+ *     <li>the number of nodes with the label that have the property, and</li>
+ *     <li>a histogram of the numeric values of the property among those nodes, see {@link NumericValueBuckets}.</li>
+ * </ul>
+ * Counts of nodes without labels aren't kept.
+ */
+public interface NodePropertyStatisticsStore extends CountsStorage
+{
+    /**
+     * @param txId for which transaction ID the changes will be made.
+     * @param cursorContext page cache access context
+     * @return an {@link Updater} which is able to make statistics updates.
+     */
+    Updater apply( long txId, CursorContext cursorContext );
+
+    /**
+     * @param labelId the label of the nodes.
+     * @param propertyKeyId the property key to look for.
+     * @param cursorContext page cache access context.
+     * @return the number of nodes with the given label which have the given property.
+     */
+    long nodesWithProperty( int labelId, int propertyKeyId, CursorContext cursorContext );
+
+    /**
+     * @param labelId the label of the nodes.
+     * @param propertyKeyId the property key to look for.
+     * @param bucket the {@link NumericValueBuckets bucket} of values to look for.
+     * @param cursorContext page cache access context.
+     * @return the number of nodes with the given label which have a numeric value for the given property in the given bucket.
+     */
+    long nodesWithValueInBucket( int labelId, int propertyKeyId, int bucket, CursorContext cursorContext );
+
+    /**
+     * Estimates the number of nodes with the given label which have a numeric value for the given property in the given range, from the
+     * histogram of values. Values are assumed to be evenly spread within each bucket.
+     *
+     * @param labelId the label of the nodes.
+     * @param propertyKeyId the property key to look for.
+     * @param from lower bound of the range, inclusive.
+     * @param to upper bound of the range, inclusive.
+     * @param cursorContext page cache access context.
+     * @return the estimated number of nodes with a value in the given range.
+     */
+    default double estimateNodesWithValueInRange( int labelId, int propertyKeyId, double from, double to, CursorContext cursorContext )
+    {
+        if ( Double.isNaN( from ) || Double.isNaN( to ) || from > to )
+        {
+            return 0;
+        }
+        double estimate = 0;
+        for ( int bucket = NumericValueBuckets.bucket( from ); bucket <= NumericValueBuckets.bucket( to ); bucket++ )
+        {
+            double fraction = NumericValueBuckets.overlap( bucket, from, to );
+            if ( fraction > 0 )
+            {
+                estimate += fraction * nodesWithValueInBucket( labelId, propertyKeyId, bucket, cursorContext );
+            }
+        }
+        return estimate;
+    }
+
+    interface Updater extends AutoCloseable
+    {
+        @Override
+        void close();
+
+        /**
+         * Changes the number of nodes with the given label which have the given property.
+         *
+         * @param labelId the label to make the change for.
+         * @param propertyKeyId the property key to make the change for.
+         * @param delta delta value to apply, can be either positive or negative.
+         */
+        void incrementNodesWithProperty( int labelId, int propertyKeyId, long delta );
+
+        /**
+         * Changes the number of nodes with the given label which have a numeric value for the given property in the given bucket.
+         *
+         * @param labelId the label to make the change for.
+         * @param propertyKeyId the property key to make the change for.
+         * @param bucket the {@link NumericValueBuckets bucket} of the value.
+         * @param delta delta value to apply, can be either positive or negative.
+         */
+        void incrementNodesWithValueInBucket( int labelId, int propertyKeyId, int bucket, long delta );
+    }
+}
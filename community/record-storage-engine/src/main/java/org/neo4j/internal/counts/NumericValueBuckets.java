@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.counts;
+
+/**
+ * Divides numeric values into buckets on a logarithmic scale, for keeping histograms of property values. Values with an absolute value
+ * less than one go into one bucket, the rest go into a bucket per sign and power of two: [1,2), [2,4), [4,8) and so on, with the last bucket
+ * of each sign also holding all values beyond 2^63. The bucket boundaries are fixed, so that a histogram can be kept up to date with
+ * increments and decrements alone, while still being fine grained enough for estimating range selectivity over values of very different
+ * magnitude.
+ */
+public final class NumericValueBuckets
+{
+    private static final int MAX_EXPONENT = 63;
+    private static final int ZERO_BUCKET = MAX_EXPONENT + 1;
+    public static final int NUMBER_OF_BUCKETS = 2 * ZERO_BUCKET + 1;
+    public static final int NO_BUCKET = -1;
+
+    private NumericValueBuckets()
+    {
+    }
+
+    /**
+     * @param value the value to find the bucket for.
+     * @return the bucket of the value, between {@code 0} and {@link #NUMBER_OF_BUCKETS} (exclusive), ordered by value,
+     * or {@link #NO_BUCKET} for {@link Double#NaN}.
+     */
+    public static int bucket( double value )
+    {
+        if ( Double.isNaN( value ) )
+        {
+            return NO_BUCKET;
+        }
+        double absolute = Math.abs( value );
+        if ( absolute < 1 )
+        {
+            return ZERO_BUCKET;
+        }
+        int magnitude = Math.min( Math.getExponent( absolute ), MAX_EXPONENT ) + 1;
+        return value > 0 ? ZERO_BUCKET + magnitude : ZERO_BUCKET - magnitude;
+    }
+
+    public static double lowerBound( int bucket )
+    {
+        int magnitude = bucket - ZERO_BUCKET;
+        if ( magnitude == 0 )
+        {
+            return -1;
+        }
+        if ( magnitude > 0 )
+        {
+            return Math.scalb( 1D, magnitude - 1 );
+        }
+        return magnitude == -ZERO_BUCKET ? Double.NEGATIVE_INFINITY : -Math.scalb( 1D, -magnitude );
+    }
+
+    public static double upperBound( int bucket )
+    {
+        int magnitude = bucket - ZERO_BUCKET;
+        if ( magnitude == 0 )
+        {
+            return 1;
+        }
+        if ( magnitude < 0 )
+        {
+            return -Math.scalb( 1D, -magnitude - 1 );
+        }
+        return magnitude == ZERO_BUCKET ? Double.POSITIVE_INFINITY : Math.scalb( 1D, magnitude );
+    }
+
+    /**
+     * @return the fraction of the range of the given bucket which is covered by the range {@code from} to {@code to}, or {@code 1} if the
+     * ranges overlap and the bucket is unbounded.
+     */
+    static double overlap( int bucket, double from, double to )
+    {
+        double lower = lowerBound( bucket );
+        double upper = upperBound( bucket );
+        double overlapFrom = Math.max( from, lower );
+        double overlapTo = Math.min( to, upper );
+        if ( overlapFrom > overlapTo )
+        {
+            return 0;
+        }
+        if ( Double.isInfinite( lower ) || Double.isInfinite( upper ) )
+        {
+            return 1;
+        }
+        return (overlapTo - overlapFrom) / (upper - lower);
+    }
+}
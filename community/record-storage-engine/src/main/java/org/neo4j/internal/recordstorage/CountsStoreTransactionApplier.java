@@ -21,26 +21,38 @@ package org.neo4j.internal.recordstorage;
 
 import org.neo4j.counts.CountsAccessor;
 import org.neo4j.counts.CountsStore;
+import org.neo4j.internal.counts.NodeDegreesStore;
 import org.neo4j.internal.counts.RelationshipGroupDegreesStore;
 import org.neo4j.internal.recordstorage.Command.SchemaRuleCommand;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.storageengine.api.CommandsToApply;
+import org.neo4j.storageengine.api.RelationshipDirection;
 
 class CountsStoreTransactionApplier extends TransactionApplier.Adapter
 {
     private final CountsStore countsStore;
     private final RelationshipGroupDegreesStore groupDegreesStore;
+    private final NodeDegreesStore nodeDegreesStore;
     private final CommandsToApply transaction;
     private CountsAccessor.Updater countsUpdater;
     private RelationshipGroupDegreesStore.Updater degreesUpdater;
+    private NodeDegreesStore.Updater nodeDegreesUpdater;
     private boolean haveUpdates;
     private boolean countsUpdaterClosed;
     private boolean degreesUpdaterClosed;
+    private boolean nodeDegreesUpdaterClosed;
 
-    CountsStoreTransactionApplier( CountsStore countsStore, RelationshipGroupDegreesStore groupDegreesStore, CommandsToApply transaction )
+    /**
+     * @param nodeDegreesStore optional store of degrees of all nodes, or {@code null} if there's no such store.
+     */
+    CountsStoreTransactionApplier( CountsStore countsStore, RelationshipGroupDegreesStore groupDegreesStore, NodeDegreesStore nodeDegreesStore,
+            CommandsToApply transaction )
     {
         this.countsStore = countsStore;
         this.groupDegreesStore = groupDegreesStore;
+        this.nodeDegreesStore = nodeDegreesStore;
         this.transaction = transaction;
+        this.nodeDegreesUpdaterClosed = nodeDegreesStore == null;
     }
 
     @Override
@@ -63,6 +75,11 @@ class CountsStoreTransactionApplier extends TransactionApplier.Adapter
             degreesUpdater().close();
             degreesUpdaterClosed = true;
         }
+        if ( !nodeDegreesUpdaterClosed )
+        {
+            nodeDegreesUpdater().close();
+            nodeDegreesUpdaterClosed = true;
+        }
     }
 
     @Override
@@ -96,6 +113,53 @@ class CountsStoreTransactionApplier extends TransactionApplier.Adapter
         return degreesUpdater;
     }
 
+    private NodeDegreesStore.Updater nodeDegreesUpdater()
+    {
+        if ( nodeDegreesUpdater == null )
+        {
+            nodeDegreesUpdater = nodeDegreesStore.apply( transaction.transactionId(), transaction.cursorContext() );
+        }
+        return nodeDegreesUpdater;
+    }
+
+    @Override
+    public boolean visitRelationshipCommand( Command.RelationshipCommand command )
+    {
+        if ( nodeDegreesStore != null )
+        {
+            // Only creations and deletions change degrees, other relationship changes are about the chain pointers
+            RelationshipRecord before = command.getBefore();
+            RelationshipRecord after = command.getAfter();
+            if ( !before.inUse() && after.inUse() )
+            {
+                haveUpdates = true;
+                updateNodeDegrees( after, 1 );
+            }
+            else if ( before.inUse() && !after.inUse() )
+            {
+                haveUpdates = true;
+                updateNodeDegrees( before, -1 );
+            }
+        }
+        return false;
+    }
+
+    private void updateNodeDegrees( RelationshipRecord relationship, long delta )
+    {
+        long firstNode = relationship.getFirstNode();
+        long secondNode = relationship.getSecondNode();
+        int type = relationship.getType();
+        if ( firstNode == secondNode )
+        {
+            nodeDegreesUpdater().increment( firstNode, type, RelationshipDirection.LOOP, delta );
+        }
+        else
+        {
+            nodeDegreesUpdater().increment( firstNode, type, RelationshipDirection.OUTGOING, delta );
+            nodeDegreesUpdater().increment( secondNode, type, RelationshipDirection.INCOMING, delta );
+        }
+    }
+
     @Override
     public boolean visitRelationshipCountsCommand( Command.RelationshipCountsCommand command )
     {
@@ -20,6 +20,7 @@
 package org.neo4j.internal.recordstorage;
 
 import org.neo4j.counts.CountsStore;
+import org.neo4j.internal.counts.NodeDegreesStore;
 import org.neo4j.internal.counts.RelationshipGroupDegreesStore;
 import org.neo4j.storageengine.api.CommandsToApply;
 
@@ -27,16 +28,23 @@ class CountsStoreTransactionApplierFactory implements TransactionApplierFactory
 {
     private final CountsStore countsStore;
     private final RelationshipGroupDegreesStore groupDegreesStore;
+    private final NodeDegreesStore nodeDegreesStore;
 
     CountsStoreTransactionApplierFactory( CountsStore countsStore, RelationshipGroupDegreesStore groupDegreesStore )
+    {
+        this( countsStore, groupDegreesStore, null );
+    }
+
+    CountsStoreTransactionApplierFactory( CountsStore countsStore, RelationshipGroupDegreesStore groupDegreesStore, NodeDegreesStore nodeDegreesStore )
     {
         this.countsStore = countsStore;
         this.groupDegreesStore = groupDegreesStore;
+        this.nodeDegreesStore = nodeDegreesStore;
     }
 
     @Override
     public TransactionApplier startTx( CommandsToApply transaction, BatchContext batchContext )
     {
-        return new CountsStoreTransactionApplier( countsStore, groupDegreesStore, transaction );
+        return new CountsStoreTransactionApplier( countsStore, groupDegreesStore, nodeDegreesStore, transaction );
     }
 }
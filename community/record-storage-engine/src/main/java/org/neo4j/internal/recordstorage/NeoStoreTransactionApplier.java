@@ -29,7 +29,13 @@ import org.neo4j.kernel.KernelVersion;
 import org.neo4j.kernel.impl.store.CommonAbstractStore;
 import org.neo4j.kernel.impl.store.MetaDataStore;
 import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.PropertyStore;
 import org.neo4j.kernel.impl.store.record.AbstractBaseRecord;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.Record;
+import org.neo4j.kernel.impl.store.record.RecordLoad;
 import org.neo4j.lock.LockGroup;
 import org.neo4j.lock.LockService;
 import org.neo4j.lock.LockType;
@@ -88,7 +94,13 @@ public class NeoStoreTransactionApplier extends TransactionApplier.Adapter
         lockGroup.add( lockService.acquireNodeLock( command.getKey(), LockType.EXCLUSIVE ) );
 
         // update store
-        updateStore( neoStores.getNodeStore(), command, NODE_CURSOR );
+        NodeStore nodeStore = neoStores.getNodeStore();
+        updateStore( nodeStore, command, NODE_CURSOR );
+        if ( nodeStore.hasInlinedProperties() )
+        {
+            NodeRecord node = selectRecordByCommandVersion( command );
+            updateInlinedProperty( node.getId(), node.inUse() ? firstProperty( node ) : null );
+        }
         return false;
     }
 
@@ -115,6 +127,11 @@ public class NeoStoreTransactionApplier extends TransactionApplier.Adapter
         }
 
         updateStore( neoStores.getPropertyStore(), command, PROPERTY_CURSOR );
+        PropertyRecord property = selectRecordByCommandVersion( command );
+        if ( property.isNodeSet() && neoStores.getNodeStore().hasInlinedProperties() )
+        {
+            updateInlinedProperty( property.getNodeId(), property );
+        }
         return false;
     }
 
@@ -215,6 +232,24 @@ public class NeoStoreTransactionApplier extends TransactionApplier.Adapter
         }
     }
 
+    private PropertyRecord firstProperty( NodeRecord node )
+    {
+        if ( Record.NO_NEXT_PROPERTY.is( node.getNextProp() ) )
+        {
+            return null;
+        }
+        PropertyStore propertyStore = neoStores.getPropertyStore();
+        return propertyStore.getRecordByCursor( node.getNextProp(), propertyStore.newRecord(), RecordLoad.FORCE, storeCursors.readCursor( PROPERTY_CURSOR ) );
+    }
+
+    private void updateInlinedProperty( long nodeId, PropertyRecord property )
+    {
+        try ( var cursor = storeCursors.writeCursor( NODE_CURSOR ) )
+        {
+            neoStores.getNodeStore().updateInlinedProperty( nodeId, property, cursor );
+        }
+    }
+
     private <RECORD extends AbstractBaseRecord> RECORD selectRecordByCommandVersion( BaseCommand<RECORD> command )
     {
         switch ( version )
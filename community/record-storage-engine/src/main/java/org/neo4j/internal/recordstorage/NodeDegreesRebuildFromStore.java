@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.neo4j.internal.counts.GBPTreeNodeDegreesStore;
+import org.neo4j.internal.counts.NodeDegreesStore;
+import org.neo4j.internal.counts.RelationshipGroupDegreesStore;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.cursor.CachedStoreCursors;
+import org.neo4j.logging.Log;
+import org.neo4j.logging.LogProvider;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.storageengine.api.RelationshipDirection;
+import org.neo4j.storageengine.util.EagerDegrees;
+
+import static org.neo4j.storageengine.api.RelationshipSelection.ALL_RELATIONSHIPS;
+
+/**
+ * Scans all nodes in the store and rebuilds the {@link GBPTreeNodeDegreesStore} contents if the file is missing. Degrees of dense nodes are read
+ * from the {@link RelationshipGroupDegreesStore} where available, so that one needs to be started before this rebuild runs.
+ */
+class NodeDegreesRebuildFromStore implements GBPTreeNodeDegreesStore.NodeDegreesRebuilder
+{
+    private final NeoStores neoStores;
+    private final RelationshipGroupDegreesStore groupDegreesStore;
+    private final Log log;
+
+    NodeDegreesRebuildFromStore( NeoStores neoStores, RelationshipGroupDegreesStore groupDegreesStore, LogProvider logProvider )
+    {
+        this.neoStores = neoStores;
+        this.groupDegreesStore = groupDegreesStore;
+        this.log = logProvider.getLog( NodeDegreesRebuildFromStore.class );
+    }
+
+    @Override
+    public long lastCommittedTxId()
+    {
+        return neoStores.getMetaDataStore().getLastCommittedTransactionId();
+    }
+
+    @Override
+    public void rebuild( NodeDegreesStore.Updater updater, CursorContext cursorContext, MemoryTracker memoryTracker )
+    {
+        log.warn( "Missing node degrees store, rebuilding it." );
+        EagerDegrees degrees = new EagerDegrees();
+        try ( var storeCursors = new CachedStoreCursors( neoStores, cursorContext );
+              var nodeCursor = new RecordNodeCursor( neoStores.getNodeStore(), neoStores.getRelationshipStore(), neoStores.getRelationshipGroupStore(),
+                      groupDegreesStore, cursorContext, storeCursors ) )
+        {
+            // Nodes are visited in id order and all degrees of a node are written together, so every key is only written once
+            nodeCursor.scan();
+            while ( nodeCursor.next() )
+            {
+                degrees.clear();
+                nodeCursor.degrees( ALL_RELATIONSHIPS, degrees );
+                long nodeId = nodeCursor.entityReference();
+                for ( int type : degrees.types() )
+                {
+                    write( updater, nodeId, type, RelationshipDirection.OUTGOING, degrees.rawOutgoingDegree( type ) );
+                    write( updater, nodeId, type, RelationshipDirection.INCOMING, degrees.rawIncomingDegree( type ) );
+                    write( updater, nodeId, type, RelationshipDirection.LOOP, degrees.rawLoopDegree( type ) );
+                }
+            }
+        }
+        log.warn( "Node degrees store rebuild completed." );
+    }
+
+    private static void write( NodeDegreesStore.Updater updater, long nodeId, int type, RelationshipDirection direction, int degree )
+    {
+        if ( degree > 0 )
+        {
+            updater.increment( nodeId, type, direction, degree );
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.io.pagecache.PageCursor;
+
+/**
+ * {@link Layout} of the {@link NodePropertyColumnStore}. Entries are sorted by label, property key and node id, which places the values
+ * of one column next to each other, in node id order.
+ */
+class NodePropertyColumnLayout extends Layout.Adapter<NodePropertyColumnLayout.Key,NodePropertyColumnLayout.Value>
+{
+    NodePropertyColumnLayout()
+    {
+        super( true, Layout.namedIdentifier( "NoPC", 1 ), 0, 1 );
+    }
+
+    @Override
+    public Key newKey()
+    {
+        return new Key();
+    }
+
+    @Override
+    public Key copyKey( Key key, Key into )
+    {
+        into.initialize( key.label, key.propertyKey, key.node );
+        return into;
+    }
+
+    @Override
+    public Value newValue()
+    {
+        return new Value();
+    }
+
+    @Override
+    public int keySize( Key key )
+    {
+        return Key.SIZE;
+    }
+
+    @Override
+    public int valueSize( Value value )
+    {
+        return Value.SIZE;
+    }
+
+    @Override
+    public void writeKey( PageCursor cursor, Key key )
+    {
+        cursor.putInt( key.label );
+        cursor.putInt( key.propertyKey );
+        cursor.putLong( key.node );
+    }
+
+    @Override
+    public void writeValue( PageCursor cursor, Value value )
+    {
+        cursor.putByte( value.floatingPoint ? (byte) 1 : 0 );
+        cursor.putLong( value.bits );
+    }
+
+    @Override
+    public void readKey( PageCursor cursor, Key into, int keySize )
+    {
+        int label = cursor.getInt();
+        int propertyKey = cursor.getInt();
+        long node = cursor.getLong();
+        into.initialize( label, propertyKey, node );
+    }
+
+    @Override
+    public void readValue( PageCursor cursor, Value into, int valueSize )
+    {
+        into.floatingPoint = cursor.getByte() != 0;
+        into.bits = cursor.getLong();
+    }
+
+    @Override
+    public int compare( Key o1, Key o2 )
+    {
+        int labelCompare = Integer.compare( o1.label, o2.label );
+        if ( labelCompare != 0 )
+        {
+            return labelCompare;
+        }
+        int propertyKeyCompare = Integer.compare( o1.propertyKey, o2.propertyKey );
+        if ( propertyKeyCompare != 0 )
+        {
+            return propertyKeyCompare;
+        }
+        return Long.compare( o1.node, o2.node );
+    }
+
+    @Override
+    public void initializeAsLowest( Key key )
+    {
+        key.initialize( Integer.MIN_VALUE, Integer.MIN_VALUE, Long.MIN_VALUE );
+    }
+
+    @Override
+    public void initializeAsHighest( Key key )
+    {
+        key.initialize( Integer.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE );
+    }
+
+    static class Key
+    {
+        static final int SIZE = Integer.BYTES + Integer.BYTES + Long.BYTES;
+
+        int label;
+        int propertyKey;
+        long node;
+
+        Key initialize( int label, int propertyKey, long node )
+        {
+            this.label = label;
+            this.propertyKey = propertyKey;
+            this.node = node;
+            return this;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "[label:" + label + ", propertyKey:" + propertyKey + ", node:" + node + "]";
+        }
+    }
+
+    static class Value
+    {
+        static final int SIZE = Byte.BYTES + Long.BYTES;
+
+        // Whether bits are the raw bits of a double, or otherwise a long
+        boolean floatingPoint;
+        long bits;
+
+        Value initialize( boolean floatingPoint, long bits )
+        {
+            this.floatingPoint = floatingPoint;
+            this.bits = bits;
+            return this;
+        }
+
+        @Override
+        public String toString()
+        {
+            return floatingPoint ? String.valueOf( Double.longBitsToDouble( bits ) ) : String.valueOf( bits );
+        }
+    }
+}
@@ -0,0 +1,482 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
+import org.eclipse.collections.impl.factory.primitive.LongObjectMaps;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+
+import org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Header;
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.index.internal.gbptree.Seeker;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.NodeLabelsField;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.cursor.CachedStoreCursors;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.Record;
+import org.neo4j.logging.Log;
+import org.neo4j.logging.LogProvider;
+import org.neo4j.storageengine.api.NodePropertyColumnVisitor;
+import org.neo4j.storageengine.api.cursor.StoreCursors;
+import org.neo4j.token.api.NamedToken;
+import org.neo4j.util.concurrent.Work;
+import org.neo4j.util.concurrent.WorkSync;
+import org.neo4j.values.storable.FloatingPointValue;
+import org.neo4j.values.storable.IntegralValue;
+import org.neo4j.values.storable.Value;
+
+import static org.eclipse.collections.api.factory.Sets.immutable;
+import static org.neo4j.collection.PrimitiveLongCollections.EMPTY_LONG_ARRAY;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.NODE_CURSOR;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.PROPERTY_CURSOR;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.CHECK;
+
+/**
+ * Keeps the numeric values of selected property keys of all nodes with labels as columns, one per label and property key, so that
+ * aggregating over a property of the nodes of a label can stream the values from a few pages instead of reading every node and its
+ * property chain. Entries are sorted by label, property key and node id.
+ * <p>
+ * The property keys are selected by name, since they may not exist yet when this store is created. The store is rebuilt from the node and
+ * property stores in {@link #start(CursorContext)} if it was just created, e.g. because the selected property keys changed. Updates are
+ * idempotent, so recovery can simply re-apply the transactions since the last checkpoint.
+ */
+class NodePropertyColumnStore implements Closeable
+{
+    private static final String NAME = "Node property columns store";
+    private static final String APPLY_TAG = "nodePropertyColumnsStoreApply";
+    private static final String OPEN_TAG = "nodePropertyColumnsStoreOpen";
+    private static final byte NEEDS_BUILDING = 0;
+    private static final byte BUILT = 1;
+
+    private final GBPTree<NodePropertyColumnLayout.Key,NodePropertyColumnLayout.Value> tree;
+    private final WorkSync<NodePropertyColumnStore,UpdateWork> workSync = new WorkSync<>( this );
+    private final NeoStores neoStores;
+    private final NodeStore nodeStore;
+    private final PropertyStore propertyStore;
+    private final Set<String> propertyKeyNames;
+    private final int propertyKeyNamesHash;
+    private final DatabaseReadOnlyChecker readOnlyChecker;
+    private final PageCacheTracer pageCacheTracer;
+    private final Log log;
+    // Sorted ids of the selected property keys which exist
+    private volatile int[] propertyKeys;
+    private volatile boolean built;
+
+    NodePropertyColumnStore( PageCache pageCache, FileSystemAbstraction fs, Path file, RecoveryCleanupWorkCollector recoveryCollector, NeoStores neoStores,
+            Set<String> propertyKeyNames, DatabaseReadOnlyChecker readOnlyChecker, PageCacheTracer pageCacheTracer, String databaseName,
+            LogProvider logProvider ) throws IOException
+    {
+        this.neoStores = neoStores;
+        this.nodeStore = neoStores.getNodeStore();
+        this.propertyStore = neoStores.getPropertyStore();
+        this.propertyKeyNames = Set.copyOf( propertyKeyNames );
+        this.propertyKeyNamesHash = new TreeSet<>( propertyKeyNames ).hashCode();
+        this.readOnlyChecker = readOnlyChecker;
+        this.pageCacheTracer = pageCacheTracer;
+        this.log = logProvider.getLog( NodePropertyColumnStore.class );
+
+        HeaderState header = new HeaderState();
+        GBPTree<NodePropertyColumnLayout.Key,NodePropertyColumnLayout.Value> instantiatedTree =
+                instantiateTree( pageCache, file, recoveryCollector, header, databaseName );
+        if ( header.state == BUILT && header.propertyKeyNamesHash != propertyKeyNamesHash && !readOnlyChecker.isReadOnly() )
+        {
+            // Other property keys were selected when this store was built, start over
+            instantiatedTree.close();
+            fs.deleteFile( file );
+            header = new HeaderState();
+            instantiatedTree = instantiateTree( pageCache, file, recoveryCollector, header, databaseName );
+        }
+        this.tree = instantiatedTree;
+        this.built = header.state == BUILT && header.propertyKeyNamesHash == propertyKeyNamesHash;
+
+        try ( var cursorContext = new CursorContext( pageCacheTracer.createPageCursorTracer( OPEN_TAG ) );
+              var storeCursors = new CachedStoreCursors( neoStores, cursorContext ) )
+        {
+            this.propertyKeys = new int[0];
+            for ( NamedToken token : neoStores.getPropertyKeyTokenStore().getAllReadableTokens( storeCursors ) )
+            {
+                propertyKeyCreated( token.id(), token.name() );
+            }
+        }
+    }
+
+    private GBPTree<NodePropertyColumnLayout.Key,NodePropertyColumnLayout.Value> instantiateTree( PageCache pageCache, Path file,
+            RecoveryCleanupWorkCollector recoveryCollector, HeaderState header, String databaseName )
+    {
+        return new GBPTree<>( pageCache, file, new NodePropertyColumnLayout(), GBPTree.NO_MONITOR, header, this::writeNeedsBuildingHeader,
+                recoveryCollector, readOnlyChecker, pageCacheTracer, immutable.empty(), databaseName, NAME );
+    }
+
+    private void writeNeedsBuildingHeader( PageCursor cursor )
+    {
+        cursor.putByte( NEEDS_BUILDING );
+        cursor.putInt( propertyKeyNamesHash );
+    }
+
+    /**
+     * Builds the contents from the node and property stores if that hasn't been done yet. Recovery must have completed before this is called.
+     */
+    void start( CursorContext cursorContext ) throws IOException
+    {
+        if ( built || readOnlyChecker.isReadOnly() )
+        {
+            return;
+        }
+
+        log.info( "Building node property columns store for property keys " + new TreeSet<>( propertyKeyNames ) + "." );
+        // Nodes are visited in id order, so the entries of each column are written in order too
+        try ( var storeCursors = new CachedStoreCursors( neoStores, cursorContext );
+              var writer = tree.writer( cursorContext ) )
+        {
+            NodePropertyColumnLayout.Key key = new NodePropertyColumnLayout.Key();
+            NodePropertyColumnLayout.Value value = new NodePropertyColumnLayout.Value();
+            NodeRecord record = nodeStore.newRecord();
+            PageCursor nodeCursor = storeCursors.readCursor( NODE_CURSOR );
+            long highId = nodeStore.getHighId();
+            for ( long id = 0; id < highId; id++ )
+            {
+                nodeStore.getRecordByCursor( id, record, CHECK, nodeCursor );
+                if ( record.inUse() )
+                {
+                    NodeColumns columns = readNodeColumns( record, EMPTY_LONG_ARRAY, storeCursors );
+                    columns.put( writer, key, value );
+                }
+            }
+        }
+        tree.checkpoint( cursor ->
+        {
+            cursor.putByte( BUILT );
+            cursor.putInt( propertyKeyNamesHash );
+        }, cursorContext );
+        built = true;
+        log.info( "Node property columns store built." );
+    }
+
+    /**
+     * @return whether or not the contents have been built, i.e. if this store can be read from.
+     */
+    boolean isBuilt()
+    {
+        return built;
+    }
+
+    /**
+     * @return whether or not values of {@code propertyKey} are kept in this store, for nodes of all labels.
+     */
+    boolean hasColumn( int propertyKey )
+    {
+        return built && Arrays.binarySearch( propertyKeys, propertyKey ) >= 0;
+    }
+
+    /**
+     * Visits the values of the column of {@code label} and {@code propertyKey} in node id order.
+     */
+    void scan( int label, int propertyKey, NodePropertyColumnVisitor visitor, CursorContext cursorContext )
+    {
+        NodePropertyColumnLayout.Key from = new NodePropertyColumnLayout.Key().initialize( label, propertyKey, Long.MIN_VALUE );
+        NodePropertyColumnLayout.Key to = new NodePropertyColumnLayout.Key().initialize( label, propertyKey, Long.MAX_VALUE );
+        try ( Seeker<NodePropertyColumnLayout.Key,NodePropertyColumnLayout.Value> seeker = tree.seek( from, to, cursorContext ) )
+        {
+            while ( seeker.next() )
+            {
+                NodePropertyColumnLayout.Value value = seeker.value();
+                if ( value.floatingPoint )
+                {
+                    visitor.floatingPoint( seeker.key().node, Double.longBitsToDouble( value.bits ) );
+                }
+                else
+                {
+                    visitor.integral( seeker.key().node, value.bits );
+                }
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    /**
+     * Called for each created property key token, since columns are selected by property key name.
+     */
+    synchronized void propertyKeyCreated( int propertyKey, String name )
+    {
+        if ( propertyKeyNames.contains( name ) && Arrays.binarySearch( propertyKeys, propertyKey ) < 0 )
+        {
+            int[] keys = Arrays.copyOf( propertyKeys, propertyKeys.length + 1 );
+            keys[keys.length - 1] = propertyKey;
+            Arrays.sort( keys );
+            propertyKeys = keys;
+        }
+    }
+
+    /**
+     * @return a new {@link Updates} to collect the changed nodes of one transaction in, which are applied in {@link Updates#close()}.
+     */
+    Updates updates( StoreCursors storeCursors )
+    {
+        return new Updates( storeCursors );
+    }
+
+    void checkpoint( CursorContext cursorContext )
+    {
+        tree.checkpoint( cursorContext );
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        tree.close();
+    }
+
+    /**
+     * Reads the current labels and selected property values of a node.
+     *
+     * @param previousLabels labels the node had before, of which the entries should be removed.
+     */
+    private NodeColumns readNodeColumns( NodeRecord record, long[] previousLabels, StoreCursors storeCursors )
+    {
+        int[] keys = propertyKeys;
+        NodeColumns columns = new NodeColumns( record.getId(), previousLabels, keys );
+        if ( !record.inUse() )
+        {
+            return columns;
+        }
+        columns.labels = NodeLabelsField.get( record, nodeStore, storeCursors );
+        if ( columns.labels.length == 0 || keys.length == 0 )
+        {
+            return columns;
+        }
+
+        PropertyRecord propertyRecord = propertyStore.newRecord();
+        PageCursor propertyCursor = storeCursors.readCursor( PROPERTY_CURSOR );
+        long nextProp = record.getNextProp();
+        while ( !Record.NULL_REFERENCE.is( nextProp ) )
+        {
+            propertyStore.getRecordByCursor( nextProp, propertyRecord, CHECK, propertyCursor );
+            if ( !propertyRecord.inUse() )
+            {
+                break;
+            }
+            for ( PropertyBlock block : propertyRecord )
+            {
+                int keyIndex = Arrays.binarySearch( keys, block.getKeyIndexId() );
+                if ( keyIndex >= 0 )
+                {
+                    switch ( block.getType() )
+                    {
+                    case BYTE:
+                    case SHORT:
+                    case INT:
+                    case LONG:
+                    case FLOAT:
+                    case DOUBLE:
+                        columns.values[keyIndex] = block.newPropertyValue( propertyStore, storeCursors );
+                        break;
+                    default:
+                        // Only numeric values are kept in columns
+                        break;
+                    }
+                }
+            }
+            nextProp = propertyRecord.getNextProp();
+        }
+        return columns;
+    }
+
+    /**
+     * The entries of one node, i.e. its value in each column.
+     */
+    private static class NodeColumns
+    {
+        private final long node;
+        private final long[] previousLabels;
+        private final int[] propertyKeys;
+        private final Value[] values;
+        private long[] labels = EMPTY_LONG_ARRAY;
+
+        NodeColumns( long node, long[] previousLabels, int[] propertyKeys )
+        {
+            this.node = node;
+            this.previousLabels = previousLabels;
+            this.propertyKeys = propertyKeys;
+            this.values = new Value[propertyKeys.length];
+        }
+
+        void remove( Writer<NodePropertyColumnLayout.Key,NodePropertyColumnLayout.Value> writer, NodePropertyColumnLayout.Key key )
+        {
+            for ( long label : previousLabels )
+            {
+                for ( int propertyKey : propertyKeys )
+                {
+                    writer.remove( key.initialize( (int) label, propertyKey, node ) );
+                }
+            }
+            for ( long label : labels )
+            {
+                for ( int propertyKey : propertyKeys )
+                {
+                    writer.remove( key.initialize( (int) label, propertyKey, node ) );
+                }
+            }
+        }
+
+        void put( Writer<NodePropertyColumnLayout.Key,NodePropertyColumnLayout.Value> writer, NodePropertyColumnLayout.Key key,
+                NodePropertyColumnLayout.Value value )
+        {
+            for ( int i = 0; i < propertyKeys.length; i++ )
+            {
+                if ( values[i] instanceof IntegralValue )
+                {
+                    value.initialize( false, ((IntegralValue) values[i]).longValue() );
+                }
+                else if ( values[i] instanceof FloatingPointValue )
+                {
+                    value.initialize( true, Double.doubleToRawLongBits( ((FloatingPointValue) values[i]).doubleValue() ) );
+                }
+                else
+                {
+                    continue;
+                }
+                for ( long label : labels )
+                {
+                    writer.put( key.initialize( (int) label, propertyKeys[i], node ), value );
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects the nodes changed by a transaction. When closed, after the transaction has been applied to the node and property stores,
+     * the entries of the changed nodes are read from those stores and applied together with those of other transactions through a
+     * {@link WorkSync}, since the tree only has a single writer.
+     */
+    class Updates implements AutoCloseable
+    {
+        private final StoreCursors storeCursors;
+        // Changed nodes and the labels they had before the transaction, or null where the labels didn't change
+        private final MutableLongObjectMap<long[]> changedNodes = LongObjectMaps.mutable.empty();
+
+        private Updates( StoreCursors storeCursors )
+        {
+            this.storeCursors = storeCursors;
+        }
+
+        void nodeChanged( NodeRecord before )
+        {
+            changedNodes.put( before.getId(), before.inUse() ? NodeLabelsField.get( before, nodeStore, storeCursors ) : EMPTY_LONG_ARRAY );
+        }
+
+        void propertiesChanged( long nodeId )
+        {
+            if ( !changedNodes.containsKey( nodeId ) )
+            {
+                changedNodes.put( nodeId, null );
+            }
+        }
+
+        @Override
+        public void close() throws ExecutionException
+        {
+            if ( changedNodes.isEmpty() || propertyKeys.length == 0 )
+            {
+                return;
+            }
+            List<NodeColumns> columns = new ArrayList<>( changedNodes.size() );
+            NodeRecord record = nodeStore.newRecord();
+            PageCursor nodeCursor = storeCursors.readCursor( NODE_CURSOR );
+            changedNodes.forEachKeyValue( ( nodeId, previousLabels ) ->
+            {
+                nodeStore.getRecordByCursor( nodeId, record, CHECK, nodeCursor );
+                columns.add( readNodeColumns( record, previousLabels != null ? previousLabels : EMPTY_LONG_ARRAY, storeCursors ) );
+            } );
+            workSync.apply( new UpdateWork( columns ) );
+        }
+    }
+
+    private static class UpdateWork implements Work<NodePropertyColumnStore,UpdateWork>
+    {
+        private final List<NodeColumns> columns;
+
+        UpdateWork( List<NodeColumns> columns )
+        {
+            this.columns = columns;
+        }
+
+        @Override
+        public UpdateWork combine( UpdateWork work )
+        {
+            columns.addAll( work.columns );
+            return this;
+        }
+
+        @Override
+        public void apply( NodePropertyColumnStore store ) throws IOException
+        {
+            NodePropertyColumnLayout.Key key = new NodePropertyColumnLayout.Key();
+            NodePropertyColumnLayout.Value value = new NodePropertyColumnLayout.Value();
+            try ( var cursorContext = new CursorContext( store.pageCacheTracer.createPageCursorTracer( APPLY_TAG ) );
+                  Writer<NodePropertyColumnLayout.Key,NodePropertyColumnLayout.Value> writer = store.tree.writer( cursorContext ) )
+            {
+                for ( NodeColumns nodeColumns : columns )
+                {
+                    nodeColumns.remove( writer, key );
+                    nodeColumns.put( writer, key, value );
+                }
+            }
+        }
+    }
+
+    private static class HeaderState implements Header.Reader
+    {
+        private byte state = NEEDS_BUILDING;
+        private int propertyKeyNamesHash;
+
+        @Override
+        public void read( ByteBuffer headerBytes )
+        {
+            state = headerBytes.get();
+            propertyKeyNamesHash = headerBytes.getInt();
+        }
+    }
+}
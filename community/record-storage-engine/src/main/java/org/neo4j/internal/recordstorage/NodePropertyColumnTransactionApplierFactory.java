@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.neo4j.kernel.impl.store.PropertyKeyTokenStore;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.storageengine.api.CommandsToApply;
+import org.neo4j.storageengine.api.cursor.StoreCursors;
+import org.neo4j.token.api.NamedToken;
+
+/**
+ * Keeps the {@link NodePropertyColumnStore} up to date with changed nodes and node properties.
+ */
+class NodePropertyColumnTransactionApplierFactory implements TransactionApplierFactory
+{
+    private final NodePropertyColumnStore columnStore;
+    private final PropertyKeyTokenStore propertyKeyTokenStore;
+
+    NodePropertyColumnTransactionApplierFactory( NodePropertyColumnStore columnStore, PropertyKeyTokenStore propertyKeyTokenStore )
+    {
+        this.columnStore = columnStore;
+        this.propertyKeyTokenStore = propertyKeyTokenStore;
+    }
+
+    @Override
+    public TransactionApplier startTx( CommandsToApply transaction, BatchContext batchContext )
+    {
+        return new NodePropertyColumnTransactionApplier( transaction.storeCursors() );
+    }
+
+    private class NodePropertyColumnTransactionApplier extends TransactionApplier.Adapter
+    {
+        private final StoreCursors storeCursors;
+        private final NodePropertyColumnStore.Updates updates;
+
+        NodePropertyColumnTransactionApplier( StoreCursors storeCursors )
+        {
+            this.storeCursors = storeCursors;
+            this.updates = columnStore.updates( storeCursors );
+        }
+
+        @Override
+        public boolean visitNodeCommand( Command.NodeCommand command )
+        {
+            updates.nodeChanged( command.getBefore() );
+            return false;
+        }
+
+        @Override
+        public boolean visitPropertyCommand( Command.PropertyCommand command )
+        {
+            PropertyRecord record = command.getAfter().inUse() ? command.getAfter() : command.getBefore();
+            if ( record.isNodeSet() )
+            {
+                updates.propertiesChanged( record.getNodeId() );
+            }
+            return false;
+        }
+
+        @Override
+        public boolean visitPropertyKeyTokenCommand( Command.PropertyKeyTokenCommand command )
+        {
+            NamedToken token = propertyKeyTokenStore.getToken( command.tokenId(), storeCursors );
+            columnStore.propertyKeyCreated( token.id(), token.name() );
+            return false;
+        }
+
+        @Override
+        public void close() throws Exception
+        {
+            updates.close();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.eclipse.collections.api.map.primitive.MutableIntIntMap;
+import org.eclipse.collections.impl.factory.primitive.IntIntMaps;
+
+import org.neo4j.internal.counts.GBPTreeNodePropertyStatisticsStore;
+import org.neo4j.internal.counts.NodePropertyStatisticsStore;
+import org.neo4j.internal.counts.NumericValueBuckets;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.NodeLabelsField;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.cursor.CachedStoreCursors;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.Record;
+import org.neo4j.logging.Log;
+import org.neo4j.logging.LogProvider;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.storageengine.api.cursor.StoreCursors;
+import org.neo4j.values.storable.NumberValue;
+
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.NODE_CURSOR;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.PROPERTY_CURSOR;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.CHECK;
+
+/**
+ * Scans all nodes in the store and rebuilds the {@link GBPTreeNodePropertyStatisticsStore} contents if the file is missing, or if transactions
+ * were recovered without being applied to it.
+ */
+class NodePropertyStatisticsRebuildFromStore implements GBPTreeNodePropertyStatisticsStore.NodePropertyStatisticsRebuilder
+{
+    private final NeoStores neoStores;
+    private final Log log;
+
+    NodePropertyStatisticsRebuildFromStore( NeoStores neoStores, LogProvider logProvider )
+    {
+        this.neoStores = neoStores;
+        this.log = logProvider.getLog( NodePropertyStatisticsRebuildFromStore.class );
+    }
+
+    @Override
+    public long lastCommittedTxId()
+    {
+        return neoStores.getMetaDataStore().getLastCommittedTransactionId();
+    }
+
+    @Override
+    public void rebuild( NodePropertyStatisticsStore.Updater updater, CursorContext cursorContext, MemoryTracker memoryTracker )
+    {
+        log.warn( "Rebuilding node property statistics store." );
+        NodeStore nodeStore = neoStores.getNodeStore();
+        PropertyStore propertyStore = neoStores.getPropertyStore();
+        try ( var storeCursors = new CachedStoreCursors( neoStores, cursorContext ) )
+        {
+            NodeRecord record = nodeStore.newRecord();
+            PageCursor nodeCursor = storeCursors.readCursor( NODE_CURSOR );
+            long highId = nodeStore.getHighId();
+            for ( long id = 0; id < highId; id++ )
+            {
+                nodeStore.getRecordByCursor( id, record, CHECK, nodeCursor );
+                if ( record.inUse() )
+                {
+                    long[] labels = NodeLabelsField.get( record, nodeStore, storeCursors );
+                    if ( labels.length > 0 )
+                    {
+                        update( updater, labels, readProperties( record, propertyStore, storeCursors ), 1 );
+                    }
+                }
+            }
+        }
+        log.warn( "Node property statistics store rebuild completed." );
+    }
+
+    /**
+     * Counts, or un-counts, the properties of a node for each of its labels.
+     *
+     * @param properties the {@link NumericValueBuckets bucket} of the value of each property key of the node.
+     */
+    static void update( NodePropertyStatisticsStore.Updater updater, long[] labels, MutableIntIntMap properties, long delta )
+    {
+        for ( long label : labels )
+        {
+            properties.forEachKeyValue( ( propertyKey, bucket ) -> update( updater, (int) label, propertyKey, bucket, delta ) );
+        }
+    }
+
+    static void update( NodePropertyStatisticsStore.Updater updater, int label, int propertyKey, int bucket, long delta )
+    {
+        updater.incrementNodesWithProperty( label, propertyKey, delta );
+        if ( bucket != NumericValueBuckets.NO_BUCKET )
+        {
+            updater.incrementNodesWithValueInBucket( label, propertyKey, bucket, delta );
+        }
+    }
+
+    /**
+     * @return the {@link NumericValueBuckets bucket} of the value of each property key of the node, {@link NumericValueBuckets#NO_BUCKET}
+     * for non-numeric values.
+     */
+    static MutableIntIntMap readProperties( NodeRecord record, PropertyStore propertyStore, StoreCursors storeCursors )
+    {
+        MutableIntIntMap properties = IntIntMaps.mutable.empty();
+        PropertyRecord propertyRecord = propertyStore.newRecord();
+        PageCursor propertyCursor = storeCursors.readCursor( PROPERTY_CURSOR );
+        long nextProp = record.getNextProp();
+        while ( !Record.NULL_REFERENCE.is( nextProp ) )
+        {
+            propertyStore.getRecordByCursor( nextProp, propertyRecord, CHECK, propertyCursor );
+            if ( !propertyRecord.inUse() )
+            {
+                break;
+            }
+            addProperties( propertyRecord, properties, propertyStore, storeCursors );
+            nextProp = propertyRecord.getNextProp();
+        }
+        return properties;
+    }
+
+    static void addProperties( PropertyRecord record, MutableIntIntMap properties, PropertyStore propertyStore, StoreCursors storeCursors )
+    {
+        for ( PropertyBlock block : record )
+        {
+            properties.put( block.getKeyIndexId(), bucket( block, propertyStore, storeCursors ) );
+        }
+    }
+
+    private static int bucket( PropertyBlock block, PropertyStore propertyStore, StoreCursors storeCursors )
+    {
+        switch ( block.getType() )
+        {
+        case BYTE:
+        case SHORT:
+        case INT:
+        case LONG:
+        case FLOAT:
+        case DOUBLE:
+            // Numeric values are always inlined in the block, so this doesn't read from the store
+            return NumericValueBuckets.bucket( ((NumberValue) block.newPropertyValue( propertyStore, storeCursors )).doubleValue() );
+        default:
+            return NumericValueBuckets.NO_BUCKET;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.eclipse.collections.api.map.primitive.MutableIntIntMap;
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.eclipse.collections.impl.factory.primitive.IntIntMaps;
+import org.eclipse.collections.impl.factory.primitive.IntSets;
+import org.eclipse.collections.impl.factory.primitive.LongObjectMaps;
+
+import java.util.Arrays;
+
+import org.neo4j.internal.counts.NodePropertyStatisticsStore;
+import org.neo4j.kernel.impl.store.NodeLabelsField;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.storageengine.api.CommandsToApply;
+import org.neo4j.storageengine.api.cursor.StoreCursors;
+
+import static org.neo4j.collection.PrimitiveLongCollections.EMPTY_LONG_ARRAY;
+import static org.neo4j.internal.recordstorage.NodePropertyStatisticsRebuildFromStore.addProperties;
+import static org.neo4j.internal.recordstorage.NodePropertyStatisticsRebuildFromStore.readProperties;
+import static org.neo4j.internal.recordstorage.NodePropertyStatisticsRebuildFromStore.update;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.NODE_CURSOR;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.CHECK;
+
+/**
+ * Keeps the {@link NodePropertyStatisticsStore} up to date with changed nodes and node properties.
+ * <p>
+ * The statistics of a node depend on all its labels and properties, not only the changed ones, so when the transaction has been applied
+ * the state of each changed node is read from the node and property stores and the state from before the transaction is derived from that
+ * and the before-records of the commands. This isn't possible during recovery, where the stores may already contain changes of later
+ * transactions, which is why this applier isn't used there and the store is rebuilt after recovery instead.
+ */
+class NodePropertyStatisticsTransactionApplierFactory implements TransactionApplierFactory
+{
+    private static final int ABSENT = Integer.MIN_VALUE;
+
+    private final NodePropertyStatisticsStore statisticsStore;
+    private final NodeStore nodeStore;
+    private final PropertyStore propertyStore;
+
+    NodePropertyStatisticsTransactionApplierFactory( NodePropertyStatisticsStore statisticsStore, NodeStore nodeStore, PropertyStore propertyStore )
+    {
+        this.statisticsStore = statisticsStore;
+        this.nodeStore = nodeStore;
+        this.propertyStore = propertyStore;
+    }
+
+    @Override
+    public TransactionApplier startTx( CommandsToApply transaction, BatchContext batchContext )
+    {
+        return new NodePropertyStatisticsTransactionApplier( transaction );
+    }
+
+    /**
+     * What the commands of a transaction tell about the state of a node before the transaction.
+     */
+    private static class NodeChange
+    {
+        // Labels before the transaction, or null if they didn't change
+        private long[] labelsBefore;
+        // Properties in the changed property records before the transaction
+        private final MutableIntIntMap propertiesBefore = IntIntMaps.mutable.empty();
+        // Property keys in the changed property records after the transaction
+        private final MutableIntSet propertyKeysAfter = IntSets.mutable.empty();
+    }
+
+    private class NodePropertyStatisticsTransactionApplier extends TransactionApplier.Adapter
+    {
+        private final CommandsToApply transaction;
+        private final StoreCursors storeCursors;
+        private final MutableLongObjectMap<NodeChange> changes = LongObjectMaps.mutable.empty();
+
+        NodePropertyStatisticsTransactionApplier( CommandsToApply transaction )
+        {
+            this.transaction = transaction;
+            this.storeCursors = transaction.storeCursors();
+        }
+
+        @Override
+        public boolean visitNodeCommand( Command.NodeCommand command )
+        {
+            NodeRecord before = command.getBefore();
+            changes.getIfAbsentPut( before.getId(), NodeChange::new ).labelsBefore =
+                    before.inUse() ? NodeLabelsField.get( before, nodeStore, storeCursors ) : EMPTY_LONG_ARRAY;
+            return false;
+        }
+
+        @Override
+        public boolean visitPropertyCommand( Command.PropertyCommand command )
+        {
+            PropertyRecord before = command.getBefore();
+            if ( before.inUse() && before.isNodeSet() )
+            {
+                addProperties( before, changes.getIfAbsentPut( before.getNodeId(), NodeChange::new ).propertiesBefore, propertyStore, storeCursors );
+            }
+            PropertyRecord after = command.getAfter();
+            if ( after.inUse() && after.isNodeSet() )
+            {
+                MutableIntSet keysAfter = changes.getIfAbsentPut( after.getNodeId(), NodeChange::new ).propertyKeysAfter;
+                for ( PropertyBlock block : after )
+                {
+                    keysAfter.add( block.getKeyIndexId() );
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void close()
+        {
+            // The updater is opened for every transaction, also those not changing statistics, so that the store registers all transactions
+            try ( NodePropertyStatisticsStore.Updater updater = statisticsStore.apply( transaction.transactionId(), transaction.cursorContext() ) )
+            {
+                if ( changes.isEmpty() )
+                {
+                    return;
+                }
+                NodeRecord record = nodeStore.newRecord();
+                changes.forEachKeyValue( ( nodeId, change ) ->
+                {
+                    nodeStore.getRecordByCursor( nodeId, record, CHECK, storeCursors.readCursor( NODE_CURSOR ) );
+                    long[] labelsAfter = record.inUse() ? NodeLabelsField.get( record, nodeStore, storeCursors ) : EMPTY_LONG_ARRAY;
+                    long[] labelsBefore = change.labelsBefore != null ? change.labelsBefore : labelsAfter;
+                    if ( labelsBefore.length == 0 && labelsAfter.length == 0 )
+                    {
+                        return;
+                    }
+                    MutableIntIntMap propertiesAfter = record.inUse() ? readProperties( record, propertyStore, storeCursors ) : IntIntMaps.mutable.empty();
+                    MutableIntIntMap propertiesBefore = IntIntMaps.mutable.withAll( propertiesAfter );
+                    change.propertyKeysAfter.forEach( propertiesBefore::remove );
+                    propertiesBefore.putAll( change.propertiesBefore );
+
+                    if ( Arrays.equals( labelsBefore, labelsAfter ) )
+                    {
+                        // Only the changed properties can have changed statistics
+                        MutableIntSet changedKeys = IntSets.mutable.withAll( change.propertyKeysAfter ).withAll( change.propertiesBefore.keySet() );
+                        changedKeys.forEach( propertyKey ->
+                        {
+                            int bucketBefore = propertiesBefore.getIfAbsent( propertyKey, ABSENT );
+                            int bucketAfter = propertiesAfter.getIfAbsent( propertyKey, ABSENT );
+                            if ( bucketBefore != bucketAfter )
+                            {
+                                for ( long label : labelsAfter )
+                                {
+                                    if ( bucketBefore != ABSENT )
+                                    {
+                                        update( updater, (int) label, propertyKey, bucketBefore, -1 );
+                                    }
+                                    if ( bucketAfter != ABSENT )
+                                    {
+                                        update( updater, (int) label, propertyKey, bucketAfter, 1 );
+                                    }
+                                }
+                            }
+                        } );
+                    }
+                    else
+                    {
+                        update( updater, labelsBefore, propertiesBefore, -1 );
+                        update( updater, labelsAfter, propertiesAfter, 1 );
+                    }
+                } );
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.neo4j.kernel.impl.store.RecordBatch;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+
+/**
+ * The in-use node records of one page, decoded into primitive arrays, for {@link RecordNodeCursor} to step through when scanning.
+ */
+final class NodeRecordBatch implements RecordBatch<NodeRecord>
+{
+    private final long[] ids;
+    private final long[] nextProps;
+    private final long[] nextRels;
+    private final long[] labels;
+    private final boolean[] dense;
+    private int size;
+    private int cursor;
+
+    NodeRecordBatch( int recordsPerPage )
+    {
+        ids = new long[recordsPerPage];
+        nextProps = new long[recordsPerPage];
+        nextRels = new long[recordsPerPage];
+        labels = new long[recordsPerPage];
+        dense = new boolean[recordsPerPage];
+    }
+
+    @Override
+    public void clear()
+    {
+        size = 0;
+        cursor = 0;
+    }
+
+    @Override
+    public void add( NodeRecord record )
+    {
+        ids[size] = record.getId();
+        nextProps[size] = record.getNextProp();
+        nextRels[size] = record.getNextRel();
+        labels[size] = record.getLabelField();
+        dense[size] = record.isDense();
+        size++;
+    }
+
+    boolean hasNext()
+    {
+        return cursor < size;
+    }
+
+    /**
+     * @return id of the record that the next call to {@link #next(NodeRecord)} will load.
+     */
+    long peekId()
+    {
+        return ids[cursor];
+    }
+
+    void next( NodeRecord target )
+    {
+        target.setId( ids[cursor] );
+        target.initialize( true, nextProps[cursor], dense[cursor], nextRels[cursor], labels[cursor] );
+        cursor++;
+    }
+}
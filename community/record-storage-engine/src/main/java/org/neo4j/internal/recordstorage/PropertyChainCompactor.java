@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.Record;
+import org.neo4j.storageengine.api.StorageCommand;
+import org.neo4j.storageengine.api.cursor.StoreCursors;
+
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.NODE_CURSOR;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.PROPERTY_CURSOR;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.CHECK;
+
+/**
+ * Rewrites the property chain of a node into as few property records as its blocks need, allocated as one consecutive
+ * id range so that the chain ends up on as few pages as possible. The records previously used by the chain are marked as
+ * not in use and their ids will be freed when the generated commands are applied. Property values stored in dynamic records
+ * are left where they are, only the property blocks pointing to them are moved.
+ * <p>
+ * Relationship chains are not compacted since relationship ids are visible to users and therefore cannot be changed.
+ */
+class PropertyChainCompactor
+{
+    private final NodeStore nodeStore;
+    private final PropertyStore propertyStore;
+    private final LogCommandSerialization serialization;
+    private final int maxChainLength;
+
+    PropertyChainCompactor( NodeStore nodeStore, PropertyStore propertyStore, LogCommandSerialization serialization )
+    {
+        this.nodeStore = nodeStore;
+        this.propertyStore = propertyStore;
+        this.serialization = serialization;
+        // Keep the transactions small and make it possible to fit the whole compacted chain onto a single page
+        this.maxChainLength = propertyStore.getRecordsPerPage();
+    }
+
+    /**
+     * @param nodeId id of the node to compact the property chain for. The caller must hold an exclusive lock on this node.
+     * @param cursorContext underlying page cursor context.
+     * @param storeCursors store cursors to read records with.
+     * @return commands for compacting the property chain of the node, or an empty list if the chain is already compact,
+     * too long, or if the node or any of its property records isn't in use.
+     */
+    List<StorageCommand> compact( long nodeId, CursorContext cursorContext, StoreCursors storeCursors )
+    {
+        NodeRecord node = nodeStore.getRecordByCursor( nodeId, nodeStore.newRecord(), CHECK, storeCursors.readCursor( NODE_CURSOR ) );
+        if ( !node.inUse() || Record.NO_NEXT_PROPERTY.is( node.getNextProp() ) )
+        {
+            return Collections.emptyList();
+        }
+
+        List<PropertyRecord> chain = new ArrayList<>();
+        long nextProp = node.getNextProp();
+        while ( !Record.NO_NEXT_PROPERTY.is( nextProp ) )
+        {
+            if ( chain.size() == maxChainLength )
+            {
+                return Collections.emptyList();
+            }
+            PropertyRecord record = propertyStore.getRecordByCursor( nextProp, propertyStore.newRecord(), CHECK,
+                    storeCursors.readCursor( PROPERTY_CURSOR ) );
+            if ( !record.inUse() )
+            {
+                // Someone else has changed this chain in a way we cannot make sense of, leave it be
+                return Collections.emptyList();
+            }
+            chain.add( record );
+            nextProp = record.getNextProp();
+        }
+
+        List<PropertyBlock> blocks = new ArrayList<>();
+        for ( PropertyRecord record : chain )
+        {
+            for ( PropertyBlock block : record )
+            {
+                blocks.add( block );
+            }
+        }
+        List<PropertyRecord> packed = pack( blocks );
+        if ( packed.size() == chain.size() && isConsecutive( chain ) )
+        {
+            return Collections.emptyList();
+        }
+
+        long firstId = propertyStore.getIdGenerator().nextConsecutiveIdRange( packed.size(), true, cursorContext );
+        List<StorageCommand> commands = new ArrayList<>( packed.size() + chain.size() + 1 );
+        for ( int i = 0; i < packed.size(); i++ )
+        {
+            long id = firstId + i;
+            PropertyRecord before = new PropertyRecord( id );
+            before.setNodeId( nodeId );
+            PropertyRecord after = packed.get( i );
+            after.setId( id );
+            after.setInUse( true );
+            after.setCreated();
+            after.setNodeId( nodeId );
+            after.setPrevProp( i == 0 ? Record.NO_PREVIOUS_PROPERTY.longValue() : id - 1 );
+            after.setNextProp( i == packed.size() - 1 ? Record.NO_NEXT_PROPERTY.longValue() : id + 1 );
+            commands.add( new Command.PropertyCommand( serialization, before, after ) );
+        }
+        for ( PropertyRecord record : chain )
+        {
+            PropertyRecord before = record.copy();
+            record.clearPropertyBlocks();
+            record.setInUse( false );
+            commands.add( new Command.PropertyCommand( serialization, before, record ) );
+        }
+        NodeRecord nodeBefore = node.copy();
+        node.setNextProp( firstId );
+        commands.add( new Command.NodeCommand( serialization, nodeBefore, node ) );
+        return commands;
+    }
+
+    /**
+     * First-fit packing of the blocks into as few records as possible.
+     */
+    private static List<PropertyRecord> pack( List<PropertyBlock> blocks )
+    {
+        List<PropertyRecord> records = new ArrayList<>();
+        for ( PropertyBlock block : blocks )
+        {
+            PropertyRecord target = null;
+            for ( PropertyRecord candidate : records )
+            {
+                if ( candidate.hasSpaceFor( block ) )
+                {
+                    target = candidate;
+                    break;
+                }
+            }
+            if ( target == null )
+            {
+                target = new PropertyRecord( Record.NULL_REFERENCE.longValue() );
+                target.initialize( true, Record.NO_PREVIOUS_PROPERTY.longValue(), Record.NO_NEXT_PROPERTY.longValue() );
+                records.add( target );
+            }
+            target.addPropertyBlock( block );
+        }
+        return records;
+    }
+
+    private static boolean isConsecutive( List<PropertyRecord> chain )
+    {
+        for ( int i = 1; i < chain.size(); i++ )
+        {
+            if ( chain.get( i ).getId() != chain.get( i - 1 ).getId() + 1 )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -43,23 +43,26 @@ public class PropertyCreator
     private final IdSequence propertyRecordIdGenerator;
     private final PropertyTraverser traverser;
     private final boolean allowStorePointsAndTemporal;
+    private final int compressionThreshold;
     private final CursorContext cursorContext;
     private final MemoryTracker memoryTracker;
 
     public PropertyCreator( PropertyStore propertyStore, PropertyTraverser traverser, CursorContext cursorContext, MemoryTracker memoryTracker )
     {
         this( propertyStore.getStringStore(), propertyStore.getArrayStore(), propertyStore, traverser, propertyStore.allowStorePointsAndTemporal(),
-                cursorContext, memoryTracker );
+                propertyStore.dynamicCompressionThreshold(), cursorContext, memoryTracker );
     }
 
     PropertyCreator( DynamicRecordAllocator stringRecordAllocator, DynamicRecordAllocator arrayRecordAllocator, IdSequence propertyRecordIdGenerator,
-            PropertyTraverser traverser, boolean allowStorePointsAndTemporal, CursorContext cursorContext, MemoryTracker memoryTracker )
+            PropertyTraverser traverser, boolean allowStorePointsAndTemporal, int compressionThreshold, CursorContext cursorContext,
+            MemoryTracker memoryTracker )
     {
         this.stringRecordAllocator = stringRecordAllocator;
         this.arrayRecordAllocator = arrayRecordAllocator;
         this.propertyRecordIdGenerator = propertyRecordIdGenerator;
         this.traverser = traverser;
         this.allowStorePointsAndTemporal = allowStorePointsAndTemporal;
+        this.compressionThreshold = compressionThreshold;
         this.cursorContext = cursorContext;
         this.memoryTracker = memoryTracker;
     }
@@ -144,8 +147,9 @@ public class PropertyCreator
         PropertyRecord freeHost;
         if ( freeHostProxy == null )
         {
-            // We couldn't find free space along the way, so create a new host record
-            freeHost = propertyRecords.create( propertyRecordIdGenerator.nextId( cursorContext ), primitive, cursorContext ).forChangingData();
+            // We couldn't find free space along the way, so create a new host record, preferably close to the existing chain (if any)
+            long hostId = propertyRecordIdGenerator.nextIdNear( primitive.getNextProp(), cursorContext );
+            freeHost = propertyRecords.create( hostId, primitive, cursorContext ).forChangingData();
             freeHost.setInUse( true );
             if ( primitive.getNextProp() != Record.NO_NEXT_PROPERTY.intValue() )
             {
@@ -191,8 +195,8 @@ public class PropertyCreator
 
     public PropertyBlock encodeValue( PropertyBlock block, int propertyKey, Value value )
     {
-        PropertyStore.encodeValue( block, propertyKey, value, stringRecordAllocator, arrayRecordAllocator, allowStorePointsAndTemporal, cursorContext,
-                memoryTracker );
+        PropertyStore.encodeValue( block, propertyKey, value, stringRecordAllocator, arrayRecordAllocator, allowStorePointsAndTemporal,
+                compressionThreshold, cursorContext, memoryTracker );
         return block;
     }
 
@@ -222,7 +226,7 @@ public class PropertyCreator
                 // Here it means the current block is done for
                 PropertyRecord prevRecord = currentRecord;
                 // Create new record
-                long propertyId = propertyRecordIdGenerator.nextId( cursorContext );
+                long propertyId = propertyRecordIdGenerator.nextIdNear( prevRecord.getId(), cursorContext );
                 currentRecord = propertyRecords.create( propertyId, owner, cursorContext ).forChangingData();
                 createdPropertyRecords.accept( currentRecord );
                 currentRecord.setInUse( true );
@@ -22,6 +22,7 @@ package org.neo4j.internal.recordstorage;
 import org.eclipse.collections.api.set.primitive.MutableIntSet;
 import org.eclipse.collections.impl.factory.primitive.IntSets;
 
+import org.neo4j.internal.counts.NodeDegreesStore;
 import org.neo4j.internal.counts.RelationshipGroupDegreesStore;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.context.CursorContext;
@@ -52,6 +53,9 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
 {
     private final NodeStore read;
     private final RelationshipGroupDegreesStore groupDegreesStore;
+    private final NodeDegreesStore nodeDegreesStore;
+    private final RelationshipAdjacencyStore adjacencyStore;
+    private final RelationshipGroupDirectory groupDirectory;
     private final CursorContext cursorContext;
     private final StoreCursors storeCursors;
     private final RelationshipStore relationshipStore;
@@ -62,6 +66,8 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
     private long nextStoreReference;
     private boolean open;
     private boolean batched;
+    // In-use records of the current page when scanning, read from the page in one go rather than one record at a time
+    private NodeRecordBatch pageBatch;
     private RecordRelationshipGroupCursor groupCursor;
     private RecordRelationshipTraversalCursor relationshipCursor;
     private RecordRelationshipScanCursor relationshipScanCursor;
@@ -69,10 +75,25 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
 
     RecordNodeCursor( NodeStore read, RelationshipStore relationshipStore, RelationshipGroupStore groupStore, RelationshipGroupDegreesStore groupDegreesStore,
             CursorContext cursorContext, StoreCursors storeCursors )
+    {
+        this( read, relationshipStore, groupStore, groupDegreesStore, null, null, null, cursorContext, storeCursors );
+    }
+
+    /**
+     * @param nodeDegreesStore optional store of degrees of all nodes, or {@code null} if there's no such store.
+     * @param adjacencyStore optional store of the relationships of all nodes, or {@code null} if there's no such store.
+     * @param groupDirectory optional directory of the groups of all dense nodes, or {@code null} if there's no such directory.
+     */
+    RecordNodeCursor( NodeStore read, RelationshipStore relationshipStore, RelationshipGroupStore groupStore, RelationshipGroupDegreesStore groupDegreesStore,
+            NodeDegreesStore nodeDegreesStore, RelationshipAdjacencyStore adjacencyStore, RelationshipGroupDirectory groupDirectory, CursorContext cursorContext,
+            StoreCursors storeCursors )
     {
         super( NO_ID );
         this.read = read;
         this.groupDegreesStore = groupDegreesStore;
+        this.nodeDegreesStore = nodeDegreesStore;
+        this.adjacencyStore = adjacencyStore;
+        this.groupDirectory = groupDirectory;
         this.cursorContext = cursorContext;
         this.storeCursors = storeCursors;
         this.relationshipStore = relationshipStore;
@@ -150,6 +171,10 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
         }
         next = start;
         highMark = min( stop, max );
+        if ( pageBatch != null )
+        {
+            pageBatch.clear();
+        }
         return true;
     }
 
@@ -225,10 +250,7 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
         }
         else
         {
-            if ( groupCursor == null )
-            {
-                groupCursor = new RecordRelationshipGroupCursor( relationshipStore, groupStore, groupDegreesStore, loadMode, cursorContext );
-            }
+            ensureGroupCursorInitialized();
             groupCursor.init( entityReference(), getNextRel(), true );
             while ( groupCursor.next() )
             {
@@ -242,7 +264,16 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
     {
         if ( relationshipCursor == null )
         {
-            relationshipCursor = new RecordRelationshipTraversalCursor( relationshipStore, groupStore, groupDegreesStore, cursorContext );
+            relationshipCursor = new RecordRelationshipTraversalCursor( relationshipStore, groupStore, groupDegreesStore, adjacencyStore, groupDirectory,
+                    cursorContext );
+        }
+    }
+
+    private void ensureGroupCursorInitialized()
+    {
+        if ( groupCursor == null )
+        {
+            groupCursor = new RecordRelationshipGroupCursor( relationshipStore, groupStore, groupDegreesStore, groupDirectory, loadMode, cursorContext );
         }
     }
 
@@ -254,6 +285,11 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
         }
     }
 
+    private int degree( int type, RelationshipDirection direction )
+    {
+        return (int) nodeDegreesStore.degree( getId(), type, direction, cursorContext );
+    }
+
     @Override
     public void degrees( RelationshipSelection selection, Degrees.Mutator mutator )
     {
@@ -272,7 +308,22 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
             return;
         }
 
-        if ( !isDense() )
+        if ( !isDense() && nodeDegreesStore != null && selection.isTypeLimited() )
+        {
+            // The degrees of the selected types can be looked up directly instead of traversing the whole relationship chain
+            for ( int i = 0; i < selection.numberOfCriteria(); i++ )
+            {
+                int type = selection.criterion( i ).type();
+                int outgoing = selection.test( RelationshipDirection.OUTGOING ) ? degree( type, RelationshipDirection.OUTGOING ) : 0;
+                int incoming = selection.test( RelationshipDirection.INCOMING ) ? degree( type, RelationshipDirection.INCOMING ) : 0;
+                int loop = degree( type, RelationshipDirection.LOOP );
+                if ( (outgoing | incoming | loop) != 0 && !mutator.add( type, outgoing, incoming, loop ) )
+                {
+                    return;
+                }
+            }
+        }
+        else if ( !isDense() )
         {
             ensureRelationshipTraversalCursorInitialized();
             relationshipCursor.init( this, ALL_RELATIONSHIPS );
@@ -307,13 +358,17 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
         }
         else
         {
-            if ( groupCursor == null )
+            ensureGroupCursorInitialized();
+            boolean typeLimited = selection.isTypeLimited();
+            if ( typeLimited && isDense() && groupCursor.canFindGroupsByType() )
+            {
+                groupCursor.directForTypes( entityReference(), getNextRel(), RecordRelationshipGroupCursor.selectedTypes( selection ) );
+            }
+            else
             {
-                groupCursor = new RecordRelationshipGroupCursor( relationshipStore, groupStore, groupDegreesStore, loadMode, cursorContext );
+                groupCursor.init( entityReference(), getNextRel(), isDense() );
             }
-            groupCursor.init( entityReference(), getNextRel(), isDense() );
             int criteriaMet = 0;
-            boolean typeLimited = selection.isTypeLimited();
             int numCriteria = selection.numberOfCriteria();
             while ( groupCursor.next() )
             {
@@ -352,6 +407,13 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
     @Override
     public void setForceLoad()
     {
+        if ( pageBatch != null && pageBatch.hasNext() )
+        {
+            // Continue with the remaining records of the page one by one, with the forced load mode
+            next = pageBatch.peekId();
+            nextStoreReference = NO_ID;
+            pageBatch.clear();
+        }
         this.loadMode = RecordLoadOverride.FORCE;
         if ( groupCursor != null )
         {
@@ -368,7 +430,7 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
     @Override
     public void properties( StoragePropertyCursor propertyCursor, PropertySelection selection )
     {
-        propertyCursor.initNodeProperties( longReference( getNextProp() ), selection );
+        propertyCursor.initNodeProperties( this, selection );
     }
 
     @Override
@@ -379,6 +441,10 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
             resetState();
             return false;
         }
+        if ( !isSingle() && loadMode == RecordLoadOverride.none() )
+        {
+            return nextFromPages();
+        }
 
         do
         {
@@ -420,6 +486,35 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
         return true;
     }
 
+    private boolean nextFromPages()
+    {
+        if ( pageBatch == null )
+        {
+            pageBatch = new NodeRecordBatch( read.getRecordsPerPage() );
+        }
+        while ( !pageBatch.hasNext() )
+        {
+            if ( next > highMark )
+            {
+                if ( !batched )
+                {
+                    //we are a "scan cursor"
+                    //Check if there is a new high mark
+                    highMark = nodeHighMark();
+                }
+                if ( next > highMark )
+                {
+                    resetState();
+                    return false;
+                }
+            }
+            next = read.readRecordsOfPage( next, highMark, this, pageBatch, pageCursor ) + 1;
+            nextStoreReference = NO_ID;
+        }
+        pageBatch.next( this );
+        return true;
+    }
+
     @Override
     public void reset()
     {
@@ -435,6 +530,10 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
         next = NO_ID;
         setId( NO_ID );
         clear();
+        if ( pageBatch != null )
+        {
+            pageBatch.clear();
+        }
         this.loadMode = RecordLoadOverride.none();
         if ( groupCursor != null )
         {
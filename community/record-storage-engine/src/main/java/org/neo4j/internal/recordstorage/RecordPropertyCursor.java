@@ -43,6 +43,7 @@ import org.neo4j.memory.MemoryTracker;
 import org.neo4j.storageengine.api.LongReference;
 import org.neo4j.storageengine.api.PropertySelection;
 import org.neo4j.storageengine.api.Reference;
+import org.neo4j.storageengine.api.StorageNodeCursor;
 import org.neo4j.storageengine.api.StoragePropertyCursor;
 import org.neo4j.util.Bits;
 import org.neo4j.values.storable.ArrayValue;
@@ -104,6 +105,32 @@ public class RecordPropertyCursor extends PropertyRecord implements StoragePrope
         init( reference, selection, ownerReference, EntityType.NODE );
     }
 
+    /**
+     * If the node record carries a copy of its first property record, starts from that copy, instead of reading it from the property store.
+     */
+    @Override
+    public void initNodeProperties( StorageNodeCursor nodeCursor, PropertySelection selection )
+    {
+        PropertyRecord inlinedProperty = nodeCursor instanceof RecordNodeCursor ? ((RecordNodeCursor) nodeCursor).getInlinedProperty() : null;
+        if ( inlinedProperty == null )
+        {
+            initNodeProperties( nodeCursor.propertiesReference(), selection );
+            return;
+        }
+
+        init( nodeCursor.propertiesReference(), selection, nodeCursor.entityReference(), EntityType.NODE );
+        setId( inlinedProperty.getId() );
+        initialize( true, inlinedProperty.getPrevProp(), inlinedProperty.getNextProp() );
+        long[] blocks = inlinedProperty.getBlocks();
+        for ( int i = 0; i < inlinedProperty.getNumberOfBlocks(); i++ )
+        {
+            addLoadedBlock( blocks[i] );
+        }
+        this.next = getNextProp();
+        this.block = INITIAL_POSITION;
+        this.numSeenPropertyRecords = 1;
+    }
+
     @Override
     public void initRelationshipProperties( Reference reference, PropertySelection selection, long ownerReference )
     {
@@ -19,6 +19,10 @@
  */
 package org.neo4j.internal.recordstorage;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
 import org.neo4j.internal.counts.RelationshipGroupDegreesStore;
 import org.neo4j.internal.helpers.Numbers;
 import org.neo4j.io.pagecache.PageCursor;
@@ -29,7 +33,9 @@ import org.neo4j.kernel.impl.store.record.RecordLoadOverride;
 import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
 import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.storageengine.api.RelationshipDirection;
+import org.neo4j.storageengine.api.RelationshipSelection;
 
+import static org.neo4j.kernel.impl.store.record.Record.isNull;
 import static org.neo4j.kernel.impl.store.record.RecordLoad.ALWAYS;
 
 class RecordRelationshipGroupCursor extends RelationshipGroupRecord implements AutoCloseable
@@ -37,6 +43,7 @@ class RecordRelationshipGroupCursor extends RelationshipGroupRecord implements A
     private final RelationshipStore relationshipStore;
     private final RelationshipGroupStore groupStore;
     private final RelationshipGroupDegreesStore groupDegreesStore;
+    private final RelationshipGroupDirectory groupDirectory;
     private final CursorContext cursorContext;
     private final RelationshipRecord edge = new RelationshipRecord( NO_ID );
 
@@ -45,13 +52,29 @@ class RecordRelationshipGroupCursor extends RelationshipGroupRecord implements A
     private boolean open;
     RecordLoadOverride loadMode;
 
+    // State for iterating over groups found in the relationship group directory instead of walking the group chain
+    private RelationshipGroupDirectory.Lookup groupLookup;
+    private long[] typedGroups = new long[0];
+    private int typedGroupCount;
+    private int typedGroupIndex = -1;
+
     RecordRelationshipGroupCursor( RelationshipStore relationshipStore, RelationshipGroupStore groupStore, RelationshipGroupDegreesStore groupDegreesStore,
             RecordLoadOverride loadMode, CursorContext cursorContext )
+    {
+        this( relationshipStore, groupStore, groupDegreesStore, null, loadMode, cursorContext );
+    }
+
+    /**
+     * @param groupDirectory optional directory of the groups of all dense nodes, or {@code null} if there's no such directory.
+     */
+    RecordRelationshipGroupCursor( RelationshipStore relationshipStore, RelationshipGroupStore groupStore, RelationshipGroupDegreesStore groupDegreesStore,
+            RelationshipGroupDirectory groupDirectory, RecordLoadOverride loadMode, CursorContext cursorContext )
     {
         super( NO_ID );
         this.relationshipStore = relationshipStore;
         this.groupStore = groupStore;
         this.groupDegreesStore = groupDegreesStore;
+        this.groupDirectory = groupDirectory;
         this.cursorContext = cursorContext;
         this.loadMode = loadMode;
     }
@@ -78,14 +101,78 @@ class RecordRelationshipGroupCursor extends RelationshipGroupRecord implements A
         clear();
         setOwningNode( nodeReference );
         setNext( reference );
+        typedGroupIndex = -1;
         if ( page == null )
         {
             page = groupPage( reference );
         }
     }
 
+    /**
+     * @return whether or not {@link #directForTypes(long, long, int[])} can find groups without walking the group chain.
+     */
+    boolean canFindGroupsByType()
+    {
+        return groupDirectory != null && groupDirectory.isBuilt();
+    }
+
+    /**
+     * Dense node, only the groups of the given types, which are looked up in the {@link RelationshipGroupDirectory} rather than found
+     * by walking the group chain. Falls back to {@link #direct(long, long) walking the chain} if there's no built directory, or if the
+     * directory points to a group that isn't the group of that type of this node.
+     *
+     * @param types types of the groups to iterate over, sorted in ascending order.
+     */
+    void directForTypes( long nodeReference, long reference, int[] types )
+    {
+        direct( nodeReference, reference );
+        if ( !canFindGroupsByType() || isNull( reference ) )
+        {
+            return;
+        }
+        if ( groupLookup == null )
+        {
+            groupLookup = groupDirectory.lookup( cursorContext );
+        }
+        if ( typedGroups.length < types.length )
+        {
+            typedGroups = new long[types.length];
+        }
+        int count = 0;
+        for ( int i = 0; i < types.length; i++ )
+        {
+            int type = types[i];
+            if ( i > 0 && type == types[i - 1] )
+            {
+                continue;
+            }
+            long groupId = groupLookup.group( nodeReference, type );
+            if ( isNull( groupId ) )
+            {
+                continue;
+            }
+            group( this, groupId, page );
+            if ( !inUse() || getOwningNode() != nodeReference || getType() != type )
+            {
+                // The directory doesn't agree with the group records, e.g. because of a concurrent change, so walk the chain instead
+                direct( nodeReference, reference );
+                return;
+            }
+            typedGroups[count++] = groupId;
+        }
+        clear();
+        setOwningNode( nodeReference );
+        setNext( NO_ID );
+        typedGroupCount = count;
+        typedGroupIndex = 0;
+    }
+
     boolean next()
     {
+        if ( typedGroupIndex >= 0 )
+        {
+            return nextTyped();
+        }
         do
         {
             if ( getNext() == NO_ID )
@@ -100,6 +187,33 @@ class RecordRelationshipGroupCursor extends RelationshipGroupRecord implements A
         return true;
     }
 
+    /**
+     * @return the types of a {@link RelationshipSelection#isTypeLimited() type limited} selection, sorted in ascending order.
+     */
+    static int[] selectedTypes( RelationshipSelection selection )
+    {
+        int[] types = new int[selection.numberOfCriteria()];
+        for ( int i = 0; i < types.length; i++ )
+        {
+            types[i] = selection.criterion( i ).type();
+        }
+        Arrays.sort( types );
+        return types;
+    }
+
+    private boolean nextTyped()
+    {
+        while ( typedGroupIndex < typedGroupCount )
+        {
+            group( this, typedGroups[typedGroupIndex++], page );
+            if ( inUse() )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
     int outgoingCount()
     {
         return count( outgoingRawId(), hasExternalDegreesOut(), RelationshipDirection.OUTGOING );
@@ -179,6 +293,19 @@ class RecordRelationshipGroupCursor extends RelationshipGroupRecord implements A
     @Override
     public void close()
     {
+        if ( groupLookup != null )
+        {
+            try
+            {
+                groupLookup.close();
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+            groupLookup = null;
+        }
+
         if ( edgePage != null )
         {
             edgePage.close();
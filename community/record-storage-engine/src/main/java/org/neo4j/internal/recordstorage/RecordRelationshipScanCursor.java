@@ -22,6 +22,7 @@ package org.neo4j.internal.recordstorage;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.record.RecordLoadOverride;
 import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.storageengine.api.AllRelationshipsScan;
 import org.neo4j.storageengine.api.StorageRelationshipScanCursor;
@@ -37,6 +38,8 @@ public class RecordRelationshipScanCursor extends RecordRelationshipCursor imple
     private PageCursor pageCursor;
     private boolean open;
     private boolean batched;
+    // In-use records of the current page when scanning, read from the page in one go rather than one record at a time
+    private RelationshipRecordBatch pageBatch;
 
     RecordRelationshipScanCursor( RelationshipStore relationshipStore, CursorContext cursorContext )
     {
@@ -58,6 +61,7 @@ public class RecordRelationshipScanCursor extends RecordRelationshipCursor imple
         this.highMark = relationshipHighMark();
         this.nextStoreReference = NO_ID;
         this.open = true;
+        this.batched = false;
     }
 
     @Override
@@ -116,6 +120,10 @@ public class RecordRelationshipScanCursor extends RecordRelationshipCursor imple
         }
         next = start;
         highMark = min( stop, max );
+        if ( pageBatch != null )
+        {
+            pageBatch.clear();
+        }
         return true;
     }
 
@@ -127,6 +135,10 @@ public class RecordRelationshipScanCursor extends RecordRelationshipCursor imple
             resetState();
             return false;
         }
+        if ( !isSingle() && loadMode == RecordLoadOverride.none() )
+        {
+            return nextFromPages();
+        }
 
         do
         {
@@ -168,6 +180,48 @@ public class RecordRelationshipScanCursor extends RecordRelationshipCursor imple
         return true;
     }
 
+    private boolean nextFromPages()
+    {
+        if ( pageBatch == null )
+        {
+            pageBatch = new RelationshipRecordBatch( relationshipStore.getRecordsPerPage() );
+        }
+        while ( !pageBatch.hasNext() )
+        {
+            if ( next > highMark )
+            {
+                if ( !batched )
+                {
+                    //we are a "scan cursor"
+                    //Check if there is a new high mark
+                    highMark = relationshipHighMark();
+                }
+                if ( next > highMark )
+                {
+                    resetState();
+                    return false;
+                }
+            }
+            next = relationshipStore.readRecordsOfPage( next, highMark, this, pageBatch, pageCursor ) + 1;
+            nextStoreReference = NO_ID;
+        }
+        pageBatch.next( this );
+        return true;
+    }
+
+    @Override
+    public void setForceLoad()
+    {
+        if ( pageBatch != null && pageBatch.hasNext() )
+        {
+            // Continue with the remaining records of the page one by one, with the forced load mode
+            next = pageBatch.peekId();
+            nextStoreReference = NO_ID;
+            pageBatch.clear();
+        }
+        super.setForceLoad();
+    }
+
     @Override
     public void reset()
     {
@@ -183,6 +237,10 @@ public class RecordRelationshipScanCursor extends RecordRelationshipCursor imple
     {
         super.resetState();
         setId( next = NO_ID );
+        if ( pageBatch != null )
+        {
+            pageBatch.clear();
+        }
     }
 
     @Override
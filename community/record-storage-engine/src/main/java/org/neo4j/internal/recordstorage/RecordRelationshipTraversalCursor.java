@@ -19,13 +19,22 @@
  */
 package org.neo4j.internal.recordstorage;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.neo4j.index.internal.gbptree.Seeker;
 import org.neo4j.internal.counts.RelationshipGroupDegreesStore;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.kernel.impl.store.RelationshipGroupStore;
 import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.storageengine.api.PropertySelection;
 import org.neo4j.storageengine.api.ReadTracer;
+import org.neo4j.storageengine.api.Reference;
+import org.neo4j.storageengine.api.RelationshipDirection;
 import org.neo4j.storageengine.api.RelationshipSelection;
+import org.neo4j.storageengine.api.StoragePropertyCursor;
 import org.neo4j.storageengine.api.StorageRelationshipTraversalCursor;
 
 import static org.neo4j.storageengine.api.RelationshipDirection.INCOMING;
@@ -53,11 +62,38 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
     private GroupState groupState = GroupState.NONE;
     private boolean open;
 
+    // State for traversing the relationship adjacency store instead of relationship chains, if there is such a store
+    private final RelationshipAdjacencyStore adjacencyStore;
+    private final CursorContext cursorContext;
+    private final RelationshipAdjacencyLayout.Key adjacencyFrom = new RelationshipAdjacencyLayout.Key();
+    private final RelationshipAdjacencyLayout.Key adjacencyTo = new RelationshipAdjacencyLayout.Key();
+    private Seeker<RelationshipAdjacencyLayout.Key,RelationshipAdjacencyLayout.Value> adjacency;
+    private boolean traversingAdjacency;
+    // The selected types to seek, one at a time, or null if all types are selected
+    private int[] adjacencyTypes;
+    private int adjacencyTypeIndex;
+    // Relationships read from the adjacency store only have their properties loaded from the relationship store when asked for
+    private boolean propertiesLoaded = true;
+    private RelationshipRecord propertiesRecord;
+
     RecordRelationshipTraversalCursor( RelationshipStore relationshipStore, RelationshipGroupStore groupStore, RelationshipGroupDegreesStore groupDegreesStore,
             CursorContext cursorContext )
+    {
+        this( relationshipStore, groupStore, groupDegreesStore, null, null, cursorContext );
+    }
+
+    /**
+     * @param adjacencyStore optional store of the relationships of all nodes to traverse instead of relationship chains,
+     * or {@code null} if there's no such store.
+     * @param groupDirectory optional directory of the groups of all dense nodes, or {@code null} if there's no such directory.
+     */
+    RecordRelationshipTraversalCursor( RelationshipStore relationshipStore, RelationshipGroupStore groupStore, RelationshipGroupDegreesStore groupDegreesStore,
+            RelationshipAdjacencyStore adjacencyStore, RelationshipGroupDirectory groupDirectory, CursorContext cursorContext )
     {
         super( relationshipStore, cursorContext );
-        this.group = new RecordRelationshipGroupCursor( relationshipStore, groupStore, groupDegreesStore, loadMode, cursorContext );
+        this.group = new RecordRelationshipGroupCursor( relationshipStore, groupStore, groupDegreesStore, groupDirectory, loadMode, cursorContext );
+        this.adjacencyStore = adjacencyStore;
+        this.cursorContext = cursorContext;
     }
 
     void init( RecordNodeCursor nodeCursor, RelationshipSelection selection )
@@ -89,7 +125,12 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
         }
 
         this.selection = selection;
-        if ( isDense )
+        if ( adjacencyStore != null && adjacencyStore.isBuilt() )
+        {
+            // The relationships of the node are read from the adjacency store, so the reference to its chain isn't needed
+            adjacency( nodeReference );
+        }
+        else if ( isDense )
         {
             // The reference points to a relationship group record
             groups( nodeReference, reference );
@@ -126,7 +167,152 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
         this.next = NO_ID;
         this.groupState = GroupState.INCOMING;
         this.originNodeReference = nodeReference;
-        this.group.direct( nodeReference, groupReference );
+        if ( selection.isTypeLimited() && group.canFindGroupsByType() )
+        {
+            // Only the groups of the selected types are visited, which the group cursor may find without walking the whole group chain
+            this.group.directForTypes( nodeReference, groupReference, RecordRelationshipGroupCursor.selectedTypes( selection ) );
+        }
+        else
+        {
+            this.group.direct( nodeReference, groupReference );
+        }
+    }
+
+    /*
+     * Traversal of the adjacency store. Traversal returns mixed types and directions, sorted by type.
+     */
+    private void adjacency( long nodeReference )
+    {
+        if ( adjacency == null )
+        {
+            adjacency = adjacencyStore.allocateSeeker( cursorContext );
+        }
+        setId( NO_ID );
+        this.next = NO_ID;
+        this.groupState = GroupState.NONE;
+        this.originNodeReference = nodeReference;
+        this.traversingAdjacency = true;
+        if ( selection.isTypeLimited() )
+        {
+            adjacencyTypes = RecordRelationshipGroupCursor.selectedTypes( selection );
+            adjacencyTypeIndex = 0;
+            seekNextAdjacencyType();
+        }
+        else
+        {
+            adjacencyTypes = null;
+            adjacencyStore.seek( adjacency, adjacencyFrom.initialize( nodeReference, Integer.MIN_VALUE, Byte.MIN_VALUE, Long.MIN_VALUE ),
+                    adjacencyTo.initialize( nodeReference + 1, Integer.MIN_VALUE, Byte.MIN_VALUE, Long.MIN_VALUE ) );
+        }
+    }
+
+    private boolean seekNextAdjacencyType()
+    {
+        if ( adjacencyTypes == null )
+        {
+            return false;
+        }
+        // Skip duplicates among the selected types
+        while ( adjacencyTypeIndex > 0 && adjacencyTypeIndex < adjacencyTypes.length &&
+                adjacencyTypes[adjacencyTypeIndex] == adjacencyTypes[adjacencyTypeIndex - 1] )
+        {
+            adjacencyTypeIndex++;
+        }
+        if ( adjacencyTypeIndex >= adjacencyTypes.length )
+        {
+            return false;
+        }
+        int type = adjacencyTypes[adjacencyTypeIndex++];
+        adjacencyStore.seek( adjacency, adjacencyFrom.initialize( originNodeReference, type, Byte.MIN_VALUE, Long.MIN_VALUE ),
+                adjacencyTo.initialize( originNodeReference, type + 1, Byte.MIN_VALUE, Long.MIN_VALUE ) );
+        return true;
+    }
+
+    private boolean nextFromAdjacency()
+    {
+        try
+        {
+            while ( true )
+            {
+                if ( !adjacency.next() )
+                {
+                    if ( seekNextAdjacencyType() )
+                    {
+                        continue;
+                    }
+                    resetState();
+                    return false;
+                }
+
+                RelationshipAdjacencyLayout.Key key = adjacency.key();
+                RelationshipDirection direction = RelationshipDirection.ofId( key.direction );
+                if ( !selection.test( key.type, direction ) )
+                {
+                    continue;
+                }
+                long otherNode = adjacency.value().otherNode;
+                long source = direction == INCOMING ? otherNode : originNodeReference;
+                long target = direction == INCOMING ? originNodeReference : otherNode;
+                setId( key.relationship );
+                initialize( true, NO_ID, source, target, key.type, NO_ID, NO_ID, NO_ID, NO_ID, false, false );
+                propertiesLoaded = false;
+                if ( tracer != null )
+                {
+                    tracer.onRelationship( entityReference() );
+                }
+                return true;
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    /**
+     * Loads the property chain reference of a relationship read from the adjacency store. If the relationship has been deleted
+     * concurrently it's given no properties, like if it would have been deleted before it was read.
+     */
+    private void ensurePropertiesLoaded()
+    {
+        if ( propertiesLoaded )
+        {
+            return;
+        }
+        propertiesLoaded = true;
+        if ( propertiesRecord == null )
+        {
+            propertiesRecord = new RelationshipRecord( NO_ID );
+        }
+        if ( pageCursor == null )
+        {
+            pageCursor = relationshipPage( getId() );
+        }
+        relationship( propertiesRecord, getId(), pageCursor );
+        boolean sameRelationship = propertiesRecord.inUse() && propertiesRecord.getFirstNode() == getFirstNode() &&
+                propertiesRecord.getSecondNode() == getSecondNode() && propertiesRecord.getType() == getType();
+        setNextProp( sameRelationship ? propertiesRecord.getNextProp() : NO_ID );
+    }
+
+    @Override
+    public boolean hasProperties()
+    {
+        ensurePropertiesLoaded();
+        return super.hasProperties();
+    }
+
+    @Override
+    public Reference propertiesReference()
+    {
+        ensurePropertiesLoaded();
+        return super.propertiesReference();
+    }
+
+    @Override
+    public void properties( StoragePropertyCursor propertyCursor, PropertySelection selection )
+    {
+        ensurePropertiesLoaded();
+        super.properties( propertyCursor, selection );
     }
 
     @Override
@@ -156,6 +342,11 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
     @Override
     public boolean next()
     {
+        if ( traversingAdjacency )
+        {
+            return nextFromAdjacency();
+        }
+
         boolean traversingDenseNode;
         do
         {
@@ -338,6 +529,9 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
         setId( next = NO_ID );
         groupState = GroupState.NONE;
         selection = null;
+        traversingAdjacency = false;
+        adjacencyTypes = null;
+        propertiesLoaded = true;
     }
 
     @Override
@@ -348,6 +542,18 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
             pageCursor.close();
             pageCursor = null;
         }
+        if ( adjacency != null )
+        {
+            try
+            {
+                adjacency.close();
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+            adjacency = null;
+        }
 
         group.close();
     }
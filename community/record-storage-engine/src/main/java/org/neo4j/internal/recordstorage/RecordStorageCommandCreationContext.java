@@ -23,11 +23,16 @@ import java.util.function.BooleanSupplier;
 
 import org.neo4j.common.TokenNameLookup;
 import org.neo4j.configuration.Config;
+import org.neo4j.internal.id.IdRangeLease;
+import org.neo4j.internal.id.IdSequence;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.kernel.impl.store.NeoStores;
 import org.neo4j.kernel.impl.store.PropertyStore;
 import org.neo4j.kernel.impl.store.StandardDynamicRecordAllocator;
 import org.neo4j.kernel.impl.store.StoreType;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.Record;
+import org.neo4j.kernel.impl.store.record.RecordLoad;
 import org.neo4j.lock.LockTracer;
 import org.neo4j.lock.ResourceLocker;
 import org.neo4j.logging.LogProvider;
@@ -36,6 +41,10 @@ import org.neo4j.storageengine.api.CommandCreationContext;
 import org.neo4j.storageengine.api.cursor.StoreCursors;
 
 import static java.lang.Math.toIntExact;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.id_generator_lease_size;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.id_generator_locality_aware_reuse;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.NODE_CURSOR;
+import static org.neo4j.io.IOUtils.closeAllUnchecked;
 
 /**
  * Holds commit data structures for creating records in a {@link NeoStores}.
@@ -53,6 +62,22 @@ class RecordStorageCommandCreationContext implements CommandCreationContext
     // kernel transaction object and so will be reused between transactions. The relaxed locking feature may change from tx to tx
     // and so it will need to be queried per tx commit.
     private final BooleanSupplier relaxedLockingForDenseNodes;
+    // Node and relationship ids are allocated from ranges leased by this context, if enabled, otherwise null. Since this context is used by
+    // one transaction at a time the ranges are exclusive to that transaction, which means that most allocations need not
+    // coordinate with other committing transactions. Leased ranges outlive the transaction and are given back on close.
+    private final IdRangeLease nodeIdLease;
+    private final IdRangeLease relationshipIdLease;
+    // Dynamic string and array records are allocated from leased ranges too, if enabled, so that the records of a value end up next to each other
+    private final IdRangeLease stringIdLease;
+    private final IdRangeLease arrayIdLease;
+    // Whether or not to place new relationships close to the existing relationship chain of the source node, if there are free ids there
+    private final boolean localityAwareIdReuse;
+    // Directory for finding relationship groups of dense nodes without walking their group chains, if enabled, otherwise null
+    private final RelationshipGroupDirectory groupDirectory;
+    private final NodeRecord nodeRecord = new NodeRecord( -1 );
+    // Transactions often create many relationships from the same node, so the first relationship of the last source node is remembered
+    private long lastSourceNode;
+    private long lastSourceNodeFirstRelationship;
 
     private PropertyCreator propertyCreator;
     private PropertyDeleter propertyDeleter;
@@ -63,6 +88,12 @@ class RecordStorageCommandCreationContext implements CommandCreationContext
 
     RecordStorageCommandCreationContext( NeoStores neoStores, TokenNameLookup tokenNameLookup, LogProvider logProvider, int denseNodeThreshold,
             BooleanSupplier relaxedLockingForDenseNodes, Config config, MemoryTracker memoryTracker )
+    {
+        this( neoStores, tokenNameLookup, logProvider, denseNodeThreshold, relaxedLockingForDenseNodes, config, null, memoryTracker );
+    }
+
+    RecordStorageCommandCreationContext( NeoStores neoStores, TokenNameLookup tokenNameLookup, LogProvider logProvider, int denseNodeThreshold,
+            BooleanSupplier relaxedLockingForDenseNodes, Config config, RelationshipGroupDirectory groupDirectory, MemoryTracker memoryTracker )
     {
         this.tokenNameLookup = tokenNameLookup;
         this.logProvider = logProvider;
@@ -72,6 +103,13 @@ class RecordStorageCommandCreationContext implements CommandCreationContext
         this.config = config;
         this.memoryTracker = memoryTracker;
         this.propertyStore = neoStores.getPropertyStore();
+        int leaseSize = config.get( id_generator_lease_size );
+        this.nodeIdLease = leaseSize > 1 ? neoStores.getNodeStore().getIdGenerator().leaseIdRange( leaseSize ) : null;
+        this.relationshipIdLease = leaseSize > 1 ? neoStores.getRelationshipStore().getIdGenerator().leaseIdRange( leaseSize ) : null;
+        this.stringIdLease = leaseSize > 1 ? propertyStore.getStringStore().getIdGenerator().leaseIdRange( leaseSize ) : null;
+        this.arrayIdLease = leaseSize > 1 ? propertyStore.getArrayStore().getIdGenerator().leaseIdRange( leaseSize ) : null;
+        this.localityAwareIdReuse = config.get( id_generator_locality_aware_reuse );
+        this.groupDirectory = groupDirectory;
     }
 
     @Override
@@ -80,14 +118,20 @@ class RecordStorageCommandCreationContext implements CommandCreationContext
         this.cursorContext = cursorContext;
         this.loaders = new Loaders( neoStores, storeCursors );
         this.storeCursors = storeCursors;
-        this.relationshipGroupGetter = new RelationshipGroupGetter( neoStores.getRelationshipGroupStore(), cursorContext );
+        this.lastSourceNode = -1;
+        // The getter of the previous transaction may hold on to a directory lookup using the cursor context of that transaction
+        closeAllUnchecked( relationshipGroupGetter );
+        this.relationshipGroupGetter = new RelationshipGroupGetter( neoStores.getRelationshipGroupStore(), cursorContext, groupDirectory );
         PropertyTraverser propertyTraverser = new PropertyTraverser();
         this.propertyDeleter =
                 new PropertyDeleter( propertyTraverser, neoStores, tokenNameLookup, logProvider, config, cursorContext, memoryTracker, storeCursors );
+        IdSequence stringIds = stringIdLease != null ? stringIdLease : propertyStore.getStringStore();
+        IdSequence arrayIds = arrayIdLease != null ? arrayIdLease : propertyStore.getArrayStore();
         this.propertyCreator =
-                new PropertyCreator( new StandardDynamicRecordAllocator( propertyStore.getStringStore(), propertyStore.getStringStore().getRecordDataSize() ),
-                        new StandardDynamicRecordAllocator( propertyStore.getArrayStore(), propertyStore.getArrayStore().getRecordDataSize() ), propertyStore,
-                        propertyTraverser, propertyStore.allowStorePointsAndTemporal(), cursorContext, memoryTracker );
+                new PropertyCreator( new StandardDynamicRecordAllocator( stringIds, propertyStore.getStringStore().getRecordDataSize() ),
+                        new StandardDynamicRecordAllocator( arrayIds, propertyStore.getArrayStore().getRecordDataSize() ), propertyStore,
+                        propertyTraverser, propertyStore.allowStorePointsAndTemporal(), propertyStore.dynamicCompressionThreshold(), cursorContext,
+                        memoryTracker );
     }
 
     private long nextId( StoreType storeType )
@@ -98,13 +142,37 @@ class RecordStorageCommandCreationContext implements CommandCreationContext
     @Override
     public long reserveNode()
     {
-        return nextId( StoreType.NODE );
+        return nodeIdLease != null ? nodeIdLease.nextId( cursorContext ) : nextId( StoreType.NODE );
     }
 
     @Override
     public long reserveRelationship( long sourceNode )
     {
-        return nextId( StoreType.RELATIONSHIP );
+        IdSequence relationshipIds = relationshipIdLease != null ? relationshipIdLease : neoStores.getRelationshipStore().getIdGenerator();
+        if ( localityAwareIdReuse )
+        {
+            long firstRelationship = firstRelationshipOfSparseNode( sourceNode );
+            if ( firstRelationship != Record.NO_NEXT_RELATIONSHIP.longValue() )
+            {
+                // Falls back to the next id of the sequence if there's no free id near the chain
+                return relationshipIds.nextIdNear( firstRelationship, cursorContext );
+            }
+        }
+        return relationshipIds.nextId( cursorContext );
+    }
+
+    private long firstRelationshipOfSparseNode( long nodeId )
+    {
+        if ( nodeId != lastSourceNode )
+        {
+            // The store isn't changed before commit, so the node record read for a previous relationship of this transaction is still valid.
+            // The node may very well have been created in this transaction and so not exist in the store, that's fine
+            neoStores.getNodeStore().getRecordByCursor( nodeId, nodeRecord, RecordLoad.LENIENT_CHECK, storeCursors.readCursor( NODE_CURSOR ) );
+            lastSourceNode = nodeId;
+            lastSourceNodeFirstRelationship =
+                    nodeRecord.inUse() && !nodeRecord.isDense() ? nodeRecord.getNextRel() : Record.NO_NEXT_RELATIONSHIP.longValue();
+        }
+        return lastSourceNodeFirstRelationship;
     }
 
     @Override
@@ -134,6 +202,7 @@ class RecordStorageCommandCreationContext implements CommandCreationContext
     @Override
     public void close()
     {
+        closeAllUnchecked( nodeIdLease, relationshipIdLease, stringIdLease, arrayIdLease, relationshipGroupGetter );
     }
 
     TransactionRecordState createTransactionRecordState( IntegrityValidator integrityValidator, long lastTransactionIdWhenStarted,
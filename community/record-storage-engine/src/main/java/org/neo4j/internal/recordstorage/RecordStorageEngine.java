@@ -21,12 +21,15 @@ package org.neo4j.internal.recordstorage;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import org.neo4j.configuration.Config;
@@ -36,12 +39,15 @@ import org.neo4j.counts.CountsAccessor;
 import org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker;
 import org.neo4j.exceptions.KernelException;
 import org.neo4j.exceptions.UnderlyingStorageException;
+import org.neo4j.function.ThrowingSupplier;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
 import org.neo4j.internal.batchimport.Configuration;
 import org.neo4j.internal.counts.CountsBuilder;
 import org.neo4j.internal.counts.DegreesRebuildFromStore;
 import org.neo4j.internal.counts.GBPTreeCountsStore;
 import org.neo4j.internal.counts.GBPTreeGenericCountsStore;
+import org.neo4j.internal.counts.GBPTreeNodeDegreesStore;
+import org.neo4j.internal.counts.GBPTreeNodePropertyStatisticsStore;
 import org.neo4j.internal.counts.GBPTreeRelationshipGroupDegreesStore;
 import org.neo4j.internal.counts.RelationshipGroupDegreesStore;
 import org.neo4j.internal.diagnostics.DiagnosticsLogger;
@@ -111,12 +117,16 @@ import org.neo4j.storageengine.api.txstate.TxStateVisitor;
 import org.neo4j.storageengine.util.IdGeneratorUpdatesWorkSync;
 import org.neo4j.storageengine.util.IdUpdateListener;
 import org.neo4j.storageengine.util.IndexUpdatesWorkSync;
+import org.neo4j.time.Stopwatch;
 import org.neo4j.token.TokenHolders;
 import org.neo4j.util.Preconditions;
 import org.neo4j.util.VisibleForTesting;
 
+import static java.lang.String.format;
 import static org.neo4j.configuration.GraphDatabaseInternalSettings.counts_store_max_cached_entries;
 import static org.neo4j.function.ThrowingAction.executeAll;
+import static org.neo4j.internal.helpers.Format.duration;
+import static org.neo4j.io.IOUtils.closeAllUnchecked;
 import static org.neo4j.lock.LockService.NO_LOCK_SERVICE;
 import static org.neo4j.storageengine.api.TransactionApplicationMode.RECOVERY;
 import static org.neo4j.storageengine.api.TransactionApplicationMode.REVERSE_RECOVERY;
@@ -150,6 +160,15 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     private final LockVerificationMonitor.Factory lockVerificationFactory;
     private final GBPTreeCountsStore countsStore;
     private final RelationshipGroupDegreesStore groupDegreesStore;
+    // Only there if enabled, otherwise null
+    private final GBPTreeNodeDegreesStore nodeDegreesStore;
+    // Only there if enabled, otherwise null
+    private final RelationshipAdjacencyStore adjacencyStore;
+    // Only there if enabled, otherwise null
+    private final RelationshipGroupDirectory groupDirectory;
+    // Only there if enabled, otherwise null
+    private final NodePropertyColumnStore columnStore;
+    private final GBPTreeNodePropertyStatisticsStore statisticsStore;
     private final int denseNodeThreshold;
     private final IdGeneratorUpdatesWorkSync idGeneratorWorkSyncs = new IdGeneratorUpdatesWorkSync();
     private final Map<TransactionApplicationMode,TransactionApplierFactoryChain> applierChains = new EnumMap<>( TransactionApplicationMode.class );
@@ -217,6 +236,21 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
             groupDegreesStore = openDegreesStore( pageCache, fs, databaseLayout, internalLogProvider, userLogProvider, recoveryCleanupWorkCollector,
                     readOnlyChecker, config, cacheTracer );
 
+            nodeDegreesStore = openNodeDegreesStore( pageCache, fs, databaseLayout, internalLogProvider, userLogProvider, recoveryCleanupWorkCollector,
+                    readOnlyChecker, config, cacheTracer );
+
+            adjacencyStore = openRelationshipAdjacencyStore( pageCache, fs, databaseLayout, internalLogProvider, recoveryCleanupWorkCollector,
+                    readOnlyChecker, config, cacheTracer );
+
+            groupDirectory = openRelationshipGroupDirectory( pageCache, fs, databaseLayout, internalLogProvider, recoveryCleanupWorkCollector,
+                    readOnlyChecker, config, cacheTracer );
+
+            columnStore = openNodePropertyColumnStore( pageCache, fs, databaseLayout, internalLogProvider, recoveryCleanupWorkCollector,
+                    readOnlyChecker, config, cacheTracer );
+
+            statisticsStore = openNodePropertyStatisticsStore( pageCache, fs, databaseLayout, internalLogProvider, userLogProvider,
+                    recoveryCleanupWorkCollector, readOnlyChecker, config, cacheTracer );
+
             consistencyCheckApply = config.get( GraphDatabaseInternalSettings.consistency_check_on_apply );
             storeEntityCounters = new RecordDatabaseEntityCounters( idGeneratorFactory, countsStore );
         }
@@ -257,7 +291,32 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         if ( mode.needsAuxiliaryStores() )
         {
             // Counts store application
-            appliers.add( new CountsStoreTransactionApplierFactory( countsStore, groupDegreesStore ) );
+            appliers.add( new CountsStoreTransactionApplierFactory( countsStore, groupDegreesStore, nodeDegreesStore ) );
+
+            if ( adjacencyStore != null )
+            {
+                // Relationship adjacency store application
+                appliers.add( new RelationshipAdjacencyTransactionApplierFactory( adjacencyStore ) );
+            }
+
+            if ( groupDirectory != null )
+            {
+                // Relationship group directory application
+                appliers.add( new RelationshipGroupDirectoryTransactionApplierFactory( groupDirectory ) );
+            }
+
+            if ( columnStore != null )
+            {
+                // Node property columns store application
+                appliers.add( new NodePropertyColumnTransactionApplierFactory( columnStore, neoStores.getPropertyKeyTokenStore() ) );
+            }
+
+            if ( statisticsStore != null && mode != RECOVERY )
+            {
+                // Node property statistics store application. Recovered transactions are left out since the statistics are derived from
+                // the store contents, the statistics are rebuilt after recovery instead
+                appliers.add( new NodePropertyStatisticsTransactionApplierFactory( statisticsStore, neoStores.getNodeStore(), neoStores.getPropertyStore() ) );
+            }
 
             // Schema index application
             appliers.add( new IndexTransactionApplierFactory( indexUpdateListener ) );
@@ -314,17 +373,117 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         }
     }
 
+    private GBPTreeNodeDegreesStore openNodeDegreesStore( PageCache pageCache, FileSystemAbstraction fs, RecordDatabaseLayout layout,
+            LogProvider internalLogProvider, LogProvider userLogProvider, RecoveryCleanupWorkCollector recoveryCleanupWorkCollector,
+            DatabaseReadOnlyChecker readOnlyChecker, Config config, PageCacheTracer pageCacheTracer )
+    {
+        return openDerivedStore( fs, layout.nodeDegreesStore(), config.get( GraphDatabaseInternalSettings.node_degrees_store_enabled ), readOnlyChecker,
+                () -> new GBPTreeNodeDegreesStore( pageCache, layout.nodeDegreesStore(), fs, recoveryCleanupWorkCollector,
+                        new NodeDegreesRebuildFromStore( neoStores, groupDegreesStore, internalLogProvider ), readOnlyChecker, pageCacheTracer,
+                        GBPTreeGenericCountsStore.NO_MONITOR, layout.getDatabaseName(), config.get( counts_store_max_cached_entries ), userLogProvider ),
+                this::lagging );
+    }
+
+    private RelationshipAdjacencyStore openRelationshipAdjacencyStore( PageCache pageCache, FileSystemAbstraction fs, RecordDatabaseLayout layout,
+            LogProvider internalLogProvider, RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, DatabaseReadOnlyChecker readOnlyChecker,
+            Config config, PageCacheTracer pageCacheTracer )
+    {
+        return openDerivedStore( fs, layout.relationshipAdjacencyStore(), config.get( GraphDatabaseInternalSettings.relationship_adjacency_store_enabled ),
+                readOnlyChecker, () -> new RelationshipAdjacencyStore( pageCache, layout.relationshipAdjacencyStore(), recoveryCleanupWorkCollector,
+                        neoStores.getRelationshipStore(), readOnlyChecker, pageCacheTracer, layout.getDatabaseName(), internalLogProvider ),
+                store -> !store.isBuilt() );
+    }
+
+    private RelationshipGroupDirectory openRelationshipGroupDirectory( PageCache pageCache, FileSystemAbstraction fs, RecordDatabaseLayout layout,
+            LogProvider internalLogProvider, RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, DatabaseReadOnlyChecker readOnlyChecker,
+            Config config, PageCacheTracer pageCacheTracer )
+    {
+        return openDerivedStore( fs, layout.relationshipGroupDirectory(), config.get( GraphDatabaseInternalSettings.relationship_group_directory_enabled ),
+                readOnlyChecker, () -> new RelationshipGroupDirectory( pageCache, layout.relationshipGroupDirectory(), recoveryCleanupWorkCollector,
+                        neoStores.getRelationshipGroupStore(), readOnlyChecker, pageCacheTracer, layout.getDatabaseName(), internalLogProvider ),
+                store -> !store.isBuilt() );
+    }
+
+    private NodePropertyColumnStore openNodePropertyColumnStore( PageCache pageCache, FileSystemAbstraction fs, RecordDatabaseLayout layout,
+            LogProvider internalLogProvider, RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, DatabaseReadOnlyChecker readOnlyChecker,
+            Config config, PageCacheTracer pageCacheTracer )
+    {
+        Set<String> propertyKeyNames = config.get( GraphDatabaseInternalSettings.node_property_columns );
+        return openDerivedStore( fs, layout.nodePropertyColumnsStore(), !propertyKeyNames.isEmpty(), readOnlyChecker,
+                () -> new NodePropertyColumnStore( pageCache, fs, layout.nodePropertyColumnsStore(), recoveryCleanupWorkCollector, neoStores,
+                        propertyKeyNames, readOnlyChecker, pageCacheTracer, layout.getDatabaseName(), internalLogProvider ),
+                store -> !store.isBuilt() );
+    }
+
+    private GBPTreeNodePropertyStatisticsStore openNodePropertyStatisticsStore( PageCache pageCache, FileSystemAbstraction fs, RecordDatabaseLayout layout,
+            LogProvider internalLogProvider, LogProvider userLogProvider, RecoveryCleanupWorkCollector recoveryCleanupWorkCollector,
+            DatabaseReadOnlyChecker readOnlyChecker, Config config, PageCacheTracer pageCacheTracer )
+    {
+        return openDerivedStore( fs, layout.nodePropertyStatisticsStore(), config.get( GraphDatabaseInternalSettings.node_property_statistics_enabled ),
+                readOnlyChecker, () -> new GBPTreeNodePropertyStatisticsStore( pageCache, layout.nodePropertyStatisticsStore(), fs,
+                        recoveryCleanupWorkCollector, new NodePropertyStatisticsRebuildFromStore( neoStores, internalLogProvider ), readOnlyChecker,
+                        pageCacheTracer, GBPTreeGenericCountsStore.NO_MONITOR, layout.getDatabaseName(), config.get( counts_store_max_cached_entries ),
+                        userLogProvider ),
+                this::lagging );
+    }
+
+    /**
+     * Opens one of the optional stores which are derived from the record stores, and built from them whenever missing or lagging behind.
+     * Such a store isn't kept up to date while disabled, so then its file is deleted to have it rebuilt if enabled again. A read-only
+     * database can't build it, so goes without it instead.
+     *
+     * @param lagging tells whether an opened store has to be built before it can be used.
+     * @return the opened store, or {@code null} if the database goes without it.
+     */
+    private <T extends AutoCloseable> T openDerivedStore( FileSystemAbstraction fs, Path file, boolean enabled, DatabaseReadOnlyChecker readOnlyChecker,
+            ThrowingSupplier<T,IOException> opener, Predicate<T> lagging )
+    {
+        try
+        {
+            boolean exists = fs.fileExists( file );
+            if ( !enabled )
+            {
+                if ( !readOnlyChecker.isReadOnly() && exists )
+                {
+                    fs.deleteFile( file );
+                }
+                return null;
+            }
+            if ( readOnlyChecker.isReadOnly() && !exists )
+            {
+                return null;
+            }
+            T store = opener.get();
+            if ( readOnlyChecker.isReadOnly() && lagging.test( store ) )
+            {
+                closeAllUnchecked( store );
+                return null;
+            }
+            return store;
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( e );
+        }
+    }
+
+    private boolean lagging( GBPTreeGenericCountsStore store )
+    {
+        return store.txId() != neoStores.getMetaDataStore().getLastCommittedTransactionId();
+    }
+
     @Override
     public RecordStorageReader newReader()
     {
-        return new RecordStorageReader( tokenHolders, neoStores, countsStore, groupDegreesStore, schemaCache );
+        return new RecordStorageReader( tokenHolders, neoStores, countsStore, groupDegreesStore, nodeDegreesStore, adjacencyStore, groupDirectory,
+                columnStore, statisticsStore, schemaCache );
     }
 
     @Override
     public RecordStorageCommandCreationContext newCommandCreationContext( MemoryTracker memoryTracker )
     {
         return new RecordStorageCommandCreationContext( neoStores, tokenHolders, internalLogProvider, denseNodeThreshold, this::relaxedLockingForDenseNodes,
-                config, memoryTracker );
+                config, groupDirectory, memoryTracker );
     }
 
     @Override
@@ -446,6 +605,14 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         return commands;
     }
 
+    @Override
+    public List<StorageCommand> createNodeCompactionCommands( long nodeId, CursorContext cursorContext, StoreCursors storeCursors )
+    {
+        LogCommandSerialization serialization = RecordStorageCommandReaderFactory.INSTANCE.get( neoStores.getMetaDataStore().kernelVersion() );
+        return new PropertyChainCompactor( neoStores.getNodeStore(), neoStores.getPropertyStore(), serialization )
+                .compact( nodeId, cursorContext, storeCursors );
+    }
+
     /**
      * This is the command that creates an actual SchemaRecord for our injected NLI (the index corresponding to the old labelscanstore).
      * To avoid having to handle token creation for any property key tokens that doesn't already exist,
@@ -552,13 +719,54 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         try ( var cursorContext = new CursorContext( cacheTracer.createPageCursorTracer( STORAGE_ENGINE_START_TAG ) );
               var storeCursors = new CachedStoreCursors( neoStores, cursorContext ) )
         {
+            Log log = internalLogProvider.getLog( RecordStorageEngine.class );
+            Stopwatch stopwatch = Stopwatch.start();
             neoStores.start( cursorContext );
+            stopwatch = logStartTime( log, "record stores", stopwatch );
             countsStore.start( cursorContext, storeCursors, otherMemoryTracker );
+            stopwatch = logStartTime( log, "counts store", stopwatch );
             groupDegreesStore.start( cursorContext, storeCursors, otherMemoryTracker );
+            stopwatch = logStartTime( log, "relationship group degrees store", stopwatch );
+            if ( nodeDegreesStore != null )
+            {
+                // Started after the group degrees store since rebuilding it reads degrees of dense nodes from there
+                nodeDegreesStore.start( cursorContext, storeCursors, otherMemoryTracker );
+                stopwatch = logStartTime( log, "node degrees store", stopwatch );
+            }
+            if ( adjacencyStore != null )
+            {
+                adjacencyStore.start( cursorContext );
+                stopwatch = logStartTime( log, "relationship adjacency store", stopwatch );
+            }
+            if ( groupDirectory != null )
+            {
+                groupDirectory.start( cursorContext );
+                stopwatch = logStartTime( log, "relationship group directory", stopwatch );
+            }
+            if ( columnStore != null )
+            {
+                columnStore.start( cursorContext );
+                stopwatch = logStartTime( log, "node property columns store", stopwatch );
+            }
+            if ( statisticsStore != null )
+            {
+                statisticsStore.start( cursorContext, storeCursors, otherMemoryTracker );
+                stopwatch = logStartTime( log, "node property statistics store", stopwatch );
+            }
             idController.start();
         }
     }
 
+    /**
+     * Logs the time a phase of starting took, since the given stopwatch was started.
+     * @return a new stopwatch for timing the next phase.
+     */
+    private Stopwatch logStartTime( Log log, String phase, Stopwatch stopwatch )
+    {
+        log.debug( format( "Started %s of %s in %s", phase, databaseLayout.getDatabaseName(), duration( stopwatch.elapsed().toMillis() ) ) );
+        return Stopwatch.start();
+    }
+
     @VisibleForTesting
     public void loadSchemaCache()
     {
@@ -578,7 +786,8 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     @Override
     public void shutdown() throws Exception
     {
-        executeAll( countsStore::close, groupDegreesStore::close, neoStores::close );
+        executeAll( countsStore::close, groupDegreesStore::close, this::closeNodeDegreesStore, this::closeRelationshipAdjacencyStore,
+                this::closeRelationshipGroupDirectory, this::closeNodePropertyColumnStore, this::closeNodePropertyStatisticsStore, neoStores::close );
     }
 
     @Override
@@ -586,9 +795,69 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     {
         countsStore.checkpoint( cursorContext );
         groupDegreesStore.checkpoint( cursorContext );
+        if ( nodeDegreesStore != null )
+        {
+            nodeDegreesStore.checkpoint( cursorContext );
+        }
+        if ( adjacencyStore != null )
+        {
+            adjacencyStore.checkpoint( cursorContext );
+        }
+        if ( groupDirectory != null )
+        {
+            groupDirectory.checkpoint( cursorContext );
+        }
+        if ( columnStore != null )
+        {
+            columnStore.checkpoint( cursorContext );
+        }
+        if ( statisticsStore != null )
+        {
+            statisticsStore.checkpoint( cursorContext );
+        }
         neoStores.flush( cursorContext );
     }
 
+    private void closeNodeDegreesStore()
+    {
+        if ( nodeDegreesStore != null )
+        {
+            nodeDegreesStore.close();
+        }
+    }
+
+    private void closeRelationshipAdjacencyStore() throws IOException
+    {
+        if ( adjacencyStore != null )
+        {
+            adjacencyStore.close();
+        }
+    }
+
+    private void closeRelationshipGroupDirectory() throws IOException
+    {
+        if ( groupDirectory != null )
+        {
+            groupDirectory.close();
+        }
+    }
+
+    private void closeNodePropertyColumnStore() throws IOException
+    {
+        if ( columnStore != null )
+        {
+            columnStore.close();
+        }
+    }
+
+    private void closeNodePropertyStatisticsStore()
+    {
+        if ( statisticsStore != null )
+        {
+            statisticsStore.close();
+        }
+    }
+
     @Override
     public void dumpDiagnostics( Log errorLog, DiagnosticsLogger diagnosticsLog )
     {
@@ -615,6 +884,26 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     {
         atomic.add( new StoreFileMetadata( databaseLayout.countStore(), RecordFormat.NO_RECORD_SIZE ) );
         atomic.add( new StoreFileMetadata( databaseLayout.relationshipGroupDegreesStore(), RecordFormat.NO_RECORD_SIZE ) );
+        if ( nodeDegreesStore != null )
+        {
+            atomic.add( new StoreFileMetadata( databaseLayout.nodeDegreesStore(), RecordFormat.NO_RECORD_SIZE ) );
+        }
+        if ( adjacencyStore != null )
+        {
+            atomic.add( new StoreFileMetadata( databaseLayout.relationshipAdjacencyStore(), RecordFormat.NO_RECORD_SIZE ) );
+        }
+        if ( groupDirectory != null )
+        {
+            atomic.add( new StoreFileMetadata( databaseLayout.relationshipGroupDirectory(), RecordFormat.NO_RECORD_SIZE ) );
+        }
+        if ( columnStore != null )
+        {
+            atomic.add( new StoreFileMetadata( databaseLayout.nodePropertyColumnsStore(), RecordFormat.NO_RECORD_SIZE ) );
+        }
+        if ( statisticsStore != null )
+        {
+            atomic.add( new StoreFileMetadata( databaseLayout.nodePropertyStatisticsStore(), RecordFormat.NO_RECORD_SIZE ) );
+        }
         for ( StoreType type : StoreType.values() )
         {
             final RecordStore<AbstractBaseRecord> recordStore = neoStores.getRecordStore( type );
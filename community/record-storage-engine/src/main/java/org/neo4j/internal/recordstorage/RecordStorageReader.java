@@ -19,6 +19,7 @@
  */
 package org.neo4j.internal.recordstorage;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.OptionalLong;
@@ -28,6 +29,8 @@ import org.neo4j.collection.PrimitiveLongCollections;
 import org.neo4j.common.EntityType;
 import org.neo4j.common.TokenNameLookup;
 import org.neo4j.counts.CountsAccessor;
+import org.neo4j.internal.counts.NodeDegreesStore;
+import org.neo4j.internal.counts.NodePropertyStatisticsStore;
 import org.neo4j.internal.counts.RelationshipGroupDegreesStore;
 import org.neo4j.internal.schema.ConstraintDescriptor;
 import org.neo4j.internal.schema.IndexDescriptor;
@@ -45,6 +48,7 @@ import org.neo4j.kernel.impl.store.RelationshipStore;
 import org.neo4j.memory.MemoryTracker;
 import org.neo4j.storageengine.api.AllNodeScan;
 import org.neo4j.storageengine.api.AllRelationshipsScan;
+import org.neo4j.storageengine.api.NodePropertyColumnVisitor;
 import org.neo4j.storageengine.api.StoragePropertyCursor;
 import org.neo4j.storageengine.api.StorageReader;
 import org.neo4j.storageengine.api.StorageSchemaReader;
@@ -67,12 +71,24 @@ public class RecordStorageReader implements StorageReader
     private final PropertyStore propertyStore;
     private final CountsAccessor counts;
     private final RelationshipGroupDegreesStore groupDegreesStore;
+    private final NodeDegreesStore nodeDegreesStore;
+    private final RelationshipAdjacencyStore adjacencyStore;
+    private final RelationshipGroupDirectory groupDirectory;
+    private final NodePropertyColumnStore columnStore;
+    private final NodePropertyStatisticsStore statisticsStore;
     private final SchemaCache schemaCache;
 
     private boolean closed;
 
     RecordStorageReader( TokenHolders tokenHolders, NeoStores neoStores, CountsAccessor counts, RelationshipGroupDegreesStore groupDegreesStore,
             SchemaCache schemaCache )
+    {
+        this( tokenHolders, neoStores, counts, groupDegreesStore, null, null, null, null, null, schemaCache );
+    }
+
+    RecordStorageReader( TokenHolders tokenHolders, NeoStores neoStores, CountsAccessor counts, RelationshipGroupDegreesStore groupDegreesStore,
+            NodeDegreesStore nodeDegreesStore, RelationshipAdjacencyStore adjacencyStore, RelationshipGroupDirectory groupDirectory,
+            NodePropertyColumnStore columnStore, NodePropertyStatisticsStore statisticsStore, SchemaCache schemaCache )
     {
         this.tokenHolders = tokenHolders;
         this.nodeStore = neoStores.getNodeStore();
@@ -81,6 +97,11 @@ public class RecordStorageReader implements StorageReader
         this.propertyStore = neoStores.getPropertyStore();
         this.counts = counts;
         this.groupDegreesStore = groupDegreesStore;
+        this.nodeDegreesStore = nodeDegreesStore;
+        this.adjacencyStore = adjacencyStore;
+        this.groupDirectory = groupDirectory;
+        this.columnStore = columnStore;
+        this.statisticsStore = statisticsStore;
         this.schemaCache = schemaCache;
     }
 
@@ -248,6 +269,18 @@ public class RecordStorageReader implements StorageReader
         return counts.relationshipCount( startLabelId, typeId, endLabelId, cursorContext );
     }
 
+    @Override
+    public long countsForNodeWithProperty( int labelId, int propertyKeyId, CursorContext cursorContext )
+    {
+        return statisticsStore != null ? statisticsStore.nodesWithProperty( labelId, propertyKeyId, cursorContext ) : -1;
+    }
+
+    @Override
+    public double estimateCountsForNodeWithPropertyInRange( int labelId, int propertyKeyId, double from, double to, CursorContext cursorContext )
+    {
+        return statisticsStore != null ? statisticsStore.estimateNodesWithValueInRange( labelId, propertyKeyId, from, to, cursorContext ) : -1;
+    }
+
     @Override
     public long nodesGetCount( CursorContext cursorContext )
     {
@@ -333,13 +366,15 @@ public class RecordStorageReader implements StorageReader
     @Override
     public RecordNodeCursor allocateNodeCursor( CursorContext cursorContext, StoreCursors storeCursors )
     {
-        return new RecordNodeCursor( nodeStore, relationshipStore, relationshipGroupStore, groupDegreesStore, cursorContext, storeCursors );
+        return new RecordNodeCursor( nodeStore, relationshipStore, relationshipGroupStore, groupDegreesStore, nodeDegreesStore, adjacencyStore, groupDirectory,
+                cursorContext, storeCursors );
     }
 
     @Override
     public RecordRelationshipTraversalCursor allocateRelationshipTraversalCursor( CursorContext cursorContext, StoreCursors storeCursors )
     {
-        return new RecordRelationshipTraversalCursor( relationshipStore, relationshipGroupStore, groupDegreesStore, cursorContext );
+        return new RecordRelationshipTraversalCursor( relationshipStore, relationshipGroupStore, groupDegreesStore, adjacencyStore, groupDirectory,
+                cursorContext );
     }
 
     @Override
@@ -348,6 +383,58 @@ public class RecordStorageReader implements StorageReader
         return new RecordRelationshipScanCursor( relationshipStore, cursorContext );
     }
 
+    @Override
+    public boolean hasNodePropertyColumn( int label, int propertyKey )
+    {
+        return columnStore != null && columnStore.hasColumn( propertyKey );
+    }
+
+    @Override
+    public void scanNodePropertyColumn( int label, int propertyKey, NodePropertyColumnVisitor visitor, CursorContext cursorContext )
+    {
+        if ( !hasNodePropertyColumn( label, propertyKey ) )
+        {
+            throw new UnsupportedOperationException( "No column for property " + propertyKey + " of nodes with label " + label );
+        }
+        columnStore.scan( label, propertyKey, visitor, cursorContext );
+    }
+
+    @Override
+    public void batchReadOrder( EntityType entityType, long[] references, int count, int[] order )
+    {
+        int recordsPerPage;
+        switch ( entityType )
+        {
+        case NODE:
+            recordsPerPage = nodeStore.getRecordsPerPage();
+            break;
+        case RELATIONSHIP:
+            recordsPerPage = relationshipStore.getRecordsPerPage();
+            break;
+        default:
+            throw new IllegalArgumentException( "Unsupported entity type " + entityType );
+        }
+
+        // Sort by page, keeping the given order for references on the same page. The page id and the index of the reference
+        // are packed into one long so that a plain primitive sort can be used.
+        long[] pagesAndIndexes = new long[count];
+        for ( int i = 0; i < count; i++ )
+        {
+            long pageId = references[i] < 0 ? 0 : references[i] / recordsPerPage;
+            if ( pageId > Integer.MAX_VALUE )
+            {
+                StorageReader.super.batchReadOrder( entityType, references, count, order );
+                return;
+            }
+            pagesAndIndexes[i] = (pageId << Integer.SIZE) | i;
+        }
+        Arrays.sort( pagesAndIndexes );
+        for ( int i = 0; i < count; i++ )
+        {
+            order[i] = (int) pagesAndIndexes[i];
+        }
+    }
+
     @Override
     public StorageSchemaReader schemaSnapshot()
     {
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.io.pagecache.PageCursor;
+
+/**
+ * {@link Layout} of the {@link RelationshipAdjacencyStore}. Entries are sorted by node, relationship type, direction and relationship id,
+ * which places all relationships of a node, and within that all relationships of a type, next to each other.
+ */
+class RelationshipAdjacencyLayout extends Layout.Adapter<RelationshipAdjacencyLayout.Key,RelationshipAdjacencyLayout.Value>
+{
+    RelationshipAdjacencyLayout()
+    {
+        super( true, Layout.namedIdentifier( "ReAd", 1 ), 0, 1 );
+    }
+
+    @Override
+    public Key newKey()
+    {
+        return new Key();
+    }
+
+    @Override
+    public Key copyKey( Key key, Key into )
+    {
+        into.initialize( key.node, key.type, key.direction, key.relationship );
+        return into;
+    }
+
+    @Override
+    public Value newValue()
+    {
+        return new Value();
+    }
+
+    @Override
+    public int keySize( Key key )
+    {
+        return Key.SIZE;
+    }
+
+    @Override
+    public int valueSize( Value value )
+    {
+        return Value.SIZE;
+    }
+
+    @Override
+    public void writeKey( PageCursor cursor, Key key )
+    {
+        cursor.putLong( key.node );
+        cursor.putInt( key.type );
+        cursor.putByte( key.direction );
+        cursor.putLong( key.relationship );
+    }
+
+    @Override
+    public void writeValue( PageCursor cursor, Value value )
+    {
+        cursor.putLong( value.otherNode );
+    }
+
+    @Override
+    public void readKey( PageCursor cursor, Key into, int keySize )
+    {
+        long node = cursor.getLong();
+        int type = cursor.getInt();
+        byte direction = cursor.getByte();
+        long relationship = cursor.getLong();
+        into.initialize( node, type, direction, relationship );
+    }
+
+    @Override
+    public void readValue( PageCursor cursor, Value into, int valueSize )
+    {
+        into.otherNode = cursor.getLong();
+    }
+
+    @Override
+    public int compare( Key o1, Key o2 )
+    {
+        int nodeCompare = Long.compare( o1.node, o2.node );
+        if ( nodeCompare != 0 )
+        {
+            return nodeCompare;
+        }
+        int typeCompare = Integer.compare( o1.type, o2.type );
+        if ( typeCompare != 0 )
+        {
+            return typeCompare;
+        }
+        int directionCompare = Byte.compare( o1.direction, o2.direction );
+        if ( directionCompare != 0 )
+        {
+            return directionCompare;
+        }
+        return Long.compare( o1.relationship, o2.relationship );
+    }
+
+    @Override
+    public void initializeAsLowest( Key key )
+    {
+        key.initialize( Long.MIN_VALUE, Integer.MIN_VALUE, Byte.MIN_VALUE, Long.MIN_VALUE );
+    }
+
+    @Override
+    public void initializeAsHighest( Key key )
+    {
+        key.initialize( Long.MAX_VALUE, Integer.MAX_VALUE, Byte.MAX_VALUE, Long.MAX_VALUE );
+    }
+
+    static class Key
+    {
+        static final int SIZE = Long.BYTES + Integer.BYTES + Byte.BYTES + Long.BYTES;
+
+        long node;
+        int type;
+        // The id of a RelationshipDirection
+        byte direction;
+        long relationship;
+
+        Key initialize( long node, int type, byte direction, long relationship )
+        {
+            this.node = node;
+            this.type = type;
+            this.direction = direction;
+            this.relationship = relationship;
+            return this;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "[node:" + node + ", type:" + type + ", direction:" + direction + ", relationship:" + relationship + "]";
+        }
+    }
+
+    static class Value
+    {
+        static final int SIZE = Long.BYTES;
+
+        long otherNode;
+
+        @Override
+        public String toString()
+        {
+            return "[otherNode:" + otherNode + "]";
+        }
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Header;
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.index.internal.gbptree.Seeker;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.logging.Log;
+import org.neo4j.logging.LogProvider;
+import org.neo4j.storageengine.api.RelationshipDirection;
+import org.neo4j.util.concurrent.Work;
+import org.neo4j.util.concurrent.WorkSync;
+
+import static org.eclipse.collections.api.factory.Sets.immutable;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.CHECK;
+
+/**
+ * Keeps the relationships of every node sorted by node, relationship type, direction and relationship id, i.e. as adjacency lists.
+ * A relationship is kept once for each of its nodes, or once if it's a loop, together with the id of the node on its other side.
+ * Where the relationship chains of a node are scattered all over the relationship store, the relationships of a node, and of a type of
+ * a node, sit next to each other in here, which lets {@link RecordRelationshipTraversalCursor} expand a node reading only a few pages.
+ * <p>
+ * Updates are idempotent, so recovery can simply re-apply the transactions since the last checkpoint. The contents are built from the
+ * relationship store in {@link #start(CursorContext)} if the store was just created.
+ */
+class RelationshipAdjacencyStore implements Closeable
+{
+    private static final String NAME = "Relationship adjacency store";
+    private static final String APPLY_TAG = "relationshipAdjacencyStoreApply";
+    private static final byte NEEDS_BUILDING = 0;
+    private static final byte BUILT = 1;
+
+    private final GBPTree<RelationshipAdjacencyLayout.Key,RelationshipAdjacencyLayout.Value> tree;
+    private final WorkSync<RelationshipAdjacencyStore,UpdateWork> workSync = new WorkSync<>( this );
+    private final RelationshipStore relationshipStore;
+    private final DatabaseReadOnlyChecker readOnlyChecker;
+    private final PageCacheTracer pageCacheTracer;
+    private final Log log;
+    private volatile boolean built;
+
+    RelationshipAdjacencyStore( PageCache pageCache, Path file, RecoveryCleanupWorkCollector recoveryCollector, RelationshipStore relationshipStore,
+            DatabaseReadOnlyChecker readOnlyChecker, PageCacheTracer pageCacheTracer, String databaseName, LogProvider logProvider )
+    {
+        this.relationshipStore = relationshipStore;
+        this.readOnlyChecker = readOnlyChecker;
+        this.pageCacheTracer = pageCacheTracer;
+        this.log = logProvider.getLog( RelationshipAdjacencyStore.class );
+        HeaderState header = new HeaderState();
+        this.tree = new GBPTree<>( pageCache, file, new RelationshipAdjacencyLayout(), GBPTree.NO_MONITOR, header,
+                cursor -> cursor.putByte( NEEDS_BUILDING ), recoveryCollector, readOnlyChecker, pageCacheTracer, immutable.empty(), databaseName, NAME );
+        this.built = header.state == BUILT;
+    }
+
+    /**
+     * Builds the contents from the relationship store if that hasn't been done yet. Recovery must have completed before this is called.
+     */
+    void start( CursorContext cursorContext ) throws IOException
+    {
+        if ( built || readOnlyChecker.isReadOnly() )
+        {
+            return;
+        }
+
+        log.info( "Building relationship adjacency store." );
+        // Relationships are visited in id order, so the entries of a node are written in order too
+        try ( PageCursor cursor = relationshipStore.openPageCursorForReadingWithPrefetching( 0, cursorContext );
+              var writer = tree.writer( cursorContext ) )
+        {
+            RelationshipRecord record = relationshipStore.newRecord();
+            RelationshipAdjacencyLayout.Key key = new RelationshipAdjacencyLayout.Key();
+            RelationshipAdjacencyLayout.Value value = new RelationshipAdjacencyLayout.Value();
+            long highId = relationshipStore.getHighId();
+            for ( long id = 0; id < highId; id++ )
+            {
+                relationshipStore.getRecordByCursor( id, record, CHECK, cursor );
+                if ( record.inUse() )
+                {
+                    forEachEntry( record, ( node, type, direction, relationship, otherNode ) ->
+                    {
+                        value.otherNode = otherNode;
+                        writer.put( key.initialize( node, type, direction, relationship ), value );
+                    } );
+                }
+            }
+        }
+        tree.checkpoint( cursor -> cursor.putByte( BUILT ), cursorContext );
+        built = true;
+        log.info( "Relationship adjacency store built." );
+    }
+
+    /**
+     * @return whether or not the contents have been built, i.e. if this store can be read from.
+     */
+    boolean isBuilt()
+    {
+        return built;
+    }
+
+    /**
+     * @return a new {@link Updates} to collect the changes of one transaction in, which are applied in {@link Updates#close()}.
+     */
+    Updates updates()
+    {
+        return new Updates();
+    }
+
+    Seeker<RelationshipAdjacencyLayout.Key,RelationshipAdjacencyLayout.Value> allocateSeeker( CursorContext cursorContext )
+    {
+        try
+        {
+            return tree.allocateSeeker( cursorContext );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    void seek( Seeker<RelationshipAdjacencyLayout.Key,RelationshipAdjacencyLayout.Value> seeker, RelationshipAdjacencyLayout.Key fromInclusive,
+            RelationshipAdjacencyLayout.Key toExclusive )
+    {
+        try
+        {
+            tree.seek( seeker, fromInclusive, toExclusive );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    void checkpoint( CursorContext cursorContext )
+    {
+        tree.checkpoint( cursorContext );
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        tree.close();
+    }
+
+    /**
+     * Calls {@code visitor} once for each entry a relationship has in this store, i.e. once for a loop and otherwise once per node.
+     */
+    static void forEachEntry( RelationshipRecord record, EntryVisitor visitor ) throws IOException
+    {
+        long firstNode = record.getFirstNode();
+        long secondNode = record.getSecondNode();
+        int type = record.getType();
+        if ( firstNode == secondNode )
+        {
+            visitor.entry( firstNode, type, (byte) RelationshipDirection.LOOP.id(), record.getId(), firstNode );
+        }
+        else
+        {
+            visitor.entry( firstNode, type, (byte) RelationshipDirection.OUTGOING.id(), record.getId(), secondNode );
+            visitor.entry( secondNode, type, (byte) RelationshipDirection.INCOMING.id(), record.getId(), firstNode );
+        }
+    }
+
+    @FunctionalInterface
+    interface EntryVisitor
+    {
+        void entry( long node, int type, byte direction, long relationship, long otherNode ) throws IOException;
+    }
+
+    /**
+     * Collects the relationships created and deleted by a transaction. Transactions are applied concurrently and the tree
+     * only has a single writer, so the changes are applied together with those of other transactions through a {@link WorkSync}.
+     */
+    class Updates implements AutoCloseable
+    {
+        private final List<RelationshipRecord> created = new ArrayList<>();
+        private final List<RelationshipRecord> deleted = new ArrayList<>();
+
+        void created( RelationshipRecord record )
+        {
+            created.add( record );
+        }
+
+        void deleted( RelationshipRecord record )
+        {
+            deleted.add( record );
+        }
+
+        @Override
+        public void close() throws ExecutionException
+        {
+            if ( !created.isEmpty() || !deleted.isEmpty() )
+            {
+                workSync.apply( new UpdateWork( this ) );
+            }
+        }
+    }
+
+    private static class UpdateWork implements Work<RelationshipAdjacencyStore,UpdateWork>
+    {
+        private final List<Updates> updates = new ArrayList<>();
+
+        UpdateWork( Updates updates )
+        {
+            this.updates.add( updates );
+        }
+
+        @Override
+        public UpdateWork combine( UpdateWork work )
+        {
+            updates.addAll( work.updates );
+            return this;
+        }
+
+        @Override
+        public void apply( RelationshipAdjacencyStore store ) throws IOException
+        {
+            RelationshipAdjacencyLayout.Key key = new RelationshipAdjacencyLayout.Key();
+            RelationshipAdjacencyLayout.Value value = new RelationshipAdjacencyLayout.Value();
+            try ( var cursorContext = new CursorContext( store.pageCacheTracer.createPageCursorTracer( APPLY_TAG ) );
+                  Writer<RelationshipAdjacencyLayout.Key,RelationshipAdjacencyLayout.Value> writer = store.tree.writer( cursorContext ) )
+            {
+                // Work is combined in the order it was applied and a relationship id can't be reused in the same transaction,
+                // so applying the deletions of each transaction before its creations keeps the order of events
+                for ( Updates transactionUpdates : updates )
+                {
+                    for ( RelationshipRecord record : transactionUpdates.deleted )
+                    {
+                        forEachEntry( record, ( node, type, direction, relationship, otherNode ) ->
+                                writer.remove( key.initialize( node, type, direction, relationship ) ) );
+                    }
+                    for ( RelationshipRecord record : transactionUpdates.created )
+                    {
+                        forEachEntry( record, ( node, type, direction, relationship, otherNode ) ->
+                        {
+                            value.otherNode = otherNode;
+                            writer.put( key.initialize( node, type, direction, relationship ), value );
+                        } );
+                    }
+                }
+            }
+        }
+    }
+
+    private static class HeaderState implements Header.Reader
+    {
+        private byte state = NEEDS_BUILDING;
+
+        @Override
+        public void read( ByteBuffer headerBytes )
+        {
+            state = headerBytes.get();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.storageengine.api.CommandsToApply;
+
+/**
+ * Keeps the {@link RelationshipAdjacencyStore} up to date with created and deleted relationships.
+ */
+class RelationshipAdjacencyTransactionApplierFactory implements TransactionApplierFactory
+{
+    private final RelationshipAdjacencyStore adjacencyStore;
+
+    RelationshipAdjacencyTransactionApplierFactory( RelationshipAdjacencyStore adjacencyStore )
+    {
+        this.adjacencyStore = adjacencyStore;
+    }
+
+    @Override
+    public TransactionApplier startTx( CommandsToApply transaction, BatchContext batchContext )
+    {
+        return new RelationshipAdjacencyTransactionApplier( adjacencyStore.updates() );
+    }
+
+    private static class RelationshipAdjacencyTransactionApplier extends TransactionApplier.Adapter
+    {
+        private final RelationshipAdjacencyStore.Updates updates;
+
+        RelationshipAdjacencyTransactionApplier( RelationshipAdjacencyStore.Updates updates )
+        {
+            this.updates = updates;
+        }
+
+        @Override
+        public boolean visitRelationshipCommand( Command.RelationshipCommand command )
+        {
+            RelationshipRecord before = command.getBefore();
+            RelationshipRecord after = command.getAfter();
+            // The nodes and type of a relationship never change, only its chain pointers and properties
+            if ( !before.inUse() && after.inUse() )
+            {
+                updates.created( after );
+            }
+            else if ( before.inUse() && !after.inUse() )
+            {
+                updates.deleted( before );
+            }
+            return false;
+        }
+
+        @Override
+        public void close() throws Exception
+        {
+            updates.close();
+        }
+    }
+}
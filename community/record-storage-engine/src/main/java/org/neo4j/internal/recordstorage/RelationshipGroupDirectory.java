@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Header;
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.index.internal.gbptree.Seeker;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.store.RelationshipGroupStore;
+import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
+import org.neo4j.logging.Log;
+import org.neo4j.logging.LogProvider;
+import org.neo4j.util.concurrent.Work;
+import org.neo4j.util.concurrent.WorkSync;
+
+import static org.eclipse.collections.api.factory.Sets.immutable;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.CHECK;
+import static org.neo4j.kernel.impl.store.record.Record.NULL_REFERENCE;
+
+/**
+ * Maps node and relationship type to the relationship group of that type of a dense node. Finding the group of a type in the chain of
+ * relationship groups of a node means visiting every group with a lower type first, which for nodes with many relationship types is
+ * the dominating cost of both reading and writing relationships of a type. This directory finds it in a tree lookup instead.
+ * <p>
+ * The relationship group chains remain the source of truth: whatever is read from here must be validated against the group records
+ * by the caller, who should fall back to walking the chain if the two don't agree.
+ * <p>
+ * Updates are idempotent, so recovery can simply re-apply the transactions since the last checkpoint. The contents are built from the
+ * relationship group store in {@link #start(CursorContext)} if the directory was just created.
+ */
+class RelationshipGroupDirectory implements Closeable
+{
+    private static final String NAME = "Relationship group directory";
+    private static final String APPLY_TAG = "relationshipGroupDirectoryApply";
+    private static final byte NEEDS_BUILDING = 0;
+    private static final byte BUILT = 1;
+
+    private final GBPTree<RelationshipGroupDirectoryLayout.Key,RelationshipGroupDirectoryLayout.Value> tree;
+    private final WorkSync<RelationshipGroupDirectory,UpdateWork> workSync = new WorkSync<>( this );
+    private final RelationshipGroupStore groupStore;
+    private final DatabaseReadOnlyChecker readOnlyChecker;
+    private final PageCacheTracer pageCacheTracer;
+    private final Log log;
+    private volatile boolean built;
+
+    RelationshipGroupDirectory( PageCache pageCache, Path file, RecoveryCleanupWorkCollector recoveryCollector, RelationshipGroupStore groupStore,
+            DatabaseReadOnlyChecker readOnlyChecker, PageCacheTracer pageCacheTracer, String databaseName, LogProvider logProvider )
+    {
+        this.groupStore = groupStore;
+        this.readOnlyChecker = readOnlyChecker;
+        this.pageCacheTracer = pageCacheTracer;
+        this.log = logProvider.getLog( RelationshipGroupDirectory.class );
+        HeaderState header = new HeaderState();
+        this.tree = new GBPTree<>( pageCache, file, new RelationshipGroupDirectoryLayout(), GBPTree.NO_MONITOR, header,
+                cursor -> cursor.putByte( NEEDS_BUILDING ), recoveryCollector, readOnlyChecker, pageCacheTracer, immutable.empty(), databaseName, NAME );
+        this.built = header.state == BUILT;
+    }
+
+    /**
+     * Builds the contents from the relationship group store if that hasn't been done yet. Recovery must have completed before this is called.
+     */
+    void start( CursorContext cursorContext ) throws IOException
+    {
+        if ( built || readOnlyChecker.isReadOnly() )
+        {
+            return;
+        }
+
+        log.info( "Building relationship group directory." );
+        try ( PageCursor cursor = groupStore.openPageCursorForReadingWithPrefetching( 0, cursorContext );
+              var writer = tree.writer( cursorContext ) )
+        {
+            RelationshipGroupRecord record = groupStore.newRecord();
+            RelationshipGroupDirectoryLayout.Key key = new RelationshipGroupDirectoryLayout.Key();
+            RelationshipGroupDirectoryLayout.Value value = new RelationshipGroupDirectoryLayout.Value();
+            long highId = groupStore.getHighId();
+            for ( long id = 0; id < highId; id++ )
+            {
+                groupStore.getRecordByCursor( id, record, CHECK, cursor );
+                if ( record.inUse() )
+                {
+                    value.group = id;
+                    writer.put( key.initialize( record.getOwningNode(), record.getType() ), value );
+                }
+            }
+        }
+        tree.checkpoint( cursor -> cursor.putByte( BUILT ), cursorContext );
+        built = true;
+        log.info( "Relationship group directory built." );
+    }
+
+    /**
+     * @return whether or not the contents have been built, i.e. if this directory can be read from.
+     */
+    boolean isBuilt()
+    {
+        return built;
+    }
+
+    /**
+     * @return a new {@link Updates} to collect the changes of one transaction in, which are applied in {@link Updates#close()}.
+     */
+    Updates updates()
+    {
+        return new Updates();
+    }
+
+    /**
+     * @return a new {@link Lookup} for looking up groups, which must be closed after use.
+     */
+    Lookup lookup( CursorContext cursorContext )
+    {
+        try
+        {
+            return new Lookup( tree.allocateSeeker( cursorContext ) );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    void checkpoint( CursorContext cursorContext )
+    {
+        tree.checkpoint( cursorContext );
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        tree.close();
+    }
+
+    /**
+     * Looks up groups of nodes, reusing the same {@link Seeker} for all lookups.
+     */
+    class Lookup implements AutoCloseable
+    {
+        private final Seeker<RelationshipGroupDirectoryLayout.Key,RelationshipGroupDirectoryLayout.Value> seeker;
+        private final RelationshipGroupDirectoryLayout.Key from = new RelationshipGroupDirectoryLayout.Key();
+        private final RelationshipGroupDirectoryLayout.Key to = new RelationshipGroupDirectoryLayout.Key();
+
+        private Lookup( Seeker<RelationshipGroupDirectoryLayout.Key,RelationshipGroupDirectoryLayout.Value> seeker )
+        {
+            this.seeker = seeker;
+        }
+
+        /**
+         * @return id of the group of {@code type} of {@code node}, or {@link org.neo4j.kernel.impl.store.record.Record#NULL_REFERENCE}
+         * if the node has no such group.
+         */
+        long group( long node, int type )
+        {
+            return first( from.initialize( node, type ), to.initialize( node, type + 1 ) );
+        }
+
+        /**
+         * @return id of the group of {@code node} with the highest type lower than {@code type}, i.e. the group that comes before
+         * a group of {@code type} in the chain, or {@link org.neo4j.kernel.impl.store.record.Record#NULL_REFERENCE} if there is none.
+         */
+        long closestPrevious( long node, int type )
+        {
+            // A seek from a higher to a lower key goes backwards
+            return first( from.initialize( node, type - 1 ), to.initialize( node, Integer.MIN_VALUE ) );
+        }
+
+        private long first( RelationshipGroupDirectoryLayout.Key fromInclusive, RelationshipGroupDirectoryLayout.Key toExclusive )
+        {
+            try
+            {
+                tree.seek( seeker, fromInclusive, toExclusive );
+                return seeker.next() ? seeker.value().group : NULL_REFERENCE.longValue();
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            seeker.close();
+        }
+    }
+
+    /**
+     * Collects the relationship groups created and deleted by a transaction. Transactions are applied concurrently and the tree
+     * only has a single writer, so the changes are applied together with those of other transactions through a {@link WorkSync}.
+     */
+    class Updates implements AutoCloseable
+    {
+        private final List<RelationshipGroupRecord> created = new ArrayList<>();
+        private final List<RelationshipGroupRecord> deleted = new ArrayList<>();
+
+        void created( RelationshipGroupRecord record )
+        {
+            created.add( record );
+        }
+
+        void deleted( RelationshipGroupRecord record )
+        {
+            deleted.add( record );
+        }
+
+        @Override
+        public void close() throws ExecutionException
+        {
+            if ( !created.isEmpty() || !deleted.isEmpty() )
+            {
+                workSync.apply( new UpdateWork( this ) );
+            }
+        }
+    }
+
+    private static class UpdateWork implements Work<RelationshipGroupDirectory,UpdateWork>
+    {
+        private final List<Updates> updates = new ArrayList<>();
+
+        UpdateWork( Updates updates )
+        {
+            this.updates.add( updates );
+        }
+
+        @Override
+        public UpdateWork combine( UpdateWork work )
+        {
+            updates.addAll( work.updates );
+            return this;
+        }
+
+        @Override
+        public void apply( RelationshipGroupDirectory directory ) throws IOException
+        {
+            RelationshipGroupDirectoryLayout.Key key = new RelationshipGroupDirectoryLayout.Key();
+            RelationshipGroupDirectoryLayout.Value value = new RelationshipGroupDirectoryLayout.Value();
+            try ( var cursorContext = new CursorContext( directory.pageCacheTracer.createPageCursorTracer( APPLY_TAG ) );
+                  Writer<RelationshipGroupDirectoryLayout.Key,RelationshipGroupDirectoryLayout.Value> writer = directory.tree.writer( cursorContext ) )
+            {
+                // Work is combined in the order it was applied, so applying the deletions of each transaction before its creations
+                // keeps the order of events, also when a transaction replaces the group of a type
+                for ( Updates transactionUpdates : updates )
+                {
+                    for ( RelationshipGroupRecord record : transactionUpdates.deleted )
+                    {
+                        writer.remove( key.initialize( record.getOwningNode(), record.getType() ) );
+                    }
+                    for ( RelationshipGroupRecord record : transactionUpdates.created )
+                    {
+                        value.group = record.getId();
+                        writer.put( key.initialize( record.getOwningNode(), record.getType() ), value );
+                    }
+                }
+            }
+        }
+    }
+
+    private static class HeaderState implements Header.Reader
+    {
+        private byte state = NEEDS_BUILDING;
+
+        @Override
+        public void read( ByteBuffer headerBytes )
+        {
+            state = headerBytes.get();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.io.pagecache.PageCursor;
+
+/**
+ * {@link Layout} of the {@link RelationshipGroupDirectory}. Entries are sorted by node and relationship type, which places the groups
+ * of a node next to each other in the same order as in its relationship group chain.
+ */
+class RelationshipGroupDirectoryLayout extends Layout.Adapter<RelationshipGroupDirectoryLayout.Key,RelationshipGroupDirectoryLayout.Value>
+{
+    RelationshipGroupDirectoryLayout()
+    {
+        super( true, Layout.namedIdentifier( "ReGD", 1 ), 0, 1 );
+    }
+
+    @Override
+    public Key newKey()
+    {
+        return new Key();
+    }
+
+    @Override
+    public Key copyKey( Key key, Key into )
+    {
+        into.initialize( key.node, key.type );
+        return into;
+    }
+
+    @Override
+    public Value newValue()
+    {
+        return new Value();
+    }
+
+    @Override
+    public int keySize( Key key )
+    {
+        return Key.SIZE;
+    }
+
+    @Override
+    public int valueSize( Value value )
+    {
+        return Value.SIZE;
+    }
+
+    @Override
+    public void writeKey( PageCursor cursor, Key key )
+    {
+        cursor.putLong( key.node );
+        cursor.putInt( key.type );
+    }
+
+    @Override
+    public void writeValue( PageCursor cursor, Value value )
+    {
+        cursor.putLong( value.group );
+    }
+
+    @Override
+    public void readKey( PageCursor cursor, Key into, int keySize )
+    {
+        long node = cursor.getLong();
+        int type = cursor.getInt();
+        into.initialize( node, type );
+    }
+
+    @Override
+    public void readValue( PageCursor cursor, Value into, int valueSize )
+    {
+        into.group = cursor.getLong();
+    }
+
+    @Override
+    public int compare( Key o1, Key o2 )
+    {
+        int nodeCompare = Long.compare( o1.node, o2.node );
+        if ( nodeCompare != 0 )
+        {
+            return nodeCompare;
+        }
+        return Integer.compare( o1.type, o2.type );
+    }
+
+    @Override
+    public void initializeAsLowest( Key key )
+    {
+        key.initialize( Long.MIN_VALUE, Integer.MIN_VALUE );
+    }
+
+    @Override
+    public void initializeAsHighest( Key key )
+    {
+        key.initialize( Long.MAX_VALUE, Integer.MAX_VALUE );
+    }
+
+    static class Key
+    {
+        static final int SIZE = Long.BYTES + Integer.BYTES;
+
+        long node;
+        int type;
+
+        Key initialize( long node, int type )
+        {
+            this.node = node;
+            this.type = type;
+            return this;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "[node:" + node + ", type:" + type + "]";
+        }
+    }
+
+    static class Value
+    {
+        static final int SIZE = Long.BYTES;
+
+        long group;
+
+        @Override
+        public String toString()
+        {
+            return "[group:" + group + "]";
+        }
+    }
+}
@@ -19,6 +19,7 @@
  */
 package org.neo4j.internal.recordstorage;
 
+import java.io.IOException;
 import java.util.function.Predicate;
 
 import org.neo4j.internal.id.IdSequence;
@@ -30,11 +31,15 @@ import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
 
 import static org.neo4j.kernel.impl.store.record.Record.NULL_REFERENCE;
 import static org.neo4j.kernel.impl.store.record.Record.isNull;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.CHECK;
 
-public class RelationshipGroupGetter
+public class RelationshipGroupGetter implements AutoCloseable
 {
     private final IdSequence idGenerator;
     private final CursorContext cursorContext;
+    // Optional directory for finding the closest previous group of a type without walking the group chain, or null if there's no such directory
+    private final RelationshipGroupDirectory groupDirectory;
+    private RelationshipGroupDirectory.Lookup groupLookup;
 
     interface RelationshipGroupMonitor
     {
@@ -44,27 +49,74 @@ public class RelationshipGroupGetter
     }
 
     public RelationshipGroupGetter( IdSequence idGenerator, CursorContext cursorContext )
+    {
+        this( idGenerator, cursorContext, null );
+    }
+
+    RelationshipGroupGetter( IdSequence idGenerator, CursorContext cursorContext, RelationshipGroupDirectory groupDirectory )
     {
         this.idGenerator = idGenerator;
         this.cursorContext = cursorContext;
+        this.groupDirectory = groupDirectory;
     }
 
     public RelationshipGroupPosition getRelationshipGroup( NodeRecord node, int type, RecordAccess<RelationshipGroupRecord,Integer> relGroupRecords,
             RelationshipGroupMonitor monitor )
     {
+        if ( groupDirectory != null && groupDirectory.isBuilt() )
+        {
+            RecordProxy<RelationshipGroupRecord,Integer> closestPrevious = closestPreviousFromDirectory( node.getId(), type, relGroupRecords );
+            if ( closestPrevious != null )
+            {
+                // The chain is sorted by type, so the group of this type is either right after the closest previous group or not there at all.
+                // Groups created by this transaction aren't in the directory though, so walk the chain from there to see them too.
+                return getRelationshipGroup( closestPrevious.getKey(), closestPrevious, closestPrevious.forReadingData().getNext(), type, relGroupRecords,
+                        monitor );
+            }
+        }
         return getRelationshipGroup( NULL_REFERENCE.longValue(), node.getNextRel(), type, relGroupRecords, monitor );
     }
 
+    /**
+     * The directory is only updated when transactions are applied, so the group it points to is checked against the records as seen by this
+     * transaction. A group that is in use and owned by the node is in the group chain of the node, so the chain can be walked from it.
+     *
+     * @return the group of the node with the highest type lower than {@code type} according to the directory, or {@code null} if there's
+     * no such group or if the directory doesn't agree with the records, in which case the chain must be walked from the start.
+     */
+    private RecordProxy<RelationshipGroupRecord,Integer> closestPreviousFromDirectory( long nodeId, int type,
+            RecordAccess<RelationshipGroupRecord,Integer> relGroupRecords )
+    {
+        if ( groupLookup == null )
+        {
+            groupLookup = groupDirectory.lookup( cursorContext );
+        }
+        long groupId = groupLookup.closestPrevious( nodeId, type );
+        if ( isNull( groupId ) )
+        {
+            return null;
+        }
+        RecordProxy<RelationshipGroupRecord,Integer> group = relGroupRecords.getOrLoad( groupId, null, CHECK );
+        RelationshipGroupRecord record = group.forReadingData();
+        return record.inUse() && record.getOwningNode() == nodeId && record.getType() < type ? group : null;
+    }
+
     /**
      * @param prevGroupId supplied here because {@link RelationshipGroupRecord#getPrev()} isn't persisted in the record.
      * @param startingGroupId which group id to start iterating from.
      */
     public RelationshipGroupPosition getRelationshipGroup( long prevGroupId, long startingGroupId,
             int type, RecordAccess<RelationshipGroupRecord, Integer> relGroupRecords, RelationshipGroupMonitor monitor )
+    {
+        return getRelationshipGroup( prevGroupId, null, startingGroupId, type, relGroupRecords, monitor );
+    }
+
+    private RelationshipGroupPosition getRelationshipGroup( long prevGroupId, RecordProxy<RelationshipGroupRecord, Integer> previousGroup,
+            long startingGroupId, int type, RecordAccess<RelationshipGroupRecord, Integer> relGroupRecords, RelationshipGroupMonitor monitor )
     {
         long groupId = startingGroupId;
         long previousGroupId = prevGroupId;
-        RecordProxy<RelationshipGroupRecord, Integer> previous = null;
+        RecordProxy<RelationshipGroupRecord, Integer> previous = previousGroup;
         RecordProxy<RelationshipGroupRecord, Integer> current;
         while ( !isNull( groupId ) )
         {
@@ -91,7 +143,8 @@ public class RelationshipGroupGetter
     public RecordProxy<RelationshipGroupRecord, Integer> getOrCreateRelationshipGroup(
             RecordProxy<NodeRecord,Void> nodeChange, int type, RecordAccess<RelationshipGroupRecord, Integer> relGroupRecords )
     {
-        return getOrCreateRelationshipGroup( nodeChange, type, relGroupRecords, NULL_REFERENCE.longValue(), nodeChange.forReadingLinkage().getNextRel() );
+        RelationshipGroupPosition existingGroup = getRelationshipGroup( nodeChange.forReadingLinkage(), type, relGroupRecords, RelationshipGroupMonitor.EMPTY );
+        return getOrCreateRelationshipGroup( nodeChange, type, relGroupRecords, existingGroup );
     }
 
     public RecordProxy<RelationshipGroupRecord, Integer> getOrCreateRelationshipGroup(
@@ -99,6 +152,13 @@ public class RelationshipGroupGetter
             long prevGroupId, long startingGroupId )
     {
         RelationshipGroupPosition existingGroup = getRelationshipGroup( prevGroupId, startingGroupId, type, relGroupRecords, RelationshipGroupMonitor.EMPTY );
+        return getOrCreateRelationshipGroup( nodeChange, type, relGroupRecords, existingGroup );
+    }
+
+    private RecordProxy<RelationshipGroupRecord, Integer> getOrCreateRelationshipGroup(
+            RecordProxy<NodeRecord,Void> nodeChange, int type, RecordAccess<RelationshipGroupRecord, Integer> relGroupRecords,
+            RelationshipGroupPosition existingGroup )
+    {
         RecordProxy<RelationshipGroupRecord, Integer> change = existingGroup.group();
         if ( change == null )
         {
@@ -143,6 +203,16 @@ public class RelationshipGroupGetter
         return change;
     }
 
+    @Override
+    public void close() throws IOException
+    {
+        if ( groupLookup != null )
+        {
+            groupLookup.close();
+            groupLookup = null;
+        }
+    }
+
     static void deleteGroup( RecordProxy<NodeRecord,Void> nodeChange, RelationshipGroupRecord group, GroupLookup groupLookup )
     {
         long previous = group.getPrev();
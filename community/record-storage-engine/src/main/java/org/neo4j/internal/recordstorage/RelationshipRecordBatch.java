@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.neo4j.kernel.impl.store.RecordBatch;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+
+/**
+ * The in-use relationship records of one page, decoded into primitive arrays, for {@link RecordRelationshipScanCursor} to step through when scanning.
+ */
+final class RelationshipRecordBatch implements RecordBatch<RelationshipRecord>
+{
+    private final long[] ids;
+    private final long[] nextProps;
+    private final long[] firstNodes;
+    private final long[] secondNodes;
+    private final int[] types;
+    private final long[] firstPrevRels;
+    private final long[] firstNextRels;
+    private final long[] secondPrevRels;
+    private final long[] secondNextRels;
+    private final boolean[] firstInFirstChain;
+    private final boolean[] firstInSecondChain;
+    private int size;
+    private int cursor;
+
+    RelationshipRecordBatch( int recordsPerPage )
+    {
+        ids = new long[recordsPerPage];
+        nextProps = new long[recordsPerPage];
+        firstNodes = new long[recordsPerPage];
+        secondNodes = new long[recordsPerPage];
+        types = new int[recordsPerPage];
+        firstPrevRels = new long[recordsPerPage];
+        firstNextRels = new long[recordsPerPage];
+        secondPrevRels = new long[recordsPerPage];
+        secondNextRels = new long[recordsPerPage];
+        firstInFirstChain = new boolean[recordsPerPage];
+        firstInSecondChain = new boolean[recordsPerPage];
+    }
+
+    @Override
+    public void clear()
+    {
+        size = 0;
+        cursor = 0;
+    }
+
+    @Override
+    public void add( RelationshipRecord record )
+    {
+        ids[size] = record.getId();
+        nextProps[size] = record.getNextProp();
+        firstNodes[size] = record.getFirstNode();
+        secondNodes[size] = record.getSecondNode();
+        types[size] = record.getType();
+        firstPrevRels[size] = record.getFirstPrevRel();
+        firstNextRels[size] = record.getFirstNextRel();
+        secondPrevRels[size] = record.getSecondPrevRel();
+        secondNextRels[size] = record.getSecondNextRel();
+        firstInFirstChain[size] = record.isFirstInFirstChain();
+        firstInSecondChain[size] = record.isFirstInSecondChain();
+        size++;
+    }
+
+    boolean hasNext()
+    {
+        return cursor < size;
+    }
+
+    /**
+     * @return id of the record that the next call to {@link #next(RelationshipRecord)} will load.
+     */
+    long peekId()
+    {
+        return ids[cursor];
+    }
+
+    void next( RelationshipRecord target )
+    {
+        target.setId( ids[cursor] );
+        target.initialize( true, nextProps[cursor], firstNodes[cursor], secondNodes[cursor], types[cursor], firstPrevRels[cursor], firstNextRels[cursor],
+                secondPrevRels[cursor], secondNextRels[cursor], firstInFirstChain[cursor], firstInSecondChain[cursor] );
+        cursor++;
+    }
+}
@@ -25,6 +25,7 @@ import java.nio.ByteBuffer;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
@@ -177,6 +178,12 @@ public abstract class AbstractDynamicStore extends CommonAbstractStore<DynamicRe
     public static Pair<byte[], byte[]> readFullByteArrayFromHeavyRecords(
             Iterable<DynamicRecord> records, PropertyType propertyType )
     {
+        DynamicRecord first = Iterables.firstOrNull( records );
+        if ( first != null && DynamicRecordCompression.isCompressed( first.getData(), first.getLength() ) )
+        {
+            return readCompressedByteArrayFromHeavyRecords( records, propertyType );
+        }
+
         byte[] header = null;
         List<byte[]> byteList = new ArrayList<>();
         int totalSize = 0;
@@ -208,6 +215,26 @@ public abstract class AbstractDynamicStore extends CommonAbstractStore<DynamicRe
         return Pair.of( header, bArray );
     }
 
+    private static Pair<byte[], byte[]> readCompressedByteArrayFromHeavyRecords( Iterable<DynamicRecord> records, PropertyType propertyType )
+    {
+        int totalSize = 0;
+        for ( DynamicRecord record : records )
+        {
+            totalSize += record.getLength();
+        }
+        byte[] compressed = new byte[totalSize];
+        int offset = 0;
+        for ( DynamicRecord record : records )
+        {
+            System.arraycopy( record.getData(), 0, compressed, offset, record.getLength() );
+            offset += record.getLength();
+        }
+
+        byte[] payload = DynamicRecordCompression.decompress( compressed, compressed.length );
+        byte[] header = propertyType.readDynamicRecordHeader( payload );
+        return Pair.of( header, Arrays.copyOfRange( payload, header.length, payload.length ) );
+    }
+
     @Override
     public DynamicRecord nextRecord( CursorContext cursorContext )
     {
@@ -504,6 +504,13 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord,HEAD
         return idGenerator.nextId( cursorContext );
     }
 
+    @Override
+    public long nextIdNear( long nearId, CursorContext cursorContext )
+    {
+        assertIdGeneratorInitialized();
+        return idGenerator.nextIdNear( nearId, cursorContext );
+    }
+
     private void assertIdGeneratorInitialized()
     {
         if ( idGenerator == null )
@@ -884,6 +891,55 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord,HEAD
         }
     }
 
+    /**
+     * Reads the records with ids from {@code fromId} to {@code toId}, inclusive, but no further than the last record on the page of {@code fromId}.
+     * As opposed to reading them one by one with {@link #nextRecordByCursor(AbstractBaseRecord, RecordLoad, PageCursor)}, the page is only
+     * pinned, and read consistently, once for all of them, which makes scanning a store cheaper. The records that are in use are given to
+     * {@code batch}, which is cleared and filled again if the page had to be re-read due to a concurrent write to it.
+     *
+     * @param fromId id of the first record to read.
+     * @param toId id of the last record to read, unless it's on a later page than {@code fromId}.
+     * @param scratch record to read each record into before handing it to {@code batch}.
+     * @param batch receives the records that are in use.
+     * @param cursor page cursor to read the page with.
+     * @return id of the last record that was read.
+     */
+    public long readRecordsOfPage( long fromId, long toId, RECORD scratch, RecordBatch<RECORD> batch, PageCursor cursor )
+    {
+        long pageId = pageIdForRecord( fromId );
+        long lastId = Math.min( toId, (pageId + 1) * recordsPerPage - 1 );
+        try
+        {
+            batch.clear();
+            if ( !cursor.next( pageId ) )
+            {
+                return lastId;
+            }
+            do
+            {
+                batch.clear();
+                for ( long id = fromId; id <= lastId; id++ )
+                {
+                    scratch.setId( id );
+                    scratch.setInUse( false );
+                    cursor.setOffset( offsetForId( id ) );
+                    recordFormat.read( scratch, cursor, LENIENT_CHECK, recordSize, recordsPerPage );
+                    if ( scratch.inUse() )
+                    {
+                        batch.add( scratch );
+                    }
+                }
+            }
+            while ( cursor.shouldRetry() );
+            checkForDecodingErrors( cursor, lastId, LENIENT_CHECK );
+            return lastId;
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( e );
+        }
+    }
+
     private void readRecordFromPage( long id, RECORD record, RecordLoad mode, PageCursor cursor ) throws IOException
     {
         cursor.mark();
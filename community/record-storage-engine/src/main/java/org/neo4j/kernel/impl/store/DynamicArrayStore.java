@@ -221,12 +221,13 @@ public class DynamicArrayStore extends AbstractDynamicStore
             byte[] bytes,
             DynamicRecordAllocator recordAllocator,
             boolean allowsStorage,
-            Capability storageCapability, CursorContext cursorContext,
+            Capability storageCapability, int compressionThreshold, CursorContext cursorContext,
             MemoryTracker memoryTracker )
     {
         if ( allowsStorage )
         {
-            allocateRecordsFromBytes( target, bytes, recordAllocator, cursorContext, memoryTracker );
+            allocateRecordsFromBytes( target, DynamicRecordCompression.compress( bytes, compressionThreshold ), recordAllocator, cursorContext,
+                    memoryTracker );
         }
         else
         {
@@ -235,7 +236,7 @@ public class DynamicArrayStore extends AbstractDynamicStore
     }
 
     private static void allocateFromString( Collection<DynamicRecord> target, String[] array,
-            DynamicRecordAllocator recordAllocator, CursorContext cursorContext, MemoryTracker memoryTracker )
+            DynamicRecordAllocator recordAllocator, int compressionThreshold, CursorContext cursorContext, MemoryTracker memoryTracker )
     {
         byte[][] stringsAsBytes = new byte[array.length][];
         int totalBytesRequired = STRING_HEADER_SIZE; // 1b type + 4b array length
@@ -257,7 +258,8 @@ public class DynamicArrayStore extends AbstractDynamicStore
                 buffer.putInt( stringAsBytes.length );
                 buffer.put( stringAsBytes );
             }
-            allocateRecordsFromBytes( target, buffer.array(), recordAllocator, cursorContext, memoryTracker );
+            allocateRecordsFromBytes( target, DynamicRecordCompression.compress( buffer.array(), compressionThreshold ), recordAllocator, cursorContext,
+                    memoryTracker );
         }
     }
 
@@ -268,6 +270,16 @@ public class DynamicArrayStore extends AbstractDynamicStore
 
     public static void allocateRecords( Collection<DynamicRecord> target, Object array,
             DynamicRecordAllocator recordAllocator, boolean allowStorePointsAndTemporal, CursorContext cursorContext, MemoryTracker memoryTracker )
+    {
+        allocateRecords( target, array, recordAllocator, allowStorePointsAndTemporal, 0, cursorContext, memoryTracker );
+    }
+
+    /**
+     * Allocates dynamic records for the encoded array, compressing the encoded array if it's at least {@code compressionThreshold} bytes,
+     * see {@link DynamicRecordCompression}.
+     */
+    public static void allocateRecords( Collection<DynamicRecord> target, Object array, DynamicRecordAllocator recordAllocator,
+            boolean allowStorePointsAndTemporal, int compressionThreshold, CursorContext cursorContext, MemoryTracker memoryTracker )
     {
         if ( !array.getClass().isArray() )
         {
@@ -277,46 +289,55 @@ public class DynamicArrayStore extends AbstractDynamicStore
         Class<?> type = array.getClass().getComponentType();
         if ( type.equals( String.class ) )
         {
-            allocateFromString( target, (String[]) array, recordAllocator, cursorContext, memoryTracker );
+            allocateFromString( target, (String[]) array, recordAllocator, compressionThreshold, cursorContext, memoryTracker );
         }
         else if ( type.equals( PointValue.class ) )
         {
             allocateFromCompositeType( target,GeometryType.encodePointArray( (PointValue[]) array ),
-                    recordAllocator, allowStorePointsAndTemporal, RecordStorageCapability.POINT_PROPERTIES, cursorContext, memoryTracker );
+                    recordAllocator, allowStorePointsAndTemporal, RecordStorageCapability.POINT_PROPERTIES, compressionThreshold, cursorContext,
+                    memoryTracker );
         }
         else if ( type.equals( LocalDate.class ) )
         {
             allocateFromCompositeType( target, TemporalType.encodeDateArray( (LocalDate[]) array ),
-                    recordAllocator, allowStorePointsAndTemporal, RecordStorageCapability.TEMPORAL_PROPERTIES, cursorContext, memoryTracker );
+                    recordAllocator, allowStorePointsAndTemporal, RecordStorageCapability.TEMPORAL_PROPERTIES, compressionThreshold,
+                    cursorContext, memoryTracker );
         }
         else if ( type.equals( LocalTime.class ) )
         {
             allocateFromCompositeType( target, TemporalType.encodeLocalTimeArray( (LocalTime[]) array ),
-                    recordAllocator, allowStorePointsAndTemporal, RecordStorageCapability.TEMPORAL_PROPERTIES, cursorContext, memoryTracker );
+                    recordAllocator, allowStorePointsAndTemporal, RecordStorageCapability.TEMPORAL_PROPERTIES, compressionThreshold,
+                    cursorContext, memoryTracker );
         }
         else if ( type.equals( LocalDateTime.class ) )
         {
             allocateFromCompositeType( target, TemporalType.encodeLocalDateTimeArray( (LocalDateTime[]) array ),
-                    recordAllocator, allowStorePointsAndTemporal, RecordStorageCapability.TEMPORAL_PROPERTIES, cursorContext, memoryTracker );
+                    recordAllocator, allowStorePointsAndTemporal, RecordStorageCapability.TEMPORAL_PROPERTIES, compressionThreshold,
+                    cursorContext, memoryTracker );
         }
         else if ( type.equals( OffsetTime.class ) )
         {
             allocateFromCompositeType( target, TemporalType.encodeTimeArray( (OffsetTime[]) array ),
-                    recordAllocator, allowStorePointsAndTemporal, RecordStorageCapability.TEMPORAL_PROPERTIES, cursorContext, memoryTracker );
+                    recordAllocator, allowStorePointsAndTemporal, RecordStorageCapability.TEMPORAL_PROPERTIES, compressionThreshold,
+                    cursorContext, memoryTracker );
         }
         else if ( type.equals( ZonedDateTime.class ) )
         {
             allocateFromCompositeType( target, TemporalType.encodeDateTimeArray( (ZonedDateTime[]) array ),
-                    recordAllocator, allowStorePointsAndTemporal, RecordStorageCapability.TEMPORAL_PROPERTIES, cursorContext, memoryTracker );
+                    recordAllocator, allowStorePointsAndTemporal, RecordStorageCapability.TEMPORAL_PROPERTIES, compressionThreshold,
+                    cursorContext, memoryTracker );
         }
         else if ( type.equals( DurationValue.class ) )
         {
             allocateFromCompositeType( target, TemporalType.encodeDurationArray( (DurationValue[]) array ),
-                    recordAllocator, allowStorePointsAndTemporal, RecordStorageCapability.TEMPORAL_PROPERTIES, cursorContext, memoryTracker );
+                    recordAllocator, allowStorePointsAndTemporal, RecordStorageCapability.TEMPORAL_PROPERTIES, compressionThreshold,
+                    cursorContext, memoryTracker );
         }
         else
         {
-            allocateFromNumbers( target, array, recordAllocator, cursorContext, memoryTracker );
+            byte[] bytes = encodeFromNumbers( array, 0 );
+            allocateRecordsFromBytes( target, DynamicRecordCompression.compress( bytes, compressionThreshold ), recordAllocator, cursorContext,
+                    memoryTracker );
         }
     }
 
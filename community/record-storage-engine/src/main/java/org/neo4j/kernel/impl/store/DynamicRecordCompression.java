@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.neo4j.internal.recordstorage.InconsistentDataReadException;
+
+/**
+ * Compression of string and array payloads stored in chains of {@link org.neo4j.kernel.impl.store.record.DynamicRecord dynamic records}.
+ * A compressed payload has this format:
+ * <pre>
+ * 0: marker              ( 1 byte)   {@link #COMPRESSED_MARKER}
+ * 1: uncompressed length ( 4 bytes)
+ * 5: deflated payload
+ * </pre>
+ * The marker can't be mistaken for the first byte of an uncompressed payload. An array payload starts with the {@link PropertyType} id
+ * of its items, which is always positive, and a string payload is UTF-8 which never contains the byte {@code 0xFF}. {@link #compress(byte[], int)}
+ * rejects payloads breaking this, should a new encoding be added. Payloads are only compressed in stores whose format has the
+ * {@link org.neo4j.kernel.impl.store.format.RecordStorageCapability#DYNAMIC_RECORD_COMPRESSION} capability.
+ */
+public final class DynamicRecordCompression
+{
+    public static final byte COMPRESSED_MARKER = (byte) 0xFF;
+    private static final int HEADER_SIZE = 1 + Integer.BYTES;
+
+    private DynamicRecordCompression()
+    {
+    }
+
+    /**
+     * @param payload the uncompressed payload.
+     * @param threshold payloads smaller than this many bytes are not compressed. 0 means that nothing is compressed.
+     * @return the compressed payload, or the given payload if it's below the threshold or didn't get any smaller when compressed.
+     * @throws IllegalArgumentException if the uncompressed payload starts with {@link #COMPRESSED_MARKER}.
+     */
+    public static byte[] compress( byte[] payload, int threshold )
+    {
+        if ( isCompressed( payload, payload.length ) )
+        {
+            throw new IllegalArgumentException( "Dynamic record payload can't start with the compressed marker " + COMPRESSED_MARKER );
+        }
+        if ( threshold <= 0 || payload.length < threshold )
+        {
+            return payload;
+        }
+
+        Deflater deflater = new Deflater( Deflater.BEST_SPEED, true );
+        try
+        {
+            deflater.setInput( payload );
+            deflater.finish();
+            byte[] compressed = new byte[payload.length];
+            int length = HEADER_SIZE;
+            while ( !deflater.finished() && length < compressed.length )
+            {
+                length += deflater.deflate( compressed, length, compressed.length - length );
+            }
+            if ( !deflater.finished() )
+            {
+                // Not worth it, this payload doesn't compress into fewer bytes
+                return payload;
+            }
+            ByteBuffer.wrap( compressed ).put( COMPRESSED_MARKER ).putInt( payload.length );
+            return Arrays.copyOf( compressed, length );
+        }
+        finally
+        {
+            deflater.end();
+        }
+    }
+
+    public static boolean isCompressed( byte[] data, int length )
+    {
+        return length > 0 && data[0] == COMPRESSED_MARKER;
+    }
+
+    /**
+     * @param data array holding a compressed payload from its beginning.
+     * @param length number of bytes of the compressed payload.
+     * @return the uncompressed payload.
+     * @throws InconsistentDataReadException if the payload couldn't be decompressed.
+     */
+    public static byte[] decompress( byte[] data, int length )
+    {
+        if ( length < HEADER_SIZE )
+        {
+            throw new InconsistentDataReadException( "Compressed dynamic record payload of %d bytes is too short", length );
+        }
+        int uncompressedLength = ByteBuffer.wrap( data, 1, Integer.BYTES ).getInt();
+        if ( uncompressedLength < 0 )
+        {
+            throw new InconsistentDataReadException( "Compressed dynamic record payload has illegal length %d", uncompressedLength );
+        }
+
+        Inflater inflater = new Inflater( true );
+        try
+        {
+            inflater.setInput( data, HEADER_SIZE, length - HEADER_SIZE );
+            byte[] payload = new byte[uncompressedLength];
+            int read = 0;
+            while ( read < uncompressedLength )
+            {
+                int inflated = inflater.inflate( payload, read, uncompressedLength - read );
+                if ( inflated == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary()) )
+                {
+                    break;
+                }
+                read += inflated;
+            }
+            if ( read != uncompressedLength )
+            {
+                throw new InconsistentDataReadException( "Compressed dynamic record payload decompressed into %d bytes, expected %d", read,
+                        uncompressedLength );
+            }
+            return payload;
+        }
+        catch ( DataFormatException e )
+        {
+            throw new InconsistentDataReadException( e, "Compressed dynamic record payload is corrupt" );
+        }
+        finally
+        {
+            inflater.end();
+        }
+    }
+}
@@ -25,6 +25,12 @@ import java.io.IOException;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 
 import org.neo4j.configuration.Config;
@@ -35,6 +41,7 @@ import org.neo4j.function.ThrowingConsumer;
 import org.neo4j.graphdb.config.Setting;
 import org.neo4j.internal.diagnostics.DiagnosticsLogger;
 import org.neo4j.internal.helpers.Exceptions;
+import org.neo4j.internal.helpers.NamedThreadFactory;
 import org.neo4j.internal.id.IdGeneratorFactory;
 import org.neo4j.internal.id.SchemaIdType;
 import org.neo4j.internal.recordstorage.RecordIdType;
@@ -48,10 +55,14 @@ import org.neo4j.kernel.impl.store.format.RecordFormats;
 import org.neo4j.kernel.impl.store.format.standard.MetaDataRecordFormat;
 import org.neo4j.kernel.impl.store.record.AbstractBaseRecord;
 import org.neo4j.kernel.impl.store.record.RecordLoad;
+import org.neo4j.logging.Log;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.storageengine.api.format.CapabilityType;
+import org.neo4j.time.Stopwatch;
 
+import static java.lang.String.format;
 import static org.apache.commons.lang3.ArrayUtils.contains;
+import static org.neo4j.internal.helpers.Format.duration;
 import static org.neo4j.kernel.impl.store.MetaDataStore.Position.STORE_VERSION;
 import static org.neo4j.kernel.impl.store.MetaDataStore.versionLongToString;
 
@@ -83,6 +94,7 @@ public class NeoStores implements AutoCloseable
     private final StoreType[] initializedStores;
     private final RecordFormats recordFormats;
     private final CommonAbstractStore[] stores;
+    private final Object[] storeOpenLocks;
     private final PageCacheTracer pageCacheTracer;
     private final ImmutableSet<OpenOption> openOptions;
     private final DatabaseReadOnlyChecker readOnlyChecker;
@@ -114,16 +126,36 @@ public class NeoStores implements AutoCloseable
         this.openOptions = openOptions;
 
         stores = new CommonAbstractStore[StoreType.values().length];
+        storeOpenLocks = new Object[stores.length];
+        for ( int i = 0; i < storeOpenLocks.length; i++ )
+        {
+            storeOpenLocks[i] = new Object();
+        }
+        Log log = logProvider.getLog( NeoStores.class );
         // First open the meta data store so that we can verify the record format. We know that this store is of the type MetaDataStore
         try ( var cursorContext = new CursorContext( pageCacheTracer.createPageCursorTracer( OPEN_ALL_STORES_TAG ) ) )
         {
             try
             {
+                Stopwatch stopwatch = Stopwatch.start();
                 verifyRecordFormat( storeTypes, cursorContext );
-                for ( StoreType type : storeTypes )
+                log.debug( format( "Verified record format of %s in %s", layout.getDatabaseName(), duration( stopwatch.elapsed().toMillis() ) ) );
+
+                stopwatch = Stopwatch.start();
+                int parallelism = Math.min( config.get( GraphDatabaseInternalSettings.store_open_parallelism ), storeTypes.length );
+                if ( parallelism > 1 )
+                {
+                    openStoresInParallel( storeTypes, parallelism );
+                }
+                else
                 {
-                    getOrOpenStore( type, cursorContext );
+                    for ( StoreType type : storeTypes )
+                    {
+                        getOrOpenStore( type, cursorContext );
+                    }
                 }
+                log.debug( format( "Opened %d stores of %s in %s using %d thread(s)", storeTypes.length, layout.getDatabaseName(),
+                        duration( stopwatch.elapsed().toMillis() ), parallelism ) );
             }
             catch ( RuntimeException initException )
             {
@@ -216,6 +248,67 @@ public class NeoStores implements AutoCloseable
         }
     }
 
+    /**
+     * Opens the stores, and the id generators of them, using multiple threads. Stores opening their dynamic stores will open them,
+     * or wait for them to be opened, in {@link #getOrOpenStore(StoreType, CursorContext)}. The meta data store is opened last,
+     * like when opening them one after the other, since its existence is what marks a store as created.
+     */
+    private void openStoresInParallel( StoreType[] storeTypes, int parallelism )
+    {
+        ExecutorService executor = Executors.newFixedThreadPool( parallelism, new NamedThreadFactory( "StoreOpener-" + layout.getDatabaseName(), true ) );
+        Throwable failure = null;
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            for ( StoreType type : storeTypes )
+            {
+                if ( type != StoreType.META_DATA )
+                {
+                    futures.add( executor.submit( () ->
+                    {
+                        try ( var cursorContext = new CursorContext( pageCacheTracer.createPageCursorTracer( OPEN_ALL_STORES_TAG ) ) )
+                        {
+                            getOrOpenStore( type, cursorContext );
+                        }
+                    } ) );
+                }
+            }
+            for ( Future<?> future : futures )
+            {
+                try
+                {
+                    future.get();
+                }
+                catch ( ExecutionException e )
+                {
+                    failure = Exceptions.chain( failure, e.getCause() );
+                }
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            failure = Exceptions.chain( failure, e );
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        if ( failure != null )
+        {
+            Exceptions.throwIfUnchecked( failure );
+            throw new UnderlyingStorageException( failure );
+        }
+        if ( contains( storeTypes, StoreType.META_DATA ) )
+        {
+            try ( var cursorContext = new CursorContext( pageCacheTracer.createPageCursorTracer( OPEN_ALL_STORES_TAG ) ) )
+            {
+                getOrOpenStore( StoreType.META_DATA, cursorContext );
+            }
+        }
+    }
+
     private boolean isCompatibleFormats( RecordFormats storeFormat )
     {
         return recordFormats.hasCompatibleCapabilities( storeFormat, CapabilityType.FORMAT ) &&
@@ -298,12 +391,16 @@ public class NeoStores implements AutoCloseable
      */
     private CommonAbstractStore getOrOpenStore( StoreType storeType, CursorContext cursorContext )
     {
-        CommonAbstractStore store = stores[storeType.ordinal()];
-        if ( store == null )
+        // Stores may be opened in parallel. Dynamic stores are opened while holding the lock of their owning store, never the other way around
+        synchronized ( storeOpenLocks[storeType.ordinal()] )
         {
-            store = openStore( storeType, cursorContext );
+            CommonAbstractStore store = stores[storeType.ordinal()];
+            if ( store == null )
+            {
+                store = openStore( storeType, cursorContext );
+            }
+            return store;
         }
-        return store;
     }
 
     /**
@@ -395,10 +492,13 @@ public class NeoStores implements AutoCloseable
 
     public void start( Consumer<CommonAbstractStore<?,?>> listener, CursorContext cursorContext ) throws IOException
     {
+        Log log = logProvider.getLog( NeoStores.class );
         visitStores( store ->
         {
+            Stopwatch stopwatch = Stopwatch.start();
             store.start( cursorContext );
             listener.accept( store );
+            log.debug( format( "Started %s in %s", store.getStorageFile().getFileName(), duration( stopwatch.elapsed().toMillis() ) ) );
         } );
     }
 
@@ -21,12 +21,14 @@ package org.neo4j.kernel.impl.store;
 
 import org.eclipse.collections.api.set.ImmutableSet;
 
+import java.io.IOException;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.util.Arrays;
 
 import org.neo4j.configuration.Config;
 import org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker;
+import org.neo4j.exceptions.UnderlyingStorageException;
 import org.neo4j.internal.helpers.Exceptions;
 import org.neo4j.internal.id.IdGeneratorFactory;
 import org.neo4j.internal.recordstorage.RecordIdType;
@@ -34,8 +36,10 @@ import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.kernel.impl.store.format.RecordFormats;
+import org.neo4j.kernel.impl.store.format.compact.CompactNodeRecordFormat;
 import org.neo4j.kernel.impl.store.record.DynamicRecord;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
 import org.neo4j.kernel.impl.store.record.RecordLoad;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.storageengine.api.cursor.StoreCursors;
@@ -127,6 +131,40 @@ public class NodeStore extends CommonAbstractStore<NodeRecord,NoStoreHeader>
         return dynamicLabelStore;
     }
 
+    /**
+     * @return whether the node records of this store keep a copy of the first property record of the node, see {@link CompactNodeRecordFormat}.
+     */
+    public boolean hasInlinedProperties()
+    {
+        return recordFormat instanceof CompactNodeRecordFormat;
+    }
+
+    /**
+     * Keeps the copy of the first property record, that node records of this store carry if {@link #hasInlinedProperties()}, up to date.
+     * Must be called after the node record, or a property record of the node, has been written.
+     *
+     * @param nodeId id of the node.
+     * @param property the property record of the node that was written, or the first property record of the node if the node record was written.
+     * {@code null} if the node has no properties, or was deleted.
+     * @param cursor page cursor for writing to this store.
+     */
+    public void updateInlinedProperty( long nodeId, PropertyRecord property, PageCursor cursor )
+    {
+        try
+        {
+            if ( cursor.next( pageIdForRecord( nodeId ) ) )
+            {
+                cursor.setOffset( offsetForId( nodeId ) );
+                ((CompactNodeRecordFormat) recordFormat).updateInlinedProperty( property, cursor );
+                checkForDecodingErrors( cursor, nodeId, RecordLoad.NORMAL );
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( e );
+        }
+    }
+
     public void updateDynamicLabelRecords( Iterable<DynamicRecord> dynamicLabelRecords, IdUpdateListener idUpdateListener, CursorContext cursorContext,
             StoreCursors storeCursors )
     {
@@ -31,6 +31,7 @@ import java.util.Collection;
 import java.util.List;
 
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker;
 import org.neo4j.internal.helpers.collection.Iterables;
 import org.neo4j.internal.helpers.collection.Pair;
@@ -168,6 +169,8 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
     // this variable here can be removed once the support for older store versions (that do not have these two
     // capabilities) has ceased, the variable can be removed.
     private final boolean allowStorePointsAndTemporal;
+    // String and array values whose dynamic record payload is at least this many bytes are compressed, or 0 if none are
+    private final int dynamicCompressionThreshold;
 
     public PropertyStore(
             Path path,
@@ -191,6 +194,9 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
         this.arrayStore = arrayPropertyStore;
         allowStorePointsAndTemporal = recordFormats.hasCapability( RecordStorageCapability.POINT_PROPERTIES ) &&
                 recordFormats.hasCapability( RecordStorageCapability.TEMPORAL_PROPERTIES );
+        // Readers of formats without this capability don't know about the compressed marker, so never write it to such stores
+        this.dynamicCompressionThreshold = recordFormats.hasCapability( RecordStorageCapability.DYNAMIC_RECORD_COMPRESSION )
+                                           ? configuration.get( GraphDatabaseInternalSettings.dynamic_record_compression_threshold ) : 0;
     }
 
     public DynamicStringStore getStringStore()
@@ -344,18 +350,31 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
     }
 
     private static void allocateArrayRecords( Collection<DynamicRecord> target, Object array, DynamicRecordAllocator allocator, boolean allowStorePoints,
-            CursorContext cursorContext, MemoryTracker memoryTracker )
+            int compressionThreshold, CursorContext cursorContext, MemoryTracker memoryTracker )
     {
-        DynamicArrayStore.allocateRecords( target, array, allocator, allowStorePoints, cursorContext, memoryTracker );
+        DynamicArrayStore.allocateRecords( target, array, allocator, allowStorePoints, compressionThreshold, cursorContext, memoryTracker );
     }
 
     public void encodeValue( PropertyBlock block, int keyId, Value value, CursorContext cursorContext, MemoryTracker memoryTracker )
     {
-        encodeValue( block, keyId, value, stringStore, arrayStore, allowStorePointsAndTemporal, cursorContext, memoryTracker );
+        encodeValue( block, keyId, value, stringStore, arrayStore, allowStorePointsAndTemporal, dynamicCompressionThreshold, cursorContext,
+                memoryTracker );
     }
 
     public static void encodeValue( PropertyBlock block, int keyId, Value value, DynamicRecordAllocator stringAllocator, DynamicRecordAllocator arrayAllocator,
             boolean allowStorePointsAndTemporal, CursorContext cursorContext, MemoryTracker memoryTracker )
+    {
+        encodeValue( block, keyId, value, stringAllocator, arrayAllocator, allowStorePointsAndTemporal, 0, cursorContext, memoryTracker );
+    }
+
+    /**
+     * Encodes a value into a property block, allocating dynamic records for values that don't fit in the block.
+     *
+     * @param compressionThreshold dynamic record payloads of at least this many bytes are compressed, see {@link DynamicRecordCompression}.
+     * 0 means that nothing is compressed.
+     */
+    public static void encodeValue( PropertyBlock block, int keyId, Value value, DynamicRecordAllocator stringAllocator, DynamicRecordAllocator arrayAllocator,
+            boolean allowStorePointsAndTemporal, int compressionThreshold, CursorContext cursorContext, MemoryTracker memoryTracker )
     {
         if ( value instanceof ArrayValue )
         {
@@ -369,7 +388,8 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
 
             // Fall back to dynamic array store
             List<DynamicRecord> arrayRecords = newArrayList( memoryTracker );
-            allocateArrayRecords( arrayRecords, asObject, arrayAllocator, allowStorePointsAndTemporal, cursorContext, memoryTracker );
+            allocateArrayRecords( arrayRecords, asObject, arrayAllocator, allowStorePointsAndTemporal, compressionThreshold, cursorContext,
+                    memoryTracker );
             setSingleBlockValue( block, keyId, PropertyType.ARRAY, Iterables.first( arrayRecords ).getId() );
             for ( DynamicRecord valueRecord : arrayRecords )
             {
@@ -379,7 +399,8 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
         }
         else
         {
-            value.writeTo( new PropertyBlockValueWriter( block, keyId, stringAllocator, allowStorePointsAndTemporal, cursorContext, memoryTracker ) );
+            value.writeTo( new PropertyBlockValueWriter( block, keyId, stringAllocator, allowStorePointsAndTemporal, compressionThreshold, cursorContext,
+                    memoryTracker ) );
         }
     }
 
@@ -441,6 +462,17 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
             }
         }
         while ( reference != NO_ID );
+
+        if ( DynamicRecordCompression.isCompressed( buffer.array(), buffer.position() ) )
+        {
+            byte[] payload = DynamicRecordCompression.decompress( buffer.array(), buffer.position() );
+            buffer.clear();
+            if ( buffer.capacity() < payload.length )
+            {
+                buffer = propertyCursor.growBuffer( payload.length );
+            }
+            buffer.put( payload );
+        }
     }
 
     private static class PropertyBlockValueWriter extends TemporalValueWriterAdapter<IllegalArgumentException>
@@ -449,16 +481,18 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
         private final int keyId;
         private final DynamicRecordAllocator stringAllocator;
         private final boolean allowStorePointsAndTemporal;
+        private final int compressionThreshold;
         private final CursorContext cursorContext;
         private final MemoryTracker memoryTracker;
 
         PropertyBlockValueWriter( PropertyBlock block, int keyId, DynamicRecordAllocator stringAllocator, boolean allowStorePointsAndTemporal,
-                CursorContext cursorContext, MemoryTracker memoryTracker )
+                int compressionThreshold, CursorContext cursorContext, MemoryTracker memoryTracker )
         {
             this.block = block;
             this.keyId = keyId;
             this.stringAllocator = stringAllocator;
             this.allowStorePointsAndTemporal = allowStorePointsAndTemporal;
+            this.compressionThreshold = compressionThreshold;
             this.cursorContext = cursorContext;
             this.memoryTracker = memoryTracker;
         }
@@ -534,7 +568,7 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
             }
 
             // Fall back to dynamic string store
-            byte[] encodedString = encodeString( value );
+            byte[] encodedString = DynamicRecordCompression.compress( encodeString( value ), compressionThreshold );
             List<DynamicRecord> valueRecords = newArrayList( encodedString.length / stringAllocator.getRecordDataSize() + 1, memoryTracker );
             allocateStringRecords( valueRecords, encodedString, stringAllocator, cursorContext, memoryTracker );
             setSingleBlockValue( block, keyId, PropertyType.STRING, Iterables.first( valueRecords ).getId() );
@@ -736,6 +770,14 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
         return allowStorePointsAndTemporal;
     }
 
+    /**
+     * @return the size in bytes from which string and array values stored in dynamic records get compressed, or 0 if they don't.
+     */
+    public int dynamicCompressionThreshold()
+    {
+        return dynamicCompressionThreshold;
+    }
+
     /**
      * @return a calculator of property value sizes. The returned instance is designed to be used multiple times by a single thread only.
      */
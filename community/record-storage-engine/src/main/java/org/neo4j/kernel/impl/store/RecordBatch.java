@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store;
+
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.impl.store.record.AbstractBaseRecord;
+
+/**
+ * Receives the records that are in use on a page, read by {@link CommonAbstractStore#readRecordsOfPage(long, long, AbstractBaseRecord, RecordBatch,
+ * PageCursor)}. Implementations typically copy the fields they need into primitive arrays, since the given record instance is reused for every record.
+ *
+ * @param <RECORD> type of record.
+ */
+public interface RecordBatch<RECORD extends AbstractBaseRecord>
+{
+    /**
+     * Called before the records of the page are read, and again if the page needs to be read again because of a concurrent write to it.
+     */
+    void clear();
+
+    /**
+     * @param record a record that is in use. The instance is reused and must not be kept.
+     */
+    void add( RECORD record );
+}
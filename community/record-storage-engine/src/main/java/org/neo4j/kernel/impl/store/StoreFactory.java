@@ -142,8 +142,8 @@ public class StoreFactory
 
     private static ImmutableSet<OpenOption> buildOpenOptions( Config config, RecordFormats recordFormats, ImmutableSet<OpenOption> openOptions )
     {
-        // we need to modify options only for aligned format and avoid passing direct io option in all other cases
-        if ( recordFormats.getFormatFamily() != FormatFamily.aligned )
+        // we need to modify options only for page aligned formats and avoid passing direct io option in all other cases
+        if ( recordFormats.getFormatFamily() != FormatFamily.aligned && recordFormats.getFormatFamily() != FormatFamily.compact )
         {
             return openOptions;
         }
@@ -30,6 +30,7 @@ public enum FormatFamily
 {
     standard( 0 ),
     aligned( 1 ),
+    compact( 1 ),
     high_limit( 2 );
 
     private final int rank;
@@ -39,6 +39,7 @@ import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.impl.store.MetaDataStore;
 import org.neo4j.kernel.impl.store.format.aligned.PageAlignedV4_1;
 import org.neo4j.kernel.impl.store.format.aligned.PageAlignedV4_3;
+import org.neo4j.kernel.impl.store.format.compact.CompactV4_4;
 import org.neo4j.kernel.impl.store.format.standard.MetaDataRecordFormat;
 import org.neo4j.kernel.impl.store.format.standard.Standard;
 import org.neo4j.kernel.impl.store.format.standard.StandardV3_4;
@@ -72,7 +73,8 @@ public class RecordFormatSelector
             StandardV4_0.RECORD_FORMATS,
             StandardV4_3.RECORD_FORMATS,
             PageAlignedV4_1.RECORD_FORMATS,
-            PageAlignedV4_3.RECORD_FORMATS
+            PageAlignedV4_3.RECORD_FORMATS,
+            CompactV4_4.RECORD_FORMATS
     );
 
     private RecordFormatSelector()
@@ -84,7 +84,17 @@ public enum RecordStorageCapability implements Capability
     /**
      * Degrees for dense nodes can be stored in a group degrees store which has support for atomic non-blocking updates.
      */
-    GROUP_DEGREES_STORE( true, CapabilityType.STORE );
+    GROUP_DEGREES_STORE( true, CapabilityType.STORE ),
+
+    /**
+     * Node records carry a copy of the first property record of the node, so that reading a node and its first properties is one page access.
+     */
+    INLINED_NODE_PROPERTIES( CapabilityType.FORMAT, CapabilityType.STORE ),
+
+    /**
+     * String and array payloads of dynamic records may be compressed, see {@link org.neo4j.kernel.impl.store.DynamicRecordCompression}.
+     */
+    DYNAMIC_RECORD_COMPRESSION( CapabilityType.FORMAT, CapabilityType.STORE );
 
     private final CapabilityType[] types;
     private final boolean additive;
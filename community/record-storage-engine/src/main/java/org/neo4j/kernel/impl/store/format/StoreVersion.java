@@ -31,6 +31,8 @@ public enum StoreVersion
     ALIGNED_V4_1( "AF4.1.a", "4.1.0" ),
     ALIGNED_V4_3( "AF4.3.0", "4.3.0" ),
 
+    COMPACT_V4_4( "CF4.4.0", "4.4.0" ),
+
     HIGH_LIMIT_V3_0_0( "vE.H.0", "3.0.0" ),
     HIGH_LIMIT_V3_0_6( "vE.H.0b", "3.0.6" ),
     HIGH_LIMIT_V3_1_0( "vE.H.2", "3.1.0" ),
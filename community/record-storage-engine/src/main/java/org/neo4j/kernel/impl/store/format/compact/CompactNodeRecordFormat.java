@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.format.compact;
+
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.format.standard.NodeRecordFormat;
+import org.neo4j.kernel.impl.store.format.standard.PropertyRecordFormat;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.RecordLoad;
+
+/**
+ * Node record of the {@link CompactV4_4} format. It is a standard node record followed by a copy of the first property record of the node,
+ * so that a node and its first few properties are read with a single page access.
+ * <p>
+ * The property store is still where properties live. The copy is only kept up to date by
+ * {@link NodeStore#updateInlinedProperty(long, PropertyRecord, PageCursor)} when transactions are applied, it's never written by
+ * {@link #write(NodeRecord, PageCursor, int, int)}, and readers only use it while it is a copy of the record that the node points to.
+ */
+public class CompactNodeRecordFormat extends NodeRecordFormat
+{
+    // node(15)+inlined property header(byte)+inlined property id(5)+property(41)+padding(2)
+    public static final int RECORD_SIZE = 64;
+
+    private static final int INLINED_PROPERTY_OFFSET = NodeRecordFormat.RECORD_SIZE;
+    private static final byte NO_INLINED_PROPERTY = 0;
+    private static final byte INLINED_PROPERTY = 1;
+
+    private final PropertyRecordFormat propertyFormat = new PropertyRecordFormat();
+
+    public CompactNodeRecordFormat()
+    {
+        super( RECORD_SIZE, true );
+    }
+
+    @Override
+    public void read( NodeRecord record, PageCursor cursor, RecordLoad mode, int recordSize, int recordsPerPage )
+    {
+        int recordOffset = cursor.getOffset();
+        record.setHasInlinedProperty( false );
+        super.read( record, cursor, mode, recordSize, recordsPerPage );
+        if ( mode.shouldLoad( record.inUse() ) && cursor.getByte( recordOffset + INLINED_PROPERTY_OFFSET ) == INLINED_PROPERTY )
+        {
+            cursor.setOffset( recordOffset + INLINED_PROPERTY_OFFSET + 1 );
+            PropertyRecord property = record.inlinedPropertyForLoading();
+            property.setId( readPropertyId( cursor ) );
+            propertyFormat.read( property, cursor, RecordLoad.FORCE, PropertyRecordFormat.RECORD_SIZE, recordsPerPage );
+            record.setHasInlinedProperty( property.inUse() );
+        }
+        cursor.setOffset( recordOffset + recordSize );
+    }
+
+    /**
+     * Keeps the copy of the first property record in the node record at the cursor offset up to date with a property record of that node,
+     * which was just written to the property store. The copy is replaced if {@code property} is the first record of the node, and removed if
+     * {@code property} was copied, but isn't the first record anymore.
+     *
+     * @param property a property record of the node, or {@code null} if the node has no properties.
+     * @param cursor page cursor placed at the offset of the node record.
+     */
+    public void updateInlinedProperty( PropertyRecord property, PageCursor cursor )
+    {
+        int recordOffset = cursor.getOffset();
+        NodeRecord node = newRecord();
+        super.read( node, cursor, RecordLoad.FORCE, RECORD_SIZE, 0 );
+        cursor.setOffset( recordOffset + INLINED_PROPERTY_OFFSET );
+        if ( property != null && property.inUse() && node.inUse() && node.getNextProp() == property.getId() )
+        {
+            cursor.putByte( INLINED_PROPERTY );
+            cursor.putInt( (int) property.getId() );
+            cursor.putByte( (byte) (property.getId() >>> Integer.SIZE) );
+            propertyFormat.write( property, cursor, PropertyRecordFormat.RECORD_SIZE, 0 );
+        }
+        else if ( cursor.getByte() == INLINED_PROPERTY && (property == null || readPropertyId( cursor ) == property.getId()) )
+        {
+            cursor.putByte( recordOffset + INLINED_PROPERTY_OFFSET, NO_INLINED_PROPERTY );
+        }
+    }
+
+    private static long readPropertyId( PageCursor cursor )
+    {
+        long low = cursor.getInt() & 0xFFFFFFFFL;
+        long high = cursor.getByte() & 0xFFL;
+        return low | (high << Integer.SIZE);
+    }
+}
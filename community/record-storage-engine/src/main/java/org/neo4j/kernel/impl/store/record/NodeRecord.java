@@ -36,6 +36,9 @@ public class NodeRecord extends PrimitiveRecord
     private List<DynamicRecord> dynamicLabelRecords;
     private boolean isLight;
     private boolean dense;
+    // Copy of the first property record of this node, only loaded by formats that keep one in the node record
+    private PropertyRecord inlinedProperty;
+    private boolean hasInlinedProperty;
 
     public NodeRecord( long id )
     {
@@ -71,6 +74,7 @@ public class NodeRecord extends PrimitiveRecord
         this.labels = labels;
         this.dynamicLabelRecords = emptyList();
         this.isLight = true;
+        this.hasInlinedProperty = false;
         return this;
     }
 
@@ -139,6 +143,36 @@ public class NodeRecord extends PrimitiveRecord
         this.dense = dense;
     }
 
+    /**
+     * @return the record to load the copy of the first property record of this node into, for record formats that keep such a copy in the node record.
+     * Loading it is completed with {@link #setHasInlinedProperty(boolean)}.
+     */
+    public PropertyRecord inlinedPropertyForLoading()
+    {
+        if ( inlinedProperty == null )
+        {
+            inlinedProperty = new PropertyRecord( -1 );
+        }
+        return inlinedProperty;
+    }
+
+    public void setHasInlinedProperty( boolean hasInlinedProperty )
+    {
+        this.hasInlinedProperty = hasInlinedProperty;
+    }
+
+    /**
+     * The copy isn't part of the node data, i.e. it's not copied, compared or written with the node record, it's only a way for
+     * reads to avoid a page access in the property store.
+     *
+     * @return the copy of the first property record of this node loaded together with the node, or {@code null} if none was loaded,
+     * or if it isn't a copy of the record that {@link #getNextProp()} points to.
+     */
+    public PropertyRecord getInlinedProperty()
+    {
+        return hasInlinedProperty && inlinedProperty.getId() == getNextProp() ? inlinedProperty : null;
+    }
+
     @Override
     public String toString()
     {
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.counts;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.neo4j.internal.counts.GBPTreeNodeDegreesStore.NodeDegreesRebuilder;
+import org.neo4j.internal.counts.NodeDegreesStore.Updater;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.storageengine.api.cursor.StoreCursors;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.pagecache.PageCacheExtension;
+import org.neo4j.test.utils.TestDirectory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
+import static org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker.writable;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.internal.counts.GBPTreeCountsStore.NO_MONITOR;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+import static org.neo4j.storageengine.api.RelationshipDirection.INCOMING;
+import static org.neo4j.storageengine.api.RelationshipDirection.LOOP;
+import static org.neo4j.storageengine.api.RelationshipDirection.OUTGOING;
+import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_ID;
+
+@PageCacheExtension
+class GBPTreeNodeDegreesStoreTest
+{
+    private static final long NODE_1 = 1;
+    private static final long NODE_2 = 2;
+    private static final int TYPE_1 = 0;
+    private static final int TYPE_2 = 1;
+
+    @Inject
+    private TestDirectory directory;
+
+    @Inject
+    private PageCache pageCache;
+
+    @Inject
+    private FileSystemAbstraction fs;
+
+    private GBPTreeNodeDegreesStore degreesStore;
+
+    @BeforeEach
+    void openDegreesStore() throws Exception
+    {
+        openDegreesStore( rebuilder( BASE_TX_ID ) );
+    }
+
+    @AfterEach
+    void closeDegreesStore()
+    {
+        degreesStore.close();
+    }
+
+    @Test
+    void shouldUpdateAndReadDegreesPerNodeTypeAndDirection() throws IOException
+    {
+        // given
+        long txId = BASE_TX_ID;
+        try ( Updater updater = degreesStore.apply( ++txId, NULL ) )
+        {
+            updater.increment( NODE_1, TYPE_1, OUTGOING, 3 );
+            updater.increment( NODE_1, TYPE_2, OUTGOING, 4 );
+            updater.increment( NODE_1, TYPE_1, LOOP, 1 );
+            updater.increment( NODE_2, TYPE_1, INCOMING, 3 );
+        }
+        try ( Updater updater = degreesStore.apply( ++txId, NULL ) )
+        {
+            updater.increment( NODE_1, TYPE_1, OUTGOING, -1 );
+            updater.increment( NODE_2, TYPE_1, INCOMING, -1 );
+        }
+
+        // when
+        degreesStore.checkpoint( NULL );
+
+        // then
+        assertEquals( 2, degreesStore.degree( NODE_1, TYPE_1, OUTGOING, NULL ) );
+        assertEquals( 4, degreesStore.degree( NODE_1, TYPE_2, OUTGOING, NULL ) );
+        assertEquals( 1, degreesStore.degree( NODE_1, TYPE_1, LOOP, NULL ) );
+        assertEquals( 0, degreesStore.degree( NODE_1, TYPE_1, INCOMING, NULL ) );
+        assertEquals( 2, degreesStore.degree( NODE_2, TYPE_1, INCOMING, NULL ) );
+        assertEquals( 0, degreesStore.degree( NODE_2, TYPE_2, INCOMING, NULL ) );
+    }
+
+    @Test
+    void shouldRebuildWhenMissingAndIgnoreAlreadyRebuiltTransactions() throws Exception
+    {
+        // given
+        long rebuiltAtTransactionId = 5;
+        closeDegreesStore();
+        fs.deleteFile( degreesStoreFile() );
+
+        // when
+        openDegreesStore( new NodeDegreesRebuilder()
+        {
+            @Override
+            public void rebuild( Updater updater, CursorContext cursorContext, MemoryTracker memoryTracker )
+            {
+                updater.increment( NODE_1, TYPE_1, OUTGOING, 10 );
+                updater.increment( NODE_2, TYPE_2, INCOMING, 7 );
+            }
+
+            @Override
+            public long lastCommittedTxId()
+            {
+                return rebuiltAtTransactionId;
+            }
+        } );
+        degreesStore.checkpoint( NULL );
+        closeDegreesStore();
+        openDegreesStore( rebuilder( rebuiltAtTransactionId ) );
+        // Re-applying a txId below or equal to the "rebuild transaction id" should not apply it
+        try ( Updater updater = degreesStore.apply( rebuiltAtTransactionId, NULL ) )
+        {
+            updater.increment( NODE_1, TYPE_1, OUTGOING, 100 );
+        }
+        try ( Updater updater = degreesStore.apply( rebuiltAtTransactionId + 1, NULL ) )
+        {
+            updater.increment( NODE_1, TYPE_1, OUTGOING, 1 );
+        }
+
+        // then
+        assertEquals( 11, degreesStore.degree( NODE_1, TYPE_1, OUTGOING, NULL ) );
+        assertEquals( 7, degreesStore.degree( NODE_2, TYPE_2, INCOMING, NULL ) );
+    }
+
+    private Path degreesStoreFile()
+    {
+        return directory.file( "degrees.db" );
+    }
+
+    private void openDegreesStore( NodeDegreesRebuilder rebuilder ) throws IOException
+    {
+        degreesStore = new GBPTreeNodeDegreesStore( pageCache, degreesStoreFile(), fs, immediate(), rebuilder, writable(), PageCacheTracer.NULL,
+                NO_MONITOR, DEFAULT_DATABASE_NAME, 10, NullLogProvider.getInstance() );
+        degreesStore.start( NULL, StoreCursors.NULL, INSTANCE );
+    }
+
+    private static NodeDegreesRebuilder rebuilder( long lastCommittedTxId )
+    {
+        return new NodeDegreesRebuilder()
+        {
+            @Override
+            public void rebuild( Updater updater, CursorContext cursorContext, MemoryTracker memoryTracker )
+            {
+            }
+
+            @Override
+            public long lastCommittedTxId()
+            {
+                return lastCommittedTxId;
+            }
+        };
+    }
+}
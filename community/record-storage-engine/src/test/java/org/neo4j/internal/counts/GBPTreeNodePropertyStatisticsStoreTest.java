@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.counts;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.neo4j.internal.counts.GBPTreeNodePropertyStatisticsStore.NodePropertyStatisticsRebuilder;
+import org.neo4j.internal.counts.NodePropertyStatisticsStore.Updater;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.storageengine.api.cursor.StoreCursors;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.pagecache.PageCacheExtension;
+import org.neo4j.test.utils.TestDirectory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
+import static org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker.writable;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.internal.counts.GBPTreeCountsStore.NO_MONITOR;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_ID;
+
+@PageCacheExtension
+class GBPTreeNodePropertyStatisticsStoreTest
+{
+    private static final int LABEL_1 = 1;
+    private static final int LABEL_2 = 2;
+    private static final int KEY_1 = 0;
+    private static final int KEY_2 = 1;
+
+    @Inject
+    private TestDirectory directory;
+
+    @Inject
+    private PageCache pageCache;
+
+    @Inject
+    private FileSystemAbstraction fs;
+
+    private GBPTreeNodePropertyStatisticsStore statisticsStore;
+
+    @BeforeEach
+    void openStatisticsStore() throws Exception
+    {
+        openStatisticsStore( rebuilder( BASE_TX_ID ) );
+    }
+
+    @AfterEach
+    void closeStatisticsStore()
+    {
+        statisticsStore.close();
+    }
+
+    @Test
+    void shouldUpdateAndReadStatisticsPerLabelAndPropertyKey() throws IOException
+    {
+        // given
+        long txId = BASE_TX_ID;
+        try ( Updater updater = statisticsStore.apply( ++txId, NULL ) )
+        {
+            updater.incrementNodesWithProperty( LABEL_1, KEY_1, 3 );
+            updater.incrementNodesWithValueInBucket( LABEL_1, KEY_1, NumericValueBuckets.bucket( 10 ), 2 );
+            updater.incrementNodesWithValueInBucket( LABEL_1, KEY_1, NumericValueBuckets.bucket( -10 ), 1 );
+            updater.incrementNodesWithProperty( LABEL_2, KEY_2, 5 );
+        }
+        try ( Updater updater = statisticsStore.apply( ++txId, NULL ) )
+        {
+            updater.incrementNodesWithProperty( LABEL_2, KEY_2, -1 );
+        }
+
+        // when
+        statisticsStore.checkpoint( NULL );
+
+        // then
+        assertEquals( 3, statisticsStore.nodesWithProperty( LABEL_1, KEY_1, NULL ) );
+        assertEquals( 0, statisticsStore.nodesWithProperty( LABEL_1, KEY_2, NULL ) );
+        assertEquals( 0, statisticsStore.nodesWithProperty( LABEL_2, KEY_1, NULL ) );
+        assertEquals( 4, statisticsStore.nodesWithProperty( LABEL_2, KEY_2, NULL ) );
+        assertEquals( 2, statisticsStore.nodesWithValueInBucket( LABEL_1, KEY_1, NumericValueBuckets.bucket( 9 ), NULL ) );
+        assertEquals( 1, statisticsStore.nodesWithValueInBucket( LABEL_1, KEY_1, NumericValueBuckets.bucket( -15 ), NULL ) );
+        assertEquals( 0, statisticsStore.nodesWithValueInBucket( LABEL_1, KEY_1, NumericValueBuckets.bucket( 0.5 ), NULL ) );
+        // All of the bucket [8,16) and nothing of the bucket [-16,-8)
+        assertThat( statisticsStore.estimateNodesWithValueInRange( LABEL_1, KEY_1, 0, 100, NULL ) ).isCloseTo( 2, within( 0.001 ) );
+        // Half of the bucket [8,16)
+        assertThat( statisticsStore.estimateNodesWithValueInRange( LABEL_1, KEY_1, 12, 16, NULL ) ).isCloseTo( 1, within( 0.001 ) );
+        assertThat( statisticsStore.estimateNodesWithValueInRange( LABEL_1, KEY_1, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, NULL ) )
+                .isCloseTo( 3, within( 0.001 ) );
+    }
+
+    @Test
+    void shouldReplaceAllStatisticsWhenRebuilding() throws Exception
+    {
+        // given
+        long txId = BASE_TX_ID;
+        try ( Updater updater = statisticsStore.apply( ++txId, NULL ) )
+        {
+            updater.incrementNodesWithProperty( LABEL_1, KEY_1, 3 );
+            updater.incrementNodesWithProperty( LABEL_2, KEY_2, 5 );
+        }
+        statisticsStore.checkpoint( NULL );
+        closeStatisticsStore();
+
+        // when transactions were committed, e.g. recovered, without being applied to the statistics
+        long rebuiltAtTransactionId = txId + 2;
+        openStatisticsStore( new NodePropertyStatisticsRebuilder()
+        {
+            @Override
+            public void rebuild( Updater updater, CursorContext cursorContext, MemoryTracker memoryTracker )
+            {
+                // Increments are summed up before written
+                updater.incrementNodesWithProperty( LABEL_1, KEY_1, 1 );
+                updater.incrementNodesWithProperty( LABEL_1, KEY_1, 1 );
+                updater.incrementNodesWithValueInBucket( LABEL_1, KEY_1, NumericValueBuckets.bucket( 3 ), 1 );
+            }
+
+            @Override
+            public long lastCommittedTxId()
+            {
+                return rebuiltAtTransactionId;
+            }
+        } );
+
+        // then
+        assertEquals( 2, statisticsStore.nodesWithProperty( LABEL_1, KEY_1, NULL ) );
+        assertEquals( 1, statisticsStore.nodesWithValueInBucket( LABEL_1, KEY_1, NumericValueBuckets.bucket( 3 ), NULL ) );
+        assertEquals( 0, statisticsStore.nodesWithProperty( LABEL_2, KEY_2, NULL ) );
+    }
+
+    @Test
+    void shouldPutValuesInBucketsOrderedByValue()
+    {
+        double[] values = {Double.NEGATIVE_INFINITY, -Double.MAX_VALUE, -1e30, -1000, -2, -1, -0.5, 0, 0.5, 1, 1.5, 2, 1000, 1e30, Double.MAX_VALUE,
+                Double.POSITIVE_INFINITY};
+        int previousBucket = 0;
+        for ( double value : values )
+        {
+            int bucket = NumericValueBuckets.bucket( value );
+            assertThat( bucket ).isBetween( previousBucket, NumericValueBuckets.NUMBER_OF_BUCKETS - 1 );
+            assertThat( value ).isBetween( NumericValueBuckets.lowerBound( bucket ), NumericValueBuckets.upperBound( bucket ) );
+            previousBucket = bucket;
+        }
+        assertEquals( NumericValueBuckets.NO_BUCKET, NumericValueBuckets.bucket( Double.NaN ) );
+    }
+
+    private Path statisticsStoreFile()
+    {
+        return directory.file( "statistics.db" );
+    }
+
+    private void openStatisticsStore( NodePropertyStatisticsRebuilder rebuilder ) throws IOException
+    {
+        statisticsStore = new GBPTreeNodePropertyStatisticsStore( pageCache, statisticsStoreFile(), fs, immediate(), rebuilder, writable(),
+                PageCacheTracer.NULL, NO_MONITOR, DEFAULT_DATABASE_NAME, 10, NullLogProvider.getInstance() );
+        statisticsStore.start( NULL, StoreCursors.NULL, INSTANCE );
+    }
+
+    private static NodePropertyStatisticsRebuilder rebuilder( long lastCommittedTxId )
+    {
+        return new NodePropertyStatisticsRebuilder()
+        {
+            @Override
+            public void rebuild( Updater updater, CursorContext cursorContext, MemoryTracker memoryTracker )
+            {
+            }
+
+            @Override
+            public long lastCommittedTxId()
+            {
+                return lastCommittedTxId;
+            }
+        };
+    }
+}
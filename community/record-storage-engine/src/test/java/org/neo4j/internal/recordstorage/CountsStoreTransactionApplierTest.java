@@ -23,15 +23,21 @@ import org.junit.jupiter.api.Test;
 
 import org.neo4j.counts.CountsAccessor;
 import org.neo4j.counts.CountsStore;
+import org.neo4j.internal.counts.NodeDegreesStore;
 import org.neo4j.internal.counts.RelationshipGroupDegreesStore;
 import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.storageengine.api.cursor.StoreCursors;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.neo4j.storageengine.api.RelationshipDirection.INCOMING;
+import static org.neo4j.storageengine.api.RelationshipDirection.LOOP;
+import static org.neo4j.storageengine.api.RelationshipDirection.OUTGOING;
 import static org.neo4j.token.api.TokenConstants.ANY_LABEL;
 
 class CountsStoreTransactionApplierTest
@@ -56,4 +62,46 @@ class CountsStoreTransactionApplierTest
         // THEN
         verify( updater ).incrementNodeCount( ANY_LABEL, 1 );
     }
+
+    @Test
+    void shouldUpdateNodeDegreesOnCreatedAndDeletedRelationships() throws Exception
+    {
+        // GIVEN
+        final CountsStore counts = mock( CountsStore.class );
+        when( counts.apply( anyLong(), any( CursorContext.class ) ) ).thenReturn( mock( CountsAccessor.Updater.class ) );
+        final RelationshipGroupDegreesStore groupDegreesStore = mock( RelationshipGroupDegreesStore.class );
+        when( groupDegreesStore.apply( anyLong(), any( CursorContext.class ) ) ).thenReturn( mock( RelationshipGroupDegreesStore.Updater.class ) );
+        final NodeDegreesStore nodeDegreesStore = mock( NodeDegreesStore.class );
+        final NodeDegreesStore.Updater updater = mock( NodeDegreesStore.Updater.class );
+        when( nodeDegreesStore.apply( anyLong(), any( CursorContext.class ) ) ).thenReturn( updater );
+        final CountsStoreTransactionApplierFactory applier = new CountsStoreTransactionApplierFactory( counts, groupDegreesStore, nodeDegreesStore );
+        RelationshipRecord created = relationship( 1, 10, 11, 3 );
+        RelationshipRecord deleted = relationship( 2, 12, 12, 4 );
+        RelationshipRecord changed = relationship( 3, 10, 12, 3 );
+
+        // WHEN
+        try ( TransactionApplier txApplier = applier.startTx( new GroupOfCommands( 2L, StoreCursors.NULL ), mock( BatchContext.class ) ) )
+        {
+            txApplier.visitRelationshipCommand( new Command.RelationshipCommand( new RelationshipRecord( created.getId() ), created ) );
+            RelationshipRecord afterDeletion = deleted.copy();
+            afterDeletion.setInUse( false );
+            txApplier.visitRelationshipCommand( new Command.RelationshipCommand( deleted, afterDeletion ) );
+            txApplier.visitRelationshipCommand( new Command.RelationshipCommand( changed, changed.copy() ) );
+        }
+
+        // THEN
+        verify( updater ).increment( 10, 3, OUTGOING, 1 );
+        verify( updater ).increment( 11, 3, INCOMING, 1 );
+        verify( updater ).increment( 12, 4, LOOP, -1 );
+        verify( updater ).close();
+        verifyNoMoreInteractions( updater );
+    }
+
+    private static RelationshipRecord relationship( long id, long firstNode, long secondNode, int type )
+    {
+        RelationshipRecord record = new RelationshipRecord( id );
+        record.setInUse( true );
+        record.setLinks( firstNode, secondNode, type );
+        return record;
+    }
 }
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.eclipse.collections.api.factory.Sets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.internal.id.DefaultIdGeneratorFactory;
+import org.neo4j.internal.recordstorage.Command.NodeCommand;
+import org.neo4j.internal.recordstorage.Command.PropertyCommand;
+import org.neo4j.io.fs.EphemeralFileSystemAbstraction;
+import org.neo4j.io.layout.recordstorage.RecordDatabaseLayout;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.store.cursor.CachedStoreCursors;
+import org.neo4j.kernel.impl.store.format.compact.CompactV4_4;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.Record;
+import org.neo4j.lock.LockService;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.test.extension.EphemeralNeo4jLayoutExtension;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.pagecache.EphemeralPageCacheExtension;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker.writable;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.io.IOUtils.closeAllUnchecked;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+import static org.neo4j.storageengine.api.PropertySelection.ALL_PROPERTIES;
+import static org.neo4j.storageengine.api.TransactionApplicationMode.INTERNAL;
+
+/**
+ * Applies node and property commands to a store in the {@link CompactV4_4 compact} format and verifies that the copy of each node's first
+ * property record kept in the node record follows the property record it mirrors.
+ */
+@EphemeralPageCacheExtension
+@EphemeralNeo4jLayoutExtension
+class InlinedNodePropertyApplierTest
+{
+    private static final int KEY = 0;
+
+    @Inject
+    private PageCache pageCache;
+    @Inject
+    private RecordDatabaseLayout databaseLayout;
+    @Inject
+    private EphemeralFileSystemAbstraction fs;
+
+    private NeoStores neoStores;
+    private CachedStoreCursors storeCursors;
+    private long transactionId;
+
+    @BeforeEach
+    void before()
+    {
+        DefaultIdGeneratorFactory idGeneratorFactory = new DefaultIdGeneratorFactory( fs, immediate(), databaseLayout.getDatabaseName() );
+        neoStores = new StoreFactory( databaseLayout, Config.defaults(), idGeneratorFactory, pageCache, fs, CompactV4_4.RECORD_FORMATS,
+                NullLogProvider.getInstance(), PageCacheTracer.NULL, writable(), Sets.immutable.empty() ).openAllNeoStores( true );
+        storeCursors = new CachedStoreCursors( neoStores, NULL );
+    }
+
+    @AfterEach
+    void after()
+    {
+        closeAllUnchecked( storeCursors, neoStores );
+    }
+
+    @Test
+    void shouldInlineFirstPropertyRecordOfCreatedNode() throws Exception
+    {
+        // given
+        long nodeId = neoStores.getNodeStore().nextId( NULL );
+        long propertyId = neoStores.getPropertyStore().nextId( NULL );
+
+        // when
+        apply( new PropertyCommand( new PropertyRecord( propertyId ), propertyRecord( propertyId, nodeId, Values.intValue( 10 ) ) ),
+                new NodeCommand( new NodeRecord( nodeId ), nodeRecord( nodeId, propertyId ) ) );
+
+        // then
+        assertNodeProperty( nodeId, true, Values.intValue( 10 ) );
+    }
+
+    @Test
+    void shouldFollowChangedFirstPropertyRecord() throws Exception
+    {
+        // given
+        long nodeId = neoStores.getNodeStore().nextId( NULL );
+        long propertyId = neoStores.getPropertyStore().nextId( NULL );
+        PropertyRecord before = propertyRecord( propertyId, nodeId, Values.intValue( 10 ) );
+        apply( new PropertyCommand( new PropertyRecord( propertyId ), before ), new NodeCommand( new NodeRecord( nodeId ), nodeRecord( nodeId, propertyId ) ) );
+
+        // when
+        apply( new PropertyCommand( before, propertyRecord( propertyId, nodeId, Values.intValue( 20 ) ) ) );
+
+        // then
+        assertNodeProperty( nodeId, true, Values.intValue( 20 ) );
+    }
+
+    @Test
+    void shouldDropCopyWhenFirstPropertyRecordIsDeleted() throws Exception
+    {
+        // given
+        long nodeId = neoStores.getNodeStore().nextId( NULL );
+        long propertyId = neoStores.getPropertyStore().nextId( NULL );
+        PropertyRecord property = propertyRecord( propertyId, nodeId, Values.intValue( 10 ) );
+        NodeRecord node = nodeRecord( nodeId, propertyId );
+        apply( new PropertyCommand( new PropertyRecord( propertyId ), property ), new NodeCommand( new NodeRecord( nodeId ), node ) );
+
+        // when
+        PropertyRecord deletedProperty = new PropertyRecord( propertyId );
+        deletedProperty.setNodeId( nodeId );
+        apply( new NodeCommand( node, nodeRecord( nodeId, Record.NO_NEXT_PROPERTY.longValue() ) ), new PropertyCommand( property, deletedProperty ) );
+
+        // then
+        assertNodeProperty( nodeId, false );
+    }
+
+    @Test
+    void shouldMoveCopyWhenPropertyRecordIsPrependedToChain() throws Exception
+    {
+        // given
+        long nodeId = neoStores.getNodeStore().nextId( NULL );
+        long secondId = neoStores.getPropertyStore().nextId( NULL );
+        PropertyRecord second = propertyRecord( secondId, nodeId, Values.intValue( 10 ) );
+        NodeRecord node = nodeRecord( nodeId, secondId );
+        apply( new PropertyCommand( new PropertyRecord( secondId ), second ), new NodeCommand( new NodeRecord( nodeId ), node ) );
+
+        // when
+        long firstId = neoStores.getPropertyStore().nextId( NULL );
+        PropertyRecord first = propertyRecord( firstId, nodeId, Values.intValue( 20 ) );
+        first.setNextProp( secondId );
+        PropertyRecord secondAfter = propertyRecord( secondId, nodeId, Values.intValue( 10 ) );
+        secondAfter.setPrevProp( firstId );
+        apply( new PropertyCommand( new PropertyRecord( firstId ), first ), new PropertyCommand( second, secondAfter ),
+                new NodeCommand( node, nodeRecord( nodeId, firstId ) ) );
+
+        // then both values are visible, the first record from the copy and the second from the store
+        try ( RecordNodeCursor nodeCursor = nodeCursor();
+              RecordPropertyCursor propertyCursor = new RecordPropertyCursor( neoStores.getPropertyStore(), NULL, INSTANCE ) )
+        {
+            nodeCursor.single( nodeId );
+            assertThat( nodeCursor.next() ).isTrue();
+            assertThat( nodeCursor.getInlinedProperty() ).isNotNull();
+            assertThat( nodeCursor.getInlinedProperty().getId() ).isEqualTo( firstId );
+            propertyCursor.initNodeProperties( nodeCursor, ALL_PROPERTIES );
+            assertThat( propertyCursor.next() ).isTrue();
+            assertThat( propertyCursor.propertyValue() ).isEqualTo( Values.intValue( 20 ) );
+            assertThat( propertyCursor.next() ).isTrue();
+            assertThat( propertyCursor.propertyValue() ).isEqualTo( Values.intValue( 10 ) );
+            assertThat( propertyCursor.next() ).isFalse();
+        }
+    }
+
+    private void assertNodeProperty( long nodeId, boolean inlined, Value... expected )
+    {
+        try ( RecordNodeCursor nodeCursor = nodeCursor();
+              RecordPropertyCursor propertyCursor = new RecordPropertyCursor( neoStores.getPropertyStore(), NULL, INSTANCE ) )
+        {
+            nodeCursor.single( nodeId );
+            assertThat( nodeCursor.next() ).isTrue();
+            assertThat( nodeCursor.getInlinedProperty() != null ).isEqualTo( inlined );
+            propertyCursor.initNodeProperties( nodeCursor, ALL_PROPERTIES );
+            for ( Value value : expected )
+            {
+                assertThat( propertyCursor.next() ).isTrue();
+                assertThat( propertyCursor.propertyKey() ).isEqualTo( KEY );
+                assertThat( propertyCursor.propertyValue() ).isEqualTo( value );
+            }
+            assertThat( propertyCursor.next() ).isFalse();
+        }
+    }
+
+    private RecordNodeCursor nodeCursor()
+    {
+        return new RecordNodeCursor( neoStores.getNodeStore(), neoStores.getRelationshipStore(), neoStores.getRelationshipGroupStore(), null, NULL,
+                storeCursors );
+    }
+
+    private static NodeRecord nodeRecord( long nodeId, long nextProp )
+    {
+        NodeRecord node = new NodeRecord( nodeId );
+        node.initialize( true, nextProp, false, Record.NO_NEXT_RELATIONSHIP.longValue(), Record.NO_LABELS_FIELD.longValue() );
+        return node;
+    }
+
+    private static PropertyRecord propertyRecord( long propertyId, long nodeId, Value value )
+    {
+        PropertyRecord property = new PropertyRecord( propertyId );
+        property.setInUse( true );
+        property.setNodeId( nodeId );
+        PropertyBlock block = new PropertyBlock();
+        PropertyStore.encodeValue( block, KEY, value, null, null, true, NULL, INSTANCE );
+        property.addPropertyBlock( block );
+        return property;
+    }
+
+    private void apply( Command... commands ) throws Exception
+    {
+        NeoStoreTransactionApplierFactory applier =
+                new NeoStoreTransactionApplierFactory( INTERNAL, neoStores, mock( CacheAccessBackDoor.class ), LockService.NO_LOCK_SERVICE );
+        CommandHandlerContract.apply( applier, new GroupOfCommands( ++transactionId, storeCursors, commands ) );
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.eclipse.collections.api.factory.Sets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.internal.id.DefaultIdGeneratorFactory;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.recordstorage.RecordDatabaseLayout;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.store.InlineNodeLabels;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.store.cursor.CachedStoreCursors;
+import org.neo4j.kernel.impl.store.format.standard.Standard;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.Record;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.storageengine.api.NodePropertyColumnVisitor;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.Neo4jLayoutExtension;
+import org.neo4j.test.extension.pagecache.PageCacheExtension;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker.writable;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.NODE_CURSOR;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.PROPERTY_CURSOR;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.NORMAL;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+
+@PageCacheExtension
+@Neo4jLayoutExtension
+class NodePropertyColumnStoreTest
+{
+    private static final int LABEL1 = 1;
+    private static final int LABEL2 = 2;
+    private static final int PRICE = 3;
+    private static final int NAME = 4;
+
+    @Inject
+    private FileSystemAbstraction fs;
+    @Inject
+    private PageCache pageCache;
+    @Inject
+    private RecordDatabaseLayout databaseLayout;
+
+    private NeoStores neoStores;
+    private NodeStore nodeStore;
+    private PropertyStore propertyStore;
+    private CachedStoreCursors storeCursors;
+    private NodePropertyColumnStore columnStore;
+    private long nextPropertyId;
+
+    @BeforeEach
+    void startStore()
+    {
+        StoreFactory storeFactory = new StoreFactory( databaseLayout, Config.defaults(),
+                new DefaultIdGeneratorFactory( fs, immediate(), databaseLayout.getDatabaseName() ), pageCache, fs, Standard.LATEST_RECORD_FORMATS,
+                NullLogProvider.getInstance(), PageCacheTracer.NULL, writable(), Sets.immutable.empty() );
+        neoStores = storeFactory.openAllNeoStores( true );
+        nodeStore = neoStores.getNodeStore();
+        propertyStore = neoStores.getPropertyStore();
+        storeCursors = new CachedStoreCursors( neoStores, NULL );
+    }
+
+    @AfterEach
+    void closeStore() throws Exception
+    {
+        if ( columnStore != null )
+        {
+            columnStore.close();
+        }
+        storeCursors.close();
+        neoStores.close();
+    }
+
+    @Test
+    void shouldBuildColumnsOfNumericValuesOfNodesWithLabels() throws Exception
+    {
+        // given
+        createNode( 0, new long[]{LABEL1}, Values.intValue( 10 ), Values.stringValue( "ten" ) );
+        createNode( 1, new long[]{LABEL1, LABEL2}, Values.doubleValue( 2.5 ), null );
+        createNode( 2, new long[0], Values.intValue( 5 ), null );
+        createNode( 3, new long[]{LABEL2}, Values.stringValue( "five" ), null );
+
+        // when
+        openAndStartColumnStore( Set.of( "price", "name" ) );
+
+        // then
+        assertThat( columnStore.hasColumn( PRICE ) ).isTrue();
+        assertThat( columnStore.hasColumn( NAME ) ).isTrue();
+        assertThat( scan( LABEL1, PRICE ) ).containsExactly( "0=10", "1=2.5" );
+        assertThat( scan( LABEL2, PRICE ) ).containsExactly( "1=2.5" );
+        assertThat( scan( LABEL1, NAME ) ).isEmpty();
+    }
+
+    @Test
+    void shouldUpdateColumnsOfChangedNodes() throws Exception
+    {
+        // given
+        createNode( 0, new long[]{LABEL1}, Values.intValue( 10 ), null );
+        createNode( 1, new long[]{LABEL1}, Values.intValue( 20 ), null );
+        openAndStartColumnStore( Set.of( "price" ) );
+
+        // when
+        NodeRecord before = nodeStore.getRecordByCursor( 0, nodeStore.newRecord(), NORMAL, storeCursors.readCursor( NODE_CURSOR ) );
+        createNode( 0, new long[]{LABEL2}, Values.longValue( 30 ), null );
+        try ( NodePropertyColumnStore.Updates updates = columnStore.updates( storeCursors ) )
+        {
+            updates.nodeChanged( before );
+            updates.propertiesChanged( 0 );
+        }
+
+        // then
+        assertThat( scan( LABEL1, PRICE ) ).containsExactly( "1=20" );
+        assertThat( scan( LABEL2, PRICE ) ).containsExactly( "0=30" );
+    }
+
+    @Test
+    void shouldRebuildWhenOtherPropertyKeysAreSelected() throws Exception
+    {
+        // given
+        createNode( 0, new long[]{LABEL1}, Values.intValue( 10 ), Values.intValue( 7 ) );
+        openAndStartColumnStore( Set.of( "price" ) );
+        assertThat( columnStore.hasColumn( NAME ) ).isFalse();
+        columnStore.close();
+
+        // when
+        openAndStartColumnStore( Set.of( "price", "name" ) );
+
+        // then
+        assertThat( columnStore.hasColumn( NAME ) ).isTrue();
+        assertThat( scan( LABEL1, NAME ) ).containsExactly( "0=7" );
+        assertThat( scan( LABEL1, PRICE ) ).containsExactly( "0=10" );
+    }
+
+    private void openAndStartColumnStore( Set<String> propertyKeyNames ) throws Exception
+    {
+        columnStore = new NodePropertyColumnStore( pageCache, fs, databaseLayout.nodePropertyColumnsStore(), immediate(), neoStores, propertyKeyNames,
+                writable(), PageCacheTracer.NULL, databaseLayout.getDatabaseName(), NullLogProvider.getInstance() );
+        // The property key tokens are only known by id in this test
+        columnStore.propertyKeyCreated( PRICE, "price" );
+        columnStore.propertyKeyCreated( NAME, "name" );
+        columnStore.start( NULL );
+    }
+
+    private List<String> scan( int label, int propertyKey )
+    {
+        List<String> values = new ArrayList<>();
+        columnStore.scan( label, propertyKey, new NodePropertyColumnVisitor()
+        {
+            @Override
+            public void integral( long nodeId, long value )
+            {
+                values.add( nodeId + "=" + value );
+            }
+
+            @Override
+            public void floatingPoint( long nodeId, double value )
+            {
+                values.add( nodeId + "=" + value );
+            }
+        }, NULL );
+        return values;
+    }
+
+    /**
+     * Creates or overwrites a node with the given labels and a price and name property, one property record per property.
+     */
+    private void createNode( long id, long[] labels, Value price, Value name )
+    {
+        long nextProp = Record.NO_NEXT_PROPERTY.longValue();
+        if ( name != null )
+        {
+            nextProp = createProperty( NAME, name, nextProp, id );
+        }
+        nextProp = createProperty( PRICE, price, nextProp, id );
+
+        NodeRecord node = nodeStore.newRecord();
+        node.setId( id );
+        node.initialize( true, nextProp, false, Record.NO_NEXT_RELATIONSHIP.longValue(), 0 );
+        InlineNodeLabels.putSorted( node, labels, nodeStore, null, NULL, storeCursors, INSTANCE );
+        try ( var cursor = storeCursors.writeCursor( NODE_CURSOR ) )
+        {
+            nodeStore.updateRecord( node, cursor, NULL, storeCursors );
+        }
+        nodeStore.setHighestPossibleIdInUse( Math.max( nodeStore.getHighestPossibleIdInUse( NULL ), id ) );
+    }
+
+    private long createProperty( int key, Value value, long nextProp, long nodeId )
+    {
+        PropertyRecord record = new PropertyRecord( nextPropertyId++ );
+        record.initialize( true, Record.NO_PREVIOUS_PROPERTY.longValue(), nextProp );
+        record.setNodeId( nodeId );
+        PropertyBlock block = new PropertyBlock();
+        propertyStore.encodeValue( block, key, value, NULL, INSTANCE );
+        record.addPropertyBlock( block );
+        try ( var cursor = storeCursors.writeCursor( PROPERTY_CURSOR ) )
+        {
+            propertyStore.updateRecord( record, cursor, NULL, storeCursors );
+        }
+        propertyStore.setHighestPossibleIdInUse( Math.max( propertyStore.getHighestPossibleIdInUse( NULL ), record.getId() ) );
+        return record.getId();
+    }
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.eclipse.collections.api.factory.Sets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.internal.counts.GBPTreeGenericCountsStore;
+import org.neo4j.internal.counts.GBPTreeNodePropertyStatisticsStore;
+import org.neo4j.internal.counts.NumericValueBuckets;
+import org.neo4j.internal.id.DefaultIdGeneratorFactory;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.recordstorage.RecordDatabaseLayout;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.store.InlineNodeLabels;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.store.cursor.CachedStoreCursors;
+import org.neo4j.kernel.impl.store.format.standard.Standard;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.Record;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.storageengine.api.CommandsToApply;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.Neo4jLayoutExtension;
+import org.neo4j.test.extension.pagecache.PageCacheExtension;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker.writable;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.NODE_CURSOR;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.PROPERTY_CURSOR;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.NORMAL;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_ID;
+
+@PageCacheExtension
+@Neo4jLayoutExtension
+class NodePropertyStatisticsTransactionApplierFactoryTest
+{
+    private static final int LABEL1 = 1;
+    private static final int LABEL2 = 2;
+    private static final int PRICE = 3;
+    private static final int NAME = 4;
+
+    @Inject
+    private FileSystemAbstraction fs;
+    @Inject
+    private PageCache pageCache;
+    @Inject
+    private RecordDatabaseLayout databaseLayout;
+
+    private NeoStores neoStores;
+    private NodeStore nodeStore;
+    private PropertyStore propertyStore;
+    private CachedStoreCursors storeCursors;
+    private GBPTreeNodePropertyStatisticsStore statisticsStore;
+    private long txId = BASE_TX_ID;
+
+    @BeforeEach
+    void startStore()
+    {
+        StoreFactory storeFactory = new StoreFactory( databaseLayout, Config.defaults(),
+                new DefaultIdGeneratorFactory( fs, immediate(), databaseLayout.getDatabaseName() ), pageCache, fs, Standard.LATEST_RECORD_FORMATS,
+                NullLogProvider.getInstance(), PageCacheTracer.NULL, writable(), Sets.immutable.empty() );
+        neoStores = storeFactory.openAllNeoStores( true );
+        nodeStore = neoStores.getNodeStore();
+        propertyStore = neoStores.getPropertyStore();
+        storeCursors = new CachedStoreCursors( neoStores, NULL );
+    }
+
+    @AfterEach
+    void closeStore()
+    {
+        if ( statisticsStore != null )
+        {
+            statisticsStore.close();
+        }
+        storeCursors.close();
+        neoStores.close();
+    }
+
+    @Test
+    void shouldBuildStatisticsOfNodesWithLabels() throws Exception
+    {
+        // given
+        createNode( 0, new long[]{LABEL1}, Values.intValue( 10 ), Values.stringValue( "ten" ) );
+        createNode( 1, new long[]{LABEL1, LABEL2}, Values.doubleValue( 2.5 ), null );
+        createNode( 2, new long[0], Values.intValue( 5 ), null );
+
+        // when
+        openAndStartStatisticsStore();
+
+        // then
+        assertEquals( 2, nodesWithProperty( LABEL1, PRICE ) );
+        assertEquals( 1, nodesWithProperty( LABEL1, NAME ) );
+        assertEquals( 1, nodesWithProperty( LABEL2, PRICE ) );
+        assertEquals( 0, nodesWithProperty( LABEL2, NAME ) );
+        assertEquals( 1, nodesWithValueInBucket( LABEL1, PRICE, 10 ) );
+        assertEquals( 1, nodesWithValueInBucket( LABEL1, PRICE, 2.5 ) );
+        assertEquals( 1, nodesWithValueInBucket( LABEL2, PRICE, 2.5 ) );
+        assertEquals( 0, nodesWithValueInBucket( LABEL2, PRICE, 10 ) );
+    }
+
+    @Test
+    void shouldUpdateStatisticsOfNodeWithChangedLabels() throws Exception
+    {
+        // given
+        createNode( 0, new long[]{LABEL1}, Values.intValue( 10 ), Values.stringValue( "ten" ) );
+        createNode( 1, new long[]{LABEL1}, Values.intValue( 20 ), null );
+        openAndStartStatisticsStore();
+
+        // when the labels of node 0 change, but not its properties
+        NodeRecord before = readNode( 0 );
+        NodeRecord after = before.copy();
+        InlineNodeLabels.putSorted( after, new long[]{LABEL2}, nodeStore, null, NULL, storeCursors, INSTANCE );
+        writeNode( after );
+        applyTransaction( new Command.NodeCommand( before, after ) );
+
+        // then all of its properties move to the other label
+        assertEquals( 1, nodesWithProperty( LABEL1, PRICE ) );
+        assertEquals( 0, nodesWithProperty( LABEL1, NAME ) );
+        assertEquals( 0, nodesWithValueInBucket( LABEL1, PRICE, 10 ) );
+        assertEquals( 1, nodesWithValueInBucket( LABEL1, PRICE, 20 ) );
+        assertEquals( 1, nodesWithProperty( LABEL2, PRICE ) );
+        assertEquals( 1, nodesWithProperty( LABEL2, NAME ) );
+        assertEquals( 1, nodesWithValueInBucket( LABEL2, PRICE, 10 ) );
+    }
+
+    @Test
+    void shouldUpdateStatisticsOfChangedAndRemovedProperties() throws Exception
+    {
+        // given
+        createNode( 0, new long[]{LABEL1, LABEL2}, Values.intValue( 10 ), Values.stringValue( "ten" ) );
+        openAndStartStatisticsStore();
+        NodeRecord node = readNode( 0 );
+        PropertyRecord priceBefore = readProperty( node.getNextProp(), 0 );
+        PropertyRecord nameBefore = readProperty( priceBefore.getNextProp(), 0 );
+
+        // when the price changes and the name is removed
+        PropertyRecord priceAfter = priceBefore.copy();
+        priceAfter.removePropertyBlock( PRICE );
+        priceAfter.addPropertyBlock( propertyBlock( PRICE, Values.longValue( 1000 ) ) );
+        priceAfter.setNextProp( Record.NO_NEXT_PROPERTY.longValue() );
+        PropertyRecord nameAfter = nameBefore.copy();
+        nameAfter.clearPropertyBlocks();
+        nameAfter.setInUse( false );
+        writeProperty( priceAfter );
+        writeProperty( nameAfter );
+        applyTransaction( new Command.PropertyCommand( priceBefore, priceAfter ), new Command.PropertyCommand( nameBefore, nameAfter ) );
+
+        // then
+        for ( int label : new int[]{LABEL1, LABEL2} )
+        {
+            assertEquals( 1, nodesWithProperty( label, PRICE ) );
+            assertEquals( 0, nodesWithProperty( label, NAME ) );
+            assertEquals( 0, nodesWithValueInBucket( label, PRICE, 10 ) );
+            assertEquals( 1, nodesWithValueInBucket( label, PRICE, 1000 ) );
+        }
+    }
+
+    @Test
+    void shouldRemoveStatisticsOfDeletedNode() throws Exception
+    {
+        // given
+        createNode( 0, new long[]{LABEL1}, Values.intValue( 10 ), Values.stringValue( "ten" ) );
+        createNode( 1, new long[]{LABEL1}, Values.intValue( 20 ), null );
+        openAndStartStatisticsStore();
+        NodeRecord nodeBefore = readNode( 0 );
+        PropertyRecord priceBefore = readProperty( nodeBefore.getNextProp(), 0 );
+        PropertyRecord nameBefore = readProperty( priceBefore.getNextProp(), 0 );
+
+        // when
+        NodeRecord nodeAfter = nodeBefore.copy();
+        nodeAfter.setInUse( false );
+        PropertyRecord priceAfter = priceBefore.copy();
+        priceAfter.clearPropertyBlocks();
+        priceAfter.setInUse( false );
+        PropertyRecord nameAfter = nameBefore.copy();
+        nameAfter.clearPropertyBlocks();
+        nameAfter.setInUse( false );
+        writeNode( nodeAfter );
+        writeProperty( priceAfter );
+        writeProperty( nameAfter );
+        applyTransaction( new Command.NodeCommand( nodeBefore, nodeAfter ), new Command.PropertyCommand( priceBefore, priceAfter ),
+                new Command.PropertyCommand( nameBefore, nameAfter ) );
+
+        // then
+        assertEquals( 1, nodesWithProperty( LABEL1, PRICE ) );
+        assertEquals( 0, nodesWithProperty( LABEL1, NAME ) );
+        assertEquals( 0, nodesWithValueInBucket( LABEL1, PRICE, 10 ) );
+        assertEquals( 1, nodesWithValueInBucket( LABEL1, PRICE, 20 ) );
+    }
+
+    private void openAndStartStatisticsStore() throws Exception
+    {
+        statisticsStore = new GBPTreeNodePropertyStatisticsStore( pageCache, databaseLayout.nodePropertyStatisticsStore(), fs, immediate(),
+                new NodePropertyStatisticsRebuildFromStore( neoStores, NullLogProvider.getInstance() ), writable(), PageCacheTracer.NULL,
+                GBPTreeGenericCountsStore.NO_MONITOR, databaseLayout.getDatabaseName(), 100, NullLogProvider.getInstance() );
+        statisticsStore.start( NULL, storeCursors, INSTANCE );
+        txId = neoStores.getMetaDataStore().getLastCommittedTransactionId();
+    }
+
+    private void applyTransaction( Command... commands ) throws Exception
+    {
+        CommandsToApply transaction = mock( CommandsToApply.class );
+        when( transaction.transactionId() ).thenReturn( ++txId );
+        when( transaction.cursorContext() ).thenReturn( NULL );
+        when( transaction.storeCursors() ).thenReturn( storeCursors );
+        NodePropertyStatisticsTransactionApplierFactory factory = new NodePropertyStatisticsTransactionApplierFactory( statisticsStore, nodeStore,
+                propertyStore );
+        try ( TransactionApplier applier = factory.startTx( transaction, mock( BatchContext.class ) ) )
+        {
+            for ( Command command : commands )
+            {
+                command.handle( applier );
+            }
+        }
+    }
+
+    private long nodesWithProperty( int label, int propertyKey )
+    {
+        return statisticsStore.nodesWithProperty( label, propertyKey, NULL );
+    }
+
+    private long nodesWithValueInBucket( int label, int propertyKey, double value )
+    {
+        return statisticsStore.nodesWithValueInBucket( label, propertyKey, NumericValueBuckets.bucket( value ), NULL );
+    }
+
+    private NodeRecord readNode( long id )
+    {
+        return nodeStore.getRecordByCursor( id, nodeStore.newRecord(), NORMAL, storeCursors.readCursor( NODE_CURSOR ) );
+    }
+
+    /**
+     * Reads a property record of a node, with the owner set like it is in commands.
+     */
+    private PropertyRecord readProperty( long id, long nodeId )
+    {
+        PropertyRecord record = propertyStore.getRecordByCursor( id, propertyStore.newRecord(), NORMAL, storeCursors.readCursor( PROPERTY_CURSOR ) );
+        record.setNodeId( nodeId );
+        return record;
+    }
+
+    /**
+     * Creates a node with the given labels and a price and name property, one property record per property.
+     */
+    private void createNode( long id, long[] labels, Value price, Value name )
+    {
+        long nameProp = Record.NO_NEXT_PROPERTY.longValue();
+        if ( name != null )
+        {
+            nameProp = createProperty( NAME, name, nameProp, id );
+        }
+        long priceProp = createProperty( PRICE, price, nameProp, id );
+
+        NodeRecord node = nodeStore.newRecord();
+        node.setId( id );
+        node.initialize( true, priceProp, false, Record.NO_NEXT_RELATIONSHIP.longValue(), 0 );
+        InlineNodeLabels.putSorted( node, labels, nodeStore, null, NULL, storeCursors, INSTANCE );
+        writeNode( node );
+        nodeStore.setHighestPossibleIdInUse( Math.max( nodeStore.getHighestPossibleIdInUse( NULL ), id ) );
+    }
+
+    private long createProperty( int key, Value value, long nextProp, long nodeId )
+    {
+        PropertyRecord record = new PropertyRecord( propertyStore.nextId( NULL ) );
+        record.initialize( true, Record.NO_PREVIOUS_PROPERTY.longValue(), nextProp );
+        record.setNodeId( nodeId );
+        record.addPropertyBlock( propertyBlock( key, value ) );
+        writeProperty( record );
+        propertyStore.setHighestPossibleIdInUse( Math.max( propertyStore.getHighestPossibleIdInUse( NULL ), record.getId() ) );
+        return record.getId();
+    }
+
+    private PropertyBlock propertyBlock( int key, Value value )
+    {
+        PropertyBlock block = new PropertyBlock();
+        propertyStore.encodeValue( block, key, value, NULL, INSTANCE );
+        return block;
+    }
+
+    private void writeNode( NodeRecord node )
+    {
+        try ( var cursor = storeCursors.writeCursor( NODE_CURSOR ) )
+        {
+            nodeStore.updateRecord( node, cursor, NULL, storeCursors );
+        }
+    }
+
+    private void writeProperty( PropertyRecord record )
+    {
+        try ( var cursor = storeCursors.writeCursor( PROPERTY_CURSOR ) )
+        {
+            propertyStore.updateRecord( record, cursor, NULL, storeCursors );
+        }
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.internal.id.DefaultIdGeneratorFactory;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.KernelVersion;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.store.StoreType;
+import org.neo4j.kernel.impl.store.cursor.CachedStoreCursors;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.Record;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.storageengine.api.StorageCommand;
+import org.neo4j.storageengine.api.cursor.StoreCursors;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.Neo4jLayoutExtension;
+import org.neo4j.test.extension.pagecache.PageCacheExtension;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker.writable;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.NODE_CURSOR;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.PROPERTY_CURSOR;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.CHECK;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.NORMAL;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+
+@PageCacheExtension
+@Neo4jLayoutExtension
+class PropertyChainCompactorTest
+{
+    private static final long NODE_ID = 3;
+
+    @Inject
+    private FileSystemAbstraction fileSystem;
+    @Inject
+    private PageCache pageCache;
+    @Inject
+    private DatabaseLayout databaseLayout;
+
+    private NeoStores neoStores;
+    private NodeStore nodeStore;
+    private PropertyStore propertyStore;
+    private StoreCursors storeCursors;
+    private PropertyChainCompactor compactor;
+
+    @BeforeEach
+    void startStore()
+    {
+        neoStores = new StoreFactory( databaseLayout, Config.defaults(),
+                new DefaultIdGeneratorFactory( fileSystem, immediate(), databaseLayout.getDatabaseName() ),
+                pageCache, fileSystem, NullLogProvider.getInstance(), PageCacheTracer.NULL, writable() ).openNeoStores( true,
+                StoreType.NODE, StoreType.NODE_LABEL, StoreType.PROPERTY, StoreType.PROPERTY_STRING, StoreType.PROPERTY_ARRAY );
+        nodeStore = neoStores.getNodeStore();
+        propertyStore = neoStores.getPropertyStore();
+        storeCursors = new CachedStoreCursors( neoStores, NULL );
+        compactor = new PropertyChainCompactor( nodeStore, propertyStore, RecordStorageCommandReaderFactory.INSTANCE.get( KernelVersion.LATEST ) );
+    }
+
+    @AfterEach
+    void closeStore()
+    {
+        storeCursors.close();
+        neoStores.close();
+    }
+
+    @Test
+    void shouldCompactFragmentedChainIntoFewerConsecutiveRecords()
+    {
+        // given
+        long[] oldIds = {2, 10, 20};
+        createNodeWithChain( oldIds, Values.intValue( 0 ), Values.intValue( 1 ), Values.intValue( 2 ) );
+
+        // when
+        apply( compactor.compact( NODE_ID, NULL, storeCursors ) );
+
+        // then
+        List<PropertyRecord> chain = loadChain();
+        assertThat( chain ).hasSize( 1 );
+        assertChainValues( chain, Values.intValue( 0 ), Values.intValue( 1 ), Values.intValue( 2 ) );
+        for ( long oldId : oldIds )
+        {
+            PropertyRecord oldRecord = propertyStore.getRecordByCursor( oldId, propertyStore.newRecord(), CHECK, storeCursors.readCursor( PROPERTY_CURSOR ) );
+            assertThat( oldRecord.inUse() ).isFalse();
+        }
+    }
+
+    @Test
+    void shouldMakeChainConsecutiveEvenIfNumberOfRecordsStaysTheSame()
+    {
+        // given
+        Value longString = Values.stringValue( "a".repeat( 200 ) );
+        createNodeWithChain( new long[]{7, 1}, Values.longValue( Long.MAX_VALUE ), longString );
+
+        // when
+        apply( compactor.compact( NODE_ID, NULL, storeCursors ) );
+
+        // then
+        List<PropertyRecord> chain = loadChain();
+        assertThat( chain ).hasSize( 1 );
+        assertChainValues( chain, Values.longValue( Long.MAX_VALUE ), longString );
+    }
+
+    @Test
+    void shouldNotCompactAlreadyCompactChain()
+    {
+        // given
+        createNodeWithChain( new long[]{4}, Values.intValue( 0 ), Values.intValue( 1 ) );
+
+        // when
+        List<StorageCommand> commands = compactor.compact( NODE_ID, NULL, storeCursors );
+
+        // then
+        assertThat( commands ).isEmpty();
+    }
+
+    @Test
+    void shouldNotCompactNodeWithoutProperties()
+    {
+        // given
+        NodeRecord node = nodeStore.newRecord();
+        node.setId( NODE_ID );
+        node.initialize( true, Record.NO_NEXT_PROPERTY.longValue(), false, Record.NO_NEXT_RELATIONSHIP.longValue(), 0 );
+        updateNode( node );
+
+        // when
+        List<StorageCommand> commands = compactor.compact( NODE_ID, NULL, storeCursors );
+
+        // then
+        assertThat( commands ).isEmpty();
+    }
+
+    /**
+     * Creates a node with one property record per value, linked in the order of the given ids.
+     */
+    private void createNodeWithChain( long[] ids, Value... values )
+    {
+        for ( int i = 0; i < ids.length; i++ )
+        {
+            PropertyRecord record = new PropertyRecord( ids[i] );
+            record.initialize( true, i == 0 ? Record.NO_PREVIOUS_PROPERTY.longValue() : ids[i - 1],
+                    i == ids.length - 1 ? Record.NO_NEXT_PROPERTY.longValue() : ids[i + 1] );
+            record.setNodeId( NODE_ID );
+            PropertyBlock block = new PropertyBlock();
+            propertyStore.encodeValue( block, i, values[i], NULL, INSTANCE );
+            for ( var valueRecord : block.getValueRecords() )
+            {
+                valueRecord.setCreated();
+            }
+            record.addPropertyBlock( block );
+            updateProperty( record );
+            propertyStore.setHighestPossibleIdInUse( Math.max( propertyStore.getHighestPossibleIdInUse( NULL ), ids[i] ) );
+        }
+
+        NodeRecord node = nodeStore.newRecord();
+        node.setId( NODE_ID );
+        node.initialize( true, ids[0], false, Record.NO_NEXT_RELATIONSHIP.longValue(), 0 );
+        updateNode( node );
+    }
+
+    private void apply( List<StorageCommand> commands )
+    {
+        assertThat( commands ).isNotEmpty();
+        for ( StorageCommand command : commands )
+        {
+            if ( command instanceof Command.PropertyCommand )
+            {
+                updateProperty( ((Command.PropertyCommand) command).getAfter() );
+            }
+            else
+            {
+                updateNode( ((Command.NodeCommand) command).getAfter() );
+            }
+        }
+    }
+
+    private List<PropertyRecord> loadChain()
+    {
+        NodeRecord node = nodeStore.getRecordByCursor( NODE_ID, nodeStore.newRecord(), NORMAL, storeCursors.readCursor( NODE_CURSOR ) );
+        List<PropertyRecord> chain = new ArrayList<>();
+        long nextProp = node.getNextProp();
+        while ( !Record.NO_NEXT_PROPERTY.is( nextProp ) )
+        {
+            PropertyRecord record = propertyStore.getRecordByCursor( nextProp, propertyStore.newRecord(), NORMAL,
+                    storeCursors.readCursor( PROPERTY_CURSOR ) );
+            chain.add( record );
+            nextProp = record.getNextProp();
+        }
+        return chain;
+    }
+
+    private void assertChainValues( List<PropertyRecord> chain, Value... expectedValues )
+    {
+        for ( int key = 0; key < expectedValues.length; key++ )
+        {
+            Value value = null;
+            for ( PropertyRecord record : chain )
+            {
+                PropertyBlock block = record.getPropertyBlock( key );
+                if ( block != null )
+                {
+                    value = block.getType().value( block, propertyStore, storeCursors );
+                }
+            }
+            assertThat( value ).isEqualTo( expectedValues[key] );
+        }
+    }
+
+    private void updateProperty( PropertyRecord record )
+    {
+        try ( PageCursor cursor = storeCursors.writeCursor( PROPERTY_CURSOR ) )
+        {
+            propertyStore.updateRecord( record, cursor, NULL, storeCursors );
+        }
+    }
+
+    private void updateNode( NodeRecord record )
+    {
+        try ( PageCursor cursor = storeCursors.writeCursor( NODE_CURSOR ) )
+        {
+            nodeStore.updateRecord( record, cursor, NULL, storeCursors );
+        }
+    }
+}
@@ -23,6 +23,7 @@ import org.junit.jupiter.api.Test;
 
 import org.neo4j.internal.counts.RelationshipGroupDegreesStore;
 import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.RecordBatch;
 import org.neo4j.kernel.impl.store.RelationshipGroupStore;
 import org.neo4j.kernel.impl.store.RelationshipStore;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
@@ -72,6 +73,22 @@ class RecordNodeCursorTest
             record.initialize( record.getId() == 200, 1L, false, 1L, 0L );
             return null;
         } ).when( nodeStore ).nextRecordByCursor( any(), any(), any() );
+        when( nodeStore.getRecordsPerPage() ).thenReturn( 64 );
+        doAnswer( invocationOnMock ->
+        {
+            long fromId = invocationOnMock.getArgument( 0 );
+            long toId = Math.min( invocationOnMock.getArgument( 1 ), fromId + 63 );
+            NodeRecord record = invocationOnMock.getArgument( 2 );
+            RecordBatch<NodeRecord> batch = invocationOnMock.getArgument( 3 );
+            batch.clear();
+            if ( fromId <= 200 && toId >= 200 )
+            {
+                record.setId( 200 );
+                record.initialize( true, 1L, false, 1L, NO_LABELS_FIELD.longValue() );
+                batch.add( record );
+            }
+            return toId;
+        } ).when( nodeStore ).readRecordsOfPage( anyLong(), anyLong(), any(), any(), any() );
         RecordNodeCursor cursor = new RecordNodeCursor( nodeStore, null, null, null, NULL, StoreCursors.NULL );
 
         // when
@@ -101,7 +101,7 @@ public class RecordPropertyCursorTest
     void setup()
     {
         idGeneratorFactory = new DefaultIdGeneratorFactory( fs, immediate(), databaseLayout.getDatabaseName() );
-        neoStores = new StoreFactory( databaseLayout, Config.defaults(), idGeneratorFactory, pageCache, fs, getRecordFormats(), NullLogProvider.getInstance(),
+        neoStores = new StoreFactory( databaseLayout, getConfig(), idGeneratorFactory, pageCache, fs, getRecordFormats(), NullLogProvider.getInstance(),
                 PageCacheTracer.NULL, writable(), Sets.immutable.empty() ).openAllNeoStores( true );
         creator = new PropertyCreator( neoStores.getPropertyStore(), new PropertyTraverser(), NULL, INSTANCE );
         owner = neoStores.getNodeStore().newRecord();
@@ -113,6 +113,11 @@ public class RecordPropertyCursorTest
         return Standard.LATEST_RECORD_FORMATS;
     }
 
+    protected Config getConfig()
+    {
+        return Config.defaults();
+    }
+
     @AfterEach
     void closeStore()
     {
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.cursor.CachedStoreCursors;
+import org.neo4j.kernel.impl.store.format.RecordFormats;
+import org.neo4j.kernel.impl.store.format.compact.CompactV4_4;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.dynamic_record_compression_threshold;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+
+class RecordPropertyCursorWithDynamicCompressionTest extends RecordPropertyCursorTest
+{
+    @Override
+    protected RecordFormats getRecordFormats()
+    {
+        return CompactV4_4.RECORD_FORMATS;
+    }
+
+    @Override
+    protected Config getConfig()
+    {
+        return Config.defaults( dynamic_record_compression_threshold, 1 );
+    }
+
+    @Test
+    void shouldCompressLargeStringAndArrayValues()
+    {
+        // given
+        String json = "{\"name\":\"value\",\"other\":[1,2,3]}".repeat( 100 );
+        String[] strings = new String[100];
+        long[] longs = new long[1_000];
+        for ( int i = 0; i < strings.length; i++ )
+        {
+            strings[i] = "string number " + (i % 10);
+        }
+        for ( int i = 0; i < longs.length; i++ )
+        {
+            longs[i] = (i % 4) * 1_000_000_000_000L;
+        }
+        Value[] values = {Values.stringValue( json ), Values.stringArray( strings ), Values.longArray( longs )};
+        PropertyStore propertyStore = neoStores.getPropertyStore();
+
+        // when
+        PropertyBlock stringBlock = creator.encodePropertyValue( 0, values[0] );
+        PropertyBlock stringArrayBlock = creator.encodePropertyValue( 1, values[1] );
+        PropertyBlock longArrayBlock = creator.encodePropertyValue( 2, values[2] );
+        long firstPropertyId = storeValuesAsPropertyChain( creator, owner, values );
+
+        // then
+        int stringRecordSize = propertyStore.getStringStore().getRecordDataSize();
+        int arrayRecordSize = propertyStore.getArrayStore().getRecordDataSize();
+        assertThat( stringBlock.getValueRecords().size() ).isLessThan( json.length() / stringRecordSize / 4 );
+        assertThat( stringArrayBlock.getValueRecords().size() ).isLessThan( 100 * 20 / arrayRecordSize / 4 );
+        assertThat( longArrayBlock.getValueRecords().size() ).isLessThan( longs.length * Long.BYTES / arrayRecordSize / 4 );
+        assertPropertyChain( values, firstPropertyId, createCursor() );
+        try ( var storeCursors = new CachedStoreCursors( neoStores, NULL ) )
+        {
+            assertThat( propertyStore.getValue( stringBlock, storeCursors ) ).isEqualTo( values[0] );
+            assertThat( propertyStore.getValue( stringArrayBlock, storeCursors ) ).isEqualTo( values[1] );
+            assertThat( propertyStore.getValue( longArrayBlock, storeCursors ) ).isEqualTo( values[2] );
+        }
+    }
+
+    @Test
+    void shouldNotCompressIncompressibleValues()
+    {
+        // given
+        byte[] bytes = new byte[1_000];
+        random.nextBytes( bytes );
+        Value value = Values.byteArray( bytes );
+
+        // when
+        PropertyBlock block = creator.encodePropertyValue( 0, value );
+        long firstPropertyId = storeValuesAsPropertyChain( creator, owner, new Value[]{value} );
+
+        // then
+        int arrayRecordSize = neoStores.getPropertyStore().getArrayStore().getRecordDataSize();
+        assertThat( block.getValueRecords().size() ).isGreaterThanOrEqualTo( bytes.length / arrayRecordSize );
+        assertPropertyChain( new Value[]{value}, firstPropertyId, createCursor() );
+    }
+}
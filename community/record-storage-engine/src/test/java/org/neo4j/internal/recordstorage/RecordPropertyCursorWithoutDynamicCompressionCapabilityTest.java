@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.dynamic_record_compression_threshold;
+
+/**
+ * Stores in the default format can be read by versions not knowing about compressed dynamic records, so the compression threshold is ignored.
+ */
+class RecordPropertyCursorWithoutDynamicCompressionCapabilityTest extends RecordPropertyCursorTest
+{
+    @Override
+    protected Config getConfig()
+    {
+        return Config.defaults( dynamic_record_compression_threshold, 1 );
+    }
+
+    @Test
+    void shouldNotCompressValuesInFormatWithoutCompressionCapability()
+    {
+        // given
+        String json = "{\"name\":\"value\",\"other\":[1,2,3]}".repeat( 100 );
+        Value[] values = {Values.stringValue( json )};
+        PropertyStore propertyStore = neoStores.getPropertyStore();
+
+        // when
+        PropertyBlock stringBlock = creator.encodePropertyValue( 0, values[0] );
+        long firstPropertyId = storeValuesAsPropertyChain( creator, owner, values );
+
+        // then
+        assertThat( propertyStore.dynamicCompressionThreshold() ).isZero();
+        assertThat( stringBlock.getValueRecords().size() ).isGreaterThanOrEqualTo( json.length() / propertyStore.getStringStore().getRecordDataSize() );
+        assertPropertyChain( values, firstPropertyId, createCursor() );
+    }
+}
@@ -40,6 +40,7 @@ import org.neo4j.kernel.impl.store.StoreFactory;
 import org.neo4j.kernel.impl.store.cursor.CachedStoreCursors;
 import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.logging.NullLogProvider;
+import org.neo4j.storageengine.api.AllRelationshipsScan;
 import org.neo4j.storageengine.api.cursor.StoreCursors;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.Neo4jLayoutExtension;
@@ -148,6 +149,82 @@ class RecordRelationshipScanCursorTest
         assertSeesRelationships( expected );
     }
 
+    @Test
+    void shouldScanAllInUseRelationshipsOnManyPages()
+    {
+        // given
+        RelationshipStore relationshipStore = neoStores.getRelationshipStore();
+        int count = relationshipStore.getRecordsPerPage() * 3 + 5;
+        relationshipStore.setHighId( count );
+        Set<Long> expected = createRandomRelationships( relationshipStore, count );
+
+        // when
+        Set<Long> seenByBatches = new HashSet<>();
+        AllRelationshipsScan scan = new RecordRelationshipScan();
+        try ( RecordRelationshipScanCursor cursor = createRelationshipCursor() )
+        {
+            while ( cursor.scanBatch( scan, 7 ) )
+            {
+                while ( cursor.next() )
+                {
+                    assertTrue( seenByBatches.add( cursor.entityReference() ) );
+                    assertEquals( 1, cursor.getType() );
+                }
+            }
+        }
+
+        // then
+        assertEquals( expected, seenByBatches );
+        assertSeesRelationships( expected );
+    }
+
+    @Test
+    void shouldContinueScanOneByOneWhenForcedToLoadInTheMiddleOfAPage()
+    {
+        // given
+        RelationshipStore relationshipStore = neoStores.getRelationshipStore();
+        int count = relationshipStore.getRecordsPerPage() * 2;
+        relationshipStore.setHighId( count );
+        Set<Long> expected = createRandomRelationships( relationshipStore, count );
+
+        // when
+        Set<Long> seen = new HashSet<>();
+        try ( RecordRelationshipScanCursor cursor = createRelationshipCursor() )
+        {
+            cursor.scan();
+            for ( int i = 0; i < 3 && cursor.next(); i++ )
+            {
+                seen.add( cursor.entityReference() );
+            }
+            cursor.setForceLoad();
+            while ( cursor.next() )
+            {
+                assertTrue( seen.add( cursor.entityReference() ) );
+            }
+        }
+
+        // then
+        assertEquals( expected, seen );
+    }
+
+    private Set<Long> createRandomRelationships( RelationshipStore relationshipStore, int count )
+    {
+        Set<Long> expected = new HashSet<>();
+        try ( var cursor = storeCursors.writeCursor( RELATIONSHIP_CURSOR ) )
+        {
+            for ( long id = 0; id < count; id++ )
+            {
+                boolean inUse = random.nextBoolean();
+                createRelationshipRecord( id, 1, relationshipStore, cursor, inUse );
+                if ( inUse )
+                {
+                    expected.add( id );
+                }
+            }
+        }
+        return expected;
+    }
+
     private void assertSeesRelationships( Set<Long> expected )
     {
         try ( RecordRelationshipScanCursor cursor = createRelationshipCursor() )
@@ -23,6 +23,9 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 
@@ -33,8 +36,13 @@ import java.util.Collection;
 import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
+import org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker;
 import org.neo4j.exceptions.KernelException;
 import org.neo4j.exceptions.UnderlyingStorageException;
 import org.neo4j.internal.helpers.collection.Visitor;
@@ -43,7 +51,9 @@ import org.neo4j.io.layout.recordstorage.RecordDatabaseLayout;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.api.exceptions.Status;
+import org.neo4j.kernel.impl.store.MetaDataStore;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.lock.Lock;
 import org.neo4j.lock.LockService;
 import org.neo4j.monitoring.DatabaseHealth;
@@ -61,16 +71,21 @@ import org.neo4j.test.storage.RecordStorageEngineSupport;
 import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCause;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker.readOnly;
+import static org.neo4j.internal.recordstorage.RecordStorageEngineTestUtils.openSimpleStorageEngine;
 import static org.neo4j.io.pagecache.context.CursorContext.NULL;
 import static org.neo4j.lock.LockType.EXCLUSIVE;
 
@@ -215,6 +230,86 @@ class RecordStorageEngineTest
         }
     }
 
+    @ParameterizedTest
+    @MethodSource( "derivedStores" )
+    void shouldStartReadOnlyWithoutMissingDerivedStore( Config config, Function<RecordDatabaseLayout,Path> store ) throws Exception
+    {
+        // given
+        createStore( config );
+        fs.deleteFile( store.apply( databaseLayout ) );
+
+        // when
+        startAndShutdown( config, readOnly() );
+
+        // then it can't be built, so the database goes without it
+        assertFalse( fs.fileExists( store.apply( databaseLayout ) ) );
+    }
+
+    private static Stream<Arguments> derivedStores()
+    {
+        return Stream.of(
+                derivedStore( Config.defaults( GraphDatabaseInternalSettings.node_degrees_store_enabled, true ), RecordDatabaseLayout::nodeDegreesStore ),
+                derivedStore( Config.defaults( GraphDatabaseInternalSettings.relationship_adjacency_store_enabled, true ),
+                        RecordDatabaseLayout::relationshipAdjacencyStore ),
+                derivedStore( Config.defaults( GraphDatabaseInternalSettings.relationship_group_directory_enabled, true ),
+                        RecordDatabaseLayout::relationshipGroupDirectory ),
+                derivedStore( Config.defaults( GraphDatabaseInternalSettings.node_property_columns, Set.of( "age" ) ),
+                        RecordDatabaseLayout::nodePropertyColumnsStore ),
+                derivedStore( Config.defaults( GraphDatabaseInternalSettings.node_property_statistics_enabled, true ),
+                        RecordDatabaseLayout::nodePropertyStatisticsStore ) );
+    }
+
+    private static Arguments derivedStore( Config config, Function<RecordDatabaseLayout,Path> store )
+    {
+        return arguments( config, store );
+    }
+
+    @Test
+    void shouldStartReadOnlyWithoutLaggingNodePropertyStatisticsStore() throws Exception
+    {
+        // given a recovered transaction, which the statistics store doesn't see
+        Config config = Config.defaults( GraphDatabaseInternalSettings.node_property_statistics_enabled, true );
+        LifeSupport life = new LifeSupport();
+        RecordStorageEngine engine = life.add( openSimpleStorageEngine( fs, pageCache, databaseLayout, config ) );
+        life.start();
+        MetaDataStore metaDataStore = engine.testAccessNeoStores().getMetaDataStore();
+        long txId = metaDataStore.getLastCommittedTransactionId() + 1;
+        try ( StoreCursors storeCursors = engine.createStorageCursors( NULL ) )
+        {
+            CommandsToApply transaction = mock( CommandsToApply.class );
+            when( transaction.transactionId() ).thenReturn( txId );
+            when( transaction.cursorContext() ).thenReturn( NULL );
+            when( transaction.storeCursors() ).thenReturn( storeCursors );
+            engine.apply( transaction, TransactionApplicationMode.RECOVERY );
+        }
+        metaDataStore.transactionCommitted( txId, 0, 0, NULL );
+        engine.flushAndForce( NULL );
+        life.shutdown();
+
+        // when
+        startAndShutdown( config, readOnly() );
+
+        // then it's left to be rebuilt when the database is writable again
+        assertTrue( fs.fileExists( databaseLayout.nodePropertyStatisticsStore() ) );
+    }
+
+    private void createStore( Config config ) throws Exception
+    {
+        LifeSupport life = new LifeSupport();
+        RecordStorageEngine engine = life.add( openSimpleStorageEngine( fs, pageCache, databaseLayout, config ) );
+        life.start();
+        engine.flushAndForce( NULL );
+        life.shutdown();
+    }
+
+    private void startAndShutdown( Config config, DatabaseReadOnlyChecker readOnlyChecker )
+    {
+        LifeSupport life = new LifeSupport();
+        life.add( openSimpleStorageEngine( fs, pageCache, databaseLayout, config, readOnlyChecker ) );
+        life.start();
+        life.shutdown();
+    }
+
     private RecordStorageEngine buildRecordStorageEngine()
     {
         return recordStorageEngineBuilder().build();
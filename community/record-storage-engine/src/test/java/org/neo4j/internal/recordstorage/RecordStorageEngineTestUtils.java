@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.neo4j.configuration.Config;
+import org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker;
 import org.neo4j.function.ThrowingBiConsumer;
 import org.neo4j.internal.id.DefaultIdController;
 import org.neo4j.internal.id.DefaultIdGeneratorFactory;
@@ -61,6 +62,12 @@ import static org.neo4j.lock.LockService.NO_LOCK_SERVICE;
 public class RecordStorageEngineTestUtils
 {
     public static RecordStorageEngine openSimpleStorageEngine( FileSystemAbstraction fs, PageCache pageCache, RecordDatabaseLayout layout, Config config )
+    {
+        return openSimpleStorageEngine( fs, pageCache, layout, config, writable() );
+    }
+
+    public static RecordStorageEngine openSimpleStorageEngine( FileSystemAbstraction fs, PageCache pageCache, RecordDatabaseLayout layout, Config config,
+            DatabaseReadOnlyChecker readOnlyChecker )
     {
         TokenHolders tokenHolders = new TokenHolders(
                 createReadOnlyTokenHolder( TokenHolder.TYPE_PROPERTY_KEY ),
@@ -69,7 +76,7 @@ public class RecordStorageEngineTestUtils
         return new RecordStorageEngine( layout, config, pageCache, fs, NullLogProvider.getInstance(), NullLogProvider.getInstance(), tokenHolders,
                 mock( SchemaState.class ), new StandardConstraintRuleAccessor(), c -> c, NO_LOCK_SERVICE, mock( Health.class ),
                 new DefaultIdGeneratorFactory( fs, immediate(), DEFAULT_DATABASE_NAME ), new DefaultIdController(), immediate(), PageCacheTracer.NULL, true,
-                EmptyMemoryTracker.INSTANCE, writable(), CommandLockVerification.Factory.IGNORE, LockVerificationMonitor.Factory.IGNORE );
+                EmptyMemoryTracker.INSTANCE, readOnlyChecker, CommandLockVerification.Factory.IGNORE, LockVerificationMonitor.Factory.IGNORE );
     }
 
     public static void applyLogicalChanges( RecordStorageEngine storageEngine, ThrowingBiConsumer<ReadableTransactionState,TxStateVisitor,Exception> changes )
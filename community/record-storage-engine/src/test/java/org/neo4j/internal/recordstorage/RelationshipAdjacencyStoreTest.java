@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.eclipse.collections.api.factory.Sets;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.impl.factory.primitive.LongLists;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.internal.id.DefaultIdGeneratorFactory;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.recordstorage.RecordDatabaseLayout;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.store.cursor.CachedStoreCursors;
+import org.neo4j.kernel.impl.store.format.standard.Standard;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.storageengine.api.RelationshipSelection;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.Neo4jLayoutExtension;
+import org.neo4j.test.extension.pagecache.PageCacheExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker.writable;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.RELATIONSHIP_CURSOR;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_PROPERTY;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_RELATIONSHIP;
+import static org.neo4j.storageengine.api.RelationshipSelection.ALL_RELATIONSHIPS;
+import static org.neo4j.storageengine.api.RelationshipSelection.selection;
+
+@PageCacheExtension
+@Neo4jLayoutExtension
+class RelationshipAdjacencyStoreTest
+{
+    private static final long NODE = 1;
+    private static final int TYPE1 = 0;
+    private static final int TYPE2 = 1;
+    private static final int TYPE3 = 2;
+
+    @Inject
+    private PageCache pageCache;
+    @Inject
+    private FileSystemAbstraction fs;
+    @Inject
+    private RecordDatabaseLayout databaseLayout;
+
+    private NeoStores neoStores;
+    private CachedStoreCursors storeCursors;
+    private RelationshipAdjacencyStore adjacencyStore;
+
+    @BeforeEach
+    void setupStores()
+    {
+        DefaultIdGeneratorFactory idGeneratorFactory = new DefaultIdGeneratorFactory( fs, immediate(), databaseLayout.getDatabaseName() );
+        StoreFactory storeFactory = new StoreFactory( databaseLayout, Config.defaults(), idGeneratorFactory, pageCache, fs,
+                Standard.LATEST_RECORD_FORMATS, NullLogProvider.getInstance(), PageCacheTracer.NULL, writable(), Sets.immutable.empty() );
+        neoStores = storeFactory.openAllNeoStores( true );
+        storeCursors = new CachedStoreCursors( neoStores, CursorContext.NULL );
+    }
+
+    @AfterEach
+    void shutDownStores() throws Exception
+    {
+        if ( adjacencyStore != null )
+        {
+            adjacencyStore.close();
+        }
+        storeCursors.close();
+        neoStores.close();
+    }
+
+    @Test
+    void shouldBuildFromRelationshipStoreAndTraverseSortedByTypeAndDirection() throws Exception
+    {
+        // given
+        createRelationship( 0, NODE, 2, TYPE1 );
+        createRelationship( 1, 2, NODE, TYPE2 );
+        createRelationship( 2, NODE, NODE, TYPE1 );
+        createRelationship( 3, NODE, 3, TYPE3 );
+        createRelationship( 4, 3, 2, TYPE1 );
+
+        // when
+        openAndStartAdjacencyStore();
+
+        // then
+        assertThat( adjacencyStore.isBuilt() ).isTrue();
+        assertThat( traverse( NODE, ALL_RELATIONSHIPS ).toArray() ).containsExactly( 0, 2, 1, 3 );
+        assertThat( traverse( NODE, selection( new int[]{TYPE3, TYPE1, TYPE3}, Direction.OUTGOING ) ).toArray() ).containsExactly( 0, 2, 3 );
+        assertThat( traverse( NODE, selection( TYPE2, Direction.OUTGOING ) ).toArray() ).isEmpty();
+        assertThat( traverse( 2, selection( Direction.INCOMING ) ).toArray() ).containsExactly( 0, 4 );
+        try ( RecordRelationshipTraversalCursor cursor = newTraversalCursor() )
+        {
+            cursor.init( NODE, 0, selection( TYPE2, Direction.BOTH ) );
+            assertThat( cursor.next() ).isTrue();
+            assertThat( cursor.sourceNodeReference() ).isEqualTo( 2 );
+            assertThat( cursor.targetNodeReference() ).isEqualTo( NODE );
+            assertThat( cursor.neighbourNodeReference() ).isEqualTo( 2 );
+            assertThat( cursor.next() ).isFalse();
+        }
+    }
+
+    @Test
+    void shouldApplyCreatedAndDeletedRelationships() throws Exception
+    {
+        // given
+        RelationshipRecord deleted = createRelationship( 0, NODE, 2, TYPE1 );
+        createRelationship( 1, NODE, 3, TYPE1 );
+        openAndStartAdjacencyStore();
+
+        // when
+        RelationshipRecord created = createRelationship( 2, 4, NODE, TYPE2 );
+        try ( RelationshipAdjacencyStore.Updates updates = adjacencyStore.updates() )
+        {
+            updates.deleted( deleted );
+            updates.created( created );
+        }
+
+        // then
+        assertThat( traverse( NODE, ALL_RELATIONSHIPS ).toArray() ).containsExactly( 1, 2 );
+        assertThat( traverse( 2, ALL_RELATIONSHIPS ).toArray() ).isEmpty();
+        assertThat( traverse( 4, ALL_RELATIONSHIPS ).toArray() ).containsExactly( 2 );
+    }
+
+    @Test
+    void shouldLoadPropertiesOfRelationshipWhenAskedFor() throws Exception
+    {
+        // given
+        RelationshipRecord record = createRelationship( 0, NODE, 2, TYPE1 );
+        openAndStartAdjacencyStore();
+        record.setNextProp( 17 );
+        updateRecord( record );
+
+        try ( RecordRelationshipTraversalCursor cursor = newTraversalCursor() )
+        {
+            // when
+            cursor.init( NODE, 0, ALL_RELATIONSHIPS );
+
+            // then
+            assertThat( cursor.next() ).isTrue();
+            assertThat( cursor.hasProperties() ).isTrue();
+            assertThat( cursor.getNextProp() ).isEqualTo( 17 );
+
+            // and when deleted after it was read from the adjacency store
+            cursor.init( NODE, 0, ALL_RELATIONSHIPS );
+            assertThat( cursor.next() ).isTrue();
+            record.setInUse( false );
+            updateRecord( record );
+
+            // then
+            assertThat( cursor.hasProperties() ).isFalse();
+        }
+    }
+
+    @Test
+    void shouldOnlyBuildOnce() throws Exception
+    {
+        // given
+        createRelationship( 0, NODE, 2, TYPE1 );
+        openAndStartAdjacencyStore();
+        adjacencyStore.close();
+
+        // when
+        createRelationship( 1, NODE, 3, TYPE1 );
+        openAndStartAdjacencyStore();
+
+        // then
+        assertThat( traverse( NODE, ALL_RELATIONSHIPS ).toArray() ).containsExactly( 0 );
+    }
+
+    private void openAndStartAdjacencyStore() throws Exception
+    {
+        adjacencyStore = new RelationshipAdjacencyStore( pageCache, databaseLayout.relationshipAdjacencyStore(), immediate(),
+                neoStores.getRelationshipStore(), writable(), PageCacheTracer.NULL, databaseLayout.getDatabaseName(), NullLogProvider.getInstance() );
+        adjacencyStore.start( CursorContext.NULL );
+    }
+
+    private MutableLongList traverse( long node, RelationshipSelection selection )
+    {
+        MutableLongList relationships = LongLists.mutable.empty();
+        try ( RecordRelationshipTraversalCursor cursor = newTraversalCursor() )
+        {
+            cursor.init( node, 0, selection );
+            while ( cursor.next() )
+            {
+                relationships.add( cursor.entityReference() );
+            }
+        }
+        return relationships;
+    }
+
+    private RecordRelationshipTraversalCursor newTraversalCursor()
+    {
+        return new RecordRelationshipTraversalCursor( neoStores.getRelationshipStore(), neoStores.getRelationshipGroupStore(), null, adjacencyStore, null,
+                CursorContext.NULL );
+    }
+
+    private RelationshipRecord createRelationship( long id, long firstNode, long secondNode, int type )
+    {
+        long noNext = NO_NEXT_RELATIONSHIP.longValue();
+        RelationshipRecord record = new RelationshipRecord( id );
+        record.initialize( true, NO_NEXT_PROPERTY.longValue(), firstNode, secondNode, type, noNext, noNext, noNext, noNext, true, true );
+        updateRecord( record );
+        return record;
+    }
+
+    private void updateRecord( RelationshipRecord record )
+    {
+        RelationshipStore relationshipStore = neoStores.getRelationshipStore();
+        try ( var cursor = storeCursors.writeCursor( RELATIONSHIP_CURSOR ) )
+        {
+            relationshipStore.updateRecord( record, cursor, CursorContext.NULL, storeCursors );
+        }
+        relationshipStore.setHighestPossibleIdInUse( Math.max( relationshipStore.getHighestPossibleIdInUse( CursorContext.NULL ), record.getId() ) );
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.eclipse.collections.api.factory.Sets;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.impl.factory.primitive.LongLists;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.internal.id.DefaultIdGeneratorFactory;
+import org.neo4j.internal.recordstorage.RelationshipGroupGetter.RelationshipGroupPosition;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.recordstorage.RecordDatabaseLayout;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.RelationshipGroupStore;
+import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.store.cursor.CachedStoreCursors;
+import org.neo4j.kernel.impl.store.format.standard.Standard;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.RecordLoad;
+import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.storageengine.api.RelationshipSelection;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.Neo4jLayoutExtension;
+import org.neo4j.test.extension.pagecache.PageCacheExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker.writable;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.GROUP_CURSOR;
+import static org.neo4j.internal.recordstorage.RecordCursorTypes.RELATIONSHIP_CURSOR;
+import static org.neo4j.internal.recordstorage.RelationshipGroupGetter.RelationshipGroupMonitor.EMPTY;
+import static org.neo4j.internal.recordstorage.RelationshipReferenceEncoding.encodeDense;
+import static org.neo4j.kernel.impl.store.record.Record.NO_LABELS_FIELD;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_PROPERTY;
+import static org.neo4j.kernel.impl.store.record.Record.NULL_REFERENCE;
+import static org.neo4j.storageengine.api.RelationshipSelection.selection;
+
+@PageCacheExtension
+@Neo4jLayoutExtension
+class RelationshipGroupDirectoryTest
+{
+    private static final long NODE = 1;
+    private static final long OTHER_NODE = 2;
+
+    @Inject
+    private PageCache pageCache;
+    @Inject
+    private FileSystemAbstraction fs;
+    @Inject
+    private RecordDatabaseLayout databaseLayout;
+
+    private NeoStores neoStores;
+    private RelationshipGroupStore groupStore;
+    private CachedStoreCursors storeCursors;
+    private RelationshipGroupDirectory groupDirectory;
+
+    @BeforeEach
+    void setupStores()
+    {
+        DefaultIdGeneratorFactory idGeneratorFactory = new DefaultIdGeneratorFactory( fs, immediate(), databaseLayout.getDatabaseName() );
+        StoreFactory storeFactory = new StoreFactory( databaseLayout, Config.defaults(), idGeneratorFactory, pageCache, fs,
+                Standard.LATEST_RECORD_FORMATS, NullLogProvider.getInstance(), PageCacheTracer.NULL, writable(), Sets.immutable.empty() );
+        neoStores = storeFactory.openAllNeoStores( true );
+        groupStore = spy( neoStores.getRelationshipGroupStore() );
+        storeCursors = new CachedStoreCursors( neoStores, CursorContext.NULL );
+    }
+
+    @AfterEach
+    void shutDownStores() throws Exception
+    {
+        if ( groupDirectory != null )
+        {
+            groupDirectory.close();
+        }
+        storeCursors.close();
+        neoStores.close();
+    }
+
+    @Test
+    void shouldBuildFromGroupStoreAndLookUpGroups() throws Exception
+    {
+        // given
+        RelationshipGroupRecord group2 = group( NODE, 2 );
+        RelationshipGroupRecord group4 = group( NODE, 4 );
+        RelationshipGroupRecord group10 = group( NODE, 10 );
+        linkAndWrite( group2, group4, group10 );
+        RelationshipGroupRecord otherGroup4 = group( OTHER_NODE, 4 );
+        linkAndWrite( otherGroup4 );
+
+        // when
+        openAndStartGroupDirectory();
+
+        // then
+        assertThat( groupDirectory.isBuilt() ).isTrue();
+        try ( RelationshipGroupDirectory.Lookup lookup = groupDirectory.lookup( CursorContext.NULL ) )
+        {
+            assertThat( lookup.group( NODE, 4 ) ).isEqualTo( group4.getId() );
+            assertThat( lookup.group( OTHER_NODE, 4 ) ).isEqualTo( otherGroup4.getId() );
+            assertThat( lookup.group( NODE, 5 ) ).isEqualTo( NULL_REFERENCE.longValue() );
+            assertThat( lookup.closestPrevious( NODE, 10 ) ).isEqualTo( group4.getId() );
+            assertThat( lookup.closestPrevious( NODE, 7 ) ).isEqualTo( group4.getId() );
+            assertThat( lookup.closestPrevious( NODE, 2 ) ).isEqualTo( NULL_REFERENCE.longValue() );
+            assertThat( lookup.closestPrevious( NODE, 100 ) ).isEqualTo( group10.getId() );
+            assertThat( lookup.closestPrevious( OTHER_NODE, 4 ) ).isEqualTo( NULL_REFERENCE.longValue() );
+        }
+    }
+
+    @Test
+    void shouldApplyCreatedAndDeletedGroups() throws Exception
+    {
+        // given
+        RelationshipGroupRecord group2 = group( NODE, 2 );
+        RelationshipGroupRecord group4 = group( NODE, 4 );
+        linkAndWrite( group2, group4 );
+        openAndStartGroupDirectory();
+
+        // when
+        RelationshipGroupRecord group3 = group( NODE, 3 );
+        try ( RelationshipGroupDirectory.Updates updates = groupDirectory.updates() )
+        {
+            updates.deleted( group2 );
+            updates.created( group3 );
+        }
+
+        // then
+        try ( RelationshipGroupDirectory.Lookup lookup = groupDirectory.lookup( CursorContext.NULL ) )
+        {
+            assertThat( lookup.group( NODE, 2 ) ).isEqualTo( NULL_REFERENCE.longValue() );
+            assertThat( lookup.group( NODE, 3 ) ).isEqualTo( group3.getId() );
+            assertThat( lookup.closestPrevious( NODE, 4 ) ).isEqualTo( group3.getId() );
+        }
+    }
+
+    @Test
+    void shouldFindGroupWithoutWalkingTheGroupChain() throws Exception
+    {
+        // given a node with relationship group chain (of types) 2 -> 4 -> 10 -> 23
+        RelationshipGroupRecord group2 = group( NODE, 2 );
+        RelationshipGroupRecord group4 = group( NODE, 4 );
+        RelationshipGroupRecord group10 = group( NODE, 10 );
+        RelationshipGroupRecord group23 = group( NODE, 23 );
+        linkAndWrite( group2, group4, group10, group23 );
+        openAndStartGroupDirectory();
+        clearInvocations( groupStore );
+        NodeRecord node = denseNode( group2 );
+
+        // when
+        RelationshipGroupPosition position;
+        try ( RelationshipGroupGetter groupGetter = new RelationshipGroupGetter( groupStore, CursorContext.NULL, groupDirectory ) )
+        {
+            position = groupGetter.getRelationshipGroup( node, 23, groupRecords(), EMPTY );
+        }
+
+        // then
+        assertThat( position.group().forReadingLinkage() ).isEqualTo( group23 );
+        assertThat( position.group().forReadingLinkage().getPrev() ).isEqualTo( group10.getId() );
+        assertThat( position.closestPrevious().getKey() ).isEqualTo( group10.getId() );
+        verify( groupStore, never() ).getRecordByCursor( eq( group2.getId() ), any( RelationshipGroupRecord.class ), any( RecordLoad.class ), any() );
+        verify( groupStore, never() ).getRecordByCursor( eq( group4.getId() ), any( RelationshipGroupRecord.class ), any( RecordLoad.class ), any() );
+    }
+
+    @Test
+    void shouldSeeGroupsThatTheDirectoryDoesNotKnowAbout() throws Exception
+    {
+        // given a node with relationship group chain (of types) 2 -> 10, and a transaction which inserts 5 in between
+        RelationshipGroupRecord group2 = group( NODE, 2 );
+        RelationshipGroupRecord group10 = group( NODE, 10 );
+        linkAndWrite( group2, group10 );
+        openAndStartGroupDirectory();
+        RecordAccess<RelationshipGroupRecord,Integer> groupRecords = groupRecords();
+        RecordAccess.RecordProxy<NodeRecord,Void> nodeChange = new DirectRecordAccess<>( neoStores.getNodeStore(),
+                Loaders.nodeLoader( neoStores.getNodeStore(), storeCursors ), CursorContext.NULL, RecordCursorTypes.NODE_CURSOR, storeCursors )
+                .create( NODE, null, CursorContext.NULL );
+        nodeChange.forChangingData().initialize( true, NULL_REFERENCE.longValue(), true, group2.getId(), NO_LABELS_FIELD.longValue() );
+
+        try ( RelationshipGroupGetter groupGetter = new RelationshipGroupGetter( groupStore, CursorContext.NULL, groupDirectory ) )
+        {
+            RelationshipGroupRecord group5 = groupGetter.getOrCreateRelationshipGroup( nodeChange, 5, groupRecords ).forReadingLinkage();
+
+            // when
+            RelationshipGroupPosition position7 = groupGetter.getRelationshipGroup( nodeChange.forReadingLinkage(), 7, groupRecords, EMPTY );
+            RelationshipGroupPosition position5 = groupGetter.getRelationshipGroup( nodeChange.forReadingLinkage(), 5, groupRecords, EMPTY );
+
+            // then
+            assertThat( position7.group() ).isNull();
+            assertThat( position7.closestPrevious().getKey() ).isEqualTo( group5.getId() );
+            assertThat( position5.group().getKey() ).isEqualTo( group5.getId() );
+            assertThat( position5.closestPrevious().getKey() ).isEqualTo( group2.getId() );
+        }
+    }
+
+    @Test
+    void shouldTraverseOnlyGroupsOfSelectedTypes() throws Exception
+    {
+        // given a node with relationship group chain (of types) 2 -> 4 -> 10, with one outgoing relationship in each group
+        RelationshipGroupRecord group2 = groupWithRelationship( 0, 2 );
+        RelationshipGroupRecord group4 = groupWithRelationship( 1, 4 );
+        RelationshipGroupRecord group10 = groupWithRelationship( 2, 10 );
+        linkAndWrite( group2, group4, group10 );
+        openAndStartGroupDirectory();
+        clearInvocations( groupStore );
+
+        // when
+        MutableLongList relationships = traverse( group2, selection( new int[]{10, 3, 2}, Direction.OUTGOING ) );
+
+        // then
+        assertThat( relationships.toArray() ).containsExactly( 0, 2 );
+        verify( groupStore, never() ).getRecordByCursor( eq( group4.getId() ), any( RelationshipGroupRecord.class ), any( RecordLoad.class ), any() );
+    }
+
+    @Test
+    void shouldWalkGroupChainIfDirectoryDoesNotAgreeWithGroups() throws Exception
+    {
+        // given a directory which still points to a group that has since been deleted and had its id reused by another node
+        RelationshipGroupRecord group2 = groupWithRelationship( 0, 2 );
+        RelationshipGroupRecord group4 = groupWithRelationship( 1, 4 );
+        linkAndWrite( group2, group4 );
+        openAndStartGroupDirectory();
+        RelationshipGroupRecord replacement = groupWithRelationship( 2, 4 );
+        linkAndWrite( group2, replacement );
+        group4.setOwningNode( OTHER_NODE );
+        linkAndWrite( group4 );
+
+        // when
+        MutableLongList relationships = traverse( group2, selection( 4, Direction.OUTGOING ) );
+
+        // then
+        assertThat( relationships.toArray() ).containsExactly( 2 );
+    }
+
+    private void openAndStartGroupDirectory() throws Exception
+    {
+        groupDirectory = new RelationshipGroupDirectory( pageCache, databaseLayout.relationshipGroupDirectory(), immediate(), groupStore, writable(),
+                PageCacheTracer.NULL, databaseLayout.getDatabaseName(), NullLogProvider.getInstance() );
+        groupDirectory.start( CursorContext.NULL );
+    }
+
+    private RecordAccess<RelationshipGroupRecord,Integer> groupRecords()
+    {
+        return new DirectRecordAccess<>( groupStore, Loaders.relationshipGroupLoader( groupStore, storeCursors ), CursorContext.NULL, GROUP_CURSOR,
+                storeCursors );
+    }
+
+    private MutableLongList traverse( RelationshipGroupRecord firstGroup, RelationshipSelection selection )
+    {
+        MutableLongList relationships = LongLists.mutable.empty();
+        try ( RecordRelationshipTraversalCursor cursor = new RecordRelationshipTraversalCursor( neoStores.getRelationshipStore(), groupStore, null, null,
+                groupDirectory, CursorContext.NULL ) )
+        {
+            cursor.init( NODE, encodeDense( firstGroup.getId() ), selection );
+            while ( cursor.next() )
+            {
+                relationships.add( cursor.entityReference() );
+            }
+        }
+        return relationships;
+    }
+
+    private static NodeRecord denseNode( RelationshipGroupRecord firstGroup )
+    {
+        return new NodeRecord( NODE ).initialize( true, NULL_REFERENCE.longValue(), true, firstGroup.getId(), NO_LABELS_FIELD.longValue() );
+    }
+
+    private RelationshipGroupRecord groupWithRelationship( long relationshipId, int type )
+    {
+        RelationshipRecord relationship = new RelationshipRecord( relationshipId );
+        relationship.initialize( true, NO_NEXT_PROPERTY.longValue(), NODE, OTHER_NODE, type, 1, NULL_REFERENCE.longValue(), 1, NULL_REFERENCE.longValue(),
+                true, true );
+        try ( var cursor = storeCursors.writeCursor( RELATIONSHIP_CURSOR ) )
+        {
+            neoStores.getRelationshipStore().updateRecord( relationship, cursor, CursorContext.NULL, storeCursors );
+        }
+        RelationshipGroupRecord group = group( NODE, type );
+        group.setFirstOut( relationshipId );
+        return group;
+    }
+
+    private RelationshipGroupRecord group( long node, int type )
+    {
+        return new RelationshipGroupRecord( groupStore.nextId( CursorContext.NULL ) )
+                .initialize( true, type, NULL_REFERENCE.longValue(), NULL_REFERENCE.longValue(), NULL_REFERENCE.longValue(), node,
+                        NULL_REFERENCE.longValue() );
+    }
+
+    private void linkAndWrite( RelationshipGroupRecord... groups )
+    {
+        for ( int i = 0; i < groups.length; i++ )
+        {
+            groups[i].setNext( i < groups.length - 1 ? groups[i + 1].getId() : NULL_REFERENCE.longValue() );
+        }
+        try ( var cursor = storeCursors.writeCursor( GROUP_CURSOR ) )
+        {
+            for ( RelationshipGroupRecord group : groups )
+            {
+                groupStore.updateRecord( group, cursor, CursorContext.NULL, storeCursors );
+            }
+        }
+    }
+}
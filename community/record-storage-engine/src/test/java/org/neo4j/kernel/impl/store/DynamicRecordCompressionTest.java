@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.internal.recordstorage.InconsistentDataReadException;
+import org.neo4j.kernel.impl.store.record.DynamicRecord;
+import org.neo4j.test.RandomSupport;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.DurationValue;
+import org.neo4j.values.storable.PointValue;
+import org.neo4j.values.storable.ValueType;
+import org.neo4j.values.storable.Values;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+import static org.neo4j.kernel.impl.store.DynamicRecordCompression.COMPRESSED_MARKER;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+
+@ExtendWith( RandomExtension.class )
+class DynamicRecordCompressionTest
+{
+    @Inject
+    private RandomSupport random;
+
+    @Test
+    void numberArrayHeadersShouldNotStartWithCompressedMarker()
+    {
+        for ( ShortArray type : ShortArray.values() )
+        {
+            assertThat( (byte) type.intValue() ).as( type.name() ).isNotEqualTo( COMPRESSED_MARKER );
+        }
+        assertNotCompressedMarker( new boolean[]{true, false} );
+        assertNotCompressedMarker( new byte[]{-1, -1} );
+        assertNotCompressedMarker( new short[]{-1, Short.MAX_VALUE} );
+        assertNotCompressedMarker( new char[]{'￿', 'a'} );
+        assertNotCompressedMarker( new int[]{-1, Integer.MIN_VALUE} );
+        assertNotCompressedMarker( new long[]{-1, Long.MAX_VALUE} );
+        assertNotCompressedMarker( new float[]{-1, Float.NaN} );
+        assertNotCompressedMarker( new double[]{-1, Double.MAX_VALUE} );
+        assertNotCompressedMarker( new Byte[]{-1, -1} );
+    }
+
+    @Test
+    void stringArrayHeaderShouldNotStartWithCompressedMarker()
+    {
+        assertNotCompressedMarker( new String[]{"￿", random.nextString()} );
+        assertNotCompressedMarker( new String[0] );
+    }
+
+    @Test
+    void pointArrayHeadersShouldNotStartWithCompressedMarker()
+    {
+        for ( CoordinateReferenceSystem crs : CoordinateReferenceSystem.all() )
+        {
+            double[] coordinate = new double[crs.getDimension()];
+            assertNotCompressedMarker( new PointValue[]{Values.pointValue( crs, coordinate ), Values.pointValue( crs, coordinate )} );
+        }
+    }
+
+    @Test
+    void temporalArrayHeadersShouldNotStartWithCompressedMarker()
+    {
+        assertNotCompressedMarker( new LocalDate[]{LocalDate.MAX, LocalDate.MIN} );
+        assertNotCompressedMarker( new LocalTime[]{LocalTime.MAX, LocalTime.MIN} );
+        assertNotCompressedMarker( new LocalDateTime[]{LocalDateTime.MAX, LocalDateTime.MIN} );
+        assertNotCompressedMarker( new OffsetTime[]{OffsetTime.MAX, OffsetTime.MIN} );
+        assertNotCompressedMarker( new ZonedDateTime[]{ZonedDateTime.of( LocalDateTime.MAX, ZoneOffset.MAX )} );
+        assertNotCompressedMarker( new DurationValue[]{DurationValue.duration( -1, -1, -1, -1 )} );
+    }
+
+    @Test
+    void stringEncodingShouldNotStartWithCompressedMarker()
+    {
+        assertThat( PropertyStore.encodeString( "￿" )[0] ).isNotEqualTo( COMPRESSED_MARKER );
+        for ( int i = 0; i < 1_000; i++ )
+        {
+            String string = random.nextValue( ValueType.STRING ).asObject().toString();
+            byte[] encoded = PropertyStore.encodeString( string );
+            for ( byte b : encoded )
+            {
+                assertThat( b ).as( string ).isNotEqualTo( COMPRESSED_MARKER );
+            }
+        }
+    }
+
+    @Test
+    void shouldRoundTripCompressedPayload()
+    {
+        byte[] payload = "{\"name\":\"value\"}".repeat( 100 ).getBytes();
+
+        byte[] compressed = DynamicRecordCompression.compress( payload, 1 );
+
+        assertThat( DynamicRecordCompression.isCompressed( compressed, compressed.length ) ).isTrue();
+        assertThat( compressed.length ).isLessThan( payload.length );
+        assertThat( DynamicRecordCompression.decompress( compressed, compressed.length ) ).isEqualTo( payload );
+    }
+
+    @Test
+    void shouldNotCompressPayloadBelowThresholdOrWhenDisabled()
+    {
+        byte[] payload = "{\"name\":\"value\"}".repeat( 100 ).getBytes();
+
+        assertThat( DynamicRecordCompression.compress( payload, payload.length + 1 ) ).isSameAs( payload );
+        assertThat( DynamicRecordCompression.compress( payload, 0 ) ).isSameAs( payload );
+    }
+
+    @Test
+    void shouldRejectUncompressedPayloadStartingWithCompressedMarker()
+    {
+        byte[] payload = new byte[]{COMPRESSED_MARKER, 1, 2, 3};
+
+        assertThatThrownBy( () -> DynamicRecordCompression.compress( payload, 0 ) ).isInstanceOf( IllegalArgumentException.class );
+        assertThatThrownBy( () -> DynamicRecordCompression.compress( payload, 1 ) ).isInstanceOf( IllegalArgumentException.class );
+    }
+
+    @Test
+    void shouldFailOnCorruptCompressedPayload()
+    {
+        byte[] compressed = DynamicRecordCompression.compress( "{\"name\":\"value\"}".repeat( 100 ).getBytes(), 1 );
+        compressed[compressed.length / 2] ^= 0x5A;
+        compressed[compressed.length / 2 + 1] ^= 0x5A;
+
+        assertThatThrownBy( () -> DynamicRecordCompression.decompress( compressed, 3 ) ).isInstanceOf( InconsistentDataReadException.class );
+        assertThatThrownBy( () -> DynamicRecordCompression.decompress( compressed, compressed.length ) )
+                .isInstanceOf( InconsistentDataReadException.class );
+    }
+
+    private static void assertNotCompressedMarker( Object array )
+    {
+        List<DynamicRecord> records = new ArrayList<>();
+        DynamicArrayStore.allocateRecords( records, array, new StandaloneDynamicRecordAllocator(), true, 0, NULL, INSTANCE );
+        assertThat( records ).isNotEmpty();
+        assertThat( records.get( 0 ).getData()[0] ).as( array.getClass().getSimpleName() ).isNotEqualTo( COMPRESSED_MARKER );
+    }
+}
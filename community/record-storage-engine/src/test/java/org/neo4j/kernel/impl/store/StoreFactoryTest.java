@@ -34,6 +34,7 @@ import org.neo4j.internal.id.IdGeneratorFactory;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.recordstorage.RecordDatabaseLayout;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.impl.store.format.RecordFormats;
@@ -50,6 +51,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.neo4j.configuration.Config.defaults;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.store_open_parallelism;
 import static org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker.writable;
 import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
 import static org.neo4j.io.pagecache.tracing.PageCacheTracer.NULL;
@@ -129,6 +131,29 @@ class StoreFactoryTest
         assertEquals( metaDataStore.getUpgradeTransaction(), metaDataStore.getLastCommittedTransaction() );
     }
 
+    @Test
+    void shouldOpenStoresInParallel() throws IOException
+    {
+        // given
+        Config config = defaults( store_open_parallelism, 4 );
+        neoStores = storeFactory( config, NULL ).openAllNeoStores( true );
+        neoStores.getNodeStore().setHighId( 10 );
+        neoStores.getPropertyStore().getStringStore().setHighId( 20 );
+        neoStores.flush( CursorContext.NULL );
+        neoStores.close();
+
+        // when
+        neoStores = storeFactory( config, NULL ).openAllNeoStores();
+
+        // then
+        for ( StoreType type : StoreType.values() )
+        {
+            assertThat( neoStores.getRecordStore( type ) ).isNotNull();
+        }
+        assertEquals( 10, neoStores.getNodeStore().getHighId() );
+        assertEquals( 20, neoStores.getPropertyStore().getStringStore().getHighId() );
+    }
+
     @Test
     void shouldThrowWhenOpeningNonExistingNeoStores()
     {
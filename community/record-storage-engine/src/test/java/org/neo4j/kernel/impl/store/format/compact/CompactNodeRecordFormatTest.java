@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.format.compact;
+
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.Record;
+import org.neo4j.kernel.impl.store.record.RecordLoad;
+import org.neo4j.values.storable.Values;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+import static org.neo4j.kernel.impl.store.NoStoreHeader.NO_STORE_HEADER;
+
+class CompactNodeRecordFormatTest
+{
+    private final CompactNodeRecordFormat format = new CompactNodeRecordFormat();
+    private final int recordSize = format.getRecordSize( NO_STORE_HEADER );
+    private final PageCursor cursor = ByteArrayPageCursor.wrap( recordSize * 2 );
+
+    @Test
+    void shouldReadCopyOfFirstPropertyRecordTogetherWithNode()
+    {
+        // given
+        writeNode( 1, 10 );
+        PropertyRecord property = property( 10, 123 );
+
+        // when
+        updateInlinedProperty( 1, property );
+
+        // then
+        PropertyRecord inlined = readNode( 1 ).getInlinedProperty();
+        assertThat( inlined ).isNotNull();
+        assertThat( inlined.getId() ).isEqualTo( 10 );
+        assertThat( inlined.getNumberOfBlocks() ).isEqualTo( 1 );
+        assertThat( inlined.getBlocks()[0] ).isEqualTo( property.iterator().next().getSingleValueBlock() );
+    }
+
+    @Test
+    void shouldKeepCopyWhenNodeRecordIsWritten()
+    {
+        // given
+        writeNode( 1, 10 );
+        updateInlinedProperty( 1, property( 10, 123 ) );
+
+        // when
+        writeNode( 1, 10 );
+
+        // then
+        assertThat( readNode( 1 ).getInlinedProperty() ).isNotNull();
+    }
+
+    @Test
+    void shouldNotUseCopyOfOtherRecordThanTheFirstOne()
+    {
+        // given
+        writeNode( 1, 10 );
+        updateInlinedProperty( 1, property( 10, 123 ) );
+
+        // when a property record is added in front of the copied one
+        writeNode( 1, 11 );
+
+        // then
+        assertThat( readNode( 1 ).getInlinedProperty() ).isNull();
+    }
+
+    @Test
+    void shouldNotCopyRecordWhichIsNotTheFirstOne()
+    {
+        // given
+        writeNode( 1, 10 );
+
+        // when
+        updateInlinedProperty( 1, property( 11, 123 ) );
+
+        // then
+        assertThat( readNode( 1 ).getInlinedProperty() ).isNull();
+    }
+
+    @Test
+    void shouldRemoveCopyWhenCopiedRecordIsDeleted()
+    {
+        // given
+        writeNode( 1, 10 );
+        updateInlinedProperty( 1, property( 10, 123 ) );
+        PropertyRecord deleted = new PropertyRecord( 10 );
+        deleted.setInUse( false );
+
+        // when
+        updateInlinedProperty( 1, deleted );
+
+        // then
+        assertThat( readNode( 1 ).getInlinedProperty() ).isNull();
+    }
+
+    @Test
+    void shouldRemoveCopyWhenNodeHasNoProperties()
+    {
+        // given
+        writeNode( 1, 10 );
+        updateInlinedProperty( 1, property( 10, 123 ) );
+
+        // when
+        updateInlinedProperty( 1, null );
+        writeNode( 1, 10 );
+
+        // then
+        assertThat( readNode( 1 ).getInlinedProperty() ).isNull();
+    }
+
+    @Test
+    void shouldNotTouchCopyOfNeighbourRecord()
+    {
+        // given
+        writeNode( 0, 20 );
+        writeNode( 1, 10 );
+        updateInlinedProperty( 0, property( 20, 1 ) );
+        updateInlinedProperty( 1, property( 10, 2 ) );
+
+        // when
+        updateInlinedProperty( 1, null );
+
+        // then
+        assertThat( readNode( 0 ).getInlinedProperty() ).isNotNull();
+        assertThat( readNode( 1 ).getInlinedProperty() ).isNull();
+    }
+
+    private void writeNode( long id, long nextProp )
+    {
+        NodeRecord node = new NodeRecord( id ).initialize( true, nextProp, false, Record.NO_NEXT_RELATIONSHIP.longValue(), 0 );
+        cursor.setOffset( offset( id ) );
+        format.write( node, cursor, recordSize, 2 );
+    }
+
+    private NodeRecord readNode( long id )
+    {
+        NodeRecord node = new NodeRecord( id );
+        cursor.setOffset( offset( id ) );
+        format.read( node, cursor, RecordLoad.NORMAL, recordSize, 2 );
+        assertThat( cursor.getOffset() ).isEqualTo( offset( id ) + recordSize );
+        return node;
+    }
+
+    private void updateInlinedProperty( long nodeId, PropertyRecord property )
+    {
+        cursor.setOffset( offset( nodeId ) );
+        format.updateInlinedProperty( property, cursor );
+    }
+
+    private int offset( long id )
+    {
+        return (int) id * recordSize;
+    }
+
+    private static PropertyRecord property( long id, int value )
+    {
+        PropertyRecord record = new PropertyRecord( id );
+        record.initialize( true, Record.NO_PREVIOUS_PROPERTY.longValue(), Record.NO_NEXT_PROPERTY.longValue() );
+        PropertyBlock block = new PropertyBlock();
+        PropertyStore.encodeValue( block, 0, Values.intValue( value ), null, null, true, CursorContext.NULL, INSTANCE );
+        record.addPropertyBlock( block );
+        return record;
+    }
+}
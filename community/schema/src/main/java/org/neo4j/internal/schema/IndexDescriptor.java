@@ -27,8 +27,11 @@ import java.util.stream.Stream;
 
 import org.neo4j.common.EntityType;
 import org.neo4j.common.TokenNameLookup;
+import org.neo4j.values.storable.IntArray;
+import org.neo4j.values.storable.Value;
 
 import static java.util.Objects.requireNonNull;
+import static org.apache.commons.lang3.ArrayUtils.EMPTY_INT_ARRAY;
 import static org.neo4j.internal.schema.SchemaUserDescription.TOKEN_ID_NAME_LOOKUP;
 
 public final class IndexDescriptor implements IndexRef<IndexDescriptor>, SchemaRule
@@ -46,6 +49,10 @@ public final class IndexDescriptor implements IndexRef<IndexDescriptor>, SchemaR
                                                                      .withIndexType( IndexType.LOOKUP )
                                                                      .withName( IndexDescriptor.NLI_GENERATED_NAME );
     public static final IndexDescriptor INJECTED_NLI = NLI_PROTOTYPE.materialise( IndexDescriptor.INJECTED_NLI_ID );
+    /**
+     * The index config setting holding the ids of the {@link #includedPropertyIds() included properties} of a range index, as an int array.
+     */
+    public static final String INCLUDED_PROPERTIES = "range.included_properties";
 
     private final long id;
     private final String name;
@@ -56,6 +63,7 @@ public final class IndexDescriptor implements IndexRef<IndexDescriptor>, SchemaR
     private final IndexCapability capability;
     private final IndexType indexType;
     private final IndexConfig indexConfig;
+    private final int[] includedPropertyIds;
 
     IndexDescriptor( long id, IndexPrototype prototype )
     {
@@ -87,6 +95,7 @@ public final class IndexDescriptor implements IndexRef<IndexDescriptor>, SchemaR
         this.capability = capability;
         this.indexType = indexType;
         this.indexConfig = indexConfig;
+        this.includedPropertyIds = indexType == IndexType.RANGE ? includedPropertyIds( indexConfig ) : EMPTY_INT_ARRAY;
     }
 
     /**
@@ -103,6 +112,16 @@ public final class IndexDescriptor implements IndexRef<IndexDescriptor>, SchemaR
         this.capability = IndexCapability.NO_CAPABILITY;
         this.indexType = IndexType.BTREE;
         this.indexConfig = IndexConfig.empty();
+        this.includedPropertyIds = EMPTY_INT_ARRAY;
+    }
+
+    /**
+     * @return the {@link #INCLUDED_PROPERTIES included property ids} set in the given index config, or an empty array if there are none.
+     */
+    public static int[] includedPropertyIds( IndexConfig indexConfig )
+    {
+        Value value = indexConfig.get( INCLUDED_PROPERTIES );
+        return value instanceof IntArray ? ((IntArray) value).asObjectCopy() : EMPTY_INT_ARRAY;
     }
 
     @Override
@@ -111,6 +130,12 @@ public final class IndexDescriptor implements IndexRef<IndexDescriptor>, SchemaR
         return schema;
     }
 
+    @Override
+    public int[] includedPropertyIds()
+    {
+        return includedPropertyIds;
+    }
+
     @Override
     public boolean isUnique()
     {
@@ -21,10 +21,23 @@ package org.neo4j.internal.schema;
 
 import org.neo4j.common.TokenNameLookup;
 
+import static org.apache.commons.lang3.ArrayUtils.EMPTY_INT_ARRAY;
+
 public interface SchemaDescriptorSupplier
 {
     SchemaDescriptor schema();
 
+    /**
+     * Properties whose values are stored together with each entry of a value index, without being part of what the index is keyed and ordered by.
+     * Entities are indexed regardless of whether they have these properties or not.
+     *
+     * @return ids of the included properties, in the order their values follow the values of the {@link #schema() schema} properties in index updates.
+     */
+    default int[] includedPropertyIds()
+    {
+        return EMPTY_INT_ARRAY;
+    }
+
     /**
      * Produce a user-friendly description of this schema entity.
      *
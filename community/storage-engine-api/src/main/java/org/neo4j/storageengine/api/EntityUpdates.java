@@ -41,6 +41,7 @@ import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.memory.MemoryTracker;
 import org.neo4j.storageengine.api.cursor.StoreCursors;
 import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
 
 import static java.lang.String.format;
 import static org.neo4j.collection.PrimitiveLongCollections.EMPTY_LONG_ARRAY;
@@ -197,7 +198,7 @@ public class EntityUpdates
     public <INDEX_KEY extends SchemaDescriptorSupplier> Iterable<IndexEntryUpdate<INDEX_KEY>> valueUpdatesForIndexKeys(
             Iterable<INDEX_KEY> indexKeys )
     {
-        Iterable<INDEX_KEY> potentiallyRelevant = Iterables.filter( indexKey -> atLeastOneRelevantChange( indexKey.schema() ), indexKeys );
+        Iterable<INDEX_KEY> potentiallyRelevant = Iterables.filter( this::atLeastOneRelevantChange, indexKeys );
 
         return gatherUpdatesForPotentials( potentiallyRelevant );
     }
@@ -225,10 +226,11 @@ public class EntityUpdates
 
         for ( INDEX_KEY indexKey : indexKeys )
         {
-            if ( atLeastOneRelevantChange( indexKey.schema() ) )
+            if ( atLeastOneRelevantChange( indexKey ) )
             {
                 potentiallyRelevant.add( indexKey );
-                gatherPropsToLoad( indexKey.schema(), additionalPropertiesToLoad );
+                gatherPropsToLoad( indexKey.schema().getPropertyIds(), additionalPropertiesToLoad );
+                gatherPropsToLoad( indexKey.includedPropertyIds(), additionalPropertiesToLoad );
             }
         }
 
@@ -251,19 +253,21 @@ public class EntityUpdates
             boolean relevantBefore = relevantBefore( schema );
             boolean relevantAfter = relevantAfter( schema );
             int[] propertyIds = schema.getPropertyIds();
+            int[] includedPropertyIds = indexKey.includedPropertyIds();
             if ( relevantBefore && !relevantAfter )
             {
-                indexUpdates.add( IndexEntryUpdate.remove( entityId, indexKey, valuesBefore( propertyIds ) ) );
+                indexUpdates.add( IndexEntryUpdate.remove( entityId, indexKey, valuesBefore( propertyIds, includedPropertyIds ) ) );
             }
             else if ( !relevantBefore && relevantAfter )
             {
-                indexUpdates.add( IndexEntryUpdate.add( entityId, indexKey, valuesAfter( propertyIds ) ) );
+                indexUpdates.add( IndexEntryUpdate.add( entityId, indexKey, valuesAfter( propertyIds, includedPropertyIds ) ) );
             }
             else if ( relevantBefore && relevantAfter )
             {
-                if ( valuesChanged( propertyIds, schema.propertySchemaType() ) )
+                if ( valuesChanged( propertyIds, schema.propertySchemaType() ) || includedValuesChanged( includedPropertyIds ) )
                 {
-                    indexUpdates.add( IndexEntryUpdate.change( entityId, indexKey, valuesBefore( propertyIds ), valuesAfter( propertyIds ) ) );
+                    indexUpdates.add( IndexEntryUpdate.change( entityId, indexKey, valuesBefore( propertyIds, includedPropertyIds ),
+                            valuesAfter( propertyIds, includedPropertyIds ) ) );
                 }
             }
         }
@@ -343,9 +347,9 @@ public class EntityUpdates
         }
     }
 
-    private void gatherPropsToLoad( SchemaDescriptor schema, MutableIntSet target )
+    private void gatherPropsToLoad( int[] propertyIds, MutableIntSet target )
     {
-        for ( int propertyId : schema.getPropertyIds() )
+        for ( int propertyId : propertyIds )
         {
             if ( knownProperties.get( propertyId ) == null )
             {
@@ -354,22 +358,28 @@ public class EntityUpdates
         }
     }
 
-    private boolean atLeastOneRelevantChange( SchemaDescriptor schema )
+    private boolean atLeastOneRelevantChange( SchemaDescriptorSupplier indexKey )
     {
+        SchemaDescriptor schema = indexKey.schema();
         boolean affectedBefore = schema.isAffected( entityTokensBefore );
         boolean affectedAfter = schema.isAffected( entityTokensAfter );
         if ( affectedBefore && affectedAfter )
         {
-            for ( int propertyId : schema.getPropertyIds() )
+            return anyKnown( schema.getPropertyIds() ) || anyKnown( indexKey.includedPropertyIds() );
+        }
+        return affectedBefore || affectedAfter;
+    }
+
+    private boolean anyKnown( int[] propertyIds )
+    {
+        for ( int propertyId : propertyIds )
+        {
+            if ( knownProperties.containsKey( propertyId ) )
             {
-                if ( knownProperties.containsKey( propertyId ) )
-                {
-                    return true;
-                }
+                return true;
             }
-            return false;
         }
-        return affectedBefore || affectedAfter;
+        return false;
     }
 
     private boolean hasPropsBefore( int[] propertyIds, PropertySchemaType propertySchemaType )
@@ -414,24 +424,34 @@ public class EntityUpdates
         return found;
     }
 
-    private Value[] valuesBefore( int[] propertyIds )
+    private Value[] valuesBefore( int[] propertyIds, int[] includedPropertyIds )
     {
-        Value[] values = new Value[propertyIds.length];
+        Value[] values = new Value[propertyIds.length + includedPropertyIds.length];
         for ( int i = 0; i < propertyIds.length; i++ )
         {
             values[i] = knownProperties.get( propertyIds[i] ).before;
         }
+        for ( int i = 0; i < includedPropertyIds.length; i++ )
+        {
+            PropertyValue propertyValue = knownProperties.get( includedPropertyIds[i] );
+            values[propertyIds.length + i] = propertyValue == null || propertyValue.before == null ? Values.NO_VALUE : propertyValue.before;
+        }
         return values;
     }
 
-    private Value[] valuesAfter( int[] propertyIds )
+    private Value[] valuesAfter( int[] propertyIds, int[] includedPropertyIds )
     {
-        Value[] values = new Value[propertyIds.length];
+        Value[] values = new Value[propertyIds.length + includedPropertyIds.length];
         for ( int i = 0; i < propertyIds.length; i++ )
         {
             PropertyValue propertyValue = knownProperties.get( propertyIds[i] );
             values[i] = propertyValue == null ? null : propertyValue.after;
         }
+        for ( int i = 0; i < includedPropertyIds.length; i++ )
+        {
+            PropertyValue propertyValue = knownProperties.get( includedPropertyIds[i] );
+            values[propertyIds.length + i] = propertyValue == null || propertyValue.after == null ? Values.NO_VALUE : propertyValue.after;
+        }
         return values;
     }
 
@@ -467,6 +487,22 @@ public class EntityUpdates
         }
     }
 
+    /**
+     * Included properties don't decide whether an entity is indexed, but any change to them must be reflected in the index entry.
+     */
+    private boolean includedValuesChanged( int[] includedPropertyIds )
+    {
+        for ( int propertyId : includedPropertyIds )
+        {
+            PropertyValue propertyValue = knownProperties.get( propertyId );
+            if ( propertyValue != null && propertyValue.type != UnChanged && propertyValue.type != NoValue )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public String toString()
     {
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.storageengine.api;
+
+/**
+ * Receives the values of a node property column, see {@link StorageReader#scanNodePropertyColumn(int, int, NodePropertyColumnVisitor,
+ * org.neo4j.io.pagecache.context.CursorContext)}. Values are handed over as primitives so that aggregating over them doesn't create garbage.
+ */
+public interface NodePropertyColumnVisitor
+{
+    /**
+     * Receives a value of an integral type, i.e. byte, short, int or long.
+     */
+    void integral( long nodeId, long value );
+
+    /**
+     * Receives a value of a floating point type, i.e. float or double.
+     */
+    void floatingPoint( long nodeId, double value );
+}
@@ -21,6 +21,7 @@ package org.neo4j.storageengine.api;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import org.neo4j.counts.CountsAccessor;
@@ -118,6 +119,22 @@ public interface StorageEngine extends Lifecycle
      */
     List<StorageCommand> createUpgradeCommands( KernelVersion versionToUpgradeTo, InjectedNLIUpgradeCallback injectedNLIUpgradeCallback );
 
+    /**
+     * Generates a list of {@link StorageCommand commands} rewriting the storage of the given node into a more compact layout,
+     * e.g. after deletions and updates have spread its data out over many records and pages. The commands must not change the
+     * logical contents of the node. The caller is expected to hold an exclusive lock on the node from the point of calling this
+     * method until the commands have been applied.
+     * @param nodeId id of the node to compact.
+     * @param cursorContext underlying page cursor context.
+     * @param storeCursors store cursors to read the node with.
+     * @return commands for compacting the node, or an empty list if the node doesn't exist, is already compact or
+     * if this storage engine doesn't support compaction.
+     */
+    default List<StorageCommand> createNodeCompactionCommands( long nodeId, CursorContext cursorContext, StoreCursors storeCursors )
+    {
+        return Collections.emptyList();
+    }
+
     /**
      * Claims exclusive locks for some records whilst performing recovery.
      * Note: only used when {@code unsupported.dbms.recovery.enable_parallelism=true}
@@ -105,6 +105,36 @@ public interface StorageReader extends AutoCloseable, StorageSchemaReader
      */
     long countsForRelationship( int startLabelId, int typeId, int endLabelId, CursorContext cursorContext );
 
+    /**
+     * Returns number of stored nodes labeled with the label represented by {@code labelId} which have the property represented by
+     * {@code propertyKeyId}, if such statistics are kept by the storage.
+     *
+     * @param labelId label id to match.
+     * @param propertyKeyId property key id to match.
+     * @param cursorContext underlying page cursor context
+     * @return number of stored nodes with this label and property, or {@code -1} if that isn't known.
+     */
+    default long countsForNodeWithProperty( int labelId, int propertyKeyId, CursorContext cursorContext )
+    {
+        return -1;
+    }
+
+    /**
+     * Estimates the number of stored nodes labeled with the label represented by {@code labelId} which have a numeric value for the
+     * property represented by {@code propertyKeyId} between {@code from} and {@code to}, inclusive, if such statistics are kept by the storage.
+     *
+     * @param labelId label id to match.
+     * @param propertyKeyId property key id to match.
+     * @param from lower bound of the values to match, inclusive.
+     * @param to upper bound of the values to match, inclusive.
+     * @param cursorContext underlying page cursor context
+     * @return estimated number of stored nodes with this label and a value in the range, or {@code -1} if that isn't known.
+     */
+    default double estimateCountsForNodeWithPropertyInRange( int labelId, int propertyKeyId, double from, double to, CursorContext cursorContext )
+    {
+        return -1;
+    }
+
     long nodesGetCount( CursorContext cursorContext );
 
     long relationshipsGetCount( CursorContext cursorTracer );
@@ -153,6 +183,52 @@ public interface StorageReader extends AutoCloseable, StorageSchemaReader
      */
     StorageRelationshipScanCursor allocateRelationshipScanCursor( CursorContext cursorContext, StoreCursors storeCursors );
 
+    /**
+     * Decides the order in which a batch of entities is cheapest to read from the underlying storage, e.g. so that entities stored close
+     * to each other are read one after the other. Reading a batch in this order lets a storage cursor stay on the same page for as long as
+     * possible instead of going back and forth between pages.
+     *
+     * @param entityType type of the entities referenced by {@code references}.
+     * @param references references to the entities to read, these are not modified.
+     * @param count number of references, from the start of {@code references}, to order.
+     * @param order array which will be filled with indexes into {@code references}, in the order they should be read.
+     * The default implementation keeps the order they're given in.
+     */
+    default void batchReadOrder( EntityType entityType, long[] references, int count, int[] order )
+    {
+        for ( int i = 0; i < count; i++ )
+        {
+            order[i] = i;
+        }
+    }
+
+    /**
+     * @param label label id of the nodes.
+     * @param propertyKey property key id of the property.
+     * @return whether or not the values of property {@code propertyKey} of all nodes with label {@code label} are kept as a column,
+     * which can be scanned using {@link #scanNodePropertyColumn(int, int, NodePropertyColumnVisitor, CursorContext)}.
+     */
+    default boolean hasNodePropertyColumn( int label, int propertyKey )
+    {
+        return false;
+    }
+
+    /**
+     * Visits the values of property {@code propertyKey} of all nodes with label {@code label}, in node id order, without reading the nodes
+     * or their property chains. Only committed data is visited, i.e. the caller needs to take transaction state into account itself.
+     * Columns only contain numeric values, nodes with a value of another type for the property aren't visited.
+     *
+     * @param label label id of the nodes.
+     * @param propertyKey property key id of the property.
+     * @param visitor receives the node ids and values.
+     * @param cursorContext underlying page cursor context.
+     * @throws UnsupportedOperationException if there's no such column, see {@link #hasNodePropertyColumn(int, int)}.
+     */
+    default void scanNodePropertyColumn( int label, int propertyKey, NodePropertyColumnVisitor visitor, CursorContext cursorContext )
+    {
+        throw new UnsupportedOperationException( "No column for property " + propertyKey + " of nodes with label " + label );
+    }
+
     /**
      * Get a lock-free snapshot of the current schema, for inspecting the current schema when no mutations are intended.
      * <p>
@@ -103,9 +103,9 @@ public class ValueIndexEntryUpdate<INDEX_KEY extends SchemaDescriptorSupplier> e
 
     private static void validateValuesLength( SchemaDescriptorSupplier indexKey, Value[] before, Value[] values )
     {
-        // we do not support partial index entries
-        assert indexKey.schema().getPropertyIds().length == values.length :
-                format( "ValueIndexEntryUpdate values must be of same length as index compositeness. " +
+        // we do not support partial index entries, included property values trail the key values
+        assert indexKey.schema().getPropertyIds().length + indexKey.includedPropertyIds().length == values.length :
+                format( "ValueIndexEntryUpdate values must be of same length as index compositeness plus included properties. " +
                         "Index on %s, but got values %s", indexKey.schema().toString(), Arrays.toString( values ) );
         assert before == null || before.length == values.length;
     }
@@ -24,13 +24,17 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
 import org.neo4j.util.Preconditions;
 
 /**
- * Changes to counts, kept as {@link AtomicLong} to allow for concurrent threads incrementing/decrementing.
+ * Changes to counts, kept as {@link LongAdder} to allow for concurrent threads incrementing/decrementing. A {@link LongAdder} keeps
+ * a number of striped cells which concurrent threads tend to add their deltas to separately, which avoids many committing transactions
+ * contending on the same counter for popular keys, e.g. the counts of a common label or relationship type. The cells are summed when
+ * the count is read, or written to the backing tree.
  * As part of checkpoint a new instance is created and the old (now immutable) instance accessible to read from while those counts are written to
  * the backing tree.
  */
@@ -38,15 +42,15 @@ class CountsChanges
 {
     static final long ABSENT = -1;
 
-    private final ConcurrentHashMap<CountsKey,AtomicLong> changes = new ConcurrentHashMap<>();
-    private volatile ConcurrentHashMap<CountsKey,AtomicLong> previousChanges;
+    private final ConcurrentHashMap<CountsKey,LongAdder> changes = new ConcurrentHashMap<>();
+    private volatile ConcurrentHashMap<CountsKey,LongAdder> previousChanges;
     private volatile boolean frozen;
 
     CountsChanges()
     {
     }
 
-    private CountsChanges( ConcurrentHashMap<CountsKey,AtomicLong> previousChanges )
+    private CountsChanges( ConcurrentHashMap<CountsKey,LongAdder> previousChanges )
     {
         this.previousChanges = previousChanges;
     }
@@ -77,30 +81,35 @@ class CountsChanges
      * @param delta the delta for the count, can be positive or negative.
      * @param defaultToStoredCount where to read the absolute count if it isn't already loaded into this instance (or the "old" instance).
      */
-    void add( CountsKey key, long delta, Function<CountsKey,AtomicLong> defaultToStoredCount )
+    void add( CountsKey key, long delta, ToLongFunction<CountsKey> defaultToStoredCount )
     {
         Preconditions.checkState( !frozen, "Can't make changes in a frozen state" );
-        getCounter( key, defaultToStoredCount ).addAndGet( delta );
+        getCounter( key, defaultToStoredCount ).add( delta );
     }
 
-    private AtomicLong getCounter( CountsKey key, Function<CountsKey,AtomicLong> defaultToStoredCount )
+    private LongAdder getCounter( CountsKey key, ToLongFunction<CountsKey> defaultToStoredCount )
     {
-        ConcurrentHashMap<CountsKey,AtomicLong> prev = previousChanges;
-        Function<CountsKey,AtomicLong> defaultFunction = prev == null ? defaultToStoredCount : k ->
+        // Most updates are to keys that are already loaded, look those up without going through computeIfAbsent, which may lock
+        LongAdder counter = changes.get( key );
+        if ( counter != null )
         {
-            AtomicLong prevCount = prev.get( k );
-            if ( prevCount != null )
-            {
-                return new AtomicLong( prevCount.get() );
-            }
-            return defaultToStoredCount.apply( k );
+            return counter;
+        }
+
+        ConcurrentHashMap<CountsKey,LongAdder> prev = previousChanges;
+        Function<CountsKey,LongAdder> defaultFunction = k ->
+        {
+            LongAdder prevCount = prev != null ? prev.get( k ) : null;
+            LongAdder count = new LongAdder();
+            count.add( prevCount != null ? prevCount.sum() : defaultToStoredCount.applyAsLong( k ) );
+            return count;
         };
         return changes.computeIfAbsent( key, defaultFunction );
     }
 
-    Iterable<Map.Entry<CountsKey,AtomicLong>> sortedChanges( Comparator<CountsKey> comparator )
+    Iterable<Map.Entry<CountsKey,LongAdder>> sortedChanges( Comparator<CountsKey> comparator )
     {
-        List<Map.Entry<CountsKey,AtomicLong>> sortedChanges = new ArrayList<>( changes.entrySet() );
+        List<Map.Entry<CountsKey,LongAdder>> sortedChanges = new ArrayList<>( changes.entrySet() );
         sortedChanges.sort( ( e1, e2 ) -> comparator.compare( e1.getKey(), e2.getKey() ) );
         return sortedChanges;
     }
@@ -115,7 +124,7 @@ class CountsChanges
         {
             return true;
         }
-        ConcurrentHashMap<CountsKey,AtomicLong> prev = previousChanges;
+        ConcurrentHashMap<CountsKey,LongAdder> prev = previousChanges;
         return prev != null && prev.containsKey( key );
     }
 
@@ -126,18 +135,18 @@ class CountsChanges
      */
     long get( CountsKey key )
     {
-        AtomicLong count = changes.get( key );
+        LongAdder count = changes.get( key );
         if ( count != null )
         {
-            return count.get();
+            return count.sum();
         }
-        ConcurrentHashMap<CountsKey,AtomicLong> prev = previousChanges;
+        ConcurrentHashMap<CountsKey,LongAdder> prev = previousChanges;
         if ( prev != null )
         {
-            AtomicLong prevCount = prev.get( key );
+            LongAdder prevCount = prev.get( key );
             if ( prevCount != null )
             {
-                return prevCount.get();
+                return prevCount.sum();
             }
         }
         return ABSENT;
@@ -22,8 +22,6 @@ package org.neo4j.internal.counts;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.Comparator;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.function.Function;
 import java.util.function.ToLongFunction;
 
 import org.neo4j.function.ThrowingSupplier;
@@ -38,7 +36,7 @@ import org.neo4j.logging.LogProvider;
 class DeltaTreeWriter implements CountUpdater.CountWriter
 {
     private final ThrowingSupplier<Writer<CountsKey,CountsValue>,IOException> treeWriter;
-    private final Function<CountsKey,AtomicLong> defaultToStoredCount;
+    private final ToLongFunction<CountsKey> defaultToStoredCount;
     private final Comparator<CountsKey> comparator;
     private final int maxCacheSize;
     private final LogProvider userLogProvider;
@@ -49,7 +47,7 @@ class DeltaTreeWriter implements CountUpdater.CountWriter
             Comparator<CountsKey> comparator, int maxCacheSize, LogProvider userLogProvider )
     {
         this.treeWriter = treeWriter;
-        this.defaultToStoredCount = k -> new AtomicLong( lookup.applyAsLong( k ) );
+        this.defaultToStoredCount = lookup;
         this.comparator = comparator;
         this.maxCacheSize = maxCacheSize;
         this.userLogProvider = userLogProvider;
@@ -74,7 +72,7 @@ class DeltaTreeWriter implements CountUpdater.CountWriter
     {
         try ( TreeWriter writer = new TreeWriter( treeWriter.get(), userLogProvider ) )
         {
-            changes.sortedChanges( comparator ).forEach( entry -> writer.write( entry.getKey(), entry.getValue().get() ) );
+            changes.sortedChanges( comparator ).forEach( entry -> writer.write( entry.getKey(), entry.getValue().sum() ) );
         }
         catch ( IOException e )
         {
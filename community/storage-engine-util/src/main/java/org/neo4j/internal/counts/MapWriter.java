@@ -20,8 +20,6 @@
 package org.neo4j.internal.counts;
 
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.function.Function;
 import java.util.function.ToLongFunction;
 
 import org.neo4j.util.concurrent.OutOfOrderSequence;
@@ -37,14 +35,14 @@ public class MapWriter implements CountUpdater.CountWriter
     private final CountsChanges changes;
     private final OutOfOrderSequence idSequence;
     private final long txId;
-    private final Function<CountsKey,AtomicLong> defaultToStoredCount;
+    private final ToLongFunction<CountsKey> defaultToStoredCount;
 
     MapWriter( ToLongFunction<CountsKey> storeLookup, CountsChanges changes, OutOfOrderSequence idSequence, long txId )
     {
         this.changes = changes;
         this.idSequence = idSequence;
         this.txId = txId;
-        defaultToStoredCount = k -> new AtomicLong( storeLookup.applyAsLong( k ) );
+        defaultToStoredCount = storeLookup;
     }
 
     @Override
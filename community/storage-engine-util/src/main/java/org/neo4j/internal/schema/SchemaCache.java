@@ -408,8 +408,49 @@ public class SchemaCache
             {
                 return result;
             }
-            return indexCache.computeIfAbsent( key,
-                    k -> getSchemaRelatedTo( set, changedEntityTokens, unchangedEntityTokens, properties, propertyListIsComplete ) );
+            return indexCache.computeIfAbsent( key, k ->
+            {
+                Set<IndexDescriptor> related = getSchemaRelatedTo( set, changedEntityTokens, unchangedEntityTokens, properties, propertyListIsComplete );
+                addIndexesWithChangedIncludedProperties( related, entityType, unchangedEntityTokens, properties );
+                return related;
+            } );
+        }
+
+        /**
+         * Included properties are not part of the index schema, so the lookup set doesn't know about them. A change to only an included property
+         * of an otherwise unchanged entity must still reach the index to keep its stored values up to date.
+         */
+        private void addIndexesWithChangedIncludedProperties( Set<IndexDescriptor> related, EntityType entityType, long[] unchangedEntityTokens,
+                int[] properties )
+        {
+            if ( properties.length == 0 || unchangedEntityTokens.length == 0 )
+            {
+                return;
+            }
+            for ( IndexDescriptor index : indexesById.values() )
+            {
+                int[] includedPropertyIds = index.includedPropertyIds();
+                if ( includedPropertyIds.length > 0 && index.schema().entityType() == entityType && index.schema().isAffected( unchangedEntityTokens ) &&
+                        containsAny( includedPropertyIds, properties ) )
+                {
+                    related.add( index );
+                }
+            }
+        }
+
+        private static boolean containsAny( int[] propertyIds, int[] candidates )
+        {
+            for ( int propertyId : propertyIds )
+            {
+                for ( int candidate : candidates )
+                {
+                    if ( propertyId == candidate )
+                    {
+                        return true;
+                    }
+                }
+            }
+            return false;
         }
 
         Set<IndexBackedConstraintDescriptor> getUniquenessConstraintsRelatedTo( EntityType entityType, long[] changedEntityTokens,
@@ -33,8 +33,8 @@ import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.function.Function;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
 
 import org.neo4j.test.Race;
 import org.neo4j.test.RandomSupport;
@@ -53,7 +53,7 @@ class CountsChangesTest
     @Inject
     private RandomSupport random;
 
-    private static final Function<CountsKey,AtomicLong> NOT_STORED = key -> new AtomicLong();
+    private static final ToLongFunction<CountsKey> NOT_STORED = key -> 0;
 
     @Test
     void shouldReturnAbsentIfNoCountAndNotStored()
@@ -288,7 +288,7 @@ class CountsChangesTest
         for ( int i = 0; i < 100; i++ )
         {
             CountsKey key = randomKey( random.random() );
-            changes.add( key, 1, k -> new AtomicLong() );
+            changes.add( key, 1, k -> 0 );
             expectedChangesSet.add( key );
         }
         CountsLayout comparator = new CountsLayout();
@@ -296,11 +296,11 @@ class CountsChangesTest
         expectedChanges.sort( comparator );
 
         // when
-        Iterable<Map.Entry<CountsKey,AtomicLong>> sortedChanges = changes.sortedChanges( comparator );
+        Iterable<Map.Entry<CountsKey,LongAdder>> sortedChanges = changes.sortedChanges( comparator );
 
         // then
         Iterator<CountsKey> expectedChangesIterator = expectedChanges.iterator();
-        for ( Map.Entry<CountsKey,AtomicLong> change : sortedChanges )
+        for ( Map.Entry<CountsKey,LongAdder> change : sortedChanges )
         {
             CountsKey expectedChange = expectedChangesIterator.next();
             assertThat( comparator.compare( expectedChange, change.getKey() ) ).isEqualTo( 0 );
@@ -317,12 +317,12 @@ class CountsChangesTest
         return random.nextInt( 20 );
     }
 
-    private static Function<CountsKey,AtomicLong> stored( long count )
+    private static ToLongFunction<CountsKey> stored( long count )
     {
-        return key -> new AtomicLong( count );
+        return key -> count;
     }
 
-    private static class InMemoryCountsStore implements Function<CountsKey,AtomicLong>
+    private static class InMemoryCountsStore implements ToLongFunction<CountsKey>
     {
         private final ConcurrentHashMap<CountsKey,Long> counts = new ConcurrentHashMap<>();
 
@@ -332,9 +332,9 @@ class CountsChangesTest
         }
 
         @Override
-        public AtomicLong apply( CountsKey countsKey )
+        public long applyAsLong( CountsKey countsKey )
         {
-            return new AtomicLong( counts.getOrDefault( countsKey, 0L ) );
+            return counts.getOrDefault( countsKey, 0L );
         }
     }
 }
@@ -27,6 +27,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker;
 import org.neo4j.counts.CountsAccessor;
@@ -37,6 +38,7 @@ import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.logging.NullLogProvider;
 import org.neo4j.memory.MemoryTracker;
 import org.neo4j.storageengine.api.cursor.StoreCursors;
+import org.neo4j.test.Race;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.pagecache.PageCacheExtension;
 import org.neo4j.test.utils.TestDirectory;
@@ -54,6 +56,7 @@ import static org.neo4j.internal.counts.GBPTreeCountsStore.relationshipKey;
 import static org.neo4j.io.pagecache.context.CursorContext.NULL;
 import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
 import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_ID;
+import static org.neo4j.test.Race.throwing;
 
 @PageCacheExtension
 class GBPTreeCountsStoreTest
@@ -124,6 +127,46 @@ class GBPTreeCountsStoreTest
         assertEquals( 5, countsStore.relationshipCount( LABEL_ID_1, RELATIONSHIP_TYPE_ID_2, LABEL_ID_2, NULL ) );
     }
 
+    @Test
+    void shouldKeepCorrectCountsWithManyConcurrentWritersOnSameKeys() throws Throwable
+    {
+        // given
+        int numberOfWriters = 64;
+        int transactionsPerWriter = 200;
+        AtomicLong nextTxId = new AtomicLong( BASE_TX_ID );
+
+        // when all writers hammer the same label and relationship type counts
+        Race race = new Race();
+        race.addContestants( numberOfWriters, throwing( () ->
+        {
+            for ( int i = 0; i < transactionsPerWriter; i++ )
+            {
+                try ( CountsAccessor.Updater updater = countsStore.apply( nextTxId.incrementAndGet(), NULL ) )
+                {
+                    updater.incrementNodeCount( LABEL_ID_1, 2 );
+                    updater.incrementNodeCount( LABEL_ID_2, 3 );
+                    updater.incrementNodeCount( LABEL_ID_2, -1 );
+                    updater.incrementRelationshipCount( LABEL_ID_1, RELATIONSHIP_TYPE_ID_1, LABEL_ID_2, 1 );
+                }
+            }
+        } ) );
+        race.go();
+
+        // then
+        long numberOfTransactions = (long) numberOfWriters * transactionsPerWriter;
+        assertEquals( 2 * numberOfTransactions, countsStore.nodeCount( LABEL_ID_1, NULL ) );
+        assertEquals( 2 * numberOfTransactions, countsStore.nodeCount( LABEL_ID_2, NULL ) );
+        assertEquals( numberOfTransactions, countsStore.relationshipCount( LABEL_ID_1, RELATIONSHIP_TYPE_ID_1, LABEL_ID_2, NULL ) );
+
+        // and when
+        checkpointAndRestartCountsStore();
+
+        // then
+        assertEquals( 2 * numberOfTransactions, countsStore.nodeCount( LABEL_ID_1, NULL ) );
+        assertEquals( 2 * numberOfTransactions, countsStore.nodeCount( LABEL_ID_2, NULL ) );
+        assertEquals( numberOfTransactions, countsStore.relationshipCount( LABEL_ID_1, RELATIONSHIP_TYPE_ID_1, LABEL_ID_2, NULL ) );
+    }
+
     @Test
     void shouldUseCountsBuilderOnCreation() throws Exception
     {
@@ -36,6 +36,7 @@ import org.neo4j.storageengine.api.StandardConstraintRuleAccessor;
 import org.neo4j.test.Race;
 import org.neo4j.util.Preconditions;
 import org.neo4j.values.storable.ValueCategory;
+import org.neo4j.values.storable.Values;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.singleton;
@@ -589,6 +590,18 @@ class SchemaCacheTest
                 node35_8 );
     }
 
+    @Test
+    void shouldGetRelatedIndexForChangedIncludedProperty()
+    {
+        IndexDescriptor covering = IndexPrototype.forSchema( forLabel( 3, 4 ) ).withName( "covering" ).withIndexType( IndexType.RANGE )
+                .withIndexConfig( IndexConfig.with( IndexDescriptor.INCLUDED_PROPERTIES, Values.intArray( new int[]{9} ) ) ).materialise( 20 );
+        SchemaCache cache = newSchemaCache( schema3_4, covering );
+
+        assertThat( cache.getValueIndexesRelatedTo( noEntityToken, entityTokens( 3 ), properties( 9 ), false, NODE ) ).containsExactly( covering );
+        assertThat( cache.getValueIndexesRelatedTo( noEntityToken, entityTokens( 5 ), properties( 9 ), false, NODE ) ).isEmpty();
+        assertThat( cache.getValueIndexesRelatedTo( noEntityToken, entityTokens( 3 ), properties( 9 ), false, RELATIONSHIP ) ).isEmpty();
+    }
+
     @Test
     void shouldOnlyGetRelIndexesForRelUpdates()
     {
@@ -260,6 +260,20 @@ public class StubRead implements Read
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public void nodeProperties( long[] nodeReferences, PropertySelection selection, NodeCursor nodeCursor, PropertyCursor propertyCursor,
+            Value[][] columns )
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void relationshipProperties( long[] relationshipReferences, PropertySelection selection, RelationshipScanCursor relationshipCursor,
+            PropertyCursor propertyCursor, Value[][] columns )
+    {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public boolean nodeDeletedInTransaction( long node )
     {